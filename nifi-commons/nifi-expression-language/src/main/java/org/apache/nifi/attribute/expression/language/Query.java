@@ -21,13 +21,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.nifi.attribute.expression.language.antlr.AttributeExpressionLexer;
 import org.apache.nifi.attribute.expression.language.antlr.AttributeExpressionParser;
 import org.apache.nifi.attribute.expression.language.evaluation.BooleanEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.DateEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.NumberEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.StringEvaluator;
@@ -216,7 +216,6 @@ public class Query {
     private final String query;
     private final Tree tree;
     private final Evaluator<?> evaluator;
-    private final AtomicBoolean evaluated = new AtomicBoolean(false);
 
     private Query(final String query, final Tree tree, final Evaluator<?> evaluator) {
         this.query = query;
@@ -374,8 +373,8 @@ public class Query {
         return -1;
     }
 
-    static String evaluateExpression(final Tree tree, final String queryText, final Map<String, String> valueMap, final AttributeValueDecorator decorator) throws ProcessException {
-        final Object evaluated = Query.fromTree(tree, queryText).evaluate(valueMap).getValue();
+    static String evaluateExpression(final Query query, final Map<String, String> valueMap, final AttributeValueDecorator decorator) throws ProcessException {
+        final Object evaluated = query.evaluate(valueMap).getValue();
         if (evaluated == null) {
             return null;
         }
@@ -552,12 +551,15 @@ public class Query {
         return evaluator.getResultType();
     }
 
+    /**
+     * Evaluates the Query against the given attributes. The Evaluators that make up the Query do not hold
+     * any state of their own, so a Query may be evaluated any number of times and by multiple threads concurrently.
+     *
+     * @param map the attributes to evaluate the Query against
+     * @return the result of the evaluation
+     */
     QueryResult<?> evaluate(final Map<String, String> map) {
-        if (evaluated.getAndSet(true)) {
-            throw new IllegalStateException("A Query cannot be evaluated more than once");
-        }
-
-        return evaluator.evaluate(map);
+        return evaluator.evaluate(map, new EvaluatorState());
     }
 
     Tree getTree() {
@@ -635,7 +637,7 @@ public class Query {
 
                 final List<String> attributeNames = new ArrayList<>();
                 for (int i = 1; i < tree.getChildCount(); i++) {  // skip the first child because that's the name of the multi-attribute function
-                    attributeNames.add(newStringLiteralEvaluator(tree.getChild(i).getText()).evaluate(null).getValue());
+                    attributeNames.add(newStringLiteralEvaluator(tree.getChild(i).getText()).evaluate(null, new EvaluatorState()).getValue());
                 }
 
                 switch (multiAttrType) {
@@ -16,8 +16,6 @@
  */
 package org.apache.nifi.attribute.expression.language;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,26 +24,39 @@ import org.apache.nifi.processor.exception.ProcessException;
 
 import org.antlr.runtime.tree.Tree;
 
+/**
+ * A PreparedQuery whose Evaluators are built once, when the query is prepared. The Evaluators hold no
+ * per-evaluation state, so the same instance can be evaluated repeatedly and by many threads concurrently
+ * without rebuilding the Evaluator graph from the parsed tree.
+ */
 public class StandardPreparedQuery implements PreparedQuery {
 
-    private final List<String> queryStrings;
-    private final Map<String, Tree> trees;
+    private final String[] queryStrings;
+    private final Query[] queries;
 
     public StandardPreparedQuery(final List<String> queryStrings, final Map<String, Tree> trees) {
-        this.queryStrings = new ArrayList<>(queryStrings);
-        this.trees = new HashMap<>(trees);
+        this.queryStrings = queryStrings.toArray(new String[queryStrings.size()]);
+        this.queries = new Query[this.queryStrings.length];
+
+        for (int i = 0; i < this.queryStrings.length; i++) {
+            final String val = this.queryStrings[i];
+            final Tree tree = trees.get(val);
+            if (tree != null) {
+                queries[i] = Query.fromTree(tree, val);
+            }
+        }
     }
 
 
     @Override
     public String evaluateExpressions(final Map<String, String> valueMap, final AttributeValueDecorator decorator) throws ProcessException {
         final StringBuilder sb = new StringBuilder();
-        for (final String val : queryStrings) {
-            final Tree tree = trees.get(val);
-            if (tree == null) {
-                sb.append(val);
+        for (int i = 0; i < queryStrings.length; i++) {
+            final Query query = queries[i];
+            if (query == null) {
+                sb.append(queryStrings[i]);
             } else {
-                final String evaluated = Query.evaluateExpression(tree, val, valueMap, decorator);
+                final String evaluated = Query.evaluateExpression(query, valueMap, decorator);
                 if (evaluated != null) {
                     sb.append(evaluated);
                 }
@@ -22,11 +22,11 @@ import org.apache.nifi.expression.AttributeExpression.ResultType;
 
 public interface Evaluator<T> {
 
-    QueryResult<T> evaluate(Map<String, String> attributes);
+    QueryResult<T> evaluate(Map<String, String> attributes, EvaluatorState context);
 
     ResultType getResultType();
 
-    int getEvaluationsRemaining();
+    int getEvaluationsRemaining(EvaluatorState context);
 
     Evaluator<?> getSubjectEvaluator();
 
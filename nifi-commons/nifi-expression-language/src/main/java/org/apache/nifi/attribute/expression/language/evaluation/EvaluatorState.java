@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.attribute.expression.language.evaluation;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Holds the state that an {@link Evaluator} needs to keep across the calls made to it during a single
+ * evaluation of an expression (for example, the number of attributes that have already been iterated over
+ * by a multi-attribute evaluator). Keeping this state outside of the Evaluators allows a compiled Evaluator
+ * graph to be shared between threads and reused for every evaluation. A new instance must be created for
+ * each evaluation, and an instance is not thread-safe.
+ */
+public class EvaluatorState {
+
+    private Map<Evaluator<?>, Object> statePerEvaluator;
+
+    /**
+     * @param evaluator the evaluator whose state should be returned
+     * @param clazz the type of the state
+     * @param <T> the type of the state
+     * @return the state that was stored for the given evaluator, or <code>null</code> if no state has been stored yet
+     */
+    public <T> T getState(final Evaluator<?> evaluator, final Class<T> clazz) {
+        if (statePerEvaluator == null) {
+            return null;
+        }
+
+        return clazz.cast(statePerEvaluator.get(evaluator));
+    }
+
+    /**
+     * Stores the given state for the given evaluator, replacing any state that was previously stored
+     *
+     * @param evaluator the evaluator whose state is being stored
+     * @param state the state to store
+     */
+    public void putState(final Evaluator<?> evaluator, final Object state) {
+        if (statePerEvaluator == null) {
+            // Most expressions never use per-evaluation state, so avoid creating the map until it is needed
+            statePerEvaluator = new IdentityHashMap<>(4);
+        }
+
+        statePerEvaluator.put(evaluator, state);
+    }
+}
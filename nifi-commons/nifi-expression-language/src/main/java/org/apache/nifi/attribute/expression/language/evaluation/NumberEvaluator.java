@@ -27,7 +27,7 @@ public abstract class NumberEvaluator implements Evaluator<Long> {
     }
 
     @Override
-    public int getEvaluationsRemaining() {
+    public int getEvaluationsRemaining(final EvaluatorState context) {
         return 0;
     }
 
@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.apache.nifi.attribute.expression.language.evaluation.DateEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.NumberEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.NumberQueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
@@ -34,8 +35,8 @@ public class DateToNumberEvaluator extends NumberEvaluator {
     }
 
     @Override
-    public QueryResult<Long> evaluate(final Map<String, String> attributes) {
-        final QueryResult<Date> subjectResult = subjectEvaluator.evaluate(attributes);
+    public QueryResult<Long> evaluate(final Map<String, String> attributes, final EvaluatorState context) {
+        final QueryResult<Date> subjectResult = subjectEvaluator.evaluate(attributes, context);
         if (subjectResult.getValue() == null) {
             return new NumberQueryResult(null);
         }
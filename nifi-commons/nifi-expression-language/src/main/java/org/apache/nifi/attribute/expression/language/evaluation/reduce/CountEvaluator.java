@@ -19,6 +19,7 @@ package org.apache.nifi.attribute.expression.language.evaluation.reduce;
 import java.util.Map;
 
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.NumberEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.NumberQueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
@@ -27,25 +28,30 @@ import org.apache.nifi.expression.AttributeExpression.ResultType;
 public class CountEvaluator extends NumberEvaluator implements ReduceEvaluator<Long> {
 
     private final Evaluator<?> subjectEvaluator;
-    private long count = 0L;
 
     public CountEvaluator(final Evaluator<?> subjectEvaluator) {
         this.subjectEvaluator = subjectEvaluator;
     }
 
     @Override
-    public QueryResult<Long> evaluate(final Map<String, String> attributes) {
-        final QueryResult<?> result = subjectEvaluator.evaluate(attributes);
+    public QueryResult<Long> evaluate(final Map<String, String> attributes, final EvaluatorState context) {
+        CountState state = context.getState(this, CountState.class);
+        if (state == null) {
+            state = new CountState();
+            context.putState(this, state);
+        }
+
+        final QueryResult<?> result = subjectEvaluator.evaluate(attributes, context);
         if (result.getValue() == null) {
-            return new NumberQueryResult(count);
+            return new NumberQueryResult(state.count);
         }
 
         if (result.getResultType() == ResultType.BOOLEAN && ((Boolean) result.getValue()).equals(Boolean.FALSE)) {
-            return new NumberQueryResult(count);
+            return new NumberQueryResult(state.count);
         }
 
-        count++;
-        return new NumberQueryResult(count);
+        state.count++;
+        return new NumberQueryResult(state.count);
     }
 
     @Override
@@ -53,4 +59,7 @@ public class CountEvaluator extends NumberEvaluator implements ReduceEvaluator<L
         return subjectEvaluator;
     }
 
+    private static class CountState {
+        private long count = 0L;
+    }
 }
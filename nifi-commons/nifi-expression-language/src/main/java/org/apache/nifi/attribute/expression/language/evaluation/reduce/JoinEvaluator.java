@@ -19,6 +19,7 @@ package org.apache.nifi.attribute.expression.language.evaluation.reduce;
 import java.util.Map;
 
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.StringEvaluator;
 import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResult;
@@ -28,33 +29,41 @@ public class JoinEvaluator extends StringEvaluator implements ReduceEvaluator<St
     private final Evaluator<String> subjectEvaluator;
     private final Evaluator<String> delimiterEvaluator;
 
-    private final StringBuilder sb = new StringBuilder();
-    private int evalCount = 0;
-
     public JoinEvaluator(final Evaluator<String> subject, final Evaluator<String> delimiter) {
         this.subjectEvaluator = subject;
         this.delimiterEvaluator = delimiter;
     }
 
     @Override
-    public QueryResult<String> evaluate(final Map<String, String> attributes) {
-        String subject = subjectEvaluator.evaluate(attributes).getValue();
+    public QueryResult<String> evaluate(final Map<String, String> attributes, final EvaluatorState context) {
+        String subject = subjectEvaluator.evaluate(attributes, context).getValue();
         if (subject == null) {
             subject = "";
         }
 
-        final String delimiter = delimiterEvaluator.evaluate(attributes).getValue();
-        if (evalCount > 0) {
-            sb.append(delimiter);
+        JoinState state = context.getState(this, JoinState.class);
+        if (state == null) {
+            state = new JoinState();
+            context.putState(this, state);
+        }
+
+        final String delimiter = delimiterEvaluator.evaluate(attributes, context).getValue();
+        if (state.evalCount > 0) {
+            state.sb.append(delimiter);
         }
-        sb.append(subject);
+        state.sb.append(subject);
 
-        evalCount++;
-        return new StringQueryResult(sb.toString());
+        state.evalCount++;
+        return new StringQueryResult(state.sb.toString());
     }
 
     @Override
     public Evaluator<?> getSubjectEvaluator() {
         return subjectEvaluator;
     }
+
+    private static class JoinState {
+        private final StringBuilder sb = new StringBuilder();
+        private int evalCount = 0;
+    }
 }
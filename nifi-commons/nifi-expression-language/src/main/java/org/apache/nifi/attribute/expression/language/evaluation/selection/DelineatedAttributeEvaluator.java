@@ -19,6 +19,7 @@ package org.apache.nifi.attribute.expression.language.evaluation.selection;
 import java.util.Map;
 
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResult;
 
@@ -27,9 +28,6 @@ public class DelineatedAttributeEvaluator extends MultiAttributeEvaluator {
     private final Evaluator<String> subjectEvaluator;
     private final Evaluator<String> delimiterEvaluator;
     private final int evaluationType;
-    private String[] delineatedValues;
-    private int evaluationCount = 0;
-    private int evaluationsLeft = 1;
 
     public DelineatedAttributeEvaluator(final Evaluator<String> subjectEvaluator, final Evaluator<String> delimiterEvaluator, final int evaluationType) {
         this.subjectEvaluator = subjectEvaluator;
@@ -38,31 +36,37 @@ public class DelineatedAttributeEvaluator extends MultiAttributeEvaluator {
     }
 
     @Override
-    public QueryResult<String> evaluate(final Map<String, String> attributes) {
-        if (delineatedValues == null) {
-            final QueryResult<String> subjectValue = subjectEvaluator.evaluate(attributes);
+    public QueryResult<String> evaluate(final Map<String, String> attributes, final EvaluatorState context) {
+        DelineatedState state = context.getState(this, DelineatedState.class);
+        if (state == null) {
+            state = new DelineatedState();
+            context.putState(this, state);
+        }
+
+        if (state.delineatedValues == null) {
+            final QueryResult<String> subjectValue = subjectEvaluator.evaluate(attributes, context);
             if (subjectValue.getValue() == null) {
-                evaluationsLeft = 0;
+                state.evaluationsLeft = 0;
                 return new StringQueryResult(null);
             }
 
-            final QueryResult<String> delimiterValue = delimiterEvaluator.evaluate(attributes);
+            final QueryResult<String> delimiterValue = delimiterEvaluator.evaluate(attributes, context);
             if (subjectValue.getValue() == null) {
-                evaluationsLeft = 0;
+                state.evaluationsLeft = 0;
                 return new StringQueryResult(null);
             }
 
-            delineatedValues = subjectValue.getValue().split(delimiterValue.getValue());
+            state.delineatedValues = subjectValue.getValue().split(delimiterValue.getValue());
         }
 
-        if (evaluationCount > delineatedValues.length) {
-            evaluationsLeft = 0;
+        if (state.evaluationCount > state.delineatedValues.length) {
+            state.evaluationsLeft = 0;
             return new StringQueryResult(null);
         }
 
-        evaluationsLeft = delineatedValues.length - evaluationCount - 1;
+        state.evaluationsLeft = state.delineatedValues.length - state.evaluationCount - 1;
 
-        return new StringQueryResult(delineatedValues[evaluationCount++]);
+        return new StringQueryResult(state.delineatedValues[state.evaluationCount++]);
     }
 
     @Override
@@ -71,8 +75,9 @@ public class DelineatedAttributeEvaluator extends MultiAttributeEvaluator {
     }
 
     @Override
-    public int getEvaluationsRemaining() {
-        return evaluationsLeft;
+    public int getEvaluationsRemaining(final EvaluatorState context) {
+        final DelineatedState state = context.getState(this, DelineatedState.class);
+        return state == null ? 1 : state.evaluationsLeft;
     }
 
     @Override
@@ -84,4 +89,10 @@ public class DelineatedAttributeEvaluator extends MultiAttributeEvaluator {
     public int getEvaluationType() {
         return evaluationType;
     }
+
+    private static class DelineatedState {
+        private String[] delineatedValues;
+        private int evaluationCount = 0;
+        private int evaluationsLeft = 1;
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.nifi.attribute.expression.language.evaluation.selection;
 import java.util.Map;
 
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.reduce.ReduceEvaluator;
 import org.apache.nifi.expression.AttributeExpression.ResultType;
@@ -34,11 +35,11 @@ public class MappingEvaluator<T> implements Evaluator<T> {
     }
 
     @Override
-    public QueryResult<T> evaluate(final Map<String, String> attributes) {
-        QueryResult<T> result = mappingEvaluator.evaluate(attributes);
+    public QueryResult<T> evaluate(final Map<String, String> attributes, final EvaluatorState context) {
+        QueryResult<T> result = mappingEvaluator.evaluate(attributes, context);
 
-        while (multiAttributeEvaluator.getEvaluationsRemaining() > 0) {
-            result = mappingEvaluator.evaluate(attributes);
+        while (multiAttributeEvaluator.getEvaluationsRemaining(context) > 0) {
+            result = mappingEvaluator.evaluate(attributes, context);
         }
 
         return result;
@@ -50,7 +51,7 @@ public class MappingEvaluator<T> implements Evaluator<T> {
     }
 
     @Override
-    public int getEvaluationsRemaining() {
+    public int getEvaluationsRemaining(final EvaluatorState context) {
         return 0;
     }
 
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResult;
 
@@ -29,8 +30,6 @@ public class MultiMatchAttributeEvaluator extends MultiAttributeEvaluator {
 
     private final List<Pattern> attributePatterns;
     private final int evaluationType;
-    private final List<String> attributeNames = new ArrayList<>();
-    private int evaluationCount = 0;
 
     public MultiMatchAttributeEvaluator(final List<String> attributeRegexes, final int evaluationType) {
         this.attributePatterns = new ArrayList<>();
@@ -47,27 +46,31 @@ public class MultiMatchAttributeEvaluator extends MultiAttributeEvaluator {
      * @return number of remaining evaluations
      */
     @Override
-    public int getEvaluationsRemaining() {
-        return attributeNames.size() - evaluationCount;
+    public int getEvaluationsRemaining(final EvaluatorState context) {
+        final MatchState state = context.getState(this, MatchState.class);
+        return state == null ? 0 : state.attributeNames.size() - state.evaluationCount;
     }
 
     @Override
-    public QueryResult<String> evaluate(final Map<String, String> attributes) {
-        if (evaluationCount == 0) {
+    public QueryResult<String> evaluate(final Map<String, String> attributes, final EvaluatorState context) {
+        MatchState state = context.getState(this, MatchState.class);
+        if (state == null) {
+            state = new MatchState();
             for (final Pattern pattern : attributePatterns) {
                 for (final String attrName : attributes.keySet()) {
                     if (pattern.matcher(attrName).matches()) {
-                        attributeNames.add(attrName);
+                        state.attributeNames.add(attrName);
                     }
                 }
             }
+            context.putState(this, state);
         }
 
-        if (evaluationCount >= attributeNames.size()) {
+        if (state.evaluationCount >= state.attributeNames.size()) {
             return new StringQueryResult(null);
         }
 
-        return new StringQueryResult(attributes.get(attributeNames.get(evaluationCount++)));
+        return new StringQueryResult(attributes.get(state.attributeNames.get(state.evaluationCount++)));
     }
 
     @Override
@@ -84,4 +87,9 @@ public class MultiMatchAttributeEvaluator extends MultiAttributeEvaluator {
     public Evaluator<?> getLogicEvaluator() {
         return this;
     }
+
+    private static class MatchState {
+        private final List<String> attributeNames = new ArrayList<>();
+        private int evaluationCount = 0;
+    }
 }
@@ -16,11 +16,11 @@
  */
 package org.apache.nifi.attribute.expression.language.evaluation.selection;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.nifi.attribute.expression.language.evaluation.Evaluator;
+import org.apache.nifi.attribute.expression.language.evaluation.EvaluatorState;
 import org.apache.nifi.attribute.expression.language.evaluation.QueryResult;
 import org.apache.nifi.attribute.expression.language.evaluation.StringQueryResult;
 
@@ -28,8 +28,6 @@ public class MultiNamedAttributeEvaluator extends MultiAttributeEvaluator {
 
     private final List<String> attributeNames;
     private final int evaluationType;
-    private int evaluationCount = 0;
-    private List<String> matchingAttributeNames = null;
 
     public MultiNamedAttributeEvaluator(final List<String> attributeNames, final int evaluationType) {
         this.attributeNames = attributeNames;
@@ -37,19 +35,24 @@ public class MultiNamedAttributeEvaluator extends MultiAttributeEvaluator {
     }
 
     @Override
-    public QueryResult<String> evaluate(final Map<String, String> attributes) {
-        matchingAttributeNames = new ArrayList<>(attributeNames);
+    public QueryResult<String> evaluate(final Map<String, String> attributes, final EvaluatorState context) {
+        EvaluationCount state = context.getState(this, EvaluationCount.class);
+        if (state == null) {
+            state = new EvaluationCount();
+            context.putState(this, state);
+        }
 
-        if (matchingAttributeNames.size() <= evaluationCount) {
+        if (attributeNames.size() <= state.count) {
             return new StringQueryResult(null);
         }
 
-        return new StringQueryResult(attributes.get(matchingAttributeNames.get(evaluationCount++)));
+        return new StringQueryResult(attributes.get(attributeNames.get(state.count++)));
     }
 
     @Override
-    public int getEvaluationsRemaining() {
-        return matchingAttributeNames.size() - evaluationCount;
+    public int getEvaluationsRemaining(final EvaluatorState context) {
+        final EvaluationCount state = context.getState(this, EvaluationCount.class);
+        return attributeNames.size() - (state == null ? 0 : state.count);
     }
 
     @Override
@@ -66,4 +69,8 @@ public class MultiNamedAttributeEvaluator extends MultiAttributeEvaluator {
     public Evaluator<?> getLogicEvaluator() {
         return this;
     }
+
+    private static class EvaluationCount {
+        private int count = 0;
+    }
 }
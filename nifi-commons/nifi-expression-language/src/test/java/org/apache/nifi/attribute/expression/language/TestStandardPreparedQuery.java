@@ -18,10 +18,17 @@ package org.apache.nifi.attribute.expression.language;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import org.antlr.runtime.tree.Tree;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -84,6 +91,76 @@ public class TestStandardPreparedQuery {
 
     }
 
+    @Test
+    public void testReducingFunctionsCanBeEvaluatedRepeatedly() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("a.1", "x");
+        attrs.put("a.2", "y");
+
+        final StandardPreparedQuery prepared = (StandardPreparedQuery) Query.prepare("${allMatchingAttributes('a\\..*'):count()}|${anyDelineatedValue('1,2,3', ','):equals('2')}");
+        for (int i = 0; i < 5; i++) {
+            assertEquals("2|true", prepared.evaluateExpressions(attrs, null));
+        }
+
+        final StandardPreparedQuery joined = (StandardPreparedQuery) Query.prepare("${allAttributes('a.1', 'a.2'):join('-')}");
+        for (int i = 0; i < 5; i++) {
+            assertEquals("x-y", joined.evaluateExpressions(attrs, null));
+        }
+    }
+
+    @Test
+    public void testConcurrentEvaluation() throws Exception {
+        final StandardPreparedQuery prepared = (StandardPreparedQuery) Query.prepare("${allMatchingAttributes('a\\..*'):count()}-${id}");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int threadIndex = t;
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        final Map<String, String> attrs = new HashMap<>();
+                        for (int i = 0; i <= threadIndex; i++) {
+                            attrs.put("a." + i, "value");
+                        }
+                        attrs.put("id", String.valueOf(threadIndex));
+
+                        for (int i = 0; i < 10000; i++) {
+                            assertEquals((threadIndex + 1) + "-" + threadIndex, prepared.evaluateExpressions(attrs, null));
+                        }
+                        return true;
+                    }
+                }));
+            }
+
+            for (final Future<Boolean> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPreparedEvaluatorsMatchRebuiltEvaluators() {
+        final Map<String, String> attrs = new HashMap<>();
+        attrs.put("filename", "file-1234.txt");
+        attrs.put("size", "1024");
+
+        final String expression = "${filename:substringBeforeLast('.'):toUpper():append('-'):append(${size:toNumber():plus(1)})}";
+        final Tree tree = Query.compileTree(expression);
+        final String rebuilt = Query.evaluateExpression(Query.fromTree(tree, expression), attrs, null);
+        assertEquals("FILE-1234-1025", rebuilt);
+
+        final StandardPreparedQuery prepared = (StandardPreparedQuery) Query.prepare(expression);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(rebuilt, prepared.evaluateExpressions(attrs, null));
+        }
+
+        attrs.put("size", "1");
+        assertEquals("FILE-1234-2", prepared.evaluateExpressions(attrs, null));
+    }
+
     private String evaluate(final String query, final Map<String, String> attrs) {
         final String evaluated = ((StandardPreparedQuery) Query.prepare(query)).evaluateExpressions(attrs, null);
         return evaluated;
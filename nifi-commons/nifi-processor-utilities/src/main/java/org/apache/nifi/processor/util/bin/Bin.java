@@ -27,7 +27,8 @@ import org.apache.nifi.processor.util.FlowFileSessionWrapper;
 
 /**
  * Note: {@code Bin} objects are NOT thread safe. If multiple threads access a {@code Bin}, the caller must synchronize
- * access.
+ * access. The one exception is the consumption of flow files that have been added to the bin, which a {@code Bin}
+ * serializes itself so that the {@link BinManager} does not have to hold its lock while flow files are consumed.
  */
 public class Bin {
 
@@ -41,8 +42,13 @@ public class Bin {
 
     final List<FlowFileSessionWrapper> binContents = new ArrayList<>();
     long size;
+    int count;
     int successiveFailedOfferings = 0;
 
+    // guards the consumption of flow files that have been added to this bin, and the contents that it modifies
+    private final Object consumeMonitor = new Object();
+    private int pendingConsumptions = 0;
+
     /**
      * Constructs a new bin
      *
@@ -73,8 +79,8 @@ public class Bin {
      * @return true if considered full; false otherwise
      */
     public boolean isFull() {
-        return (((size >= minimumSizeBytes) && binContents.size() >= minimumEntries) && (successiveFailedOfferings > 5))
-                || (size >= maximumSizeBytes) || (binContents.size() >= maximumEntries);
+        return (((size >= minimumSizeBytes) && count >= minimumEntries) && (successiveFailedOfferings > 5))
+                || (size >= maximumSizeBytes) || (count >= maximumEntries);
     }
 
     /**
@@ -83,7 +89,7 @@ public class Bin {
      * @return true if full enough
      */
     public boolean isFullEnough() {
-        return isFull() || (size >= minimumSizeBytes && (binContents.size() >= minimumEntries));
+        return isFull() || (size >= minimumSizeBytes && (count >= minimumEntries));
     }
 
     /**
@@ -116,7 +122,37 @@ public class Bin {
      * @return true if added; false otherwise
      */
     public boolean offer(final FlowFile flowFile, final ProcessSession session) {
-        if (((size + flowFile.getSize()) > maximumSizeBytes) || (binContents.size() >= maximumEntries)) {
+        return offer(flowFile, session, null);
+    }
+
+    /**
+     * If this bin has enough room for the size of the given flow file then it is added otherwise it is not. Once added, the flow file is
+     * given to the consumer, if any; a flow file that the consumer consumes counts towards the size and number of entries of this bin but
+     * is not retained in its contents.
+     *
+     * @param flowFile flowfile to offer
+     * @param session the ProcessSession to which the FlowFile belongs
+     * @param consumer the consumer to give the flow file to once it has been added; can be null
+     * @return true if added; false otherwise
+     */
+    public boolean offer(final FlowFile flowFile, final ProcessSession session, final BinnedFlowFileConsumer consumer) {
+        if (!reserve(flowFile)) {
+            return false;
+        }
+
+        consume(flowFile, session, consumer);
+        return true;
+    }
+
+    /**
+     * Accounts for the given flow file in the size and number of entries of this bin, if there is room for it, without yet adding it to
+     * the contents. A flow file that is reserved must then be given to {@link #consume(FlowFile, ProcessSession, BinnedFlowFileConsumer)}.
+     *
+     * @param flowFile flowfile to offer
+     * @return true if there was room for the flow file; false otherwise
+     */
+    boolean reserve(final FlowFile flowFile) {
+        if (((size + flowFile.getSize()) > maximumSizeBytes) || (count >= maximumEntries)) {
             successiveFailedOfferings++;
             return false;
         }
@@ -132,11 +168,56 @@ public class Bin {
         }
 
         size += flowFile.getSize();
-        binContents.add(new FlowFileSessionWrapper(flowFile, session));
+        count++;
         successiveFailedOfferings = 0;
+        synchronized (consumeMonitor) {
+            pendingConsumptions++;
+        }
         return true;
     }
 
+    /**
+     * Gives a flow file that has been reserved to the consumer, if any, and adds it to the contents of this bin unless the consumer consumes
+     * it. Only one flow file is consumed at a time per bin, but flow files of different bins may be consumed concurrently.
+     *
+     * @param flowFile the flow file that was reserved
+     * @param session the ProcessSession to which the FlowFile belongs
+     * @param consumer the consumer to give the flow file to; can be null
+     */
+    void consume(final FlowFile flowFile, final ProcessSession session, final BinnedFlowFileConsumer consumer) {
+        synchronized (consumeMonitor) {
+            try {
+                if (consumer == null || !consumer.consume(this, flowFile, session)) {
+                    binContents.add(new FlowFileSessionWrapper(flowFile, session));
+                }
+            } finally {
+                pendingConsumptions--;
+                consumeMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until every flow file that has been reserved in this bin has been consumed or added to its contents. Once a bin can no longer
+     * be offered flow files, this ensures that its contents are complete.
+     */
+    void awaitConsumption() {
+        boolean interrupted = false;
+        synchronized (consumeMonitor) {
+            while (pendingConsumptions > 0) {
+                try {
+                    consumeMonitor.wait();
+                } catch (final InterruptedException ie) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static final Pattern intPattern = Pattern.compile("\\d+");
 
     public Integer toInteger(final String value) {
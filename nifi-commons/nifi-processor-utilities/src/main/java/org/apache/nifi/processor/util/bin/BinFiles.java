@@ -157,6 +157,25 @@ public abstract class BinFiles extends AbstractSessionFactoryProcessor {
      */
     protected abstract boolean processBin(Bin unmodifiableBin, List<FlowFileSessionWrapper> binContents, ProcessContext context, ProcessSession session) throws ProcessException;
 
+    /**
+     * Allows a flow file to be consumed as soon as it has been added to a bin, rather than being held in the bin, along with its session,
+     * until the bin is processed. If the flow file is consumed, the implementing class is responsible for transferring it and committing
+     * the session, and the flow file will not be included in the contents that are given to processBin(). Only one flow file is consumed at a
+     * time per bin, and the bin is not processed until this returns, but flow files of different bins may be consumed concurrently. The default
+     * implementation does not consume the flow file.
+     *
+     * @param context The context
+     * @param sessionFactory The factory for any additional sessions that are needed
+     * @param bin The bin that the flow file was added to
+     * @param flowFile The flow file
+     * @param session The session that the flow file belongs to
+     * @return true if the flow file was consumed; false if it should be held in the bin
+     */
+    protected boolean consumeFlowFile(final ProcessContext context, final ProcessSessionFactory sessionFactory, final Bin bin, final FlowFile flowFile,
+            final ProcessSession session) {
+        return false;
+    }
+
     /**
      * Allows additional custom validation to be done. This will be called from the parent's customValidation method.
      *
@@ -266,6 +285,7 @@ public abstract class BinFiles extends AbstractSessionFactoryProcessor {
     }
 
     private int binFlowFiles(final ProcessContext context, final ProcessSessionFactory sessionFactory) {
+        final BinnedFlowFileConsumer consumer = (bin, flowFile, session) -> consumeFlowFile(context, sessionFactory, bin, flowFile, session);
         int flowFilesBinned = 0;
         while (binManager.getBinCount() <= context.getProperty(MAX_BIN_COUNT).asInteger().intValue()) {
             if (!isScheduled()) {
@@ -282,12 +302,12 @@ public abstract class BinFiles extends AbstractSessionFactoryProcessor {
 
             String groupId = this.getGroupId(context, flowFile);
 
-            final boolean binned = binManager.offer(groupId, flowFile, session);
+            final boolean binned = binManager.offer(groupId, flowFile, session, consumer);
 
             // could not be added to a bin -- probably too large by itself, so create a separate bin for just this guy.
             if (!binned) {
                 Bin bin = new Bin(0, Long.MAX_VALUE, 0, Integer.MAX_VALUE, null);
-                bin.offer(flowFile, session);
+                bin.offer(flowFile, session, consumer);
                 this.readyBins.add(bin);
             }
 
@@ -56,20 +56,24 @@ public class BinManager {
     }
 
     public void purge() {
+        final List<Bin> purgedBins = new ArrayList<>();
         wLock.lock();
         try {
             for (final List<Bin> binList : groupBinMap.values()) {
-                for (final Bin bin : binList) {
-                    for (final FlowFileSessionWrapper wrapper : bin.getContents()) {
-                        wrapper.getSession().rollback();
-                    }
-                }
+                purgedBins.addAll(binList);
             }
             groupBinMap.clear();
             binCount = 0;
         } finally {
             wLock.unlock();
         }
+
+        for (final Bin bin : purgedBins) {
+            bin.awaitConsumption();
+            for (final FlowFileSessionWrapper wrapper : bin.getContents()) {
+                wrapper.getSession().rollback();
+            }
+        }
     }
 
     public void setFileCountAttribute(final String fileCountAttribute) {
@@ -114,10 +118,37 @@ public class BinManager {
      * @return true if added; false if no bin exists which can fit this item and no bin can be created based on current min/max criteria
      */
     public boolean offer(final String groupIdentifier, final FlowFile flowFile, final ProcessSession session) {
+        return offer(groupIdentifier, flowFile, session, null);
+    }
+
+    /**
+     * Adds the given flowFile to the first available bin in which it fits for the given group or creates a new bin in the specified group if necessary.
+     * Once added, the flow file is given to the consumer. This manager's lock is not held while the consumer runs, so flow files that go into
+     * different bins are consumed concurrently, but the bin is not handed out by {@link #removeReadyBins(boolean)}, {@link #removeOldestBin()}
+     * or {@link #purge()} until the consumer returns.
+     * <p/>
+     * @param groupIdentifier the group to which the flow file belongs; can be null
+     * @param flowFile the flow file to bin
+     * @param session the ProcessSession to which the FlowFile belongs
+     * @param consumer the consumer to give the flow file to once it has been added to a bin; can be null
+     * @return true if added; false if no bin exists which can fit this item and no bin can be created based on current min/max criteria
+     */
+    public boolean offer(final String groupIdentifier, final FlowFile flowFile, final ProcessSession session, final BinnedFlowFileConsumer consumer) {
         final long currentMaxSizeBytes = maxSizeBytes.get();
         if (flowFile.getSize() > currentMaxSizeBytes) { //won't fit into any new bins (and probably none existing)
             return false;
         }
+        final Bin bin = reserve(groupIdentifier, flowFile, currentMaxSizeBytes);
+        if (bin == null) {
+            return false;
+        }
+
+        // the flow file has been accounted for in the bin; consume it without holding the lock so that other bins can be filled meanwhile
+        bin.consume(flowFile, session, consumer);
+        return true;
+    }
+
+    private Bin reserve(final String groupIdentifier, final FlowFile flowFile, final long currentMaxSizeBytes) {
         wLock.lock();
         try {
             final List<Bin> currentBins = groupBinMap.get(groupIdentifier);
@@ -127,12 +158,12 @@ public class BinManager {
                 bins.add(bin);
                 groupBinMap.put(groupIdentifier, bins);
                 binCount++;
-                return bin.offer(flowFile, session);
+                return bin.reserve(flowFile) ? bin : null;
             } else {
                 for (final Bin bin : currentBins) {
-                    final boolean accepted = bin.offer(flowFile, session);
+                    final boolean accepted = bin.reserve(flowFile);
                     if (accepted) {
-                        return true;
+                        return bin;
                     }
                 }
 
@@ -140,7 +171,7 @@ public class BinManager {
                 final Bin bin = new Bin(minSizeBytes.get(), currentMaxSizeBytes, minEntries.get(), maxEntries.get(), fileCountAttribute.get());
                 currentBins.add(bin);
                 binCount++;
-                return bin.offer(flowFile, session);
+                return bin.reserve(flowFile) ? bin : null;
             }
         } finally {
             wLock.unlock();
@@ -181,10 +212,23 @@ public class BinManager {
         } finally {
             wLock.unlock();
         }
+
+        // flow files may still be being consumed into bins that are now ready; no more can be added, so wait for those to finish
+        for (final Bin bin : readyBins) {
+            bin.awaitConsumption();
+        }
         return readyBins;
     }
 
     public Bin removeOldestBin() {
+        final Bin oldestBin = removeOldest();
+        if (oldestBin != null) {
+            oldestBin.awaitConsumption();
+        }
+        return oldestBin;
+    }
+
+    private Bin removeOldest() {
         wLock.lock();
         try {
             Bin oldestBin = null;
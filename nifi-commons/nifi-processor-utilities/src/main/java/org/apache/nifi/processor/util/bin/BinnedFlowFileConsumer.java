@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.processor.util.bin;
+
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.ProcessSession;
+
+/**
+ * Receives each FlowFile as soon as it has been added to a {@link Bin}, allowing its content to be consumed before the bin is complete.
+ */
+public interface BinnedFlowFileConsumer {
+
+    /**
+     * Consumes the given FlowFile, which has just been added to the given bin. Only one FlowFile is consumed at a time per bin, and the bin
+     * is not handed out for processing until this returns, but FlowFiles of different bins may be consumed concurrently. If the FlowFile is
+     * consumed, the consumer is responsible for transferring it and committing the session, and the bin will not retain the FlowFile.
+     *
+     * @param bin the bin that the FlowFile was added to
+     * @param flowFile the FlowFile
+     * @param session the ProcessSession to which the FlowFile belongs
+     * @return true if the FlowFile was consumed; false if the bin should retain it
+     */
+    boolean consume(Bin bin, FlowFile flowFile, ProcessSession session);
+}
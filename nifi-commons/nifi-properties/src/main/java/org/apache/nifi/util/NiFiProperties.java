@@ -61,6 +61,7 @@ public abstract class NiFiProperties {
     public static final String NAR_LIBRARY_DIRECTORY = "nifi.nar.library.directory";
     public static final String NAR_LIBRARY_DIRECTORY_PREFIX = "nifi.nar.library.directory.";
     public static final String NAR_WORKING_DIRECTORY = "nifi.nar.working.directory";
+    public static final String NAR_LAZY_LOADING_ENABLED = "nifi.nar.lazy.loading.enabled";
     public static final String COMPONENT_DOCS_DIRECTORY = "nifi.documentation.working.directory";
     public static final String SENSITIVE_PROPS_KEY = "nifi.sensitive.props.key";
     public static final String SENSITIVE_PROPS_ALGORITHM = "nifi.sensitive.props.algorithm";
@@ -71,10 +72,16 @@ public abstract class NiFiProperties {
     public static final String SITE_TO_SITE_SECURE = "nifi.remote.input.secure";
     public static final String SITE_TO_SITE_HTTP_ENABLED = "nifi.remote.input.http.enabled";
     public static final String SITE_TO_SITE_HTTP_TRANSACTION_TTL = "nifi.remote.input.http.transaction.ttl";
+    public static final String SITE_TO_SITE_SOCKET_SELECTOR_ENABLED = "nifi.remote.input.socket.selector.enabled";
+    public static final String SITE_TO_SITE_SOCKET_WORKER_THREADS = "nifi.remote.input.socket.worker.threads";
+    public static final String SITE_TO_SITE_HTTP_CLIENT_PIPELINING_ENABLED = "nifi.remote.output.http.pipelining.enabled";
     public static final String TEMPLATE_DIRECTORY = "nifi.templates.directory";
     public static final String ADMINISTRATIVE_YIELD_DURATION = "nifi.administrative.yield.duration";
     public static final String PERSISTENT_STATE_DIRECTORY = "nifi.persistent.state.directory";
     public static final String BORED_YIELD_DURATION = "nifi.bored.yield.duration";
+    public static final String BORED_YIELD_ADAPTIVE = "nifi.bored.yield.adaptive";
+    public static final String BORED_YIELD_MAX_DURATION = "nifi.bored.yield.max.duration";
+    public static final String BORED_YIELD_DEEP_QUEUE_THRESHOLD = "nifi.bored.yield.deep.queue.threshold";
     public static final String PROCESSOR_SCHEDULING_TIMEOUT = "nifi.processor.scheduling.timeout";
 
     // content repository properties
@@ -87,20 +94,24 @@ public abstract class NiFiProperties {
     public static final String CONTENT_ARCHIVE_BACK_PRESSURE_PERCENTAGE = "nifi.content.repository.archive.backpressure.percentage";
     public static final String CONTENT_ARCHIVE_ENABLED = "nifi.content.repository.archive.enabled";
     public static final String CONTENT_ARCHIVE_CLEANUP_FREQUENCY = "nifi.content.repository.archive.cleanup.frequency";
+    public static final String CONTENT_REPOSITORY_READ_CHANNEL_CACHE_SIZE = "nifi.content.repository.read.channel.cache.size";
     public static final String CONTENT_VIEWER_URL = "nifi.content.viewer.url";
 
     // flowfile repository properties
     public static final String FLOWFILE_REPOSITORY_IMPLEMENTATION = "nifi.flowfile.repository.implementation";
     public static final String FLOWFILE_REPOSITORY_ALWAYS_SYNC = "nifi.flowfile.repository.always.sync";
+    public static final String FLOWFILE_REPOSITORY_GROUP_COMMIT = "nifi.flowfile.repository.group.commit";
     public static final String FLOWFILE_REPOSITORY_DIRECTORY = "nifi.flowfile.repository.directory";
     public static final String FLOWFILE_REPOSITORY_PARTITIONS = "nifi.flowfile.repository.partitions";
     public static final String FLOWFILE_REPOSITORY_CHECKPOINT_INTERVAL = "nifi.flowfile.repository.checkpoint.interval";
     public static final String FLOWFILE_SWAP_MANAGER_IMPLEMENTATION = "nifi.swap.manager.implementation";
     public static final String QUEUE_SWAP_THRESHOLD = "nifi.queue.swap.threshold";
+    public static final String QUEUE_CONCURRENT_PUT_ENABLED = "nifi.queue.concurrent.put.enabled";
     public static final String SWAP_IN_THREADS = "nifi.swap.in.threads";
     public static final String SWAP_IN_PERIOD = "nifi.swap.in.period";
     public static final String SWAP_OUT_THREADS = "nifi.swap.out.threads";
     public static final String SWAP_OUT_PERIOD = "nifi.swap.out.period";
+    public static final String SWAP_COLUMNAR_ENCODING = "nifi.swap.columnar.encoding";
 
     // provenance properties
     public static final String PROVENANCE_REPO_IMPLEMENTATION_CLASS = "nifi.provenance.repository.implementation";
@@ -116,6 +127,11 @@ public abstract class NiFiProperties {
     public static final String PROVENANCE_INDEXED_ATTRIBUTES = "nifi.provenance.repository.indexed.attributes";
     public static final String PROVENANCE_INDEX_SHARD_SIZE = "nifi.provenance.repository.index.shard.size";
     public static final String PROVENANCE_JOURNAL_COUNT = "nifi.provenance.repository.journal.count";
+    public static final String PROVENANCE_EVENT_QUEUE_SIZE = "nifi.provenance.repository.event.queue.size";
+    public static final String PROVENANCE_EVENT_QUEUE_FULL_STRATEGY = "nifi.provenance.repository.event.queue.full.strategy";
+    public static final String PROVENANCE_EVENT_BATCH_SIZE = "nifi.provenance.repository.event.batch.size";
+    public static final String PROVENANCE_INDEX_NEAR_REAL_TIME = "nifi.provenance.repository.index.near.real.time";
+    public static final String PROVENANCE_DICTIONARY_ENCODING = "nifi.provenance.repository.dictionary.encoding";
 
     // component status repository properties
     public static final String COMPONENT_STATUS_REPOSITORY_IMPLEMENTATION = "nifi.components.status.repository.implementation";
@@ -168,6 +184,8 @@ public abstract class NiFiProperties {
     public static final String CLUSTER_NODE_PROTOCOL_THREADS = "nifi.cluster.node.protocol.threads";
     public static final String CLUSTER_NODE_CONNECTION_TIMEOUT = "nifi.cluster.node.connection.timeout";
     public static final String CLUSTER_NODE_READ_TIMEOUT = "nifi.cluster.node.read.timeout";
+    public static final String CLUSTER_NODE_REPLICATION_ASYNC_ENABLED = "nifi.cluster.node.replication.async.enabled";
+    public static final String CLUSTER_NODE_REPLICATION_MAX_CONNECTIONS = "nifi.cluster.node.replication.max.connections";
     public static final String CLUSTER_FIREWALL_FILE = "nifi.cluster.firewall.file";
     public static final String FLOW_ELECTION_MAX_WAIT_TIME = "nifi.cluster.flow.election.max.wait.time";
     public static final String FLOW_ELECTION_MAX_CANDIDATES = "nifi.cluster.flow.election.max.candidates";
@@ -213,19 +231,26 @@ public abstract class NiFiProperties {
     public static final String DEFAULT_FLOWFILE_CHECKPOINT_INTERVAL = "2 min";
     public static final int DEFAULT_MAX_FLOWFILES_PER_CLAIM = 100;
     public static final int DEFAULT_QUEUE_SWAP_THRESHOLD = 20000;
+    public static final boolean DEFAULT_QUEUE_CONCURRENT_PUT_ENABLED = false;
+    public static final int DEFAULT_CONTENT_REPOSITORY_READ_CHANNEL_CACHE_SIZE = 0;
     public static final String DEFAULT_SWAP_STORAGE_LOCATION = "./flowfile_repository/swap";
     public static final String DEFAULT_SWAP_IN_PERIOD = "1 sec";
     public static final String DEFAULT_SWAP_OUT_PERIOD = "5 sec";
     public static final int DEFAULT_SWAP_IN_THREADS = 4;
     public static final int DEFAULT_SWAP_OUT_THREADS = 4;
+    public static final boolean DEFAULT_SWAP_COLUMNAR_ENCODING = false;
     public static final String DEFAULT_ADMINISTRATIVE_YIELD_DURATION = "30 sec";
     public static final String DEFAULT_PERSISTENT_STATE_DIRECTORY = "./conf/state";
     public static final String DEFAULT_COMPONENT_STATUS_SNAPSHOT_FREQUENCY = "5 mins";
     public static final String DEFAULT_BORED_YIELD_DURATION = "10 millis";
+    public static final boolean DEFAULT_BORED_YIELD_ADAPTIVE = false;
+    public static final String DEFAULT_BORED_YIELD_MAX_DURATION = "1 sec";
+    public static final int DEFAULT_BORED_YIELD_DEEP_QUEUE_THRESHOLD = 10000;
     public static final String DEFAULT_ZOOKEEPER_CONNECT_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_SESSION_TIMEOUT = "3 secs";
     public static final String DEFAULT_ZOOKEEPER_ROOT_NODE = "/nifi";
     public static final String DEFAULT_SITE_TO_SITE_HTTP_TRANSACTION_TTL = "30 secs";
+    public static final int DEFAULT_SITE_TO_SITE_SOCKET_WORKER_THREADS = 20;
     public static final String DEFAULT_FLOW_CONFIGURATION_ARCHIVE_ENABLED = "true";
     public static final String DEFAULT_FLOW_CONFIGURATION_ARCHIVE_MAX_TIME = "30 days";
     public static final String DEFAULT_FLOW_CONFIGURATION_ARCHIVE_MAX_STORAGE = "500 MB";
@@ -240,6 +265,7 @@ public abstract class NiFiProperties {
 
     // cluster node defaults
     public static final int DEFAULT_CLUSTER_NODE_PROTOCOL_THREADS = 2;
+    public static final int DEFAULT_CLUSTER_NODE_REPLICATION_MAX_CONNECTIONS = 100;
     public static final String DEFAULT_REQUEST_REPLICATION_CLAIM_TIMEOUT = "15 secs";
     public static final String DEFAULT_FLOW_ELECTION_MAX_WAIT_TIME = "5 mins";
 
@@ -310,6 +336,18 @@ public abstract class NiFiProperties {
         }
     }
 
+    /**
+     * @return whether or not FlowFiles should be added to connection queues without obtaining the queue's lock
+     */
+    public boolean isQueueConcurrentPutEnabled() {
+        final String value = getProperty(QUEUE_CONCURRENT_PUT_ENABLED);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_QUEUE_CONCURRENT_PUT_ENABLED;
+        }
+
+        return Boolean.parseBoolean(value.trim());
+    }
+
     public Integer getIntegerProperty(final String propertyName, final Integer defaultValue) {
         final String value = getProperty(propertyName);
         if (value == null || value.trim().isEmpty()) {
@@ -348,6 +386,19 @@ public abstract class NiFiProperties {
         return getProperty(SWAP_OUT_PERIOD, DEFAULT_SWAP_OUT_PERIOD);
     }
 
+    /**
+     * @return whether or not swap files should be written using the columnar encoding, which versions of NiFi that
+     *         predate it cannot read
+     */
+    public boolean isSwapColumnarEncodingEnabled() {
+        final String value = getProperty(SWAP_COLUMNAR_ENCODING);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_SWAP_COLUMNAR_ENCODING;
+        }
+
+        return Boolean.parseBoolean(value.trim());
+    }
+
     public String getAdministrativeYieldDuration() {
         return getProperty(ADMINISTRATIVE_YIELD_DURATION, DEFAULT_ADMINISTRATIVE_YIELD_DURATION);
     }
@@ -392,6 +443,31 @@ public abstract class NiFiProperties {
 
     }
 
+    /**
+     * @return True if the RAW socket Site-to-Site listener should multiplex peer connections
+     * over a selector rather than dedicating a thread to each connection; False otherwise.
+     */
+    public boolean isSiteToSiteSocketSelectorEnabled() {
+        return Boolean.parseBoolean(getProperty(SITE_TO_SITE_SOCKET_SELECTOR_ENABLED, "false"));
+    }
+
+    /**
+     * @return the maximum number of threads that service RAW socket Site-to-Site
+     * connections when the selector is enabled
+     */
+    public int getSiteToSiteSocketWorkerThreads() {
+        return getIntegerProperty(SITE_TO_SITE_SOCKET_WORKER_THREADS, DEFAULT_SITE_TO_SITE_SOCKET_WORKER_THREADS);
+    }
+
+    /**
+     * @return True if Remote Process Groups that use the HTTP transport protocol
+     * should keep connections to each peer open and initiate the next transaction
+     * while the current one is being committed; False otherwise.
+     */
+    public boolean isSiteToSiteHttpClientPipeliningEnabled() {
+        return Boolean.parseBoolean(getProperty(SITE_TO_SITE_HTTP_CLIENT_PIPELINING_ENABLED, "false"));
+    }
+
     /**
      * The HTTP or HTTPS Web API port for a Remote Input Port.
      *
@@ -583,6 +659,14 @@ public abstract class NiFiProperties {
         return narLibraryPaths;
     }
 
+    /**
+     * @return true if the class loaders of extension NARs should only be created once a
+     * component from the NAR is needed; false if they should all be created at startup
+     */
+    public boolean isNarLazyLoadingEnabled() {
+        return Boolean.parseBoolean(getProperty(NAR_LAZY_LOADING_ENABLED, "false"));
+    }
+
     // getters for ui properties //
     /**
      * Get the title for the UI.
@@ -674,6 +758,24 @@ public abstract class NiFiProperties {
         }
     }
 
+    /**
+     * @return whether or not GET, HEAD and OPTIONS requests are replicated to the nodes in the cluster without blocking a thread per node
+     */
+    public boolean isClusterNodeReplicationAsyncEnabled() {
+        return Boolean.parseBoolean(getProperty(CLUSTER_NODE_REPLICATION_ASYNC_ENABLED));
+    }
+
+    /**
+     * @return the maximum number of connections to other nodes that are used when replicating requests asynchronously
+     */
+    public int getClusterNodeReplicationMaxConnections() {
+        try {
+            return Integer.parseInt(getProperty(CLUSTER_NODE_REPLICATION_MAX_CONNECTIONS));
+        } catch (NumberFormatException nfe) {
+            return DEFAULT_CLUSTER_NODE_REPLICATION_MAX_CONNECTIONS;
+        }
+    }
+
     public boolean isClustered() {
         return Boolean.parseBoolean(getProperty(CLUSTER_IS_NODE));
     }
@@ -862,6 +964,22 @@ public abstract class NiFiProperties {
         return contentRepositoryPaths;
     }
 
+    /**
+     * Returns the number of content repository files for which a read-only channel
+     * is kept open, so that the content claims within those files can be read without
+     * reopening the file. A value of 0 disables the cache.
+     *
+     * @return the number of files to keep open for reading
+     */
+    public int getContentRepositoryReadChannelCacheSize() {
+        final String value = getProperty(CONTENT_REPOSITORY_READ_CHANNEL_CACHE_SIZE);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_CONTENT_REPOSITORY_READ_CHANNEL_CACHE_SIZE;
+        }
+
+        return Integer.parseInt(value.trim());
+    }
+
     /**
      * Returns the provenance repository paths. This method returns a mapping of
      * file repository name to file repository paths. It simply returns the
@@ -909,6 +1027,27 @@ public abstract class NiFiProperties {
         return getProperty(BORED_YIELD_DURATION, DEFAULT_BORED_YIELD_DURATION);
     }
 
+    /**
+     * @return whether or not the bored yield of timer-driven components should grow while they stay idle
+     * and be cut short when data arrives for them
+     */
+    public boolean isBoredYieldAdaptive() {
+        final String value = getProperty(BORED_YIELD_ADAPTIVE);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_BORED_YIELD_ADAPTIVE;
+        }
+
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    public String getMaxBoredYieldDuration() {
+        return getProperty(BORED_YIELD_MAX_DURATION, DEFAULT_BORED_YIELD_MAX_DURATION);
+    }
+
+    public int getBoredYieldDeepQueueThreshold() {
+        return getIntegerProperty(BORED_YIELD_DEEP_QUEUE_THRESHOLD, DEFAULT_BORED_YIELD_DEEP_QUEUE_THRESHOLD);
+    }
+
     public File getStateManagementConfigFile() {
         return new File(getProperty(STATE_MANAGEMENT_CONFIG_FILE, DEFAULT_STATE_MANAGEMENT_CONFIG_FILE));
     }
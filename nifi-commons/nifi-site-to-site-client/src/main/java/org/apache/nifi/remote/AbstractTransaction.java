@@ -18,9 +18,9 @@ package org.apache.nifi.remote;
 
 import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.remote.codec.FlowFileCodec;
+import org.apache.nifi.remote.compression.CompressionCodec;
+import org.apache.nifi.remote.compression.CompressionCodecs;
 import org.apache.nifi.remote.exception.ProtocolException;
-import org.apache.nifi.remote.io.CompressionInputStream;
-import org.apache.nifi.remote.io.CompressionOutputStream;
 import org.apache.nifi.remote.protocol.CommunicationsSession;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.Response;
@@ -46,7 +46,7 @@ public abstract class AbstractTransaction implements Transaction {
     protected final Peer peer;
     protected final TransferDirection direction;
     private final CRC32 crc = new CRC32();
-    private final boolean compress;
+    private final CompressionCodec compressionCodec;
     protected final FlowFileCodec codec;
     protected final EventReporter eventReporter;
     protected final int protocolVersion;
@@ -61,10 +61,19 @@ public abstract class AbstractTransaction implements Transaction {
     public AbstractTransaction(final Peer peer, final TransferDirection direction, final boolean useCompression,
                                final FlowFileCodec codec, final EventReporter eventReporter, final int protocolVersion,
                                final int penaltyMillis, final String destinationId) {
+        this(peer, direction, useCompression ? CompressionCodecs.getDefaultCodec() : null, codec, eventReporter, protocolVersion, penaltyMillis, destinationId);
+    }
+
+    /**
+     * @param compressionCodec the codec that FlowFile content is compressed with, or <code>null</code> if content is not compressed
+     */
+    public AbstractTransaction(final Peer peer, final TransferDirection direction, final CompressionCodec compressionCodec,
+                               final FlowFileCodec codec, final EventReporter eventReporter, final int protocolVersion,
+                               final int penaltyMillis, final String destinationId) {
         this.peer = peer;
         this.state = TransactionState.TRANSACTION_STARTED;
         this.direction = direction;
-        this.compress = useCompression;
+        this.compressionCodec = compressionCodec;
         this.codec = codec;
         this.eventReporter = eventReporter;
         this.protocolVersion = protocolVersion;
@@ -103,6 +112,20 @@ public abstract class AbstractTransaction implements Transaction {
         return peer;
     }
 
+    /**
+     * @return the number of data packets that have been sent or received so far
+     */
+    protected int getDataPacketsTransferred() {
+        return transfers;
+    }
+
+    /**
+     * @return the number of content bytes that have been sent or received so far
+     */
+    protected long getBytesTransferred() {
+        return contentBytes;
+    }
+
     @Override
     public final DataPacket receive() throws IOException {
         try {
@@ -145,7 +168,7 @@ public abstract class AbstractTransaction implements Transaction {
 
                 logger.debug("{} Receiving data from {}", this, peer);
                 final InputStream is = peer.getCommunicationsSession().getInput().getInputStream();
-                final InputStream dataIn = compress ? new CompressionInputStream(is) : is;
+                final InputStream dataIn = compressionCodec == null ? is : CompressionCodecs.decompress(compressionCodec, is);
                 final DataPacket packet = codec.decode(new CheckedInputStream(dataIn, crc));
 
                 if (packet == null) {
@@ -363,7 +386,7 @@ public abstract class AbstractTransaction implements Transaction {
                 logger.debug("{} Sending data to {}", this, peer);
 
                 final OutputStream os = peer.getCommunicationsSession().getOutput().getOutputStream();
-                final OutputStream dataOut = compress ? new CompressionOutputStream(os) : os;
+                final OutputStream dataOut = compressionCodec == null ? os : CompressionCodecs.compress(compressionCodec, os);
                 final OutputStream out = new CheckedOutputStream(dataOut, crc);
 
                 codec.encode(dataPacket, out);
@@ -371,7 +394,7 @@ public abstract class AbstractTransaction implements Transaction {
                 // need to close the CompressionOutputStream in order to force it write out any remaining bytes.
                 // Otherwise, do NOT close it because we don't want to close the underlying stream
                 // (CompressionOutputStream will not close the underlying stream when it's closed)
-                if (compress) {
+                if (compressionCodec != null) {
                     out.close();
                 }
 
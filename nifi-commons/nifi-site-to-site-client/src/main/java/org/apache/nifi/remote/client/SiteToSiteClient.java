@@ -160,6 +160,8 @@ public interface SiteToSiteClient extends Closeable {
         private EventReporter eventReporter = EventReporter.NO_OP;
         private File peerPersistenceFile;
         private boolean useCompression;
+        private String compressionCodec;
+        private boolean httpPipelining;
         private String portName;
         private String portIdentifier;
         private int batchCount;
@@ -189,6 +191,8 @@ public interface SiteToSiteClient extends Closeable {
             this.eventReporter = config.getEventReporter();
             this.peerPersistenceFile = config.getPeerPersistenceFile();
             this.useCompression = config.isUseCompression();
+            this.compressionCodec = config.getCompressionCodec();
+            this.httpPipelining = config.isHttpPipelining();
             this.transportProtocol = config.getTransportProtocol();
             this.portName = config.getPortName();
             this.portIdentifier = config.getPortIdentifier();
@@ -446,6 +450,36 @@ public interface SiteToSiteClient extends Closeable {
             return this;
         }
 
+        /**
+         * Specifies the name of the compression codec to prefer when
+         * compression is used, such as LZ4 or SNAPPY. If the remote instance
+         * does not support this codec, the default (DEFLATE) is used instead.
+         * This is honored only by the RAW transport protocol.
+         *
+         * @param codecName the name of the preferred codec, or <code>null</code> to use the default
+         * @return the builder
+         */
+        public Builder compressionCodec(final String codecName) {
+            this.compressionCodec = codecName;
+            return this;
+        }
+
+        /**
+         * Specifies whether or not transactions that use the HTTP transport
+         * protocol should be pipelined. When pipelining, connections to each
+         * peer are kept alive between transactions, the next transaction with
+         * a peer is created while the previous one is being committed, and the
+         * preferred batch limits are raised when round trips are slow compared
+         * to the time spent transferring data. The default is false.
+         *
+         * @param pipelining whether or not to pipeline HTTP transactions
+         * @return the builder
+         */
+        public Builder httpPipelining(final boolean pipelining) {
+            this.httpPipelining = pipelining;
+            return this;
+        }
+
         /**
          * Specifies the protocol to use for site to site data transport.
          * @param transportProtocol transport protocol
@@ -623,6 +657,22 @@ public interface SiteToSiteClient extends Closeable {
             return useCompression;
         }
 
+        /**
+         * @return the name of the compression codec that is preferred when
+         * compression is used, or <code>null</code> to use the default codec
+         */
+        public String getCompressionCodec() {
+            return compressionCodec;
+        }
+
+        /**
+         * @return whether or not transactions that use the HTTP transport
+         * protocol are pipelined
+         */
+        public boolean isHttpPipelining() {
+            return httpPipelining;
+        }
+
         /**
          * @return the transport protocol to use, defaults to RAW
          */
@@ -681,6 +731,8 @@ public interface SiteToSiteClient extends Closeable {
         private final EventReporter eventReporter;
         private final File peerPersistenceFile;
         private final boolean useCompression;
+        private final String compressionCodec;
+        private final boolean httpPipelining;
         private final SiteToSiteTransportProtocol transportProtocol;
         private final String portName;
         private final String portIdentifier;
@@ -705,6 +757,8 @@ public interface SiteToSiteClient extends Closeable {
             this.eventReporter = null;
             this.peerPersistenceFile = null;
             this.useCompression = false;
+            this.compressionCodec = null;
+            this.httpPipelining = false;
             this.portName = null;
             this.portIdentifier = null;
             this.batchCount = 0;
@@ -729,6 +783,8 @@ public interface SiteToSiteClient extends Closeable {
             this.eventReporter = builder.eventReporter;
             this.peerPersistenceFile = builder.peerPersistenceFile;
             this.useCompression = builder.useCompression;
+            this.compressionCodec = builder.compressionCodec;
+            this.httpPipelining = builder.httpPipelining;
             this.portName = builder.portName;
             this.portIdentifier = builder.portIdentifier;
             this.batchCount = builder.batchCount;
@@ -743,6 +799,16 @@ public interface SiteToSiteClient extends Closeable {
             return useCompression;
         }
 
+        @Override
+        public String getCompressionCodec() {
+            return compressionCodec;
+        }
+
+        @Override
+        public boolean isHttpPipelining() {
+            return httpPipelining;
+        }
+
         @Override
         public String getUrl() {
             return url;
@@ -102,6 +102,26 @@ public interface SiteToSiteClientConfig extends Serializable {
      */
     boolean isUseCompression();
 
+    /**
+     * @return the name of the compression codec that is preferred when compression
+     * is used, or <code>null</code> to use the default codec. If the remote instance
+     * does not support the preferred codec, the default codec is used instead.
+     */
+    default String getCompressionCodec() {
+        return null;
+    }
+
+    /**
+     * @return whether or not transactions that use the HTTP transport protocol
+     * are pipelined. If so, connections to each peer are kept alive between
+     * transactions, the next transaction with a peer is created while the
+     * previous one is being committed, and the batch limits that are requested
+     * when pulling data adapt to the observed round trip times.
+     */
+    default boolean isHttpPipelining() {
+        return false;
+    }
+
     /**
      * @return a transport protocol to use
      */
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.client.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Adjusts the preferred batch limits that are requested from the server when pulling data, based on the round trip times
+ * that have been observed. Every transaction costs several HTTP requests (create, transfer, commit) regardless of how much
+ * data it carries, so over a high-latency link small batches spend most of their time waiting on round trips.
+ * </p>
+ *
+ * <p>
+ * The limits configured by the user are treated as a minimum. When the per-transaction overhead is large compared to the
+ * time spent transferring data, the configured limits are raised so that a batch transfers for roughly
+ * {@link #TARGET_TRANSFER_TO_OVERHEAD_RATIO} times as long as its overhead, up to {@link #MAX_GROWTH} times the configured limits.
+ * Limits that the user did not configure are left unset so that the server's defaults apply.
+ * </p>
+ */
+public class AdaptiveBatchSizer {
+
+    static final int TARGET_TRANSFER_TO_OVERHEAD_RATIO = 9;
+    static final int MAX_GROWTH = 16;
+
+    // weight of the most recent observation in the moving averages
+    private static final double SMOOTHING = 0.25D;
+
+    private final int configuredCount;
+    private final long configuredSize;
+    private final long configuredDurationNanos;
+
+    private double overheadNanos = -1D;
+    private double flowFilesPerNano = -1D;
+    private double bytesPerNano = -1D;
+
+    /**
+     * @param batchCount the configured preferred batch count, or 0 if not configured
+     * @param batchSize the configured preferred batch size in bytes, or 0 if not configured
+     * @param batchDuration the configured preferred batch duration, or 0 if not configured
+     * @param timeUnit the unit of the batch duration
+     */
+    public AdaptiveBatchSizer(final int batchCount, final long batchSize, final long batchDuration, final TimeUnit timeUnit) {
+        this.configuredCount = batchCount;
+        this.configuredSize = batchSize;
+        this.configuredDurationNanos = timeUnit.toNanos(batchDuration);
+    }
+
+    /**
+     * Records the outcome of a completed transaction
+     *
+     * @param overheadNanos the time spent creating, opening and committing the transaction, which is dominated by round trips
+     * @param transferNanos the time spent transferring data
+     * @param flowFiles the number of FlowFiles transferred
+     * @param bytes the number of bytes transferred
+     */
+    public synchronized void recordTransaction(final long overheadNanos, final long transferNanos, final int flowFiles, final long bytes) {
+        this.overheadNanos = average(this.overheadNanos, overheadNanos);
+
+        // transactions that transferred nothing say nothing about the data rate
+        if (flowFiles > 0 && transferNanos > 0) {
+            this.flowFilesPerNano = average(this.flowFilesPerNano, (double) flowFiles / transferNanos);
+            this.bytesPerNano = average(this.bytesPerNano, (double) bytes / transferNanos);
+        }
+    }
+
+    private static double average(final double current, final double observed) {
+        return current < 0D ? observed : current + SMOOTHING * (observed - current);
+    }
+
+    private long getTargetDurationNanos() {
+        return overheadNanos < 0D ? 0L : (long) (overheadNanos * TARGET_TRANSFER_TO_OVERHEAD_RATIO);
+    }
+
+    private static long grow(final long configured, final double target) {
+        if (configured <= 0L) {
+            return 0L;
+        }
+
+        final long capped = (long) Math.min(target, (double) configured * MAX_GROWTH);
+        return Math.max(configured, capped);
+    }
+
+    /**
+     * @return the batch count to request, or 0 if no batch count is to be requested
+     */
+    public synchronized int getBatchCount() {
+        final double target = flowFilesPerNano < 0D ? 0D : flowFilesPerNano * getTargetDurationNanos();
+        return (int) grow(configuredCount, target);
+    }
+
+    /**
+     * @return the batch size in bytes to request, or 0 if no batch size is to be requested
+     */
+    public synchronized long getBatchSize() {
+        final double target = bytesPerNano < 0D ? 0D : bytesPerNano * getTargetDurationNanos();
+        return grow(configuredSize, target);
+    }
+
+    /**
+     * @param timeUnit the unit to return the duration in
+     * @return the batch duration to request, or 0 if no batch duration is to be requested
+     */
+    public synchronized long getBatchDuration(final TimeUnit timeUnit) {
+        return timeUnit.convert(grow(configuredDurationNanos, getTargetDurationNanos()), TimeUnit.NANOSECONDS);
+    }
+}
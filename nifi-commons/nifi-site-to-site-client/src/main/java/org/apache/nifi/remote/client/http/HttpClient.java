@@ -44,24 +44,59 @@ import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpClient.class);
 
+    private static final int MAX_CONNECTIONS_PER_PEER = 64;
+
     private final ScheduledExecutorService taskExecutor;
     private final PeerSelector peerSelector;
     private final Set<HttpClientTransaction> activeTransactions = Collections.synchronizedSet(new HashSet<>());
 
+    private final boolean pipelining;
+    private final Map<String, SiteToSiteRestApiClient> peerConnections = new ConcurrentHashMap<>();
+    private final Map<String, PreparedTransaction> preparedTransactions = new ConcurrentHashMap<>();
+    private final Set<String> preparingTransactions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService preparationExecutor;
+    private final AdaptiveBatchSizer batchSizer;
+    private volatile boolean closed = false;
+
     public HttpClient(final SiteToSiteClientConfig config) {
         super(config);
 
+        pipelining = config.isHttpPipelining();
+        batchSizer = new AdaptiveBatchSizer(config.getPreferredBatchCount(), config.getPreferredBatchSize(),
+            config.getPreferredBatchDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        if (pipelining) {
+            preparationExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = defaultFactory.newThread(r);
+                    thread.setName("Http Site-to-Site Transaction Preparer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        } else {
+            preparationExecutor = null;
+        }
+
         peerSelector = new PeerSelector(this, config.getPeerPersistenceFile());
         peerSelector.setEventReporter(config.getEventReporter());
 
@@ -84,6 +119,14 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
             }
         }, 0, 5, TimeUnit.SECONDS);
 
+        if (pipelining) {
+            taskExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdleConnections();
+                }
+            }, 5, 5, TimeUnit.SECONDS);
+        }
     }
 
     @Override
@@ -127,8 +170,6 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
 
     @Override
     public Transaction createTransaction(final TransferDirection direction) throws HandshakeException, PortNotRunningException, ProtocolException, UnknownPortException, IOException {
-        final int timeoutMillis = (int) config.getTimeout(TimeUnit.MILLISECONDS);
-
         PeerStatus peerStatus;
         while ((peerStatus = peerSelector.getNextPeerStatus(direction)) != null) {
             logger.debug("peerStatus={}", peerStatus);
@@ -148,57 +189,56 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
                 }
             }
 
-            final SiteToSiteRestApiClient apiClient = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter());
-
-            apiClient.setBaseUrl(peer.getUrl());
-            apiClient.setConnectTimeoutMillis(timeoutMillis);
-            apiClient.setReadTimeoutMillis(timeoutMillis);
-
-            apiClient.setCompress(config.isUseCompression());
-            apiClient.setRequestExpirationMillis(config.getIdleConnectionExpiration(TimeUnit.MILLISECONDS));
-            apiClient.setBatchCount(config.getPreferredBatchCount());
-            apiClient.setBatchSize(config.getPreferredBatchSize());
-            apiClient.setBatchDurationMillis(config.getPreferredBatchDuration(TimeUnit.MILLISECONDS));
+            final long startNanos = System.nanoTime();
+            final PreparedTransaction prepared = pipelining ? takePreparedTransaction(nodeApiUrl, direction, portId) : null;
 
+            final SiteToSiteRestApiClient apiClient;
             final String transactionUrl;
-            try {
-                transactionUrl = apiClient.initiateTransaction(direction, portId);
-                commSession.setUserDn(apiClient.getTrustedPeerDn());
-            } catch (final Exception e) {
-                apiClient.close();
-                logger.warn("Penalizing a peer {} due to {}", peer, e.toString());
-                peerSelector.penalize(peer, penaltyMillis);
-
-                // Following exceptions will be thrown even if we tried other peers, so throw it.
-                if (e instanceof UnknownPortException
-                        || e instanceof PortNotRunningException
-                        || e instanceof HandshakeException) {
-                    throw e;
+            if (prepared != null) {
+                logger.debug("Using transaction {} that was initiated in advance", prepared.transactionUrl);
+                apiClient = prepared.apiClient;
+                transactionUrl = prepared.transactionUrl;
+            } else {
+                apiClient = createApiClient(nodeApiUrl);
+                try {
+                    transactionUrl = apiClient.initiateTransaction(direction, portId);
+                } catch (final Exception e) {
+                    apiClient.close();
+                    logger.warn("Penalizing a peer {} due to {}", peer, e.toString());
+                    peerSelector.penalize(peer, penaltyMillis);
+
+                    // Following exceptions will be thrown even if we tried other peers, so throw it.
+                    if (e instanceof UnknownPortException
+                            || e instanceof PortNotRunningException
+                            || e instanceof HandshakeException) {
+                        throw e;
+                    }
+
+                    logger.debug("Continue trying other peers...");
+                    continue;
                 }
+            }
+            commSession.setUserDn(apiClient.getTrustedPeerDn());
 
-                logger.debug("Continue trying other peers...");
-                continue;
+            if (pipelining && direction == TransferDirection.RECEIVE) {
+                apiClient.setBatchCount(batchSizer.getBatchCount());
+                apiClient.setBatchSize(batchSizer.getBatchSize());
+                apiClient.setBatchDurationMillis(batchSizer.getBatchDuration(TimeUnit.MILLISECONDS));
             }
 
             // We found a valid peer to communicate with.
             final Integer transactionProtocolVersion = apiClient.getTransactionProtocolVersion();
-            final HttpClientTransaction transaction = new HttpClientTransaction(transactionProtocolVersion, peer, direction,
-                config.isUseCompression(), portId, penaltyMillis, config.getEventReporter()) {
-
-                @Override
-                protected void close() throws IOException {
-                    try {
-                        super.close();
-                    } finally {
-                        activeTransactions.remove(this);
-                    }
-                }
-            };
+            final ClientTransaction transaction = new ClientTransaction(transactionProtocolVersion, peer, direction, portId, penaltyMillis, startNanos);
 
             try {
                 transaction.initialize(apiClient, transactionUrl);
             } catch (final Exception e) {
                 transaction.error();
+                if (prepared != null) {
+                    // the server may have discarded the transaction in the meantime, e.g. because it was restarted
+                    logger.debug("Failed to use transaction {} that was initiated in advance due to {}; initiating a new one", transactionUrl, e.toString());
+                    continue;
+                }
                 throw e;
             }
 
@@ -210,6 +250,136 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
         return null;
     }
 
+    private SiteToSiteRestApiClient createApiClient(final String nodeApiUrl) {
+        final SiteToSiteRestApiClient apiClient;
+        if (pipelining) {
+            // borrow the connections that are kept open to the peer, rather than connecting for every transaction. The client is
+            // created within compute() so that the connections cannot be evicted between looking them up and borrowing them.
+            final AtomicReference<SiteToSiteRestApiClient> borrowingClient = new AtomicReference<>();
+            peerConnections.compute(nodeApiUrl, (url, owner) -> {
+                SiteToSiteRestApiClient connectionOwner = owner;
+                if (connectionOwner == null) {
+                    connectionOwner = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter());
+                    connectionOwner.setMaxConnections(MAX_CONNECTIONS_PER_PEER);
+                }
+
+                borrowingClient.set(new SiteToSiteRestApiClient(connectionOwner));
+                return connectionOwner;
+            });
+            apiClient = borrowingClient.get();
+        } else {
+            apiClient = new SiteToSiteRestApiClient(config.getSslContext(), config.getHttpProxy(), config.getEventReporter());
+        }
+
+        final int timeoutMillis = (int) config.getTimeout(TimeUnit.MILLISECONDS);
+        apiClient.setBaseUrl(nodeApiUrl);
+        apiClient.setConnectTimeoutMillis(timeoutMillis);
+        apiClient.setReadTimeoutMillis(timeoutMillis);
+
+        apiClient.setCompress(config.isUseCompression());
+        apiClient.setRequestExpirationMillis(config.getIdleConnectionExpiration(TimeUnit.MILLISECONDS));
+        apiClient.setBatchCount(config.getPreferredBatchCount());
+        apiClient.setBatchSize(config.getPreferredBatchSize());
+        apiClient.setBatchDurationMillis(config.getPreferredBatchDuration(TimeUnit.MILLISECONDS));
+        return apiClient;
+    }
+
+    private static String getPreparedTransactionKey(final String nodeApiUrl, final TransferDirection direction) {
+        return direction + " " + nodeApiUrl;
+    }
+
+    private PreparedTransaction takePreparedTransaction(final String nodeApiUrl, final TransferDirection direction, final String portId) {
+        final PreparedTransaction prepared = preparedTransactions.remove(getPreparedTransactionKey(nodeApiUrl, direction));
+        if (prepared == null) {
+            return null;
+        }
+
+        if (!prepared.portId.equals(portId) || System.nanoTime() > prepared.expirationNanos) {
+            logger.debug("Discarding transaction {} that was initiated in advance because it is no longer usable", prepared.transactionUrl);
+            closeQuietly(prepared.apiClient);
+            return null;
+        }
+
+        return prepared;
+    }
+
+    /**
+     * Initiates the next transaction with the given peer in the background, so that the round trip it takes overlaps with the commit of
+     * the current transaction. Initiating a transaction only creates a transaction resource on the server; no data is exchanged until
+     * the transaction is used. A transaction that is never used is expired by the server.
+     */
+    private void prepareNextTransaction(final String nodeApiUrl, final TransferDirection direction, final String portId) {
+        final String key = getPreparedTransactionKey(nodeApiUrl, direction);
+        if (closed || preparedTransactions.containsKey(key) || !preparingTransactions.add(key)) {
+            return;
+        }
+
+        try {
+            preparationExecutor.submit(() -> {
+                try {
+                    final SiteToSiteRestApiClient apiClient = createApiClient(nodeApiUrl);
+                    final String transactionUrl;
+                    try {
+                        transactionUrl = apiClient.initiateTransaction(direction, portId);
+                    } catch (final Exception e) {
+                        logger.debug("Failed to initiate a transaction with {} in advance due to {}", nodeApiUrl, e.toString());
+                        closeQuietly(apiClient);
+                        return;
+                    }
+
+                    // use the transaction only within half of its time-to-live, as the TTL extension thread would have done
+                    final long expirationNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(apiClient.getServerTransactionTtl()) / 2;
+                    final PreparedTransaction prepared = new PreparedTransaction(apiClient, transactionUrl, portId, expirationNanos);
+                    if (closed || preparedTransactions.putIfAbsent(key, prepared) != null) {
+                        closeQuietly(apiClient);
+                    }
+                } finally {
+                    preparingTransactions.remove(key);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // the client has been closed
+            preparingTransactions.remove(key);
+        }
+    }
+
+    /**
+     * Discards transactions that were initiated in advance but can no longer be used, and closes the connections to peers
+     * that no transaction has used for the idle connection expiration, such as peers that have left the cluster. Each peer
+     * can keep up to {@link #MAX_CONNECTIONS_PER_PEER} connections open, so they are not kept for peers that are not used.
+     */
+    private void evictIdleConnections() {
+        final long now = System.nanoTime();
+        for (final Map.Entry<String, PreparedTransaction> entry : preparedTransactions.entrySet()) {
+            final PreparedTransaction prepared = entry.getValue();
+            if (now > prepared.expirationNanos && preparedTransactions.remove(entry.getKey(), prepared)) {
+                logger.debug("Discarding transaction {} that was initiated in advance because it has not been used in time", prepared.transactionUrl);
+                closeQuietly(prepared.apiClient);
+            }
+        }
+
+        final long idleExpirationMillis = config.getIdleConnectionExpiration(TimeUnit.MILLISECONDS);
+        for (final String nodeApiUrl : peerConnections.keySet()) {
+            peerConnections.computeIfPresent(nodeApiUrl, (url, connectionOwner) -> {
+                if (!connectionOwner.isIdle(idleExpirationMillis, TimeUnit.MILLISECONDS)) {
+                    return connectionOwner;
+                }
+
+                logger.debug("Closing connections to {} because they have not been used for {} millis", url, idleExpirationMillis);
+                closeQuietly(connectionOwner);
+                return null;
+            });
+        }
+    }
+
+    private static void closeQuietly(final SiteToSiteRestApiClient apiClient) {
+        try {
+            apiClient.close();
+        } catch (final IOException e) {
+            logger.debug("Failed to close {} due to {}", apiClient, e.toString());
+        }
+    }
+
     private String resolveNodeApiUrl(final PeerDescription description) {
         return (description.isSecure() ? "https" : "http") + "://" + description.getHostname() + ":" + description.getPort() + "/nifi-api";
     }
@@ -221,11 +391,87 @@ public class HttpClient extends AbstractSiteToSiteClient implements PeerStatusPr
 
     @Override
     public void close() throws IOException {
+        closed = true;
         taskExecutor.shutdown();
         peerSelector.clear();
 
         for (final HttpClientTransaction transaction : activeTransactions) {
             transaction.getCommunicant().getCommunicationsSession().interrupt();
         }
+
+        if (preparationExecutor != null) {
+            preparationExecutor.shutdown();
+        }
+
+        for (final PreparedTransaction prepared : preparedTransactions.values()) {
+            closeQuietly(prepared.apiClient);
+        }
+        preparedTransactions.clear();
+
+        // transactions that are still active keep using the connections that they have already leased until they are closed
+        for (final SiteToSiteRestApiClient connectionOwner : peerConnections.values()) {
+            closeQuietly(connectionOwner);
+        }
+        peerConnections.clear();
+    }
+
+    /**
+     * A transaction that was initiated with a peer in advance, but not yet used.
+     */
+    private static class PreparedTransaction {
+        private final SiteToSiteRestApiClient apiClient;
+        private final String transactionUrl;
+        private final String portId;
+        private final long expirationNanos;
+
+        private PreparedTransaction(final SiteToSiteRestApiClient apiClient, final String transactionUrl, final String portId, final long expirationNanos) {
+            this.apiClient = apiClient;
+            this.transactionUrl = transactionUrl;
+            this.portId = portId;
+            this.expirationNanos = expirationNanos;
+        }
+    }
+
+    private class ClientTransaction extends HttpClientTransaction {
+        private final String portId;
+        private final long startNanos;
+        private long dataExchangeStartNanos;
+        private long dataExchangeEndNanos;
+
+        private ClientTransaction(final int protocolVersion, final Peer peer, final TransferDirection direction, final String portId,
+                            final int penaltyMillis, final long startNanos) throws IOException {
+            super(protocolVersion, peer, direction, config.isUseCompression(), portId, penaltyMillis, config.getEventReporter());
+            this.portId = portId;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void initialize(final SiteToSiteRestApiClient apiUtil, final String transactionUrl) throws IOException {
+            super.initialize(apiUtil, transactionUrl);
+            dataExchangeStartNanos = System.nanoTime();
+        }
+
+        @Override
+        protected void onDataExchanged() {
+            dataExchangeEndNanos = System.nanoTime();
+            if (pipelining) {
+                prepareNextTransaction(peer.getUrl(), direction, portId);
+            }
+        }
+
+        @Override
+        protected void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                activeTransactions.remove(this);
+            }
+
+            if (pipelining && direction == TransferDirection.RECEIVE && state == TransactionState.TRANSACTION_COMPLETED && dataExchangeEndNanos > 0) {
+                final long transferNanos = dataExchangeEndNanos - dataExchangeStartNanos;
+                final long overheadNanos = System.nanoTime() - startNanos - transferNanos;
+                batchSizer.recordTransaction(overheadNanos, transferNanos, getDataPacketsTransferred(), getBytesTransferred());
+            }
+        }
     }
 }
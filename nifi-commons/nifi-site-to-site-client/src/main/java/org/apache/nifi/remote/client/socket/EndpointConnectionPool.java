@@ -554,6 +554,11 @@ public class EndpointConnectionPool implements PeerStatusProvider {
         public boolean isUseCompression() {
             return original.isUseCompression();
         }
+
+        @Override
+        public String getCompressionCodec() {
+            return original.getCompressionCodec();
+        }
     }
 
 
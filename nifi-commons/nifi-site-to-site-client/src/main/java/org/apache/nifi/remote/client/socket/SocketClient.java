@@ -38,6 +38,7 @@ public class SocketClient extends AbstractSiteToSiteClient {
 
     private final EndpointConnectionPool pool;
     private final boolean compress;
+    private final String compressionCodec;
     private final String portName;
     private final long penalizationNanos;
     private volatile String portIdentifier;
@@ -56,6 +57,7 @@ public class SocketClient extends AbstractSiteToSiteClient {
         );
 
         this.compress = config.isUseCompression();
+        this.compressionCodec = config.getCompressionCodec();
         this.portIdentifier = config.getPortIdentifier();
         this.portName = config.getPortName();
         this.penalizationNanos = config.getPenalizationPeriod(TimeUnit.NANOSECONDS);
@@ -110,6 +112,11 @@ public class SocketClient extends AbstractSiteToSiteClient {
             public boolean isUseCompression() {
                 return compress;
             }
+
+            @Override
+            public String getCompressionCodec() {
+                return compressionCodec;
+            }
         };
     }
 
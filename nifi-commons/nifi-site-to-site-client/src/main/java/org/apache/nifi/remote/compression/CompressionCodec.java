@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.compression;
+
+import org.apache.nifi.remote.io.BlockCompressor;
+
+/**
+ * A compression algorithm that can be used to compress FlowFile content that is sent via Site-to-Site. Both sides of a
+ * connection agree on the codec to use during the handshake, by name. In addition to the codecs that are built in,
+ * implementations can be provided via the {@link java.util.ServiceLoader} mechanism.
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the name that identifies this codec during the handshake. Names are not case-sensitive and may not contain commas.
+     */
+    String getName();
+
+    /**
+     * @return a new compressor. Each stream of data uses its own compressor, so the compressor need not be thread-safe.
+     */
+    BlockCompressor createCompressor();
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import org.apache.nifi.remote.io.BlockCompressor;
+import org.apache.nifi.remote.io.CompressionInputStream;
+import org.apache.nifi.remote.io.CompressionOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides access to the {@link CompressionCodec}s that are available to Site-to-Site.
+ */
+public final class CompressionCodecs {
+
+    public static final String DEFLATE = "DEFLATE";
+    public static final String LZ4 = "LZ4";
+    public static final String SNAPPY = "SNAPPY";
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressionCodecs.class);
+
+    private static final Map<String, CompressionCodec> codecs;
+
+    static {
+        final Map<String, CompressionCodec> available = new LinkedHashMap<>();
+        register(available, DeflateCompressionCodec.class);
+        register(available, LZ4CompressionCodec.class);
+        register(available, SnappyCompressionCodec.class);
+
+        try {
+            for (final CompressionCodec codec : ServiceLoader.load(CompressionCodec.class)) {
+                register(available, codec);
+            }
+        } catch (final ServiceConfigurationError sce) {
+            logger.warn("Failed to load additional Site-to-Site compression codecs due to {}", sce.toString());
+        }
+
+        codecs = Collections.unmodifiableMap(available);
+    }
+
+    private CompressionCodecs() {
+    }
+
+    private static void register(final Map<String, CompressionCodec> available, final Class<? extends CompressionCodec> codecClass) {
+        final CompressionCodec codec;
+        try {
+            codec = codecClass.newInstance();
+        } catch (final Throwable t) {
+            logger.warn("Site-to-Site compression codec {} is not available due to {}", codecClass.getSimpleName(), t.toString());
+            return;
+        }
+
+        register(available, codec);
+    }
+
+    private static void register(final Map<String, CompressionCodec> available, final CompressionCodec codec) {
+        final String name = codec.getName();
+        if (name == null || name.trim().isEmpty() || name.contains(",")) {
+            logger.warn("Ignoring Site-to-Site compression codec {} because its name '{}' is not valid", codec, name);
+            return;
+        }
+
+        // codecs that rely on native libraries may not work on this platform, so make sure that the codec is usable before offering it
+        try {
+            verify(codec);
+        } catch (final Throwable t) {
+            logger.warn("Site-to-Site compression codec {} is not available due to {}", name, t.toString());
+            return;
+        }
+
+        available.putIfAbsent(name.toUpperCase(Locale.ROOT), codec);
+    }
+
+    private static void verify(final CompressionCodec codec) throws IOException {
+        final byte[] data = "Apache NiFi Site-to-Site compression codec verification".getBytes("UTF-8");
+        final BlockCompressor compressor = codec.createCompressor();
+        final byte[] compressed = new byte[compressor.getMaxCompressedLength(data.length)];
+        final int compressedLength = compressor.compress(data, data.length, compressed);
+
+        final byte[] decompressed = new byte[data.length];
+        compressor.decompress(compressed, compressedLength, decompressed);
+        if (!Arrays.equals(data, decompressed)) {
+            throw new IOException("Decompressed data did not match the original data");
+        }
+    }
+
+    /**
+     * @return the codec that is used when compression is requested but no codec is specified. This codec is always available.
+     */
+    public static CompressionCodec getDefaultCodec() {
+        return codecs.get(DEFLATE);
+    }
+
+    /**
+     * @param name the name of the codec
+     * @return the codec with the given name, or <code>null</code> if no such codec is available
+     */
+    public static CompressionCodec getCodec(final String name) {
+        if (name == null) {
+            return null;
+        }
+
+        return codecs.get(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the names of all available codecs
+     */
+    public static Set<String> getCodecNames() {
+        return codecs.keySet();
+    }
+
+    /**
+     * Creates the list of codecs that a client offers during the handshake. The preferred codec, if available, is offered
+     * first, followed by the default codec so that the client can still compress data when talking to an instance that does not
+     * support the preferred codec.
+     *
+     * @param preferredCodec the name of the codec that the client would like to use, or <code>null</code> to use the default codec
+     * @return a comma-separated list of codec names, in order of preference
+     */
+    public static String getPreferenceList(final String preferredCodec) {
+        final CompressionCodec preferred = getCodec(preferredCodec);
+        if (preferred == null || preferred == getDefaultCodec()) {
+            return DEFLATE;
+        }
+
+        return preferred.getName().toUpperCase(Locale.ROOT) + "," + DEFLATE;
+    }
+
+    /**
+     * Chooses the codec to use for a connection
+     *
+     * @param preferenceList a comma-separated list of codec names, in order of preference, as sent by the client
+     * @return the first codec in the list that is available, or <code>null</code> if none of them is available
+     */
+    public static CompressionCodec negotiate(final String preferenceList) {
+        if (preferenceList == null) {
+            return null;
+        }
+
+        for (final String name : preferenceList.split(",")) {
+            final CompressionCodec codec = getCodec(name);
+            if (codec != null) {
+                return codec;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param codec the codec to compress with
+     * @param out the stream to write compressed data to
+     * @return a stream that compresses data written to it. Closing the stream marks the end of the compressed data but does
+     *         not close the underlying stream.
+     */
+    public static OutputStream compress(final CompressionCodec codec, final OutputStream out) {
+        return new CompressionOutputStream(out, CompressionOutputStream.DEFAULT_BUFFER_SIZE, codec.createCompressor());
+    }
+
+    /**
+     * @param codec the codec that the data was compressed with
+     * @param in the stream to read compressed data from
+     * @return a stream that decompresses the data that was written by a stream returned from {@link #compress(CompressionCodec, OutputStream)}
+     */
+    public static InputStream decompress(final CompressionCodec codec, final InputStream in) {
+        return new CompressionInputStream(in, codec.createCompressor());
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.compression;
+
+import org.apache.nifi.remote.io.BlockCompressor;
+import org.apache.nifi.remote.io.DeflateBlockCompressor;
+
+/**
+ * Compresses data using DEFLATE, as Site-to-Site did before codecs could be negotiated. This codec gives the best compression
+ * ratio of the built-in codecs but is by far the most expensive in terms of CPU.
+ */
+public class DeflateCompressionCodec implements CompressionCodec {
+
+    @Override
+    public String getName() {
+        return CompressionCodecs.DEFLATE;
+    }
+
+    @Override
+    public BlockCompressor createCompressor() {
+        return new DeflateBlockCompressor();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.compression;
+
+import java.io.IOException;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import org.apache.nifi.remote.io.BlockCompressor;
+
+/**
+ * Compresses data using LZ4, which compresses and decompresses at a rate of several hundred megabytes per second per core at
+ * the cost of a lower compression ratio than DEFLATE.
+ */
+public class LZ4CompressionCodec implements CompressionCodec {
+
+    @Override
+    public String getName() {
+        return CompressionCodecs.LZ4;
+    }
+
+    @Override
+    public BlockCompressor createCompressor() {
+        final LZ4Factory factory = LZ4Factory.fastestInstance();
+        final LZ4Compressor compressor = factory.fastCompressor();
+        // the chunks are supplied by the remote peer, so they must be decompressed without trusting their contents
+        final LZ4SafeDecompressor decompressor = factory.safeDecompressor();
+
+        return new BlockCompressor() {
+            @Override
+            public int getMaxCompressedLength(final int uncompressedLength) {
+                return compressor.maxCompressedLength(uncompressedLength);
+            }
+
+            @Override
+            public int compress(final byte[] input, final int length, final byte[] output) {
+                return compressor.compress(input, 0, length, output, 0, output.length);
+            }
+
+            @Override
+            public void decompress(final byte[] input, final int length, final byte[] output) throws IOException {
+                final int uncompressedLength;
+                try {
+                    uncompressedLength = decompressor.decompress(input, 0, length, output, 0, output.length);
+                } catch (final LZ4Exception e) {
+                    throw new IOException("Failed to decompress LZ4 chunk", e);
+                }
+
+                if (uncompressedLength != output.length) {
+                    throw new IOException("Failed to decompress LZ4 chunk: expected " + output.length + " bytes but chunk contained " + uncompressedLength);
+                }
+            }
+        };
+    }
+}
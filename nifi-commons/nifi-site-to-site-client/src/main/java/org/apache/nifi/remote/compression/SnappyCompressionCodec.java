@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.compression;
+
+import java.io.IOException;
+
+import org.apache.nifi.remote.io.BlockCompressor;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Compresses data using Snappy, which is comparable to LZ4 in speed and compression ratio. Snappy relies on a native
+ * library, so this codec is only available on platforms for which snappy-java provides one.
+ */
+public class SnappyCompressionCodec implements CompressionCodec {
+
+    @Override
+    public String getName() {
+        return CompressionCodecs.SNAPPY;
+    }
+
+    @Override
+    public BlockCompressor createCompressor() {
+        return new BlockCompressor() {
+            @Override
+            public int getMaxCompressedLength(final int uncompressedLength) {
+                return Snappy.maxCompressedLength(uncompressedLength);
+            }
+
+            @Override
+            public int compress(final byte[] input, final int length, final byte[] output) throws IOException {
+                return Snappy.compress(input, 0, length, output, 0);
+            }
+
+            @Override
+            public void decompress(final byte[] input, final int length, final byte[] output) throws IOException {
+                // verify the length first so that a corrupt chunk cannot overrun the output buffer
+                final int uncompressedLength = Snappy.uncompressedLength(input, 0, length);
+                if (uncompressedLength != output.length) {
+                    throw new IOException("Failed to decompress Snappy chunk: expected " + output.length + " bytes but chunk contained " + uncompressedLength);
+                }
+
+                Snappy.uncompress(input, 0, length, output, 0);
+            }
+        };
+    }
+}
@@ -55,5 +55,12 @@ public enum HandshakeProperty {
      * client when pulling data. This property was introduced in version 5 of
      * the protocol. Value is in milliseconds.
      */
-    BATCH_DURATION;
+    BATCH_DURATION,
+    /**
+     * Comma-separated list of the names of the compression codecs that the
+     * client supports, in order of preference. The server responds with the
+     * name of the codec that it chose. Only sent if GZIP is true. This property
+     * was introduced in version 7 of the protocol.
+     */
+    COMPRESSION_CODECS;
 }
@@ -73,6 +73,7 @@ public class HttpClientTransaction extends AbstractTransaction {
                             logger.debug("{} {} There's no transaction to confirm.", this, peer);
                             ResponseCode.CONFIRM_TRANSACTION.writeResponse(dos, "");
                         } else {
+                            onDataExchanged();
                             TransactionResultEntity transactionResult
                                     = apiClient.commitReceivingFlowFiles(transactionUrl, ResponseCode.CONFIRM_TRANSACTION, commSession.getChecksum());
                             ResponseCode responseCode = ResponseCode.fromCode(transactionResult.getResponseCode());
@@ -91,6 +92,7 @@ public class HttpClientTransaction extends AbstractTransaction {
                 case DATA_EXCHANGED:
                     // Some flow files have been sent via stream, finish transferring.
                     apiClient.finishTransferFlowFiles(commSession);
+                    onDataExchanged();
                     ResponseCode.CONFIRM_TRANSACTION.writeResponse(dos, commSession.getChecksum());
                     break;
                 case TRANSACTION_CONFIRMED:
@@ -176,6 +178,12 @@ public class HttpClientTransaction extends AbstractTransaction {
         }
     }
 
+    /**
+     * Called once all of the data of the transaction has been exchanged with the peer, before the transaction is committed.
+     * The default implementation does nothing.
+     */
+    protected void onDataExchanged() {
+    }
 
     @Override
     protected void close() throws IOException {
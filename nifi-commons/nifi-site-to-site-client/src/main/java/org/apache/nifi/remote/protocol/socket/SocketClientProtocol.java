@@ -28,6 +28,8 @@ import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.VersionNegotiator;
 import org.apache.nifi.remote.codec.FlowFileCodec;
 import org.apache.nifi.remote.codec.StandardFlowFileCodec;
+import org.apache.nifi.remote.compression.CompressionCodec;
+import org.apache.nifi.remote.compression.CompressionCodecs;
 import org.apache.nifi.remote.exception.HandshakeException;
 import org.apache.nifi.remote.exception.ProtocolException;
 import org.apache.nifi.remote.protocol.ClientProtocol;
@@ -52,10 +54,12 @@ import java.util.concurrent.TimeUnit;
 public class SocketClientProtocol implements ClientProtocol {
 
     // Version 6 added to support Zero-Master Clustering, which was introduced in NiFi 1.0.0
-    private final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(6, 5, 4, 3, 2, 1);
+    // Version 7 added negotiation of the compression codec
+    private final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(7, 6, 5, 4, 3, 2, 1);
 
     private RemoteDestination destination;
     private boolean useCompression = false;
+    private CompressionCodec compressionCodec = null;
 
     private String commsIdentifier;
     private boolean handshakeComplete = false;
@@ -121,6 +125,10 @@ public class SocketClientProtocol implements ClientProtocol {
 
         properties.put(HandshakeProperty.REQUEST_EXPIRATION_MILLIS, String.valueOf(timeoutMillis));
 
+        if (useCompression && versionNegotiator.getVersion() >= 7) {
+            properties.put(HandshakeProperty.COMPRESSION_CODECS, CompressionCodecs.getPreferenceList(destination.getCompressionCodec()));
+        }
+
         if (versionNegotiator.getVersion() >= 5) {
             if (batchCount > 0) {
                 properties.put(HandshakeProperty.BATCH_COUNT, String.valueOf(batchCount));
@@ -170,6 +178,9 @@ public class SocketClientProtocol implements ClientProtocol {
             case PORTS_DESTINATION_FULL:
                 break;
             case PROPERTIES_OK:
+                if (useCompression) {
+                    compressionCodec = readCompressionCodec(dis);
+                }
                 readyForFileTransfer = true;
                 break;
             default:
@@ -183,6 +194,22 @@ public class SocketClientProtocol implements ClientProtocol {
         handshakeComplete = true;
     }
 
+    private CompressionCodec readCompressionCodec(final DataInputStream dis) throws IOException, HandshakeException {
+        // prior to version 7, the server always compresses with Deflate
+        if (versionNegotiator.getVersion() < 7) {
+            return CompressionCodecs.getDefaultCodec();
+        }
+
+        final String codecName = dis.readUTF();
+        final CompressionCodec negotiatedCodec = CompressionCodecs.getCodec(codecName);
+        if (negotiatedCodec == null) {
+            throw new HandshakeException("Remote instance chose compression codec " + codecName + ", which is not supported by this instance");
+        }
+
+        logger.debug("{} negotiated compression codec {}", this, codecName);
+        return negotiatedCodec;
+    }
+
     @Override
     public boolean isPortInvalid() {
         if (!handshakeComplete) {
@@ -270,7 +297,7 @@ public class SocketClientProtocol implements ClientProtocol {
         }
 
         return new SocketClientTransaction(versionNegotiator.getVersion(), destination.getIdentifier(), peer, codec,
-                direction, useCompression, (int) destination.getYieldPeriod(TimeUnit.MILLISECONDS), eventReporter);
+                direction, compressionCodec, (int) destination.getYieldPeriod(TimeUnit.MILLISECONDS), eventReporter);
     }
 
     @Override
@@ -21,6 +21,8 @@ import org.apache.nifi.remote.AbstractTransaction;
 import org.apache.nifi.remote.Peer;
 import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.codec.FlowFileCodec;
+import org.apache.nifi.remote.compression.CompressionCodec;
+import org.apache.nifi.remote.compression.CompressionCodecs;
 import org.apache.nifi.remote.exception.ProtocolException;
 import org.apache.nifi.remote.protocol.RequestType;
 import org.apache.nifi.remote.protocol.Response;
@@ -38,7 +40,12 @@ public class SocketClientTransaction extends AbstractTransaction {
 
     SocketClientTransaction(final int protocolVersion, final String destinationId, final Peer peer, final FlowFileCodec codec,
             final TransferDirection direction, final boolean useCompression, final int penaltyMillis, final EventReporter eventReporter) throws IOException {
-        super(peer, direction, useCompression, codec, eventReporter, protocolVersion, penaltyMillis, destinationId);
+        this(protocolVersion, destinationId, peer, codec, direction, useCompression ? CompressionCodecs.getDefaultCodec() : null, penaltyMillis, eventReporter);
+    }
+
+    SocketClientTransaction(final int protocolVersion, final String destinationId, final Peer peer, final FlowFileCodec codec,
+            final TransferDirection direction, final CompressionCodec compressionCodec, final int penaltyMillis, final EventReporter eventReporter) throws IOException {
+        super(peer, direction, compressionCodec, codec, eventReporter, protocolVersion, penaltyMillis, destinationId);
         this.dis = new DataInputStream(peer.getCommunicationsSession().getInput().getInputStream());
         this.dos = new DataOutputStream(peer.getCommunicationsSession().getOutput().getOutputStream());
 
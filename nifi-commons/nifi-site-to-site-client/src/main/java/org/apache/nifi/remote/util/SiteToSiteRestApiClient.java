@@ -117,6 +117,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -148,6 +149,8 @@ public class SiteToSiteRestApiClient implements Closeable {
     protected final HttpProxy proxy;
     private final AtomicBoolean proxyAuthRequiresResend = new AtomicBoolean(false);
     private final EventReporter eventReporter;
+    private final SiteToSiteRestApiClient connectionOwner;
+    private int maxConnections = 0;
 
     private RequestConfig requestConfig;
     private CredentialsProvider credentialsProvider;
@@ -162,7 +165,7 @@ public class SiteToSiteRestApiClient implements Closeable {
     private long batchDurationMillis = 0;
     private TransportProtocolVersionNegotiator transportProtocolVersionNegotiator = new TransportProtocolVersionNegotiator(1);
 
-    private String trustedPeerDn;
+    private volatile String trustedPeerDn;
     private final ScheduledExecutorService ttlExtendTaskExecutor;
     private ScheduledFuture<?> ttlExtendingFuture;
     private SiteToSiteRestApiClient extendingApiClient;
@@ -171,14 +174,40 @@ public class SiteToSiteRestApiClient implements Closeable {
     private int readTimeoutMillis;
     private static final Pattern HTTP_ABS_URL = Pattern.compile("^https?://.+$");
 
-    private Future<HttpResponse> postResult;
+    private volatile Future<HttpResponse> postResult;
+    private volatile CloseableHttpResponse receiveResponse;
     private CountDownLatch transferDataLatch = new CountDownLatch(1);
 
+    // the number of clients that currently borrow the connections of this one, and when the last of them was closed
+    private final AtomicInteger borrowerCount = new AtomicInteger(0);
+    private volatile long lastReleasedNanos = System.nanoTime();
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
 
     public SiteToSiteRestApiClient(final SSLContext sslContext, final HttpProxy proxy, final EventReporter eventReporter) {
+        this(sslContext, proxy, eventReporter, null);
+    }
+
+    /**
+     * Creates a client that sends its requests over the HTTP connections of the given client rather than opening connections of
+     * its own. Closing the created client does not close those connections; they are kept alive until the connection owner is closed,
+     * so that consecutive transactions with the same peer do not have to connect (and perform a TLS handshake) again. A request
+     * that is still in progress when the created client is closed is aborted, so that its connection is returned to the owner.
+     *
+     * @param connectionOwner the client whose connections are used
+     */
+    public SiteToSiteRestApiClient(final SiteToSiteRestApiClient connectionOwner) {
+        this(connectionOwner.sslContext, connectionOwner.proxy, connectionOwner.eventReporter, connectionOwner);
+    }
+
+    private SiteToSiteRestApiClient(final SSLContext sslContext, final HttpProxy proxy, final EventReporter eventReporter, final SiteToSiteRestApiClient connectionOwner) {
         this.sslContext = sslContext;
         this.proxy = proxy;
         this.eventReporter = eventReporter;
+        this.connectionOwner = connectionOwner;
+        if (connectionOwner != null) {
+            connectionOwner.borrowerCount.incrementAndGet();
+        }
 
         ttlExtendTaskExecutor = Executors.newScheduledThreadPool(1, new ThreadFactory() {
             private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
@@ -196,22 +225,70 @@ public class SiteToSiteRestApiClient implements Closeable {
     @Override
     public void close() throws IOException {
         stopExtendingTtl();
+        abortTransfer();
+
+        if (connectionOwner != null && released.compareAndSet(false, true)) {
+            connectionOwner.lastReleasedNanos = System.nanoTime();
+            connectionOwner.borrowerCount.decrementAndGet();
+        }
+
         closeSilently(httpClient);
         closeSilently(httpAsyncClient);
     }
 
+    /**
+     * Aborts a data transfer that has not run to completion. A response that has not been read to its end is closed, which
+     * discards its connection rather than leaving it leased, and a request that is still sending data is cancelled.
+     */
+    private void abortTransfer() {
+        final CloseableHttpResponse response = receiveResponse;
+        if (response != null) {
+            receiveResponse = null;
+            logger.debug("Closing the response of a data transfer that has not been read to its end");
+            closeSilently(response);
+        }
+
+        final Future<HttpResponse> result = postResult;
+        if (result != null && !result.isDone()) {
+            logger.debug("Cancelling a data transfer request that has not completed");
+            result.cancel(true);
+        }
+    }
+
+    /**
+     * @param duration the amount of time
+     * @param timeUnit the unit of the duration
+     * @return <code>true</code> if no client is borrowing the connections of this one, and none has been for at least the given duration
+     */
+    public boolean isIdle(final long duration, final TimeUnit timeUnit) {
+        return borrowerCount.get() == 0 && System.nanoTime() - lastReleasedNanos >= timeUnit.toNanos(duration);
+    }
+
     private CloseableHttpClient getHttpClient() {
-        if (httpClient == null) {
-            setupClient();
+        if (connectionOwner != null) {
+            return connectionOwner.getHttpClient();
+        }
+
+        // synchronized because clients that borrow the connections of this one may call this method concurrently
+        synchronized (this) {
+            if (httpClient == null) {
+                setupClient();
+            }
+            return httpClient;
         }
-        return httpClient;
     }
 
     private CloseableHttpAsyncClient getHttpAsyncClient() {
-        if (httpAsyncClient == null) {
-            setupAsyncClient();
+        if (connectionOwner != null) {
+            return connectionOwner.getHttpAsyncClient();
+        }
+
+        synchronized (this) {
+            if (httpAsyncClient == null) {
+                setupAsyncClient();
+            }
+            return httpAsyncClient;
         }
-        return httpAsyncClient;
     }
 
     private RequestConfig getRequestConfig() {
@@ -261,6 +338,12 @@ public class SiteToSiteRestApiClient implements Closeable {
             clientBuilder.addInterceptorFirst(new HttpsResponseInterceptor());
         }
 
+        if (maxConnections > 0) {
+            // All requests are sent with the same SSLContext, so a connection that was authenticated with a client certificate
+            // can be reused by any later request. Without this, such connections would never be leased again.
+            clientBuilder.setMaxConnPerRoute(maxConnections).setMaxConnTotal(maxConnections).disableConnectionState();
+        }
+
         httpClient = clientBuilder
             .setDefaultCredentialsProvider(getCredentialsProvider()).build();
     }
@@ -273,6 +356,10 @@ public class SiteToSiteRestApiClient implements Closeable {
             clientBuilder.addInterceptorFirst(new HttpsResponseInterceptor());
         }
 
+        if (maxConnections > 0) {
+            clientBuilder.setMaxConnPerRoute(maxConnections).setMaxConnTotal(maxConnections).disableConnectionState();
+        }
+
         httpAsyncClient = clientBuilder.setDefaultCredentialsProvider(getCredentialsProvider()).build();
         httpAsyncClient.start();
     }
@@ -615,11 +702,13 @@ public class SiteToSiteRestApiClient implements Closeable {
                                 stopExtendingTtl();
                                 closeSilently(httpIn);
                                 closeSilently(response);
+                                receiveResponse = null;
                             }
                             return r;
                         }
                     };
                     ((HttpInput) peer.getCommunicationsSession().getInput()).setInputStream(streamCapture);
+                    receiveResponse = response;
 
                     startExtendingTtl(transactionUrl, httpIn, response);
                     keepItOpen = true;
@@ -866,7 +955,7 @@ public class SiteToSiteRestApiClient implements Closeable {
 
         logger.debug("Starting extending TTL thread...");
 
-        extendingApiClient = new SiteToSiteRestApiClient(sslContext, proxy, EventReporter.NO_OP);
+        extendingApiClient = connectionOwner == null ? new SiteToSiteRestApiClient(sslContext, proxy, EventReporter.NO_OP) : new SiteToSiteRestApiClient(connectionOwner);
         extendingApiClient.transportProtocolVersionNegotiator = this.transportProtocolVersionNegotiator;
         extendingApiClient.connectTimeoutMillis = this.connectTimeoutMillis;
         extendingApiClient.readTimeoutMillis = this.readTimeoutMillis;
@@ -1183,6 +1272,19 @@ public class SiteToSiteRestApiClient implements Closeable {
         return baseUri;
     }
 
+    /**
+     * Sets the maximum number of connections that this client keeps open to the remote instance, including the connections that
+     * are used by clients that borrow them. Connections are kept alive between requests. Must be called before any request is sent.
+     *
+     * @param maxConnections the maximum number of connections, or 0 to use the defaults of the underlying HTTP client
+     */
+    public void setMaxConnections(final int maxConnections) {
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("maxConnections can't be a negative value.");
+        }
+        this.maxConnections = maxConnections;
+    }
+
     public void setCompress(final boolean compress) {
         this.compress = compress;
     }
@@ -1220,9 +1322,21 @@ public class SiteToSiteRestApiClient implements Closeable {
     }
 
     public String getTrustedPeerDn() {
+        // the owner's response interceptor records the DN of the peer for every connection that is borrowed from it
+        if (trustedPeerDn == null && connectionOwner != null) {
+            return connectionOwner.getTrustedPeerDn();
+        }
         return this.trustedPeerDn;
     }
 
+    /**
+     * @return the number of seconds that the server keeps a transaction alive without any communication, as returned by the server
+     * when the transaction was initiated
+     */
+    public int getServerTransactionTtl() {
+        return serverTransactionTtl;
+    }
+
     public TransactionResultEntity commitReceivingFlowFiles(final String transactionUrl, final ResponseCode clientResponse, final String checksum) throws IOException {
         logger.debug("Sending commitReceivingFlowFiles request to transactionUrl: {}, clientResponse={}, checksum={}",
             transactionUrl, clientResponse, checksum);
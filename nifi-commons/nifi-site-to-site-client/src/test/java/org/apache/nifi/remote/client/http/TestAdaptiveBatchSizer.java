@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.client.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestAdaptiveBatchSizer {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    @Test
+    public void testConfiguredLimitsUsedWithoutObservations() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 1024L, 500L, TimeUnit.MILLISECONDS);
+        assertEquals(100, sizer.getBatchCount());
+        assertEquals(1024L, sizer.getBatchSize());
+        assertEquals(500L, sizer.getBatchDuration(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testUnconfiguredLimitsRemainUnset() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(0, 0L, 0L, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 10; i++) {
+            sizer.recordTransaction(200 * MILLIS, 10 * MILLIS, 10, 10240L);
+        }
+
+        assertEquals(0, sizer.getBatchCount());
+        assertEquals(0L, sizer.getBatchSize());
+        assertEquals(0L, sizer.getBatchDuration(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testLimitsGrowWithRoundTripTime() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 0L, 100L, TimeUnit.MILLISECONDS);
+
+        // 10 FlowFiles in 10 millis, with 50 millis spent on round trips
+        for (int i = 0; i < 50; i++) {
+            sizer.recordTransaction(50 * MILLIS, 10 * MILLIS, 10, 10240L);
+        }
+
+        // transferring for 9 times the overhead of 50 millis takes 450 millis, or 450 FlowFiles
+        final int batchCount = sizer.getBatchCount();
+        assertTrue(String.valueOf(batchCount), batchCount >= 440 && batchCount <= 450);
+        final long batchDuration = sizer.getBatchDuration(TimeUnit.MILLISECONDS);
+        assertTrue(String.valueOf(batchDuration), batchDuration >= 440L && batchDuration <= 450L);
+        assertEquals(0L, sizer.getBatchSize());
+    }
+
+    @Test
+    public void testLimitsNeverShrinkBelowConfiguredOrGrowBeyondMax() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 1024L * 1024L, 0L, TimeUnit.MILLISECONDS);
+
+        // round trips are fast compared to transferring data
+        for (int i = 0; i < 50; i++) {
+            sizer.recordTransaction(MILLIS, 100 * MILLIS, 100, 1024L * 1024L);
+        }
+        assertEquals(100, sizer.getBatchCount());
+        assertEquals(1024L * 1024L, sizer.getBatchSize());
+
+        // round trips are extremely slow
+        for (int i = 0; i < 50; i++) {
+            sizer.recordTransaction(TimeUnit.SECONDS.toNanos(10L), 100 * MILLIS, 100, 1024L * 1024L);
+        }
+        assertEquals(100 * AdaptiveBatchSizer.MAX_GROWTH, sizer.getBatchCount());
+        assertEquals(1024L * 1024L * AdaptiveBatchSizer.MAX_GROWTH, sizer.getBatchSize());
+    }
+
+    @Test
+    public void testEmptyTransactionsDoNotAffectDataRate() {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50, 0L, 0L, TimeUnit.MILLISECONDS);
+        sizer.recordTransaction(50 * MILLIS, 0L, 0, 0L);
+        assertEquals(50, sizer.getBatchCount());
+
+        sizer.recordTransaction(50 * MILLIS, 10 * MILLIS, 10, 10240L);
+        sizer.recordTransaction(50 * MILLIS, 0L, 0, 0L);
+        assertEquals(450, sizer.getBatchCount());
+    }
+}
@@ -17,7 +17,9 @@
 package org.apache.nifi.remote.client.http;
 
 import org.apache.nifi.controller.ScheduledState;
+import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.remote.Peer;
+import org.apache.nifi.remote.PeerDescription;
 import org.apache.nifi.remote.Transaction;
 import org.apache.nifi.remote.TransferDirection;
 import org.apache.nifi.remote.client.KeystoreType;
@@ -26,11 +28,13 @@ import org.apache.nifi.remote.codec.StandardFlowFileCodec;
 import org.apache.nifi.remote.exception.HandshakeException;
 import org.apache.nifi.remote.io.CompressionInputStream;
 import org.apache.nifi.remote.io.CompressionOutputStream;
+import org.apache.nifi.remote.io.http.HttpCommunicationsSession;
 import org.apache.nifi.remote.protocol.DataPacket;
 import org.apache.nifi.remote.protocol.ResponseCode;
 import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
 import org.apache.nifi.remote.protocol.http.HttpHeaders;
 import org.apache.nifi.remote.protocol.http.HttpProxy;
+import org.apache.nifi.remote.util.SiteToSiteRestApiClient;
 import org.apache.nifi.remote.util.StandardDataPacket;
 import org.apache.nifi.stream.io.ByteArrayInputStream;
 import org.apache.nifi.stream.io.ByteArrayOutputStream;
@@ -78,6 +82,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -109,6 +114,7 @@ public class TestHttpClient {
     private static Set<PeerDTO> peers;
     private static Set<PeerDTO> peersSecure;
     private static String serverChecksum;
+    private static final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
 
     public static class SiteInfoServlet extends HttpServlet {
 
@@ -294,6 +300,33 @@ public class TestHttpClient {
         }
     }
 
+    public static class ConnectionRecordingPortTransactionsServlet extends PortTransactionsServlet {
+
+        @Override
+        protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+            clientPorts.add(req.getRemotePort());
+            super.service(req, resp);
+        }
+    }
+
+    public static class ConnectionRecordingOutputPortTransactionServlet extends OutputPortTransactionServlet {
+
+        @Override
+        protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+            clientPorts.add(req.getRemotePort());
+            super.service(req, resp);
+        }
+    }
+
+    public static class ConnectionRecordingFlowFilesServlet extends FlowFilesServlet {
+
+        @Override
+        protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+            clientPorts.add(req.getRemotePort());
+            super.service(req, resp);
+        }
+    }
+
     public static class FlowFilesTimeoutServlet extends FlowFilesServlet {
 
         @Override
@@ -462,6 +495,10 @@ public class TestHttpClient {
         servletHandler.addServletWithMapping(OutputPortTransactionServlet.class, "/data-transfer/output-ports/output-running-id/transactions/transaction-id");
         servletHandler.addServletWithMapping(FlowFilesServlet.class, "/data-transfer/output-ports/output-running-id/transactions/transaction-id/flow-files");
 
+        servletHandler.addServletWithMapping(ConnectionRecordingPortTransactionsServlet.class, "/data-transfer/output-ports/output-pooled-id/transactions");
+        servletHandler.addServletWithMapping(ConnectionRecordingOutputPortTransactionServlet.class, "/data-transfer/output-ports/output-pooled-id/transactions/transaction-id");
+        servletHandler.addServletWithMapping(ConnectionRecordingFlowFilesServlet.class, "/data-transfer/output-ports/output-pooled-id/transactions/transaction-id/flow-files");
+
         servletHandler.addServletWithMapping(PortTransactionsServlet.class, "/data-transfer/output-ports/output-timeout-id/transactions");
         servletHandler.addServletWithMapping(OutputPortTransactionServlet.class, "/data-transfer/output-ports/output-timeout-id/transactions/transaction-id");
         servletHandler.addServletWithMapping(FlowFilesTimeoutServlet.class, "/data-transfer/output-ports/output-timeout-id/transactions/transaction-id/flow-files");
@@ -619,6 +656,15 @@ public class TestHttpClient {
         runningOutputPort.setState(ScheduledState.RUNNING.name());
         outputPorts.add(runningOutputPort);
 
+        final PortDTO pooledOutputPort = new PortDTO();
+        pooledOutputPort.setName("output-pooled");
+        pooledOutputPort.setId("output-pooled-id");
+        pooledOutputPort.setType("OUTPUT_PORT");
+        pooledOutputPort.setState(ScheduledState.RUNNING.name());
+        outputPorts.add(pooledOutputPort);
+
+        clientPorts.clear();
+
         final PortDTO timeoutOutputPort = new PortDTO();
         timeoutOutputPort.setName("output-timeout");
         timeoutOutputPort.setId("output-timeout-id");
@@ -1146,6 +1192,54 @@ public class TestHttpClient {
         }
     }
 
+    @Test
+    public void testReceivePipelinedReusesConnections() throws Exception {
+
+        final int transactionCount = 5;
+        try (
+            SiteToSiteClient client = getDefaultBuilder()
+                .portName("output-pooled")
+                .httpPipelining(true)
+                .build()
+        ) {
+            for (int i = 0; i < transactionCount; i++) {
+                testReceive(client);
+            }
+        }
+
+        // Each transaction sends at least three requests. Without pooling, every transaction would connect again.
+        logger.info("{} transactions used {} connections", transactionCount, clientPorts.size());
+        assertTrue(clientPorts.size() < transactionCount);
+    }
+
+    @Test
+    public void testAbandonedReceiveReleasesBorrowedConnection() throws Exception {
+
+        final String nodeApiUrl = "http://localhost:" + httpConnector.getLocalPort() + "/nifi-api";
+        final PeerDescription peerDescription = new PeerDescription("localhost", httpConnector.getLocalPort(), false);
+
+        try (final SiteToSiteRestApiClient connectionOwner = new SiteToSiteRestApiClient(null, null, EventReporter.NO_OP)) {
+            // with a single pooled connection, the next transaction can only proceed if the previous one gave it back
+            connectionOwner.setMaxConnections(1);
+
+            for (int i = 0; i < 3; i++) {
+                try (final SiteToSiteRestApiClient apiClient = new SiteToSiteRestApiClient(connectionOwner)) {
+                    apiClient.setBaseUrl(nodeApiUrl);
+                    apiClient.setConnectTimeoutMillis(3000);
+                    apiClient.setReadTimeoutMillis(3000);
+
+                    final String transactionUrl = apiClient.initiateTransaction(TransferDirection.RECEIVE, "output-running-id");
+                    final Peer peer = new Peer(peerDescription, new HttpCommunicationsSession(), nodeApiUrl, nodeApiUrl);
+                    assertTrue(apiClient.openConnectionForReceive(transactionUrl, peer));
+
+                    // close without reading the data packets that the server has sent
+                }
+
+                assertTrue(connectionOwner.isIdle(0, TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
     @Test
     public void testReceiveSuccessWithProxy() throws Exception {
 
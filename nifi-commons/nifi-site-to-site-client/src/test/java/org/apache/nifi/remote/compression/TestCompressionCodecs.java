@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.compression;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.nifi.remote.io.BlockCompressor;
+import org.junit.Test;
+
+public class TestCompressionCodecs {
+
+    private byte[] createContent(final int length) {
+        // roughly the mix of repetitive text and random values that is typical of log and JSON data
+        final Random random = new Random(1L);
+        final StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append("{\"timestamp\":").append(1475000000000L + random.nextInt(100000))
+                .append(",\"host\":\"node-").append(random.nextInt(16))
+                .append("\",\"level\":\"INFO\",\"message\":\"Processed record ").append(random.nextLong())
+                .append("\"}\n");
+        }
+        return sb.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] roundTrip(final CompressionCodec codec, final byte[]... contents) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        for (final byte[] content : contents) {
+            try (final OutputStream out = CompressionCodecs.compress(codec, baos)) {
+                out.write(content);
+            }
+        }
+
+        // each compressed stream must end exactly where the next one begins
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        final InputStream in = new ByteArrayInputStream(baos.toByteArray());
+        for (final byte[] content : contents) {
+            final byte[] buffer = new byte[content.length];
+            new DataInputStream(CompressionCodecs.decompress(codec, in)).readFully(buffer);
+            decompressed.write(buffer);
+        }
+        assertEquals(-1, in.read());
+        return decompressed.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final byte[] first = createContent(1024 * 1024);
+        final byte[] second = createContent(17);
+        final byte[] expected = new byte[first.length + second.length];
+        System.arraycopy(first, 0, expected, 0, first.length);
+        System.arraycopy(second, 0, expected, first.length, second.length);
+
+        for (final String name : CompressionCodecs.getCodecNames()) {
+            assertArrayEquals(name, expected, roundTrip(CompressionCodecs.getCodec(name), first, second));
+        }
+    }
+
+    @Test
+    public void testBuiltInCodecsAvailable() {
+        assertTrue(CompressionCodecs.getCodecNames().contains(CompressionCodecs.DEFLATE));
+        assertTrue(CompressionCodecs.getCodecNames().contains(CompressionCodecs.LZ4));
+        assertTrue(CompressionCodecs.getCodecNames().contains(CompressionCodecs.SNAPPY));
+        assertSame(CompressionCodecs.getCodec("lz4"), CompressionCodecs.getCodec(CompressionCodecs.LZ4));
+    }
+
+    @Test
+    public void testNegotiation() {
+        assertEquals("DEFLATE", CompressionCodecs.getPreferenceList(null));
+        assertEquals("DEFLATE", CompressionCodecs.getPreferenceList("unknown"));
+        assertEquals("LZ4,DEFLATE", CompressionCodecs.getPreferenceList("lz4"));
+
+        assertSame(CompressionCodecs.getCodec(CompressionCodecs.SNAPPY), CompressionCodecs.negotiate("SNAPPY,DEFLATE"));
+        assertSame(CompressionCodecs.getDefaultCodec(), CompressionCodecs.negotiate("ZSTD,DEFLATE"));
+        assertNull(CompressionCodecs.negotiate("ZSTD"));
+    }
+
+    @Test
+    public void testLZ4RejectsMalformedChunk() throws IOException {
+        final BlockCompressor compressor = CompressionCodecs.getCodec(CompressionCodecs.LZ4).createCompressor();
+        final byte[] content = createContent(64 * 1024);
+        final byte[] compressed = new byte[compressor.getMaxCompressedLength(content.length)];
+        final int compressedLength = compressor.compress(content, content.length, compressed);
+
+        // a chunk that declares more bytes than it contains
+        try {
+            compressor.decompress(compressed, compressedLength, new byte[content.length + 1]);
+            fail("Expected IOException");
+        } catch (final IOException expected) {
+        }
+
+        // a chunk that was cut short
+        try {
+            compressor.decompress(compressed, compressedLength / 2, new byte[content.length]);
+            fail("Expected IOException");
+        } catch (final IOException expected) {
+        }
+    }
+
+    @Test
+    public void testCompressesTypicalContent() throws IOException {
+        final byte[] content = createContent(1024 * 1024);
+
+        for (final String name : CompressionCodecs.getCodecNames()) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (final OutputStream out = CompressionCodecs.compress(CompressionCodecs.getCodec(name), baos)) {
+                out.write(content);
+            }
+            assertTrue(name + " compressed " + content.length + " bytes to " + baos.size(), baos.size() < content.length / 2);
+        }
+    }
+
+    @Test
+    public void testRoundTripIncompressibleContent() throws IOException {
+        final byte[] content = new byte[256 * 1024];
+        new Random(1L).nextBytes(content);
+
+        for (final String name : CompressionCodecs.getCodecNames()) {
+            assertArrayEquals(name, content, roundTrip(CompressionCodecs.getCodec(name), content));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.io;
+
+import java.io.IOException;
+
+/**
+ * Compresses and decompresses the individual chunks of data that are written by a {@link CompressionOutputStream} and read by a
+ * {@link CompressionInputStream}. The streams take care of framing the chunks, so an implementation only needs to be able to
+ * compress a single, complete chunk into a buffer and back again. Implementations need not be thread-safe, as each stream
+ * creates its own instance.
+ */
+public interface BlockCompressor {
+
+    /**
+     * @param uncompressedLength the number of bytes in a chunk
+     * @return the size of the buffer that is required to hold any chunk of the given length once it has been compressed
+     */
+    int getMaxCompressedLength(int uncompressedLength);
+
+    /**
+     * Compresses the first <code>length</code> bytes of <code>input</code> into <code>output</code>
+     *
+     * @param input the data to compress
+     * @param length the number of bytes of data
+     * @param output the buffer to compress into, which is at least {@link #getMaxCompressedLength(int)} bytes long
+     * @return the number of compressed bytes written to the output buffer
+     * @throws IOException if unable to compress the data
+     */
+    int compress(byte[] input, int length, byte[] output) throws IOException;
+
+    /**
+     * Decompresses the first <code>length</code> bytes of <code>input</code> into <code>output</code>
+     *
+     * @param input the compressed data
+     * @param length the number of bytes of compressed data
+     * @param output the buffer to decompress into, whose length is the number of bytes that were originally compressed
+     * @throws IOException if the data is not valid for this compressor
+     */
+    void decompress(byte[] input, int length, byte[] output) throws IOException;
+}
@@ -20,13 +20,11 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
-import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
 
 public class CompressionInputStream extends InputStream {
 
     private final InputStream in;
-    private final Inflater inflater;
+    private final BlockCompressor compressor;
 
     private byte[] compressedBuffer;
     private byte[] buffer;
@@ -38,8 +36,12 @@ public class CompressionInputStream extends InputStream {
     private final byte[] fourByteBuffer = new byte[4];
 
     public CompressionInputStream(final InputStream in) {
+        this(in, new DeflateBlockCompressor());
+    }
+
+    public CompressionInputStream(final InputStream in, final BlockCompressor compressor) {
         this.in = in;
-        inflater = new Inflater();
+        this.compressor = compressor;
 
         buffer = new byte[0];
         compressedBuffer = new byte[0];
@@ -92,13 +94,7 @@ public class CompressionInputStream extends InputStream {
         readChunkHeader();
         fillBuffer(compressedBuffer);
 
-        inflater.setInput(compressedBuffer);
-        try {
-            inflater.inflate(buffer);
-        } catch (final DataFormatException e) {
-            throw new IOException(e);
-        }
-        inflater.reset();
+        compressor.decompress(compressedBuffer, compressedBuffer.length, buffer);
 
         bufferIndex = 0;
         final int moreDataByte = in.read();
@@ -29,7 +29,7 @@ public class CompressionOutputStream extends OutputStream {
     public static final int MIN_BUFFER_SIZE = 8 << 10;
 
     private final OutputStream out;
-    private final Deflater deflater;
+    private final BlockCompressor compressor;
 
     private final byte[] buffer;
     private final byte[] compressed;
@@ -46,15 +46,18 @@ public class CompressionOutputStream extends OutputStream {
     }
 
     public CompressionOutputStream(final OutputStream outStream, final int bufferSize, final int level, final int strategy) {
+        this(outStream, bufferSize, new DeflateBlockCompressor(level, strategy));
+    }
+
+    public CompressionOutputStream(final OutputStream outStream, final int bufferSize, final BlockCompressor compressor) {
         if (bufferSize < MIN_BUFFER_SIZE) {
             throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE);
         }
 
         this.out = outStream;
-        this.deflater = new Deflater(level);
-        this.deflater.setStrategy(strategy);
+        this.compressor = compressor;
         buffer = new byte[bufferSize];
-        compressed = new byte[bufferSize + 64];
+        compressed = new byte[compressor.getMaxCompressedLength(bufferSize)];
     }
 
     /**
@@ -67,15 +70,12 @@ public class CompressionOutputStream extends OutputStream {
             return;
         }
 
-        deflater.setInput(buffer, 0, bufferIndex);
-        deflater.finish();
-        final int compressedBytes = deflater.deflate(compressed);
+        final int compressedBytes = compressor.compress(buffer, bufferIndex, compressed);
 
         writeChunkHeader(compressedBytes);
         out.write(compressed, 0, compressedBytes);
 
         bufferIndex = 0;
-        deflater.reset();
     }
 
     private void writeChunkHeader(final int compressedBytes) throws IOException {
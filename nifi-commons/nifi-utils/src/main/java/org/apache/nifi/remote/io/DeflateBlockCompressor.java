@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote.io;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link BlockCompressor} that uses the DEFLATE algorithm. This is the compression that Site-to-Site has always used.
+ */
+public class DeflateBlockCompressor implements BlockCompressor {
+
+    private final Deflater deflater;
+    private final Inflater inflater = new Inflater();
+
+    public DeflateBlockCompressor() {
+        this(CompressionOutputStream.DEFAULT_COMPRESSION_LEVEL, Deflater.DEFAULT_STRATEGY);
+    }
+
+    public DeflateBlockCompressor(final int level, final int strategy) {
+        deflater = new Deflater(level);
+        deflater.setStrategy(strategy);
+    }
+
+    @Override
+    public int getMaxCompressedLength(final int uncompressedLength) {
+        return uncompressedLength + 64;
+    }
+
+    @Override
+    public int compress(final byte[] input, final int length, final byte[] output) {
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+        final int compressedBytes = deflater.deflate(output);
+        deflater.reset();
+        return compressedBytes;
+    }
+
+    @Override
+    public void decompress(final byte[] input, final int length, final byte[] output) throws IOException {
+        inflater.setInput(input, 0, length);
+        try {
+            inflater.inflate(output);
+        } catch (final DataFormatException e) {
+            throw new IOException(e);
+        }
+        inflater.reset();
+    }
+}
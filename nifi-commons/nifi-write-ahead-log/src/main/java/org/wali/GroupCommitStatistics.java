@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wali;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Statistics about the batches that are written by a {@link MinimalLockingWriteAheadLog} when group commit is enabled.
+ * A batch is the set of synchronous updates that were written to a single journal and made durable with a single sync
+ * to disk.
+ * </p>
+ *
+ * <p>
+ * Distributions are kept as histograms whose buckets are powers of two, so percentiles are approximate: the value
+ * returned for a percentile is the upper bound of the bucket that contains it. All methods are thread-safe.
+ * </p>
+ */
+public class GroupCommitStatistics {
+
+    private final Histogram batchSizes = new Histogram();
+    private final Histogram syncNanos = new Histogram();
+    private final Histogram commitNanos = new Histogram();
+
+    void recordBatch(final int updateCount, final long writeAndSyncNanos) {
+        batchSizes.record(updateCount);
+        syncNanos.record(writeAndSyncNanos);
+    }
+
+    void recordCommit(final long latencyNanos) {
+        commitNanos.record(latencyNanos);
+    }
+
+    /**
+     * @return the number of batches that have been written
+     */
+    public long getBatchCount() {
+        return batchSizes.getCount();
+    }
+
+    /**
+     * @return the number of updates that have been written as part of a batch
+     */
+    public long getUpdateCount() {
+        return batchSizes.getSum();
+    }
+
+    /**
+     * @return the number of updates that were committed successfully as part of a batch; updates whose batch failed are not counted
+     */
+    public long getCommitCount() {
+        return commitNanos.getCount();
+    }
+
+    /**
+     * @return the average number of updates that were written per batch, or 0 if no batches have been written
+     */
+    public double getAverageBatchSize() {
+        final long batches = batchSizes.getCount();
+        return batches == 0 ? 0D : (double) batchSizes.getSum() / batches;
+    }
+
+    /**
+     * @return the largest number of updates that were written in a single batch
+     */
+    public long getMaxBatchSize() {
+        return batchSizes.getMax();
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the approximate number of updates in a batch at the given percentile
+     */
+    public long getBatchSizePercentile(final double percentile) {
+        return batchSizes.getPercentile(percentile);
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @param timeUnit the unit to return the latency in
+     * @return the approximate time taken to write and sync a batch at the given percentile
+     */
+    public long getSyncLatencyPercentile(final double percentile, final TimeUnit timeUnit) {
+        return timeUnit.convert(syncNanos.getPercentile(percentile), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @param timeUnit the unit to return the latency in
+     * @return the approximate time between an update being requested and it being durable, at the given percentile
+     */
+    public long getCommitLatencyPercentile(final double percentile, final TimeUnit timeUnit) {
+        return timeUnit.convert(commitNanos.getPercentile(percentile), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitStatistics[batches=" + getBatchCount() + ", updates=" + getUpdateCount()
+            + ", avgBatchSize=" + String.format("%.2f", getAverageBatchSize()) + ", p50BatchSize=" + getBatchSizePercentile(50)
+            + ", p99BatchSize=" + getBatchSizePercentile(99) + ", maxBatchSize=" + getMaxBatchSize()
+            + ", p50SyncMicros=" + getSyncLatencyPercentile(50, TimeUnit.MICROSECONDS) + ", p99SyncMicros=" + getSyncLatencyPercentile(99, TimeUnit.MICROSECONDS)
+            + ", p50CommitMicros=" + getCommitLatencyPercentile(50, TimeUnit.MICROSECONDS) + ", p99CommitMicros=" + getCommitLatencyPercentile(99, TimeUnit.MICROSECONDS) + "]";
+    }
+
+
+    private static class Histogram {
+        // bucket i holds values in the range [2^(i-1), 2^i - 1]; bucket 0 holds values <= 0
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final AtomicLong count = new AtomicLong(0L);
+        private final AtomicLong sum = new AtomicLong(0L);
+        private final AtomicLong max = new AtomicLong(0L);
+
+        public void record(final long value) {
+            final int bucket = value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value);
+            buckets.incrementAndGet(Math.min(bucket, 63));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+
+            long currentMax = max.get();
+            while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+                currentMax = max.get();
+            }
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getSum() {
+            return sum.get();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public long getPercentile(final double percentile) {
+            final long total = count.get();
+            if (total == 0) {
+                return 0L;
+            }
+
+            final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100D));
+            long seen = 0L;
+            for (int i = 0; i < 64; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    final long upperBound = i == 0 ? 0L : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.min(upperBound, max.get());
+                }
+            }
+
+            return max.get();
+        }
+    }
+}
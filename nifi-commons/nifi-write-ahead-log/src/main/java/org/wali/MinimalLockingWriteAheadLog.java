@@ -31,6 +31,7 @@ import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -47,6 +48,7 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -72,6 +74,16 @@ import org.slf4j.LoggerFactory;
  * updates for a given Record at any one time.
  * </p>
  *
+ * <p>
+ * If group commit is enabled, updates that must be synced to disk are not each
+ * written and synced by the thread that requested them. Instead, they are queued
+ * up, and whichever thread next obtains the group commit lock writes every queued
+ * update to a single journal and syncs it once. Each caller returns only after
+ * the batch containing its update is durable, so the guarantees are the same,
+ * but the cost of the sync is shared by all of the updates that arrived while
+ * the previous batch was being synced.
+ * </p>
+ *
  * @param <T> type of record this WAL is for
  */
 public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepository<T> {
@@ -101,6 +113,13 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
     private final Lock readLock = rwLock.readLock(); // required to update a partition
     private final Lock writeLock = rwLock.writeLock(); // required for checkpoint
 
+    private final boolean groupCommit;
+    private final Queue<PendingCommit<T>> pendingCommits = new ConcurrentLinkedQueue<>();
+    // fair, so that a thread that has just committed a batch cannot immediately barge back in ahead of the threads
+    // that queued up while it was syncing; otherwise, batches tend to contain only a single update.
+    private final Lock groupCommitLock = new ReentrantLock(true);
+    private final GroupCommitStatistics groupCommitStatistics = new GroupCommitStatistics();
+
     private volatile boolean updated = false;
     private volatile boolean recovered = false;
 
@@ -108,6 +127,14 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
         this(new TreeSet<>(Collections.singleton(path)), partitionCount, serde, syncListener);
     }
 
+    public MinimalLockingWriteAheadLog(final Path path, final int partitionCount, final SerDe<T> serde, final SyncListener syncListener, final boolean groupCommit) throws IOException {
+        this(new TreeSet<>(Collections.singleton(path)), partitionCount, serde, syncListener, groupCommit);
+    }
+
+    public MinimalLockingWriteAheadLog(final SortedSet<Path> paths, final int partitionCount, final SerDe<T> serde, final SyncListener syncListener) throws IOException {
+        this(paths, partitionCount, serde, syncListener, false);
+    }
+
     /**
      *
      * @param paths a sorted set of Paths to use for the partitions/journals and
@@ -118,11 +145,16 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
      * expected to update the repository simultaneously
      * @param serde the serializer/deserializer for records
      * @param syncListener the listener
+     * @param groupCommit whether or not updates that must be synced to disk
+     * should be batched together, so that many concurrent updates are written
+     * to a single journal and made durable with a single sync
      * @throws IOException if unable to initialize due to IO issue
      */
     @SuppressWarnings("unchecked")
-    public MinimalLockingWriteAheadLog(final SortedSet<Path> paths, final int partitionCount, final SerDe<T> serde, final SyncListener syncListener) throws IOException {
+    public MinimalLockingWriteAheadLog(final SortedSet<Path> paths, final int partitionCount, final SerDe<T> serde, final SyncListener syncListener,
+            final boolean groupCommit) throws IOException {
         this.syncListener = syncListener;
+        this.groupCommit = groupCommit;
 
         requireNonNull(paths);
         requireNonNull(serde);
@@ -206,6 +238,10 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
         updated = true;
         readLock.lock();
         try {
+            if (groupCommit && forceSync) {
+                return updateWithGroupCommit(records);
+            }
+
             while (true) {
                 final int numBlackListed = numberBlackListedPartitions.get();
                 if (numBlackListed >= partitions.length) {
@@ -241,45 +277,168 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
                         partition.releaseClaim();
                     }
 
-                    for (final T record : records) {
-                        final UpdateType updateType = serde.getUpdateType(record);
-                        final Object recordIdentifier = serde.getRecordIdentifier(record);
-
-                        if (updateType == UpdateType.DELETE) {
-                            recordMap.remove(recordIdentifier);
-                        } else if (updateType == UpdateType.SWAP_OUT) {
-                            final String newLocation = serde.getLocation(record);
-                            if (newLocation == null) {
-                                logger.error("Received Record (ID=" + recordIdentifier + ") with UpdateType of SWAP_OUT but "
-                                        + "no indicator of where the Record is to be Swapped Out to; these records may be "
-                                        + "lost when the repository is restored!");
-                            } else {
-                                recordMap.remove(recordIdentifier);
-                                this.externalLocations.add(newLocation);
+                    updateRecordMap(records);
+
+                    return resolvedIdx;
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the given records to a journal as part of the next group commit, waiting until
+     * the batch that contains them has been synced to disk. Must be called with the read lock held.
+     */
+    private int updateWithGroupCommit(final Collection<T> records) throws IOException {
+        final long requestNanos = System.nanoTime();
+        final PendingCommit<T> pendingCommit = new PendingCommit<>(records);
+        pendingCommits.add(pendingCommit);
+
+        // If another thread is currently writing a batch, we will block here until it finishes. In the meantime,
+        // other threads are able to queue up their updates, so that the next thread to obtain the lock commits all of them.
+        groupCommitLock.lock();
+        try {
+            if (!pendingCommit.isComplete()) {
+                commitPendingUpdates();
+            }
+        } finally {
+            groupCommitLock.unlock();
+        }
+
+        // throws if the batch failed, in which case the commit is not counted
+        final int resolvedIdx = pendingCommit.getPartitionIndex();
+        groupCommitStatistics.recordCommit(System.nanoTime() - requestNanos);
+        return resolvedIdx;
+    }
+
+    /**
+     * Writes all of the queued updates to a single partition, each as its own transaction, and then syncs
+     * the partition once. Must be called with the group commit lock held.
+     */
+    private void commitPendingUpdates() {
+        final List<PendingCommit<T>> batch = new ArrayList<>();
+        PendingCommit<T> pendingCommit;
+        while ((pendingCommit = pendingCommits.poll()) != null) {
+            batch.add(pendingCommit);
+        }
+
+        final long batchStart = System.nanoTime();
+        int resolvedIdx = -1;
+        try {
+            while (resolvedIdx < 0) {
+                final int numBlackListed = numberBlackListedPartitions.get();
+                if (numBlackListed >= partitions.length) {
+                    throw new IOException("All Partitions have been blacklisted due to "
+                            + "failures when attempting to update. If the Write-Ahead Log is able to perform a checkpoint, "
+                            + "this issue may resolve itself. Otherwise, manual intervention will be required.");
+                }
+
+                final long partitionIdx = partitionIndex.getAndIncrement();
+                final int candidateIdx = (int) (partitionIdx % partitions.length);
+                final Partition<T> partition = partitions[candidateIdx];
+                if (!partition.tryClaim()) {
+                    continue;
+                }
+
+                try {
+                    // later transactions in the batch may update the same records, so they must be serialized against the
+                    // earlier ones' results; those results are only applied to the record map once the batch has been synced
+                    final BatchRecordMap<T> batchRecordMap = new BatchRecordMap<>(unmodifiableRecordMap);
+                    try {
+                        for (final PendingCommit<T> commit : batch) {
+                            final long transactionId = transactionIdGenerator.getAndIncrement();
+                            if (logger.isTraceEnabled()) {
+                                for (final T record : commit.getRecords()) {
+                                    logger.trace("Partition {} performing Transaction {}: {}", new Object[]{partition, transactionId, record});
+                                }
                             }
-                        } else if (updateType == UpdateType.SWAP_IN) {
-                            final String newLocation = serde.getLocation(record);
-                            if (newLocation == null) {
-                                logger.error("Received Record (ID=" + recordIdentifier + ") with UpdateType of SWAP_IN but no "
-                                        + "indicator of where the Record is to be Swapped In from; these records may be duplicated "
-                                        + "when the repository is restored!");
-                            } else {
-                                externalLocations.remove(newLocation);
+
+                            partition.writeTransaction(commit.getRecords(), transactionId, batchRecordMap);
+                            for (final T record : commit.getRecords()) {
+                                final UpdateType updateType = serde.getUpdateType(record);
+                                final Object recordIdentifier = serde.getRecordIdentifier(record);
+                                if (updateType == UpdateType.DELETE || updateType == UpdateType.SWAP_OUT) {
+                                    batchRecordMap.remove(recordIdentifier);
+                                } else {
+                                    batchRecordMap.put(recordIdentifier, record);
+                                }
                             }
-                            recordMap.put(recordIdentifier, record);
-                        } else {
-                            recordMap.put(recordIdentifier, record);
                         }
+
+                        partition.sync();
+                    } catch (final Throwable t) {
+                        partition.blackList();
+                        numberBlackListedPartitions.incrementAndGet();
+                        throw t;
                     }
 
-                    return resolvedIdx;
+                    if (syncListener != null) {
+                        syncListener.onSync(candidateIdx);
+                    }
+                } finally {
+                    partition.releaseClaim();
                 }
+
+                resolvedIdx = candidateIdx;
+            }
+        } catch (final Throwable t) {
+            for (final PendingCommit<T> commit : batch) {
+                commit.fail(t);
+            }
+
+            return;
+        }
+
+        for (final PendingCommit<T> commit : batch) {
+            updateRecordMap(commit.getRecords());
+            commit.complete(resolvedIdx);
+        }
+
+        groupCommitStatistics.recordBatch(batch.size(), System.nanoTime() - batchStart);
+    }
+
+    private void updateRecordMap(final Collection<T> records) {
+        for (final T record : records) {
+            final UpdateType updateType = serde.getUpdateType(record);
+            final Object recordIdentifier = serde.getRecordIdentifier(record);
+
+            if (updateType == UpdateType.DELETE) {
+                recordMap.remove(recordIdentifier);
+            } else if (updateType == UpdateType.SWAP_OUT) {
+                final String newLocation = serde.getLocation(record);
+                if (newLocation == null) {
+                    logger.error("Received Record (ID=" + recordIdentifier + ") with UpdateType of SWAP_OUT but "
+                            + "no indicator of where the Record is to be Swapped Out to; these records may be "
+                            + "lost when the repository is restored!");
+                } else {
+                    recordMap.remove(recordIdentifier);
+                    this.externalLocations.add(newLocation);
+                }
+            } else if (updateType == UpdateType.SWAP_IN) {
+                final String newLocation = serde.getLocation(record);
+                if (newLocation == null) {
+                    logger.error("Received Record (ID=" + recordIdentifier + ") with UpdateType of SWAP_IN but no "
+                            + "indicator of where the Record is to be Swapped In from; these records may be duplicated "
+                            + "when the repository is restored!");
+                } else {
+                    externalLocations.remove(newLocation);
+                }
+                recordMap.put(recordIdentifier, record);
+            } else {
+                recordMap.put(recordIdentifier, record);
             }
-        } finally {
-            readLock.unlock();
         }
     }
 
+    /**
+     * @return statistics about the batches that have been written when group commit is enabled
+     */
+    public GroupCommitStatistics getGroupCommitStatistics() {
+        return groupCommitStatistics;
+    }
+
     @Override
     public Collection<T> recoverRecords() throws IOException {
         if (updated) {
@@ -592,6 +751,10 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
                 + "time = {} milliseconds, Clear Edit Logs time = {} millis), max Transaction ID {}",
                 new Object[]{this, records.size(), swapLocations.size(), millis, stopTheWorldMillis, partitionMillis, maxTransactionId});
 
+        if (groupCommit) {
+            logger.info("{} {}", this, groupCommitStatistics);
+        }
+
         return records.size();
     }
 
@@ -612,6 +775,123 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
         return 1;
     }
 
+    /**
+     * An update that is waiting to be written as part of a group commit
+     *
+     * @param <S> type of record being updated
+     */
+    private static class PendingCommit<S> {
+        private final Collection<S> records;
+        private volatile boolean complete = false;
+        private volatile int partitionIndex = -1;
+        private volatile Throwable failure;
+
+        public PendingCommit(final Collection<S> records) {
+            this.records = records;
+        }
+
+        public Collection<S> getRecords() {
+            return records;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public void complete(final int partitionIndex) {
+            this.partitionIndex = partitionIndex;
+            this.complete = true;
+        }
+
+        public void fail(final Throwable failure) {
+            this.failure = failure;
+            this.complete = true;
+        }
+
+        /**
+         * Must only be called once the commit is complete
+         *
+         * @return the index of the partition that the records were written to
+         * @throws IOException if the records could not be written
+         */
+        public int getPartitionIndex() throws IOException {
+            final Throwable t = failure;
+            if (t == null) {
+                return partitionIndex;
+            }
+
+            if (t instanceof IOException) {
+                throw new IOException(t.getMessage(), t);
+            }
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+
+            throw new IOException(t);
+        }
+    }
+
+    /**
+     * A view of the record map that overlays the updates written by earlier transactions in a group commit batch,
+     * without applying them to the record map itself. Only {@link #get(Object)} is consulted when serializing edits.
+     *
+     * @param <S> type of record being updated
+     */
+    private static class BatchRecordMap<S> extends AbstractMap<Object, S> {
+        private final Map<Object, S> recordMap;
+        private final Map<Object, S> updates = new HashMap<>();
+
+        public BatchRecordMap(final Map<Object, S> recordMap) {
+            this.recordMap = recordMap;
+        }
+
+        @Override
+        public S get(final Object key) {
+            // a null value indicates that the record was removed by an earlier transaction in the batch
+            if (updates.containsKey(key)) {
+                return updates.get(key);
+            }
+
+            return recordMap.get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public S put(final Object key, final S value) {
+            final S previous = get(key);
+            updates.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public S remove(final Object key) {
+            final S previous = get(key);
+            updates.put(key, null);
+            return previous;
+        }
+
+        @Override
+        public Set<Entry<Object, S>> entrySet() {
+            final Map<Object, S> merged = new HashMap<>(recordMap);
+            for (final Map.Entry<Object, S> entry : updates.entrySet()) {
+                if (entry.getValue() == null) {
+                    merged.remove(entry.getKey());
+                } else {
+                    merged.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            return Collections.unmodifiableMap(merged).entrySet();
+        }
+    }
+
     /**
      * Represents a partition of this repository, which maps directly to a
      * .journal file.
@@ -902,6 +1182,20 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
 
         public void update(final Collection<S> records, final long transactionId, final Map<Object, S> recordMap, final boolean forceSync)
                 throws IOException {
+            writeTransaction(records, transactionId, recordMap);
+
+            dataOut.flush();
+
+            if (forceSync) {
+                fileOut.getFD().sync();
+            }
+        }
+
+        /**
+         * Writes the given records to the journal as a single transaction, without flushing the journal. Used
+         * to write several transactions before flushing and syncing them together via {@link #sync()}.
+         */
+        public void writeTransaction(final Collection<S> records, final long transactionId, final Map<Object, S> recordMap) throws IOException {
             if (this.closed) {
                 throw new IllegalStateException("Partition is closed");
             }
@@ -922,12 +1216,14 @@ public final class MinimalLockingWriteAheadLog<T> implements WriteAheadRepositor
                     out.write(TRANSACTION_COMMIT);
                 }
             }
+        }
 
-            out.flush();
-
-            if (forceSync) {
-                fileOut.getFD().sync();
-            }
+        /**
+         * Flushes any transactions that have been written and syncs the journal to disk
+         */
+        public void sync() throws IOException {
+            dataOut.flush();
+            fileOut.getFD().sync();
         }
 
         private DataInputStream createDataInputStream(final Path path) throws IOException {
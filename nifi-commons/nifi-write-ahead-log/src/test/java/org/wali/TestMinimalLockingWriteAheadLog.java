@@ -18,6 +18,7 @@ package org.wali;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedInputStream;
@@ -34,11 +35,13 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -249,6 +252,239 @@ public class TestMinimalLockingWriteAheadLog {
         }
     }
 
+    @Test
+    public void testGroupCommitRecovery() throws IOException, InterruptedException {
+        final int numPartitions = 4;
+
+        final Path path = Paths.get("target/minimal-locking-repo-group-commit");
+        deleteRecursively(path.toFile());
+        assertTrue(path.toFile().mkdirs());
+
+        final DummyRecordSerde serde = new DummyRecordSerde();
+        final MinimalLockingWriteAheadLog<DummyRecord> repo = new MinimalLockingWriteAheadLog<>(path, numPartitions, serde, null, true);
+        final Collection<DummyRecord> initialRecs = repo.recoverRecords();
+        assertTrue(initialRecs.isEmpty());
+
+        final long millis = insertSynced(repo, 8, 250);
+        System.out.println("Took " + millis + " millis to insert and sync 2,000 records using group commit");
+
+        final GroupCommitStatistics stats = repo.getGroupCommitStatistics();
+        assertEquals(2000, stats.getUpdateCount());
+        assertEquals(2000, stats.getCommitCount());
+        assertTrue(stats.getBatchCount() > 0);
+        assertTrue(stats.getBatchCount() <= 2000);
+        assertTrue(stats.getMaxBatchSize() >= 1);
+        logger.info("{}", stats);
+
+        // an update that does not require a sync is not part of a group commit
+        final DummyRecord unsynced = new DummyRecord("unsynced", UpdateType.CREATE);
+        unsynced.setProperty("A", "B");
+        repo.update(Collections.singleton(unsynced), false);
+        assertEquals(2000, stats.getUpdateCount());
+
+        // updating an existing record is serialized against the previous version
+        final DummyRecord updated = new DummyRecord("0", UpdateType.UPDATE);
+        updated.setProperty("A", "C");
+        repo.update(Collections.singleton(updated), true);
+        repo.update(Collections.singleton(new DummyRecord("1", UpdateType.DELETE)), true);
+        repo.shutdown();
+
+        final WriteAheadRepository<DummyRecord> recoverRepo = new MinimalLockingWriteAheadLog<>(path, numPartitions, serde, null, true);
+        final Collection<DummyRecord> recoveredRecords = recoverRepo.recoverRecords();
+        assertEquals(2000, recoveredRecords.size());
+        for (final DummyRecord record : recoveredRecords) {
+            final Map<String, String> recoveredProps = record.getProperties();
+            assertEquals(1, recoveredProps.size());
+            assertEquals(record.getId().equals("0") ? "C" : "B", recoveredProps.get("A"));
+            assertFalse(record.getId().equals("1"));
+        }
+        recoverRepo.shutdown();
+    }
+
+    @Test
+    public void testGroupCommitSerializesAgainstEarlierUpdatesInBatch() throws IOException, InterruptedException {
+        final Path path = Paths.get("target/minimal-locking-repo-group-commit-same-record");
+        deleteRecursively(path.toFile());
+        assertTrue(path.toFile().mkdirs());
+
+        // records the version of each record that was last written, and checks that each edit is serialized against it
+        final Map<Object, DummyRecord> lastWritten = new HashMap<>();
+        final AtomicReference<String> staleEdit = new AtomicReference<>();
+        final DummyRecordSerde serde = new DummyRecordSerde() {
+            @Override
+            public void serializeEdit(final DummyRecord previousState, final DummyRecord record, final DataOutputStream out) throws IOException {
+                synchronized (lastWritten) {
+                    if (previousState != lastWritten.get(record.getId())) {
+                        staleEdit.set("Record " + record.getId() + " was serialized against " + previousState + " instead of " + lastWritten.get(record.getId()));
+                    }
+                    lastWritten.put(record.getId(), record);
+                }
+                super.serializeEdit(previousState, record, out);
+            }
+        };
+
+        final MinimalLockingWriteAheadLog<DummyRecord> repo = new MinimalLockingWriteAheadLog<>(path, 4, serde, null, true);
+        repo.recoverRecords();
+
+        // every thread updates the same few records, so that a batch often contains several updates to the same record
+        final List<Thread> threads = new ArrayList<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < 8; i++) {
+            final int threadIndex = i;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int j = 0; j < 250; j++) {
+                        final DummyRecord record = new DummyRecord(String.valueOf(j % 4), UpdateType.UPDATE);
+                        record.setProperty("A", threadIndex + "-" + j);
+                        repo.update(Collections.singleton(record), true);
+                    }
+                } catch (final Throwable t) {
+                    failure.set(t);
+                }
+            }));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertNull(staleEdit.get());
+        repo.shutdown();
+    }
+
+    @Test
+    public void testFailedGroupCommitNotCounted() throws IOException {
+        final Path path = Paths.get("target/minimal-locking-repo-group-commit-failure");
+        deleteRecursively(path.toFile());
+        assertTrue(path.toFile().mkdirs());
+
+        final DummyRecordSerde serde = new DummyRecordSerde();
+        final MinimalLockingWriteAheadLog<DummyRecord> repo = new MinimalLockingWriteAheadLog<>(path, 4, serde, null, true);
+        repo.recoverRecords();
+
+        final DummyRecord record = new DummyRecord("1", UpdateType.CREATE);
+        record.setProperty("A", "B");
+        repo.update(Collections.singleton(record), true);
+        assertEquals(1, repo.getGroupCommitStatistics().getCommitCount());
+
+        serde.setThrowIOEAfterNSerializeEdits(0);
+        try {
+            repo.update(Collections.singleton(new DummyRecord("2", UpdateType.CREATE)), true);
+            Assert.fail("Expected IOException");
+        } catch (final IOException expected) {
+        }
+
+        assertEquals(1, repo.getGroupCommitStatistics().getCommitCount());
+        repo.shutdown();
+    }
+
+    @Test
+    public void testFailedGroupCommitNotCheckpointed() throws IOException, InterruptedException {
+        final Path path = Paths.get("target/minimal-locking-repo-group-commit-failure-checkpoint");
+        deleteRecursively(path.toFile());
+        assertTrue(path.toFile().mkdirs());
+
+        // blocks while writing the first batch, so that the next two updates are queued into a single batch, and then
+        // fails while writing the second update of that batch, after the first one has already been written
+        final CountDownLatch firstBatchLatch = new CountDownLatch(1);
+        final DummyRecordSerde serde = new DummyRecordSerde() {
+            @Override
+            public void serializeEdit(final DummyRecord previousState, final DummyRecord record, final DataOutputStream out) throws IOException {
+                if (record.getId().equals("1")) {
+                    try {
+                        firstBatchLatch.await();
+                    } catch (final InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                } else if (record.getId().equals("3")) {
+                    throw new IOException("Intentional failure while writing batch");
+                }
+
+                super.serializeEdit(previousState, record, out);
+            }
+        };
+
+        final MinimalLockingWriteAheadLog<DummyRecord> repo = new MinimalLockingWriteAheadLog<>(path, 4, serde, null, true);
+        repo.recoverRecords();
+
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+        for (final String id : new String[] {"1", "2", "3"}) {
+            final Thread thread = new Thread(() -> {
+                final DummyRecord record = new DummyRecord(id, UpdateType.CREATE);
+                record.setProperty("A", id);
+                try {
+                    repo.update(Collections.singleton(record), true);
+                } catch (final Throwable t) {
+                    failures.add(t);
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+
+            // wait until the update is blocked writing the first batch or waiting for the next one, so that the batches are deterministic
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1L);
+            }
+        }
+
+        firstBatchLatch.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2, failures.size());
+
+        repo.checkpoint();
+        repo.shutdown();
+
+        final MinimalLockingWriteAheadLog<DummyRecord> recoveredRepo = new MinimalLockingWriteAheadLog<>(path, 4, new DummyRecordSerde(), null, true);
+        try {
+            final Collection<DummyRecord> recovered = recoveredRepo.recoverRecords();
+            assertEquals(1, recovered.size());
+            assertEquals("1", recovered.iterator().next().getId());
+        } finally {
+            recoveredRepo.shutdown();
+        }
+    }
+
+    private long insertSynced(final WriteAheadRepository<DummyRecord> repo, final int numThreads, final int updatesPerThread) throws InterruptedException {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            final int startIndex = i * updatesPerThread;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int j = 0; j < updatesPerThread; j++) {
+                        final DummyRecord record = new DummyRecord(String.valueOf(startIndex + j), UpdateType.CREATE);
+                        record.setProperty("A", "B");
+                        repo.update(Collections.singleton(record), true);
+                    }
+                } catch (final Throwable t) {
+                    failure.set(t);
+                }
+            }));
+        }
+
+        final long start = System.nanoTime();
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (failure.get() != null) {
+            throw new AssertionError("Failed to update repository", failure.get());
+        }
+        return millis;
+    }
+
     @Test
     public void testRecoverAfterIOException() throws IOException {
         final int numPartitions = 5;
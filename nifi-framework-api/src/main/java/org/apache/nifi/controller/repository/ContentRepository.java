@@ -19,6 +19,8 @@ package org.apache.nifi.controller.repository;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Set;
@@ -226,6 +228,37 @@ public interface ContentRepository {
      */
     long exportTo(ContentClaim claim, OutputStream destination, long offset, long length) throws IOException;
 
+    /**
+     * Exports the content of the given claim to the given channel. Repositories that
+     * store content in files may transfer the bytes directly from the file to the
+     * channel, without copying them through the Java heap. The channel is not closed.
+     *
+     * @return the number of bytes copied
+     * @param claim to export from
+     * @param destination the channel to write the content to
+     * @throws IOException if an IO error occurs.
+     */
+    default long exportTo(final ContentClaim claim, final WritableByteChannel destination) throws IOException {
+        if (claim == null) {
+            return 0L;
+        }
+
+        try (final InputStream in = read(claim)) {
+            final byte[] buffer = new byte[8192];
+            final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            long copied = 0L;
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                byteBuffer.clear().limit(len);
+                while (byteBuffer.hasRemaining()) {
+                    destination.write(byteBuffer);
+                }
+                copied += len;
+            }
+            return copied;
+        }
+    }
+
     /**
      * @param claim to get size of
      * @return size in bytes of content for given claim
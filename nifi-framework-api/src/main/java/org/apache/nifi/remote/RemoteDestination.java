@@ -47,4 +47,12 @@ public interface RemoteDestination {
      * to or receiving data from the remote endpoint
      */
     boolean isUseCompression();
+
+    /**
+     * @return the name of the compression codec that is preferred when
+     * compression is used, or <code>null</code> to use the default codec
+     */
+    default String getCompressionCodec() {
+        return null;
+    }
 }
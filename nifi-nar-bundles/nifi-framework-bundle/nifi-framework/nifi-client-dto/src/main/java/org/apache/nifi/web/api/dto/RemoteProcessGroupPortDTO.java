@@ -32,6 +32,7 @@ public class RemoteProcessGroupPortDTO {
     private Integer concurrentlySchedulableTaskCount;
     private Boolean transmitting;
     private Boolean useCompression;
+    private String compressionCodec;
     private Boolean exists;
     private Boolean targetRunning;
     private Boolean connected;
@@ -134,6 +135,21 @@ public class RemoteProcessGroupPortDTO {
         this.useCompression = useCompression;
     }
 
+    /**
+     * @return the name of the codec that is preferred for compressing flow files sent to this target port
+     */
+    @ApiModelProperty(
+            value = "The preferred codec for compressing the flowfiles sent to the target port, such as DEFLATE, LZ4 or SNAPPY. The codec is only "
+                    + "used when compression is enabled; if the target does not support it, DEFLATE is used."
+    )
+    public String getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public void setCompressionCodec(String compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
     /**
      * @return whether or not the target port exists
      */
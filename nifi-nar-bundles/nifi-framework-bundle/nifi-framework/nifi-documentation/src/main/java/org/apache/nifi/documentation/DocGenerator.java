@@ -62,6 +62,18 @@ public class DocGenerator {
         extensionClasses.addAll(ExtensionManager.getExtensions(ControllerService.class));
         extensionClasses.addAll(ExtensionManager.getExtensions(ReportingTask.class));
 
+        generate(properties, extensionClasses);
+    }
+
+    /**
+     * Generates documentation for the specified extensions into the work/docs
+     * dir specified by NiFiProperties. Extensions that are not configurable
+     * components are ignored.
+     *
+     * @param properties to lookup nifi properties
+     * @param extensionClasses the extensions to document
+     */
+    public static void generate(final NiFiProperties properties, @SuppressWarnings("rawtypes") final Set<Class> extensionClasses) {
         final File explodedNiFiDocsDir = properties.getComponentDocumentationWorkingDirectory();
 
         logger.debug("Generating documentation for: " + extensionClasses.size() + " components in: "
@@ -588,7 +588,8 @@ public class HtmlDocumentationWriter implements DocumentationWriter {
 
     /**
      * Uses the {@link ExtensionManager} to discover any {@link ControllerService} implementations that implement a specific
-     * ControllerService API.
+     * ControllerService API. Only the implementations that have been loaded are considered, so that documenting the extensions
+     * of a NAR that is loaded lazily does not load every other NAR.
      *
      * @param parent the controller service API
      * @return a list of controller services that implement the controller service API
@@ -599,7 +600,7 @@ public class HtmlDocumentationWriter implements DocumentationWriter {
         final List<Class<? extends ControllerService>> implementations = new ArrayList<>();
 
         // first get all ControllerService implementations
-        final Set<Class> controllerServices = ExtensionManager.getExtensions(ControllerService.class);
+        final Set<Class> controllerServices = ExtensionManager.getLoadedExtensions(ControllerService.class);
 
         // then iterate over all controller services looking for any that is a child of the parent
         // ControllerService API that was passed in as a parameter
@@ -59,4 +59,16 @@ public interface EndpointResponseMerger {
      */
     NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse);
 
+    /**
+     * Prepares the response from a single node to be merged, as soon as that response has been received and before the
+     * responses from all nodes are available. The entity of the given response can be read more than once, so any entity that
+     * is read here is not read again by {@link #merge(URI, String, Set, Set, NodeResponse)}. The default implementation does nothing.
+     *
+     * @param uri the URI of the REST Endpoint
+     * @param method the HTTP Method used to interact with the REST Endpoint
+     * @param nodeResponse the response from a single node
+     */
+    default void prepare(URI uri, String method, NodeResponse nodeResponse) {
+    }
+
 }
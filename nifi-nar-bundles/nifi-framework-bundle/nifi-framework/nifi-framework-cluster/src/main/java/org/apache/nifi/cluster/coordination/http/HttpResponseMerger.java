@@ -62,4 +62,16 @@ public interface HttpResponseMerger {
      * @return <code>true</code> if the response must be interpreted, <code>false</code> otherwise
      */
     boolean isResponseInterpreted(URI uri, String httpMethod);
+
+    /**
+     * Performs any work needed to merge the given Node Response that does not depend on the responses of the other nodes,
+     * such as parsing the response entity. This is called as each response is received, so that this work overlaps with
+     * waiting on the remaining nodes rather than being done after the last node responds. The entity of the given
+     * response must be able to be read more than once.
+     *
+     * @param uri the URI of the request
+     * @param httpMethod the HTTP Method of the request
+     * @param nodeResponse the response received from a single node
+     */
+    void prepareResponse(URI uri, String httpMethod, NodeResponse nodeResponse);
 }
@@ -199,6 +199,14 @@ public class StandardHttpResponseMerger implements HttpResponseMerger {
         return getEndpointResponseMerger(uri, httpMethod) != null;
     }
 
+    @Override
+    public void prepareResponse(final URI uri, final String httpMethod, final NodeResponse nodeResponse) {
+        final EndpointResponseMerger merger = getEndpointResponseMerger(uri, httpMethod);
+        if (merger != null) {
+            merger.prepare(uri, httpMethod, nodeResponse);
+        }
+    }
+
     private EndpointResponseMerger getEndpointResponseMerger(final URI uri, final String httpMethod) {
         return endpointMergers.stream().filter(p -> p.canHandle(uri, httpMethod)).findFirst().orElse(null);
     }
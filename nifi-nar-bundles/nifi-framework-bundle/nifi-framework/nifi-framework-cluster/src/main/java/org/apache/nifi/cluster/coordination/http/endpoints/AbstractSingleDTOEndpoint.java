@@ -49,6 +49,14 @@ public abstract class AbstractSingleDTOEndpoint<EntityType extends Entity, DtoTy
         return new NodeResponse(clientResponse, responseEntity);
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        // parse the entity now; the response caches it so that merge() does not parse it again
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(getEntityClass());
+        }
+    }
+
     /**
      * @return the class that represents the type of Entity that is expected by this response mapper
      */
@@ -38,6 +38,13 @@ public class ConnectionsEndpointMerger implements EndpointResponseMerger {
         return "GET".equalsIgnoreCase(method) && CONNECTIONS_URI_PATTERN.matcher(uri.getPath()).matches();
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(ConnectionsEntity.class);
+        }
+    }
+
     @Override
     public final NodeResponse merge(final URI uri, final String method, final Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
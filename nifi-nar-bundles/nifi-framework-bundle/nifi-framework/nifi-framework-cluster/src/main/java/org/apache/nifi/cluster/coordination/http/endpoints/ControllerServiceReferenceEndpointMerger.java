@@ -42,6 +42,13 @@ public class ControllerServiceReferenceEndpointMerger implements EndpointRespons
         return false;
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(ControllerServiceReferencingComponentsEntity.class);
+        }
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
@@ -39,6 +39,13 @@ public class ControllerServicesEndpointMerger implements EndpointResponseMerger
         return "GET".equalsIgnoreCase(method) && (CONTROLLER_SERVICES_URI.equals(uri.getPath()) || PROCESS_GROUPS_CONTROLLER_SERVICES_URI.matcher(uri.getPath()).matches());
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(ControllerServicesEntity.class);
+        }
+    }
+
     @Override
     public final NodeResponse merge(final URI uri, final String method, final Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
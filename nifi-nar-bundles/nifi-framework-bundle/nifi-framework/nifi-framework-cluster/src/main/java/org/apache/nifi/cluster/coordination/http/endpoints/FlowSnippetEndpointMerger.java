@@ -41,6 +41,13 @@ public class FlowSnippetEndpointMerger implements EndpointResponseMerger {
             || FLOW_SNIPPET_INSTANCE_URI_PATTERN.matcher(uri.getPath()).matches());
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(FlowEntity.class);
+        }
+    }
+
     @Override
     public NodeResponse merge(final URI uri, final String method, Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
         final FlowEntity responseEntity = clientResponse.getClientResponse().getEntity(FlowEntity.class);
@@ -37,6 +37,13 @@ public class FunnelsEndpointMerger implements EndpointResponseMerger {
         return "GET".equalsIgnoreCase(method) && FUNNELS_URI_PATTERN.matcher(uri.getPath()).matches();
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(FunnelsEntity.class);
+        }
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
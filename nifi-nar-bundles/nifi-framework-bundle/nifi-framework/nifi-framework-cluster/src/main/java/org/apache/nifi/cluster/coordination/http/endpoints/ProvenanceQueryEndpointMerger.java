@@ -53,6 +53,12 @@ public class ProvenanceQueryEndpointMerger implements EndpointResponseMerger {
         return false;
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(ProvenanceEntity.class);
+        }
+    }
 
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
@@ -37,6 +37,13 @@ public class ReportingTasksEndpointMerger  implements EndpointResponseMerger {
         return "GET".equalsIgnoreCase(method) && REPORTING_TASKS_URI.equals(uri.getPath());
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(ReportingTasksEntity.class);
+        }
+    }
+
     @Override
     public final NodeResponse merge(final URI uri, final String method, final Set<NodeResponse> successfulResponses, final Set<NodeResponse> problematicResponses, final NodeResponse clientResponse) {
         if (!canHandle(uri, method)) {
@@ -91,6 +91,13 @@ public class StatusHistoryEndpointMerger implements EndpointResponseMerger {
         return descriptors != null && !descriptors.isEmpty();
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(StatusHistoryEntity.class);
+        }
+    }
+
     @Override
     public NodeResponse merge(URI uri, String method, Set<NodeResponse> successfulResponses, Set<NodeResponse> problematicResponses, NodeResponse clientResponse) {
         final Map<String, MetricDescriptor<?>> metricDescriptors = getMetricDescriptors(uri);
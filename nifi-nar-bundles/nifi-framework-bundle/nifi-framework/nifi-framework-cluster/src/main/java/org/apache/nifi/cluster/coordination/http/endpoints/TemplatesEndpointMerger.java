@@ -39,6 +39,13 @@ public class TemplatesEndpointMerger implements EndpointResponseMerger {
         return "GET".equalsIgnoreCase(method) && TEMPLATES_URI_PATTERN.matcher(uri.getPath()).matches();
     }
 
+    @Override
+    public void prepare(final URI uri, final String method, final NodeResponse nodeResponse) {
+        if (nodeResponse.is2xx()) {
+            nodeResponse.getClientResponse().getEntity(TemplatesEntity.class);
+        }
+    }
+
     protected Class<TemplatesEntity> getEntityClass() {
         return TemplatesEntity.class;
     }
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.cluster.coordination.http.replication;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.TerminatingClientHandler;
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.core.header.InBoundHeaders;
+import com.sun.jersey.spi.MessageBodyWorkers;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpOptions;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+import org.apache.nifi.util.FormatUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.HttpMethod;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * <p>
+ * Sends replicated requests to nodes without blocking a thread for the duration of each request. Requests are multiplexed over
+ * a small number of I/O threads and a pool of connections whose size is bounded, so the number of threads needed to replicate
+ * requests does not grow with the number of nodes or the number of concurrent users. A request that cannot obtain a connection
+ * within the read timeout fails rather than waiting indefinitely.
+ * </p>
+ *
+ * <p>
+ * Responses are read fully into memory by the I/O threads and then handed to an Executor, which turns them into ClientResponses
+ * that can be read with the same providers as the Jersey Client that is used for all other requests. Because of this, the client
+ * should only be used for requests whose responses are interpreted and merged, which are parsed in full anyway; responses that are
+ * passed through to the user as-is should be streamed by the blocking client instead.
+ * </p>
+ */
+public class AsyncHttpReplicationClient implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncHttpReplicationClient.class);
+
+    // headers that describe the connection to this node rather than the request, and so must not be copied to the replicated request
+    private static final Set<String> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList(
+        "host", "connection", "keep-alive", "content-length", "transfer-encoding", "upgrade", "te", "trailer", "accept-encoding"));
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final ResponseReader responseReader = new ResponseReader();
+
+    /**
+     * @param clientConfig the configuration of the Jersey Client used for all other requests, whose providers are used to read responses
+     * @param sslContext the SSL Context to use for https requests, or <code>null</code> if requests are not secure
+     * @param connectionTimeout the connection timeout, as a time period such as "5 secs"
+     * @param readTimeout the read timeout, as a time period such as "5 secs"; this also bounds how long a request waits for a free connection
+     * @param maxConnections the maximum number of connections to keep open, across all nodes
+     */
+    public AsyncHttpReplicationClient(final ClientConfig clientConfig, final SSLContext sslContext, final String connectionTimeout,
+                                      final String readTimeout, final int maxConnections) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("The maximum number of connections must be greater than zero.");
+        }
+
+        final int connectionTimeoutMs = (int) FormatUtils.getTimeDuration(connectionTimeout, TimeUnit.MILLISECONDS);
+        final int readTimeoutMs = (int) FormatUtils.getTimeDuration(readTimeout, TimeUnit.MILLISECONDS);
+
+        final RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(connectionTimeoutMs)
+            .setSocketTimeout(readTimeoutMs)
+            .setConnectionRequestTimeout(readTimeoutMs)
+            .build();
+
+        final HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+            .setDefaultRequestConfig(requestConfig)
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections);
+        if (sslContext != null) {
+            builder.setSSLContext(sslContext);
+        }
+
+        httpClient = builder.build();
+        httpClient.start();
+
+        // the Jersey Client injects its providers into the response reader, which is its terminating handler
+        new Client(responseReader, clientConfig);
+    }
+
+    /**
+     * Sends a request without blocking. Only requests that do not have a body are supported.
+     *
+     * @param method the HTTP method; one of GET, HEAD or OPTIONS
+     * @param uri the URI to send the request to
+     * @param headers the headers to send
+     * @param executor the Executor that creates the ClientResponse and invokes the callback, so that I/O threads are never blocked by either
+     * @param callback the callback to notify with the response or failure
+     */
+    public void send(final String method, final URI uri, final Map<String, String> headers, final Executor executor,
+                     final FutureCallback<ClientResponse> callback) {
+        final HttpRequestBase request;
+        switch (method.toUpperCase()) {
+            case HttpMethod.GET:
+                request = new HttpGet(uri);
+                break;
+            case HttpMethod.HEAD:
+                request = new HttpHead(uri);
+                break;
+            case HttpMethod.OPTIONS:
+                request = new HttpOptions(uri);
+                break;
+            default:
+                throw new IllegalArgumentException("HTTP Method '" + method + "' not supported for asynchronous request replication.");
+        }
+
+        for (final Map.Entry<String, String> entry : headers.entrySet()) {
+            if (!EXCLUDED_HEADERS.contains(entry.getKey().toLowerCase())) {
+                request.addHeader(entry.getKey(), entry.getValue());
+            }
+        }
+        // responses are read fully into memory before they are parsed, so there is no reason not to have them compressed
+        request.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        httpClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(final HttpResponse response) {
+                dispatch(executor, callback, () -> {
+                    final ClientResponse clientResponse;
+                    try {
+                        clientResponse = createClientResponse(response);
+                    } catch (final IOException | RuntimeException e) {
+                        callback.failed(e);
+                        return;
+                    }
+
+                    callback.completed(clientResponse);
+                });
+            }
+
+            @Override
+            public void failed(final Exception e) {
+                dispatch(executor, callback, () -> callback.failed(e));
+            }
+
+            @Override
+            public void cancelled() {
+                dispatch(executor, callback, () -> callback.failed(new CancellationException("Request " + method + " " + uri + " was cancelled")));
+            }
+        });
+    }
+
+    private void dispatch(final Executor executor, final FutureCallback<ClientResponse> callback, final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException ree) {
+            // the replicator is shutting down; complete the request here so that no one waits on it forever
+            logger.debug("Could not hand off response to executor; completing on I/O thread", ree);
+            callback.failed(ree);
+        }
+    }
+
+    private ClientResponse createClientResponse(final HttpResponse response) throws IOException {
+        final HttpEntity entity = response.getEntity();
+        final byte[] content = (entity == null) ? new byte[0] : EntityUtils.toByteArray(entity);
+
+        final Header contentEncoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        final boolean compressed = contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding.getValue());
+
+        final InBoundHeaders inboundHeaders = new InBoundHeaders();
+        for (final Header header : response.getAllHeaders()) {
+            // the content is decompressed here, so these no longer describe it
+            if (compressed && (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header.getName()) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getName()))) {
+                continue;
+            }
+            inboundHeaders.add(header.getName(), header.getValue());
+        }
+
+        final byte[] decodedContent = (compressed && content.length > 0) ? decompress(content) : content;
+        return new BufferedClientResponse(response.getStatusLine().getStatusCode(), inboundHeaders, decodedContent, responseReader.getWorkers());
+    }
+
+    private static byte[] decompress(final byte[] content) throws IOException {
+        try (final InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * The terminating handler of a Jersey Client that is never used to send requests. It exists so that the Client injects the
+     * providers that read entities, allowing responses received by the asynchronous client to be read like any other ClientResponse.
+     */
+    private static class ResponseReader extends TerminatingClientHandler {
+        @Override
+        public ClientResponse handle(final ClientRequest request) {
+            throw new UnsupportedOperationException("Requests are sent by the asynchronous HTTP client");
+        }
+
+        private MessageBodyWorkers getWorkers() {
+            return getMessageBodyWorkers();
+        }
+    }
+}
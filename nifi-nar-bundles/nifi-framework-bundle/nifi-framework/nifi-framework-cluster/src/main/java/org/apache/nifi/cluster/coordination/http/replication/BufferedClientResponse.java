@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nifi.cluster.coordination.http.replication;
+
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+import com.sun.jersey.spi.MessageBodyWorkers;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A ClientResponse whose content has already been read into memory, so that an entity can be parsed as soon as the response
+ * arrives and then retrieved again when the responses are merged. Once the first entity has been parsed, the response no longer
+ * holds on to the content itself: parsed entities are cached, and the content remains available only through the entity input
+ * stream, which releases it when the stream is closed or fully read.
+ */
+class BufferedClientResponse extends ClientResponse {
+    private byte[] content;
+    private final Map<Class<?>, Object> entities = new HashMap<>();
+
+    BufferedClientResponse(final int status, final InBoundHeaders headers, final byte[] content, final MessageBodyWorkers workers) {
+        super(status, headers, new ReleasableInputStream(content), workers);
+        this.content = content;
+    }
+
+    @Override
+    public synchronized <T> T getEntity(final Class<T> type) {
+        final Object cached = entities.get(type);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+
+        if (content == null) {
+            // the content has been released, so the entity can only be read from whatever remains of the stream
+            final T entity = super.getEntity(type);
+            entities.put(type, entity);
+            return entity;
+        }
+
+        setEntityInputStream(new ByteArrayInputStream(content));
+        try {
+            final T entity = super.getEntity(type);
+            entities.put(type, entity);
+            return entity;
+        } finally {
+            setEntityInputStream(new ReleasableInputStream(content));
+            content = null;
+        }
+    }
+
+    /**
+     * An InputStream over a byte array that drops its reference to the array once the stream has been fully read or closed.
+     */
+    private static class ReleasableInputStream extends InputStream {
+        private byte[] buffer;
+        private int position;
+
+        private ReleasableInputStream(final byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public synchronized int read() {
+            if (buffer == null || position >= buffer.length) {
+                buffer = null;
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (buffer == null || position >= buffer.length) {
+                buffer = null;
+                return -1;
+            }
+
+            final int count = Math.min(len, buffer.length - position);
+            System.arraycopy(buffer, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public synchronized int available() {
+            return buffer == null ? 0 : buffer.length - position;
+        }
+
+        @Override
+        public synchronized void close() {
+            buffer = null;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.filter.GZIPContentEncodingFilter;
 import com.sun.jersey.core.util.MultivaluedMapImpl;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.nifi.authorization.AccessDeniedException;
 import org.apache.nifi.authorization.user.NiFiUser;
 import org.apache.nifi.authorization.user.NiFiUserUtils;
@@ -52,6 +53,8 @@ import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriBuilder;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collections;
@@ -83,6 +86,7 @@ public class ThreadPoolRequestReplicator implements RequestReplicator {
     private static final int MAX_CONCURRENT_REQUESTS = 100;
 
     private final Client client; // the client to use for issuing requests
+    private final AsyncHttpReplicationClient asyncClient; // the client to use for issuing non-mutable requests without blocking; may be null
     private final int connectionTimeoutMs; // connection timeout per node request
     private final int readTimeoutMs; // read timeout per node request
     private final HttpResponseMerger responseMerger;
@@ -130,6 +134,26 @@ public class ThreadPoolRequestReplicator implements RequestReplicator {
     public ThreadPoolRequestReplicator(final int numThreads, final Client client, final ClusterCoordinator clusterCoordinator,
                                        final String connectionTimeout, final String readTimeout, final RequestCompletionCallback callback,
                                        final EventReporter eventReporter, final NiFiProperties nifiProperties) {
+        this(numThreads, client, null, clusterCoordinator, connectionTimeout, readTimeout, callback, eventReporter, nifiProperties);
+    }
+
+    /**
+     * Creates an instance that replicates GET, HEAD and OPTIONS requests using the given asynchronous client. Those requests do not
+     * occupy a thread while waiting on nodes; the threads are used only to send mutable requests and to process responses.
+     *
+     * @param numThreads         the number of threads to use when parallelizing requests
+     * @param client             a client for making requests
+     * @param asyncClient        a client for making non-mutable requests without blocking, or <code>null</code> to make all requests with the given client
+     * @param clusterCoordinator the cluster coordinator to use for interacting with node statuses
+     * @param connectionTimeout  the connection timeout specified in milliseconds
+     * @param readTimeout        the read timeout specified in milliseconds
+     * @param callback           a callback that will be called whenever all of the responses have been gathered for a request. May be null.
+     * @param eventReporter      an EventReporter that can be used to notify users of interesting events. May be null.
+     * @param nifiProperties     properties
+     */
+    public ThreadPoolRequestReplicator(final int numThreads, final Client client, final AsyncHttpReplicationClient asyncClient, final ClusterCoordinator clusterCoordinator,
+                                       final String connectionTimeout, final String readTimeout, final RequestCompletionCallback callback,
+                                       final EventReporter eventReporter, final NiFiProperties nifiProperties) {
         if (numThreads <= 0) {
             throw new IllegalArgumentException("The number of threads must be greater than zero.");
         } else if (client == null) {
@@ -137,6 +161,7 @@ public class ThreadPoolRequestReplicator implements RequestReplicator {
         }
 
         this.client = client;
+        this.asyncClient = asyncClient;
         this.clusterCoordinator = clusterCoordinator;
         this.connectionTimeoutMs = (int) FormatUtils.getTimeDuration(connectionTimeout, TimeUnit.MILLISECONDS);
         this.readTimeoutMs = (int) FormatUtils.getTimeDuration(readTimeout, TimeUnit.MILLISECONDS);
@@ -173,6 +198,14 @@ public class ThreadPoolRequestReplicator implements RequestReplicator {
     public void shutdown() {
         executorService.shutdown();
         maintenanceExecutor.shutdown();
+
+        if (asyncClient != null) {
+            try {
+                asyncClient.close();
+            } catch (final IOException ioe) {
+                logger.warn("Failed to close asynchronous HTTP client due to {}", ioe.toString());
+            }
+        }
     }
 
     @Override
@@ -667,7 +700,12 @@ public class ThreadPoolRequestReplicator implements RequestReplicator {
         // submit the requests to the nodes
         for (final NodeIdentifier nodeId : nodeIds) {
             final NodeHttpRequest callable = callableFactory.apply(nodeId);
-            executorService.submit(callable);
+            // the asynchronous client buffers the entire response, so responses that are passed through un-merged are streamed instead
+            if (asyncClient != null && !isMutableRequest(callable.method, path) && responseMerger.isResponseInterpreted(callable.uri, callable.method)) {
+                callable.replicateAsync();
+            } else {
+                executorService.submit(callable);
+            }
         }
     }
 
@@ -724,12 +762,75 @@ public class ThreadPoolRequestReplicator implements RequestReplicator {
                 logger.warn("", e);
             }
 
+            complete(nodeResponse);
+        }
+
+        private void complete(final NodeResponse nodeResponse) {
             if (callback != null) {
                 logger.debug("Request {} {} completed for {}", method, uri.getPath(), nodeId);
                 callback.onCompletion(nodeResponse);
             }
         }
 
+        /**
+         * Sends the request using the asynchronous client. This is only done for requests whose responses are interpreted.
+         * The response is processed by the executor service, which also prepares the response for merging so that it is
+         * parsed while the other nodes are still responding.
+         */
+        private void replicateAsync() {
+            final String requestId = headers.get("x-nifi-request-id");
+            final long startNanos = System.nanoTime();
+
+            logger.debug("Replicating request {} {} to {} asynchronously", method, uri.getPath(), nodeId);
+            try {
+                asyncClient.send(method, createAsyncURI(), headers, executorService, new FutureCallback<ClientResponse>() {
+                    @Override
+                    public void completed(final ClientResponse clientResponse) {
+                        final NodeResponse nodeResponse = new NodeResponse(nodeId, method, uri, clientResponse, System.nanoTime() - startNanos, requestId);
+
+                        try {
+                            responseMerger.prepareResponse(uri, method, nodeResponse);
+                        } catch (final Exception e) {
+                            // the entity will be parsed again when merging, which reports the problem
+                            logger.debug("Failed to prepare response from {} for {} {}", nodeId, method, uri.getPath(), e);
+                        }
+
+                        complete(nodeResponse);
+                    }
+
+                    @Override
+                    public void failed(final Exception e) {
+                        logger.warn("Failed to replicate request {} {} to {} due to {}", method, uri.getPath(), nodeId, e);
+                        logger.warn("", e);
+                        complete(new NodeResponse(nodeId, method, uri, e));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        failed(new IllegalStateException("Request was cancelled"));
+                    }
+                });
+            } catch (final Exception e) {
+                logger.warn("Failed to replicate request {} {} to {} due to {}", method, uri.getPath(), nodeId, e);
+                logger.warn("", e);
+                complete(new NodeResponse(nodeId, method, uri, e));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private URI createAsyncURI() {
+            // as with the Jersey client, a map of parameters for a non-mutable request is sent as query parameters
+            if (!(entity instanceof MultivaluedMap)) {
+                return uri;
+            }
+
+            final UriBuilder uriBuilder = UriBuilder.fromUri(uri);
+            for (final Map.Entry<String, List<Object>> entry : ((MultivaluedMap<String, Object>) entity).entrySet()) {
+                uriBuilder.queryParam(entry.getKey(), entry.getValue().toArray());
+            }
+            return uriBuilder.build();
+        }
+
 
         @SuppressWarnings({"rawtypes", "unchecked"})
         private WebResource.Builder createResourceBuilder() {
@@ -18,8 +18,10 @@
 package org.apache.nifi.cluster.spring;
 
 import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.config.DefaultClientConfig;
 import org.apache.nifi.cluster.coordination.ClusterCoordinator;
+import org.apache.nifi.cluster.coordination.http.replication.AsyncHttpReplicationClient;
 import org.apache.nifi.cluster.coordination.http.replication.RequestCompletionCallback;
 import org.apache.nifi.cluster.coordination.http.replication.ThreadPoolRequestReplicator;
 import org.apache.nifi.events.EventReporter;
@@ -31,6 +33,8 @@ import org.springframework.beans.factory.FactoryBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
+import javax.net.ssl.SSLContext;
+
 public class ThreadPoolRequestReplicatorFactoryBean implements FactoryBean<ThreadPoolRequestReplicator>, ApplicationContextAware {
     private ApplicationContext applicationContext;
     private NiFiProperties nifiProperties;
@@ -45,11 +49,22 @@ public class ThreadPoolRequestReplicatorFactoryBean implements FactoryBean<Threa
             final RequestCompletionCallback requestCompletionCallback = applicationContext.getBean("clusterCoordinator", RequestCompletionCallback.class);
 
             final int numThreads = nifiProperties.getClusterNodeProtocolThreads();
-            final Client jerseyClient = WebUtils.createClient(new DefaultClientConfig(), SslContextFactory.createSslContext(nifiProperties));
+            final SSLContext sslContext = SslContextFactory.createSslContext(nifiProperties);
+            final ClientConfig clientConfig = new DefaultClientConfig();
+            final Client jerseyClient = WebUtils.createClient(clientConfig, sslContext);
             final String connectionTimeout = nifiProperties.getClusterNodeConnectionTimeout();
             final String readTimeout = nifiProperties.getClusterNodeReadTimeout();
 
-            replicator = new ThreadPoolRequestReplicator(numThreads, jerseyClient, clusterCoordinator,
+            // the client configuration now includes the providers registered by WebUtils, which the asynchronous client uses to read responses
+            final AsyncHttpReplicationClient asyncClient;
+            if (nifiProperties.isClusterNodeReplicationAsyncEnabled()) {
+                asyncClient = new AsyncHttpReplicationClient(clientConfig, sslContext, connectionTimeout, readTimeout,
+                    nifiProperties.getClusterNodeReplicationMaxConnections());
+            } else {
+                asyncClient = null;
+            }
+
+            replicator = new ThreadPoolRequestReplicator(numThreads, jerseyClient, asyncClient, clusterCoordinator,
                 connectionTimeout, readTimeout, requestCompletionCallback, eventReporter, nifiProperties);
         }
 
@@ -21,8 +21,11 @@ import com.sun.jersey.api.client.ClientHandlerException;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.ClientResponse.Status;
 import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.api.client.config.DefaultClientConfig;
 import com.sun.jersey.core.header.InBoundHeaders;
 import com.sun.jersey.core.header.OutBoundHeaders;
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+import com.sun.net.httpserver.HttpServer;
 import org.apache.commons.collections4.map.MultiValueMap;
 import org.apache.nifi.cluster.coordination.ClusterCoordinator;
 import org.apache.nifi.cluster.coordination.node.NodeConnectionState;
@@ -33,6 +36,8 @@ import org.apache.nifi.cluster.manager.exception.DisconnectedNodeMutableRequestE
 import org.apache.nifi.cluster.manager.exception.IllegalClusterStateException;
 import org.apache.nifi.cluster.protocol.NodeIdentifier;
 import org.apache.nifi.util.NiFiProperties;
+import org.apache.nifi.web.api.dto.PermissionsDTO;
+import org.apache.nifi.web.api.entity.CurrentUserEntity;
 import org.apache.nifi.web.api.entity.Entity;
 import org.apache.nifi.web.api.entity.ProcessorEntity;
 import org.junit.Assert;
@@ -44,7 +49,11 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import javax.ws.rs.HttpMethod;
+import javax.xml.bind.JAXB;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -54,6 +63,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -202,6 +215,84 @@ public class TestThreadPoolRequestReplicator {
         }
     }
 
+    @Test(timeout = 15000)
+    public void testAsyncReplication() throws Exception {
+        final Set<String> receivedRequestIds = ConcurrentHashMap.newKeySet();
+        final Set<String> receivedQueries = ConcurrentHashMap.newKeySet();
+        final CountDownLatch allRequestsReceived = new CountDownLatch(3);
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            receivedRequestIds.add(exchange.getRequestHeaders().getFirst(ThreadPoolRequestReplicator.REQUEST_TRANSACTION_ID_HEADER));
+            receivedQueries.add(exchange.getRequestURI().getQuery());
+
+            // hold every response until all of the nodes have been sent their request, which a single blocking thread could not do
+            allRequestsReceived.countDown();
+            try {
+                allRequestsReceived.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            final byte[] body = createCurrentUserResponse();
+            exchange.getResponseHeaders().add("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(200, body.length);
+            try (final OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        final int port = server.getAddress().getPort();
+        final Set<NodeIdentifier> nodeIds = new HashSet<>();
+        for (int i = 1; i <= 3; i++) {
+            nodeIds.add(new NodeIdentifier(String.valueOf(i), "localhost", port, "localhost", 8001, "localhost", 8002, 8003, false));
+        }
+
+        final AsyncHttpReplicationClient asyncClient = new AsyncHttpReplicationClient(new DefaultClientConfig(), null, "1 sec", "5 secs", 10);
+        final ThreadPoolRequestReplicator replicator = new ThreadPoolRequestReplicator(1, new Client(), asyncClient, createClusterCoordinator(),
+                "1 sec", "5 secs", null, null, NiFiProperties.createBasicNiFiProperties(null, null));
+
+        try {
+            final MultivaluedMapImpl parameters = new MultivaluedMapImpl();
+            parameters.add("recursive", "true");
+
+            final AsyncClusterResponse response = replicator.replicate(nodeIds, HttpMethod.GET, new URI("http://localhost:" + port + "/nifi-api/flow/current-user"),
+                    parameters, new HashMap<>(), true, true);
+            final NodeResponse mergedResponse = response.awaitMergedResponse();
+
+            assertEquals(200, mergedResponse.getStatus());
+            assertTrue(mergedResponse.getUpdatedEntity() instanceof CurrentUserEntity);
+            assertEquals("user", ((CurrentUserEntity) mergedResponse.getUpdatedEntity()).getIdentity());
+            assertEquals(3, response.getCompletedNodeResponses().size());
+
+            assertEquals(1, receivedRequestIds.size());
+            assertEquals(response.getRequestIdentifier(), receivedRequestIds.iterator().next());
+            assertEquals(1, receivedQueries.size());
+            assertEquals("recursive=true", receivedQueries.iterator().next());
+        } finally {
+            replicator.shutdown();
+            server.stop(0);
+            serverExecutor.shutdown();
+        }
+    }
+
+    private static byte[] createCurrentUserResponse() {
+        final CurrentUserEntity entity = new CurrentUserEntity();
+        entity.setIdentity("user");
+        entity.setControllerPermissions(new PermissionsDTO());
+        entity.setCountersPermissions(new PermissionsDTO());
+        entity.setPoliciesPermissions(new PermissionsDTO());
+        entity.setProvenancePermissions(new PermissionsDTO());
+        entity.setTenantsPermissions(new PermissionsDTO());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JAXB.marshal(entity, out);
+        return out.toByteArray();
+    }
+
     private ClusterCoordinator createClusterCoordinator() {
         final ClusterCoordinator coordinator = Mockito.mock(ClusterCoordinator.class);
         Mockito.when(coordinator.getConnectionStatus(Mockito.any(NodeIdentifier.class))).thenAnswer(new Answer<NodeConnectionStatus>() {
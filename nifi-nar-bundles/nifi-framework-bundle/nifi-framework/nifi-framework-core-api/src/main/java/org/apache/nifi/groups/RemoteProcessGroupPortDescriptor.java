@@ -54,6 +54,11 @@ public interface RemoteProcessGroupPortDescriptor {
      */
     Boolean getUseCompression();
 
+    /**
+     * @return The name of the codec that is preferred for compressing flow files sent to or received from this target port
+     */
+    String getCompressionCodec();
+
     /**
      * @return Whether or not the target port exists
      */
@@ -37,6 +37,11 @@ public abstract class RemoteGroupPort extends AbstractPort implements Port, Remo
 
     public abstract void setUseCompression(boolean useCompression);
 
+    @Override
+    public abstract String getCompressionCodec();
+
+    public abstract void setCompressionCodec(String compressionCodec);
+
     public abstract boolean getTargetExists();
 
     public abstract boolean isTargetRunning();
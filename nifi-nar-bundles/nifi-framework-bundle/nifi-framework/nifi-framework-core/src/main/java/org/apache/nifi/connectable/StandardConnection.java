@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -82,7 +83,8 @@ public final class StandardConnection implements Connection {
         relationships = new AtomicReference<>(Collections.unmodifiableCollection(builder.relationships));
         scheduler = builder.scheduler;
         flowFileQueue = new StandardFlowFileQueue(id, this, builder.flowFileRepository, builder.provenanceRepository, builder.resourceClaimManager,
-                scheduler, builder.swapManager, builder.eventReporter, builder.queueSwapThreshold);
+                scheduler, builder.swapManager, builder.eventReporter, builder.queueSwapThreshold, builder.queueConcurrentPuts,
+                builder.swapInExecutor, builder.queueTimerDrivenEvents);
         hashCode = new HashCodeBuilder(7, 67).append(id).toHashCode();
     }
 
@@ -341,6 +343,9 @@ public final class StandardConnection implements Connection {
         private ProvenanceEventRepository provenanceRepository;
         private ResourceClaimManager resourceClaimManager;
         private int queueSwapThreshold;
+        private boolean queueConcurrentPuts;
+        private ExecutorService swapInExecutor;
+        private boolean queueTimerDrivenEvents;
 
         public Builder(final ProcessScheduler scheduler) {
             this.scheduler = scheduler;
@@ -417,6 +422,21 @@ public final class StandardConnection implements Connection {
             return this;
         }
 
+        public Builder queueConcurrentPuts(final boolean queueConcurrentPuts) {
+            this.queueConcurrentPuts = queueConcurrentPuts;
+            return this;
+        }
+
+        public Builder swapInExecutor(final ExecutorService swapInExecutor) {
+            this.swapInExecutor = swapInExecutor;
+            return this;
+        }
+
+        public Builder queueTimerDrivenEvents(final boolean queueTimerDrivenEvents) {
+            this.queueTimerDrivenEvents = queueTimerDrivenEvents;
+            return this;
+        }
+
         public StandardConnection build() {
             if (source == null) {
                 throw new IllegalStateException("Cannot build a Connection without a Source");
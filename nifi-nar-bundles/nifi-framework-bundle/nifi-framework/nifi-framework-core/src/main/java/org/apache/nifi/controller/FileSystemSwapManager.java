@@ -51,6 +51,7 @@ import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
 import org.apache.nifi.controller.repository.claim.StandardContentClaim;
+import org.apache.nifi.controller.swap.ColumnarSwapEncoding;
 import org.apache.nifi.controller.swap.StandardSwapContents;
 import org.apache.nifi.controller.swap.StandardSwapSummary;
 import org.apache.nifi.events.EventReporter;
@@ -72,11 +73,18 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
     private static final Pattern SWAP_FILE_PATTERN = Pattern.compile("\\d+-.+\\.swap");
     private static final Pattern TEMP_SWAP_FILE_PATTERN = Pattern.compile("\\d+-.+\\.swap\\.part");
 
-    public static final int SWAP_ENCODING_VERSION = 10;
+    public static final int SWAP_ENCODING_VERSION = 11;
+
+    // version 11 introduced the columnar encoding of the FlowFiles; see ColumnarSwapEncoding
+    private static final int MIN_COLUMNAR_ENCODING_VERSION = 11;
+
+    // the newest version that older versions of NiFi can read; written unless the columnar encoding is enabled
+    private static final int ROW_ENCODING_VERSION = 10;
     public static final String EVENT_CATEGORY = "Swap FlowFiles";
     private static final Logger logger = LoggerFactory.getLogger(FileSystemSwapManager.class);
 
     private final File storageDirectory;
+    private final int encodingVersion;
 
     // effectively final
     private FlowFileRepository flowFileRepository;
@@ -88,6 +96,7 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
      */
     public FileSystemSwapManager() {
         storageDirectory = null;
+        encodingVersion = ROW_ENCODING_VERSION;
     }
 
     public FileSystemSwapManager(final NiFiProperties nifiProperties) {
@@ -97,6 +106,8 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         if (!storageDirectory.exists() && !storageDirectory.mkdirs()) {
             throw new RuntimeException("Cannot create Swap Storage directory " + storageDirectory.getAbsolutePath());
         }
+
+        this.encodingVersion = nifiProperties.isSwapColumnarEncodingEnabled() ? MIN_COLUMNAR_ENCODING_VERSION : ROW_ENCODING_VERSION;
     }
 
     @Override
@@ -117,7 +128,7 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         final String swapLocation = swapFile.getAbsolutePath();
 
         try (final FileOutputStream fos = new FileOutputStream(swapTempFile)) {
-            serializeFlowFiles(toSwap, flowFileQueue, swapLocation, fos);
+            serializeFlowFiles(toSwap, flowFileQueue, swapLocation, fos, encodingVersion);
             fos.getFD().sync();
         } catch (final IOException ioe) {
             // we failed to write out the entire swap file. Delete the temporary file, if we can.
@@ -281,12 +292,26 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
             }
 
             final QueueSize queueSize = new QueueSize(numRecords, contentSize);
+            if (swapEncodingVersion >= MIN_COLUMNAR_ENCODING_VERSION) {
+                // the Resource Claims are written before the FlowFiles, so there is no need to read the FlowFiles themselves
+                return ColumnarSwapEncoding.readSummary(in, queueSize, maxRecordId, claimManager);
+            }
+
             final SwapContents swapContents = deserializeFlowFiles(in, queueSize, maxRecordId, swapEncodingVersion, true, claimManager, swapLocation);
             return swapContents.getSummary();
         }
     }
 
     public static int serializeFlowFiles(final List<FlowFileRecord> toSwap, final FlowFileQueue queue, final String swapLocation, final OutputStream destination) throws IOException {
+        return serializeFlowFiles(toSwap, queue, swapLocation, destination, ROW_ENCODING_VERSION);
+    }
+
+    static int serializeFlowFiles(final List<FlowFileRecord> toSwap, final FlowFileQueue queue, final String swapLocation, final OutputStream destination,
+            final int encodingVersion) throws IOException {
+        if (encodingVersion < 10 || encodingVersion > SWAP_ENCODING_VERSION) {
+            throw new IllegalArgumentException("Cannot write Swap File using encoding version " + encodingVersion);
+        }
+
         if (toSwap == null || toSwap.isEmpty()) {
             return 0;
         }
@@ -300,7 +325,7 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         final OutputStream bufferedOut = new BufferedOutputStream(destination);
         final DataOutputStream out = new DataOutputStream(bufferedOut);
         try {
-            out.writeInt(SWAP_ENCODING_VERSION);
+            out.writeInt(encodingVersion);
             out.writeUTF(queue.getIdentifier());
             out.writeInt(toSwap.size());
             out.writeLong(contentSize);
@@ -315,6 +340,12 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
 
             out.writeLong(maxRecordId);
 
+            if (encodingVersion >= MIN_COLUMNAR_ENCODING_VERSION) {
+                ColumnarSwapEncoding.writeFlowFiles(toSwap, out);
+                logger.info("Successfully swapped out {} FlowFiles from {} to Swap File {}", toSwap.size(), queue, swapLocation);
+                return toSwap.size();
+            }
+
             for (final FlowFileRecord flowFile : toSwap) {
                 out.writeLong(flowFile.getId());
                 out.writeLong(flowFile.getEntryDate());
@@ -404,6 +435,10 @@ public class FileSystemSwapManager implements FlowFileSwapManager {
         }
 
         final QueueSize queueSize = new QueueSize(numRecords, contentSize);
+        if (swapEncodingVersion >= MIN_COLUMNAR_ENCODING_VERSION) {
+            return ColumnarSwapEncoding.readFlowFiles(in, queueSize, maxRecordId, claimManager, swapLocation);
+        }
+
         return deserializeFlowFiles(in, queueSize, maxRecordId, swapEncodingVersion, false, claimManager, swapLocation);
     }
 
@@ -322,6 +322,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
 
     private final ScheduledExecutorService clusterTaskExecutor = new FlowEngine(3, "Clustering Tasks", true);
     private final ResourceClaimManager resourceClaimManager = new StandardResourceClaimManager();
+    private final FlowEngine swapInExecutor;
 
     // guarded by rwLock
     /**
@@ -443,6 +444,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
 
         timerDrivenEngineRef = new AtomicReference<>(new FlowEngine(maxTimerDrivenThreads.get(), "Timer-Driven Process"));
         eventDrivenEngineRef = new AtomicReference<>(new FlowEngine(maxEventDrivenThreads.get(), "Event-Driven Process"));
+        swapInExecutor = new FlowEngine(nifiProperties.getSwapInThreads(), "Swap In", true);
 
         final FlowFileRepository flowFileRepo = createFlowFileRepository(nifiProperties, resourceClaimManager);
         flowFileRepository = flowFileRepo;
@@ -922,6 +924,9 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                 .destination(destination)
                 .swapManager(swapManager)
                 .queueSwapThreshold(nifiProperties.getQueueSwapThreshold())
+                .queueConcurrentPuts(nifiProperties.isQueueConcurrentPutEnabled())
+                .swapInExecutor(swapInExecutor)
+                .queueTimerDrivenEvents(nifiProperties.isBoredYieldAdaptive())
                 .eventReporter(eventReporter)
                 .resourceClaimManager(resourceClaimManager)
                 .flowFileRepository(flowFileRepository)
@@ -1316,6 +1321,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
             }
 
             clusterTaskExecutor.shutdownNow();
+            swapInExecutor.shutdown();
 
             if (zooKeeperStateServer != null) {
                 zooKeeperStateServer.shutdown();
@@ -1902,6 +1908,7 @@ public class FlowController implements EventAccess, ControllerServiceProvider, R
                 descriptor.setConcurrentlySchedulableTaskCount(port.getConcurrentlySchedulableTaskCount());
                 descriptor.setTransmitting(port.isTransmitting());
                 descriptor.setUseCompression(port.getUseCompression());
+                descriptor.setCompressionCodec(port.getCompressionCodec());
                 remotePorts.add(descriptor);
             }
         }
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.controller;
 
+import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.controller.queue.DropFlowFileState;
 import org.apache.nifi.controller.queue.DropFlowFileStatus;
@@ -69,8 +70,15 @@ import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -91,6 +99,11 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     // guarded by lock
     private ArrayList<FlowFileRecord> swapQueue = null;
 
+    // FlowFiles that have been added to the queue without obtaining the lock, when concurrent puts are enabled. These FlowFiles
+    // are already accounted for in the active queue size and are moved onto the active queue by whichever thread next obtains the lock.
+    private final Queue<FlowFileRecord> incomingQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger incomingCount = new AtomicInteger(0);
+
     private final AtomicReference<FlowFileQueueSize> size = new AtomicReference<>(new FlowFileQueueSize(0, 0L, 0, 0L, 0, 0, 0L));
 
     private boolean swapMode = false;
@@ -114,6 +127,12 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     private final FlowFileRepository flowFileRepository;
     private final ProvenanceEventRepository provRepository;
     private final ResourceClaimManager resourceClaimManager;
+    private final boolean concurrentPuts;
+    private final ExecutorService swapInExecutor;
+    private final boolean timerDrivenEvents;
+
+    // the swap file that is being read by the swapInExecutor, if any. guarded by lock
+    private PendingSwapIn pendingSwapIn = null;
 
     private final ConcurrentMap<String, DropFlowFileRequest> dropRequestMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, ListFlowFileRequest> listRequestMap = new ConcurrentHashMap<>();
@@ -123,6 +142,38 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
     public StandardFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
         final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter, final int swapThreshold) {
+        this(identifier, connection, flowFileRepo, provRepo, resourceClaimManager, scheduler, swapManager, eventReporter, swapThreshold, false, null);
+    }
+
+    /**
+     * Creates a new FlowFile Queue
+     *
+     * @param concurrentPuts if <code>true</code>, FlowFiles that are added to the queue are placed onto a lock-free buffer instead of
+     *            obtaining the queue's write lock, so that many upstream threads can add FlowFiles without contending with one another or
+     *            with the threads that are pulling FlowFiles from the queue. The buffered FlowFiles are merged into the (prioritized) active
+     *            queue the next time that the lock is obtained, so the order in which FlowFiles are pulled from the queue is unchanged.
+     * @param swapInExecutor the executor to use for reading swap files in the background, or <code>null</code> to read swap files
+     *            synchronously, while the queue's lock is held, at the time that the FlowFiles are needed. When an executor is provided, the
+     *            next swap file is read as soon as the active queue drops below the swap threshold by the size of one swap file, and its
+     *            FlowFiles become available once the read has completed, so threads pulling from the queue never wait on the disk.
+     */
+    public StandardFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
+        final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter, final int swapThreshold,
+        final boolean concurrentPuts, final ExecutorService swapInExecutor) {
+        this(identifier, connection, flowFileRepo, provRepo, resourceClaimManager, scheduler, swapManager, eventReporter, swapThreshold, concurrentPuts, swapInExecutor, false);
+    }
+
+    /**
+     * Creates a new FlowFile Queue, as with {@link #StandardFlowFileQueue(String, Connection, FlowFileRepository, ProvenanceEventRepository,
+     * ResourceClaimManager, ProcessScheduler, FlowFileSwapManager, EventReporter, int, boolean, ExecutorService)}
+     *
+     * @param timerDrivenEvents if <code>true</code>, the scheduler is notified when FlowFiles become available to a timer-driven destination
+     *            or room is made for a timer-driven source, so that a component waiting out an adaptive bored yield can be woken. Should only
+     *            be <code>true</code> when adaptive bored yielding is enabled, as the timer-driven scheduling agent ignores the events otherwise.
+     */
+    public StandardFlowFileQueue(final String identifier, final Connection connection, final FlowFileRepository flowFileRepo, final ProvenanceEventRepository provRepo,
+        final ResourceClaimManager resourceClaimManager, final ProcessScheduler scheduler, final FlowFileSwapManager swapManager, final EventReporter eventReporter, final int swapThreshold,
+        final boolean concurrentPuts, final ExecutorService swapInExecutor, final boolean timerDrivenEvents) {
         activeQueue = new PriorityQueue<>(20, new Prioritizer(new ArrayList<FlowFilePrioritizer>()));
         priorities = new ArrayList<>();
         swapQueue = new ArrayList<>();
@@ -136,6 +187,9 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         this.swapThreshold = swapThreshold;
         this.scheduler = scheduler;
         this.connection = connection;
+        this.concurrentPuts = concurrentPuts;
+        this.swapInExecutor = swapInExecutor;
+        this.timerDrivenEvents = timerDrivenEvents;
 
         readLock = new TimedLock(this.lock.readLock(), identifier + " Read Lock", 100);
         writeLock = new TimedLock(this.lock.writeLock(), identifier + " Write Lock", 100);
@@ -155,6 +209,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     public void setPriorities(final List<FlowFilePrioritizer> newPriorities) {
         writeLock.lock();
         try {
+            migrateIncomingToActive();
+
             final PriorityQueue<FlowFileRecord> newQueue = new PriorityQueue<>(Math.max(20, activeQueue.size()), new Prioritizer(newPriorities));
             newQueue.addAll(activeQueue);
             activeQueue = newQueue;
@@ -226,7 +282,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     public void acknowledge(final FlowFileRecord flowFile) {
         incrementUnacknowledgedQueueSize(-1, -flowFile.getSize());
 
-        if (connection.getSource().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
+        if (isNotifiedOfEvents(connection.getSource())) {
             // queue was full but no longer is. Notify that the source may now be available to run,
             // because of back pressure caused by this queue.
             scheduler.registerEvent(connection.getSource());
@@ -242,13 +298,23 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
         incrementUnacknowledgedQueueSize(-flowFiles.size(), -totalSize);
 
-        if (connection.getSource().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
+        if (isNotifiedOfEvents(connection.getSource())) {
             // it's possible that queue was full but no longer is. Notify that the source may now be available to run,
             // because of back pressure caused by this queue.
             scheduler.registerEvent(connection.getSource());
         }
     }
 
+    /**
+     * Event-driven components are triggered by events, and timer-driven components use them to be woken from a
+     * bored yield when the scheduler is configured for adaptive yielding, in which case this queue is created
+     * with timer-driven events enabled.
+     */
+    private boolean isNotifiedOfEvents(final Connectable connectable) {
+        final SchedulingStrategy strategy = connectable.getSchedulingStrategy();
+        return strategy == SchedulingStrategy.EVENT_DRIVEN || (timerDrivenEvents && strategy == SchedulingStrategy.TIMER_DRIVEN);
+    }
+
     @Override
     public boolean isFull() {
         final MaxQueueSize maxSize = maxQueueSize.get();
@@ -273,6 +339,20 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
     @Override
     public void put(final FlowFileRecord file) {
+        if (concurrentPuts) {
+            incrementActiveQueueSize(1, file.getSize());
+            incomingQueue.offer(file);
+            onIncomingQueued(incomingCount.incrementAndGet());
+        } else {
+            putWithLock(file);
+        }
+
+        if (isNotifiedOfEvents(connection.getDestination())) {
+            scheduler.registerEvent(connection.getDestination());
+        }
+    }
+
+    private void putWithLock(final FlowFileRecord file) {
         writeLock.lock();
         try {
             if (swapMode || activeQueue.size() >= swapThreshold) {
@@ -287,10 +367,6 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         } finally {
             writeLock.unlock("put(FlowFileRecord)");
         }
-
-        if (connection.getDestination().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
-            scheduler.registerEvent(connection.getDestination());
-        }
     }
 
     @Override
@@ -301,6 +377,20 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             bytes += flowFile.getSize();
         }
 
+        if (concurrentPuts) {
+            incrementActiveQueueSize(numFiles, bytes);
+            incomingQueue.addAll(files);
+            onIncomingQueued(incomingCount.addAndGet(numFiles));
+        } else {
+            putAllWithLock(files, numFiles, bytes);
+        }
+
+        if (isNotifiedOfEvents(connection.getDestination())) {
+            scheduler.registerEvent(connection.getDestination());
+        }
+    }
+
+    private void putAllWithLock(final Collection<FlowFileRecord> files, final int numFiles, final long bytes) {
         writeLock.lock();
         try {
             if (swapMode || activeQueue.size() >= swapThreshold - numFiles) {
@@ -315,9 +405,60 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         } finally {
             writeLock.unlock("putAll");
         }
+    }
 
-        if (connection.getDestination().getSchedulingStrategy() == SchedulingStrategy.EVENT_DRIVEN) {
-            scheduler.registerEvent(connection.getDestination());
+    /**
+     * Called after FlowFiles have been added to the incoming queue. If no thread is pulling from this queue, the incoming
+     * queue would grow without bound and never be swapped out, so once it holds a full swap file's worth of FlowFiles we
+     * migrate them to the active queue (and swap out, if necessary) ourselves, provided that the lock is free.
+     *
+     * @param incomingSize the number of FlowFiles on the incoming queue
+     */
+    private void onIncomingQueued(final int incomingSize) {
+        if (incomingSize < SWAP_RECORD_POLL_SIZE) {
+            return;
+        }
+
+        if (writeLock.tryLock()) {
+            try {
+                migrateIncomingToActive();
+            } finally {
+                writeLock.unlock("migrate incoming FlowFiles");
+            }
+        }
+    }
+
+    /**
+     * Moves any FlowFiles that were added to the incoming queue onto the active queue, or onto the swap queue
+     * if the active queue has reached the swap threshold.
+     *
+     * This method MUST be called with the write lock held.
+     */
+    private void migrateIncomingToActive() {
+        if (incomingCount.get() == 0) {
+            return;
+        }
+
+        int swappedRecords = 0;
+        long swappedBytes = 0L;
+        FlowFileRecord flowFile;
+        while ((flowFile = incomingQueue.poll()) != null) {
+            incomingCount.decrementAndGet();
+
+            if (swapMode || activeQueue.size() >= swapThreshold) {
+                swapQueue.add(flowFile);
+                swappedRecords++;
+                swappedBytes += flowFile.getSize();
+                swapMode = true;
+            } else {
+                activeQueue.add(flowFile);
+            }
+        }
+
+        if (swappedRecords > 0) {
+            incrementActiveQueueSize(-swappedRecords, -swappedBytes);
+            incrementSwapQueueSize(swappedRecords, swappedBytes, 0);
+            writeSwapFilesIfNecessary();
         }
     }
 
@@ -365,6 +506,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         FlowFileRecord flowFile;
         boolean isExpired;
 
+        migrateIncomingToActive();
         migrateSwapToActive();
 
         long expiredBytes = 0L;
@@ -414,6 +556,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     }
 
     private void doPoll(final List<FlowFileRecord> records, int maxResults, final Set<FlowFileRecord> expiredRecords) {
+        migrateIncomingToActive();
         migrateSwapToActive();
 
         final long bytesDrained = drainQueue(activeQueue, records, maxResults, expiredRecords);
@@ -457,53 +600,41 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         // swap queue to the active queue, and we never run out of FlowFiles in the active queue (because destination cannot
         // keep up with queue), we will end up always processing the new FlowFiles first instead of the FlowFiles that arrived
         // first.
-        if (!swapLocations.isEmpty()) {
-            final String swapLocation = swapLocations.remove(0);
-            boolean partialContents = false;
-            SwapContents swapContents = null;
-            try {
-                swapContents = swapManager.swapIn(swapLocation, this);
-            } catch (final IncompleteSwapFileException isfe) {
-                logger.error("Failed to swap in all FlowFiles from Swap File {}; Swap File ended prematurely. The records that were present will still be swapped in", swapLocation);
-                logger.error("", isfe);
-                swapContents = isfe.getPartialContents();
-                partialContents = true;
-            } catch (final FileNotFoundException fnfe) {
-                logger.error("Failed to swap in FlowFiles from Swap File {} because the Swap File can no longer be found", swapLocation);
-                if (eventReporter != null) {
-                    eventReporter.reportEvent(Severity.ERROR, "Swap File", "Failed to swap in FlowFiles from Swap File " + swapLocation + " because the Swap File can no longer be found");
-                }
-                return;
-            } catch (final IOException ioe) {
-                logger.error("Failed to swap in FlowFiles from Swap File {}; Swap File appears to be corrupt!", swapLocation);
-                logger.error("", ioe);
-                if (eventReporter != null) {
-                    eventReporter.reportEvent(Severity.ERROR, "Swap File", "Failed to swap in FlowFiles from Swap File " +
-                        swapLocation + "; Swap File appears to be corrupt! Some FlowFiles in the queue may not be accessible. See logs for more information.");
-                }
+        if (!swapLocations.isEmpty() || pendingSwapIn != null) {
+            if (swapInExecutor == null) {
+                final String swapLocation = swapLocations.remove(0);
+                swapIn(swapLocation, () -> swapManager.swapIn(swapLocation, this));
                 return;
             }
 
-            final QueueSize swapSize = swapContents.getSummary().getQueueSize();
-            final long contentSize = swapSize.getByteCount();
-            final int flowFileCount = swapSize.getObjectCount();
-            incrementSwapQueueSize(-flowFileCount, -contentSize, -1);
-
-            if (partialContents) {
-                // if we have partial results, we need to calculate the content size of the flowfiles
-                // actually swapped back in.
-                long contentSizeSwappedIn = 0L;
-                for (final FlowFileRecord swappedIn : swapContents.getFlowFiles()) {
-                    contentSizeSwappedIn += swappedIn.getSize();
-                }
+            // Swap files are read by the background executor. The first time that we drop below the threshold, we start reading
+            // the next swap file; once it has been read, its FlowFiles are added to the active queue. We never wait for the read
+            // to complete here, as doing so would hold the write lock (and block every thread using this queue) while reading from disk.
+            if (pendingSwapIn == null) {
+                final String swapLocation = swapLocations.remove(0);
+                try {
+                    final FutureTask<SwapContents> swapInTask = new FutureTask<SwapContents>(() -> swapManager.swapIn(swapLocation, this)) {
+                        @Override
+                        protected void done() {
+                            // The swapped-in FlowFiles become active the next time that the destination polls this queue. The destination
+                            // may not do so on its own, as the active queue may have been empty while the swap file was read, so let it know.
+                            // This is called by the swap-in thread once the task is complete, so the write lock is not held.
+                            if (!isCancelled() && isNotifiedOfEvents(connection.getDestination())) {
+                                scheduler.registerEvent(connection.getDestination());
+                            }
+                        }
+                    };
 
-                incrementActiveQueueSize(swapContents.getFlowFiles().size(), contentSizeSwappedIn);
-            } else {
-                // we swapped in the whole swap file. We can just use the info that we got from the summary.
-                incrementActiveQueueSize(flowFileCount, contentSize);
+                    swapInExecutor.execute(swapInTask);
+                    pendingSwapIn = new PendingSwapIn(swapLocation, swapInTask);
+                } catch (final RejectedExecutionException ree) {
+                    // the executor has been shut down, so we are shutting down; read the swap file ourselves.
+                    swapIn(swapLocation, () -> swapManager.swapIn(swapLocation, this));
+                }
+            } else if (pendingSwapIn.isDone()) {
+                completePendingSwapIn();
             }
 
-            activeQueue.addAll(swapContents.getFlowFiles());
             return;
         }
 
@@ -540,6 +671,75 @@ public class StandardFlowFileQueue implements FlowFileQueue {
         }
     }
 
+    /**
+     * If a swap file is currently being read in the background, waits for the read to complete and adds the FlowFiles
+     * to the active queue, regardless of the swap threshold.
+     *
+     * This method MUST be called with the writeLock held.
+     */
+    private void completePendingSwapIn() {
+        final PendingSwapIn pending = pendingSwapIn;
+        if (pending == null) {
+            return;
+        }
+
+        pendingSwapIn = null;
+        swapIn(pending.getSwapLocation(), pending::getContents);
+    }
+
+    /**
+     * Swaps in the FlowFiles that are provided by the given action, updating the size of the queue accordingly.
+     *
+     * This method MUST be called with the writeLock held.
+     */
+    private void swapIn(final String swapLocation, final SwapInAction swapInAction) {
+        boolean partialContents = false;
+        SwapContents swapContents = null;
+        try {
+            swapContents = swapInAction.swapIn();
+        } catch (final IncompleteSwapFileException isfe) {
+            logger.error("Failed to swap in all FlowFiles from Swap File {}; Swap File ended prematurely. The records that were present will still be swapped in", swapLocation);
+            logger.error("", isfe);
+            swapContents = isfe.getPartialContents();
+            partialContents = true;
+        } catch (final FileNotFoundException fnfe) {
+            logger.error("Failed to swap in FlowFiles from Swap File {} because the Swap File can no longer be found", swapLocation);
+            if (eventReporter != null) {
+                eventReporter.reportEvent(Severity.ERROR, "Swap File", "Failed to swap in FlowFiles from Swap File " + swapLocation + " because the Swap File can no longer be found");
+            }
+            return;
+        } catch (final IOException ioe) {
+            logger.error("Failed to swap in FlowFiles from Swap File {}; Swap File appears to be corrupt!", swapLocation);
+            logger.error("", ioe);
+            if (eventReporter != null) {
+                eventReporter.reportEvent(Severity.ERROR, "Swap File", "Failed to swap in FlowFiles from Swap File " +
+                    swapLocation + "; Swap File appears to be corrupt! Some FlowFiles in the queue may not be accessible. See logs for more information.");
+            }
+            return;
+        }
+
+        final QueueSize swapSize = swapContents.getSummary().getQueueSize();
+        final long contentSize = swapSize.getByteCount();
+        final int flowFileCount = swapSize.getObjectCount();
+        incrementSwapQueueSize(-flowFileCount, -contentSize, -1);
+
+        if (partialContents) {
+            // if we have partial results, we need to calculate the content size of the flowfiles
+            // actually swapped back in.
+            long contentSizeSwappedIn = 0L;
+            for (final FlowFileRecord swappedIn : swapContents.getFlowFiles()) {
+                contentSizeSwappedIn += swappedIn.getSize();
+            }
+
+            incrementActiveQueueSize(swapContents.getFlowFiles().size(), contentSizeSwappedIn);
+        } else {
+            // we swapped in the whole swap file. We can just use the info that we got from the summary.
+            incrementActiveQueueSize(flowFileCount, contentSize);
+        }
+
+        activeQueue.addAll(swapContents.getFlowFiles());
+    }
+
     /**
      * This method MUST be called with the write lock held
      */
@@ -558,6 +758,14 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             originalSwapQueueBytes += flowFile.getSize();
         }
 
+        // FlowFiles on the incoming queue are counted as part of the active queue size, so we must adjust the active queue size
+        // relative to its current contents rather than setting it to the size of the active queue.
+        final int originalActiveQueueCount = activeQueue.size();
+        long originalActiveQueueBytes = 0L;
+        for (final FlowFileRecord flowFile : activeQueue) {
+            originalActiveQueueBytes += flowFile.getSize();
+        }
+
         // Create a new Priority queue with the prioritizers that are set, but reverse the
         // prioritizers because we want to pull the lowest-priority FlowFiles to swap out
         final PriorityQueue<FlowFileRecord> tempQueue = new PriorityQueue<>(activeQueue.size() + swapQueue.size(), Collections.reverseOrder(new Prioritizer(priorities)));
@@ -624,7 +832,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
             final int addedSwapRecords = swapQueue.size() - originalSwapQueueCount;
             final long addedSwapBytes = updatedSwapQueueBytes - originalSwapQueueBytes;
 
-            final FlowFileQueueSize newSize = new FlowFileQueueSize(activeQueue.size(), activeQueueBytes,
+            final FlowFileQueueSize newSize = new FlowFileQueueSize(originalSize.activeQueueCount + activeQueue.size() - originalActiveQueueCount,
+                originalSize.activeQueueBytes + activeQueueBytes - originalActiveQueueBytes,
                 originalSize.swappedCount + addedSwapRecords + flowFilesSwappedOut,
                 originalSize.swappedBytes + addedSwapBytes + bytesSwappedOut,
                 originalSize.swapFiles + numSwapFiles,
@@ -667,6 +876,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
 
         writeLock.lock();
         try {
+            migrateIncomingToActive();
             migrateSwapToActive();
 
             final long expirationMillis = expirationPeriod.get().getMillis();
@@ -919,6 +1129,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
                 try {
                     logger.debug("{} Acquired lock to perform listing of FlowFiles", StandardFlowFileQueue.this);
                     allFlowFiles = new ArrayList<>(activeQueue);
+                    allFlowFiles.addAll(incomingQueue);
                     prioritizer = new Prioritizer(StandardFlowFileQueue.this.priorities);
                 } finally {
                     readLock.unlock("List FlowFiles");
@@ -1030,6 +1241,12 @@ public class StandardFlowFileQueue implements FlowFileQueue {
                     return flowFile;
                 }
             }
+
+            for (final FlowFileRecord flowFile : incomingQueue) {
+                if (flowFileUuid.equals(flowFile.getAttribute(CoreAttributes.UUID.key()))) {
+                    return flowFile;
+                }
+            }
         } finally {
             readLock.unlock("getFlowFile");
         }
@@ -1083,6 +1300,8 @@ public class StandardFlowFileQueue implements FlowFileQueue {
                     logger.debug("For DropFlowFileRequest {}, original size is {}", requestIdentifier, getQueueSize());
 
                     try {
+                        migrateIncomingToActive();
+                        completePendingSwapIn();
                         final List<FlowFileRecord> activeQueueRecords = new ArrayList<>(activeQueue);
 
                         QueueSize droppedSize;
@@ -1334,6 +1553,7 @@ public class StandardFlowFileQueue implements FlowFileQueue {
      */
     public void lock() {
         writeLock.lock();
+        migrateIncomingToActive();
     }
 
     /**
@@ -1401,6 +1621,47 @@ public class StandardFlowFileQueue implements FlowFileQueue {
     }
 
 
+    private interface SwapInAction {
+        SwapContents swapIn() throws IOException;
+    }
+
+    private static class PendingSwapIn {
+        private final String swapLocation;
+        private final Future<SwapContents> future;
+
+        public PendingSwapIn(final String swapLocation, final Future<SwapContents> future) {
+            this.swapLocation = swapLocation;
+            this.future = future;
+        }
+
+        public String getSwapLocation() {
+            return swapLocation;
+        }
+
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        public SwapContents getContents() throws IOException {
+            try {
+                return future.get();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for Swap File " + swapLocation + " to be swapped in", ie);
+            } catch (final ExecutionException ee) {
+                final Throwable cause = ee.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+
+                throw new IOException("Failed to swap in FlowFiles from Swap File " + swapLocation, cause);
+            }
+        }
+    }
+
     private static class FlowFileQueueSize {
         private final int activeQueueCount;
         private final long activeQueueBytes;
@@ -17,12 +17,15 @@
 package org.apache.nifi.controller.repository;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
@@ -64,6 +67,7 @@ import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
 import org.apache.nifi.controller.repository.claim.StandardContentClaim;
+import org.apache.nifi.controller.repository.io.FileChannelInputStream;
 import org.apache.nifi.controller.repository.io.LimitedInputStream;
 import org.apache.nifi.engine.FlowEngine;
 import org.apache.nifi.stream.io.ByteCountingOutputStream;
@@ -118,6 +122,10 @@ public class FileSystemRepository implements ContentRepository {
     private final boolean alwaysSync;
     private final ScheduledExecutorService containerCleanupExecutor;
 
+    // Read-only channels to the Resource Claim files, so that the many Content Claims that share a Resource Claim can be
+    // read without opening the file and skipping to the claim's offset each time. null if reads should not be cached.
+    private final ResourceClaimChannelCache channelCache;
+
     private ResourceClaimManager resourceClaimManager; // effectively final
 
     // Map of contianer to archived files that should be deleted next.
@@ -140,6 +148,7 @@ public class FileSystemRepository implements ContentRepository {
         alwaysSync = false;
         containerCleanupExecutor = null;
         nifiProperties = null;
+        channelCache = null;
     }
 
     public FileSystemRepository(final NiFiProperties nifiProperties) throws IOException {
@@ -223,6 +232,10 @@ public class FileSystemRepository implements ContentRepository {
 
         this.alwaysSync = Boolean.parseBoolean(nifiProperties.getProperty("nifi.content.repository.always.sync"));
         LOG.info("Initializing FileSystemRepository with 'Always Sync' set to {}", alwaysSync);
+
+        final int channelCacheSize = nifiProperties.getContentRepositoryReadChannelCacheSize();
+        channelCache = channelCacheSize > 0 ? new ResourceClaimChannelCache(channelCacheSize) : null;
+        LOG.info("Initializing FileSystemRepository with Read Channel Cache Size set to {}", channelCacheSize);
         initializeRepository();
 
         containerCleanupExecutor = new FlowEngine(containers.size(), "Cleanup FileSystemRepository Container", true);
@@ -267,6 +280,10 @@ public class FileSystemRepository implements ContentRepository {
             } catch (final IOException ioe) {
             }
         }
+
+        if (channelCache != null) {
+            channelCache.clear();
+        }
     }
 
     private static double getRatio(final String value) {
@@ -621,6 +638,9 @@ public class FileSystemRepository implements ContentRepository {
 
         // Ensure that we have no writable claim streams for this resource claim
         final ByteCountingOutputStream bcos = writableClaimStreams.remove(claim);
+        if (channelCache != null) {
+            channelCache.invalidate(claim);
+        }
 
         if (bcos != null) {
             try {
@@ -711,9 +731,8 @@ public class FileSystemRepository implements ContentRepository {
             return 0L;
         }
 
-        try (final InputStream in = read(claim);
-                final FileOutputStream fos = new FileOutputStream(destination.toFile(), append)) {
-            final long copied = StreamUtils.copy(in, fos);
+        try (final FileOutputStream fos = new FileOutputStream(destination.toFile(), append)) {
+            final long copied = transferTo(claim, 0L, claim.getLength(), fos.getChannel());
             if (alwaysSync) {
                 fos.getFD().sync();
             }
@@ -740,12 +759,8 @@ public class FileSystemRepository implements ContentRepository {
 
         }
 
-        try (final InputStream in = read(claim);
-                final FileOutputStream fos = new FileOutputStream(destination.toFile(), append)) {
-            if (offset > 0) {
-                StreamUtils.skip(in, offset);
-            }
-            StreamUtils.copy(in, fos, length);
+        try (final FileOutputStream fos = new FileOutputStream(destination.toFile(), append)) {
+            transferTo(claim, offset, length, fos.getChannel());
             if (alwaysSync) {
                 fos.getFD().sync();
             }
@@ -789,6 +804,82 @@ public class FileSystemRepository implements ContentRepository {
         }
     }
 
+    @Override
+    public long exportTo(final ContentClaim claim, final WritableByteChannel destination) throws IOException {
+        if (claim == null) {
+            return 0L;
+        }
+
+        return transferTo(claim, 0L, claim.getLength(), destination);
+    }
+
+    /**
+     * Transfers bytes of the given claim directly from the file to the given channel, via {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+     * so that the operating system can copy the data without it passing through the Java heap.
+     *
+     * @param offset the offset into the claim at which to begin
+     * @param length the number of bytes to transfer, or -1 to transfer through the end of the file
+     * @return the number of bytes transferred
+     */
+    private long transferTo(final ContentClaim claim, final long offset, final long length, final WritableByteChannel destination) throws IOException {
+        final ResourceClaimChannelCache.ClaimChannel cachedChannel = getCachedChannel(claim);
+        if (cachedChannel != null) {
+            try {
+                return transferTo(cachedChannel.getChannel(), claim.getOffset() + offset, length, destination);
+            } finally {
+                cachedChannel.release();
+            }
+        }
+
+        try (final FileChannel channel = FileChannel.open(getPath(claim, true), StandardOpenOption.READ)) {
+            return transferTo(channel, claim.getOffset() + offset, length, destination);
+        }
+    }
+
+    private static long transferTo(final FileChannel channel, final long start, final long length, final WritableByteChannel destination) throws IOException {
+        final long end = length < 0 ? channel.size() : start + length;
+        long position = start;
+        while (position < end) {
+            final long transferred = channel.transferTo(position, end - position, destination);
+            if (transferred <= 0) {
+                // no progress can be made, either because the file is shorter than expected or because the destination will not accept
+                // any more bytes; in either case, retrying would spin forever
+                if (position >= channel.size()) {
+                    throw new EOFException("Expected to transfer " + (end - start) + " bytes but reached End-of-File after " + (position - start) + " bytes");
+                }
+
+                throw new IOException("Expected to transfer " + (end - start) + " bytes but was unable to transfer any more after " + (position - start) + " bytes");
+            }
+            position += transferred;
+        }
+
+        return position - start;
+    }
+
+    /**
+     * @return the cached channel for the Resource Claim of the given claim, opening it if necessary, or <code>null</code> if reads are
+     *         not cached or the content has been archived. The caller must release the channel.
+     */
+    private ResourceClaimChannelCache.ClaimChannel getCachedChannel(final ContentClaim claim) throws IOException {
+        if (channelCache == null) {
+            return null;
+        }
+
+        final ResourceClaim resourceClaim = claim.getResourceClaim();
+        final ResourceClaimChannelCache.ClaimChannel cached = channelCache.get(resourceClaim);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Don't hold archived files open, as they are deleted when the archive is cleaned up without the cache being notified.
+        final Path path = getPath(claim, true);
+        if (ARCHIVE_DIR_NAME.equals(path.getParent().toFile().getName())) {
+            return null;
+        }
+
+        return channelCache.open(resourceClaim, path);
+    }
+
     @Override
     public long size(final ContentClaim claim) throws IOException {
         if (claim == null) {
@@ -808,6 +899,17 @@ public class FileSystemRepository implements ContentRepository {
         if (claim == null) {
             return new ByteArrayInputStream(new byte[0]);
         }
+
+        final ResourceClaimChannelCache.ClaimChannel cachedChannel = getCachedChannel(claim);
+        if (cachedChannel != null) {
+            try {
+                return new FileChannelInputStream(cachedChannel.getChannel(), claim.getOffset(), claim.getLength(), cachedChannel::release);
+            } catch (final IOException ioe) {
+                cachedChannel.release();
+                throw ioe;
+            }
+        }
+
         final Path path = getPath(claim, true);
         final FileInputStream fis = new FileInputStream(path.toFile());
         if (claim.getOffset() > 0L) {
@@ -1113,6 +1215,10 @@ public class FileSystemRepository implements ContentRepository {
             }
         }
 
+        if (channelCache != null) {
+            channelCache.invalidate(claim);
+        }
+
         final Path curPath = getPath(claim);
         if (curPath == null) {
             return false;
@@ -1127,6 +1233,10 @@ public class FileSystemRepository implements ContentRepository {
         return writableClaimStreams.size();
     }
 
+    protected int getCachedReadChannelCount() {
+        return channelCache == null ? 0 : channelCache.size();
+    }
+
     // marked protected for visibility and ability to override for unit tests.
     protected boolean archive(final Path curPath) throws IOException {
         // check if already archived
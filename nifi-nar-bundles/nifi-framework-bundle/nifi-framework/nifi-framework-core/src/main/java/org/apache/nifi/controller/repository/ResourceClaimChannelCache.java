@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded, least-recently-used cache of read-only FileChannels, one per Resource Claim. Because many
+ * Content Claims share a single Resource Claim file, reading the claims through a cached channel avoids
+ * opening the same file over and over. Channels are reference counted: a channel that is evicted or
+ * invalidated while it is still being read from is closed only once the last reader has released it.
+ */
+class ResourceClaimChannelCache {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceClaimChannelCache.class);
+
+    private final int maxSize;
+    private final Map<ResourceClaim, ClaimChannel> channels = new LinkedHashMap<>(16, 0.75F, true); // guarded by synchronizing on this
+
+    ResourceClaimChannelCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached channel for the given claim, if there is one. The caller must call
+     * {@link ClaimChannel#release()} when it has finished with the channel.
+     *
+     * @param claim the resource claim
+     * @return the cached channel, or <code>null</code> if no channel is cached for the claim
+     */
+    synchronized ClaimChannel get(final ResourceClaim claim) {
+        final ClaimChannel channel = channels.get(claim);
+        if (channel != null) {
+            channel.acquire();
+        }
+        return channel;
+    }
+
+    /**
+     * Opens a channel to the given file and caches it for the given claim, unless another thread has done
+     * so already, in which case that channel is used instead. The caller must call {@link ClaimChannel#release()}
+     * when it has finished with the channel.
+     *
+     * @param claim the resource claim
+     * @param path the file that holds the content of the claim
+     * @return the channel
+     * @throws IOException if unable to open the file
+     */
+    ClaimChannel open(final ResourceClaim claim, final Path path) throws IOException {
+        final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        final List<ClaimChannel> evicted = new ArrayList<>();
+        final ClaimChannel channel;
+        synchronized (this) {
+            final ClaimChannel existing = channels.get(claim);
+            if (existing == null) {
+                // one reference for the cache and one for the caller
+                channel = new ClaimChannel(fileChannel, 2);
+                channels.put(claim, channel);
+
+                final Iterator<ClaimChannel> itr = channels.values().iterator();
+                while (channels.size() > maxSize && itr.hasNext()) {
+                    evicted.add(itr.next());
+                    itr.remove();
+                }
+            } else {
+                existing.acquire();
+                channel = existing;
+            }
+        }
+
+        if (channel.getChannel() != fileChannel) {
+            closeQuietly(fileChannel);
+        }
+        for (final ClaimChannel evictedChannel : evicted) {
+            evictedChannel.release();
+        }
+
+        return channel;
+    }
+
+    /**
+     * Removes the channel for the given claim from the cache, so that the file is no longer held open
+     * once any readers have finished with it. Must be called when the file is deleted or moved.
+     *
+     * @param claim the resource claim
+     */
+    void invalidate(final ResourceClaim claim) {
+        final ClaimChannel channel;
+        synchronized (this) {
+            channel = channels.remove(claim);
+        }
+
+        if (channel != null) {
+            channel.release();
+        }
+    }
+
+    void clear() {
+        final List<ClaimChannel> removed;
+        synchronized (this) {
+            removed = new ArrayList<>(channels.values());
+            channels.clear();
+        }
+
+        for (final ClaimChannel channel : removed) {
+            channel.release();
+        }
+    }
+
+    synchronized int size() {
+        return channels.size();
+    }
+
+    private static void closeQuietly(final FileChannel channel) {
+        try {
+            channel.close();
+        } catch (final IOException ioe) {
+            logger.warn("Failed to close {} due to {}", channel, ioe.toString());
+        }
+    }
+
+
+    static class ClaimChannel {
+        private final FileChannel channel;
+        private final AtomicInteger references;
+
+        private ClaimChannel(final FileChannel channel, final int references) {
+            this.channel = channel;
+            this.references = new AtomicInteger(references);
+        }
+
+        FileChannel getChannel() {
+            return channel;
+        }
+
+        // only called while the channel is in the cache, so the cache's own reference keeps the count above 0
+        private void acquire() {
+            references.incrementAndGet();
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                closeQuietly(channel);
+            }
+        }
+    }
+}
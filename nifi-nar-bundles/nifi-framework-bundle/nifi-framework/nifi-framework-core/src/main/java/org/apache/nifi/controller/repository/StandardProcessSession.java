@@ -26,6 +26,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -41,6 +42,7 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.ConnectableType;
 import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.controller.ProcessorNode;
 import org.apache.nifi.controller.queue.FlowFileQueue;
@@ -100,20 +102,23 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
     private static final Logger LOG = LoggerFactory.getLogger(StandardProcessSession.class);
     private static final Logger claimLog = LoggerFactory.getLogger(StandardProcessSession.class.getSimpleName() + ".claims");
     private static final int MAX_ROLLBACK_FLOWFILES_TO_LOG = 5;
+    // a committed Checkpoint that held more records than this is discarded rather than kept for reuse, so that a session does not hold onto oversized tables
+    private static final int MAX_RECYCLED_CHECKPOINT_RECORDS = 1000;
 
-    private final Map<FlowFileRecord, StandardRepositoryRecord> records = new HashMap<>();
-    private final Map<Connection, StandardFlowFileEvent> connectionCounts = new HashMap<>();
+    // the collections that are cleared on each checkpoint are not final because they are handed off to the Checkpoint, rather than copied into it
+    private Map<FlowFileRecord, StandardRepositoryRecord> records = new HashMap<>();
+    private Map<Connection, StandardFlowFileEvent> connectionCounts = new HashMap<>();
     private final Map<Connection, Set<FlowFileRecord>> unacknowledgedFlowFiles = new HashMap<>();
-    private final Map<String, Long> counters = new HashMap<>();
+    private Map<String, Long> counters = new HashMap<>();
     private final Map<ContentClaim, ByteCountingOutputStream> appendableStreams = new HashMap<>();
     private final ProcessContext context;
     private final Set<FlowFile> recursionSet = new HashSet<>();// set used to track what is currently being operated on to prevent logic failures if recursive calls occurring
     private final Set<Path> deleteOnCommit = new HashSet<>();
     private final long sessionId;
-    private final String connectableDescription;
+    private String connectableDescription; // created lazily, as it is needed only for logging
 
-    private final Set<String> removedFlowFiles = new HashSet<>();
-    private final Set<String> createdFlowFiles = new HashSet<>();
+    private Set<String> removedFlowFiles = new HashSet<>();
+    private Set<String> createdFlowFiles = new HashSet<>();
 
     private final StandardProvenanceReporter provenanceReporter;
 
@@ -134,13 +139,14 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
     // maps a FlowFile to all Provenance Events that were generated for that FlowFile.
     // we do this so that if we generate a Fork event, for example, and then remove the event in the same
     // Session, we will not send that event to the Provenance Repository
-    private final Map<FlowFile, List<ProvenanceEventRecord>> generatedProvenanceEvents = new HashMap<>();
+    private Map<FlowFile, List<ProvenanceEventRecord>> generatedProvenanceEvents = new HashMap<>();
 
     // when Forks are generated for a single parent, we add the Fork event to this map, with the Key being the parent
     // so that we are able to aggregate many into a single Fork Event.
-    private final Map<FlowFile, ProvenanceEventBuilder> forkEventBuilders = new HashMap<>();
+    private Map<FlowFile, ProvenanceEventBuilder> forkEventBuilders = new HashMap<>();
 
-    private Checkpoint checkpoint = new Checkpoint();
+    private Checkpoint checkpoint = null;
+    private Checkpoint recycledCheckpoint = null;
 
     public StandardProcessSession(final ProcessContext context) {
         this.context = context;
@@ -148,12 +154,10 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         final Connectable connectable = context.getConnectable();
         final String componentType;
 
-        String description = connectable.toString();
         switch (connectable.getConnectableType()) {
             case PROCESSOR:
                 final ProcessorNode procNode = (ProcessorNode) connectable;
                 componentType = procNode.getComponentType();
-                description = procNode.getProcessor().toString();
                 break;
             case INPUT_PORT:
                 componentType = "Input Port";
@@ -177,24 +181,40 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         this.provenanceReporter = new StandardProvenanceReporter(this, connectable.getIdentifier(), componentType,
             context.getProvenanceRepository(), this);
         this.sessionId = idGenerator.getAndIncrement();
-        this.connectableDescription = description;
 
-        LOG.trace("Session {} created for {}", this, connectableDescription);
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Session {} created for {}", this, getConnectableDescription());
+        }
         processingStartTime = System.nanoTime();
     }
 
+    private String getConnectableDescription() {
+        if (connectableDescription == null) {
+            final Connectable connectable = context.getConnectable();
+            if (connectable.getConnectableType() == ConnectableType.PROCESSOR) {
+                connectableDescription = ((ProcessorNode) connectable).getProcessor().toString();
+            } else {
+                connectableDescription = connectable.toString();
+            }
+        }
+
+        return connectableDescription;
+    }
+
     public void checkpoint() {
         resetWriteClaims(false);
 
-        final List<InputStream> openStreamCopy = new ArrayList<>(openInputStreams); // avoid ConcurrentModificationException by creating a copy of the List
-        for (final InputStream openStream : openStreamCopy) {
-            LOG.warn("{} closing {} for {} because the session was committed without the stream being closed.", this, openStream, this.connectableDescription);
+        if (!openInputStreams.isEmpty()) {
+            final List<InputStream> openStreamCopy = new ArrayList<>(openInputStreams); // avoid ConcurrentModificationException by creating a copy of the List
+            for (final InputStream openStream : openStreamCopy) {
+                LOG.warn("{} closing {} for {} because the session was committed without the stream being closed.", this, openStream, getConnectableDescription());
 
-            try {
-                openStream.close();
-            } catch (final Exception e) {
-                LOG.warn("{} Attempted to close {} for {} due to session commit but close failed", this, openStream, this.connectableDescription);
-                LOG.warn("", e);
+                try {
+                    openStream.close();
+                } catch (final Exception e) {
+                    LOG.warn("{} Attempted to close {} for {} due to session commit but close failed", this, openStream, getConnectableDescription());
+                    LOG.warn("", e);
+                }
             }
         }
 
@@ -202,22 +222,23 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             throw new IllegalStateException();
         }
 
-        if (this.checkpoint == null) {
-            this.checkpoint = new Checkpoint();
-        }
-
         if (records.isEmpty()) {
             LOG.trace("{} checkpointed, but no events were performed by this ProcessSession", this);
             return;
         }
 
+        if (this.checkpoint == null) {
+            this.checkpoint = recycledCheckpoint == null ? new Checkpoint() : recycledCheckpoint;
+            this.recycledCheckpoint = null;
+        }
+
         // any drop event that is the result of an auto-terminate should happen at the very end, so we keep the
         // records in a separate List so that they can be persisted to the Provenance Repo after all of the
         // Processor-reported events.
         List<ProvenanceEventRecord> autoTerminatedEvents = null;
 
         // validate that all records have a transfer relationship for them and if so determine the destination node and clone as necessary
-        final Map<FlowFileRecord, StandardRepositoryRecord> toAdd = new HashMap<>();
+        Map<FlowFileRecord, StandardRepositoryRecord> toAdd = null;
         for (final StandardRepositoryRecord record : records.values()) {
             if (record.isMarkedForDelete()) {
                 continue;
@@ -227,7 +248,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                 rollback();
                 throw new FlowFileHandlingException(record.getCurrent() + " transfer relationship not specified");
             }
-            final List<Connection> destinations = new ArrayList<>(context.getConnections(relationship));
+            final Collection<Connection> destinations = context.getConnections(relationship);
             if (destinations.isEmpty() && !context.getConnectable().isAutoTerminated(relationship)) {
                 if (relationship != Relationship.SELF) {
                     rollback();
@@ -249,17 +270,26 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                     dropEvent = provenanceReporter.generateDropEvent(record.getCurrent(), "Auto-Terminated by " + relationship.getName() + " Relationship");
                     autoTerminatedEvents.add(dropEvent);
                 } catch (final Exception e) {
-                    LOG.warn("Unable to generate Provenance Event for {} on behalf of {} due to {}", record.getCurrent(), connectableDescription, e);
+                    LOG.warn("Unable to generate Provenance Event for {} on behalf of {} due to {}", record.getCurrent(), getConnectableDescription(), e);
                     if (LOG.isDebugEnabled()) {
                         LOG.warn("", e);
                     }
                 }
+            } else if (destinations.size() == 1) {
+                final Connection destination = destinations.iterator().next();
+                record.setDestination(destination.getFlowFileQueue());
+                incrementConnectionInputCounts(destination, record);
             } else {
-                final Connection finalDestination = destinations.remove(destinations.size() - 1); // remove last element
+                final List<Connection> remainingDestinations = new ArrayList<>(destinations);
+                final Connection finalDestination = remainingDestinations.remove(remainingDestinations.size() - 1); // remove last element
                 record.setDestination(finalDestination.getFlowFileQueue());
                 incrementConnectionInputCounts(finalDestination, record);
 
-                for (final Connection destination : destinations) { // iterate over remaining destinations and "clone" as needed
+                if (toAdd == null) {
+                    toAdd = new HashMap<>();
+                }
+
+                for (final Connection destination : remainingDestinations) { // iterate over remaining destinations and "clone" as needed
                     incrementConnectionInputCounts(destination, record);
                     final FlowFileRecord currRec = record.getCurrent();
                     final StandardFlowFileRecord.Builder builder = new StandardFlowFileRecord.Builder().fromFlowFile(currRec);
@@ -286,8 +316,9 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             }
         }
 
-        records.putAll(toAdd);
-        toAdd.clear();
+        if (toAdd != null) {
+            records.putAll(toAdd);
+        }
 
         checkpoint.checkpoint(this, autoTerminatedEvents);
         resetState();
@@ -296,8 +327,24 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
     @Override
     public void commit() {
         checkpoint();
-        commit(this.checkpoint);
+
+        final Checkpoint committed = this.checkpoint;
+        if (committed == null) {
+            // nothing has been checkpointed, so there is nothing to write to the repositories.
+            resetReadClaim();
+            acknowledgeRecords();
+            resetState();
+            return;
+        }
+
+        commit(committed);
         this.checkpoint = null;
+
+        // keep the Checkpoint so that a session that is committed many times does not have to create a new one each time
+        if (committed.records.size() <= MAX_RECYCLED_CHECKPOINT_RECORDS) {
+            committed.clear();
+            this.recycledCheckpoint = committed;
+        }
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -372,26 +419,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             final long updateEventRepositoryNanos = updateEventRepositoryFinishNanos - claimRemovalFinishNanos;
 
             // transfer the flowfiles to the connections' queues.
-            final Map<FlowFileQueue, Collection<FlowFileRecord>> recordMap = new HashMap<>();
-            for (final StandardRepositoryRecord record : checkpoint.records.values()) {
-                if (record.isMarkedForAbort() || record.isMarkedForDelete()) {
-                    continue; // these don't need to be transferred
-                }
-                // record.getCurrent() will return null if this record was created in this session --
-                // in this case, we just ignore it, and it will be cleaned up by clearing the records map.
-                if (record.getCurrent() != null) {
-                    Collection<FlowFileRecord> collection = recordMap.get(record.getDestination());
-                    if (collection == null) {
-                        collection = new ArrayList<>();
-                        recordMap.put(record.getDestination(), collection);
-                    }
-                    collection.add(record.getCurrent());
-                }
-            }
-
-            for (final Map.Entry<FlowFileQueue, Collection<FlowFileRecord>> entry : recordMap.entrySet()) {
-                entry.getKey().putAll(entry.getValue());
-            }
+            transferToQueues(checkpoint.records.values());
 
             final long enqueueFlowFileFinishNanos = System.nanoTime();
             final long enqueueFlowFileNanos = enqueueFlowFileFinishNanos - updateEventRepositoryFinishNanos;
@@ -409,7 +437,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             if (LOG.isInfoEnabled()) {
                 final String sessionSummary = summarizeEvents(checkpoint);
                 if (!sessionSummary.isEmpty()) {
-                    LOG.info("{} for {}, committed the following events: {}", new Object[] {this, connectableDescription, sessionSummary});
+                    LOG.info("{} for {}, committed the following events: {}", new Object[] {this, getConnectableDescription(), sessionSummary});
                 }
             }
 
@@ -422,7 +450,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
 
             if (LOG.isDebugEnabled()) {
                 final StringBuilder timingInfo = new StringBuilder();
-                timingInfo.append("Session commit for ").append(this).append(" [").append(connectableDescription).append("]").append(" took ");
+                timingInfo.append("Session commit for ").append(this).append(" [").append(getConnectableDescription()).append("]").append(" took ");
 
                 final long commitNanos = System.nanoTime() - commitStartNanos;
                 formatNanos(commitNanos, timingInfo);
@@ -452,6 +480,38 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         }
     }
 
+    private void transferToQueues(final Collection<StandardRepositoryRecord> repoRecords) {
+        if (repoRecords.size() == 1) {
+            // the common case of a session that handles a single FlowFile does not need to group the FlowFiles by queue
+            final StandardRepositoryRecord record = repoRecords.iterator().next();
+            if (!record.isMarkedForAbort() && !record.isMarkedForDelete() && record.getCurrent() != null) {
+                record.getDestination().put(record.getCurrent());
+            }
+            return;
+        }
+
+        final Map<FlowFileQueue, Collection<FlowFileRecord>> recordMap = new HashMap<>();
+        for (final StandardRepositoryRecord record : repoRecords) {
+            if (record.isMarkedForAbort() || record.isMarkedForDelete()) {
+                continue; // these don't need to be transferred
+            }
+            // record.getCurrent() will return null if this record was created in this session --
+            // in this case, we just ignore it, and it will be cleaned up by clearing the records map.
+            if (record.getCurrent() != null) {
+                Collection<FlowFileRecord> collection = recordMap.get(record.getDestination());
+                if (collection == null) {
+                    collection = new ArrayList<>();
+                    recordMap.put(record.getDestination(), collection);
+                }
+                collection.add(record.getCurrent());
+            }
+        }
+
+        for (final Map.Entry<FlowFileQueue, Collection<FlowFileRecord>> entry : recordMap.entrySet()) {
+            entry.getKey().putAll(entry.getValue());
+        }
+    }
+
     private void updateEventRepository(final Checkpoint checkpoint) {
         int flowFilesReceived = 0;
         int flowFilesSent = 0;
@@ -516,7 +576,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
     private void addEventType(final Map<String, Set<ProvenanceEventType>> map, final String id, final ProvenanceEventType eventType) {
         Set<ProvenanceEventType> eventTypes = map.get(id);
         if (eventTypes == null) {
-            eventTypes = new HashSet<>();
+            eventTypes = EnumSet.noneOf(ProvenanceEventType.class);
             map.put(id, eventTypes);
         }
 
@@ -664,13 +724,22 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         // This is done in a similar veign to how Java 8's streams work, iterating over the events and returning a processed version
         // one-at-a-time as opposed to iterating over the entire Collection and putting the results in another Collection. However,
         // we don't want to change the Framework to require Java 8 at this time, because it's not yet as prevalent as we would desire
-        final Map<String, FlowFileRecord> flowFileRecordMap = new HashMap<>();
-        for (final StandardRepositoryRecord repoRecord : checkpoint.records.values()) {
-            final FlowFileRecord flowFile = repoRecord.getCurrent();
-            flowFileRecordMap.put(flowFile.getAttribute(CoreAttributes.UUID.key()), flowFile);
+        final List<ProvenanceEventRecord> autoTermEvents = checkpoint.autoTerminatedEvents;
+        if (recordsToSubmit.isEmpty() && autoTermEvents.isEmpty()) {
+            return;
         }
 
-        final List<ProvenanceEventRecord> autoTermEvents = checkpoint.autoTerminatedEvents;
+        final Map<String, FlowFileRecord> flowFileRecordMap;
+        if (checkpoint.records.size() == 1) {
+            final FlowFileRecord flowFile = checkpoint.records.values().iterator().next().getCurrent();
+            flowFileRecordMap = Collections.singletonMap(flowFile.getAttribute(CoreAttributes.UUID.key()), flowFile);
+        } else {
+            flowFileRecordMap = new HashMap<>();
+            for (final StandardRepositoryRecord repoRecord : checkpoint.records.values()) {
+                final FlowFileRecord flowFile = repoRecord.getCurrent();
+                flowFileRecordMap.put(flowFile.getAttribute(CoreAttributes.UUID.key()), flowFile);
+            }
+        }
         final Iterable<ProvenanceEventRecord> iterable = new Iterable<ProvenanceEventRecord>() {
             final Iterator<ProvenanceEventRecord> recordsToSubmitIterator = recordsToSubmit.iterator();
             final Iterator<ProvenanceEventRecord> autoTermIterator = autoTermEvents == null ? null : autoTermEvents.iterator();
@@ -884,14 +953,16 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
 
         deleteOnCommit.clear();
 
-        final List<InputStream> openStreamCopy = new ArrayList<>(openInputStreams); // avoid ConcurrentModificationException by creating a copy of the List
-        for (final InputStream openStream : openStreamCopy) {
-            LOG.debug("{} closing {} for {} due to session rollback", this, openStream, this.connectableDescription);
-            try {
-                openStream.close();
-            } catch (final Exception e) {
-                LOG.warn("{} Attempted to close {} for {} due to session rollback but close failed", this, openStream, this.connectableDescription);
-                LOG.warn("", e);
+        if (!openInputStreams.isEmpty()) {
+            final List<InputStream> openStreamCopy = new ArrayList<>(openInputStreams); // avoid ConcurrentModificationException by creating a copy of the List
+            for (final InputStream openStream : openStreamCopy) {
+                LOG.debug("{} closing {} for {} due to session rollback", this, openStream, getConnectableDescription());
+                try {
+                    openStream.close();
+                } catch (final Exception e) {
+                    LOG.warn("{} Attempted to close {} for {} due to session rollback but close failed", this, openStream, getConnectableDescription());
+                    LOG.warn("", e);
+                }
             }
         }
 
@@ -1899,7 +1970,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         } catch (final ContentNotFoundException nfe) {
             handleContentNotFound(nfe, record);
         } catch (final IOException ex) {
-            throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ex.toString(), ex);
+            throw new ProcessException("IOException thrown from " + getConnectableDescription() + ": " + ex.toString(), ex);
         }
     }
 
@@ -2135,7 +2206,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         } catch (final IOException ioe) {
             resetWriteClaims(); // need to reset write claim before we can remove the claim
             destroyContent(newClaim);
-            throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ioe.toString(), ioe);
+            throw new ProcessException("IOException thrown from " + getConnectableDescription() + ": " + ioe.toString(), ioe);
         } catch (final Throwable t) {
             resetWriteClaims(); // need to reset write claim before we can remove the claim
             destroyContent(newClaim);
@@ -2233,7 +2304,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
                 destroyContent(newClaim);
             }
 
-            throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ioe.toString(), ioe);
+            throw new ProcessException("IOException thrown from " + getConnectableDescription() + ": " + ioe.toString(), ioe);
         } catch (final Throwable t) {
             resetWriteClaims(); // need to reset write claim before we can remove the claim
 
@@ -2385,7 +2456,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             handleContentNotFound(nfe, record);
         } catch (final IOException ioe) {
             destroyContent(newClaim);
-            throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ioe.toString(), ioe);
+            throw new ProcessException("IOException thrown from " + getConnectableDescription() + ": " + ioe.toString(), ioe);
         } catch (final FlowFileAccessException ffae) {
             destroyContent(newClaim);
             throw ffae;
@@ -2548,7 +2619,7 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         } catch (final ContentNotFoundException nfe) {
             handleContentNotFound(nfe, record);
         } catch (final IOException ex) {
-            throw new ProcessException("IOException thrown from " + connectableDescription + ": " + ex.toString(), ex);
+            throw new ProcessException("IOException thrown from " + getConnectableDescription() + ": " + ex.toString(), ex);
         }
     }
 
@@ -2770,19 +2841,18 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
 
         private long processingTime = 0L;
 
-        private final Map<FlowFile, List<ProvenanceEventRecord>> generatedProvenanceEvents = new HashMap<>();
-        private final Map<FlowFile, ProvenanceEventBuilder> forkEventBuilders = new HashMap<>();
+        private Map<FlowFile, List<ProvenanceEventRecord>> generatedProvenanceEvents = new HashMap<>();
+        private Map<FlowFile, ProvenanceEventBuilder> forkEventBuilders = new HashMap<>();
         private final List<ProvenanceEventRecord> autoTerminatedEvents = new ArrayList<>();
         private final Set<ProvenanceEventRecord> reportedEvents = new LinkedHashSet<>();
 
-        private final Map<FlowFileRecord, StandardRepositoryRecord> records = new HashMap<>();
-        private final Map<Connection, StandardFlowFileEvent> connectionCounts = new HashMap<>();
-        private final Map<Connection, Set<FlowFileRecord>> unacknowledgedFlowFiles = new HashMap<>();
-        private final Map<String, Long> counters = new HashMap<>();
+        private Map<FlowFileRecord, StandardRepositoryRecord> records = new HashMap<>();
+        private Map<Connection, StandardFlowFileEvent> connectionCounts = new HashMap<>();
+        private Map<String, Long> counters = new HashMap<>();
 
         private final Set<Path> deleteOnCommit = new HashSet<>();
-        private final Set<String> removedFlowFiles = new HashSet<>();
-        private final Set<String> createdFlowFiles = new HashSet<>();
+        private Set<String> removedFlowFiles = new HashSet<>();
+        private Set<String> createdFlowFiles = new HashSet<>();
 
         private int removedCount = 0; // number of flowfiles removed in this session
         private long removedBytes = 0L; // size of all flowfiles removed in this session
@@ -2794,21 +2864,25 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
         private void checkpoint(final StandardProcessSession session, final List<ProvenanceEventRecord> autoTerminatedEvents) {
             this.processingTime += System.nanoTime() - session.processingStartTime;
 
-            this.generatedProvenanceEvents.putAll(session.generatedProvenanceEvents);
-            this.forkEventBuilders.putAll(session.forkEventBuilders);
+            if (records.isEmpty()) {
+                // Nothing has been checkpointed yet, so all of these collections are empty. Rather than copying the session's
+                // collections, exchange them: the session is about to clear its own anyway.
+                swapCollections(session);
+            } else {
+                this.generatedProvenanceEvents.putAll(session.generatedProvenanceEvents);
+                this.forkEventBuilders.putAll(session.forkEventBuilders);
+                this.records.putAll(session.records);
+                this.connectionCounts.putAll(session.connectionCounts);
+                this.counters.putAll(session.counters);
+                this.removedFlowFiles.addAll(session.removedFlowFiles);
+                this.createdFlowFiles.addAll(session.createdFlowFiles);
+            }
+
             if (autoTerminatedEvents != null) {
                 this.autoTerminatedEvents.addAll(autoTerminatedEvents);
             }
             this.reportedEvents.addAll(session.provenanceReporter.getEvents());
-
-            this.records.putAll(session.records);
-            this.connectionCounts.putAll(session.connectionCounts);
-            this.unacknowledgedFlowFiles.putAll(session.unacknowledgedFlowFiles);
-            this.counters.putAll(session.counters);
-
             this.deleteOnCommit.addAll(session.deleteOnCommit);
-            this.removedFlowFiles.addAll(session.removedFlowFiles);
-            this.createdFlowFiles.addAll(session.createdFlowFiles);
 
             this.removedCount += session.removedCount;
             this.removedBytes += session.removedBytes;
@@ -2819,5 +2893,64 @@ public final class StandardProcessSession implements ProcessSession, ProvenanceE
             this.contentSizeIn += session.contentSizeIn;
             this.contentSizeOut += session.contentSizeOut;
         }
+
+        private void swapCollections(final StandardProcessSession session) {
+            final Map<FlowFile, List<ProvenanceEventRecord>> generatedProvenanceEvents = this.generatedProvenanceEvents;
+            this.generatedProvenanceEvents = session.generatedProvenanceEvents;
+            session.generatedProvenanceEvents = generatedProvenanceEvents;
+
+            final Map<FlowFile, ProvenanceEventBuilder> forkEventBuilders = this.forkEventBuilders;
+            this.forkEventBuilders = session.forkEventBuilders;
+            session.forkEventBuilders = forkEventBuilders;
+
+            final Map<FlowFileRecord, StandardRepositoryRecord> records = this.records;
+            this.records = session.records;
+            session.records = records;
+
+            final Map<Connection, StandardFlowFileEvent> connectionCounts = this.connectionCounts;
+            this.connectionCounts = session.connectionCounts;
+            session.connectionCounts = connectionCounts;
+
+            final Map<String, Long> counters = this.counters;
+            this.counters = session.counters;
+            session.counters = counters;
+
+            final Set<String> removedFlowFiles = this.removedFlowFiles;
+            this.removedFlowFiles = session.removedFlowFiles;
+            session.removedFlowFiles = removedFlowFiles;
+
+            final Set<String> createdFlowFiles = this.createdFlowFiles;
+            this.createdFlowFiles = session.createdFlowFiles;
+            session.createdFlowFiles = createdFlowFiles;
+        }
+
+        /**
+         * Clears the Checkpoint after it has been committed, so that it can be used again
+         */
+        private void clear() {
+            processingTime = 0L;
+
+            generatedProvenanceEvents.clear();
+            forkEventBuilders.clear();
+            autoTerminatedEvents.clear();
+            reportedEvents.clear();
+
+            records.clear();
+            connectionCounts.clear();
+            counters.clear();
+
+            deleteOnCommit.clear();
+            removedFlowFiles.clear();
+            createdFlowFiles.clear();
+
+            removedCount = 0;
+            removedBytes = 0L;
+            bytesRead = 0L;
+            bytesWritten = 0L;
+            flowFilesIn = 0;
+            flowFilesOut = 0;
+            contentSizeIn = 0L;
+            contentSizeOut = 0L;
+        }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.repository.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An InputStream over a region of a file that uses positional reads against a FileChannel. Because
+ * positional reads do not change the position of the channel, any number of these streams may share
+ * a single FileChannel concurrently, and skipping bytes costs nothing. Closing the stream does not
+ * close the channel; instead, the given callback is notified so that the channel can be released.
+ */
+public class FileChannelInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long end;
+    private final Runnable onClose;
+    private long position;
+    private long markPosition;
+    private boolean closed = false;
+
+    /**
+     * @param channel the channel to read from
+     * @param offset the offset into the file at which the stream begins
+     * @param length the number of bytes that may be read from the stream, or -1 to read until the end of the file
+     * @param onClose called once, when the stream is closed; may be <code>null</code>
+     * @throws IOException if unable to determine the size of the file
+     */
+    public FileChannelInputStream(final FileChannel channel, final long offset, final long length, final Runnable onClose) throws IOException {
+        this.channel = channel;
+        this.position = offset;
+        this.markPosition = offset;
+        this.end = length < 0 ? channel.size() : offset + length;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        final int len = read(b, 0, 1);
+        return len < 1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        final long remaining = end - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(b, off, (int) Math.min(len, remaining));
+        final int bytesRead = channel.read(buffer, position);
+        if (bytesRead > 0) {
+            position += bytesRead;
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n <= 0) {
+            return 0L;
+        }
+
+        final long skipped = Math.min(n, Math.max(0L, end - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0L, end - position));
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(final int readlimit) {
+        markPosition = position;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        position = markPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        if (onClose != null) {
+            onClose.run();
+        }
+    }
+}
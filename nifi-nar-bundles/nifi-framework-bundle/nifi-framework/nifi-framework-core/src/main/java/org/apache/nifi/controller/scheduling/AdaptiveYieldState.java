@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks how long a component has consistently had no work to do, and which of its tasks are currently
+ * waiting out a bored yield. Each consecutive time that the component finds no work, the bored yield is
+ * doubled, starting at the configured bored yield duration and capped at the configured maximum. Tasks
+ * that are waiting can be woken early, which is done when an upstream connection receives data.
+ *
+ * @param <T> the type of the task that is parked
+ */
+class AdaptiveYieldState<T> {
+
+    private final long minYieldNanos;
+    private final long maxYieldNanos;
+
+    private final AtomicInteger consecutiveNoWork = new AtomicInteger(0);
+    private final Set<T> parkedTasks = ConcurrentHashMap.newKeySet();
+
+    AdaptiveYieldState(final long minYieldNanos, final long maxYieldNanos) {
+        this.minYieldNanos = minYieldNanos;
+        this.maxYieldNanos = Math.max(minYieldNanos, maxYieldNanos);
+    }
+
+    /**
+     * Records that the component had no work to do and returns how long it should yield for
+     *
+     * @return the number of nanoseconds that the component should yield
+     */
+    long nextNoWorkYieldNanos() {
+        final int noWorkCount = consecutiveNoWork.getAndIncrement();
+        if (noWorkCount < 0) {
+            // overflowed after a very long idle period; stay at the maximum
+            consecutiveNoWork.set(Integer.MAX_VALUE);
+            return maxYieldNanos;
+        }
+
+        if (noWorkCount >= Long.numberOfLeadingZeros(minYieldNanos) - 1) {
+            return maxYieldNanos;
+        }
+
+        return Math.min(maxYieldNanos, minYieldNanos << noWorkCount);
+    }
+
+    /**
+     * Records that the component had work to do, so the next time that it is bored it yields for the minimum duration again
+     */
+    void onWork() {
+        if (consecutiveNoWork.get() != 0) {
+            consecutiveNoWork.set(0);
+        }
+    }
+
+    int getConsecutiveNoWorkCount() {
+        return Math.max(0, consecutiveNoWork.get());
+    }
+
+    void park(final T task) {
+        parkedTasks.add(task);
+    }
+
+    boolean unpark(final T task) {
+        return parkedTasks.remove(task);
+    }
+
+    /**
+     * Removes all tasks that are currently parked and resets the backoff, as new work has arrived
+     *
+     * @return the tasks that were parked
+     */
+    List<T> unparkAll() {
+        if (parkedTasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        consecutiveNoWork.set(0);
+
+        final List<T> unparked = new ArrayList<>(parkedTasks.size());
+        for (final T task : parkedTasks) {
+            if (parkedTasks.remove(task)) {
+                unparked.add(task);
+            }
+        }
+
+        return unparked;
+    }
+}
@@ -19,6 +19,8 @@ package org.apache.nifi.controller.scheduling;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -26,6 +28,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.apache.nifi.components.state.StateManager;
 import org.apache.nifi.connectable.Connectable;
 import org.apache.nifi.connectable.ConnectableType;
+import org.apache.nifi.connectable.Connection;
 import org.apache.nifi.controller.FlowController;
 import org.apache.nifi.controller.ProcessorNode;
 import org.apache.nifi.controller.ReportingTaskNode;
@@ -46,7 +49,15 @@ import org.slf4j.LoggerFactory;
 public class TimerDrivenSchedulingAgent extends AbstractSchedulingAgent {
 
     private static final Logger logger = LoggerFactory.getLogger(TimerDrivenSchedulingAgent.class);
+
+    // the longest that a component with a deep input queue is run back-to-back before its thread is given up
+    private static final long MAX_DEEP_QUEUE_RUN_NANOS = TimeUnit.MILLISECONDS.toNanos(25L);
+
     private final long noWorkYieldNanos;
+    private final boolean adaptiveYield;
+    private final long maxNoWorkYieldNanos;
+    private final int deepQueueThreshold;
+    private final ConcurrentMap<String, AdaptiveYieldState<YieldDetectionTask>> adaptiveYieldStates = new ConcurrentHashMap<>();
 
     private final FlowController flowController;
     private final ProcessContextFactory contextFactory;
@@ -74,6 +85,21 @@ public class TimerDrivenSchedulingAgent extends AbstractSchedulingAgent {
         } catch (final IllegalArgumentException e) {
             throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.BORED_YIELD_DURATION + " property is set to an invalid time duration: " + boredYieldDuration);
         }
+
+        adaptiveYield = nifiProperties.isBoredYieldAdaptive();
+        final String maxBoredYieldDuration = nifiProperties.getMaxBoredYieldDuration();
+        try {
+            maxNoWorkYieldNanos = FormatUtils.getTimeDuration(maxBoredYieldDuration, TimeUnit.NANOSECONDS);
+        } catch (final IllegalArgumentException e) {
+            throw new RuntimeException("Failed to create SchedulingAgent because the " + NiFiProperties.BORED_YIELD_MAX_DURATION + " property is set to an invalid time duration: "
+                + maxBoredYieldDuration);
+        }
+        deepQueueThreshold = nifiProperties.getBoredYieldDeepQueueThreshold();
+
+        if (adaptiveYield) {
+            logger.info("Adaptive scheduling enabled; bored components will yield between {} and {}, and components with at least {} FlowFiles queued will be run back-to-back",
+                boredYieldDuration, maxBoredYieldDuration, deepQueueThreshold);
+        }
     }
 
     private StateManager getStateManager(final String componentId) {
@@ -100,6 +126,13 @@ public class TimerDrivenSchedulingAgent extends AbstractSchedulingAgent {
 
     @Override
     public void doSchedule(final Connectable connectable, final ScheduleState scheduleState) {
+        final AdaptiveYieldState<YieldDetectionTask> adaptiveYieldState;
+        if (adaptiveYield) {
+            adaptiveYieldState = new AdaptiveYieldState<>(noWorkYieldNanos, maxNoWorkYieldNanos);
+            adaptiveYieldStates.put(connectable.getIdentifier(), adaptiveYieldState);
+        } else {
+            adaptiveYieldState = null;
+        }
 
         final List<ScheduledFuture<?>> futures = new ArrayList<>();
         for (int i = 0; i < connectable.getMaxConcurrentTasks(); i++) {
@@ -120,81 +153,15 @@ public class TimerDrivenSchedulingAgent extends AbstractSchedulingAgent {
                 continuallyRunTask = new ContinuallyRunConnectableTask(contextFactory, connectable, scheduleState, processContext);
             }
 
-            final AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
-
-            final Runnable yieldDetectionRunnable = new Runnable() {
-                @Override
-                public void run() {
-                    // Call the continually run task. It will return a boolean indicating whether or not we should yield
-                    // based on a lack of work for to do for the component.
-                    final boolean shouldYield;
-                    try {
-                        shouldYield = continuallyRunTask.call();
-                    } catch (final RuntimeException re) {
-                        throw re;
-                    } catch (final Exception e) {
-                        throw new ProcessException(e);
-                    }
-
-                    // If the component is yielded, cancel its future and re-submit it to run again
-                    // after the yield has expired.
-                    final long newYieldExpiration = connectable.getYieldExpiration();
-                    if (newYieldExpiration > System.currentTimeMillis()) {
-                        final long yieldMillis = newYieldExpiration - System.currentTimeMillis();
-                        final ScheduledFuture<?> scheduledFuture = futureRef.get();
-                        if (scheduledFuture == null) {
-                            return;
-                        }
-
-                        // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
-                        // an accurate accounting of which futures are outstanding; we must then also update the futureRef
-                        // so that we can do this again the next time that the component is yielded.
-                        if (scheduledFuture.cancel(false)) {
-                            final long yieldNanos = TimeUnit.MILLISECONDS.toNanos(yieldMillis);
-
-                            synchronized (scheduleState) {
-                                if (scheduleState.isScheduled()) {
-                                    final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, yieldNanos,
-                                            connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
-
-                                    scheduleState.replaceFuture(scheduledFuture, newFuture);
-                                    futureRef.set(newFuture);
-                                }
-                            }
-                        }
-                    } else if (noWorkYieldNanos > 0L && shouldYield) {
-                        // Component itself didn't yield but there was no work to do, so the framework will choose
-                        // to yield the component automatically for a short period of time.
-                        final ScheduledFuture<?> scheduledFuture = futureRef.get();
-                        if (scheduledFuture == null) {
-                            return;
-                        }
-
-                        // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
-                        // an accurate accounting of which futures are outstanding; we must then also update the futureRef
-                        // so that we can do this again the next time that the component is yielded.
-                        if (scheduledFuture.cancel(false)) {
-                            synchronized (scheduleState) {
-                                if (scheduleState.isScheduled()) {
-                                    final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, noWorkYieldNanos,
-                                            connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
-
-                                    scheduleState.replaceFuture(scheduledFuture, newFuture);
-                                    futureRef.set(newFuture);
-                                }
-                            }
-                        }
-                    }
-                }
-            };
+            final YieldDetectionTask yieldDetectionTask = new YieldDetectionTask(connectable, continuallyRunTask, scheduleState, adaptiveYieldState);
 
             // Schedule the task to run
-            final ScheduledFuture<?> future = flowEngine.scheduleWithFixedDelay(yieldDetectionRunnable, 0L,
+            final ScheduledFuture<?> future = flowEngine.scheduleWithFixedDelay(yieldDetectionTask, 0L,
                     connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
 
             // now that we have the future, set the atomic reference so that if the component is yielded we
             // are able to then cancel this future.
-            futureRef.set(future);
+            yieldDetectionTask.futureRef.set(future);
 
             // Keep track of the futures so that we can update the ScheduleState.
             futures.add(future);
@@ -206,6 +173,8 @@ public class TimerDrivenSchedulingAgent extends AbstractSchedulingAgent {
 
     @Override
     public void doUnschedule(final Connectable connectable, final ScheduleState scheduleState) {
+        adaptiveYieldStates.remove(connectable.getIdentifier());
+
         for (final ScheduledFuture<?> future : scheduleState.getFutures()) {
             // stop scheduling to run but do not interrupt currently running tasks.
             future.cancel(false);
@@ -241,10 +210,234 @@ public class TimerDrivenSchedulingAgent extends AbstractSchedulingAgent {
 
     @Override
     public void onEvent(final Connectable connectable) {
+        if (!adaptiveYield) {
+            return;
+        }
+
+        // New data is available to the component (or room has been made in a downstream queue), so any of its
+        // tasks that are waiting out a bored yield are run again immediately rather than after the yield expires.
+        final AdaptiveYieldState<YieldDetectionTask> adaptiveYieldState = adaptiveYieldStates.get(connectable.getIdentifier());
+        if (adaptiveYieldState == null) {
+            return;
+        }
+
+        for (final YieldDetectionTask task : adaptiveYieldState.unparkAll()) {
+            task.wake();
+        }
     }
 
     @Override
     public void setMaxThreadCount(final int maxThreads) {
     }
 
+    private static int getQueuedCount(final Connectable connectable) {
+        int count = 0;
+        for (final Connection connection : connectable.getIncomingConnections()) {
+            count += connection.getFlowFileQueue().size().getObjectCount();
+        }
+        return count;
+    }
+
+    /**
+     * The state of a YieldDetectionTask with respect to its scheduled future
+     */
+    private enum TaskState {
+        /** the task is not running and is waiting on its periodic future */
+        IDLE,
+        /** the task is running, or is being rescheduled by a wake */
+        RUNNING,
+        /** the task has finished running and is waiting out a bored yield on its delayed future */
+        PARKED
+    }
+
+    private class YieldDetectionTask implements Runnable {
+        private final Connectable connectable;
+        private final Callable<Boolean> continuallyRunTask;
+        private final ScheduleState scheduleState;
+        private final AdaptiveYieldState<YieldDetectionTask> adaptiveYieldState;
+        private final AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
+        private final AtomicReference<TaskState> taskState = new AtomicReference<>(TaskState.IDLE);
+        private volatile boolean wakeRequested = false;
+
+        public YieldDetectionTask(final Connectable connectable, final Callable<Boolean> continuallyRunTask, final ScheduleState scheduleState,
+            final AdaptiveYieldState<YieldDetectionTask> adaptiveYieldState) {
+            this.connectable = connectable;
+            this.continuallyRunTask = continuallyRunTask;
+            this.scheduleState = scheduleState;
+            this.adaptiveYieldState = adaptiveYieldState;
+        }
+
+        @Override
+        public void run() {
+            if (adaptiveYieldState == null) {
+                runTask();
+                return;
+            }
+
+            // If the task is already marked as running, a wake has claimed it and is replacing the future that
+            // invoked this run, so this run is skipped rather than running alongside the one that replaces it.
+            if (!claim()) {
+                return;
+            }
+
+            wakeRequested = false;
+            adaptiveYieldState.unpark(this);
+
+            boolean parked = false;
+            try {
+                parked = runTask();
+            } finally {
+                taskState.set(parked ? TaskState.PARKED : TaskState.IDLE);
+            }
+
+            // If a wake arrived while the task was still running, it could not reschedule the task, so the
+            // task wakes itself now that it has finished running and its delayed future is in place.
+            if (parked && wakeRequested) {
+                wake();
+            }
+        }
+
+        private boolean claim() {
+            while (true) {
+                final TaskState state = taskState.get();
+                if (state == TaskState.RUNNING) {
+                    return false;
+                }
+
+                if (taskState.compareAndSet(state, TaskState.RUNNING)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Runs the task and reschedules it if the component yielded or had no work to do
+         *
+         * @return <code>true</code> if the task was parked to wait out a bored yield
+         */
+        private boolean runTask() {
+            final ScheduledFuture<?> scheduledFuture = futureRef.get();
+
+            // Call the continually run task. It will return a boolean indicating whether or not we should yield
+            // based on a lack of work for to do for the component.
+            boolean shouldYield = callTask();
+
+            // When adaptive, a component that is working through a deep backlog keeps its thread for a short time
+            // rather than going to the back of the line after each invocation, as long as it is making progress.
+            if (adaptiveYieldState != null && !shouldYield && deepQueueThreshold > 0) {
+                final long stopNanos = System.nanoTime() + MAX_DEEP_QUEUE_RUN_NANOS;
+                int queued = getQueuedCount(connectable);
+                while (!shouldYield && queued >= deepQueueThreshold && System.nanoTime() < stopNanos
+                    && scheduleState.isScheduled() && connectable.getYieldExpiration() <= System.currentTimeMillis()) {
+
+                    shouldYield = callTask();
+
+                    final int queuedAfter = getQueuedCount(connectable);
+                    if (queuedAfter >= queued) {
+                        break;
+                    }
+                    queued = queuedAfter;
+                }
+            }
+
+            // If the component is yielded, cancel its future and re-submit it to run again
+            // after the yield has expired.
+            final long newYieldExpiration = connectable.getYieldExpiration();
+            if (newYieldExpiration > System.currentTimeMillis()) {
+                final long yieldMillis = newYieldExpiration - System.currentTimeMillis();
+                reschedule(scheduledFuture, TimeUnit.MILLISECONDS.toNanos(yieldMillis));
+            } else if (noWorkYieldNanos > 0L && shouldYield) {
+                // Component itself didn't yield but there was no work to do, so the framework will choose
+                // to yield the component automatically for a short period of time. When adaptive, the period
+                // grows the longer that the component stays idle, and the task is parked so that it can be
+                // woken as soon as data arrives.
+                if (adaptiveYieldState == null) {
+                    reschedule(scheduledFuture, noWorkYieldNanos);
+                } else {
+                    final long yieldNanos = adaptiveYieldState.nextNoWorkYieldNanos();
+                    adaptiveYieldState.park(this);
+                    reschedule(scheduledFuture, yieldNanos);
+                    return true;
+                }
+            } else if (adaptiveYieldState != null && !shouldYield) {
+                adaptiveYieldState.onWork();
+            }
+
+            return false;
+        }
+
+        private boolean callTask() {
+            try {
+                return continuallyRunTask.call();
+            } catch (final RuntimeException re) {
+                throw re;
+            } catch (final Exception e) {
+                throw new ProcessException(e);
+            }
+        }
+
+        /**
+         * Wakes this task if it is waiting out a bored yield. A task that is still running is not rescheduled
+         * here, as cancelling its running future would allow a second run to start before the first finishes;
+         * instead, the wake is recorded and the task wakes itself once it has finished running.
+         */
+        void wake() {
+            wakeRequested = true;
+            if (!taskState.compareAndSet(TaskState.PARKED, TaskState.RUNNING)) {
+                return;
+            }
+
+            wakeRequested = false;
+            reschedule(futureRef.get(), 0L, true);
+        }
+
+        private void reschedule(final ScheduledFuture<?> scheduledFuture, final long delayNanos) {
+            reschedule(scheduledFuture, delayNanos, false);
+        }
+
+        /**
+         * @param wake whether the task has been claimed by {@link #wake()}, in which case it is released before the new future
+         *            is scheduled, so that the new future's first run is not skipped
+         */
+        private void reschedule(final ScheduledFuture<?> scheduledFuture, final long delayNanos, final boolean wake) {
+            boolean released = false;
+            try {
+                if (scheduledFuture == null) {
+                    return;
+                }
+
+                // If we are able to cancel the future, create a new one and update the ScheduleState so that it has
+                // an accurate accounting of which futures are outstanding; we must then also update the futureRef
+                // so that we can do this again the next time that the component is yielded.
+                synchronized (scheduleState) {
+                    // A delayed future that is already due is running or about to run, so there is nothing to wake
+                    if (wake && scheduledFuture.getDelay(TimeUnit.NANOSECONDS) <= 0L) {
+                        return;
+                    }
+
+                    if (futureRef.get() != scheduledFuture || !scheduledFuture.cancel(false)) {
+                        return;
+                    }
+
+                    if (wake) {
+                        taskState.set(TaskState.IDLE);
+                        released = true;
+                    }
+
+                    if (scheduleState.isScheduled()) {
+                        final ScheduledFuture<?> newFuture = flowEngine.scheduleWithFixedDelay(this, delayNanos,
+                                connectable.getSchedulingPeriod(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+                        scheduleState.replaceFuture(scheduledFuture, newFuture);
+                        futureRef.set(newFuture);
+                    }
+                }
+            } finally {
+                if (wake && !released) {
+                    taskState.set(TaskState.IDLE);
+                }
+            }
+        }
+    }
+
 }
@@ -339,6 +339,7 @@ public class FlowFromDOMFactory {
         descriptor.setComments(getString(element, "comments"));
         descriptor.setConcurrentlySchedulableTaskCount(getInt(element, "maxConcurrentTasks"));
         descriptor.setUseCompression(getBoolean(element, "useCompression"));
+        descriptor.setCompressionCodec(getString(element, "compressionCodec"));
         descriptor.setTransmitting("RUNNING".equalsIgnoreCase(getString(element, "scheduledState")));
 
         return descriptor;
@@ -287,6 +287,9 @@ public class StandardFlowSerializer implements FlowSerializer {
         addTextElement(element, "scheduledState", port.getScheduledState().name());
         addTextElement(element, "maxConcurrentTasks", port.getMaxConcurrentTasks());
         addTextElement(element, "useCompression", String.valueOf(port.isUseCompression()));
+        if (port.getCompressionCodec() != null) {
+            addTextElement(element, "compressionCodec", port.getCompressionCodec());
+        }
 
         parentElement.appendChild(element);
     }
@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
@@ -32,6 +33,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.state.Scope;
@@ -66,8 +68,23 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         .required(true)
         .build();
 
+    static final PropertyDescriptor DURABILITY_WINDOW = new PropertyDescriptor.Builder()
+        .name("Durability Window")
+        .description("The maximum amount of time that a state update may be held in memory before it is written to the write-ahead log and synced to disk. "
+            + "If 0 sec, each update is written to the write-ahead log before the update completes. Otherwise, the updates of all components are coalesced "
+            + "and written together, which allows for a much higher rate of updates, but updates made within this window may be lost if NiFi or its host "
+            + "stops unexpectedly.")
+        .addValidator(StandardValidators.TIME_PERIOD_VALIDATOR)
+        .defaultValue("0 sec")
+        .required(true)
+        .build();
+
     private WriteAheadRepository<StateMapUpdate> writeAheadLog;
     private AtomicLong versionGenerator;
+    private long durabilityWindowMillis;
+
+    // the providers whose state has changed since it was last written to the write-ahead log, when updates are batched
+    private final Set<ComponentProvider> pendingUpdates = Collections.newSetFromMap(new ConcurrentHashMap<ComponentProvider, Boolean>());
 
     public WriteAheadLocalStateProvider() {
         serde = new StateMapSerDe();
@@ -93,6 +110,9 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
             throw new RuntimeException("Cannot Initialize Local State Provider because the 'Directory' property is set to \"" + basePath + "\", but that directory cannot be read");
         }
 
+        final Long durabilityWindow = context.getProperty(DURABILITY_WINDOW).asTimePeriod(TimeUnit.MILLISECONDS);
+        durabilityWindowMillis = durabilityWindow == null ? 0L : durabilityWindow;
+
         versionGenerator = new AtomicLong(-1L);
         writeAheadLog = new MinimalLockingWriteAheadLog<>(basePath.toPath(), 16, serde, null);
 
@@ -110,7 +130,7 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
             }
 
             final String componentId = update.getComponentId();
-            componentProviders.put(componentId, new ComponentProvider(writeAheadLog, versionGenerator, componentId, update.getStateMap()));
+            componentProviders.put(componentId, createComponentProvider(componentId, update.getStateMap()));
         }
 
         // keep a separate maxRecordVersion and set it at the end so that we don't have to continually update an AtomicLong, which is more
@@ -119,12 +139,52 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         versionGenerator.set(maxRecordVersion);
 
         executor.scheduleWithFixedDelay(new CheckpointTask(), 2, 2, TimeUnit.MINUTES);
+        if (durabilityWindowMillis > 0L) {
+            executor.scheduleWithFixedDelay(new WritePendingUpdatesTask(), durabilityWindowMillis, durabilityWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private ComponentProvider createComponentProvider(final String componentId, final StateMap stateMap) {
+        if (durabilityWindowMillis > 0L) {
+            return new BatchedComponentProvider(versionGenerator, componentId, stateMap, pendingUpdates);
+        }
+
+        return new SynchronousComponentProvider(writeAheadLog, versionGenerator, componentId, stateMap);
+    }
+
+    /**
+     * Writes the current state of each component whose state has changed to the write-ahead log in a single update.
+     * Only the thread of the executor, or the thread shutting down the provider once the executor has terminated, calls this method,
+     * so the write-ahead log is never updated concurrently for the same component.
+     *
+     * @throws IOException if unable to update the write-ahead log
+     */
+    private void writePendingUpdates() throws IOException {
+        final List<ComponentProvider> providers = new ArrayList<>(pendingUpdates);
+        if (providers.isEmpty()) {
+            return;
+        }
+
+        // remove each provider before reading its state so that any newer update is written by the next batch
+        final List<StateMapUpdate> records = new ArrayList<>(providers.size());
+        for (final ComponentProvider provider : providers) {
+            pendingUpdates.remove(provider);
+            records.add(new StateMapUpdate(provider.getState(), provider.getComponentId(), UpdateType.UPDATE));
+        }
+
+        try {
+            writeAheadLog.update(records, true);
+        } catch (final IOException ioe) {
+            pendingUpdates.addAll(providers);
+            throw ioe;
+        }
     }
 
     @Override
     public List<PropertyDescriptor> getSupportedPropertyDescriptors() {
         final List<PropertyDescriptor> properties = new ArrayList<>();
         properties.add(PATH);
+        properties.add(DURABILITY_WINDOW);
         return properties;
     }
 
@@ -132,6 +192,21 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
     public synchronized void shutdown() {
         executor.shutdown();
 
+        try {
+            if (durabilityWindowMillis > 0L) {
+                if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logger.warn("Timed out waiting for the maintenance tasks of {} to complete", this);
+                }
+                writePendingUpdates();
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for the maintenance tasks of {} to complete", this);
+        } catch (final IOException ioe) {
+            logger.error("Failed to write the latest state of {} components due to {}", pendingUpdates.size(), ioe.toString());
+            logger.error("", ioe);
+        }
+
         try {
             writeAheadLog.shutdown();
         } catch (final IOException ioe) {
@@ -144,7 +219,7 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         ComponentProvider componentProvider = componentProviders.get(componentId);
         if (componentProvider == null) {
             final StateMap stateMap = new StandardStateMap(Collections.<String, String> emptyMap(), -1L);
-            componentProvider = new ComponentProvider(writeAheadLog, versionGenerator, componentId, stateMap);
+            componentProvider = createComponentProvider(componentId, stateMap);
 
             final ComponentProvider existingComponentProvider = componentProviders.putIfAbsent(componentId, componentProvider);
             if (existingComponentProvider != null) {
@@ -186,20 +261,43 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         return new Scope[]{Scope.LOCAL};
     }
 
-    private static class ComponentProvider {
-        private final AtomicLong versionGenerator;
+    private abstract static class ComponentProvider {
+        protected final AtomicLong versionGenerator;
+        protected final String componentId;
+
+        public ComponentProvider(final AtomicLong versionGenerator, final String componentId) {
+            this.versionGenerator = versionGenerator;
+            this.componentId = componentId;
+        }
+
+        public String getComponentId() {
+            return componentId;
+        }
+
+        public abstract StateMap getState() throws IOException;
+
+        public abstract void setState(Map<String, String> state) throws IOException;
+
+        public abstract boolean replace(StateMap oldValue, Map<String, String> newValue) throws IOException;
+
+        public abstract void clear() throws IOException;
+    }
+
+    /**
+     * Writes each update to the write-ahead log before the update completes
+     */
+    private static class SynchronousComponentProvider extends ComponentProvider {
         private final WriteAheadRepository<StateMapUpdate> wal;
-        private final String componentId;
 
         private StateMap stateMap;
 
-        public ComponentProvider(final WriteAheadRepository<StateMapUpdate> wal, final AtomicLong versionGenerator, final String componentId, final StateMap stateMap) {
+        public SynchronousComponentProvider(final WriteAheadRepository<StateMapUpdate> wal, final AtomicLong versionGenerator, final String componentId, final StateMap stateMap) {
+            super(versionGenerator, componentId);
             this.wal = wal;
-            this.versionGenerator = versionGenerator;
-            this.componentId = componentId;
             this.stateMap = stateMap;
         }
 
+        @Override
         public synchronized StateMap getState() throws IOException {
             return stateMap;
         }
@@ -208,6 +306,7 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         // Additionally, the implementation of WriteAheadRepository that we are using requires that only a single thread update the
         // repository at a time for a record with the same key. I.e., many threads can update the repository at once, as long as they
         // are not updating the repository with records that have the same identifier.
+        @Override
         public synchronized void setState(final Map<String, String> state) throws IOException {
             stateMap = new StandardStateMap(state, versionGenerator.incrementAndGet());
             final StateMapUpdate updateRecord = new StateMapUpdate(stateMap, componentId, UpdateType.UPDATE);
@@ -215,6 +314,7 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         }
 
         // see above explanation as to why this method is synchronized.
+        @Override
         public synchronized boolean replace(final StateMap oldValue, final Map<String, String> newValue) throws IOException {
             if (stateMap.getVersion() == -1L) {
                 // state has never been set so return false
@@ -231,6 +331,7 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
             return true;
         }
 
+        @Override
         public synchronized void clear() throws IOException {
             stateMap = new StandardStateMap(null, versionGenerator.incrementAndGet());
             final StateMapUpdate update = new StateMapUpdate(stateMap, componentId, UpdateType.UPDATE);
@@ -238,6 +339,59 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         }
     }
 
+    /**
+     * Updates the state in memory, without locking, and marks the component as pending so that its latest state is written to the
+     * write-ahead log, together with that of other components, within the durability window
+     */
+    private static class BatchedComponentProvider extends ComponentProvider {
+        private final AtomicReference<StateMap> stateMap;
+        private final Set<ComponentProvider> pendingUpdates;
+
+        public BatchedComponentProvider(final AtomicLong versionGenerator, final String componentId, final StateMap stateMap, final Set<ComponentProvider> pendingUpdates) {
+            super(versionGenerator, componentId);
+            this.stateMap = new AtomicReference<>(stateMap);
+            this.pendingUpdates = pendingUpdates;
+        }
+
+        @Override
+        public StateMap getState() {
+            return stateMap.get();
+        }
+
+        @Override
+        public void setState(final Map<String, String> state) {
+            // the version is generated as part of the update, so that concurrent updates cannot publish their versions out of order
+            stateMap.updateAndGet(oldValue -> new StandardStateMap(state, versionGenerator.incrementAndGet()));
+            pendingUpdates.add(this);
+        }
+
+        @Override
+        public boolean replace(final StateMap oldValue, final Map<String, String> newValue) {
+            final StateMap currentValue = stateMap.get();
+            if (currentValue.getVersion() == -1L) {
+                // state has never been set so return false
+                return false;
+            }
+
+            if (currentValue != oldValue) {
+                return false;
+            }
+
+            if (!stateMap.compareAndSet(oldValue, new StandardStateMap(new HashMap<>(newValue), versionGenerator.incrementAndGet()))) {
+                return false;
+            }
+
+            pendingUpdates.add(this);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            stateMap.updateAndGet(oldValue -> new StandardStateMap(null, versionGenerator.incrementAndGet()));
+            pendingUpdates.add(this);
+        }
+    }
+
     private class CheckpointTask implements Runnable {
         @Override
         public void run() {
@@ -251,6 +405,17 @@ public class WriteAheadLocalStateProvider extends AbstractStateProvider {
         }
     }
 
+    private class WritePendingUpdatesTask implements Runnable {
+        @Override
+        public void run() {
+            try {
+                writePendingUpdates();
+            } catch (final IOException e) {
+                logger.error("Failed to write the state of {} components to the Write-Ahead Log; will retry", pendingUpdates.size(), e);
+            }
+        }
+    }
+
     private static class NamedThreadFactory implements ThreadFactory {
         private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
 
@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.controller.status.ConnectionStatus;
+import org.apache.nifi.controller.status.ProcessGroupStatus;
+import org.apache.nifi.controller.status.ProcessorStatus;
+import org.apache.nifi.controller.status.RemoteProcessGroupStatus;
+import org.apache.nifi.controller.status.history.StatusHistoryTier.Bucket;
+import org.apache.nifi.controller.status.history.StatusHistoryTier.ComponentKey;
+import org.apache.nifi.controller.status.history.StatusHistoryTier.ComponentSample;
+import org.apache.nifi.util.ComponentStatusReport.ComponentType;
+import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.util.NiFiProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A {@link ComponentStatusRepository} that keeps status history on disk, so that it survives restarts and does not
+ * use heap in proportion to the amount of history retained. Each capture is averaged into three resolutions:
+ * 1-minute, 5-minute and 1-hour buckets, each with its own retention period. See {@link StatusHistoryTier} for
+ * the format of the files.
+ * </p>
+ *
+ * <p>
+ * A query reads a single resolution: the finest one that still covers the requested start date and that does not
+ * return more than the preferred number of data points. If the start date is not given, the finest resolution is
+ * used and all of its retained history is returned.
+ * </p>
+ */
+public class PersistentComponentStatusRepository implements ComponentStatusRepository {
+
+    public static final String DIRECTORY_PROPERTY = "nifi.components.status.repository.directory";
+    public static final String MINUTE_RETENTION_PROPERTY = "nifi.components.status.repository.retention.minute";
+    public static final String FIVE_MINUTE_RETENTION_PROPERTY = "nifi.components.status.repository.retention.five.minute";
+    public static final String HOUR_RETENTION_PROPERTY = "nifi.components.status.repository.retention.hour";
+
+    public static final String DEFAULT_DIRECTORY = "./status_repository";
+    public static final String DEFAULT_MINUTE_RETENTION = "1 day";
+    public static final String DEFAULT_FIVE_MINUTE_RETENTION = "7 days";
+    public static final String DEFAULT_HOUR_RETENTION = "90 days";
+
+    private static final Map<ComponentType, List<MetricDescriptor<?>>> METRICS = new EnumMap<>(ComponentType.class);
+
+    static {
+        final List<MetricDescriptor<?>> processorMetrics = new ArrayList<>();
+        for (final ProcessorStatusDescriptor descriptor : ProcessorStatusDescriptor.values()) {
+            processorMetrics.add(descriptor.getDescriptor());
+        }
+        METRICS.put(ComponentType.PROCESSOR, processorMetrics);
+
+        final List<MetricDescriptor<?>> connectionMetrics = new ArrayList<>();
+        for (final ConnectionStatusDescriptor descriptor : ConnectionStatusDescriptor.values()) {
+            connectionMetrics.add(descriptor.getDescriptor());
+        }
+        METRICS.put(ComponentType.CONNECTION, connectionMetrics);
+
+        final List<MetricDescriptor<?>> groupMetrics = new ArrayList<>();
+        for (final ProcessGroupStatusDescriptor descriptor : ProcessGroupStatusDescriptor.values()) {
+            groupMetrics.add(descriptor.getDescriptor());
+        }
+        METRICS.put(ComponentType.PROCESS_GROUP, groupMetrics);
+
+        final List<MetricDescriptor<?>> remoteGroupMetrics = new ArrayList<>();
+        for (final RemoteProcessGroupStatusDescriptor descriptor : RemoteProcessGroupStatusDescriptor.values()) {
+            remoteGroupMetrics.add(descriptor.getDescriptor());
+        }
+        METRICS.put(ComponentType.REMOTE_PROCESS_GROUP, remoteGroupMetrics);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(PersistentComponentStatusRepository.class);
+
+    // ordered from the finest resolution to the coarsest
+    private final List<StatusHistoryTier> tiers;
+
+    private volatile long lastCaptureTime = 0L;
+
+    /**
+     * Default no args constructor for service loading only
+     */
+    public PersistentComponentStatusRepository() {
+        tiers = null;
+    }
+
+    public PersistentComponentStatusRepository(final NiFiProperties nifiProperties) {
+        final File directory = new File(nifiProperties.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+
+        tiers = Collections.unmodifiableList(Arrays.asList(
+            new StatusHistoryTier("1 min", new File(directory, "minute"), TimeUnit.MINUTES.toMillis(1L),
+                getRetentionMillis(nifiProperties, MINUTE_RETENTION_PROPERTY, DEFAULT_MINUTE_RETENTION)),
+            new StatusHistoryTier("5 min", new File(directory, "five-minute"), TimeUnit.MINUTES.toMillis(5L),
+                getRetentionMillis(nifiProperties, FIVE_MINUTE_RETENTION_PROPERTY, DEFAULT_FIVE_MINUTE_RETENTION)),
+            new StatusHistoryTier("1 hour", new File(directory, "hour"), TimeUnit.HOURS.toMillis(1L),
+                getRetentionMillis(nifiProperties, HOUR_RETENTION_PROPERTY, DEFAULT_HOUR_RETENTION))));
+
+        recoverPendingBuckets(System.currentTimeMillis());
+    }
+
+    private static long getRetentionMillis(final NiFiProperties nifiProperties, final String propertyName, final String defaultValue) {
+        final String retention = nifiProperties.getProperty(propertyName, defaultValue);
+        try {
+            return FormatUtils.getTimeDuration(retention, TimeUnit.MILLISECONDS);
+        } catch (final IllegalArgumentException e) {
+            throw new RuntimeException("Failed to create Component Status Repository because the " + propertyName + " property is set to an invalid time duration: " + retention);
+        }
+    }
+
+    /**
+     * The coarser resolutions only write out a bucket once it is complete, so whatever they had accumulated when NiFi
+     * was stopped is lost. Rebuild every bucket after the last one that each of them wrote to disk from the 1-minute
+     * buckets, which may span several coarse buckets if NiFi was stopped just before a bucket ended or for longer than
+     * a bucket. The buckets that are complete are written out again, and the last is left to be accumulated into.
+     */
+    private void recoverPendingBuckets(final long now) {
+        final StatusHistoryTier finest = tiers.get(0);
+        final List<StatusHistoryTier> coarser = tiers.subList(1, tiers.size());
+
+        final long[] tierRecoverFrom = new long[coarser.size()];
+        long earliest = Long.MAX_VALUE;
+        for (int i = 0; i < coarser.size(); i++) {
+            final StatusHistoryTier tier = coarser.get(i);
+            final long oldestRetained = tier.getBucketStart(now - tier.getRetentionMillis());
+
+            long recoverFrom;
+            try {
+                final long lastWritten = tier.getLastWrittenBucketStart();
+                recoverFrom = lastWritten < 0L ? oldestRetained : Math.max(oldestRetained, lastWritten + tier.getBucketMillis());
+            } catch (final IOException e) {
+                // without knowing which buckets were written, rebuilding any but the current one could write a bucket twice
+                logger.warn("Failed to determine the last bucket of {} Status History that was written to disk; history that was captured "
+                    + "before {} may be missing from this resolution", tier.getName(), new Date(tier.getBucketStart(now)), e);
+                recoverFrom = tier.getBucketStart(now);
+            }
+
+            tierRecoverFrom[i] = recoverFrom;
+            earliest = Math.min(earliest, recoverFrom);
+        }
+
+        final long recoverFrom = earliest;
+        try {
+            finest.readAll(recoverFrom, (timestamp, samples) -> {
+                for (int i = 0; i < coarser.size(); i++) {
+                    if (timestamp >= tierRecoverFrom[i]) {
+                        coarser.get(i).add(timestamp, samples);
+                    }
+                }
+
+                lastCaptureTime = Math.max(lastCaptureTime, timestamp);
+            });
+        } catch (final IOException e) {
+            logger.warn("Failed to recover Status History that was captured since {}; some history may be missing from the coarser resolutions", new Date(recoverFrom), e);
+        }
+    }
+
+    @Override
+    public void capture(final ProcessGroupStatus rootGroupStatus) {
+        capture(rootGroupStatus, new Date());
+    }
+
+    @Override
+    public synchronized void capture(final ProcessGroupStatus rootGroupStatus, final Date timestamp) {
+        final List<ComponentSample> samples = new ArrayList<>();
+        collect(rootGroupStatus, samples);
+
+        for (final StatusHistoryTier tier : tiers) {
+            try {
+                tier.add(timestamp.getTime(), samples);
+            } catch (final IOException e) {
+                logger.error("Failed to write {} Status History to disk; some history will be missing", tier.getName(), e);
+            }
+        }
+
+        logger.debug("Captured metrics for {}", this);
+        lastCaptureTime = Math.max(lastCaptureTime, timestamp.getTime());
+    }
+
+    private void collect(final ProcessGroupStatus groupStatus, final List<ComponentSample> samples) {
+        final Map<String, String> groupDetails = new LinkedHashMap<>();
+        groupDetails.put(COMPONENT_DETAIL_NAME, groupStatus.getName());
+        samples.add(createSample(ComponentType.PROCESS_GROUP, groupStatus.getId(), groupDetails, groupStatus));
+
+        for (final ProcessorStatus status : groupStatus.getProcessorStatus()) {
+            final Map<String, String> details = new LinkedHashMap<>();
+            details.put(COMPONENT_DETAIL_GROUP_ID, status.getGroupId());
+            details.put(COMPONENT_DETAIL_NAME, status.getName());
+            details.put(COMPONENT_DETAIL_TYPE, status.getType());
+            samples.add(createSample(ComponentType.PROCESSOR, status.getId(), details, status));
+        }
+
+        for (final ConnectionStatus status : groupStatus.getConnectionStatus()) {
+            final Map<String, String> details = new LinkedHashMap<>();
+            details.put(COMPONENT_DETAIL_GROUP_ID, status.getGroupId());
+            details.put(COMPONENT_DETAIL_NAME, status.getName());
+            details.put(COMPONENT_DETAIL_SOURCE_NAME, status.getSourceName());
+            details.put(COMPONENT_DETAIL_DESTINATION_NAME, status.getDestinationName());
+            samples.add(createSample(ComponentType.CONNECTION, status.getId(), details, status));
+        }
+
+        for (final RemoteProcessGroupStatus status : groupStatus.getRemoteProcessGroupStatus()) {
+            final Map<String, String> details = new LinkedHashMap<>();
+            details.put(COMPONENT_DETAIL_GROUP_ID, status.getGroupId());
+            details.put(COMPONENT_DETAIL_NAME, status.getName());
+            details.put(COMPONENT_DETAIL_URI, status.getTargetUri());
+            samples.add(createSample(ComponentType.REMOTE_PROCESS_GROUP, status.getId(), details, status));
+        }
+
+        for (final ProcessGroupStatus childStatus : groupStatus.getProcessGroupStatus()) {
+            collect(childStatus, samples);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ComponentSample createSample(final ComponentType componentType, final String componentId, final Map<String, String> details, final Object status) {
+        final List<MetricDescriptor<?>> metrics = METRICS.get(componentType);
+        final long[] values = new long[metrics.size()];
+        for (int i = 0; i < values.length; i++) {
+            final Long value = ((MetricDescriptor) metrics.get(i)).getValueFunction().getValue(status);
+            values[i] = value == null ? 0L : value;
+        }
+
+        return new ComponentSample(new ComponentKey(componentType, componentId), details, values);
+    }
+
+    @Override
+    public Date getLastCaptureDate() {
+        return new Date(lastCaptureTime);
+    }
+
+    @Override
+    public StatusHistory getProcessorStatusHistory(final String processorId, final Date start, final Date end, final int preferredDataPoints) {
+        return getStatusHistory(ComponentType.PROCESSOR, processorId, start, end, preferredDataPoints);
+    }
+
+    @Override
+    public StatusHistory getConnectionStatusHistory(final String connectionId, final Date start, final Date end, final int preferredDataPoints) {
+        return getStatusHistory(ComponentType.CONNECTION, connectionId, start, end, preferredDataPoints);
+    }
+
+    @Override
+    public StatusHistory getProcessGroupStatusHistory(final String processGroupId, final Date start, final Date end, final int preferredDataPoints) {
+        return getStatusHistory(ComponentType.PROCESS_GROUP, processGroupId, start, end, preferredDataPoints);
+    }
+
+    @Override
+    public StatusHistory getRemoteProcessGroupStatusHistory(final String remoteGroupId, final Date start, final Date end, final int preferredDataPoints) {
+        return getStatusHistory(ComponentType.REMOTE_PROCESS_GROUP, remoteGroupId, start, end, preferredDataPoints);
+    }
+
+    private StatusHistory getStatusHistory(final ComponentType componentType, final String componentId, final Date start, final Date end, final int preferredDataPoints) {
+        final StandardStatusHistory history = new StandardStatusHistory();
+        history.setComponentDetail(COMPONENT_DETAIL_ID, componentId);
+
+        final long now = System.currentTimeMillis();
+        final long endMillis = end == null ? now : end.getTime();
+        final StatusHistoryTier tier = selectTier(start, endMillis, preferredDataPoints, now);
+        final long startMillis = start == null ? now - tier.getRetentionMillis() : start.getTime();
+
+        final List<Bucket> buckets;
+        try {
+            buckets = tier.read(new ComponentKey(componentType, componentId), tier.getBucketStart(startMillis), endMillis);
+        } catch (final IOException e) {
+            logger.error("Failed to read {} Status History for {} {}", tier.getName(), componentType, componentId, e);
+            return history;
+        }
+
+        final List<MetricDescriptor<?>> metrics = METRICS.get(componentType);
+        for (final Bucket bucket : buckets) {
+            for (final Map.Entry<String, String> detail : bucket.getDetails().entrySet()) {
+                history.setComponentDetail(detail.getKey(), detail.getValue());
+            }
+
+            final StandardStatusSnapshot snapshot = new StandardStatusSnapshot();
+            snapshot.setTimestamp(new Date(bucket.getTimestamp()));
+
+            final long[] values = bucket.getValues();
+            for (int i = 0; i < metrics.size(); i++) {
+                snapshot.addStatusMetric(metrics.get(i), i < values.length ? values[i] : 0L);
+            }
+
+            history.addStatusSnapshot(snapshot);
+        }
+
+        return history;
+    }
+
+    /**
+     * @return the finest resolution that retains history as far back as the given start date, and that has no more than
+     *         the preferred number of buckets between the start and end dates; or the coarsest resolution, if none do
+     */
+    StatusHistoryTier selectTier(final Date start, final long endMillis, final int preferredDataPoints, final long now) {
+        for (final StatusHistoryTier tier : tiers) {
+            final long oldestRetained = now - tier.getRetentionMillis();
+            if (start != null && start.getTime() < oldestRetained) {
+                continue;
+            }
+
+            final long startMillis = start == null ? oldestRetained : start.getTime();
+            final long dataPoints = (endMillis - startMillis) / tier.getBucketMillis() + 1;
+            if (preferredDataPoints <= 0 || dataPoints <= preferredDataPoints) {
+                return tier;
+            }
+        }
+
+        return tiers.get(tiers.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentComponentStatusRepository[tiers=" + tiers + "]";
+    }
+}
@@ -0,0 +1,888 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.nifi.util.ComponentStatusReport.ComponentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * One resolution of the {@link PersistentComponentStatusRepository}. Captures are averaged into buckets of a
+ * fixed duration, and each completed bucket is appended to a segment file that covers a fixed number of buckets.
+ * Segment files that fall entirely outside of the retention period are deleted.
+ * </p>
+ *
+ * <p>
+ * A segment file starts with a header (magic, encoding version and bucket duration), followed by records:
+ * </p>
+ * <ul>
+ * <li>A component record assigns a segment-local id to a component and gives its details (name, group, etc.). It is
+ * written before the first bucket that references the component and again whenever the details change.</li>
+ * <li>A bucket record holds the bucket's timestamp, an index of (component id, data offset) pairs sorted by component id,
+ * and then each component's metric values as ZigZag-encoded variable-length longs.</li>
+ * </ul>
+ *
+ * <p>
+ * The index lets a query for a single component binary search each bucket rather than decode every component in it.
+ * A record that was only partially written, e.g. because NiFi was killed, is ignored when reading and truncated
+ * before the segment is appended to again.
+ * </p>
+ */
+class StatusHistoryTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusHistoryTier.class);
+
+    static final int SEGMENT_BUCKETS = 60;
+
+    private static final int MAGIC = 0x4E534853;    // NSHS
+    private static final int ENCODING_VERSION = 1;
+    private static final int HEADER_LENGTH = 16;
+    private static final byte COMPONENT_RECORD = 1;
+    private static final byte BUCKET_RECORD = 2;
+    private static final String SEGMENT_SUFFIX = ".bin";
+
+    private final String name;
+    private final File directory;
+    private final long bucketMillis;
+    private final long segmentMillis;
+    private final long retentionMillis;
+
+    // the bucket currently being accumulated; protected by synchronizing on this
+    private long currentBucketStart = -1L;
+    private final Map<ComponentKey, Accumulator> accumulators = new HashMap<>();
+
+    // the segment file currently being appended to; protected by synchronizing on this
+    private long currentSegmentStart = -1L;
+    private File currentSegmentFile;
+    private final Map<ComponentKey, Integer> segmentIds = new HashMap<>();
+    private final Map<Integer, Map<String, String>> segmentDetails = new HashMap<>();
+
+    StatusHistoryTier(final String name, final File directory, final long bucketMillis, final long retentionMillis) {
+        this.name = name;
+        this.directory = directory;
+        this.bucketMillis = bucketMillis;
+        this.segmentMillis = bucketMillis * SEGMENT_BUCKETS;
+        this.retentionMillis = retentionMillis;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    long getRetentionMillis() {
+        return retentionMillis;
+    }
+
+    long getBucketStart(final long timestamp) {
+        return timestamp - Math.floorMod(timestamp, bucketMillis);
+    }
+
+    private long getSegmentStart(final long timestamp) {
+        return timestamp - Math.floorMod(timestamp, segmentMillis);
+    }
+
+    /**
+     * Adds the given samples to the bucket that contains the given timestamp. If the timestamp falls into a different
+     * bucket than the one being accumulated, that bucket is first written to disk.
+     *
+     * @param timestamp the time at which the samples were captured
+     * @param samples the samples to add
+     * @throws IOException if unable to write out the previous bucket
+     */
+    synchronized void add(final long timestamp, final Collection<ComponentSample> samples) throws IOException {
+        final long bucketStart = getBucketStart(timestamp);
+        if (currentBucketStart != bucketStart) {
+            try {
+                flush();
+            } finally {
+                currentBucketStart = bucketStart;
+            }
+        }
+
+        for (final ComponentSample sample : samples) {
+            Accumulator accumulator = accumulators.get(sample.getKey());
+            if (accumulator == null) {
+                accumulator = new Accumulator(sample.getValues().length);
+                accumulators.put(sample.getKey(), accumulator);
+            }
+
+            accumulator.add(sample);
+        }
+    }
+
+    /**
+     * Writes the bucket being accumulated to disk, if there is one, and removes any segments that have aged off
+     *
+     * @throws IOException if unable to write to the segment file
+     */
+    synchronized void flush() throws IOException {
+        if (currentBucketStart < 0 || accumulators.isEmpty()) {
+            return;
+        }
+
+        final long bucketStart = currentBucketStart;
+        try {
+            openSegment(getSegmentStart(bucketStart));
+
+            final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(recordBytes);
+
+            final List<IndexEntry> entries = new ArrayList<>(accumulators.size());
+            for (final Map.Entry<ComponentKey, Accumulator> entry : accumulators.entrySet()) {
+                final ComponentKey key = entry.getKey();
+                final Accumulator accumulator = entry.getValue();
+
+                Integer segmentId = segmentIds.get(key);
+                if (segmentId == null) {
+                    segmentId = segmentIds.size();
+                    segmentIds.put(key, segmentId);
+                }
+
+                if (!accumulator.details.equals(segmentDetails.get(segmentId))) {
+                    writeComponentRecord(out, segmentId, key, accumulator.details);
+                    segmentDetails.put(segmentId, accumulator.details);
+                }
+
+                entries.add(new IndexEntry(segmentId, accumulator.getAverages()));
+            }
+
+            Collections.sort(entries, (a, b) -> Integer.compare(a.segmentId, b.segmentId));
+
+            final ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+            final int[] offsets = new int[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                offsets[i] = dataBytes.size();
+
+                final long[] values = entries.get(i).values;
+                writeVarLong(dataBytes, values.length);
+                for (final long value : values) {
+                    writeVarLong(dataBytes, (value << 1) ^ (value >> 63));
+                }
+            }
+
+            out.writeByte(BUCKET_RECORD);
+            out.writeLong(bucketStart);
+            out.writeInt(entries.size());
+            out.writeInt(dataBytes.size());
+            for (int i = 0; i < entries.size(); i++) {
+                out.writeInt(entries.get(i).segmentId);
+                out.writeInt(offsets[i]);
+            }
+            dataBytes.writeTo(out);
+            out.flush();
+
+            try (final OutputStream fos = new FileOutputStream(currentSegmentFile, true)) {
+                recordBytes.writeTo(fos);
+            }
+        } catch (final IOException e) {
+            // The segment's dictionary may no longer match what is on disk, so re-read it before the next write
+            currentSegmentStart = -1L;
+            throw e;
+        } finally {
+            accumulators.clear();
+        }
+
+        purge(bucketStart);
+    }
+
+    /**
+     * @param key the component
+     * @return the average of the samples that have been added for the component to the bucket that has not yet been
+     *         written to disk, or <code>null</code> if there are none
+     */
+    synchronized Bucket getPendingBucket(final ComponentKey key) {
+        final Accumulator accumulator = accumulators.get(key);
+        if (accumulator == null) {
+            return null;
+        }
+
+        return new Bucket(currentBucketStart, accumulator.getAverages(), accumulator.details);
+    }
+
+    synchronized long getPendingBucketStart() {
+        return currentBucketStart;
+    }
+
+    private void openSegment(final long segmentStart) throws IOException {
+        if (segmentStart == currentSegmentStart) {
+            return;
+        }
+
+        segmentIds.clear();
+        segmentDetails.clear();
+        currentSegmentStart = -1L;
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+        }
+
+        final File segmentFile = new File(directory, segmentStart + SEGMENT_SUFFIX);
+        if (segmentFile.exists() && segmentFile.length() >= HEADER_LENGTH) {
+            // Appending to a segment that was written previously, likely before a restart; recover its dictionary
+            // and drop anything that was only partially written.
+            final long validLength;
+            try (final SegmentReader reader = new SegmentReader(segmentFile)) {
+                validLength = reader.scan(new RecordHandler() {
+                    @Override
+                    public void onComponent(final int segmentId, final ComponentKey key, final Map<String, String> details) {
+                        segmentIds.put(key, segmentId);
+                        segmentDetails.put(segmentId, details);
+                    }
+
+                    @Override
+                    public void onBucket(final long timestamp, final BucketIndex index) {
+                    }
+                });
+            }
+
+            if (validLength < segmentFile.length()) {
+                logger.warn("Status History segment {} ends with an incomplete record; truncating it from {} to {} bytes", segmentFile, segmentFile.length(), validLength);
+                try (final FileChannel channel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+        } else {
+            try (final DataOutputStream out = new DataOutputStream(new FileOutputStream(segmentFile))) {
+                out.writeInt(MAGIC);
+                out.writeInt(ENCODING_VERSION);
+                out.writeLong(bucketMillis);
+            }
+        }
+
+        currentSegmentFile = segmentFile;
+        currentSegmentStart = segmentStart;
+    }
+
+    private void writeComponentRecord(final DataOutputStream out, final int segmentId, final ComponentKey key, final Map<String, String> details) throws IOException {
+        out.writeByte(COMPONENT_RECORD);
+        writeVarLong(out, segmentId);
+        out.writeByte(key.getType().ordinal());
+        writeString(out, key.getId());
+        writeVarLong(out, details.size());
+        for (final Map.Entry<String, String> entry : details.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private void purge(final long now) {
+        final File[] segmentFiles = directory.listFiles((dir, filename) -> filename.endsWith(SEGMENT_SUFFIX));
+        if (segmentFiles == null) {
+            return;
+        }
+
+        final long oldestRetained = now - retentionMillis;
+        for (final File segmentFile : segmentFiles) {
+            final Long segmentStart = getSegmentStart(segmentFile);
+            if (segmentStart == null || segmentStart + segmentMillis > oldestRetained) {
+                continue;
+            }
+
+            if (segmentFile.delete()) {
+                logger.debug("Deleted {} Status History segment {} because it is older than {} millis", name, segmentFile, retentionMillis);
+            } else {
+                logger.warn("Failed to delete expired Status History segment {}", segmentFile);
+            }
+        }
+    }
+
+    private static Long getSegmentStart(final File segmentFile) {
+        final String filename = segmentFile.getName();
+        try {
+            return Long.parseLong(filename.substring(0, filename.length() - SEGMENT_SUFFIX.length()));
+        } catch (final NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    private List<File> getSegmentFiles(final long start, final long end) {
+        final File[] segmentFiles = directory.listFiles((dir, filename) -> filename.endsWith(SEGMENT_SUFFIX));
+        if (segmentFiles == null) {
+            return Collections.emptyList();
+        }
+
+        final Map<Long, File> sorted = new TreeMap<>();
+        for (final File segmentFile : segmentFiles) {
+            final Long segmentStart = getSegmentStart(segmentFile);
+            if (segmentStart != null && segmentStart <= end && segmentStart + segmentMillis > start) {
+                sorted.put(segmentStart, segmentFile);
+            }
+        }
+
+        return new ArrayList<>(sorted.values());
+    }
+
+    /**
+     * Reads the buckets that were written to disk for the given component within the given time range, followed by the
+     * bucket that is still being accumulated, if it is in range
+     *
+     * @param key the component
+     * @param start the earliest bucket start to return
+     * @param end the latest bucket start to return
+     * @return the buckets, in order of time
+     * @throws IOException if unable to read from a segment file
+     */
+    List<Bucket> read(final ComponentKey key, final long start, final long end) throws IOException {
+        final List<Bucket> buckets = new ArrayList<>();
+        for (final File segmentFile : getSegmentFiles(start, end)) {
+            try (final SegmentReader reader = new SegmentReader(segmentFile)) {
+                reader.scan(new RecordHandler() {
+                    private int segmentId = -1;
+                    private Map<String, String> details;
+
+                    @Override
+                    public void onComponent(final int id, final ComponentKey componentKey, final Map<String, String> componentDetails) {
+                        if (componentKey.equals(key)) {
+                            segmentId = id;
+                            details = componentDetails;
+                        }
+                    }
+
+                    @Override
+                    public void onBucket(final long timestamp, final BucketIndex index) throws IOException {
+                        if (segmentId < 0 || timestamp < start || timestamp > end) {
+                            return;
+                        }
+
+                        final long[] values = index.find(segmentId);
+                        if (values != null) {
+                            buckets.add(new Bucket(timestamp, values, details));
+                        }
+                    }
+                });
+            } catch (final FileNotFoundException fnfe) {
+                // segment was aged off after we listed it
+                continue;
+            }
+        }
+
+        final Bucket pending = getPendingBucket(key);
+        if (pending != null && pending.getTimestamp() >= start && pending.getTimestamp() <= end
+            && (buckets.isEmpty() || buckets.get(buckets.size() - 1).getTimestamp() < pending.getTimestamp())) {
+            buckets.add(pending);
+        }
+
+        return buckets;
+    }
+
+    /**
+     * @return the start of the latest bucket that was written to disk, or <code>-1</code> if none has been
+     * @throws IOException if unable to read from a segment file
+     */
+    long getLastWrittenBucketStart() throws IOException {
+        final List<File> segmentFiles = getSegmentFiles(Long.MIN_VALUE, Long.MAX_VALUE);
+        for (int i = segmentFiles.size() - 1; i >= 0; i--) {
+            final long[] lastWritten = new long[] {-1L};
+            try (final SegmentReader reader = new SegmentReader(segmentFiles.get(i))) {
+                reader.scan(new RecordHandler() {
+                    @Override
+                    public void onComponent(final int segmentId, final ComponentKey key, final Map<String, String> details) {
+                    }
+
+                    @Override
+                    public void onBucket(final long timestamp, final BucketIndex index) {
+                        lastWritten[0] = Math.max(lastWritten[0], timestamp);
+                    }
+                });
+            } catch (final FileNotFoundException fnfe) {
+                // segment was aged off after we listed it
+                continue;
+            }
+
+            // a segment may hold no complete buckets if a write failed, in which case the previous segment holds the latest one
+            if (lastWritten[0] >= 0L) {
+                return lastWritten[0];
+            }
+        }
+
+        return -1L;
+    }
+
+    /**
+     * Reads every component of every bucket written to disk at or after the given time. Used to rebuild the buckets
+     * of coarser tiers that were still being accumulated when NiFi was stopped.
+     *
+     * @param start the earliest bucket start to read
+     * @param consumer receives each bucket's samples
+     * @throws IOException if unable to read from a segment file
+     */
+    void readAll(final long start, final BucketConsumer consumer) throws IOException {
+        for (final File segmentFile : getSegmentFiles(start, Long.MAX_VALUE)) {
+            final Map<Integer, ComponentKey> keys = new HashMap<>();
+            final Map<Integer, Map<String, String>> details = new HashMap<>();
+
+            try (final SegmentReader reader = new SegmentReader(segmentFile)) {
+                reader.scan(new RecordHandler() {
+                    @Override
+                    public void onComponent(final int segmentId, final ComponentKey key, final Map<String, String> componentDetails) {
+                        keys.put(segmentId, key);
+                        details.put(segmentId, componentDetails);
+                    }
+
+                    @Override
+                    public void onBucket(final long timestamp, final BucketIndex index) throws IOException {
+                        if (timestamp < start) {
+                            return;
+                        }
+
+                        final List<ComponentSample> samples = new ArrayList<>(index.size());
+                        for (int i = 0; i < index.size(); i++) {
+                            final int segmentId = index.getSegmentId(i);
+                            final ComponentKey key = keys.get(segmentId);
+                            if (key != null) {
+                                samples.add(new ComponentSample(key, details.get(segmentId), index.getValues(i)));
+                            }
+                        }
+
+                        consumer.accept(timestamp, samples);
+                    }
+                });
+            }
+        }
+    }
+
+    private static void writeVarLong(final OutputStream out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    private static void writeString(final OutputStream out, final String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0L);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "StatusHistoryTier[name=" + name + ", directory=" + directory + "]";
+    }
+
+
+    interface BucketConsumer {
+        void accept(long timestamp, List<ComponentSample> samples) throws IOException;
+    }
+
+    private interface RecordHandler {
+        void onComponent(int segmentId, ComponentKey key, Map<String, String> details);
+
+        void onBucket(long timestamp, BucketIndex index) throws IOException;
+    }
+
+    /**
+     * The index of a single bucket record, which is only valid until the handler it was given to returns
+     */
+    private static class BucketIndex {
+        private final SegmentReader reader;
+        private final int count;
+        private final long indexStart;
+        private final long dataStart;
+
+        BucketIndex(final SegmentReader reader, final int count, final long indexStart, final long dataStart) {
+            this.reader = reader;
+            this.count = count;
+            this.indexStart = indexStart;
+            this.dataStart = dataStart;
+        }
+
+        int size() {
+            return count;
+        }
+
+        int getSegmentId(final int index) throws IOException {
+            reader.seek(indexStart + 8L * index);
+            return reader.readInt();
+        }
+
+        long[] getValues(final int index) throws IOException {
+            reader.seek(indexStart + 8L * index + 4L);
+            final int offset = reader.readInt();
+            reader.seek(dataStart + offset);
+
+            final int numValues = (int) reader.readVarLong();
+            final long[] values = new long[numValues];
+            for (int i = 0; i < numValues; i++) {
+                final long encoded = reader.readVarLong();
+                values[i] = (encoded >>> 1) ^ -(encoded & 1);
+            }
+            return values;
+        }
+
+        long[] find(final int segmentId) throws IOException {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int midId = getSegmentId(mid);
+                if (midId < segmentId) {
+                    low = mid + 1;
+                } else if (midId > segmentId) {
+                    high = mid - 1;
+                } else {
+                    return getValues(mid);
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Reads a segment file through a small buffer that is refilled with positional reads, so that the reader can seek
+     * cheaply within the index of a bucket
+     */
+    private static class SegmentReader implements Closeable {
+        private final File file;
+        private final FileChannel channel;
+        private final long length;
+        private ByteBuffer buffer = ByteBuffer.allocate(8192);
+        private long bufferStart = 0L;
+
+        SegmentReader(final File file) throws IOException {
+            this.file = file;
+            try {
+                this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            } catch (final NoSuchFileException nsfe) {
+                throw new FileNotFoundException(file.toString());
+            }
+            this.length = channel.size();
+            buffer.limit(0);
+        }
+
+        long position() {
+            return bufferStart + buffer.position();
+        }
+
+        void seek(final long position) {
+            if (position >= bufferStart && position <= bufferStart + buffer.limit()) {
+                buffer.position((int) (position - bufferStart));
+            } else {
+                bufferStart = position;
+                buffer.clear();
+                buffer.limit(0);
+            }
+        }
+
+        private void require(final int numBytes) throws IOException {
+            if (buffer.remaining() >= numBytes) {
+                return;
+            }
+
+            final long position = position();
+            if (position + numBytes > length) {
+                throw new EOFException();
+            }
+
+            if (buffer.capacity() < numBytes) {
+                buffer = ByteBuffer.allocate(numBytes);
+            }
+
+            bufferStart = position;
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                final int read = channel.read(buffer, bufferStart + buffer.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+
+            if (buffer.remaining() < numBytes) {
+                throw new EOFException();
+            }
+        }
+
+        byte readByte() throws IOException {
+            require(1);
+            return buffer.get();
+        }
+
+        int readInt() throws IOException {
+            require(4);
+            return buffer.getInt();
+        }
+
+        long readLong() throws IOException {
+            require(8);
+            return buffer.getLong();
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IOException("Malformed variable-length value in " + file);
+        }
+
+        String readString() throws IOException {
+            final long length = readVarLong();
+            if (length == 0L) {
+                return null;
+            }
+
+            final int numBytes = (int) (length - 1);
+            require(numBytes);
+            final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), numBytes, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + numBytes);
+            return value;
+        }
+
+        /**
+         * Passes each complete record in the segment to the given handler
+         *
+         * @param handler the handler
+         * @return the length of the segment up to the end of the last complete record
+         * @throws IOException if the segment is not a Status History segment or cannot be read
+         */
+        long scan(final RecordHandler handler) throws IOException {
+            try {
+                if (readInt() != MAGIC) {
+                    throw new IOException(file + " is not a Status History segment");
+                }
+                final int version = readInt();
+                if (version > ENCODING_VERSION) {
+                    throw new IOException(file + " was written with encoding version " + version + " but this version of NiFi can only read up to version " + ENCODING_VERSION);
+                }
+                readLong();
+            } catch (final EOFException eof) {
+                return 0L;
+            }
+
+            long validLength = position();
+            final ComponentType[] componentTypes = ComponentType.values();
+
+            try {
+                while (position() < length) {
+                    final byte recordType = readByte();
+                    if (recordType == COMPONENT_RECORD) {
+                        final int segmentId = (int) readVarLong();
+                        final int typeOrdinal = readByte();
+                        if (typeOrdinal < 0 || typeOrdinal >= componentTypes.length) {
+                            throw new IOException("Encountered unknown component type " + typeOrdinal + " in Status History segment " + file);
+                        }
+                        final ComponentType componentType = componentTypes[typeOrdinal];
+                        final String componentId = readString();
+                        final int numDetails = (int) readVarLong();
+                        final Map<String, String> details = new LinkedHashMap<>(numDetails);
+                        for (int i = 0; i < numDetails; i++) {
+                            details.put(readString(), readString());
+                        }
+
+                        handler.onComponent(segmentId, new ComponentKey(componentType, componentId), details);
+                    } else if (recordType == BUCKET_RECORD) {
+                        final long timestamp = readLong();
+                        final int count = readInt();
+                        final int dataLength = readInt();
+                        final long indexStart = position();
+                        final long dataStart = indexStart + 8L * count;
+                        final long recordEnd = dataStart + dataLength;
+                        if (recordEnd > length) {
+                            break;
+                        }
+
+                        handler.onBucket(timestamp, new BucketIndex(this, count, indexStart, dataStart));
+                        seek(recordEnd);
+                    } else {
+                        logger.warn("Encountered unknown record type {} in Status History segment {} at offset {}; ignoring the rest of the segment",
+                            recordType, file, validLength);
+                        break;
+                    }
+
+                    validLength = position();
+                }
+            } catch (final EOFException eof) {
+                // the last record was not completely written; ignore it
+            }
+
+            return validLength;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static class IndexEntry {
+        private final int segmentId;
+        private final long[] values;
+
+        IndexEntry(final int segmentId, final long[] values) {
+            this.segmentId = segmentId;
+            this.values = values;
+        }
+    }
+
+    private static class Accumulator {
+        private long[] sums;
+        private int count;
+        private Map<String, String> details;
+
+        Accumulator(final int numValues) {
+            sums = new long[numValues];
+        }
+
+        void add(final ComponentSample sample) {
+            final long[] values = sample.getValues();
+            if (values.length > sums.length) {
+                sums = Arrays.copyOf(sums, values.length);
+            }
+
+            for (int i = 0; i < values.length; i++) {
+                sums[i] += values[i];
+            }
+
+            count++;
+            details = sample.getDetails();
+        }
+
+        long[] getAverages() {
+            final long[] averages = new long[sums.length];
+            for (int i = 0; i < sums.length; i++) {
+                averages[i] = count == 0 ? 0L : sums[i] / count;
+            }
+            return averages;
+        }
+    }
+
+    static class Bucket {
+        private final long timestamp;
+        private final long[] values;
+        private final Map<String, String> details;
+
+        Bucket(final long timestamp, final long[] values, final Map<String, String> details) {
+            this.timestamp = timestamp;
+            this.values = values;
+            this.details = details;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        long[] getValues() {
+            return values;
+        }
+
+        Map<String, String> getDetails() {
+            return details;
+        }
+    }
+
+    static class ComponentKey {
+        private final ComponentType type;
+        private final String id;
+
+        ComponentKey(final ComponentType type, final String id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        ComponentType getType() {
+            return type;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + (id == null ? 0 : id.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ComponentKey)) {
+                return false;
+            }
+
+            final ComponentKey other = (ComponentKey) obj;
+            return type == other.type && (id == null ? other.id == null : id.equals(other.id));
+        }
+    }
+
+    static class ComponentSample {
+        private final ComponentKey key;
+        private final Map<String, String> details;
+        private final long[] values;
+
+        ComponentSample(final ComponentKey key, final Map<String, String> details, final long[] values) {
+            this.key = key;
+            this.details = details;
+            this.values = values;
+        }
+
+        ComponentKey getKey() {
+            return key;
+        }
+
+        Map<String, String> getDetails() {
+            return details;
+        }
+
+        long[] getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,525 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.swap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.nifi.controller.queue.QueueSize;
+import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.IncompleteSwapFileException;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapSummary;
+import org.apache.nifi.controller.repository.claim.ContentClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaim;
+import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardContentClaim;
+
+/**
+ * <p>
+ * Encodes the body of a swap file column-wise. The Resource Claims referenced by the FlowFiles are written first, in a
+ * table that also records how many FlowFiles reference each claim, so that the {@link SwapSummary} can be read without
+ * decoding any FlowFiles. The FlowFiles themselves are then written in blocks of up to {@link #RECORDS_PER_BLOCK}
+ * records. Within a block, all attribute keys and values are written once to a dictionary, each field is written for all
+ * records before the next field (with dates and identifiers delta-encoded as variable-length integers), and the block is
+ * compressed as a whole.
+ * </p>
+ *
+ * <p>
+ * The header of the swap file (encoding version, queue identifier, record count, content size and max record id) is
+ * written by the FileSystemSwapManager and is not part of this encoding.
+ * </p>
+ */
+public final class ColumnarSwapEncoding {
+
+    public static final int RECORDS_PER_BLOCK = 2000;
+
+    private ColumnarSwapEncoding() {
+    }
+
+    public static void writeFlowFiles(final List<FlowFileRecord> flowFiles, final DataOutputStream out) throws IOException {
+        // Build the table of Resource Claims, in the order that they are first referenced.
+        final Map<ResourceClaimKey, ClaimTableEntry> claimTable = new LinkedHashMap<>();
+        for (final FlowFileRecord flowFile : flowFiles) {
+            final ContentClaim contentClaim = flowFile.getContentClaim();
+            if (contentClaim == null) {
+                continue;
+            }
+
+            final ResourceClaim resourceClaim = contentClaim.getResourceClaim();
+            final ResourceClaimKey key = new ResourceClaimKey(resourceClaim.getId(), resourceClaim.getContainer(), resourceClaim.getSection(), resourceClaim.isLossTolerant());
+            ClaimTableEntry entry = claimTable.get(key);
+            if (entry == null) {
+                entry = new ClaimTableEntry(claimTable.size());
+                claimTable.put(key, entry);
+            }
+            entry.flowFileCount++;
+        }
+
+        out.writeInt(claimTable.size());
+        for (final Map.Entry<ResourceClaimKey, ClaimTableEntry> entry : claimTable.entrySet()) {
+            final ResourceClaimKey key = entry.getKey();
+            out.writeUTF(key.id);
+            out.writeUTF(key.container);
+            out.writeUTF(key.section);
+            out.writeBoolean(key.lossTolerant);
+            out.writeInt(entry.getValue().flowFileCount);
+        }
+
+        final int numBlocks = (flowFiles.size() + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK;
+        out.writeInt(numBlocks);
+
+        final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(64 * 1024);
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            byte[] compressed = new byte[64 * 1024];
+            for (int blockStart = 0; blockStart < flowFiles.size(); blockStart += RECORDS_PER_BLOCK) {
+                final List<FlowFileRecord> block = flowFiles.subList(blockStart, Math.min(flowFiles.size(), blockStart + RECORDS_PER_BLOCK));
+
+                blockBytes.reset();
+                writeBlock(block, claimTable, new DataOutputStream(blockBytes));
+                final byte[] uncompressed = blockBytes.toByteArray();
+
+                deflater.reset();
+                deflater.setInput(uncompressed);
+                deflater.finish();
+
+                int compressedLength = 0;
+                while (!deflater.finished()) {
+                    if (compressedLength == compressed.length) {
+                        final byte[] larger = new byte[compressed.length * 2];
+                        System.arraycopy(compressed, 0, larger, 0, compressedLength);
+                        compressed = larger;
+                    }
+                    compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+                }
+
+                out.writeInt(block.size());
+                out.writeInt(uncompressed.length);
+                out.writeInt(compressedLength);
+                out.write(compressed, 0, compressedLength);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeBlock(final List<FlowFileRecord> block, final Map<ResourceClaimKey, ClaimTableEntry> claimTable, final DataOutputStream out) throws IOException {
+        // Dictionary of all attribute keys and values used in the block
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> dictionaryValues = new ArrayList<>();
+        for (final FlowFileRecord flowFile : block) {
+            for (final Map.Entry<String, String> entry : flowFile.getAttributes().entrySet()) {
+                addToDictionary(entry.getKey(), dictionary, dictionaryValues);
+                addToDictionary(entry.getValue(), dictionary, dictionaryValues);
+            }
+        }
+
+        writeVarInt(dictionaryValues.size(), out);
+        for (final String value : dictionaryValues) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length, out);
+            out.write(bytes);
+        }
+
+        long previous = 0L;
+        for (final FlowFileRecord flowFile : block) {
+            writeVarLong(flowFile.getId() - previous, out);
+            previous = flowFile.getId();
+        }
+
+        previous = 0L;
+        for (final FlowFileRecord flowFile : block) {
+            writeVarLong(flowFile.getEntryDate() - previous, out);
+            previous = flowFile.getEntryDate();
+        }
+
+        previous = 0L;
+        for (final FlowFileRecord flowFile : block) {
+            writeVarLong(flowFile.getLineageStartDate() - previous, out);
+            previous = flowFile.getLineageStartDate();
+        }
+
+        previous = 0L;
+        for (final FlowFileRecord flowFile : block) {
+            writeVarLong(flowFile.getLineageStartIndex() - previous, out);
+            previous = flowFile.getLineageStartIndex();
+        }
+
+        previous = 0L;
+        for (final FlowFileRecord flowFile : block) {
+            writeVarLong(flowFile.getLastQueueDate() - previous, out);
+            previous = flowFile.getLastQueueDate();
+        }
+
+        previous = 0L;
+        for (final FlowFileRecord flowFile : block) {
+            writeVarLong(flowFile.getQueueDateIndex() - previous, out);
+            previous = flowFile.getQueueDateIndex();
+        }
+
+        for (final FlowFileRecord flowFile : block) {
+            writeVarLong(flowFile.getSize(), out);
+        }
+
+        // Index into the Resource Claim table, offset by one so that 0 indicates that there is no Content Claim
+        for (final FlowFileRecord flowFile : block) {
+            final ContentClaim contentClaim = flowFile.getContentClaim();
+            if (contentClaim == null) {
+                writeVarInt(0, out);
+            } else {
+                final ResourceClaim resourceClaim = contentClaim.getResourceClaim();
+                final ResourceClaimKey key = new ResourceClaimKey(resourceClaim.getId(), resourceClaim.getContainer(), resourceClaim.getSection(), resourceClaim.isLossTolerant());
+                writeVarInt(claimTable.get(key).index + 1, out);
+            }
+        }
+
+        for (final FlowFileRecord flowFile : block) {
+            final ContentClaim contentClaim = flowFile.getContentClaim();
+            if (contentClaim != null) {
+                writeVarLong(contentClaim.getOffset(), out);
+                writeVarLong(contentClaim.getLength(), out);
+                writeVarLong(flowFile.getContentClaimOffset(), out);
+            }
+        }
+
+        for (final FlowFileRecord flowFile : block) {
+            writeVarInt(flowFile.getAttributes().size(), out);
+        }
+
+        for (final FlowFileRecord flowFile : block) {
+            for (final String key : flowFile.getAttributes().keySet()) {
+                writeVarInt(dictionary.get(key), out);
+            }
+        }
+
+        for (final FlowFileRecord flowFile : block) {
+            for (final String value : flowFile.getAttributes().values()) {
+                writeVarInt(dictionary.get(value), out);
+            }
+        }
+
+        out.flush();
+    }
+
+    private static void addToDictionary(final String value, final Map<String, Integer> dictionary, final List<String> dictionaryValues) {
+        if (!dictionary.containsKey(value)) {
+            dictionary.put(value, dictionaryValues.size());
+            dictionaryValues.add(value);
+        }
+    }
+
+    /**
+     * Reads the Resource Claim table and creates a summary of the swap file, without reading any of the FlowFiles
+     *
+     * @param in the stream to read from, positioned immediately after the swap file header
+     * @param queueSize the size of the queue, as read from the swap file header
+     * @param maxRecordId the max record id, as read from the swap file header
+     * @param claimManager the Resource Claim Manager to use for creating Resource Claims
+     * @return a summary of the swap file
+     * @throws IOException if unable to read from the stream
+     */
+    public static SwapSummary readSummary(final DataInputStream in, final QueueSize queueSize, final Long maxRecordId, final ResourceClaimManager claimManager) throws IOException {
+        final List<ResourceClaim> resourceClaims = new ArrayList<>(queueSize.getObjectCount());
+        final int numClaims = in.readInt();
+        for (int i = 0; i < numClaims; i++) {
+            final ResourceClaim resourceClaim = readResourceClaim(in, claimManager);
+            final int flowFileCount = in.readInt();
+            for (int j = 0; j < flowFileCount; j++) {
+                claimManager.incrementClaimantCount(resourceClaim);
+                resourceClaims.add(resourceClaim);
+            }
+        }
+
+        return new StandardSwapSummary(queueSize, maxRecordId, resourceClaims);
+    }
+
+    /**
+     * Reads all of the FlowFiles from the swap file
+     *
+     * @param in the stream to read from, positioned immediately after the swap file header
+     * @param queueSize the size of the queue, as read from the swap file header
+     * @param maxRecordId the max record id, as read from the swap file header
+     * @param claimManager the Resource Claim Manager to use for creating Resource Claims
+     * @param location the location of the swap file
+     * @return the contents of the swap file
+     * @throws IOException if unable to read from the stream
+     */
+    public static SwapContents readFlowFiles(final DataInputStream in, final QueueSize queueSize, final Long maxRecordId, final ResourceClaimManager claimManager,
+        final String location) throws IOException {
+
+        final List<FlowFileRecord> flowFiles = new ArrayList<>(queueSize.getObjectCount());
+        final List<ResourceClaim> resourceClaims = new ArrayList<>(queueSize.getObjectCount());
+        Long maxId = maxRecordId;
+
+        try {
+            final int numClaims = in.readInt();
+            final ResourceClaim[] claims = new ResourceClaim[numClaims];
+            for (int i = 0; i < numClaims; i++) {
+                claims[i] = readResourceClaim(in, claimManager);
+                in.readInt(); // number of FlowFiles referencing the claim; only needed for the summary
+            }
+
+            final int numBlocks = in.readInt();
+            final Inflater inflater = new Inflater();
+            try {
+                for (int i = 0; i < numBlocks; i++) {
+                    final int recordCount = in.readInt();
+                    final int uncompressedLength = in.readInt();
+                    final int compressedLength = in.readInt();
+                    final byte[] compressed = new byte[compressedLength];
+                    in.readFully(compressed);
+
+                    final byte[] uncompressed = new byte[uncompressedLength];
+                    inflater.reset();
+                    inflater.setInput(compressed);
+                    try {
+                        int inflated = 0;
+                        while (inflated < uncompressedLength) {
+                            final int count = inflater.inflate(uncompressed, inflated, uncompressedLength - inflated);
+
+                            // if the block ends before the declared length has been inflated, no further progress can be made
+                            if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                                throw new IOException("Swap File " + location + " is truncated or corrupt: block " + i + " inflated to "
+                                    + inflated + " bytes but expected " + uncompressedLength);
+                            }
+
+                            inflated += count;
+                        }
+                    } catch (final DataFormatException dfe) {
+                        throw new IOException("Swap File " + location + " is corrupt", dfe);
+                    }
+
+                    final Long blockMaxId = readBlock(new DataInputStream(new ByteArrayInputStream(uncompressed)), recordCount, claims, flowFiles, resourceClaims);
+                    if (blockMaxId != null && (maxId == null || blockMaxId > maxId)) {
+                        maxId = blockMaxId;
+                    }
+                }
+            } finally {
+                inflater.end();
+            }
+        } catch (final EOFException eof) {
+            final SwapSummary swapSummary = new StandardSwapSummary(queueSize, maxId, resourceClaims);
+            final SwapContents partialContents = new StandardSwapContents(swapSummary, flowFiles);
+            throw new IncompleteSwapFileException(location, partialContents);
+        }
+
+        final SwapSummary swapSummary = new StandardSwapSummary(queueSize, maxId, resourceClaims);
+        return new StandardSwapContents(swapSummary, flowFiles);
+    }
+
+    private static Long readBlock(final DataInputStream in, final int recordCount, final ResourceClaim[] claims, final List<FlowFileRecord> flowFiles,
+        final List<ResourceClaim> resourceClaims) throws IOException {
+
+        final int dictionarySize = readVarInt(in);
+        final String[] dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            final byte[] bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        final long[] ids = readDeltaColumn(in, recordCount);
+        final long[] entryDates = readDeltaColumn(in, recordCount);
+        final long[] lineageStartDates = readDeltaColumn(in, recordCount);
+        final long[] lineageStartIndices = readDeltaColumn(in, recordCount);
+        final long[] lastQueueDates = readDeltaColumn(in, recordCount);
+        final long[] queueDateIndices = readDeltaColumn(in, recordCount);
+
+        final long[] sizes = new long[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            sizes[i] = readVarLong(in);
+        }
+
+        final int[] claimIndices = new int[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            claimIndices[i] = readVarInt(in);
+        }
+
+        final ContentClaim[] contentClaims = new ContentClaim[recordCount];
+        final long[] contentClaimOffsets = new long[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            if (claimIndices[i] > 0) {
+                final StandardContentClaim claim = new StandardContentClaim(claims[claimIndices[i] - 1], readVarLong(in));
+                claim.setLength(readVarLong(in));
+                contentClaims[i] = claim;
+                contentClaimOffsets[i] = readVarLong(in);
+            }
+        }
+
+        final int[] attributeCounts = new int[recordCount];
+        int totalAttributes = 0;
+        for (int i = 0; i < recordCount; i++) {
+            attributeCounts[i] = readVarInt(in);
+            totalAttributes += attributeCounts[i];
+        }
+
+        final int[] keyIndices = new int[totalAttributes];
+        for (int i = 0; i < totalAttributes; i++) {
+            keyIndices[i] = readVarInt(in);
+        }
+
+        Long maxId = null;
+        int attributeIndex = 0;
+        for (int i = 0; i < recordCount; i++) {
+            final StandardFlowFileRecord.Builder ffBuilder = new StandardFlowFileRecord.Builder()
+                .id(ids[i])
+                .entryDate(entryDates[i])
+                .lineageStart(lineageStartDates[i], lineageStartIndices[i])
+                .lastQueued(lastQueueDates[i], queueDateIndices[i])
+                .size(sizes[i]);
+
+            for (int j = 0; j < attributeCounts[i]; j++) {
+                final int valueIndex = readVarInt(in);
+                ffBuilder.addAttribute(dictionary[keyIndices[attributeIndex++]], dictionary[valueIndex]);
+            }
+
+            if (contentClaims[i] != null) {
+                ffBuilder.contentClaim(contentClaims[i]);
+                ffBuilder.contentClaimOffset(contentClaimOffsets[i]);
+                resourceClaims.add(contentClaims[i].getResourceClaim());
+            }
+
+            flowFiles.add(ffBuilder.build());
+            if (maxId == null || ids[i] > maxId) {
+                maxId = ids[i];
+            }
+        }
+
+        return maxId;
+    }
+
+    private static ResourceClaim readResourceClaim(final DataInputStream in, final ResourceClaimManager claimManager) throws IOException {
+        final String claimId = in.readUTF();
+        final String container = in.readUTF();
+        final String section = in.readUTF();
+        final boolean lossTolerant = in.readBoolean();
+        return claimManager.newResourceClaim(container, section, claimId, lossTolerant);
+    }
+
+    private static long[] readDeltaColumn(final InputStream in, final int recordCount) throws IOException {
+        final long[] values = new long[recordCount];
+        long previous = 0L;
+        for (int i = 0; i < recordCount; i++) {
+            previous += readVarLong(in);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static void writeVarInt(final int value, final OutputStream out) throws IOException {
+        writeVarLong(value, out);
+    }
+
+    private static int readVarInt(final InputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    /**
+     * Writes the given value using a ZigZag, variable-length encoding, so that small positive and negative values
+     * (such as the difference between two consecutive dates) use only a single byte or two.
+     */
+    private static void writeVarLong(final long value, final OutputStream out) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0L) {
+            out.write((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.write((int) zigZag);
+    }
+
+    private static long readVarLong(final InputStream in) throws IOException {
+        long zigZag = 0L;
+        int shift = 0;
+        while (true) {
+            final int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+
+            shift += 7;
+            if (shift > 63) {
+                throw new IOException("Malformed variable-length integer");
+            }
+        }
+
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    private static class ClaimTableEntry {
+        private final int index;
+        private int flowFileCount = 0;
+
+        public ClaimTableEntry(final int index) {
+            this.index = index;
+        }
+    }
+
+    private static class ResourceClaimKey {
+        private final String id;
+        private final String container;
+        private final String section;
+        private final boolean lossTolerant;
+
+        public ResourceClaimKey(final String id, final String container, final String section, final boolean lossTolerant) {
+            this.id = id;
+            this.container = container;
+            this.section = section;
+            this.lossTolerant = lossTolerant;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, container, section, lossTolerant);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResourceClaimKey)) {
+                return false;
+            }
+
+            final ResourceClaimKey other = (ResourceClaimKey) obj;
+            return id.equals(other.id) && container.equals(other.container) && section.equals(other.section) && lossTolerant == other.lossTolerant;
+        }
+    }
+}
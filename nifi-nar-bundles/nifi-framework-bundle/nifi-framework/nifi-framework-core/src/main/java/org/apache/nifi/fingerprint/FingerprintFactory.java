@@ -724,7 +724,7 @@ public class FingerprintFactory {
     }
 
     private StringBuilder addRemoteGroupPortFingerprint(final StringBuilder builder, final Element remoteGroupPortElement) {
-        for (final String childName : new String[] {"id", "maxConcurrentTasks", "useCompression"}) {
+        for (final String childName : new String[] {"id", "maxConcurrentTasks", "useCompression", "compressionCodec"}) {
             appendFirstValue(builder, DomUtils.getChildNodesByTagName(remoteGroupPortElement, childName));
         }
 
@@ -735,6 +735,7 @@ public class FingerprintFactory {
         builder.append(port.getId());
         builder.append(port.getConcurrentlySchedulableTaskCount());
         builder.append(port.getUseCompression());
+        builder.append(port.getCompressionCodec() == null ? NO_VALUE : port.getCompressionCodec());
         return builder;
     }
 
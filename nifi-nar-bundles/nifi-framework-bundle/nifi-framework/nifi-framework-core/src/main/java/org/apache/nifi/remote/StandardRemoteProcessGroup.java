@@ -637,6 +637,9 @@ public class StandardRemoteProcessGroup implements RemoteProcessGroup {
             if (descriptor.getUseCompression() != null) {
                 port.setUseCompression(descriptor.getUseCompression());
             }
+            if (descriptor.getCompressionCodec() != null) {
+                port.setCompressionCodec(descriptor.getCompressionCodec());
+            }
         } finally {
             writeLock.unlock();
         }
@@ -702,6 +705,9 @@ public class StandardRemoteProcessGroup implements RemoteProcessGroup {
             if (descriptor.getUseCompression() != null) {
                 port.setUseCompression(descriptor.getUseCompression());
             }
+            if (descriptor.getCompressionCodec() != null) {
+                port.setCompressionCodec(descriptor.getCompressionCodec());
+            }
 
             inputPorts.put(descriptor.getId(), port);
         } finally {
@@ -27,6 +27,7 @@ public class StandardRemoteProcessGroupPortDescriptor implements RemoteProcessGr
     private Integer concurrentlySchedulableTaskCount;
     private Boolean transmitting;
     private Boolean useCompression;
+    private String compressionCodec;
     private Boolean exists;
     private Boolean targetRunning;
     private Boolean connected;
@@ -94,6 +95,15 @@ public class StandardRemoteProcessGroupPortDescriptor implements RemoteProcessGr
         this.useCompression = useCompression;
     }
 
+    @Override
+    public String getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public void setCompressionCodec(String compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
     @Override
     public Boolean getExists() {
         return exists;
@@ -17,31 +17,50 @@
 package org.apache.nifi.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.nifi.controller.queue.FlowFileQueue;
+import org.apache.nifi.controller.queue.QueueSize;
 import org.apache.nifi.controller.repository.FlowFileRecord;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
 import org.apache.nifi.controller.repository.SwapContents;
+import org.apache.nifi.controller.repository.SwapManagerInitializationContext;
+import org.apache.nifi.controller.repository.SwapSummary;
 import org.apache.nifi.controller.repository.claim.ContentClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaim;
 import org.apache.nifi.controller.repository.claim.ResourceClaimManager;
+import org.apache.nifi.controller.repository.claim.StandardContentClaim;
+import org.apache.nifi.controller.repository.claim.StandardResourceClaimManager;
+import org.apache.nifi.controller.swap.ColumnarSwapEncoding;
+import org.apache.nifi.events.EventReporter;
 import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -112,6 +131,221 @@ public class TestFileSystemSwapManager {
         }
     }
 
+    @Test
+    public void testRoundTripWithContentClaims() throws IOException {
+        final ResourceClaimManager claimManager = new StandardResourceClaimManager();
+        final List<FlowFileRecord> toSwap = createFlowFilesWithClaims(claimManager, 5000);
+
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        FileSystemSwapManager.serializeFlowFiles(toSwap, flowFileQueue, "target/testRoundTripWithContentClaims.swap", baos, FileSystemSwapManager.SWAP_ENCODING_VERSION);
+
+        final SwapContents swappedIn;
+        try (final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            swappedIn = FileSystemSwapManager.deserializeFlowFiles(dis, "target/testRoundTripWithContentClaims.swap", flowFileQueue, claimManager);
+        }
+
+        assertEquals(toSwap.size(), swappedIn.getFlowFiles().size());
+        assertEquals(toSwap.size(), swappedIn.getSummary().getResourceClaims().size());
+        assertEquals(Long.valueOf(toSwap.get(toSwap.size() - 1).getId()), swappedIn.getSummary().getMaxFlowFileId());
+
+        for (int i = 0; i < toSwap.size(); i++) {
+            final FlowFileRecord pre = toSwap.get(i);
+            final FlowFileRecord post = swappedIn.getFlowFiles().get(i);
+
+            assertEquals(pre.getId(), post.getId());
+            assertEquals(pre.getSize(), post.getSize());
+            assertEquals(pre.getAttributes(), post.getAttributes());
+            assertEquals(pre.getContentClaim(), post.getContentClaim());
+            assertEquals(pre.getContentClaim().getLength(), post.getContentClaim().getLength());
+            assertEquals(pre.getContentClaimOffset(), post.getContentClaimOffset());
+            assertEquals(pre.getEntryDate(), post.getEntryDate());
+            assertEquals(pre.getLastQueueDate(), post.getLastQueueDate());
+            assertEquals(pre.getQueueDateIndex(), post.getQueueDateIndex());
+            assertEquals(pre.getLineageStartDate(), post.getLineageStartDate());
+            assertEquals(pre.getLineageStartIndex(), post.getLineageStartIndex());
+        }
+    }
+
+    @Test
+    public void testRowEncodingWrittenByDefault() throws IOException {
+        final File flowFileRepoDir = new File("target/testRowEncodingWrittenByDefault");
+        final NiFiProperties nifiProperties = Mockito.mock(NiFiProperties.class);
+        Mockito.when(nifiProperties.getFlowFileRepositoryPath()).thenReturn(flowFileRepoDir.toPath());
+
+        final ResourceClaimManager claimManager = new StandardResourceClaimManager();
+        final FileSystemSwapManager swapManager = createSwapManager(nifiProperties, claimManager);
+        swapManager.purge();
+
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final List<FlowFileRecord> toSwap = createFlowFilesWithClaims(new StandardResourceClaimManager(), 100);
+        final String swapLocation = swapManager.swapOut(toSwap, flowFileQueue);
+
+        // older versions of NiFi must be able to read swap files unless the columnar encoding has been enabled
+        try (final DataInputStream in = new DataInputStream(new FileInputStream(swapLocation))) {
+            assertEquals(10, in.readInt());
+        }
+
+        final SwapContents swappedIn = swapManager.swapIn(swapLocation, flowFileQueue);
+        assertEquals(100, swappedIn.getFlowFiles().size());
+
+        swapManager.purge();
+    }
+
+    @Test
+    public void testSwapSummaryReadWithoutFlowFiles() throws IOException {
+        final File flowFileRepoDir = new File("target/testSwapSummaryReadWithoutFlowFiles");
+        final NiFiProperties nifiProperties = Mockito.mock(NiFiProperties.class);
+        Mockito.when(nifiProperties.getFlowFileRepositoryPath()).thenReturn(flowFileRepoDir.toPath());
+        Mockito.when(nifiProperties.isSwapColumnarEncodingEnabled()).thenReturn(true);
+
+        final ResourceClaimManager claimManager = new StandardResourceClaimManager();
+        final FileSystemSwapManager swapManager = createSwapManager(nifiProperties, claimManager);
+        swapManager.purge();
+
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final ResourceClaimManager writeClaimManager = new StandardResourceClaimManager();
+        final List<FlowFileRecord> toSwap = createFlowFilesWithClaims(writeClaimManager, 10000);
+        long totalSize = 0L;
+        for (final FlowFileRecord flowFile : toSwap) {
+            totalSize += flowFile.getSize();
+        }
+
+        final String swapLocation = swapManager.swapOut(toSwap, flowFileQueue);
+        try (final DataInputStream in = new DataInputStream(new FileInputStream(swapLocation))) {
+            assertEquals(FileSystemSwapManager.SWAP_ENCODING_VERSION, in.readInt());
+        }
+
+        final SwapSummary summary = swapManager.getSwapSummary(swapLocation);
+        assertNotNull(summary);
+        assertEquals(10000, summary.getQueueSize().getObjectCount());
+        assertEquals(totalSize, summary.getQueueSize().getByteCount());
+        assertEquals(Long.valueOf(toSwap.get(toSwap.size() - 1).getId()), summary.getMaxFlowFileId());
+        assertEquals(10000, summary.getResourceClaims().size());
+
+        // 10 FlowFiles reference each Resource Claim, and reading the summary must increment the claimant count for each of them
+        final ResourceClaim firstClaim = summary.getResourceClaims().get(0);
+        assertEquals(10, claimManager.getClaimantCount(firstClaim));
+
+        swapManager.purge();
+    }
+
+    @Test(timeout = 10000)
+    public void testTruncatedColumnarBlock() throws IOException {
+        final List<FlowFileRecord> toSwap = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            toSwap.add(new TestFlowFile(Collections.singletonMap("filename", "file-" + i + ".txt"), 1024L));
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(baos)) {
+            ColumnarSwapEncoding.writeFlowFiles(toSwap, out);
+        }
+
+        // no Resource Claims and a single block: claim count, block count, record count, uncompressed length, compressed length, data.
+        // Cut the compressed data in half and update its length, so that the block ends before it has been fully inflated.
+        final ByteBuffer serialized = ByteBuffer.wrap(baos.toByteArray());
+        assertEquals(0, serialized.getInt(0));
+        assertEquals(1, serialized.getInt(4));
+        final int truncatedLength = serialized.getInt(16) / 2;
+        serialized.putInt(16, truncatedLength);
+        final byte[] truncated = Arrays.copyOf(serialized.array(), 20 + truncatedLength);
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(truncated))) {
+            ColumnarSwapEncoding.readFlowFiles(in, new QueueSize(100, 102400L), null, new NopResourceClaimManager(), "target/testTruncatedColumnarBlock.swap");
+            Assert.fail("Expected IOException");
+        } catch (final IOException expected) {
+        }
+    }
+
+    private FileSystemSwapManager createSwapManager(final NiFiProperties nifiProperties, final ResourceClaimManager claimManager) {
+        final FileSystemSwapManager swapManager = new FileSystemSwapManager(nifiProperties);
+        swapManager.initialize(new SwapManagerInitializationContext() {
+            @Override
+            public ResourceClaimManager getResourceClaimManager() {
+                return claimManager;
+            }
+
+            @Override
+            public FlowFileRepository getFlowFileRepository() {
+                return Mockito.mock(FlowFileRepository.class);
+            }
+
+            @Override
+            public EventReporter getEventReporter() {
+                return null;
+            }
+        });
+        return swapManager;
+    }
+
+    @Test
+    public void testColumnarEncodingSmallerThanRowEncoding() throws IOException {
+        final ResourceClaimManager claimManager = new StandardResourceClaimManager();
+        final List<FlowFileRecord> toSwap = createFlowFilesWithClaims(claimManager, 10000);
+
+        final FlowFileQueue flowFileQueue = Mockito.mock(FlowFileQueue.class);
+        Mockito.when(flowFileQueue.getIdentifier()).thenReturn("87bb99fe-412c-49f6-a441-d1b0af4e20b4");
+
+        final ByteArrayOutputStream rowEncoded = new ByteArrayOutputStream();
+        FileSystemSwapManager.serializeFlowFiles(toSwap, flowFileQueue, "swap", rowEncoded, 10);
+        final ByteArrayOutputStream columnarEncoded = new ByteArrayOutputStream();
+        FileSystemSwapManager.serializeFlowFiles(toSwap, flowFileQueue, "swap", columnarEncoded, FileSystemSwapManager.SWAP_ENCODING_VERSION);
+        assertTrue(columnarEncoded.size() < rowEncoded.size());
+
+        for (final byte[] serialized : new byte[][] {rowEncoded.toByteArray(), columnarEncoded.toByteArray()}) {
+            try (final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(serialized))) {
+                final SwapContents swappedIn = FileSystemSwapManager.deserializeFlowFiles(dis, "swap", flowFileQueue, claimManager);
+                assertEquals(toSwap.size(), swappedIn.getFlowFiles().size());
+                for (int i = 0; i < toSwap.size(); i++) {
+                    assertEquals(toSwap.get(i).getId(), swappedIn.getFlowFiles().get(i).getId());
+                    assertEquals(toSwap.get(i).getAttributes(), swappedIn.getFlowFiles().get(i).getAttributes());
+                    assertEquals(toSwap.get(i).getContentClaim(), swappedIn.getFlowFiles().get(i).getContentClaim());
+                }
+            }
+        }
+    }
+
+    private List<FlowFileRecord> createFlowFilesWithClaims(final ResourceClaimManager claimManager, final int count) {
+        final List<FlowFileRecord> flowFiles = new ArrayList<>(count);
+        final long now = System.currentTimeMillis();
+        ResourceClaim resourceClaim = null;
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 0) {
+                resourceClaim = claimManager.newResourceClaim("container", "section", String.valueOf(now + i), false);
+            }
+
+            final StandardContentClaim contentClaim = new StandardContentClaim(resourceClaim, (i % 10) * 1024L);
+            contentClaim.setLength(1024L);
+
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put("uuid", UUID.randomUUID().toString());
+            attributes.put("filename", "file-" + i + ".txt");
+            attributes.put("path", "./");
+            attributes.put("mime.type", "application/json");
+            attributes.put("source.system", i % 2 == 0 ? "system-a" : "system-b");
+
+            flowFiles.add(new StandardFlowFileRecord.Builder()
+                .id(1000L + i)
+                .entryDate(now + i)
+                .lineageStart(now + i, i)
+                .lastQueued(now + i + 5, i)
+                .size(1024L)
+                .contentClaim(contentClaim)
+                .contentClaimOffset(0L)
+                .addAttributes(attributes)
+                .build());
+        }
+
+        return flowFiles;
+    }
+
     public class NopResourceClaimManager implements ResourceClaimManager {
 
         @Override
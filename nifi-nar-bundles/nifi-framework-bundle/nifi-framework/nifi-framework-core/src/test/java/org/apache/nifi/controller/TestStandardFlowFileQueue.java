@@ -33,6 +33,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.nifi.connectable.Connectable;
@@ -63,6 +66,7 @@ import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventRepository;
 import org.apache.nifi.provenance.ProvenanceEventType;
 import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -74,6 +78,12 @@ public class TestStandardFlowFileQueue {
     private TestSwapManager swapManager = null;
     private StandardFlowFileQueue queue = null;
 
+    private Connection connection = null;
+    private ProcessScheduler scheduler = null;
+    private FlowFileRepository flowFileRepo = null;
+    private ProvenanceEventRepository provRepo = null;
+    private ResourceClaimManager claimManager = null;
+
     private List<ProvenanceEventRecord> provRecords = new ArrayList<>();
 
     @BeforeClass
@@ -86,16 +96,16 @@ public class TestStandardFlowFileQueue {
     public void setup() {
         provRecords.clear();
 
-        final Connection connection = Mockito.mock(Connection.class);
+        connection = Mockito.mock(Connection.class);
         Mockito.when(connection.getSource()).thenReturn(Mockito.mock(Connectable.class));
         Mockito.when(connection.getDestination()).thenReturn(Mockito.mock(Connectable.class));
 
-        final ProcessScheduler scheduler = Mockito.mock(ProcessScheduler.class);
+        scheduler = Mockito.mock(ProcessScheduler.class);
         swapManager = new TestSwapManager();
 
-        final FlowFileRepository flowFileRepo = Mockito.mock(FlowFileRepository.class);
-        final ProvenanceEventRepository provRepo = Mockito.mock(ProvenanceEventRepository.class);
-        final ResourceClaimManager claimManager = Mockito.mock(ResourceClaimManager.class);
+        flowFileRepo = Mockito.mock(FlowFileRepository.class);
+        provRepo = Mockito.mock(ProvenanceEventRepository.class);
+        claimManager = Mockito.mock(ResourceClaimManager.class);
 
         Mockito.when(provRepo.eventBuilder()).thenReturn(new StandardProvenanceEventRecord.Builder());
         Mockito.doAnswer(new Answer<Object>() {
@@ -465,6 +475,215 @@ public class TestStandardFlowFileQueue {
     }
 
 
+    @Test(timeout = 20000)
+    public void testBackgroundSwapInDoesNotBlockPoll() throws InterruptedException {
+        final ExecutorService swapInExecutor = Executors.newSingleThreadExecutor();
+        try {
+            queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, false, swapInExecutor);
+            for (int i = 1; i <= 20000; i++) {
+                queue.put(new TestFlowFile());
+            }
+
+            assertEquals(1, swapManager.swappedOut.size());
+
+            final Set<FlowFileRecord> exp = new HashSet<>();
+            for (int i = 0; i < 10000; i++) {
+                assertNotNull(queue.poll(exp));
+            }
+
+            // hold up the swap-in thread so that the swap file cannot be read yet
+            final CountDownLatch latch = new CountDownLatch(1);
+            swapInExecutor.submit(() -> {
+                latch.await();
+                return null;
+            });
+
+            // this should trigger the swap file to be read in the background but not wait for it
+            assertNull(queue.poll(exp));
+            assertNull(queue.poll(exp));
+            assertEquals(0, swapManager.swapInCalledCount);
+            assertEquals(0, queue.getActiveQueueSize().getObjectCount());
+
+            latch.countDown();
+
+            FlowFileRecord flowFile = null;
+            while (flowFile == null) {
+                flowFile = queue.poll(exp);
+                if (flowFile == null) {
+                    Thread.sleep(10L);
+                }
+            }
+
+            assertEquals(1, swapManager.swapInCalledCount);
+            assertTrue(swapManager.swappedOut.isEmpty());
+            assertEquals(9999, queue.getActiveQueueSize().getObjectCount());
+            assertEquals(10001, queue.getUnacknowledgedQueueSize().getObjectCount());
+        } finally {
+            swapInExecutor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testDestinationNotifiedWhenBackgroundSwapInCompletes() throws InterruptedException {
+        final ExecutorService swapInExecutor = Executors.newSingleThreadExecutor();
+        try {
+            queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, false, swapInExecutor);
+            for (int i = 1; i <= 20000; i++) {
+                queue.put(new TestFlowFile());
+            }
+
+            final Set<FlowFileRecord> exp = new HashSet<>();
+            assertEquals(10000, queue.poll(10000, exp).size());
+
+            final Connectable destination = connection.getDestination();
+            Mockito.when(destination.getSchedulingStrategy()).thenReturn(SchedulingStrategy.EVENT_DRIVEN);
+
+            // hold up the swap-in thread so that the swap file cannot be read yet
+            final CountDownLatch latch = new CountDownLatch(1);
+            swapInExecutor.submit(() -> {
+                latch.await();
+                return null;
+            });
+
+            // start reading the swap file in the background; the destination has nothing to process until it has been read
+            assertNull(queue.poll(exp));
+            Mockito.verify(scheduler, Mockito.never()).registerEvent(destination);
+
+            latch.countDown();
+            Mockito.verify(scheduler, Mockito.timeout(10000)).registerEvent(destination);
+
+            // once notified, the destination's next poll must find the swapped-in FlowFiles
+            assertNotNull(queue.poll(exp));
+            assertEquals(1, swapManager.swapInCalledCount);
+            assertEquals(9999, queue.getActiveQueueSize().getObjectCount());
+        } finally {
+            swapInExecutor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testDropWithBackgroundSwapInPending() {
+        final ExecutorService swapInExecutor = Executors.newSingleThreadExecutor();
+        try {
+            queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, false, swapInExecutor);
+            for (int i = 1; i <= 30000; i++) {
+                queue.put(new TestFlowFile());
+            }
+
+            assertEquals(2, swapManager.swappedOut.size());
+
+            final Set<FlowFileRecord> exp = new HashSet<>();
+            final List<FlowFileRecord> polled = queue.poll(10000, exp);
+            assertEquals(10000, polled.size());
+            queue.acknowledge(polled);
+
+            // start reading the first swap file in the background
+            queue.poll(exp);
+
+            final DropFlowFileStatus status = queue.dropFlowFiles("1", "Unit Test");
+            while (status.getState() != DropFlowFileState.COMPLETE) {
+                try {
+                    Thread.sleep(100L);
+                } catch (final Exception e) {
+                }
+            }
+
+            assertEquals(0, queue.size().getObjectCount());
+            assertEquals(0, queue.size().getByteCount());
+            assertEquals(0, swapManager.swappedOut.size());
+            assertEquals(2, swapManager.swapInCalledCount);
+        } finally {
+            swapInExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimerDrivenEventsOnlyRegisteredWhenEnabled() {
+        final Connectable destination = connection.getDestination();
+        Mockito.when(destination.getSchedulingStrategy()).thenReturn(SchedulingStrategy.TIMER_DRIVEN);
+
+        queue.put(new TestFlowFile());
+        Mockito.verify(scheduler, Mockito.never()).registerEvent(destination);
+
+        queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, false, null, true);
+        queue.put(new TestFlowFile());
+        Mockito.verify(scheduler, Mockito.times(1)).registerEvent(destination);
+    }
+
+    @Test
+    public void testConcurrentPutSwapOutOccurs() {
+        queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, true, null);
+
+        for (int i = 0; i < 19999; i++) {
+            queue.put(new TestFlowFile());
+            assertEquals(i + 1, queue.size().getObjectCount());
+        }
+
+        // FlowFiles are buffered until a full swap file's worth is waiting, so no swap has occurred yet
+        assertEquals(0, swapManager.swapOutCalledCount);
+
+        queue.put(new TestFlowFile(1000));
+        assertEquals(1, swapManager.swapOutCalledCount);
+        assertEquals(20000, queue.size().getObjectCount());
+        assertEquals(20999, queue.size().getByteCount());
+        assertEquals(10000, queue.getActiveQueueSize().getObjectCount());
+    }
+
+    @Test
+    public void testConcurrentPutHonorsPrioritizers() {
+        queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 10000, true, null);
+        queue.setPriorities(Collections.singletonList((FlowFilePrioritizer) new FlowFileSizePrioritizer()));
+
+        for (int i = 100; i > 0; i--) {
+            queue.put(new TestFlowFile(i));
+        }
+
+        assertEquals(100, queue.size().getObjectCount());
+        final List<FlowFileRecord> flowFiles = queue.poll(Integer.MAX_VALUE, new HashSet<FlowFileRecord>());
+        assertEquals(100, flowFiles.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, flowFiles.get(i).getSize());
+        }
+
+        assertTrue(queue.isActiveQueueEmpty());
+        assertEquals(100, queue.getUnacknowledgedQueueSize().getObjectCount());
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentPutFromManyThreads() throws InterruptedException {
+        queue = new StandardFlowFileQueue("id", connection, flowFileRepo, provRepo, claimManager, scheduler, swapManager, null, 100000, true, null);
+
+        final int threadCount = 8;
+        final int flowFilesPerThread = 5000;
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < flowFilesPerThread; i++) {
+                        queue.put(new TestFlowFile());
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        final Set<FlowFileRecord> expired = new HashSet<>();
+        int polled = 0;
+        while (polled < threadCount * flowFilesPerThread) {
+            polled += queue.poll(1000, expired).size();
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threadCount * flowFilesPerThread, polled);
+        assertTrue(queue.isActiveQueueEmpty());
+        assertEquals(threadCount * flowFilesPerThread, queue.getUnacknowledgedQueueSize().getObjectCount());
+    }
+
     @Test(timeout = 5000)
     public void testListFlowFilesOnlyActiveQueue() throws InterruptedException {
         for (int i = 0; i < 9999; i++) {
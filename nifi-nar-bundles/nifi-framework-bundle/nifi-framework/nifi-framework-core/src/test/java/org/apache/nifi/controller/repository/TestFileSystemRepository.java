@@ -21,14 +21,18 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -355,6 +359,107 @@ public class TestFileSystemRepository {
         assertTrue(Arrays.equals(doubleExpected, Files.readAllBytes(outPath)));
     }
 
+    @Test
+    public void testExportToChannel() throws IOException {
+        final ContentClaim claim = repository.create(true);
+        try (final OutputStream out = repository.write(claim)) {
+            Files.copy(helloWorldFile.toPath(), out);
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final long copied = repository.exportTo(claim, Channels.newChannel(baos));
+        final byte[] expected = Files.readAllBytes(helloWorldFile.toPath());
+        assertEquals(expected.length, copied);
+        assertTrue(Arrays.equals(expected, baos.toByteArray()));
+    }
+
+    @Test(timeout = 10000)
+    public void testExportToChannelFromTruncatedFile() throws IOException {
+        final ContentClaim claim = repository.create(true);
+        try (final OutputStream out = repository.write(claim)) {
+            Files.copy(helloWorldFile.toPath(), out);
+        }
+
+        // truncate the file underneath the claim, so that the claim extends beyond the end of the file
+        try (final FileChannel channel = FileChannel.open(getPath(claim), StandardOpenOption.WRITE)) {
+            channel.truncate(claim.getOffset() + 5L);
+        }
+
+        try {
+            repository.exportTo(claim, Channels.newChannel(new ByteArrayOutputStream()));
+            fail("Expected EOFException");
+        } catch (final EOFException expected) {
+        }
+    }
+
+    @Test
+    public void testReadWithChannelCache() throws IOException {
+        shutdown();
+
+        final Map<String, String> addProps = new HashMap<>();
+        addProps.put(NiFiProperties.CONTENT_REPOSITORY_READ_CHANNEL_CACHE_SIZE, "2");
+        final NiFiProperties localProps = NiFiProperties.createBasicNiFiProperties(null, addProps);
+        repository = new FileSystemRepository(localProps);
+        repository.initialize(new StandardResourceClaimManager());
+        repository.purge();
+
+        // write several claims; they will share a single Resource Claim
+        final List<ContentClaim> claims = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final ContentClaim claim = repository.create(true);
+            try (final OutputStream out = repository.write(claim)) {
+                out.write(("Hello, World " + i).getBytes());
+            }
+            claims.add(claim);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            final ContentClaim claim = claims.get(i);
+            final byte[] expected = ("Hello, World " + i).getBytes();
+            try (final InputStream in = repository.read(claim)) {
+                assertTrue(Arrays.equals(expected, readFully(in, expected.length)));
+                assertEquals(-1, in.read());
+            }
+
+            try (final InputStream in = repository.read(claim)) {
+                assertEquals(7L, in.skip(7L));
+                assertEquals('W', in.read());
+            }
+
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            repository.exportTo(claim, Channels.newChannel(baos));
+            assertTrue(Arrays.equals(expected, baos.toByteArray()));
+
+            final ByteArrayOutputStream subset = new ByteArrayOutputStream();
+            repository.exportTo(claim, subset, 7L, 5L);
+            assertEquals("World", new String(subset.toByteArray()));
+        }
+
+        assertEquals(1, repository.getCachedReadChannelCount());
+
+        // fill up the Resource Claim so that it is no longer written to
+        final ContentClaim filler = repository.create(true);
+        try (final OutputStream out = repository.write(filler)) {
+            out.write(new byte[FileSystemRepository.MAX_APPENDABLE_CLAIM_LENGTH]);
+        }
+        claims.add(filler);
+
+        // a stream that is open when the claim is removed must still be readable
+        final ContentClaim claim = claims.get(0);
+        final Path claimPath = getPath(claim);
+        final InputStream openStream = repository.read(claim);
+        for (final ContentClaim toRemove : claims) {
+            repository.decrementClaimantCount(toRemove);
+        }
+        repository.remove(claim);
+        assertFalse(Files.exists(claimPath));
+        assertEquals(0, repository.getCachedReadChannelCount());
+
+        final byte[] expected = "Hello, World 0".getBytes();
+        assertTrue(Arrays.equals(expected, readFully(openStream, expected.length)));
+        openStream.close();
+    }
+
     @Test
     public void testSize() throws IOException {
         final ContentClaim claim = repository.create(true);
@@ -98,6 +98,7 @@ public class TestStandardProcessSession {
 
     private ProvenanceEventRepository provenanceRepo;
     private MockFlowFileRepository flowFileRepo;
+    private CounterRepository counterRepo;
     private final Relationship FAKE_RELATIONSHIP = new Relationship.Builder().name("FAKE").build();
     private static StandardResourceClaimManager resourceClaimManager;
 
@@ -141,7 +142,7 @@ public class TestStandardProcessSession {
 
         System.setProperty(NiFiProperties.PROPERTIES_FILE_PATH, TestStandardProcessSession.class.getResource("/conf/nifi.properties").getFile());
         final FlowFileEventRepository flowFileEventRepo = Mockito.mock(FlowFileEventRepository.class);
-        final CounterRepository counterRepo = Mockito.mock(CounterRepository.class);
+        counterRepo = Mockito.mock(CounterRepository.class);
         provenanceRepo = new MockProvenanceRepository();
 
         final Connection connection = Mockito.mock(Connection.class);
@@ -1219,6 +1220,41 @@ public class TestStandardProcessSession {
         assertEquals(ProvenanceEventType.CREATE, event.getEventType());
     }
 
+    @Test
+    public void testSessionCommittedRepeatedly() throws IOException {
+        final Relationship relationship = new Relationship.Builder().name("A").build();
+        for (int i = 0; i < 3; i++) {
+            FlowFile newFlowFile = session.create();
+            newFlowFile = session.putAttribute(newFlowFile, "index", String.valueOf(i));
+            session.adjustCounter("created", 1L, false);
+            session.transfer(newFlowFile, relationship);
+            session.commit();
+
+            // committing a session that has not touched any FlowFiles must not emit anything
+            session.commit();
+        }
+
+        final List<ProvenanceEventRecord> events = provenanceRepo.getEvents(0L, 10000);
+        assertEquals(3, events.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ProvenanceEventType.CREATE, events.get(i).getEventType());
+            assertEquals(String.valueOf(i), events.get(i).getAttributes().get("index"));
+        }
+
+        assertEquals(3, flowFileQueue.size().getObjectCount());
+        for (int i = 0; i < 3; i++) {
+            final FlowFile flowFile = session.get();
+            assertNotNull(flowFile);
+            session.transfer(flowFile);
+        }
+        session.commit();
+
+        assertEquals(3, flowFileQueue.size().getObjectCount());
+        assertEquals(3, provenanceRepo.getEvents(0L, 10000).size());
+        // each adjustment is applied to both the component's counter and the global counter
+        Mockito.verify(counterRepo, Mockito.times(6)).adjustCounter(Mockito.anyString(), Mockito.eq("created"), Mockito.eq(1L));
+    }
+
     @Test
     public void testContentModifiedNotEmittedForCreate() throws IOException {
         FlowFile newFlowFile = session.create();
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestAdaptiveYieldState {
+
+    @Test
+    public void testYieldDoublesUpToMaximum() {
+        final long min = TimeUnit.MILLISECONDS.toNanos(10L);
+        final long max = TimeUnit.SECONDS.toNanos(1L);
+        final AdaptiveYieldState<String> state = new AdaptiveYieldState<>(min, max);
+
+        assertEquals(min, state.nextNoWorkYieldNanos());
+        assertEquals(min * 2, state.nextNoWorkYieldNanos());
+        assertEquals(min * 4, state.nextNoWorkYieldNanos());
+        assertEquals(min * 8, state.nextNoWorkYieldNanos());
+        assertEquals(min * 16, state.nextNoWorkYieldNanos());
+        assertEquals(min * 32, state.nextNoWorkYieldNanos());
+        assertEquals(min * 64, state.nextNoWorkYieldNanos());
+        assertEquals(max, state.nextNoWorkYieldNanos());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(max, state.nextNoWorkYieldNanos());
+        }
+    }
+
+    @Test
+    public void testWorkResetsYield() {
+        final AdaptiveYieldState<String> state = new AdaptiveYieldState<>(10L, 1000L);
+        state.nextNoWorkYieldNanos();
+        state.nextNoWorkYieldNanos();
+        assertEquals(40L, state.nextNoWorkYieldNanos());
+
+        state.onWork();
+        assertEquals(0, state.getConsecutiveNoWorkCount());
+        assertEquals(10L, state.nextNoWorkYieldNanos());
+    }
+
+    @Test
+    public void testMaximumLessThanMinimum() {
+        final AdaptiveYieldState<String> state = new AdaptiveYieldState<>(10L, 5L);
+        assertEquals(10L, state.nextNoWorkYieldNanos());
+        assertEquals(10L, state.nextNoWorkYieldNanos());
+    }
+
+    @Test
+    public void testUnparkAll() {
+        final AdaptiveYieldState<String> state = new AdaptiveYieldState<>(10L, 1000L);
+        assertTrue(state.unparkAll().isEmpty());
+
+        state.nextNoWorkYieldNanos();
+        state.nextNoWorkYieldNanos();
+        state.park("a");
+        state.park("b");
+        state.park("c");
+        assertTrue(state.unpark("c"));
+        assertFalse(state.unpark("c"));
+
+        final List<String> unparked = state.unparkAll();
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(unparked));
+        assertTrue(state.unparkAll().isEmpty());
+
+        // data arrived, so the next time the component is bored it starts at the minimum again
+        assertEquals(10L, state.nextNoWorkYieldNanos());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.components.state.StateManagerProvider;
+import org.apache.nifi.connectable.Connectable;
+import org.apache.nifi.connectable.ConnectableType;
+import org.apache.nifi.connectable.Connection;
+import org.apache.nifi.controller.FlowController;
+import org.apache.nifi.controller.StandardFlowFileQueue;
+import org.apache.nifi.controller.repository.FlowFileRepository;
+import org.apache.nifi.controller.repository.StandardFlowFileRecord;
+import org.apache.nifi.controller.service.ControllerServiceProvider;
+import org.apache.nifi.engine.FlowEngine;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSessionFactory;
+import org.apache.nifi.provenance.ProvenanceEventRepository;
+import org.apache.nifi.registry.VariableRegistry;
+import org.apache.nifi.scheduling.SchedulingStrategy;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestTimerDrivenSchedulingAgent {
+
+    private FlowEngine flowEngine;
+    private TimerDrivenSchedulingAgent agent;
+    private StandardProcessScheduler scheduler;
+    private Connectable destination;
+    private StandardFlowFileQueue queue;
+    private ScheduleState scheduleState;
+    private CountDownLatch triggered;
+
+    @Before
+    public void setup() throws Exception {
+        final Map<String, String> props = new HashMap<>();
+        props.put(NiFiProperties.BORED_YIELD_DURATION, "30 secs");
+        props.put(NiFiProperties.BORED_YIELD_MAX_DURATION, "1 min");
+        props.put(NiFiProperties.BORED_YIELD_ADAPTIVE, "true");
+        final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties(null, props);
+
+        final FlowController flowController = Mockito.mock(FlowController.class);
+        Mockito.when(flowController.getStateManagerProvider()).thenReturn(Mockito.mock(StateManagerProvider.class));
+
+        flowEngine = new FlowEngine(1, "Timer-Driven Test Thread");
+        agent = new TimerDrivenSchedulingAgent(flowController, flowEngine, Mockito.mock(ProcessContextFactory.class), null,
+            VariableRegistry.EMPTY_REGISTRY, nifiProperties);
+        scheduler = new StandardProcessScheduler(Mockito.mock(ControllerServiceProvider.class), null, Mockito.mock(StateManagerProvider.class),
+            VariableRegistry.EMPTY_REGISTRY, nifiProperties);
+        scheduler.setSchedulingAgent(SchedulingStrategy.TIMER_DRIVEN, agent);
+
+        destination = Mockito.mock(Connectable.class);
+        final Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getSource()).thenReturn(Mockito.mock(Connectable.class));
+        Mockito.when(connection.getDestination()).thenReturn(destination);
+
+        queue = new StandardFlowFileQueue("id", connection, Mockito.mock(FlowFileRepository.class), Mockito.mock(ProvenanceEventRepository.class),
+            null, scheduler, null, null, 10000, false, null, true);
+        Mockito.when(connection.getFlowFileQueue()).thenReturn(queue);
+
+        final List<Connection> incoming = Collections.singletonList(connection);
+        Mockito.when(destination.getIdentifier()).thenReturn("destination");
+        Mockito.when(destination.getConnectableType()).thenReturn(ConnectableType.OUTPUT_PORT);
+        Mockito.when(destination.getSchedulingStrategy()).thenReturn(SchedulingStrategy.TIMER_DRIVEN);
+        Mockito.when(destination.getSchedulingPeriod(Mockito.any(TimeUnit.class))).thenReturn(TimeUnit.MILLISECONDS.toNanos(1L));
+        Mockito.when(destination.getMaxConcurrentTasks()).thenReturn(1);
+        Mockito.when(destination.getIncomingConnections()).thenReturn(incoming);
+
+        triggered = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            triggered.countDown();
+            return null;
+        }).when(destination).onTrigger(Mockito.any(ProcessContext.class), Mockito.any(ProcessSessionFactory.class));
+
+        scheduleState = new ScheduleState();
+        scheduleState.setScheduled(true);
+    }
+
+    @After
+    public void cleanup() {
+        scheduleState.setScheduled(false);
+        agent.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void testEnqueueWakesParkedTask() throws InterruptedException {
+        // nothing is queued, so the task runs once, finds no work, and waits out a 30 second bored yield
+        agent.doSchedule(destination, scheduleState);
+        Thread.sleep(250L);
+        assertEquals(1L, triggered.getCount());
+
+        queue.put(new StandardFlowFileRecord.Builder().id(1L).size(0L).build());
+
+        assertTrue(triggered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 10000)
+    public void testTaskStaysParkedWithoutEvent() throws InterruptedException {
+        agent.doSchedule(destination, scheduleState);
+        Thread.sleep(250L);
+
+        // data that shows up without the scheduler being notified is not seen until the bored yield expires
+        Mockito.when(destination.getSchedulingStrategy()).thenReturn(SchedulingStrategy.CRON_DRIVEN);
+        queue.put(new StandardFlowFileRecord.Builder().id(1L).size(0L).build());
+
+        assertFalse(triggered.await(500L, TimeUnit.MILLISECONDS));
+    }
+}
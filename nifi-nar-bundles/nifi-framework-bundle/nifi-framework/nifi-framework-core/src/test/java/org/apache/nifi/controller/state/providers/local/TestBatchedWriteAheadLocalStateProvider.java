@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.state.providers.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.nifi.components.state.StateMap;
+import org.apache.nifi.components.state.StateProvider;
+import org.junit.Test;
+
+/**
+ * Runs the suite of State Provider tests against a provider that batches updates, along with tests that are specific to batching
+ */
+public class TestBatchedWriteAheadLocalStateProvider extends TestWriteAheadLocalStateProvider {
+
+    @Override
+    protected String getDurabilityWindow() {
+        return "50 millis";
+    }
+
+    @Test
+    public void testStateRecoveredAfterShutdown() throws IOException {
+        final String directory = "target/local-state-provider/" + UUID.randomUUID().toString();
+
+        StateProvider provider = createProvider(directory, "1 hour");
+        provider.setState(Collections.singletonMap("a", "1"), "component-1");
+        provider.setState(Collections.singletonMap("a", "2"), "component-1");
+        provider.setState(Collections.singletonMap("b", "1"), "component-2");
+
+        final StateMap stateMap = provider.getState("component-2");
+        final Map<String, String> newValue = new HashMap<>(stateMap.toMap());
+        newValue.put("b", "2");
+        assertTrue(provider.replace(stateMap, newValue, "component-2"));
+
+        // the updates are only written to the write-ahead log when the provider is shut down
+        provider.shutdown();
+
+        provider = createProvider(directory, "1 hour");
+        try {
+            assertEquals("2", provider.getState("component-1").get("a"));
+            assertEquals("2", provider.getState("component-2").get("b"));
+            assertEquals(3L, provider.getState("component-2").getVersion());
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void testVersionNeverDecreasesUnderConcurrentUpdates() throws Exception {
+        final StateProvider provider = createProvider("target/local-state-provider/" + UUID.randomUUID().toString(), "1 hour");
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        final List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final int threadIndex = i;
+            writers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 5000; j++) {
+                            if (j % 10 == 0) {
+                                provider.clear("component-1");
+                            } else {
+                                provider.setState(Collections.singletonMap("a", threadIndex + "-" + j), "component-1");
+                            }
+                        }
+                    } catch (final IOException ioe) {
+                        failure.set(ioe.toString());
+                    }
+                }
+            }));
+        }
+
+        final Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    long lastVersion = -1L;
+                    while (writing.get()) {
+                        final long version = provider.getState("component-1").getVersion();
+                        if (version < lastVersion) {
+                            failure.set("Version went from " + lastVersion + " back to " + version);
+                            return;
+                        }
+                        lastVersion = version;
+                    }
+                } catch (final IOException ioe) {
+                    failure.set(ioe.toString());
+                }
+            }
+        });
+
+        reader.start();
+        for (final Thread writer : writers) {
+            writer.start();
+        }
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        reader.join();
+        provider.shutdown();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void testConcurrentUpdatesToManyComponentsRecovered() throws Exception {
+        final String directory = "target/local-state-provider/" + UUID.randomUUID().toString();
+        final StateProvider provider = createProvider(directory, "50 millis");
+
+        final int numThreads = 8;
+        final int componentsPerThread = 16;
+        final int updatesPerComponent = 100;
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        // each thread owns its components, so every replace must succeed
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            final int threadIndex = i;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int count = 0; count < componentsPerThread * updatesPerComponent; count++) {
+                            final String componentId = "component-" + threadIndex + "-" + (count % componentsPerThread);
+                            final StateMap stateMap = provider.getState(componentId);
+                            final Map<String, String> newValue = Collections.singletonMap("count", String.valueOf(count));
+                            if (stateMap.getVersion() == -1L) {
+                                provider.setState(newValue, componentId);
+                            } else if (!provider.replace(stateMap, newValue, componentId)) {
+                                failure.set("Failed to replace state of " + componentId + " at version " + stateMap.getVersion());
+                                return;
+                            }
+                        }
+                    } catch (final IOException ioe) {
+                        failure.set(ioe.toString());
+                    }
+                }
+            }));
+        }
+
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+
+        final Map<String, Long> versions = new HashMap<>();
+        for (int threadIndex = 0; threadIndex < numThreads; threadIndex++) {
+            for (int componentIndex = 0; componentIndex < componentsPerThread; componentIndex++) {
+                final String componentId = "component-" + threadIndex + "-" + componentIndex;
+                versions.put(componentId, provider.getState(componentId).getVersion());
+            }
+        }
+        provider.shutdown();
+
+        final StateProvider recovered = createProvider(directory, "50 millis");
+        try {
+            for (int threadIndex = 0; threadIndex < numThreads; threadIndex++) {
+                for (int componentIndex = 0; componentIndex < componentsPerThread; componentIndex++) {
+                    final String componentId = "component-" + threadIndex + "-" + componentIndex;
+                    final StateMap stateMap = recovered.getState(componentId);
+                    assertEquals(String.valueOf((updatesPerComponent - 1) * componentsPerThread + componentIndex), stateMap.get("count"));
+                    assertEquals(versions.get(componentId).longValue(), stateMap.getVersion());
+                }
+            }
+        } finally {
+            recovered.shutdown();
+        }
+    }
+}
@@ -42,9 +42,23 @@ public class TestWriteAheadLocalStateProvider extends AbstractTestStateProvider
 
     @Before
     public void setup() throws IOException {
-        provider = new WriteAheadLocalStateProvider();
+        provider = createProvider("target/local-state-provider/" + UUID.randomUUID().toString(), getDurabilityWindow());
+    }
+
+    /**
+     * @return the durability window to configure the provider with, or <code>null</code> to use the default
+     */
+    protected String getDurabilityWindow() {
+        return null;
+    }
+
+    protected StateProvider createProvider(final String directory, final String durabilityWindow) throws IOException {
+        final StateProvider provider = new WriteAheadLocalStateProvider();
         final Map<PropertyDescriptor, PropertyValue> properties = new HashMap<>();
-        properties.put(WriteAheadLocalStateProvider.PATH, new StandardPropertyValue("target/local-state-provider/" + UUID.randomUUID().toString(), null));
+        properties.put(WriteAheadLocalStateProvider.PATH, new StandardPropertyValue(directory, null));
+        if (durabilityWindow != null) {
+            properties.put(WriteAheadLocalStateProvider.DURABILITY_WINDOW, new StandardPropertyValue(durabilityWindow, null));
+        }
 
         provider.initialize(new StateProviderInitializationContext() {
             @Override
@@ -71,6 +85,8 @@ public class TestWriteAheadLocalStateProvider extends AbstractTestStateProvider
                 return null;
             }
         });
+
+        return provider;
     }
 
     @After
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.controller.status.history;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.controller.repository.util.DiskUtils;
+import org.apache.nifi.controller.status.ConnectionStatus;
+import org.apache.nifi.controller.status.ProcessGroupStatus;
+import org.apache.nifi.controller.status.ProcessorStatus;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPersistentComponentStatusRepository {
+
+    private final File repoDir = new File("target/status_repository");
+    private NiFiProperties nifiProperties;
+
+    @Before
+    public void setup() {
+        DiskUtils.deleteRecursively(repoDir);
+
+        final Map<String, String> props = new HashMap<>();
+        props.put(PersistentComponentStatusRepository.DIRECTORY_PROPERTY, repoDir.getAbsolutePath());
+        nifiProperties = NiFiProperties.createBasicNiFiProperties(null, props);
+    }
+
+    private ProcessGroupStatus createRootStatus(final int sequence) {
+        final ProcessGroupStatus root = new ProcessGroupStatus();
+        root.setId("root");
+        root.setName("NiFi Flow");
+        root.setInputCount(0);
+        root.setInputContentSize(0L);
+        root.setOutputCount(0);
+        root.setOutputContentSize(0L);
+        root.setQueuedCount(sequence);
+        root.setQueuedContentSize(sequence * 10L);
+        root.setActiveThreadCount(0);
+        root.setBytesRead(0L);
+        root.setBytesWritten(0L);
+
+        final ProcessorStatus processorStatus = new ProcessorStatus();
+        processorStatus.setId("proc");
+        processorStatus.setGroupId("root");
+        processorStatus.setName("Processor " + sequence);
+        processorStatus.setType("GenerateFlowFile");
+        processorStatus.setInputCount(sequence);
+        processorStatus.setOutputCount(2 * sequence);
+        processorStatus.setInvocations(sequence);
+        processorStatus.setProcessingNanos(TimeUnit.MILLISECONDS.toNanos(sequence));
+        root.getProcessorStatus().add(processorStatus);
+
+        final ConnectionStatus connectionStatus = new ConnectionStatus();
+        connectionStatus.setId("conn");
+        connectionStatus.setGroupId("root");
+        connectionStatus.setName("success");
+        connectionStatus.setSourceName("Processor");
+        connectionStatus.setDestinationName("Funnel");
+        connectionStatus.setQueuedCount(sequence);
+        connectionStatus.setQueuedBytes(sequence * 10L);
+        root.getConnectionStatus().add(connectionStatus);
+
+        return root;
+    }
+
+    private static long getMetric(final StatusSnapshot snapshot, final ProcessorStatusDescriptor descriptor) {
+        return snapshot.getStatusMetrics().get(descriptor.getDescriptor());
+    }
+
+    @Test
+    public void testCaptureAndQueryMinutes() {
+        final PersistentComponentStatusRepository repo = new PersistentComponentStatusRepository(nifiProperties);
+
+        final long now = System.currentTimeMillis();
+        final long start = now - TimeUnit.MINUTES.toMillis(30);
+        for (int i = 0; i < 30; i++) {
+            repo.capture(createRootStatus(i), new Date(start + TimeUnit.MINUTES.toMillis(i)));
+        }
+
+        final StatusHistory history = repo.getProcessorStatusHistory("proc", new Date(start), null, Integer.MAX_VALUE);
+        final List<StatusSnapshot> snapshots = history.getStatusSnapshots();
+        assertEquals(30, snapshots.size());
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i, getMetric(snapshots.get(i), ProcessorStatusDescriptor.INPUT_COUNT));
+            assertEquals(2 * i, getMetric(snapshots.get(i), ProcessorStatusDescriptor.OUTPUT_COUNT));
+        }
+
+        assertEquals("Processor 29", history.getComponentDetails().get(ComponentStatusRepository.COMPONENT_DETAIL_NAME));
+        assertEquals("GenerateFlowFile", history.getComponentDetails().get(ComponentStatusRepository.COMPONENT_DETAIL_TYPE));
+
+        final StatusHistory connectionHistory = repo.getConnectionStatusHistory("conn", new Date(start), null, Integer.MAX_VALUE);
+        assertEquals(30, connectionHistory.getStatusSnapshots().size());
+        assertEquals(29L, connectionHistory.getStatusSnapshots().get(29).getStatusMetrics().get(ConnectionStatusDescriptor.QUEUED_COUNT.getDescriptor()).longValue());
+
+        final StatusHistory groupHistory = repo.getProcessGroupStatusHistory("root", new Date(start), null, Integer.MAX_VALUE);
+        assertEquals(30, groupHistory.getStatusSnapshots().size());
+
+        assertEquals(0, repo.getProcessorStatusHistory("other", new Date(start), null, Integer.MAX_VALUE).getStatusSnapshots().size());
+    }
+
+    @Test
+    public void testHistorySurvivesRestart() {
+        final long now = System.currentTimeMillis();
+        final long start = now - TimeUnit.MINUTES.toMillis(10);
+
+        final PersistentComponentStatusRepository repo = new PersistentComponentStatusRepository(nifiProperties);
+        for (int i = 0; i < 10; i++) {
+            repo.capture(createRootStatus(i), new Date(start + TimeUnit.MINUTES.toMillis(i)));
+        }
+
+        // The last minute had not yet been written when the repository was "stopped"
+        final PersistentComponentStatusRepository restarted = new PersistentComponentStatusRepository(nifiProperties);
+        final List<StatusSnapshot> snapshots = restarted.getProcessorStatusHistory("proc", new Date(start), null, Integer.MAX_VALUE).getStatusSnapshots();
+        assertEquals(9, snapshots.size());
+        assertEquals(8L, getMetric(snapshots.get(8), ProcessorStatusDescriptor.INPUT_COUNT));
+    }
+
+    @Test
+    public void testCoarserHistorySurvivesRestartAcrossBucketBoundary() {
+        final long hour = TimeUnit.HOURS.toMillis(1);
+        final long start = (System.currentTimeMillis() / hour - 3) * hour;
+
+        // The 5-minute bucket starting at minute 0 is written out by the capture at minute 5; the one starting at
+        // minute 5 and the hourly bucket are still being accumulated when the repository is "stopped"
+        final PersistentComponentStatusRepository repo = new PersistentComponentStatusRepository(nifiProperties);
+        for (int i = 0; i <= 6; i++) {
+            repo.capture(createRootStatus(i), new Date(start + TimeUnit.MINUTES.toMillis(i)));
+        }
+
+        // Restart in a later 5-minute bucket, so the buckets that were being accumulated are no longer the current ones
+        final PersistentComponentStatusRepository restarted = new PersistentComponentStatusRepository(nifiProperties);
+        restarted.capture(createRootStatus(12), new Date(start + TimeUnit.MINUTES.toMillis(12)));
+
+        // Minute 6 had not yet been written, so the 5-minute bucket starting at minute 5 is rebuilt from minute 5 alone
+        final List<StatusSnapshot> snapshots = restarted.getProcessorStatusHistory("proc", new Date(start), new Date(start + TimeUnit.MINUTES.toMillis(15) - 1), 5)
+            .getStatusSnapshots();
+        assertEquals(3, snapshots.size());
+        assertEquals(start, snapshots.get(0).getTimestamp().getTime());
+        assertEquals(2L, getMetric(snapshots.get(0), ProcessorStatusDescriptor.INPUT_COUNT));
+        assertEquals(start + TimeUnit.MINUTES.toMillis(5), snapshots.get(1).getTimestamp().getTime());
+        assertEquals(5L, getMetric(snapshots.get(1), ProcessorStatusDescriptor.INPUT_COUNT));
+        assertEquals(12L, getMetric(snapshots.get(2), ProcessorStatusDescriptor.INPUT_COUNT));
+
+        // The hourly bucket is rebuilt from minutes 0 through 5, to which minute 12 is then added
+        final List<StatusSnapshot> hourly = restarted.getProcessorStatusHistory("proc", new Date(start), new Date(start + TimeUnit.MINUTES.toMillis(15) - 1), 1)
+            .getStatusSnapshots();
+        assertEquals(1, hourly.size());
+        assertEquals((0L + 1 + 2 + 3 + 4 + 5 + 12) / 7, getMetric(hourly.get(0), ProcessorStatusDescriptor.INPUT_COUNT));
+
+        // Restarting again must not write the recovered 5-minute bucket a second time
+        final PersistentComponentStatusRepository restartedAgain = new PersistentComponentStatusRepository(nifiProperties);
+        restartedAgain.capture(createRootStatus(20), new Date(start + TimeUnit.MINUTES.toMillis(20)));
+        final List<StatusSnapshot> afterSecondRestart = restartedAgain.getProcessorStatusHistory("proc", new Date(start),
+            new Date(start + TimeUnit.MINUTES.toMillis(15) - 1), 5).getStatusSnapshots();
+        assertEquals(2, afterSecondRestart.size());
+        assertEquals(2L, getMetric(afterSecondRestart.get(0), ProcessorStatusDescriptor.INPUT_COUNT));
+        assertEquals(5L, getMetric(afterSecondRestart.get(1), ProcessorStatusDescriptor.INPUT_COUNT));
+    }
+
+    @Test
+    public void testCoarserResolutionSelectedForPreferredDataPoints() {
+        final PersistentComponentStatusRepository repo = new PersistentComponentStatusRepository(nifiProperties);
+
+        final long hour = TimeUnit.HOURS.toMillis(1);
+        final long start = (System.currentTimeMillis() / hour - 3) * hour;
+        for (int i = 0; i < 120; i++) {
+            repo.capture(createRootStatus(i), new Date(start + TimeUnit.MINUTES.toMillis(i)));
+        }
+
+        // 2 hours of 1-minute data is too many points, so the 5-minute resolution is used
+        final List<StatusSnapshot> snapshots = repo.getProcessorStatusHistory("proc", new Date(start), new Date(start + 2 * hour - 1), 30).getStatusSnapshots();
+        assertEquals(24, snapshots.size());
+
+        // Each 5-minute bucket is the average of the 1-minute captures within it
+        assertEquals(start, snapshots.get(0).getTimestamp().getTime());
+        assertEquals(2L, getMetric(snapshots.get(0), ProcessorStatusDescriptor.INPUT_COUNT));
+        assertEquals(117L, getMetric(snapshots.get(23), ProcessorStatusDescriptor.INPUT_COUNT));
+
+        // Even fewer points selects the hourly resolution
+        final List<StatusSnapshot> hourly = repo.getProcessorStatusHistory("proc", new Date(start), new Date(start + 2 * hour - 1), 5).getStatusSnapshots();
+        assertEquals(2, hourly.size());
+        assertEquals(29L, getMetric(hourly.get(0), ProcessorStatusDescriptor.INPUT_COUNT));
+        assertEquals(89L, getMetric(hourly.get(1), ProcessorStatusDescriptor.INPUT_COUNT));
+    }
+}
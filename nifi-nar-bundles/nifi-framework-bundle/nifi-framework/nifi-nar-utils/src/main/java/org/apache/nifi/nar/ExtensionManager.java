@@ -30,27 +30,54 @@ import org.apache.nifi.reporting.ReportingTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * Scans through the classpath to load all FlowFileProcessors, FlowFileComparators, and ReportingTasks using the service provider API and running through all classloaders (root, NARs).
  *
- * @ThreadSafe - is immutable
+ * @ThreadSafe - is immutable once all NARs have been loaded; NARs that are loaded lazily are loaded while holding the lock of this class, and the
+ * callback that is notified of their extensions is called once the lock has been released
  */
 @SuppressWarnings("rawtypes")
 public class ExtensionManager {
 
     private static final Logger logger = LoggerFactory.getLogger(ExtensionManager.class);
 
+    private static final FileFilter JAR_FILTER = new FileFilter() {
+        @Override
+        public boolean accept(File pathname) {
+            final String nameToTest = pathname.getName().toLowerCase();
+            return nameToTest.endsWith(".jar") && pathname.isFile();
+        }
+    };
+
     // Maps a service definition (interface) to those classes that implement the interface
     private static final Map<Class, Set<Class>> definitionMap = new HashMap<>();
 
-    private static final Map<String, ClassLoader> extensionClassloaderLookup = new HashMap<>();
+    private static final Map<String, ClassLoader> extensionClassloaderLookup = new ConcurrentHashMap<>();
+
+    // Maps the name of an extension to the working directory of its NAR, for NARs whose class loaders have not been created
+    private static final Map<String, File> deferredExtensionLookup = new HashMap<>();
+    private static final Set<File> deferredNars = new LinkedHashSet<>();
+    private static volatile boolean extensionsDeferred = false;
+    private static volatile Consumer<Set<Class>> extensionsLoadedCallback;
 
     static {
         definitionMap.put(Processor.class, new HashSet<>());
@@ -95,19 +122,266 @@ public class ExtensionManager {
     }
 
     /**
-     * Loads extensions from the specified class loader.
+     * Loads all FlowFileProcessor, FlowFileComparator, ReportingTask class types that can be found on the bootstrap classloader and the given NAR classloaders. The extensions of
+     * the NARs whose classloaders have not been created are indexed from the service provider files in their jars, without loading any classes. Such a NAR is loaded when one of its
+     * extensions is first requested from {@link #getClassLoader(String)}, or when all extensions of a type are requested from {@link #getExtensions(Class)}.
+     *
+     * @param extensionLoaders the loaders to scan through in search of extensions
+     * @param deferredNarWorkingDirectories the working directories of the NARs whose classloaders have not been created
+     * @param extensionsLoadedCallback called with the extensions that have been loaded now, and again with the extensions of each deferred NAR when it is loaded. It is
+     * never called while holding the lock of this class, so it may request extensions itself. May be null.
+     */
+    public static void discoverExtensions(final Set<ClassLoader> extensionLoaders, final Set<File> deferredNarWorkingDirectories, final Consumer<Set<Class>> extensionsLoadedCallback) {
+        discoverExtensions(extensionLoaders);
+
+        final Set<Class> extensions = new HashSet<>();
+        synchronized (ExtensionManager.class) {
+            for (final File narWorkingDirectory : deferredNarWorkingDirectories) {
+                deferredNars.add(narWorkingDirectory);
+                try {
+                    indexDeferredExtensions(narWorkingDirectory);
+                } catch (final IOException ioe) {
+                    logger.warn("Unable to index the extensions of {} due to {}; loading it now", narWorkingDirectory, ioe.toString());
+                    // the callback is notified of these extensions along with all others that have been loaded
+                    loadDeferredNar(narWorkingDirectory, new ArrayList<>());
+                }
+            }
+            extensionsDeferred = !deferredNars.isEmpty();
+
+            for (final Set<Class> definitionExtensions : definitionMap.values()) {
+                extensions.addAll(definitionExtensions);
+            }
+            ExtensionManager.extensionsLoadedCallback = extensionsLoadedCallback;
+        }
+
+        notifyExtensionsLoaded(Collections.singletonList(extensions));
+    }
+
+    /**
+     * Indexes the extensions of the specified NAR using the service provider files that are packaged in its jars.
+     *
+     * @param narWorkingDirectory the working directory of the NAR
+     * @throws IOException if unable to read the jars of the NAR
+     */
+    private static void indexDeferredExtensions(final File narWorkingDirectory) throws IOException {
+        final File[] jars = new File(narWorkingDirectory, "META-INF/bundled-dependencies").listFiles(JAR_FILTER);
+        if (jars == null) {
+            return;
+        }
+
+        for (final File jar : jars) {
+            try (final JarFile jarFile = new JarFile(jar)) {
+                for (final Class definition : definitionMap.keySet()) {
+                    final JarEntry serviceEntry = jarFile.getJarEntry("META-INF/services/" + definition.getName());
+                    for (final String serviceLine : NarUnpacker.determineDocumentedNiFiComponents(jarFile, serviceEntry)) {
+                        final String className = serviceLine.trim();
+                        if (!extensionClassloaderLookup.containsKey(className)) {
+                            deferredExtensionLookup.put(className, narWorkingDirectory);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the deferred NAR that contains the specified extension, if any.
+     *
+     * @param classType the extension
+     * @return the classloader of the extension, or null if the extension is not known
+     */
+    private static ClassLoader loadDeferredExtension(final String classType) {
+        final List<Set<Class>> loadedExtensions = new ArrayList<>();
+        final ClassLoader classLoader;
+        synchronized (ExtensionManager.class) {
+            final File narWorkingDirectory = deferredExtensionLookup.get(classType);
+            if (narWorkingDirectory != null) {
+                loadDeferredNar(narWorkingDirectory, loadedExtensions);
+            }
+
+            classLoader = extensionClassloaderLookup.get(classType);
+        }
+
+        notifyExtensionsLoaded(loadedExtensions);
+        return classLoader;
+    }
+
+    /**
+     * Loads all deferred NARs.
+     */
+    private static void loadDeferredNars() {
+        final List<Set<Class>> loadedExtensions = new ArrayList<>();
+        synchronized (ExtensionManager.class) {
+            if (!deferredNars.isEmpty()) {
+                logger.info("Loading the remaining {} NARs in order to list all extensions", deferredNars.size());
+            }
+
+            for (final File narWorkingDirectory : new ArrayList<>(deferredNars)) {
+                loadDeferredNar(narWorkingDirectory, loadedExtensions);
+            }
+        }
+
+        notifyExtensionsLoaded(loadedExtensions);
+    }
+
+    /**
+     * Notifies the callback of the extensions of NARs that have been loaded. Must not be called while holding the lock of this class,
+     * because the callback may request extensions, which could load further NARs.
+     *
+     * @param loadedExtensions the extensions of each NAR that has been loaded
+     */
+    private static void notifyExtensionsLoaded(final List<Set<Class>> loadedExtensions) {
+        final Consumer<Set<Class>> callback = extensionsLoadedCallback;
+        if (callback == null) {
+            return;
+        }
+
+        for (final Set<Class> extensions : loadedExtensions) {
+            try {
+                callback.accept(extensions);
+            } catch (final RuntimeException e) {
+                logger.warn("Failed to process loaded extensions {} due to {}", extensions, e.toString(), e);
+            }
+        }
+    }
+
+    /**
+     * Loads the specified deferred NAR, after any deferred NARs that it depends on. Must be called while holding the lock of this class.
+     *
+     * @param narWorkingDirectory the working directory of the NAR
+     * @param loadedExtensions to which the extensions of each NAR that is loaded are added
+     */
+    private static void loadDeferredNar(final File narWorkingDirectory, final List<Set<Class>> loadedExtensions) {
+        if (!deferredNars.contains(narWorkingDirectory)) {
+            // already loaded, e.g. as the ancestor of another NAR
+            return;
+        }
+
+        final ClassLoader narClassLoader = NarClassLoaders.getInstance().getExtensionClassLoader(narWorkingDirectory);
+
+        // the extensions of deferred ancestors must be registered first so that they are mapped to the ancestor's classloader
+        final List<NarClassLoader> narClassLoaders = new ArrayList<>();
+        for (ClassLoader loader = narClassLoader; loader instanceof NarClassLoader; loader = loader.getParent()) {
+            if (deferredNars.contains(((NarClassLoader) loader).getWorkingDirectory())) {
+                narClassLoaders.add(0, (NarClassLoader) loader);
+            }
+        }
+
+        if (narClassLoaders.isEmpty()) {
+            // the classloader could not be created
+            loadNar(narWorkingDirectory, null, loadedExtensions);
+        }
+
+        for (final NarClassLoader loader : narClassLoaders) {
+            loadNar(loader.getWorkingDirectory(), loader, loadedExtensions);
+        }
+    }
+
+    private static void loadNar(final File narWorkingDirectory, final ClassLoader narClassLoader, final List<Set<Class>> loadedExtensions) {
+        deferredNars.remove(narWorkingDirectory);
+        for (final Iterator<File> deferredIter = deferredExtensionLookup.values().iterator(); deferredIter.hasNext();) {
+            if (deferredIter.next().equals(narWorkingDirectory)) {
+                deferredIter.remove();
+            }
+        }
+
+        if (narClassLoader != null) {
+            logger.info("Loading deferred NAR {}", narWorkingDirectory);
+
+            final ClassLoader currentContextClassLoader = Thread.currentThread().getContextClassLoader();
+            Thread.currentThread().setContextClassLoader(narClassLoader);
+            try {
+                loadExtensions(narClassLoader);
+            } finally {
+                Thread.currentThread().setContextClassLoader(currentContextClassLoader);
+            }
+
+            final Set<Class> extensions = new HashSet<>();
+            for (final Set<Class> definitionExtensions : definitionMap.values()) {
+                for (final Class extension : definitionExtensions) {
+                    if (extensionClassloaderLookup.get(extension.getName()) == narClassLoader) {
+                        extensions.add(extension);
+                    }
+                }
+            }
+            loadedExtensions.add(extensions);
+        }
+
+        extensionsDeferred = !deferredNars.isEmpty();
+    }
+
+    /**
+     * Loads extensions from the specified class loader. The extensions of a NAR are read from its cache when the
+     * NAR and its ancestors are unchanged; otherwise they are discovered using the service provider API and cached.
      *
      * @param classLoader from which to load extensions
      */
     @SuppressWarnings("unchecked")
     private static void loadExtensions(final ClassLoader classLoader) {
+        final String cacheKey = ExtensionManifestCache.getKey(classLoader);
+        if (cacheKey != null && loadCachedExtensions(classLoader, cacheKey)) {
+            return;
+        }
+
+        final Map<String, List<String>> discoveredExtensions = new LinkedHashMap<>();
         for (final Map.Entry<Class, Set<Class>> entry : definitionMap.entrySet()) {
             final ServiceLoader<?> serviceLoader = ServiceLoader.load(entry.getKey(), classLoader);
 
+            final List<String> classNames = new ArrayList<>();
             for (final Object o : serviceLoader) {
                 registerServiceClass(o.getClass(), extensionClassloaderLookup, classLoader, entry.getValue());
+                classNames.add(o.getClass().getName());
+            }
+            discoveredExtensions.put(entry.getKey().getName(), classNames);
+        }
+
+        if (cacheKey != null) {
+            ExtensionManifestCache.write(((NarClassLoader) classLoader).getWorkingDirectory(), cacheKey, discoveredExtensions);
+        }
+    }
+
+    /**
+     * Loads extensions from the cache of the specified NAR class loader. Nothing is registered unless every cached
+     * extension can be loaded.
+     *
+     * @param classLoader from which to load extensions
+     * @param cacheKey the key of the cache
+     * @return <code>true</code> if the extensions were loaded from the cache, <code>false</code> if they must be discovered
+     */
+    private static boolean loadCachedExtensions(final ClassLoader classLoader, final String cacheKey) {
+        final Map<String, List<String>> cachedExtensions = ExtensionManifestCache.read(((NarClassLoader) classLoader).getWorkingDirectory(), cacheKey);
+        if (cachedExtensions == null) {
+            return false;
+        }
+
+        final Map<Class, List<Class<?>>> extensions = new LinkedHashMap<>();
+        for (final Class definition : definitionMap.keySet()) {
+            final List<String> classNames = cachedExtensions.get(definition.getName());
+            if (classNames == null) {
+                return false;
+            }
+
+            final List<Class<?>> types = new ArrayList<>(classNames.size());
+            for (final String className : classNames) {
+                try {
+                    // initialize the class as the service provider API would
+                    types.add(Class.forName(className, true, classLoader));
+                } catch (final ClassNotFoundException | LinkageError e) {
+                    logger.warn("Unable to load cached extension {} from {} due to {}; discovering extensions again", className, classLoader, e.toString());
+                    return false;
+                }
+            }
+            extensions.put(definition, types);
+        }
+
+        for (final Map.Entry<Class, List<Class<?>>> entry : extensions.entrySet()) {
+            for (final Class<?> type : entry.getValue()) {
+                registerServiceClass(type, extensionClassloaderLookup, classLoader, definitionMap.get(entry.getKey()));
             }
         }
+
+        logger.debug("Loaded extensions of {} from cache", classLoader);
+        return true;
     }
 
     /**
@@ -155,14 +429,41 @@ public class ExtensionManager {
      * @return String of fully qualified class name; null if not a detected type
      */
     public static ClassLoader getClassLoader(final String classType) {
-        return extensionClassloaderLookup.get(classType);
+        final ClassLoader classLoader = extensionClassloaderLookup.get(classType);
+        if (classLoader != null || !extensionsDeferred) {
+            return classLoader;
+        }
+
+        return loadDeferredExtension(classType);
     }
 
+    /**
+     * Returns the extensions of the given type. If any NARs have been deferred, they are all loaded first.
+     *
+     * @param definition the type of extension
+     * @return the extensions of the given type
+     */
     public static Set<Class> getExtensions(final Class<?> definition) {
+        if (extensionsDeferred) {
+            loadDeferredNars();
+        }
+
         final Set<Class> extensions = definitionMap.get(definition);
         return (extensions == null) ? Collections.<Class>emptySet() : extensions;
     }
 
+    /**
+     * Returns the extensions of the given type that have been loaded so far. Unlike {@link #getExtensions(Class)}, this does not load any NARs
+     * that have been deferred, so it may be used while a NAR is being loaded, such as to document its extensions.
+     *
+     * @param definition the type of extension
+     * @return the extensions of the given type that have been loaded
+     */
+    public static synchronized Set<Class> getLoadedExtensions(final Class<?> definition) {
+        final Set<Class> extensions = definitionMap.get(definition);
+        return (extensions == null) ? Collections.<Class>emptySet() : new HashSet<>(extensions);
+    }
+
     public static void logClassLoaderMapping() {
         final StringBuilder builder = new StringBuilder();
 
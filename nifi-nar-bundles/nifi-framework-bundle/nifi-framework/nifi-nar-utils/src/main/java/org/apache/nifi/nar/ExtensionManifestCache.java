@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.nar;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the extensions that were discovered in a NAR so that subsequent startups do not need to scan the NAR
+ * with the service provider API. The cache is stored in the NAR's working directory and is keyed by the MD5 sums of
+ * the NAR and of each NAR that it depends on, since the service provider API also reports the extensions of ancestor
+ * class loaders. A cache whose key does not match is ignored.
+ */
+final class ExtensionManifestCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtensionManifestCache.class);
+
+    static final String CACHE_FILENAME = "nar-extensions";
+    private static final String KEY_PROPERTY = "nar.key";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ExtensionManifestCache() {
+    }
+
+    /**
+     * @param classLoader the class loader to determine the key of
+     * @return the key of the cache for the given class loader, or <code>null</code> if the class loader is not a NAR
+     *         class loader or the MD5 sum of it or of one of its ancestors is not known
+     */
+    static String getKey(final ClassLoader classLoader) {
+        if (!(classLoader instanceof NarClassLoader)) {
+            return null;
+        }
+
+        final StringBuilder key = new StringBuilder();
+        for (ClassLoader loader = classLoader; loader instanceof NarClassLoader; loader = loader.getParent()) {
+            final File hashFile = new File(((NarClassLoader) loader).getWorkingDirectory(), NarUnpacker.HASH_FILENAME);
+            try {
+                final byte[] hash = Files.readAllBytes(hashFile.toPath());
+                if (key.length() > 0) {
+                    key.append(':');
+                }
+                for (final byte b : hash) {
+                    key.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                }
+            } catch (final IOException ioe) {
+                logger.debug("Unable to read {}; extensions of {} will not be cached", hashFile, classLoader);
+                return null;
+            }
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Reads the cached extensions of the given NAR.
+     *
+     * @param narWorkingDirectory the working directory of the NAR
+     * @param key the expected key of the cache
+     * @return the names of the extension classes, keyed by the name of the extension definition, or <code>null</code>
+     *         if there is no cache with the given key
+     */
+    static Map<String, List<String>> read(final File narWorkingDirectory, final String key) {
+        final File cacheFile = new File(narWorkingDirectory, CACHE_FILENAME);
+        if (!cacheFile.exists()) {
+            return null;
+        }
+
+        final Properties properties = new Properties();
+        try (final InputStream in = new FileInputStream(cacheFile)) {
+            properties.load(in);
+        } catch (final IOException ioe) {
+            logger.warn("Unable to read cached extensions from {} due to {}", cacheFile, ioe.toString());
+            return null;
+        }
+
+        if (!key.equals(properties.getProperty(KEY_PROPERTY))) {
+            return null;
+        }
+
+        final Map<String, List<String>> extensions = new LinkedHashMap<>();
+        for (final String definition : properties.stringPropertyNames()) {
+            if (KEY_PROPERTY.equals(definition)) {
+                continue;
+            }
+
+            final String classNames = properties.getProperty(definition).trim();
+            extensions.put(definition, classNames.isEmpty() ? new ArrayList<String>() : Arrays.asList(classNames.split(",")));
+        }
+        return extensions;
+    }
+
+    /**
+     * Writes the extensions of the given NAR to its cache. Failing to write the cache is not an error, as the
+     * extensions will simply be discovered again.
+     *
+     * @param narWorkingDirectory the working directory of the NAR
+     * @param key the key of the cache
+     * @param extensions the names of the extension classes, keyed by the name of the extension definition
+     */
+    static void write(final File narWorkingDirectory, final String key, final Map<String, List<String>> extensions) {
+        final Properties properties = new Properties();
+        properties.setProperty(KEY_PROPERTY, key);
+        for (final Map.Entry<String, List<String>> entry : extensions.entrySet()) {
+            final StringBuilder classNames = new StringBuilder();
+            for (final String className : entry.getValue()) {
+                if (classNames.length() > 0) {
+                    classNames.append(',');
+                }
+                classNames.append(className);
+            }
+            properties.setProperty(entry.getKey(), classNames.toString());
+        }
+
+        // write to a temporary file first so that a partially written cache is never read
+        final File cacheFile = new File(narWorkingDirectory, CACHE_FILENAME);
+        final File tempFile = new File(narWorkingDirectory, CACHE_FILENAME + ".tmp");
+        try {
+            try (final OutputStream out = new FileOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ioe) {
+            logger.warn("Unable to cache extensions in {} due to {}", cacheFile, ioe.toString());
+            tempFile.delete();
+        }
+    }
+}
@@ -53,16 +53,25 @@ public final class NarClassLoaders {
         private final File extensionWorkingDir;
         private final ClassLoader frameworkClassLoader;
         private final Map<String, ClassLoader> extensionClassLoaders;
+        private final Map<String, ClassLoader> narIdClassLoaders;
+        private final Map<String, NarDetails> deferredNars;
+        private final ClassLoader jettyClassLoader;
 
         private InitContext(
                 final File frameworkDir,
                 final File extensionDir,
                 final ClassLoader frameworkClassloader,
-                final Map<String, ClassLoader> extensionClassLoaders) {
+                final Map<String, ClassLoader> extensionClassLoaders,
+                final Map<String, ClassLoader> narIdClassLoaders,
+                final Map<String, NarDetails> deferredNars,
+                final ClassLoader jettyClassLoader) {
             this.frameworkWorkingDir = frameworkDir;
             this.extensionWorkingDir = extensionDir;
             this.frameworkClassLoader = frameworkClassloader;
             this.extensionClassLoaders = extensionClassLoaders;
+            this.narIdClassLoaders = narIdClassLoaders;
+            this.deferredNars = deferredNars;
+            this.jettyClassLoader = jettyClassLoader;
         }
     }
 
@@ -99,6 +108,25 @@ public final class NarClassLoaders {
      * directories cannot reinitialize or use a different pair of directories.
      */
     public void init(final File frameworkWorkingDir, final File extensionsWorkingDir) throws IOException, ClassNotFoundException {
+        init(frameworkWorkingDir, extensionsWorkingDir, false);
+    }
+
+    /**
+     * Initializes and loads the NarClassLoaders. This method must be called
+     * before the rest of the methods to access the classloaders are called and
+     * it can be safely called any number of times provided the same framework
+     * and extension working dirs are used.
+     *
+     * @param frameworkWorkingDir where to find framework artifacts
+     * @param extensionsWorkingDir where to find extension artifacts
+     * @param lazy whether the class loaders of extension NARs should only be
+     * created when first requested, rather than during initialization
+     * @throws java.io.IOException if any issue occurs while exploding nar working directories.
+     * @throws java.lang.ClassNotFoundException if unable to load class definition
+     * @throws IllegalStateException already initialized with a given pair of
+     * directories cannot reinitialize or use a different pair of directories.
+     */
+    public void init(final File frameworkWorkingDir, final File extensionsWorkingDir, final boolean lazy) throws IOException, ClassNotFoundException {
         if (frameworkWorkingDir == null || extensionsWorkingDir == null) {
             throw new NullPointerException("cannot have empty arguments");
         }
@@ -107,7 +135,7 @@ public final class NarClassLoaders {
             synchronized (this) {
                 ic = initContext;
                 if (ic == null) {
-                    initContext = ic = load(frameworkWorkingDir, extensionsWorkingDir);
+                    initContext = ic = load(frameworkWorkingDir, extensionsWorkingDir, lazy);
                 }
             }
         }
@@ -121,13 +149,15 @@ public final class NarClassLoaders {
     /**
      * Should be called at most once.
      */
-    private InitContext load(final File frameworkWorkingDir, final File extensionsWorkingDir) throws IOException, ClassNotFoundException {
+    private InitContext load(final File frameworkWorkingDir, final File extensionsWorkingDir, final boolean lazy) throws IOException, ClassNotFoundException {
         // get the system classloader
         final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
 
         // find all nar files and create class loaders for them.
         final Map<String, ClassLoader> extensionDirectoryClassLoaderLookup = new LinkedHashMap<>();
         final Map<String, ClassLoader> narIdClassLoaderLookup = new HashMap<>();
+        final Map<String, NarDetails> deferredNars = new LinkedHashMap<>();
+        ClassLoader jettyClassLoader = null;
 
         // make sure the nar directory is there and accessible
         FileUtils.ensureDirectoryExistAndCanAccess(frameworkWorkingDir);
@@ -161,7 +191,6 @@ public final class NarClassLoaders {
             }
 
             // attempt to locate the jetty nar
-            ClassLoader jettyClassLoader = null;
             for (final Iterator<NarDetails> narDetailsIter = narDetails.iterator(); narDetailsIter.hasNext();) {
                 final NarDetails narDetail = narDetailsIter.next();
 
@@ -193,16 +222,15 @@ public final class NarClassLoaders {
                     final String narDependencies = narDetail.getNarDependencyId();
 
                     // see if this class loader is eligible for loading
-                    ClassLoader narClassLoader = null;
-                    if (narDependencies == null) {
-                        narClassLoader = createNarClassLoader(narDetail.getNarWorkingDirectory(), jettyClassLoader);
-                    } else if (narIdClassLoaderLookup.containsKey(narDetail.getNarDependencyId())) {
-                        narClassLoader = createNarClassLoader(narDetail.getNarWorkingDirectory(), narIdClassLoaderLookup.get(narDetail.getNarDependencyId()));
-                    }
+                    final boolean eligible = narDependencies == null || narIdClassLoaderLookup.containsKey(narDependencies)
+                            || deferredNars.containsKey(narDependencies);
 
-                    // if we were able to create the nar class loader, store it and remove the details
-                    if (narClassLoader != null) {
-                        extensionDirectoryClassLoaderLookup.put(narDetail.getNarWorkingDirectory().getCanonicalPath(), narClassLoader);
+                    // when lazy, the class loaders of extensions are created once they are first requested
+                    if (eligible && lazy && !FRAMEWORK_NAR_ID.equals(narDetail.getNarId())) {
+                        deferredNars.put(narDetail.getNarId(), narDetail);
+                        narDetailsIter.remove();
+                    } else if (eligible) {
+                        final ClassLoader narClassLoader = createNarClassLoader(narDetail, jettyClassLoader, narIdClassLoaderLookup, deferredNars, extensionDirectoryClassLoaderLookup);
                         narIdClassLoaderLookup.put(narDetail.getNarId(), narClassLoader);
                         narDetailsIter.remove();
                     }
@@ -215,9 +243,47 @@ public final class NarClassLoaders {
             for (final NarDetails narDetail : narDetails) {
                 logger.warn(String.format("Unable to resolve required dependency '%s'. Skipping NAR %s", narDetail.getNarDependencyId(), narDetail.getNarWorkingDirectory().getAbsolutePath()));
             }
+
+            if (!deferredNars.isEmpty()) {
+                logger.info("Deferred creating class loaders for {} NARs until they are needed", deferredNars.size());
+            }
         }
 
-        return new InitContext(frameworkWorkingDir, extensionsWorkingDir, narIdClassLoaderLookup.get(FRAMEWORK_NAR_ID), new LinkedHashMap<>(extensionDirectoryClassLoaderLookup));
+        return new InitContext(frameworkWorkingDir, extensionsWorkingDir, narIdClassLoaderLookup.get(FRAMEWORK_NAR_ID), new LinkedHashMap<>(extensionDirectoryClassLoaderLookup),
+                narIdClassLoaderLookup, deferredNars, jettyClassLoader);
+    }
+
+    /**
+     * Creates the class loader for the specified NAR, first creating the class
+     * loaders of any deferred NARs that it depends on.
+     *
+     * @param narDetail the nar to create the class loader for
+     * @param jettyClassLoader the parent of nars without dependencies
+     * @param narIdClassLoaderLookup the class loaders that have been created, keyed by nar id
+     * @param deferredNars the nars whose class loaders have not been created, keyed by nar id
+     * @param extensionDirectoryClassLoaderLookup the class loaders that have been created, keyed by working directory
+     * @return the nar classloader
+     * @throws IOException ioe
+     * @throws ClassNotFoundException cfne
+     */
+    private static ClassLoader createNarClassLoader(final NarDetails narDetail, final ClassLoader jettyClassLoader, final Map<String, ClassLoader> narIdClassLoaderLookup,
+            final Map<String, NarDetails> deferredNars, final Map<String, ClassLoader> extensionDirectoryClassLoaderLookup) throws IOException, ClassNotFoundException {
+        final String narDependencyId = narDetail.getNarDependencyId();
+
+        final ClassLoader parentClassLoader;
+        if (narDependencyId == null) {
+            parentClassLoader = jettyClassLoader;
+        } else if (narIdClassLoaderLookup.containsKey(narDependencyId)) {
+            parentClassLoader = narIdClassLoaderLookup.get(narDependencyId);
+        } else {
+            final NarDetails dependency = deferredNars.remove(narDependencyId);
+            parentClassLoader = createNarClassLoader(dependency, jettyClassLoader, narIdClassLoaderLookup, deferredNars, extensionDirectoryClassLoaderLookup);
+            narIdClassLoaderLookup.put(narDependencyId, parentClassLoader);
+        }
+
+        final ClassLoader narClassLoader = createNarClassLoader(narDetail.getNarWorkingDirectory(), parentClassLoader);
+        extensionDirectoryClassLoaderLookup.put(narDetail.getNarWorkingDirectory().getCanonicalPath(), narClassLoader);
+        return narClassLoader;
     }
 
     /**
@@ -282,30 +348,70 @@ public final class NarClassLoaders {
      * @throws IllegalStateException if the class loaders have not been loaded
      */
     public ClassLoader getExtensionClassLoader(final File extensionWorkingDirectory) {
-        if (initContext == null) {
+        final InitContext ic = initContext;
+        if (ic == null) {
             throw new IllegalStateException("Extensions class loaders have not been loaded.");
         }
 
         try {
-            return initContext.extensionClassLoaders.get(extensionWorkingDirectory.getCanonicalPath());
-        } catch (final IOException ioe) {
-            if(logger.isDebugEnabled()){
-                logger.debug("Unable to get extension classloader for working directory '{}'", extensionWorkingDirectory);
+            final String extensionWorkingPath = extensionWorkingDirectory.getCanonicalPath();
+            synchronized (ic) {
+                final ClassLoader extensionClassLoader = ic.extensionClassLoaders.get(extensionWorkingPath);
+                if (extensionClassLoader != null) {
+                    return extensionClassLoader;
+                }
+
+                // create the class loader if its creation was deferred
+                for (final NarDetails narDetail : ic.deferredNars.values()) {
+                    if (narDetail.getNarWorkingDirectory().getCanonicalPath().equals(extensionWorkingPath)) {
+                        ic.deferredNars.remove(narDetail.getNarId());
+                        final ClassLoader narClassLoader = createNarClassLoader(narDetail, ic.jettyClassLoader, ic.narIdClassLoaders, ic.deferredNars, ic.extensionClassLoaders);
+                        ic.narIdClassLoaders.put(narDetail.getNarId(), narClassLoader);
+                        return narClassLoader;
+                    }
+                }
             }
             return null;
+        } catch (final IOException | ClassNotFoundException e) {
+            logger.error("Unable to get extension classloader for working directory '{}' due to {}", extensionWorkingDirectory, e.toString());
+            return null;
         }
     }
 
     /**
-     * @return the extension class loaders
+     * @return the extension class loaders that have been created
      * @throws IllegalStateException if the class loaders have not been loaded
      */
     public Set<ClassLoader> getExtensionClassLoaders() {
-        if (initContext == null) {
+        final InitContext ic = initContext;
+        if (ic == null) {
             throw new IllegalStateException("Extensions class loaders have not been loaded.");
         }
 
-        return new LinkedHashSet<>(initContext.extensionClassLoaders.values());
+        synchronized (ic) {
+            return new LinkedHashSet<>(ic.extensionClassLoaders.values());
+        }
+    }
+
+    /**
+     * @return the working directories of the extension NARs whose class loaders
+     * have not been created yet; the class loader of each is created when first
+     * requested from {@link #getExtensionClassLoader(File)}
+     * @throws IllegalStateException if the class loaders have not been loaded
+     */
+    public Set<File> getDeferredExtensionWorkingDirectories() {
+        final InitContext ic = initContext;
+        if (ic == null) {
+            throw new IllegalStateException("Extensions class loaders have not been loaded.");
+        }
+
+        final Set<File> deferredWorkingDirectories = new LinkedHashSet<>();
+        synchronized (ic) {
+            for (final NarDetails narDetail : ic.deferredNars.values()) {
+                deferredWorkingDirectories.add(narDetail.getNarWorkingDirectory());
+            }
+        }
+        return deferredWorkingDirectories;
     }
 
     private static class NarDetails {
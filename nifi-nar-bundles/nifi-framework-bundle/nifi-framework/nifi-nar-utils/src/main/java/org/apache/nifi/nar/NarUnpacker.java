@@ -34,6 +34,13 @@ import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -51,7 +58,7 @@ import org.slf4j.LoggerFactory;
 public final class NarUnpacker {
 
     private static final Logger logger = LoggerFactory.getLogger(NarUnpacker.class);
-    private static String HASH_FILENAME = "nar-md5sum";
+    static final String HASH_FILENAME = "nar-md5sum";
     private static final FileFilter NAR_FILTER = new FileFilter() {
         @Override
         public boolean accept(File pathname) {
@@ -89,28 +96,18 @@ public final class NarUnpacker {
             }
 
             if (!narFiles.isEmpty()) {
-                for (File narFile : narFiles) {
-                    logger.debug("Expanding NAR file: " + narFile.getAbsolutePath());
-
-                    // get the manifest for this nar
-                    try (final JarFile nar = new JarFile(narFile)) {
-                        final Manifest manifest = nar.getManifest();
-
-                        // lookup the nar id
-                        final Attributes attributes = manifest.getMainAttributes();
-                        final String narId = attributes.getValue("Nar-Id");
-
-                        // determine if this is the framework
-                        if (NarClassLoaders.FRAMEWORK_NAR_ID.equals(narId)) {
-                            if (unpackedFramework != null) {
-                                throw new IllegalStateException(
-                                        "Multiple framework NARs discovered. Only one framework is permitted.");
-                            }
-
-                            unpackedFramework = unpackNar(narFile, frameworkWorkingDir);
-                        } else {
-                            unpackedExtensions.add(unpackNar(narFile, extensionsWorkingDir));
+                final List<UnpackedNar> unpackedNars = unpackNars(narFiles, frameworkWorkingDir, extensionsWorkingDir);
+                for (final UnpackedNar unpackedNar : unpackedNars) {
+                    // determine if this is the framework
+                    if (unpackedNar.isFramework()) {
+                        if (unpackedFramework != null) {
+                            throw new IllegalStateException(
+                                    "Multiple framework NARs discovered. Only one framework is permitted.");
                         }
+
+                        unpackedFramework = unpackedNar.getWorkingDirectory();
+                    } else {
+                        unpackedExtensions.add(unpackedNar.getWorkingDirectory());
                     }
                 }
 
@@ -169,6 +166,88 @@ public final class NarUnpacker {
         return null;
     }
 
+    /**
+     * Unpacks the specified NARs. Hashing and unpacking are dominated by I/O and
+     * decompression, so the NARs are processed concurrently.
+     *
+     * @param narFiles
+     *            the nars to unpack
+     * @param frameworkWorkingDir
+     *            the directory to unpack the framework nar to
+     * @param extensionsWorkingDir
+     *            the directory to unpack all other nars to
+     * @return the unpacked nars, in the same order as the specified nar files
+     * @throws IOException
+     *             if unable to unpack any of the nars
+     */
+    private static List<UnpackedNar> unpackNars(final List<File> narFiles, final File frameworkWorkingDir,
+            final File extensionsWorkingDir) throws IOException {
+        final int numThreads = Math.max(1, Math.min(narFiles.size(), Runtime.getRuntime().availableProcessors()));
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread t = new Thread(r, "Unpack NARs-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        try {
+            final List<Future<UnpackedNar>> futures = new ArrayList<>(narFiles.size());
+            for (final File narFile : narFiles) {
+                futures.add(executor.submit(new Callable<UnpackedNar>() {
+                    @Override
+                    public UnpackedNar call() throws IOException {
+                        return unpackNar(narFile, frameworkWorkingDir, extensionsWorkingDir);
+                    }
+                }));
+            }
+
+            final List<UnpackedNar> unpackedNars = new ArrayList<>(narFiles.size());
+            for (final Future<UnpackedNar> future : futures) {
+                try {
+                    unpackedNars.add(future.get());
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while unpacking NAR files", ie);
+                } catch (final ExecutionException ee) {
+                    final Throwable cause = ee.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException(cause);
+                }
+            }
+
+            return unpackedNars;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static UnpackedNar unpackNar(final File narFile, final File frameworkWorkingDir,
+            final File extensionsWorkingDir) throws IOException {
+        logger.debug("Expanding NAR file: " + narFile.getAbsolutePath());
+
+        // get the manifest for this nar
+        try (final JarFile nar = new JarFile(narFile)) {
+            final Manifest manifest = nar.getManifest();
+
+            // lookup the nar id
+            final Attributes attributes = manifest.getMainAttributes();
+            final String narId = attributes.getValue("Nar-Id");
+
+            // determine if this is the framework
+            final boolean framework = NarClassLoaders.FRAMEWORK_NAR_ID.equals(narId);
+            final File workingDirectory = unpackNar(narFile, framework ? frameworkWorkingDir : extensionsWorkingDir);
+            return new UnpackedNar(workingDirectory, framework);
+        }
+    }
+
     private static void mapExtensions(final File workingDirectory, final File docsDirectory,
             final ExtensionMapping mapping) throws IOException {
         final File[] directoryContents = workingDirectory.listFiles();
@@ -316,7 +395,7 @@ public final class NarUnpacker {
         }
     }
 
-    private static List<String> determineDocumentedNiFiComponents(final JarFile jarFile,
+    static List<String> determineDocumentedNiFiComponents(final JarFile jarFile,
             final JarEntry jarEntry) throws IOException {
         final List<String> componentNames = new ArrayList<>();
 
@@ -377,7 +456,7 @@ public final class NarUnpacker {
         try (final FileInputStream inputStream = new FileInputStream(file)) {
             final MessageDigest md5 = MessageDigest.getInstance("md5");
 
-            final byte[] buffer = new byte[1024];
+            final byte[] buffer = new byte[65536];
             int read = inputStream.read(buffer);
 
             while (read > -1) {
@@ -393,4 +472,23 @@ public final class NarUnpacker {
 
     private NarUnpacker() {
     }
+
+    private static class UnpackedNar {
+
+        private final File workingDirectory;
+        private final boolean framework;
+
+        private UnpackedNar(final File workingDirectory, final boolean framework) {
+            this.workingDirectory = workingDirectory;
+            this.framework = framework;
+        }
+
+        public File getWorkingDirectory() {
+            return workingDirectory;
+        }
+
+        public boolean isFramework() {
+            return framework;
+        }
+    }
 }
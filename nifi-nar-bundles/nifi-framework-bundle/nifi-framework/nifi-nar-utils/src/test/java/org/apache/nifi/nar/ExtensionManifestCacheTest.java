@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.nar;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExtensionManifestCacheTest {
+
+    private File createNarWorkingDirectory(final String name, final byte[] hash) throws IOException {
+        final File narWorkingDirectory = new File("./target/ExtensionManifestCache/" + name);
+        narWorkingDirectory.mkdirs();
+        new File(narWorkingDirectory, ExtensionManifestCache.CACHE_FILENAME).delete();
+        Files.write(new File(narWorkingDirectory, NarUnpacker.HASH_FILENAME).toPath(), hash);
+        return narWorkingDirectory;
+    }
+
+    @Test
+    public void testKeyIncludesAncestors() throws Exception {
+        final File parentDirectory = createNarWorkingDirectory("parent.nar-unpacked", new byte[] {0x01, (byte) 0xAB});
+        final File childDirectory = createNarWorkingDirectory("child.nar-unpacked", new byte[] {0x7F});
+
+        final NarClassLoader parent = new NarClassLoader(parentDirectory);
+        final NarClassLoader child = new NarClassLoader(childDirectory, parent);
+
+        assertEquals("01ab", ExtensionManifestCache.getKey(parent));
+        assertEquals("7f:01ab", ExtensionManifestCache.getKey(child));
+        assertNull(ExtensionManifestCache.getKey(ClassLoader.getSystemClassLoader()));
+
+        // without the hash of an ancestor the extensions cannot be cached
+        new File(parentDirectory, NarUnpacker.HASH_FILENAME).delete();
+        assertNull(ExtensionManifestCache.getKey(child));
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        final File narWorkingDirectory = createNarWorkingDirectory("cache.nar-unpacked", new byte[] {0x00});
+        assertNull(ExtensionManifestCache.read(narWorkingDirectory, "00"));
+
+        final Map<String, List<String>> extensions = new LinkedHashMap<>();
+        extensions.put("org.apache.nifi.processor.Processor", Arrays.asList("org.apache.nifi.processors.One", "org.apache.nifi.processors.Two"));
+        extensions.put("org.apache.nifi.reporting.ReportingTask", Collections.<String>emptyList());
+        ExtensionManifestCache.write(narWorkingDirectory, "00", extensions);
+
+        final Map<String, List<String>> cached = ExtensionManifestCache.read(narWorkingDirectory, "00");
+        assertEquals(2, cached.size());
+        assertEquals(extensions.get("org.apache.nifi.processor.Processor"), cached.get("org.apache.nifi.processor.Processor"));
+        assertEquals(0, cached.get("org.apache.nifi.reporting.ReportingTask").size());
+
+        // a cache for a different version of the nar is ignored
+        assertNull(ExtensionManifestCache.read(narWorkingDirectory, "01"));
+    }
+}
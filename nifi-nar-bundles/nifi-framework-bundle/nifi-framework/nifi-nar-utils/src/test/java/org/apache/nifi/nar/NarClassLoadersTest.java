@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.nar;
+
+import org.apache.nifi.controller.AbstractControllerService;
+import org.apache.nifi.controller.ControllerService;
+import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.Processor;
+import org.apache.nifi.util.FileUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NarClassLoadersTest {
+
+    private static File frameworkWorkingDir;
+    private static File extensionsWorkingDir;
+
+    @BeforeClass
+    public static void createNars() throws IOException, ClassNotFoundException {
+        final File workingDir = new File("./target/NarClassLoaders/work");
+        if (workingDir.exists()) {
+            FileUtils.deleteFile(workingDir, true);
+        }
+
+        frameworkWorkingDir = new File(workingDir, "framework");
+        extensionsWorkingDir = new File(workingDir, "extensions");
+        createNar(frameworkWorkingDir, NarClassLoaders.JETTY_NAR_ID, null, null, null);
+        createNar(frameworkWorkingDir, NarClassLoaders.FRAMEWORK_NAR_ID, null, null, null);
+        createNar(extensionsWorkingDir, "standalone-nar", null, null, null);
+        createNar(extensionsWorkingDir, "services-nar", null, ControllerService.class, DeferredControllerService.class);
+        createNar(extensionsWorkingDir, "processors-nar", "services-nar", Processor.class, DeferredProcessor.class);
+
+        NarClassLoaders.getInstance().init(frameworkWorkingDir, extensionsWorkingDir, true);
+    }
+
+    private static void createNar(final File parentDir, final String narId, final String dependencyId, final Class<?> definition, final Class<?> extension)
+            throws IOException {
+        final File narDir = new File(parentDir, narId);
+        final File dependenciesDir = new File(narDir, "META-INF/bundled-dependencies");
+        assertTrue(dependenciesDir.mkdirs());
+
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Nar-Id", narId);
+        if (dependencyId != null) {
+            manifest.getMainAttributes().putValue("Nar-Dependency-Id", dependencyId);
+        }
+        try (final OutputStream out = new FileOutputStream(new File(narDir, "META-INF/MANIFEST.MF"))) {
+            manifest.write(out);
+        }
+
+        // the extension classes themselves are on the test classpath, so the jar only has to declare them
+        try (final JarOutputStream jar = new JarOutputStream(new FileOutputStream(new File(dependenciesDir, narId + ".jar")))) {
+            if (definition != null) {
+                jar.putNextEntry(new JarEntry("META-INF/services/" + definition.getName()));
+                jar.write((extension.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+        }
+    }
+
+    private static File getNarDir(final String narId) {
+        return new File(extensionsWorkingDir, narId);
+    }
+
+    @Test
+    public void testLazyInitCreatesClassLoaderOnRequest() throws IOException {
+        final NarClassLoaders narClassLoaders = NarClassLoaders.getInstance();
+        assertNotNull(narClassLoaders.getFrameworkClassLoader());
+
+        final File standaloneDir = getNarDir("standalone-nar");
+        assertTrue(narClassLoaders.getDeferredExtensionWorkingDirectories().contains(standaloneDir));
+        for (final ClassLoader classLoader : narClassLoaders.getExtensionClassLoaders()) {
+            assertFalse(standaloneDir.getCanonicalFile().equals(((NarClassLoader) classLoader).getWorkingDirectory().getCanonicalFile()));
+        }
+
+        final ClassLoader classLoader = narClassLoaders.getExtensionClassLoader(standaloneDir);
+        assertNotNull(classLoader);
+        assertSame(classLoader, narClassLoaders.getExtensionClassLoader(standaloneDir));
+        assertFalse(narClassLoaders.getDeferredExtensionWorkingDirectories().contains(standaloneDir));
+        assertTrue(narClassLoaders.getExtensionClassLoaders().contains(classLoader));
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testDeferredNarLoadedOnFirstRequest() {
+        final NarClassLoaders narClassLoaders = NarClassLoaders.getInstance();
+        final Set<File> deferredDirs = narClassLoaders.getDeferredExtensionWorkingDirectories();
+        assertTrue(deferredDirs.contains(getNarDir("services-nar")));
+        assertTrue(deferredDirs.contains(getNarDir("processors-nar")));
+
+        final List<Set<Class>> loaded = Collections.synchronizedList(new ArrayList<>());
+        ExtensionManager.discoverExtensions(narClassLoaders.getExtensionClassLoaders(), deferredDirs, extensions -> {
+            // the callback may request extensions, as documentation does, because it is not called while holding the lock
+            assertFalse(Thread.holdsLock(ExtensionManager.class));
+            ExtensionManager.getLoadedExtensions(ControllerService.class);
+            loaded.add(extensions);
+        });
+
+        // nothing of the deferred nars has been loaded yet
+        assertEquals(1, loaded.size());
+        assertFalse(loaded.get(0).contains(DeferredProcessor.class));
+        assertFalse(ExtensionManager.getLoadedExtensions(Processor.class).contains(DeferredProcessor.class));
+
+        // requesting the processor loads its nar after the nar that it depends on
+        final ClassLoader processorClassLoader = ExtensionManager.getClassLoader(DeferredProcessor.class.getName());
+        assertNotNull(processorClassLoader);
+        assertEquals(getNarDir("processors-nar"), ((NarClassLoader) processorClassLoader).getWorkingDirectory());
+        assertSame(processorClassLoader.getParent(), ExtensionManager.getClassLoader(DeferredControllerService.class.getName()));
+
+        assertEquals(3, loaded.size());
+        assertEquals(Collections.singleton(DeferredControllerService.class), loaded.get(1));
+        assertEquals(Collections.singleton(DeferredProcessor.class), loaded.get(2));
+
+        // a nar is loaded only once
+        assertSame(processorClassLoader, ExtensionManager.getClassLoader(DeferredProcessor.class.getName()));
+        assertTrue(ExtensionManager.getLoadedExtensions(Processor.class).contains(DeferredProcessor.class));
+        assertEquals(1, countLoaded(loaded, DeferredProcessor.class));
+        assertEquals(1, countLoaded(loaded, DeferredControllerService.class));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static int countLoaded(final List<Set<Class>> loaded, final Class<?> extension) {
+        int count = 0;
+        synchronized (loaded) {
+            for (final Set<Class> extensions : loaded) {
+                if (extensions.contains(extension)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public static class DeferredProcessor extends AbstractProcessor {
+        @Override
+        public void onTrigger(final ProcessContext context, final ProcessSession session) {
+        }
+    }
+
+    public static class DeferredControllerService extends AbstractControllerService {
+    }
+}
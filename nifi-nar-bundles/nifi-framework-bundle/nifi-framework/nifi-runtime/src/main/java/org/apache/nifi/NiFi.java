@@ -23,7 +23,9 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.Executors;
@@ -120,10 +122,14 @@ public class NiFi {
         SLF4JBridgeHandler.install();
 
         // expand the nars
+        final StartupTimer startupTimer = new StartupTimer();
         final ExtensionMapping extensionMapping = NarUnpacker.unpackNars(properties);
+        startupTimer.phaseCompleted("unpack NARs");
 
         // load the extensions classloaders
-        NarClassLoaders.getInstance().init(properties.getFrameworkWorkingDirectory(), properties.getExtensionsWorkingDirectory());
+        final boolean lazyNarLoading = properties.isNarLazyLoadingEnabled();
+        NarClassLoaders.getInstance().init(properties.getFrameworkWorkingDirectory(), properties.getExtensionsWorkingDirectory(), lazyNarLoading);
+        startupTimer.phaseCompleted("create NAR class loaders");
 
         // load the framework classloader
         final ClassLoader frameworkClassLoader = NarClassLoaders.getInstance().getFrameworkClassLoader();
@@ -132,10 +138,21 @@ public class NiFi {
         }
 
         // discover the extensions
-        ExtensionManager.discoverExtensions(NarClassLoaders.getInstance().getExtensionClassLoaders());
-        ExtensionManager.logClassLoaderMapping();
+        if (lazyNarLoading) {
+            // document the extensions of the remaining nars as they are loaded
+            ExtensionManager.discoverExtensions(NarClassLoaders.getInstance().getExtensionClassLoaders(),
+                    NarClassLoaders.getInstance().getDeferredExtensionWorkingDirectories(),
+                    extensionClasses -> DocGenerator.generate(properties, extensionClasses));
+            ExtensionManager.logClassLoaderMapping();
+            startupTimer.phaseCompleted("discover extensions");
+        } else {
+            ExtensionManager.discoverExtensions(NarClassLoaders.getInstance().getExtensionClassLoaders());
+            ExtensionManager.logClassLoaderMapping();
+            startupTimer.phaseCompleted("discover extensions");
 
-        DocGenerator.generate(properties);
+            DocGenerator.generate(properties);
+            startupTimer.phaseCompleted("generate documentation");
+        }
 
         // load the server from the framework classloader
         Thread.currentThread().setContextClassLoader(frameworkClassLoader);
@@ -145,11 +162,13 @@ public class NiFi {
         final long startTime = System.nanoTime();
         nifiServer = (NiFiServer) jettyConstructor.newInstance(properties);
         nifiServer.setExtensionMapping(extensionMapping);
+        startupTimer.phaseCompleted("create web server");
 
         if (shutdown) {
             logger.info("NiFi has been shutdown via NiFi Bootstrap. Will not start Controller");
         } else {
             nifiServer.start();
+            startupTimer.phaseCompleted("start web server");
 
             if (bootstrapListener != null) {
                 bootstrapListener.sendStartedStatus(true);
@@ -157,6 +176,33 @@ public class NiFi {
 
             final long endTime = System.nanoTime();
             logger.info("Controller initialization took " + (endTime - startTime) + " nanoseconds.");
+            logger.info(startupTimer.toString());
+        }
+    }
+
+    /**
+     * Records how long each phase of startup took so that slow startups can be diagnosed.
+     */
+    private static class StartupTimer {
+
+        private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+        private final long startNanos = System.nanoTime();
+        private long phaseStartNanos = startNanos;
+
+        public void phaseCompleted(final String phase) {
+            final long now = System.nanoTime();
+            phaseMillis.put(phase, TimeUnit.NANOSECONDS.toMillis(now - phaseStartNanos));
+            phaseStartNanos = now;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder("Startup timing (total ");
+            builder.append(TimeUnit.NANOSECONDS.toMillis(phaseStartNanos - startNanos)).append(" millis):");
+            for (final Map.Entry<String, Long> entry : phaseMillis.entrySet()) {
+                builder.append("\n\t").append(entry.getKey()).append(": ").append(entry.getValue()).append(" millis");
+            }
+            return builder.toString();
         }
     }
 
@@ -40,11 +40,26 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.nifi.remote.cluster.ClusterNodeInformation;
 import org.apache.nifi.util.NiFiProperties;
@@ -53,13 +68,20 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
 
     public static final String DEFAULT_FLOWFILE_PATH = "./";
 
+    private static final long SELECT_TIMEOUT_MILLIS = 1000L;
+    // how long a new connection may wait before sending anything, matching the default timeout of the socket streams
+    private static final long HANDSHAKE_TIMEOUT_MILLIS = 30000L;
+
     private final int socketPort;
     private final SSLContext sslContext;
     private final NodeInformant nodeInformant;
     private final AtomicReference<ProcessGroup> rootGroup = new AtomicReference<>();
     private final NiFiProperties nifiProperties;
+    private final boolean selectorEnabled;
+    private final int workerThreads;
 
     private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private volatile Selector selector;
 
     private static final Logger LOG = LoggerFactory.getLogger(SocketRemoteSiteListener.class);
 
@@ -72,6 +94,11 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
         this.sslContext = sslContext;
         this.nifiProperties = nifiProperties;
         this.nodeInformant = nodeInformant;
+        this.selectorEnabled = nifiProperties.isSiteToSiteSocketSelectorEnabled();
+        this.workerThreads = nifiProperties.getSiteToSiteSocketWorkerThreads();
+        if (selectorEnabled && workerThreads < 1) {
+            throw new IllegalArgumentException(NiFiProperties.SITE_TO_SITE_SOCKET_WORKER_THREADS + " must be at least 1 but was " + workerThreads);
+        }
     }
 
     @Override
@@ -81,23 +108,23 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
 
     @Override
     public void start() throws IOException {
-        final boolean secure = (sslContext != null);
-
         final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
         serverSocketChannel.configureBlocking(true);
         serverSocketChannel.bind(new InetSocketAddress(socketPort));
         stopped.set(false);
 
+        if (selectorEnabled) {
+            startSelector(serverSocketChannel);
+            return;
+        }
+
         final Thread listenerThread = new Thread(new Runnable() {
             private int threadCount = 0;
 
             @Override
             public void run() {
                 while (!stopped.get()) {
-                    final ProcessGroup processGroup = rootGroup.get();
-                    // If nodeInformant is not null, we are in clustered mode, which means that we don't care about
-                    // the processGroup.
-                    if ((nodeInformant == null) && (processGroup == null || (processGroup.getInputPorts().isEmpty() && processGroup.getOutputPorts().isEmpty()))) {
+                    if (!isAcceptingConnections()) {
                         try {
                             Thread.sleep(2000L);
                         } catch (final Exception e) {
@@ -130,196 +157,28 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
                     if (stopped.get()) {
                         return;
                     }
-                    final Socket socket = acceptedSocket;
-                    final SocketChannel socketChannel = socket.getChannel();
+                    final SocketChannel socketChannel = acceptedSocket.getChannel();
                     final Thread thread = new Thread(new Runnable() {
                         @Override
                         public void run() {
-                            LOG.debug("{} Determining URL of connection", this);
-                            final InetAddress inetAddress = socket.getInetAddress();
-                            String hostname = inetAddress.getHostName();
-                            final int slashIndex = hostname.indexOf("/");
-                            if (slashIndex == 0) {
-                                hostname = hostname.substring(1);
-                            } else if (slashIndex > 0) {
-                                hostname = hostname.substring(0, slashIndex);
-                            }
-
-                            final int port = socket.getPort();
-                            final String peerUri = "nifi://" + hostname + ":" + port;
-                            LOG.debug("{} Connection URL is {}", this, peerUri);
-
-                            final CommunicationsSession commsSession;
-                            final String dn;
-                            try {
-                                if (secure) {
-                                    final SSLSocketChannel sslSocketChannel = new SSLSocketChannel(sslContext, socketChannel, false);
-                                    LOG.trace("Channel is secure; connecting...");
-                                    sslSocketChannel.connect();
-                                    LOG.trace("Channel connected");
-
-                                    commsSession = new SSLSocketChannelCommunicationsSession(sslSocketChannel);
-                                    dn = sslSocketChannel.getDn();
-                                    commsSession.setUserDn(dn);
-                                } else {
-                                    LOG.trace("{} Channel is not secure", this);
-                                    commsSession = new SocketChannelCommunicationsSession(socketChannel);
-                                    dn = null;
-                                }
-                            } catch (final Exception e) {
-                                LOG.error("RemoteSiteListener Unable to accept connection from {} due to {}", socket, e.toString());
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.error("", e);
-                                }
-                                try {
-                                    socketChannel.close();
-                                } catch (IOException swallow) {
-                                }
-                                return;
-                            }
-
-                            LOG.info("Received connection from {}, User DN: {}", socket.getInetAddress(), dn);
-
-                            final InputStream socketIn;
-                            final OutputStream socketOut;
-
-                            try {
-                                socketIn = commsSession.getInput().getInputStream();
-                                socketOut = commsSession.getOutput().getOutputStream();
-                            } catch (final IOException e) {
-                                LOG.error("Connection dropped from {} before any data was transmitted", peerUri);
-                                try {
-                                    commsSession.close();
-                                } catch (final IOException ioe) {
-                                }
-
+                            final PeerConnection connection = establishConnection(socketChannel);
+                            if (connection == null) {
                                 return;
                             }
 
-                            final DataInputStream dis = new DataInputStream(socketIn);
-                            final DataOutputStream dos = new DataOutputStream(socketOut);
-
-                            ServerProtocol protocol = null;
-                            Peer peer = null;
                             try {
-                                // ensure that we are communicating with another NiFi
-                                LOG.debug("Verifying magic bytes...");
-                                verifyMagicBytes(dis, peerUri);
-
-                                LOG.debug("Receiving Server Protocol Negotiation");
-                                protocol = RemoteResourceFactory.receiveServerProtocolNegotiation(dis, dos);
-                                protocol.setRootProcessGroup(rootGroup.get());
-                                protocol.setNodeInformant(nodeInformant);
-
-                                final PeerDescription description = new PeerDescription("localhost", getPort(), sslContext != null);
-                                peer = new Peer(description, commsSession, peerUri, "nifi://localhost:" + getPort());
-                                LOG.debug("Handshaking....");
-                                protocol.handshake(peer);
-
-                                if (!protocol.isHandshakeSuccessful()) {
-                                    LOG.error("Handshake failed with {}; closing connection", peer);
-                                    try {
-                                        peer.close();
-                                    } catch (final IOException e) {
-                                        LOG.warn("Failed to close {} due to {}", peer, e);
-                                    }
-
-                                    // no need to shutdown protocol because we failed to perform handshake
-                                    return;
+                                while (!connection.protocol.isShutdown()) {
+                                    handleRequest(connection);
                                 }
-
-                                commsSession.setTimeout((int) protocol.getRequestExpiration());
-
-                                LOG.info("Successfully negotiated ServerProtocol {} Version {} with {}", new Object[]{
-                                    protocol.getResourceName(), protocol.getVersionNegotiator().getVersion(), peer});
-
-                                try {
-                                    while (!protocol.isShutdown()) {
-                                        LOG.trace("Getting Protocol Request Type...");
-
-                                        int timeoutCount = 0;
-                                        RequestType requestType = null;
-
-                                        while (requestType == null) {
-                                            try {
-                                                requestType = protocol.getRequestType(peer);
-                                            } catch (final SocketTimeoutException e) {
-                                                // Give the timeout a bit longer (twice as long) to receive the Request Type,
-                                                // in order to attempt to receive more data without shutting down the socket if we don't
-                                                // have to.
-                                                LOG.debug("{} Timed out waiting to receive RequestType using {} with {}", new Object[]{this, protocol, peer});
-                                                timeoutCount++;
-                                                requestType = null;
-
-                                                if (timeoutCount >= 2) {
-                                                    throw e;
-                                                }
-                                            }
-                                        }
-
-                                        LOG.debug("Request type from {} is {}", protocol, requestType);
-                                        switch (requestType) {
-                                            case NEGOTIATE_FLOWFILE_CODEC:
-                                                protocol.negotiateCodec(peer);
-                                                break;
-                                            case RECEIVE_FLOWFILES:
-                                                // peer wants to receive FlowFiles, so we will transfer FlowFiles.
-                                                protocol.getPort().transferFlowFiles(peer, protocol);
-                                                break;
-                                            case SEND_FLOWFILES:
-                                                // Peer wants to send FlowFiles, so we will receive.
-                                                protocol.getPort().receiveFlowFiles(peer, protocol);
-                                                break;
-                                            case REQUEST_PEER_LIST:
-                                                final Optional<ClusterNodeInformation> nodeInfo = (nodeInformant == null) ? Optional.empty() : Optional.of(nodeInformant.getNodeInformation());
-                                                protocol.sendPeerList(
-                                                        peer,
-                                                        nodeInfo,
-                                                        nifiProperties.getRemoteInputHost(),
-                                                        nifiProperties.getRemoteInputPort(),
-                                                        nifiProperties.getRemoteInputHttpPort(),
-                                                        nifiProperties.isSiteToSiteSecure());
-                                                break;
-                                            case SHUTDOWN:
-                                                protocol.shutdown(peer);
-                                                break;
-                                        }
-                                    }
-                                    LOG.debug("Finished communicating with {} ({})", peer, protocol);
-                                } catch (final Exception e) {
-                                    LOG.error("Unable to communicate with remote instance {} ({}) due to {}; closing connection", peer, protocol, e.toString());
-                                    if (LOG.isDebugEnabled()) {
-                                        LOG.error("", e);
-                                    }
-                                }
-                            } catch (final IOException e) {
-                                LOG.error("Unable to communicate with remote instance {} due to {}; closing connection", peer, e.toString());
+                                LOG.debug("Finished communicating with {} ({})", connection.peer, connection.protocol);
+                            } catch (final Exception e) {
+                                LOG.error("Unable to communicate with remote instance {} ({}) due to {}; closing connection",
+                                    connection.peer, connection.protocol, e.toString());
                                 if (LOG.isDebugEnabled()) {
                                     LOG.error("", e);
                                 }
-                            } catch (final Throwable t) {
-                                LOG.error("Handshake failed when communicating with {}; closing connection. Reason for failure: {}", peerUri, t.toString());
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.error("", t);
-                                }
                             } finally {
-                                LOG.trace("Cleaning up");
-                                try {
-                                    if (protocol != null && peer != null) {
-                                        protocol.shutdown(peer);
-                                    }
-                                } catch (final Exception protocolException) {
-                                    LOG.warn("Failed to shutdown protocol due to {}", protocolException.toString());
-                                }
-
-                                try {
-                                    if (peer != null) {
-                                        peer.close();
-                                    }
-                                } catch (final Exception peerException) {
-                                    LOG.warn("Failed to close peer due to {}; some resources may not be appropriately cleaned up", peerException.toString());
-                                }
-                                LOG.trace("Finished cleaning up");
+                                cleanup(connection.protocol, connection.peer);
                             }
                         }
                     });
@@ -333,6 +192,253 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
         listenerThread.start();
     }
 
+    private void startSelector(final ServerSocketChannel serverSocketChannel) throws IOException {
+        final Selector selector = Selector.open();
+        serverSocketChannel.configureBlocking(false);
+        final SelectionKey serverKey = serverSocketChannel.register(selector, 0);
+
+        final ExecutorService workerPool = Executors.newFixedThreadPool(workerThreads, new ThreadFactory() {
+            private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+            private final AtomicInteger threadCount = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = defaultFactory.newThread(r);
+                thread.setName("Site-to-Site Worker Thread-" + threadCount.getAndIncrement());
+                return thread;
+            }
+        });
+
+        this.selector = selector;
+        final Thread selectorThread = new Thread(new SelectorTask(selector, serverKey, workerPool));
+        selectorThread.setName("Site-to-Site Listener");
+        selectorThread.start();
+    }
+
+    private boolean isAcceptingConnections() {
+        // If nodeInformant is not null, we are in clustered mode, which means that we don't care about
+        // the processGroup.
+        if (nodeInformant != null) {
+            return true;
+        }
+
+        final ProcessGroup processGroup = rootGroup.get();
+        return processGroup != null && (!processGroup.getInputPorts().isEmpty() || !processGroup.getOutputPorts().isEmpty());
+    }
+
+    /**
+     * Verifies the magic bytes, negotiates the Server Protocol and performs the handshake with the peer on the other end of the
+     * given channel. If any of these steps fails, the failure is logged, the connection is closed, and <code>null</code> is returned.
+     *
+     * @param socketChannel the channel of the accepted connection
+     * @return the connection, ready to receive requests, or <code>null</code> if the handshake failed
+     */
+    private PeerConnection establishConnection(final SocketChannel socketChannel) {
+        final Socket socket = socketChannel.socket();
+
+        LOG.debug("{} Determining URL of connection", this);
+        final InetAddress inetAddress = socket.getInetAddress();
+        String hostname = inetAddress.getHostName();
+        final int slashIndex = hostname.indexOf("/");
+        if (slashIndex == 0) {
+            hostname = hostname.substring(1);
+        } else if (slashIndex > 0) {
+            hostname = hostname.substring(0, slashIndex);
+        }
+
+        final int port = socket.getPort();
+        final String peerUri = "nifi://" + hostname + ":" + port;
+        LOG.debug("{} Connection URL is {}", this, peerUri);
+
+        final CommunicationsSession commsSession;
+        final String dn;
+        try {
+            if (sslContext != null) {
+                final SSLSocketChannel sslSocketChannel = new SSLSocketChannel(sslContext, socketChannel, false);
+                LOG.trace("Channel is secure; connecting...");
+                sslSocketChannel.connect();
+                LOG.trace("Channel connected");
+
+                commsSession = new SSLSocketChannelCommunicationsSession(sslSocketChannel);
+                dn = sslSocketChannel.getDn();
+                commsSession.setUserDn(dn);
+            } else {
+                LOG.trace("{} Channel is not secure", this);
+                commsSession = new SocketChannelCommunicationsSession(socketChannel);
+                dn = null;
+            }
+        } catch (final Exception e) {
+            LOG.error("RemoteSiteListener Unable to accept connection from {} due to {}", socket, e.toString());
+            if (LOG.isDebugEnabled()) {
+                LOG.error("", e);
+            }
+            try {
+                socketChannel.close();
+            } catch (IOException swallow) {
+            }
+            return null;
+        }
+
+        LOG.info("Received connection from {}, User DN: {}", socket.getInetAddress(), dn);
+
+        final InputStream socketIn;
+        final OutputStream socketOut;
+
+        try {
+            socketIn = commsSession.getInput().getInputStream();
+            socketOut = commsSession.getOutput().getOutputStream();
+        } catch (final IOException e) {
+            LOG.error("Connection dropped from {} before any data was transmitted", peerUri);
+            try {
+                commsSession.close();
+            } catch (final IOException ioe) {
+            }
+
+            return null;
+        }
+
+        final DataInputStream dis = new DataInputStream(socketIn);
+        final DataOutputStream dos = new DataOutputStream(socketOut);
+
+        ServerProtocol protocol = null;
+        Peer peer = null;
+        try {
+            // ensure that we are communicating with another NiFi
+            LOG.debug("Verifying magic bytes...");
+            verifyMagicBytes(dis, peerUri);
+
+            LOG.debug("Receiving Server Protocol Negotiation");
+            protocol = RemoteResourceFactory.receiveServerProtocolNegotiation(dis, dos);
+            protocol.setRootProcessGroup(rootGroup.get());
+            protocol.setNodeInformant(nodeInformant);
+
+            final PeerDescription description = new PeerDescription("localhost", getPort(), sslContext != null);
+            peer = new Peer(description, commsSession, peerUri, "nifi://localhost:" + getPort());
+            LOG.debug("Handshaking....");
+            protocol.handshake(peer);
+
+            if (!protocol.isHandshakeSuccessful()) {
+                LOG.error("Handshake failed with {}; closing connection", peer);
+                try {
+                    peer.close();
+                } catch (final IOException e) {
+                    LOG.warn("Failed to close {} due to {}", peer, e);
+                }
+
+                // no need to shutdown protocol because we failed to perform handshake
+                return null;
+            }
+
+            commsSession.setTimeout((int) protocol.getRequestExpiration());
+
+            LOG.info("Successfully negotiated ServerProtocol {} Version {} with {}", new Object[]{
+                protocol.getResourceName(), protocol.getVersionNegotiator().getVersion(), peer});
+
+            return new PeerConnection(socketChannel, protocol, peer);
+        } catch (final IOException e) {
+            LOG.error("Unable to communicate with remote instance {} due to {}; closing connection", peer, e.toString());
+            if (LOG.isDebugEnabled()) {
+                LOG.error("", e);
+            }
+        } catch (final Throwable t) {
+            LOG.error("Handshake failed when communicating with {}; closing connection. Reason for failure: {}", peerUri, t.toString());
+            if (LOG.isDebugEnabled()) {
+                LOG.error("", t);
+            }
+        }
+
+        if (peer == null) {
+            try {
+                commsSession.close();
+            } catch (final IOException ioe) {
+            }
+        } else {
+            cleanup(protocol, peer);
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next request from the peer and services it.
+     *
+     * @param connection the connection to service
+     * @throws Exception if unable to communicate with the peer
+     */
+    private void handleRequest(final PeerConnection connection) throws Exception {
+        final ServerProtocol protocol = connection.protocol;
+        final Peer peer = connection.peer;
+
+        LOG.trace("Getting Protocol Request Type...");
+
+        int timeoutCount = 0;
+        RequestType requestType = null;
+
+        while (requestType == null) {
+            try {
+                requestType = protocol.getRequestType(peer);
+            } catch (final SocketTimeoutException e) {
+                // Give the timeout a bit longer (twice as long) to receive the Request Type,
+                // in order to attempt to receive more data without shutting down the socket if we don't
+                // have to.
+                LOG.debug("{} Timed out waiting to receive RequestType using {} with {}", new Object[]{this, protocol, peer});
+                timeoutCount++;
+                requestType = null;
+
+                if (timeoutCount >= 2) {
+                    throw e;
+                }
+            }
+        }
+
+        LOG.debug("Request type from {} is {}", protocol, requestType);
+        switch (requestType) {
+            case NEGOTIATE_FLOWFILE_CODEC:
+                protocol.negotiateCodec(peer);
+                break;
+            case RECEIVE_FLOWFILES:
+                // peer wants to receive FlowFiles, so we will transfer FlowFiles.
+                protocol.getPort().transferFlowFiles(peer, protocol);
+                break;
+            case SEND_FLOWFILES:
+                // Peer wants to send FlowFiles, so we will receive.
+                protocol.getPort().receiveFlowFiles(peer, protocol);
+                break;
+            case REQUEST_PEER_LIST:
+                final Optional<ClusterNodeInformation> nodeInfo = (nodeInformant == null) ? Optional.empty() : Optional.of(nodeInformant.getNodeInformation());
+                protocol.sendPeerList(
+                        peer,
+                        nodeInfo,
+                        nifiProperties.getRemoteInputHost(),
+                        nifiProperties.getRemoteInputPort(),
+                        nifiProperties.getRemoteInputHttpPort(),
+                        nifiProperties.isSiteToSiteSecure());
+                break;
+            case SHUTDOWN:
+                protocol.shutdown(peer);
+                break;
+        }
+    }
+
+    private void cleanup(final ServerProtocol protocol, final Peer peer) {
+        LOG.trace("Cleaning up");
+        try {
+            if (protocol != null && peer != null) {
+                protocol.shutdown(peer);
+            }
+        } catch (final Exception protocolException) {
+            LOG.warn("Failed to shutdown protocol due to {}", protocolException.toString());
+        }
+
+        try {
+            if (peer != null) {
+                peer.close();
+            }
+        } catch (final Exception peerException) {
+            LOG.warn("Failed to close peer due to {}; some resources may not be appropriately cleaned up", peerException.toString());
+        }
+        LOG.trace("Finished cleaning up");
+    }
+
     private int getPort() {
         return socketPort;
     }
@@ -340,6 +446,11 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
     @Override
     public void stop() {
         stopped.set(true);
+
+        final Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+        }
     }
 
     private void verifyMagicBytes(final InputStream in, final String peerDescription) throws IOException, HandshakeException {
@@ -358,4 +469,298 @@ public class SocketRemoteSiteListener implements RemoteSiteListener {
             throw new HandshakeException("Handshake with " + peerDescription + " failed because the Magic Header was not present");
         }
     }
+
+    /**
+     * A connection to a peer. Before the handshake and between requests, the connection is registered with the
+     * selector so that it does not occupy a worker thread while the peer is idle. The protocol and peer are
+     * <code>null</code> until the handshake has completed.
+     */
+    private static class PeerConnection {
+        private final SocketChannel socketChannel;
+        private final ServerProtocol protocol;
+        private final Peer peer;
+
+        // only accessed by the selector thread
+        private SelectionKey selectionKey;
+        private long idleExpiration;
+
+        PeerConnection(final SocketChannel socketChannel, final ServerProtocol protocol, final Peer peer) {
+            this.socketChannel = socketChannel;
+            this.protocol = protocol;
+            this.peer = peer;
+        }
+    }
+
+    /**
+     * Multiplexes all peer connections over a single Selector. The selector thread never reads from or writes to a peer;
+     * it only accepts connections and waits for them to become readable, and then hands the connection to a worker thread,
+     * which performs the handshake or services requests using the same blocking protocol as when the selector is disabled.
+     * No more work is handed out than there are worker threads, and new connections are not accepted while work is waiting
+     * for a worker, so that a flood of peers is held back in the accept backlog rather than in memory.
+     */
+    private class SelectorTask implements Runnable {
+        private final Selector selector;
+        private final SelectionKey serverKey;
+        private final ExecutorService workerPool;
+
+        // work that is ready to run but waiting for a worker thread to become available; only accessed by the selector thread
+        private final Queue<Runnable> pendingWork = new LinkedList<>();
+        // connections that are waiting for the handshake or the next request from the peer; only accessed by the selector thread
+        private final Set<PeerConnection> idleConnections = new HashSet<>();
+        // connections that workers have finished servicing and that are to be registered with the selector again
+        private final Queue<PeerConnection> returnedConnections = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger activeWorkers = new AtomicInteger(0);
+
+        private long nextExpirationCheck = 0L;
+
+        SelectorTask(final Selector selector, final SelectionKey serverKey, final ExecutorService workerPool) {
+            this.selector = selector;
+            this.serverKey = serverKey;
+            this.workerPool = workerPool;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!stopped.get()) {
+                    updateAcceptInterest();
+                    selector.select(SELECT_TIMEOUT_MILLIS);
+
+                    final Iterator<SelectionKey> itr = selector.selectedKeys().iterator();
+                    while (itr.hasNext()) {
+                        final SelectionKey key = itr.next();
+                        itr.remove();
+
+                        try {
+                            if (key == serverKey) {
+                                if (key.isAcceptable()) {
+                                    accept();
+                                }
+                            } else if (key.isReadable()) {
+                                // stop watching the connection while a worker services the request
+                                key.interestOps(0);
+                                final PeerConnection connection = (PeerConnection) key.attachment();
+                                idleConnections.remove(connection);
+                                if (connection.protocol == null) {
+                                    pendingWork.add(() -> handshake(connection));
+                                } else {
+                                    pendingWork.add(() -> serviceRequests(connection, true));
+                                }
+                            }
+                        } catch (final CancelledKeyException cke) {
+                            final Object attachment = key.attachment();
+                            if (attachment != null) {
+                                idleConnections.remove(attachment);
+                            }
+                        }
+                    }
+
+                    registerReturnedConnections();
+                    expireIdleConnections();
+                    dispatch();
+                }
+            } catch (final Throwable t) {
+                LOG.error("Site-to-Site Listener failed and will no longer accept connections due to {}", t.toString());
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("", t);
+                }
+            } finally {
+                shutdown();
+            }
+        }
+
+        private void updateAcceptInterest() {
+            final boolean accepting = pendingWork.isEmpty() && isAcceptingConnections();
+            serverKey.interestOps(accepting ? SelectionKey.OP_ACCEPT : 0);
+        }
+
+        private void accept() {
+            final SocketChannel socketChannel;
+            try {
+                socketChannel = ((ServerSocketChannel) serverKey.channel()).accept();
+            } catch (final IOException e) {
+                LOG.error("RemoteSiteListener Unable to accept connection due to {}", e.toString());
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("", e);
+                }
+                return;
+            }
+
+            if (socketChannel == null) {
+                return;
+            }
+
+            LOG.trace("Got connection");
+            final PeerConnection connection = new PeerConnection(socketChannel, null, null);
+            try {
+                socketChannel.configureBlocking(false);
+                connection.selectionKey = socketChannel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (final IOException e) {
+                LOG.error("RemoteSiteListener Unable to accept connection from {} due to {}", socketChannel.socket(), e.toString());
+                close(connection);
+                return;
+            }
+
+            connection.idleExpiration = System.currentTimeMillis() + HANDSHAKE_TIMEOUT_MILLIS;
+            idleConnections.add(connection);
+        }
+
+        /**
+         * Performs the handshake with a new connection and then services any requests that the peer has already sent.
+         * Runs on a worker thread.
+         *
+         * @param connection the new connection
+         */
+        private void handshake(final PeerConnection connection) {
+            final PeerConnection established = establishConnection(connection.socketChannel);
+            if (established != null) {
+                serviceRequests(established, false);
+            }
+        }
+
+        private void dispatch() {
+            while (!pendingWork.isEmpty() && activeWorkers.get() < workerThreads) {
+                final Runnable work = pendingWork.poll();
+                activeWorkers.incrementAndGet();
+                workerPool.submit(() -> {
+                    try {
+                        work.run();
+                    } finally {
+                        activeWorkers.decrementAndGet();
+                        selector.wakeup();
+                    }
+                });
+            }
+        }
+
+        /**
+         * Services requests from the peer for as long as they are available without waiting, and then returns the
+         * connection to the selector. Runs on a worker thread.
+         *
+         * @param connection the connection to service
+         * @param readable whether or not the selector found the connection to be readable, in which case a request is
+         *            read even if no data is buffered, so that the end of the stream is detected
+         */
+        private void serviceRequests(final PeerConnection connection, final boolean readable) {
+            final CommunicationsSession commsSession = connection.peer.getCommunicationsSession();
+            try {
+                boolean requestPending = readable;
+                while (!connection.protocol.isShutdown() && (requestPending || commsSession.isDataAvailable())) {
+                    handleRequest(connection);
+                    requestPending = false;
+                }
+            } catch (final Exception e) {
+                LOG.error("Unable to communicate with remote instance {} ({}) due to {}; closing connection", connection.peer, connection.protocol, e.toString());
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("", e);
+                }
+                cleanup(connection.protocol, connection.peer);
+                return;
+            }
+
+            if (connection.protocol.isShutdown()) {
+                LOG.debug("Finished communicating with {} ({})", connection.peer, connection.protocol);
+                cleanup(connection.protocol, connection.peer);
+                return;
+            }
+
+            returnedConnections.add(connection);
+            // if the selector has already shut down, no one else will clean up the connection
+            if (stopped.get() && returnedConnections.remove(connection)) {
+                cleanup(connection.protocol, connection.peer);
+            }
+        }
+
+        private void registerReturnedConnections() {
+            PeerConnection connection;
+            while ((connection = returnedConnections.poll()) != null) {
+                try {
+                    if (connection.selectionKey == null) {
+                        // the channel is still registered from when it was accepted, so this returns that key with the new attachment
+                        connection.selectionKey = connection.socketChannel.register(selector, SelectionKey.OP_READ, connection);
+                    } else {
+                        connection.selectionKey.interestOps(SelectionKey.OP_READ);
+                    }
+                } catch (final IOException | CancelledKeyException e) {
+                    LOG.debug("Connection to {} was closed while idle", connection.peer);
+                    final PeerConnection closedConnection = connection;
+                    pendingWork.add(() -> close(closedConnection));
+                    continue;
+                }
+
+                // Give the peer twice the request expiration to send its next request, as when waiting for it on a dedicated thread
+                connection.idleExpiration = System.currentTimeMillis() + 2 * connection.protocol.getRequestExpiration();
+                idleConnections.add(connection);
+            }
+        }
+
+        private void expireIdleConnections() {
+            final long now = System.currentTimeMillis();
+            if (now < nextExpirationCheck) {
+                return;
+            }
+            nextExpirationCheck = now + SELECT_TIMEOUT_MILLIS;
+
+            final Iterator<PeerConnection> itr = idleConnections.iterator();
+            while (itr.hasNext()) {
+                final PeerConnection connection = itr.next();
+                if (connection.idleExpiration < now) {
+                    itr.remove();
+                    connection.selectionKey.cancel();
+                    if (connection.peer == null) {
+                        LOG.info("Timed out waiting for {} to begin the handshake; closing connection", connection.socketChannel.socket());
+                    } else {
+                        LOG.info("Timed out waiting for a request from {} ({}); closing connection", connection.peer, connection.protocol);
+                    }
+                    pendingWork.add(() -> close(connection));
+                }
+            }
+        }
+
+        private void close(final PeerConnection connection) {
+            if (connection.peer != null) {
+                cleanup(connection.protocol, connection.peer);
+                return;
+            }
+
+            try {
+                connection.socketChannel.close();
+            } catch (final IOException swallow) {
+            }
+        }
+
+        private void shutdown() {
+            final List<PeerConnection> toClose = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+
+            PeerConnection connection;
+            while ((connection = returnedConnections.poll()) != null) {
+                toClose.add(connection);
+            }
+
+            for (final PeerConnection idle : toClose) {
+                close(idle);
+            }
+
+            // connections that are being serviced are cleaned up by their workers once they finish, as are those that
+            // are still waiting for a worker
+            Runnable work;
+            while ((work = pendingWork.poll()) != null) {
+                workerPool.submit(work);
+            }
+            workerPool.shutdown();
+
+            try {
+                selector.close();
+            } catch (final IOException e) {
+                LOG.warn("Failed to close Site-to-Site selector due to {}", e.toString());
+            }
+
+            try {
+                serverKey.channel().close();
+            } catch (final IOException e) {
+                LOG.warn("Failed to close Site-to-Site server socket due to {}", e.toString());
+            }
+        }
+    }
 }
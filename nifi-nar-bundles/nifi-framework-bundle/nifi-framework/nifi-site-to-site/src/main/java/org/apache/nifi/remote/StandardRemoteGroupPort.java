@@ -54,6 +54,7 @@ import org.apache.nifi.scheduling.SchedulingStrategy;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.NiFiProperties;
 import org.apache.nifi.util.StopWatch;
+import org.apache.nifi.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,6 +71,7 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
     private static final Logger logger = LoggerFactory.getLogger(StandardRemoteGroupPort.class);
     private final RemoteProcessGroup remoteGroup;
     private final AtomicBoolean useCompression = new AtomicBoolean(false);
+    private final AtomicReference<String> compressionCodec = new AtomicReference<>();
     private final AtomicBoolean targetExists = new AtomicBoolean(true);
     private final AtomicBoolean targetRunning = new AtomicBoolean(true);
     private final SSLContext sslContext;
@@ -146,11 +148,13 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
                 .portIdentifier(getIdentifier())
                 .sslContext(sslContext)
                 .useCompression(isUseCompression())
+                .compressionCodec(getCompressionCodec())
                 .eventReporter(remoteGroup.getEventReporter())
                 .peerPersistenceFile(getPeerPersistenceFile(getIdentifier(), nifiProperties))
                 .nodePenalizationPeriod(penalizationMillis, TimeUnit.MILLISECONDS)
                 .timeout(remoteGroup.getCommunicationsTimeout(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
                 .transportProtocol(remoteGroup.getTransportProtocol())
+                .httpPipelining(nifiProperties.isSiteToSiteHttpClientPipeliningEnabled())
                 .httpProxy(new HttpProxy(remoteGroup.getProxyHost(), remoteGroup.getProxyPort(), remoteGroup.getProxyUser(), remoteGroup.getProxyPassword()))
                 .build();
         clientRef.set(client);
@@ -428,6 +432,16 @@ public class StandardRemoteGroupPort extends RemoteGroupPort {
         return useCompression.get();
     }
 
+    @Override
+    public void setCompressionCodec(final String compressionCodec) {
+        this.compressionCodec.set(StringUtils.isBlank(compressionCodec) ? null : compressionCodec.trim());
+    }
+
+    @Override
+    public String getCompressionCodec() {
+        return compressionCodec.get();
+    }
+
     @Override
     public String toString() {
         return "RemoteGroupPort[name=" + getName() + ",target=" + remoteGroup.getTargetUri().toString() + "]";
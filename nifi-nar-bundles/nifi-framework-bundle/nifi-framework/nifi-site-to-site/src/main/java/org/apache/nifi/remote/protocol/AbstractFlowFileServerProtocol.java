@@ -30,10 +30,10 @@ import org.apache.nifi.remote.PortAuthorizationResult;
 import org.apache.nifi.remote.RootGroupPort;
 import org.apache.nifi.remote.cluster.NodeInformant;
 import org.apache.nifi.remote.codec.FlowFileCodec;
+import org.apache.nifi.remote.compression.CompressionCodec;
+import org.apache.nifi.remote.compression.CompressionCodecs;
 import org.apache.nifi.remote.exception.HandshakeException;
 import org.apache.nifi.remote.exception.ProtocolException;
-import org.apache.nifi.remote.io.CompressionInputStream;
-import org.apache.nifi.remote.io.CompressionOutputStream;
 import org.apache.nifi.remote.util.StandardDataPacket;
 import org.apache.nifi.util.FormatUtils;
 import org.apache.nifi.util.StopWatch;
@@ -114,6 +114,14 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
                     case BATCH_DURATION:
                         confirmed.setBatchDurationNanos(TimeUnit.MILLISECONDS.toNanos(Long.parseLong(value)));
                         break;
+                    case COMPRESSION_CODECS: {
+                        final CompressionCodec compressionCodec = CompressionCodecs.negotiate(value);
+                        if (compressionCodec == null) {
+                            throw new HandshakeException(ResponseCode.ILLEGAL_PROPERTY_VALUE, "None of the requested compression codecs are supported: " + value);
+                        }
+                        confirmed.setCompressionCodec(compressionCodec);
+                        break;
+                    }
                     case PORT_IDENTIFIER: {
                         checkPortStatus(peer, value);
                     }
@@ -243,7 +251,7 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
         OutputStream os = new DataOutputStream(commsSession.getOutput().getOutputStream());
         while (continueTransaction) {
             final boolean useGzip = handshakenProperties.isUseGzip();
-            final OutputStream flowFileOutputStream = useGzip ? new CompressionOutputStream(os) : os;
+            final OutputStream flowFileOutputStream = useGzip ? CompressionCodecs.compress(handshakenProperties.getCompressionCodec(), os) : os;
             logger.debug("{} Sending {} to {}", new Object[]{this, flowFile, peer});
 
             final CheckedOutputStream checkedOutputStream = new CheckedOutputStream(flowFileOutputStream, crc);
@@ -433,7 +441,7 @@ public abstract class AbstractFlowFileServerProtocol implements ServerProtocol {
         boolean continueTransaction = true;
         while (continueTransaction) {
             final long startNanos = System.nanoTime();
-            final InputStream flowFileInputStream = handshakenProperties.isUseGzip() ? new CompressionInputStream(dis) : dis;
+            final InputStream flowFileInputStream = handshakenProperties.isUseGzip() ? CompressionCodecs.decompress(handshakenProperties.getCompressionCodec(), dis) : dis;
             final CheckedInputStream checkedInputStream = new CheckedInputStream(flowFileInputStream, crc);
 
             final DataPacket dataPacket = codec.decode(checkedInputStream);
@@ -16,6 +16,8 @@
  */
 package org.apache.nifi.remote.protocol;
 
+import org.apache.nifi.remote.compression.CompressionCodec;
+import org.apache.nifi.remote.compression.CompressionCodecs;
 import org.apache.nifi.remote.exception.HandshakeException;
 
 public class HandshakeProperties {
@@ -23,6 +25,7 @@ public class HandshakeProperties {
     private String commsIdentifier;
     private String transitUriPrefix = null;
     private boolean useGzip;
+    private CompressionCodec compressionCodec = CompressionCodecs.getDefaultCodec();
     private long expirationMillis;
     private int batchCount = 0;
     private long batchBytes = 0L;
@@ -52,6 +55,17 @@ public class HandshakeProperties {
         this.useGzip = useGzip;
     }
 
+    /**
+     * @return the codec that FlowFile content is compressed with when {@link #isUseGzip()} is true
+     */
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public void setCompressionCodec(CompressionCodec compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
     public long getExpirationMillis() {
         return expirationMillis;
     }
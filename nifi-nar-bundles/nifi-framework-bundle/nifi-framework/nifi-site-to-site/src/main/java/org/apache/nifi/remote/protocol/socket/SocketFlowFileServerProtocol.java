@@ -46,7 +46,8 @@ public class SocketFlowFileServerProtocol extends AbstractFlowFileServerProtocol
     public static final String RESOURCE_NAME = "SocketFlowFileProtocol";
 
     // Version 6 added to support Zero-Master Clustering, which was introduced in NiFi 1.0.0
-    private final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(6, 5, 4, 3, 2, 1);
+    // Version 7 added negotiation of the compression codec
+    private final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(7, 6, 5, 4, 3, 2, 1);
 
     @Override
     protected HandshakeProperties doHandshake(Peer peer) throws IOException, HandshakeException {
@@ -101,6 +102,11 @@ public class SocketFlowFileServerProtocol extends AbstractFlowFileServerProtocol
         // send "OK" response
         if (!responseWritten) {
             ResponseCode.PROPERTIES_OK.writeResponse(dos);
+
+            // tell the client which of its compression codecs was chosen
+            if (confirmed.isUseGzip() && versionNegotiator.getVersion() >= 7) {
+                dos.writeUTF(confirmed.getCompressionCodec().getName());
+            }
         }
 
         return confirmed;
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.remote;
+
+import org.apache.nifi.remote.cluster.NodeInformant;
+import org.apache.nifi.util.NiFiProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestSocketRemoteSiteListener {
+
+    private int port;
+    private SocketRemoteSiteListener listener;
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @Before
+    public void setup() throws IOException {
+        try (final ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(NiFiProperties.SITE_TO_SITE_SOCKET_SELECTOR_ENABLED, "true");
+        properties.put(NiFiProperties.SITE_TO_SITE_SOCKET_WORKER_THREADS, "2");
+        final NiFiProperties nifiProperties = NiFiProperties.createBasicNiFiProperties("src/test/resources/nifi.properties", properties);
+
+        // a node informant makes the listener accept connections without a root group
+        listener = new SocketRemoteSiteListener(port, null, nifiProperties, Mockito.mock(NodeInformant.class));
+        listener.start();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        listener.stop();
+        for (final Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    private Socket connect() throws IOException {
+        final Socket socket = new Socket();
+        sockets.add(socket);
+        socket.connect(new InetSocketAddress("localhost", port), 5000);
+        socket.setSoTimeout(10000);
+        return socket;
+    }
+
+    private void assertClosedByServer(final Socket socket) throws IOException {
+        final InputStream in = socket.getInputStream();
+        assertEquals(-1, in.read());
+    }
+
+    @Test(timeout = 30000)
+    public void testIdleConnectionsDoNotOccupyWorkers() throws IOException {
+        // many more idle connections than worker threads
+        final List<Socket> idleSockets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            idleSockets.add(connect());
+        }
+
+        // a connection that does not begin with the magic bytes is still serviced, and rejected, promptly
+        final Socket socket = connect();
+        socket.getOutputStream().write("GET ".getBytes("UTF-8"));
+        socket.getOutputStream().flush();
+        assertClosedByServer(socket);
+
+        for (final Socket idleSocket : idleSockets) {
+            idleSocket.getOutputStream().write(new byte[] {'X', 'X', 'X', 'X'});
+            idleSocket.getOutputStream().flush();
+        }
+
+        for (final Socket idleSocket : idleSockets) {
+            assertClosedByServer(idleSocket);
+        }
+    }
+}
@@ -1433,6 +1433,7 @@ public final class DtoFactory {
         dto.setTargetRunning(port.isTargetRunning());
         dto.setConcurrentlySchedulableTaskCount(port.getMaxConcurrentTasks());
         dto.setUseCompression(port.isUseCompression());
+        dto.setCompressionCodec(port.getCompressionCodec());
         dto.setExists(port.getTargetExists());
 
         // determine if this port is currently connected to another component locally
@@ -2720,6 +2721,7 @@ public final class DtoFactory {
         copy.setTransmitting(original.isTransmitting());
         copy.setConcurrentlySchedulableTaskCount(original.getConcurrentlySchedulableTaskCount());
         copy.setUseCompression(original.getUseCompression());
+        copy.setCompressionCodec(original.getCompressionCodec());
         copy.setExists(original.getExists());
         return copy;
     }
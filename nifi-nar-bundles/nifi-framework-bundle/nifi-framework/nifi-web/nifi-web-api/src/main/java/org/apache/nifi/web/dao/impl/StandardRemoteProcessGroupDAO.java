@@ -22,8 +22,10 @@ import org.apache.nifi.controller.exception.ValidationException;
 import org.apache.nifi.groups.ProcessGroup;
 import org.apache.nifi.groups.RemoteProcessGroup;
 import org.apache.nifi.remote.RemoteGroupPort;
+import org.apache.nifi.remote.compression.CompressionCodecs;
 import org.apache.nifi.remote.protocol.SiteToSiteTransportProtocol;
 import org.apache.nifi.util.FormatUtils;
+import org.apache.nifi.util.StringUtils;
 import org.apache.nifi.web.ResourceNotFoundException;
 import org.apache.nifi.web.api.dto.DtoFactory;
 import org.apache.nifi.web.api.dto.RemoteProcessGroupDTO;
@@ -201,7 +203,8 @@ public class StandardRemoteProcessGroupDAO extends ComponentDAO implements Remot
 
 
         // verify update when appropriate
-        if (isAnyNotNull(remoteProcessGroupPortDto.getConcurrentlySchedulableTaskCount(), remoteProcessGroupPortDto.getUseCompression())) {
+        if (isAnyNotNull(remoteProcessGroupPortDto.getConcurrentlySchedulableTaskCount(), remoteProcessGroupPortDto.getUseCompression(),
+                remoteProcessGroupPortDto.getCompressionCodec())) {
             port.verifyCanUpdate();
         }
     }
@@ -216,6 +219,10 @@ public class StandardRemoteProcessGroupDAO extends ComponentDAO implements Remot
         if (isNotNull(remoteProcessGroupPortDTO.getConcurrentlySchedulableTaskCount()) && remoteProcessGroupPortDTO.getConcurrentlySchedulableTaskCount() <= 0) {
             validationErrors.add(String.format("Concurrent tasks for port '%s' must be a positive integer.", remoteGroupPort.getName()));
         }
+        final String compressionCodec = remoteProcessGroupPortDTO.getCompressionCodec();
+        if (!StringUtils.isBlank(compressionCodec) && CompressionCodecs.getCodec(compressionCodec.trim()) == null) {
+            validationErrors.add(String.format("Compression codec for port '%s' must be one of %s.", remoteGroupPort.getName(), CompressionCodecs.getCodecNames()));
+        }
 
         return validationErrors;
     }
@@ -288,6 +295,9 @@ public class StandardRemoteProcessGroupDAO extends ComponentDAO implements Remot
         if (isNotNull(remoteProcessGroupPortDto.getUseCompression())) {
             port.setUseCompression(remoteProcessGroupPortDto.getUseCompression());
         }
+        if (isNotNull(remoteProcessGroupPortDto.getCompressionCodec())) {
+            port.setCompressionCodec(remoteProcessGroupPortDto.getCompressionCodec());
+        }
 
         final Boolean isTransmitting = remoteProcessGroupPortDto.isTransmitting();
         if (isNotNull(isTransmitting)) {
@@ -322,6 +332,9 @@ public class StandardRemoteProcessGroupDAO extends ComponentDAO implements Remot
         if (isNotNull(remoteProcessGroupPortDto.getUseCompression())) {
             port.setUseCompression(remoteProcessGroupPortDto.getUseCompression());
         }
+        if (isNotNull(remoteProcessGroupPortDto.getCompressionCodec())) {
+            port.setCompressionCodec(remoteProcessGroupPortDto.getCompressionCodec());
+        }
 
         final Boolean isTransmitting = remoteProcessGroupPortDto.isTransmitting();
         if (isNotNull(isTransmitting)) {
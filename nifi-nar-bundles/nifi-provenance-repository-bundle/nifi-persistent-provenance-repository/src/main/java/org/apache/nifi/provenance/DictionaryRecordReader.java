@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.nifi.provenance.toc.TocReader;
+import org.apache.nifi.stream.io.StreamUtils;
+
+/**
+ * Reads the records written by {@link DictionaryRecordWriter}. Because records refer to strings and attributes
+ * that were written by earlier records, this reader cannot skip over bytes; it instead reads, and discards, the
+ * records that it is asked to skip. Skipping to a block of the Table of Contents remains cheap, as every block starts
+ * with a record that clears the dictionary.
+ */
+public class DictionaryRecordReader extends StandardRecordReader {
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Map<String, String>> attributeCache = DictionaryRecordWriter.createAttributeCache();
+    private long previousEventId = 0L;
+    private long previousEventTime = 0L;
+
+    public DictionaryRecordReader(final InputStream in, final String filename, final int maxAttributeChars) throws IOException {
+        this(in, filename, null, maxAttributeChars);
+    }
+
+    public DictionaryRecordReader(final InputStream in, final String filename, final TocReader tocReader, final int maxAttributeChars) throws IOException {
+        super(in, filename, tocReader, maxAttributeChars, DictionaryRecordWriter.SERIALIZATION_VERSION, DictionaryRecordWriter.SERIALIZATION_VERSION);
+    }
+
+    @Override
+    protected StandardProvenanceEventRecord readRecord(final DataInputStream dis, final long startOffset) throws IOException {
+        final int flags = dis.readUnsignedByte();
+        if ((flags & DictionaryRecordWriter.FLAG_RESET) != 0) {
+            dictionary.clear();
+            attributeCache.clear();
+            previousEventId = 0L;
+            previousEventTime = 0L;
+        }
+
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+
+        final long eventId = previousEventId + readSignedVarLong(dis);
+        final ProvenanceEventType eventType = ProvenanceEventType.valueOf(readString(dis));
+        final long eventTime = previousEventTime + readSignedVarLong(dis);
+        builder.setEventType(eventType);
+        builder.setEventTime(eventTime);
+        builder.setFlowFileEntryDate(eventTime + readSignedVarLong(dis));
+        builder.setEventDuration(readSignedVarLong(dis));
+        builder.setLineageStartDate(eventTime + readSignedVarLong(dis));
+        previousEventId = eventId;
+        previousEventTime = eventTime;
+
+        builder.setComponentId(readString(dis));
+        builder.setComponentType(readString(dis));
+        final String uuid = readString(dis);
+        if (uuid == null) {
+            throw new IOException("Failed to parse Provenance Event Record from " + getFilename() + ": no FlowFile UUID found for Event " + eventId);
+        }
+        builder.setFlowFileUUID(uuid);
+        builder.setDetails(readString(dis));
+
+        final Map<String, String> previousAttributes = readPreviousAttributes(dis, attributeCache.get(uuid));
+
+        final int updatedCount = readVarInt(dis);
+        final Map<String, String> updatedAttributes = new HashMap<>(updatedCount);
+        for (int i = 0; i < updatedCount; i++) {
+            updatedAttributes.put(readString(dis), readString(dis));
+        }
+
+        attributeCache.remove(uuid);
+        attributeCache.put(uuid, DictionaryRecordWriter.applyUpdates(previousAttributes, updatedAttributes));
+        builder.setAttributes(truncate(previousAttributes), truncate(updatedAttributes));
+
+        if (dis.readBoolean()) {
+            builder.setCurrentContentClaim(readString(dis), readString(dis), readString(dis), readSignedVarLong(dis), readSignedVarLong(dis));
+        } else {
+            builder.setCurrentContentClaim(null, null, null, null, 0L);
+        }
+
+        if (dis.readBoolean()) {
+            builder.setPreviousContentClaim(readString(dis), readString(dis), readString(dis), readSignedVarLong(dis), readSignedVarLong(dis));
+        }
+
+        builder.setSourceQueueIdentifier(readString(dis));
+
+        // Read Event-Type specific fields.
+        if (eventType == ProvenanceEventType.FORK || eventType == ProvenanceEventType.JOIN || eventType == ProvenanceEventType.CLONE || eventType == ProvenanceEventType.REPLAY) {
+            final int numParents = readVarInt(dis);
+            for (int i = 0; i < numParents; i++) {
+                builder.addParentUuid(readString(dis));
+            }
+
+            final int numChildren = readVarInt(dis);
+            for (int i = 0; i < numChildren; i++) {
+                builder.addChildUuid(readString(dis));
+            }
+        } else if (eventType == ProvenanceEventType.RECEIVE) {
+            builder.setTransitUri(readString(dis));
+            builder.setSourceSystemFlowFileIdentifier(readString(dis));
+        } else if (eventType == ProvenanceEventType.FETCH) {
+            builder.setTransitUri(readString(dis));
+        } else if (eventType == ProvenanceEventType.SEND) {
+            builder.setTransitUri(readString(dis));
+        } else if (eventType == ProvenanceEventType.ADDINFO) {
+            builder.setAlternateIdentifierUri(readString(dis));
+        } else if (eventType == ProvenanceEventType.ROUTE) {
+            builder.setRelationship(readString(dis));
+        }
+
+        builder.setStorageLocation(getFilename(), startOffset);
+
+        final StandardProvenanceEventRecord record = builder.build();
+        record.setEventId(eventId);
+        return record;
+    }
+
+    private Map<String, String> readPreviousAttributes(final DataInputStream dis, final Map<String, String> cachedAttributes) throws IOException {
+        final int encoding = dis.readUnsignedByte();
+        if (encoding == DictionaryRecordWriter.ATTRIBUTES_DELTA) {
+            if (cachedAttributes == null) {
+                throw new IOException("Failed to parse Provenance Event Record from " + getFilename() + ": attributes refer to a FlowFile that is not known");
+            }
+
+            final Map<String, String> attributes = new HashMap<>(cachedAttributes);
+            final int removedCount = readVarInt(dis);
+            for (int i = 0; i < removedCount; i++) {
+                attributes.remove(readString(dis));
+            }
+
+            final int changedCount = readVarInt(dis);
+            for (int i = 0; i < changedCount; i++) {
+                attributes.put(readString(dis), readString(dis));
+            }
+            return attributes;
+        }
+
+        final int count = readVarInt(dis);
+        final Map<String, String> attributes = new HashMap<>(count);
+        for (int i = 0; i < count; i++) {
+            attributes.put(readString(dis), readString(dis));
+        }
+        return attributes;
+    }
+
+    private Map<String, String> truncate(final Map<String, String> attributes) {
+        final int maxAttributeChars = getMaxAttributeChars();
+        Map<String, String> truncated = attributes;
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            final String value = entry.getValue();
+            if (value != null && value.length() > maxAttributeChars) {
+                if (truncated == attributes) {
+                    truncated = new HashMap<>(attributes);
+                }
+                truncated.put(entry.getKey(), value.substring(0, maxAttributeChars));
+            }
+        }
+        return truncated;
+    }
+
+    private String readString(final DataInputStream dis) throws IOException {
+        final int tag = readVarInt(dis);
+        switch (tag) {
+            case DictionaryRecordWriter.STRING_NULL:
+                return null;
+            case DictionaryRecordWriter.STRING_LITERAL:
+                return readLiteral(dis);
+            case DictionaryRecordWriter.STRING_LITERAL_ADDED: {
+                final String value = readLiteral(dis);
+                dictionary.add(value);
+                return value;
+            }
+            default: {
+                final int index = tag - DictionaryRecordWriter.STRING_REFERENCE_OFFSET;
+                if (index >= dictionary.size()) {
+                    throw new IOException("Failed to parse Provenance Event Record from " + getFilename() + ": string " + index
+                        + " was referenced but the dictionary contains only " + dictionary.size() + " strings");
+                }
+                return dictionary.get(index);
+            }
+        }
+    }
+
+    private String readLiteral(final DataInputStream dis) throws IOException {
+        final int length = readVarInt(dis);
+        final byte[] bytes = new byte[length];
+        StreamUtils.fillBuffer(dis, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarInt(final DataInputStream dis) throws IOException {
+        final long value = readVarLong(dis);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Failed to parse Provenance Event Record: expected a length or count but got " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readSignedVarLong(final DataInputStream dis) throws IOException {
+        final long value = readVarLong(dis);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(final DataInputStream dis) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = dis.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Failed to parse Provenance Event Record: variable-length integer is too long");
+    }
+
+    @Override
+    public void skip(final long bytesToSkip) throws IOException {
+        skipTo(getBytesConsumed() - getHeaderLength() + bytesToSkip);
+    }
+
+    @Override
+    public void skipTo(final long position) throws IOException {
+        // The records being skipped may add strings to the dictionary that later records refer to, so they must be read.
+        long currentPosition = getBytesConsumed() - getHeaderLength();
+        if (currentPosition > position) {
+            throw new IOException("Cannot skip to byte offset " + position + " in stream because already at byte offset " + currentPosition);
+        }
+
+        while (currentPosition < position) {
+            if (nextRecord() == null) {
+                throw new EOFException("Cannot skip to byte offset " + position + " in " + getFilename() + " because the end of the stream was reached at "
+                    + currentPosition);
+            }
+            currentPosition = getBytesConsumed() - getHeaderLength();
+        }
+
+        if (currentPosition != position) {
+            throw new IOException("Cannot skip to byte offset " + position + " in " + getFilename() + " because it is not the start of a record");
+        }
+    }
+}
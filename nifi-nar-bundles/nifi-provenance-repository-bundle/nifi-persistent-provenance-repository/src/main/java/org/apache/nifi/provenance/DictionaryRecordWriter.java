@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.nifi.provenance.toc.TocWriter;
+import org.apache.nifi.stream.io.DataOutputStream;
+
+/**
+ * A Record Writer that avoids writing the same strings and attributes over and over again. Each string is written
+ * in full only the first time that it appears and is afterward referred to by its index in a dictionary. The previous
+ * attributes of an event are written as the differences from the attributes that the same FlowFile had after its last
+ * event, which for most events means that nothing at all needs to be written. Numbers are written as variable-length
+ * integers, and timestamps as the difference from the previous event.
+ *
+ * The dictionary and the attribute cache are cleared at the start of every block of the Table of Contents, so that
+ * each block can be read independently, and every {@link #MAX_RECORDS_PER_DICTIONARY} records so that their size stays
+ * bounded in files that are not split into blocks. The first record written after they are cleared is flagged so
+ * that the reader clears its state at the same point.
+ */
+public class DictionaryRecordWriter extends StandardRecordWriter {
+
+    public static final String SERIALIZATION_NAME = DictionaryRecordWriter.class.getName();
+    public static final int SERIALIZATION_VERSION = 1;
+
+    static final int FLAG_RESET = 1;
+
+    static final int STRING_NULL = 0;
+    static final int STRING_LITERAL = 1;
+    static final int STRING_LITERAL_ADDED = 2;
+    static final int STRING_REFERENCE_OFFSET = 3;
+
+    static final int ATTRIBUTES_FULL = 0;
+    static final int ATTRIBUTES_DELTA = 1;
+
+    static final int MAX_DICTIONARY_SIZE = 65536;
+    static final int MAX_DICTIONARY_STRING_LENGTH = 1024;
+    static final int MAX_CACHED_FLOWFILES = 1000;
+    static final int MAX_RECORDS_PER_DICTIONARY = 50000;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final Map<String, Map<String, String>> attributeCache = createAttributeCache();
+    private int lastBlockIndex = -1;
+    private int recordsSinceReset = 0;
+    private long previousEventId = 0L;
+    private long previousEventTime = 0L;
+
+    public DictionaryRecordWriter(final File file, final TocWriter writer, final boolean compressed, final int uncompressedBlockSize) throws IOException {
+        super(file, writer, compressed, uncompressedBlockSize);
+    }
+
+    /**
+     * @return a map of FlowFile UUID to attributes that evicts the FlowFile that was least recently added once it holds
+     *         {@link #MAX_CACHED_FLOWFILES} FlowFiles. The reader must perform exactly the same operations on its cache
+     *         as the writer does, so that both evict the same FlowFiles.
+     */
+    static Map<String, Map<String, String>> createAttributeCache() {
+        return new LinkedHashMap<String, Map<String, String>>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Map<String, String>> eldest) {
+                return size() > MAX_CACHED_FLOWFILES;
+            }
+        };
+    }
+
+    /**
+     * @return the attributes of the FlowFile after the event with the given previous and updated attributes
+     */
+    static Map<String, String> applyUpdates(final Map<String, String> previousAttributes, final Map<String, String> updatedAttributes) {
+        final Map<String, String> attributes = new HashMap<>(previousAttributes);
+        for (final Map.Entry<String, String> entry : updatedAttributes.entrySet()) {
+            if (entry.getValue() == null) {
+                attributes.remove(entry.getKey());
+            } else {
+                attributes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return attributes;
+    }
+
+    @Override
+    protected void writeHeader(final DataOutputStream out) throws IOException {
+        out.writeUTF(SERIALIZATION_NAME);
+        out.writeInt(SERIALIZATION_VERSION);
+    }
+
+    @Override
+    protected void writeRecord(final ProvenanceEventRecord record, final long recordIdentifier, final DataOutputStream out) throws IOException {
+        final int blockIndex = getTocWriter() == null ? 0 : getTocWriter().getCurrentBlockIndex();
+        final boolean reset = blockIndex != lastBlockIndex || recordsSinceReset >= MAX_RECORDS_PER_DICTIONARY;
+        if (reset) {
+            dictionary.clear();
+            attributeCache.clear();
+            recordsSinceReset = 0;
+            previousEventId = 0L;
+            previousEventTime = 0L;
+            lastBlockIndex = blockIndex;
+        }
+        recordsSinceReset++;
+
+        out.write(reset ? FLAG_RESET : 0);
+
+        final ProvenanceEventType recordType = record.getEventType();
+        final long eventTime = record.getEventTime();
+        writeSignedVarLong(out, recordIdentifier - previousEventId);
+        writeString(out, recordType.name());
+        writeSignedVarLong(out, eventTime - previousEventTime);
+        writeSignedVarLong(out, record.getFlowFileEntryDate() - eventTime);
+        writeSignedVarLong(out, record.getEventDuration());
+        writeSignedVarLong(out, record.getLineageStartDate() - eventTime);
+        previousEventId = recordIdentifier;
+        previousEventTime = eventTime;
+
+        writeString(out, record.getComponentId());
+        writeString(out, record.getComponentType());
+        writeString(out, record.getFlowFileUuid());
+        writeString(out, record.getDetails());
+
+        // Write the previous attributes as the changes since this FlowFile's last event, if that is smaller
+        final Map<String, String> previousAttributes = record.getPreviousAttributes();
+        final Map<String, String> cachedAttributes = attributeCache.get(record.getFlowFileUuid());
+        writeAttributes(out, previousAttributes, cachedAttributes);
+
+        final Map<String, String> updatedAttributes = record.getUpdatedAttributes();
+        writeVarInt(out, updatedAttributes.size());
+        for (final Map.Entry<String, String> entry : updatedAttributes.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+
+        attributeCache.remove(record.getFlowFileUuid());
+        attributeCache.put(record.getFlowFileUuid(), applyUpdates(previousAttributes, updatedAttributes));
+
+        if (record.getContentClaimSection() != null && record.getContentClaimContainer() != null && record.getContentClaimIdentifier() != null) {
+            out.write(1);
+            writeString(out, record.getContentClaimContainer());
+            writeString(out, record.getContentClaimSection());
+            writeString(out, record.getContentClaimIdentifier());
+            writeSignedVarLong(out, record.getContentClaimOffset() == null ? 0L : record.getContentClaimOffset());
+            writeSignedVarLong(out, record.getFileSize());
+        } else {
+            out.write(0);
+        }
+
+        if (record.getPreviousContentClaimSection() != null && record.getPreviousContentClaimContainer() != null && record.getPreviousContentClaimIdentifier() != null) {
+            out.write(1);
+            writeString(out, record.getPreviousContentClaimContainer());
+            writeString(out, record.getPreviousContentClaimSection());
+            writeString(out, record.getPreviousContentClaimIdentifier());
+            writeSignedVarLong(out, record.getPreviousContentClaimOffset() == null ? 0L : record.getPreviousContentClaimOffset());
+            writeSignedVarLong(out, record.getPreviousFileSize() == null ? 0L : record.getPreviousFileSize());
+        } else {
+            out.write(0);
+        }
+
+        writeString(out, record.getSourceQueueIdentifier());
+
+        // Write type-specific info
+        if (recordType == ProvenanceEventType.FORK || recordType == ProvenanceEventType.JOIN || recordType == ProvenanceEventType.CLONE || recordType == ProvenanceEventType.REPLAY) {
+            writeStrings(out, record.getParentUuids());
+            writeStrings(out, record.getChildUuids());
+        } else if (recordType == ProvenanceEventType.RECEIVE) {
+            writeString(out, record.getTransitUri());
+            writeString(out, record.getSourceSystemFlowFileIdentifier());
+        } else if (recordType == ProvenanceEventType.FETCH) {
+            writeString(out, record.getTransitUri());
+        } else if (recordType == ProvenanceEventType.SEND) {
+            writeString(out, record.getTransitUri());
+        } else if (recordType == ProvenanceEventType.ADDINFO) {
+            writeString(out, record.getAlternateIdentifierUri());
+        } else if (recordType == ProvenanceEventType.ROUTE) {
+            writeString(out, record.getRelationship());
+        }
+    }
+
+    private void writeAttributes(final DataOutputStream out, final Map<String, String> attributes, final Map<String, String> cachedAttributes) throws IOException {
+        if (cachedAttributes != null) {
+            final List<String> removed = new ArrayList<>();
+            for (final String key : cachedAttributes.keySet()) {
+                if (!attributes.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+
+            final List<Map.Entry<String, String>> changed = new ArrayList<>();
+            for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+                if (!cachedAttributes.containsKey(entry.getKey()) || !Objects.equals(cachedAttributes.get(entry.getKey()), entry.getValue())) {
+                    changed.add(entry);
+                }
+            }
+
+            if (removed.size() + changed.size() < attributes.size()) {
+                out.write(ATTRIBUTES_DELTA);
+                writeStrings(out, removed);
+                writeVarInt(out, changed.size());
+                for (final Map.Entry<String, String> entry : changed) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+                return;
+            }
+        }
+
+        out.write(ATTRIBUTES_FULL);
+        writeVarInt(out, attributes.size());
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private void writeStrings(final DataOutputStream out, final Collection<String> values) throws IOException {
+        if (values == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+
+        writeVarInt(out, values.size());
+        for (final String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    /**
+     * Writes a reference to the string if it is in the dictionary; otherwise, writes the string itself and adds it to the
+     * dictionary if there is room.
+     */
+    private void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, STRING_NULL);
+            return;
+        }
+
+        final Integer index = dictionary.get(value);
+        if (index != null) {
+            writeVarInt(out, STRING_REFERENCE_OFFSET + index);
+            return;
+        }
+
+        if (dictionary.size() < MAX_DICTIONARY_SIZE && value.length() <= MAX_DICTIONARY_STRING_LENGTH) {
+            dictionary.put(value, dictionary.size());
+            writeVarInt(out, STRING_LITERAL_ADDED);
+        } else {
+            writeVarInt(out, STRING_LITERAL);
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static void writeSignedVarLong(final DataOutputStream out, final long value) throws IOException {
+        // zig-zag encoding, so that values close to zero take few bytes regardless of sign
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeVarLong(final DataOutputStream out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    @Override
+    public String toString() {
+        return "DictionaryRecordWriter[file=" + getFile() + "]";
+    }
+}
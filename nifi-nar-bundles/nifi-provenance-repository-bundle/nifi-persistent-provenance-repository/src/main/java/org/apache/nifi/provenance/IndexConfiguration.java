@@ -34,6 +34,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.nifi.provenance.lucene.IndexSummary;
 import org.apache.nifi.provenance.serialization.RecordReader;
 import org.apache.nifi.provenance.serialization.RecordReaders;
 
@@ -47,6 +48,7 @@ public class IndexConfiguration {
 
     private final RepositoryConfiguration repoConfig;
     private final Map<File, List<File>> indexDirectoryMap = new HashMap<>();
+    private final Map<File, IndexSummary> indexSummaries = new HashMap<>();
     private final Pattern indexNamePattern = Pattern.compile("index-(\\d+)");
 
     private final Lock lock = new ReentrantLock();
@@ -116,6 +118,8 @@ public class IndexConfiguration {
             for (final File keyToRemove : keysToRemove) {
                 indexDirectoryMap.remove(keyToRemove);
             }
+
+            indexSummaries.remove(indexDirectory.getAbsoluteFile());
         } finally {
             lock.unlock();
         }
@@ -166,6 +170,36 @@ public class IndexConfiguration {
         return new File(storageDirectory, "index-" + firstEntryTime);
     }
 
+    /**
+     * Returns the summary of the events that have been added to the given index directory, recovering it from the
+     * directory the first time that it is requested.
+     *
+     * @param indexDirectory the index directory
+     * @return the summary of the index directory
+     */
+    public IndexSummary getIndexSummary(final File indexDirectory) {
+        final File absoluteFile = indexDirectory.getAbsoluteFile();
+
+        lock.lock();
+        try {
+            IndexSummary summary = indexSummaries.get(absoluteFile);
+            if (summary == null) {
+                try {
+                    summary = IndexSummary.recover(indexDirectory);
+                } catch (final IOException ioe) {
+                    logger.warn("Failed to recover the summary of index {}; all queries will search this index", indexDirectory, ioe);
+                    summary = IndexSummary.createIncomplete(indexDirectory);
+                }
+
+                indexSummaries.put(absoluteFile, summary);
+            }
+
+            return summary;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public List<File> getIndexDirectories() {
         lock.lock();
         try {
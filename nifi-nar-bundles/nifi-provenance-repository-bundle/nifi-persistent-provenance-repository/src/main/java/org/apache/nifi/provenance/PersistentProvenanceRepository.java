@@ -65,6 +65,7 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexNotFoundException;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
@@ -84,11 +85,16 @@ import org.apache.nifi.provenance.lineage.ComputeLineageSubmission;
 import org.apache.nifi.provenance.lineage.FlowFileLineage;
 import org.apache.nifi.provenance.lineage.Lineage;
 import org.apache.nifi.provenance.lineage.LineageComputationType;
+import org.apache.nifi.provenance.lineageindex.LineageIndexQuery;
+import org.apache.nifi.provenance.lineageindex.LineageIndexUtil;
+import org.apache.nifi.provenance.lineageindex.LineageIndexWriter;
 import org.apache.nifi.provenance.lucene.DeleteIndexAction;
 import org.apache.nifi.provenance.lucene.FieldNames;
 import org.apache.nifi.provenance.lucene.IndexManager;
 import org.apache.nifi.provenance.lucene.IndexSearch;
+import org.apache.nifi.provenance.lucene.IndexSummary;
 import org.apache.nifi.provenance.lucene.IndexingAction;
+import org.apache.nifi.provenance.lucene.JournalIndexer;
 import org.apache.nifi.provenance.lucene.LineageQuery;
 import org.apache.nifi.provenance.lucene.LuceneUtil;
 import org.apache.nifi.provenance.lucene.SimpleIndexManager;
@@ -146,6 +152,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
     private final Lock readLock = rwLock.readLock();
 
     private RecordWriter[] writers; // guarded by readLock/writeLock
+    private JournalIndexer journalIndexer; // guarded by readLock/writeLock; null unless near real time indexing is enabled
 
     private final AtomicLong streamStartTime = new AtomicLong(System.currentTimeMillis());
     private final RepositoryConfiguration configuration;
@@ -173,9 +180,13 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
     private final AtomicInteger dirtyWriterCount = new AtomicInteger(0);
 
+    // the journal indexers whose journals have not yet been merged
+    private final Set<JournalIndexer> unmergedJournalIndexers = ConcurrentHashMap.newKeySet();
+
     // we keep the last 1000 records on hand so that when the UI is opened and it asks for the last 1000 records we don't need to
     // read them. Since this is a very cheap operation to keep them, it's worth the tiny expense for the improved user experience.
     private final RingBuffer<ProvenanceEventRecord> latestRecords = new RingBuffer<>(1000);
+    private volatile ProvenanceEventBatcher eventBatcher; // null unless an event queue is configured
     private EventReporter eventReporter; // effectively final
     private Authorizer authorizer;  // effectively final
     private ProvenanceAuthorizableFactory resourceFactory;  // effectively final
@@ -262,6 +273,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
             if (configuration.isAllowRollover()) {
                 writers = createWriters(configuration, idGenerator.get());
+                journalIndexer = createJournalIndexer(writers);
             }
 
             if (configuration.isAllowRollover()) {
@@ -313,6 +325,16 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             }
 
             firstEventTimestamp = determineFirstEventTimestamp();
+
+            if (configuration.getEventQueueCapacity() > 0) {
+                // one thread per storage directory, so that batches can be written to each partition in parallel
+                final ProvenanceEventBatcher batcher = new ProvenanceEventBatcher(configuration.getEventQueueCapacity(), configuration.getEventBatchSize(),
+                    configuration.isDropEventsWhenQueueFull(), configuration.getStorageDirectories().size(), this::persistRecord, eventReporter);
+                batcher.start();
+                eventBatcher = batcher;
+                logger.info("Provenance Events will be queued and written in batches of up to {} events; queue capacity is {} events and events will be {} when the queue is full",
+                    configuration.getEventBatchSize(), configuration.getEventQueueCapacity(), configuration.isDropEventsWhenQueueFull() ? "dropped" : "blocked");
+            }
         } finally {
             writeLock.unlock();
         }
@@ -331,6 +353,19 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         final int queryThreads = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_QUERY_THREAD_POOL_SIZE, 2);
         final int indexThreads = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_INDEX_THREAD_POOL_SIZE, 1);
         final int journalCount = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_JOURNAL_COUNT, 16);
+        final int eventQueueSize = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_EVENT_QUEUE_SIZE, 0);
+        final int eventBatchSize = nifiProperties.getIntegerProperty(NiFiProperties.PROVENANCE_EVENT_BATCH_SIZE, 1000);
+        final String eventQueueFullStrategy = nifiProperties.getProperty(NiFiProperties.PROVENANCE_EVENT_QUEUE_FULL_STRATEGY, "block").trim();
+        final boolean dropEventsWhenQueueFull;
+        if ("drop".equalsIgnoreCase(eventQueueFullStrategy)) {
+            dropEventsWhenQueueFull = true;
+        } else {
+            dropEventsWhenQueueFull = false;
+            if (!"block".equalsIgnoreCase(eventQueueFullStrategy)) {
+                logger.warn("Found {} property set to '{}' but valid values are 'block' and 'drop'; using 'block' instead",
+                    NiFiProperties.PROVENANCE_EVENT_QUEUE_FULL_STRATEGY, eventQueueFullStrategy);
+            }
+        }
 
         final long storageMillis = FormatUtils.getTimeDuration(storageTime, TimeUnit.MILLISECONDS);
         final long maxStorageBytes = DataUnit.parseDataSize(storageSize, DataUnit.B).longValue();
@@ -381,6 +416,11 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         config.setIndexThreadPoolSize(indexThreads);
         config.setJournalCount(journalCount);
         config.setMaxAttributeChars(maxAttrChars);
+        config.setEventQueueCapacity(eventQueueSize);
+        config.setEventBatchSize(Math.max(1, eventBatchSize));
+        config.setDropEventsWhenQueueFull(dropEventsWhenQueueFull);
+        config.setNearRealTimeIndexing(Boolean.parseBoolean(nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEX_NEAR_REAL_TIME, "false")));
+        config.setDictionaryEncoding(Boolean.parseBoolean(nifiProperties.getProperty(NiFiProperties.PROVENANCE_DICTIONARY_ENCODING, "false")));
 
         if (shardSize != null) {
             config.setDesiredIndexSize(DataUnit.parseDataSize(shardSize, DataUnit.B).longValue());
@@ -401,7 +441,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             final File journalDirectory = new File(storageDirectory, "journals");
             final File journalFile = new File(journalDirectory, String.valueOf(initialRecordId) + ".journal." + i);
 
-            writers[i] = RecordWriters.newRecordWriter(journalFile, false, false);
+            writers[i] = RecordWriters.newRecordWriter(journalFile, false, false, config.isDictionaryEncoding());
             writers[i].writeHeader(initialRecordId);
         }
 
@@ -409,6 +449,42 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         return writers;
     }
 
+    /**
+     * Chooses the storage directory that the given journals will be merged into and, if near real time indexing is enabled,
+     * creates a JournalIndexer that indexes the events written to them into an index of that storage directory.
+     *
+     * @return the JournalIndexer for the journals, or <code>null</code> if the events will be indexed when the journals are merged
+     */
+    private JournalIndexer createJournalIndexer(final RecordWriter[] journalWriters) {
+        if (!configuration.isNearRealTimeIndexing() || journalWriters.length == 0) {
+            return null;
+        }
+
+        final long storageDirIdx = storageDirectoryIndex.getAndIncrement();
+        final List<File> storageDirs = configuration.getStorageDirectories();
+        final File storageDir = storageDirs.get((int) (storageDirIdx % storageDirs.size()));
+
+        final List<File> journalFiles = new ArrayList<>(journalWriters.length);
+        for (final RecordWriter journalWriter : journalWriters) {
+            journalFiles.add(journalWriter.getFile());
+        }
+
+        final File mergeFile = getMergeFile(journalFiles, storageDir);
+        final File indexDir = indexConfig.getWritableIndexDirectory(mergeFile, System.currentTimeMillis());
+        try {
+            final JournalIndexer indexer = new JournalIndexer(LuceneUtil.substringBefore(mergeFile.getName(), "."), storageDir, indexDir,
+                getIndexManager(), createIndexingAction(), indexConfig.getIndexSummary(indexDir), journalWriters.length,
+                configuration.getIndexThreadPoolSize());
+            unmergedJournalIndexers.add(indexer);
+            return indexer;
+        } catch (final IOException ioe) {
+            logger.error("Failed to open Index Writer for {}; Provenance Events will not be searchable until the journals are rolled over", indexDir, ioe);
+            eventReporter.reportEvent(Severity.ERROR, EVENT_CATEGORY, "Failed to open Index Writer for " + indexDir
+                + "; Provenance Events will not be searchable until the journals are rolled over: " + ioe.toString());
+            return null;
+        }
+    }
+
     /**
      * @return the maximum number of characters that any Event attribute should
      * contain. If the event contains more characters than this, the attribute
@@ -425,12 +501,48 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
     @Override
     public void registerEvent(final ProvenanceEventRecord event) {
-        persistRecord(Collections.singleton(event));
+        registerEvents(Collections.singleton(event));
     }
 
     @Override
     public void registerEvents(final Iterable<ProvenanceEventRecord> events) {
-        persistRecord(events);
+        final ProvenanceEventBatcher batcher = eventBatcher;
+        if (batcher == null || !batcher.submit(events)) {
+            persistRecord(events);
+        }
+    }
+
+    /**
+     * @return the number of Provenance Events that have been registered but not yet written to the repository. Always 0 if
+     *         no event queue is configured.
+     */
+    public int getQueuedEventCount() {
+        final ProvenanceEventBatcher batcher = eventBatcher;
+        return batcher == null ? 0 : batcher.getQueueDepth();
+    }
+
+    /**
+     * @return the number of Provenance Events that were discarded because the event queue was full
+     */
+    public long getDroppedEventCount() {
+        final ProvenanceEventBatcher batcher = eventBatcher;
+        return batcher == null ? 0L : batcher.getDroppedEventCount();
+    }
+
+    /**
+     * @return the number of queued Provenance Events that could not be written to the repository
+     */
+    public long getFailedEventCount() {
+        final ProvenanceEventBatcher batcher = eventBatcher;
+        return batcher == null ? 0L : batcher.getFailedEventCount();
+    }
+
+    /**
+     * @return the number of batches of queued Provenance Events that have been written to the repository
+     */
+    public long getEventBatchCount() {
+        final ProvenanceEventBatcher batcher = eventBatcher;
+        return batcher == null ? 0L : batcher.getBatchCount();
     }
 
     public boolean isAuthorized(final ProvenanceEventRecord event, final NiFiUser user) {
@@ -711,6 +823,14 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
     @Override
     public synchronized void close() throws IOException {
+        // write out anything that is still queued before we close the writers. This must happen before we obtain the write lock,
+        // as writing the events requires the read lock.
+        final ProvenanceEventBatcher batcher = eventBatcher;
+        if (batcher != null) {
+            batcher.shutdown();
+            logger.info("Wrote all queued Provenance Events: {}", batcher);
+        }
+
         this.closed.set(true);
         writeLock.lock();
         try {
@@ -720,6 +840,12 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             rolloverExecutor.shutdownNow();
             queryExecService.shutdownNow();
 
+            // commit whatever has been indexed for journals that were not merged. They will be merged on restart.
+            for (final JournalIndexer indexer : unmergedJournalIndexers) {
+                closeJournalIndexer(indexer);
+            }
+            journalIndexer = null;
+
             getIndexManager().close();
 
             if (writers != null) {
@@ -747,6 +873,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             // atomically, so we need to do this with a lock.
             boolean locked = false;
             RecordWriter writer;
+            int journalIndex;
             do {
                 final RecordWriter[] recordWriters = this.writers;
                 final int numDirty = dirtyWriterCount.get();
@@ -756,16 +883,24 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                 }
 
                 final long idx = writerIndex.getAndIncrement();
-                writer = recordWriters[(int) (idx % recordWriters.length)];
+                journalIndex = (int) (idx % recordWriters.length);
+                writer = recordWriters[journalIndex];
                 locked = writer.tryLock();
             } while (!locked);
 
+            final JournalIndexer indexer = this.journalIndexer;
+            final List<JournaledEvent> journaledEvents = indexer == null ? null : new ArrayList<>();
             try {
                 try {
                     for (final ProvenanceEventRecord nextRecord : records) {
                         final long eventId = idGenerator.getAndIncrement();
-                        bytesWritten += writer.writeRecord(nextRecord, eventId);
+                        final long recordBytes = writer.writeRecord(nextRecord, eventId);
+                        bytesWritten += recordBytes;
                         logger.trace("Wrote record with ID {} to {}", eventId, writer);
+
+                        if (indexer != null) {
+                            journaledEvents.add(new JournaledEvent(nextRecord, eventId, indexer.recordWritten(journalIndex, recordBytes)));
+                        }
                     }
 
                     if (alwaysSync) {
@@ -786,6 +921,15 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                 } finally {
                     writer.unlock();
                 }
+
+                // Queue the events to be indexed in the background while still holding the read lock, so that the journals cannot
+                // be rolled over before the indexer has them, but after releasing the journal so that other threads can write to it.
+                if (indexer != null) {
+                    final File journalFile = writer.getFile();
+                    for (final JournaledEvent journaledEvent : journaledEvents) {
+                        indexer.index(journaledEvent.getRecord(), journaledEvent.getEventId(), journalFile, journaledEvent.getJournalOffset());
+                    }
+                }
             } catch (final IOException ioe) {
                 // warn about the failure
                 logger.error("Failed to persist Provenance Event due to {}.", ioe.toString());
@@ -1290,13 +1434,23 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                 }
             }
 
-            // Choose a storage directory to store the merged file in.
-            final long storageDirIdx = storageDirectoryIndex.getAndIncrement();
-            final List<File> storageDirs = configuration.getStorageDirectories();
-            final File storageDir = storageDirs.get((int) (storageDirIdx % storageDirs.size()));
+            // Choose a storage directory to store the merged file in. If the events have been indexed as they were written,
+            // the directory was chosen when the journals were created, as the index belongs to that directory.
+            final JournalIndexer indexer = journalIndexer;
+            journalIndexer = null;
+            final File storageDir;
+            if (indexer == null) {
+                final long storageDirIdx = storageDirectoryIndex.getAndIncrement();
+                final List<File> storageDirs = configuration.getStorageDirectories();
+                storageDir = storageDirs.get((int) (storageDirIdx % storageDirs.size()));
+            } else {
+                storageDir = indexer.getStorageDirectory();
+            }
 
             Future<?> future = null;
-            if (!journalsToMerge.isEmpty()) {
+            if (journalsToMerge.isEmpty()) {
+                closeJournalIndexer(indexer);
+            } else {
                 // Run the rollover logic in a background thread.
                 final AtomicReference<Future<?>> futureReference = new AtomicReference<>();
                 final AtomicInteger retryAttempts = new AtomicInteger(MAX_JOURNAL_ROLLOVER_RETRIES);
@@ -1308,7 +1462,21 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
                         try {
                             try {
-                                fileRolledOver = mergeJournals(journalsToMerge, getMergeFile(journalsToMerge, storageDir), eventReporter);
+                                final File mergeFile = getMergeFile(journalsToMerge, storageDir);
+                                if (indexer != null) {
+                                    // no more events can be written to the journals; wait for those that are queued to be indexed
+                                    indexer.finishIndexing();
+                                }
+
+                                if (indexer == null) {
+                                    fileRolledOver = mergeJournals(journalsToMerge, mergeFile, eventReporter);
+                                } else if (indexer.isFailed()) {
+                                    // not all of the events made it into the index, so start over and index them while merging
+                                    indexer.deleteIndexedEvents();
+                                    fileRolledOver = mergeJournals(journalsToMerge, mergeFile, eventReporter);
+                                } else {
+                                    fileRolledOver = mergeJournals(journalsToMerge, mergeFile, eventReporter, false);
+                                }
                             } catch (final IOException ioe) {
                                 logger.error("Failed to merge Journal Files {} into a Provenance Log File due to {}", journalsToMerge, ioe.toString());
                                 logger.error("", ioe);
@@ -1332,6 +1500,10 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                                 }
 
                                 logger.info("Successfully Rolled over Provenance Event file containing {} records", recordsWritten);
+                                final ProvenanceEventBatcher batcher = eventBatcher;
+                                if (batcher != null) {
+                                    logger.info("Provenance Event queue statistics: {}", batcher);
+                                }
                             }
 
                             //if files were rolled over or if out of retries stop the future
@@ -1341,6 +1513,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                                     logger.error("Failed to merge Journal Files {} after {} attempts. ", journalsToMerge, MAX_JOURNAL_ROLLOVER_RETRIES);
                                 }
 
+                                closeJournalIndexer(indexer);
                                 rolloverCompletions.getAndIncrement();
 
                                 // Cancel the future so that we don't run anymore
@@ -1434,6 +1607,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
             // we've finished rolling over successfully. Create new writers and reset state.
             writers = createWriters(configuration, idGenerator.get());
+            journalIndexer = createJournalIndexer(writers);
             dirtyWriterCount.set(0);
             streamStartTime.set(System.currentTimeMillis());
             recordsWrittenSinceRollover.getAndSet(0);
@@ -1478,7 +1652,13 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         }
 
         final Set<File> mergedFiles = new HashSet<>();
-        for (final List<File> journalFileSet : journalMap.values()) {
+        for (final Map.Entry<String, List<File>> entry : journalMap.entrySet()) {
+            final List<File> journalFileSet = entry.getValue();
+            if (configuration.isNearRealTimeIndexing()) {
+                // some of the events may have been indexed as they were written; remove them so they are not indexed twice
+                deleteJournaledEvents(entry.getKey());
+            }
+
             final long storageDirIdx = storageDirectoryIndex.getAndIncrement();
             final File storageDir = storageDirs.get((int) (storageDirIdx % storageDirs.size()));
             final File mergedFile = mergeJournals(journalFileSet, getMergeFile(journalFileSet, storageDir), eventReporter);
@@ -1490,6 +1670,35 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         return mergedFiles;
     }
 
+    private void deleteJournaledEvents(final String storageFilename) throws IOException {
+        final Term term = new Term(FieldNames.STORAGE_FILENAME, storageFilename);
+        for (final File indexDirectory : indexConfig.getIndexDirectories()) {
+            final IndexWriter indexWriter = getIndexManager().borrowIndexWriter(indexDirectory);
+            try {
+                indexWriter.deleteDocuments(term);
+            } finally {
+                getIndexManager().returnIndexWriter(indexDirectory, indexWriter);
+            }
+
+            persistIndexSummary(indexConfig.getIndexSummary(indexDirectory));
+        }
+    }
+
+    private void persistIndexSummary(final IndexSummary indexSummary) {
+        try {
+            indexSummary.persist();
+        } catch (final IOException ioe) {
+            logger.warn("Failed to persist {}; all queries will search this index after a restart", indexSummary, ioe);
+        }
+    }
+
+    private void closeJournalIndexer(final JournalIndexer indexer) {
+        if (indexer != null) {
+            unmergedJournalIndexers.remove(indexer);
+            indexer.close();
+        }
+    }
+
     static File getMergeFile(final List<File> journalFiles, final File storageDir) {
         // verify that all Journal files have the same basename
         String canonicalBaseName = null;
@@ -1541,6 +1750,28 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
      * reading from a journal, or updating the Lucene Index.
      */
     File mergeJournals(final List<File> journalFiles, final File suggestedMergeFile, final EventReporter eventReporter) throws IOException {
+        return mergeJournals(journalFiles, suggestedMergeFile, eventReporter, true);
+    }
+
+    /**
+     * Merges all of the given Journal Files into a single, merged Provenance
+     * Event Log File, as {@link #mergeJournals(List, File, EventReporter)} does,
+     * but optionally without indexing the records. The records need not be
+     * indexed if they were already indexed as they were written to the journals.
+     *
+     * @param journalFiles the journal files to merge
+     * @param suggestedMergeFile the file to write the merged records to
+     * @param eventReporter the event reporter to report any warnings or errors
+     * to; may be null.
+     * @param indexRecords whether or not to index the records
+     *
+     * @return the file that the given journals were merged into, or
+     * <code>null</code> if no records were merged.
+     *
+     * @throws IOException if a problem occurs writing to the mergedFile,
+     * reading from a journal, or updating the Lucene Index.
+     */
+    File mergeJournals(final List<File> journalFiles, final File suggestedMergeFile, final EventReporter eventReporter, final boolean indexRecords) throws IOException {
         logger.debug("Merging {} to {}", journalFiles, suggestedMergeFile);
         if (this.closed.get()) {
             logger.info("Provenance Repository has been closed; will not merge journal files to {}", suggestedMergeFile);
@@ -1577,17 +1808,21 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         if (numAvailableFiles > 0) {
             if (suggestedMergeFile.exists()) {
                 // we have all "partial" files and there is already a merged file. Delete the data from the index
-                // because the merge file may not be fully merged. We will re-merge.
+                // because the merge file may not be fully merged. We will re-merge. If we are not indexing the records,
+                // the index refers to them by ID and remains valid for the re-merged file, so we leave it alone.
                 logger.warn("Merged Journal File {} already exists; however, all partial journal files also exist "
                         + "so assuming that the merge did not finish. Repeating procedure in order to ensure consistency.");
 
-                final DeleteIndexAction deleteAction = new DeleteIndexAction(this, indexConfig, getIndexManager());
-                try {
-                    deleteAction.execute(suggestedMergeFile);
-                } catch (final Exception e) {
-                    logger.warn("Failed to delete records from Journal File {} from the index; this could potentially result in duplicates. Failure was due to {}", suggestedMergeFile, e.toString());
-                    if (logger.isDebugEnabled()) {
-                        logger.warn("", e);
+                if (indexRecords) {
+                    final DeleteIndexAction deleteAction = new DeleteIndexAction(this, indexConfig, getIndexManager());
+                    try {
+                        deleteAction.execute(suggestedMergeFile);
+                    } catch (final Exception e) {
+                        logger.warn("Failed to delete records from Journal File {} from the index; this could potentially result in duplicates. Failure was due to {}",
+                            suggestedMergeFile, e.toString());
+                        if (logger.isDebugEnabled()) {
+                            logger.warn("", e);
+                        }
                     }
                 }
 
@@ -1604,6 +1839,12 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                     logger.error("Failed to delete .toc file {}; this may result in not being able to read the Provenance Events from the {} Journal File. "
                             + "This can be corrected by manually deleting the {} file", tocFile, suggestedMergeFile, tocFile);
                 }
+
+                final File lineageIndexFile = LineageIndexUtil.getLineageIndexFile(suggestedMergeFile);
+                if (lineageIndexFile.exists() && !lineageIndexFile.delete()) {
+                    logger.error("Failed to delete .lineage file {}; this may result in incorrect lineage for the Provenance Events from the {} Journal File. "
+                            + "This can be corrected by manually deleting the {} file", lineageIndexFile, suggestedMergeFile, lineageIndexFile);
+                }
             }
         } else {
             logger.warn("Cannot merge journal files {} because they do not exist on disk", journalFiles);
@@ -1696,21 +1937,25 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
             // loop over each entry in the map, persisting the records to the merged file in order, and populating the map
             // with the next entry from the journal file from which the previous record was written.
-            try (final RecordWriter writer = RecordWriters.newRecordWriter(writerFile, configuration.isCompressOnRollover(), true)) {
+            try (final RecordWriter writer = RecordWriters.newRecordWriter(writerFile, configuration.isCompressOnRollover(), true,
+                    configuration.isDictionaryEncoding());
+                final LineageIndexWriter lineageIndexWriter = new LineageIndexWriter(LineageIndexUtil.getLineageIndexFile(writerFile))) {
                 writer.writeHeader(minEventId);
 
                 final IndexingAction indexingAction = createIndexingAction();
 
-                final File indexingDirectory = indexConfig.getWritableIndexDirectory(writerFile, earliestTimestamp);
+                final File indexingDirectory = indexRecords ? indexConfig.getWritableIndexDirectory(writerFile, earliestTimestamp) : null;
+                final IndexSummary indexSummary = indexRecords ? indexConfig.getIndexSummary(indexingDirectory) : null;
+                final int indexThreadCount = indexRecords ? configuration.getIndexThreadPoolSize() : 0;
                 long maxId = 0L;
 
                 final BlockingQueue<Tuple<StandardProvenanceEventRecord, Integer>> eventQueue = new LinkedBlockingQueue<>(100);
                 final AtomicBoolean finishedAdding = new AtomicBoolean(false);
                 final List<Future<?>> futures = new ArrayList<>();
 
-                final IndexWriter indexWriter = getIndexManager().borrowIndexWriter(indexingDirectory);
+                final IndexWriter indexWriter = indexRecords ? getIndexManager().borrowIndexWriter(indexingDirectory) : null;
                 try {
-                    final ExecutorService exec = Executors.newFixedThreadPool(configuration.getIndexThreadPoolSize(), new ThreadFactory() {
+                    final ExecutorService exec = Executors.newFixedThreadPool(Math.max(1, indexThreadCount), new ThreadFactory() {
                         @Override
                         public Thread newThread(final Runnable r) {
                             final Thread t = Executors.defaultThreadFactory().newThread(r);
@@ -1721,7 +1966,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
                     final AtomicInteger indexingFailureCount = new AtomicInteger(0);
                     try {
-                        for (int i = 0; i < configuration.getIndexThreadPoolSize(); i++) {
+                        for (int i = 0; i < indexThreadCount; i++) {
                             final Callable<Object> callable = new Callable<Object>() {
                                 @Override
                                 public Object call() throws IOException {
@@ -1739,6 +1984,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                                                 continue;
                                             }
 
+                                            indexSummary.add(tuple.getKey());
                                             indexingAction.index(tuple.getKey(), indexWriter, tuple.getValue());
                                         } catch (final Throwable t) {
                                             logger.error("Failed to index Provenance Event for " + writerFile + " to " + indexingDirectory, t);
@@ -1756,7 +2002,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                             futures.add(future);
                         }
 
-                        boolean indexEvents = true;
+                        boolean indexEvents = indexRecords;
                         while (!recordToReaderMap.isEmpty()) {
                             final Map.Entry<StandardProvenanceEventRecord, RecordReader> entry = recordToReaderMap.entrySet().iterator().next();
                             final StandardProvenanceEventRecord record = entry.getKey();
@@ -1764,6 +2010,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
                             writer.writeRecord(record, record.getEventId());
                             final int blockIndex = writer.getTocWriter().getCurrentBlockIndex();
+                            lineageIndexWriter.addEvent(record, record.getEventId());
 
                             boolean accepted = false;
                             while (!accepted && indexEvents) {
@@ -1831,7 +2078,10 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
                         }
                     }
                 } finally {
-                    getIndexManager().returnIndexWriter(indexingDirectory, indexWriter);
+                    if (indexWriter != null) {
+                        getIndexManager().returnIndexWriter(indexingDirectory, indexWriter);
+                        persistIndexSummary(indexSummary);
+                    }
                 }
 
                 indexConfig.setMaxIdIndexed(maxId);
@@ -1945,6 +2195,25 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         return new ArrayList<>(configuration.getSearchableAttributes());
     }
 
+    /**
+     * Waits for the events that have been written to the current journals to be indexed, if near real time indexing is enabled
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void waitForJournaledEventsIndexed() throws InterruptedException {
+        final JournalIndexer indexer;
+        readLock.lock();
+        try {
+            indexer = journalIndexer;
+        } finally {
+            readLock.unlock();
+        }
+
+        if (indexer != null) {
+            indexer.waitForQueuedEvents();
+        }
+    }
+
     QueryResult queryEvents(final Query query, final NiFiUser user) throws IOException {
         final QuerySubmission submission = submitQuery(query, user);
         final QueryResult result = submission.getResult();
@@ -2011,7 +2280,7 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         }
 
         final AtomicInteger retrievalCount = new AtomicInteger(0);
-        final List<File> indexDirectories = indexConfig.getIndexDirectories(
+        final List<File> indexDirectories = getIndexDirectories(
                 query.getStartDate() == null ? null : query.getStartDate().getTime(),
                 query.getEndDate() == null ? null : query.getEndDate().getTime());
         final AsyncQuerySubmission result = new AsyncQuerySubmission(query, indexDirectories.size(), userId);
@@ -2028,6 +2297,25 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         return result;
     }
 
+    /**
+     * Returns the index directories that may contain events for the given time span. The indices that journaled events are
+     * currently being added to are always included, as their last modified times do not reflect the events that have not
+     * yet been flushed to disk.
+     */
+    private List<File> getIndexDirectories(final Long startTime, final Long endTime) {
+        final List<File> indexDirectories = indexConfig.getIndexDirectories(startTime, endTime);
+        if (startTime != null) {
+            for (final JournalIndexer indexer : unmergedJournalIndexers) {
+                final File indexDirectory = indexer.getIndexDirectory();
+                if (!indexDirectories.contains(indexDirectory)) {
+                    indexDirectories.add(indexDirectory);
+                }
+            }
+        }
+
+        return indexDirectories;
+    }
+
     /**
      * This is for testing only and not actually used other than in debugging
      *
@@ -2245,7 +2533,15 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
 
     private AsyncLineageSubmission submitLineageComputation(final Collection<String> flowFileUuids, final NiFiUser user, final LineageComputationType computationType,
             final Long eventId, final long startTimestamp, final long endTimestamp) {
-        final List<File> indexDirs = indexConfig.getIndexDirectories(startTimestamp, endTimestamp);
+        final List<Path> lineageIndexedFiles = getLineageIndexedFiles();
+        if (lineageIndexedFiles != null) {
+            final AsyncLineageSubmission result = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, 1, user.getIdentity());
+            lineageSubmissionMap.put(result.getLineageIdentifier(), result);
+            queryExecService.submit(new LineageIndexRunnable(flowFileUuids, user, result, lineageIndexedFiles, startTimestamp, endTimestamp));
+            return result;
+        }
+
+        final List<File> indexDirs = getIndexDirectories(startTimestamp, endTimestamp);
         final AsyncLineageSubmission result = new AsyncLineageSubmission(computationType, eventId, flowFileUuids, indexDirs.size(), user.getIdentity());
         lineageSubmissionMap.put(result.getLineageIdentifier(), result);
 
@@ -2256,6 +2552,28 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         return result;
     }
 
+    /**
+     * Returns the Provenance Event Log Files if lineage can be computed from their Lineage Indices, or <code>null</code> if it
+     * must be computed by searching the Lucene indices instead. This is the case if any file predates Lineage Indices or if
+     * events are indexed as they are journaled, as only the Lucene indices then contain the events that have not yet been merged.
+     */
+    private List<Path> getLineageIndexedFiles() {
+        if (configuration.isNearRealTimeIndexing()) {
+            return null;
+        }
+
+        final List<Path> eventFiles = new ArrayList<>(idToPathMap.get().values());
+        for (final Path eventFile : eventFiles) {
+            final File file = eventFile.toFile();
+            if (!LineageIndexUtil.getLineageIndexFile(file).exists() && file.exists()) {
+                logger.debug("No Lineage Index exists for {}; will compute lineage using the Lucene indices", file);
+                return null;
+            }
+        }
+
+        return eventFiles;
+    }
+
     @Override
     public AsyncLineageSubmission submitExpandChildren(final long eventId, final NiFiUser user) {
         final String userId = user.getIdentity();
@@ -2546,7 +2864,8 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         @Override
         public void run() {
             try {
-                final IndexSearch search = new IndexSearch(PersistentProvenanceRepository.this, indexDir, getIndexManager(), maxAttributeChars);
+                final IndexSearch search = new IndexSearch(PersistentProvenanceRepository.this, indexDir, indexConfig.getIndexSummary(indexDir),
+                    getIndexManager(), maxAttributeChars);
                 final StandardQueryResult queryResult = search.search(query, user, retrievalCount, firstEventTimestamp);
                 submission.getResult().update(queryResult.getMatchingEvents(), queryResult.getTotalHitCount());
             } catch (final Throwable t) {
@@ -2608,6 +2927,55 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
         }
     }
 
+    private class LineageIndexRunnable implements Runnable {
+
+        private final Collection<String> flowFileUuids;
+        private final NiFiUser user;
+        private final AsyncLineageSubmission submission;
+        private final List<Path> eventFiles;
+        private final long startTimestamp;
+        private final long endTimestamp;
+
+        public LineageIndexRunnable(final Collection<String> flowFileUuids, final NiFiUser user, final AsyncLineageSubmission submission, final List<Path> eventFiles,
+                final long startTimestamp, final long endTimestamp) {
+            this.flowFileUuids = flowFileUuids;
+            this.user = user;
+            this.submission = submission;
+            this.eventFiles = eventFiles;
+            this.startTimestamp = startTimestamp;
+            this.endTimestamp = endTimestamp;
+        }
+
+        @Override
+        public void run() {
+            if (submission.isCanceled()) {
+                return;
+            }
+
+            try {
+                final Set<ProvenanceEventRecord> matchingRecords = LineageIndexQuery.computeLineageForFlowFiles(eventFiles, flowFileUuids,
+                        startTimestamp, endTimestamp, maxAttributeChars);
+
+                final StandardLineageResult result = submission.getResult();
+                result.update(replaceUnauthorizedWithPlaceholders(matchingRecords, user));
+
+                logger.info("Successfully created Lineage for FlowFiles with UUIDs {} in {} milliseconds; Lineage contains {} nodes and {} edges",
+                        flowFileUuids, result.getComputationTime(TimeUnit.MILLISECONDS), result.getNodes().size(), result.getEdges().size());
+            } catch (final Throwable t) {
+                logger.error("Failed to compute lineage from the Lineage Index due to {}", t.toString());
+                if (logger.isDebugEnabled()) {
+                    logger.error("", t);
+                }
+
+                if (t.getMessage() == null) {
+                    submission.getResult().setError(t.toString());
+                } else {
+                    submission.getResult().setError(t.getMessage());
+                }
+            }
+        }
+    }
+
     private class RemoveExpiredQueryResults implements Runnable {
 
         @Override
@@ -2658,4 +3026,31 @@ public class PersistentProvenanceRepository implements ProvenanceRepository {
             return thread;
         }
     }
+
+    /**
+     * An event that has been written to a journal and is waiting to be indexed
+     */
+    private static class JournaledEvent {
+        private final ProvenanceEventRecord record;
+        private final long eventId;
+        private final long journalOffset;
+
+        public JournaledEvent(final ProvenanceEventRecord record, final long eventId, final long journalOffset) {
+            this.record = record;
+            this.eventId = eventId;
+            this.journalOffset = journalOffset;
+        }
+
+        public ProvenanceEventRecord getRecord() {
+            return record;
+        }
+
+        public long getEventId() {
+            return eventId;
+        }
+
+        public long getJournalOffset() {
+            return journalOffset;
+        }
+    }
 }
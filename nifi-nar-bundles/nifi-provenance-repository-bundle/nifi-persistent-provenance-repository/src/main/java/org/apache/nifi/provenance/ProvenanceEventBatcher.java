@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.apache.nifi.events.EventReporter;
+import org.apache.nifi.reporting.Severity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A bounded queue that sits between the threads that commit Process Sessions and the journals of the
+ * Provenance Repository. Committing threads only place their events on the queue; one or more background
+ * threads drain the queue and hand everything that has accumulated, up to a maximum batch size, to the
+ * repository in a single write. This way, many small sessions share a single journal lock and a single
+ * sync rather than each paying for their own.
+ * </p>
+ *
+ * <p>
+ * When the queue is full, committing threads either block until there is room (providing backpressure to the
+ * flow) or, if configured to do so, the events that do not fit are discarded and counted.
+ * </p>
+ *
+ * <p>
+ * A batch that cannot be written is retried a few times before its events are counted as failed and reported, since
+ * the threads that registered them have long since moved on and cannot be told.
+ * </p>
+ */
+class ProvenanceEventBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ProvenanceEventBatcher.class);
+
+    private static final long POLL_MILLIS = 100L;
+    private static final long DROP_REPORT_MILLIS = TimeUnit.SECONDS.toMillis(10L);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long WRITE_RETRY_MILLIS = 1000L;
+
+    private final BlockingQueue<ProvenanceEventRecord> queue;
+    private final int maxBatchSize;
+    private final boolean dropWhenFull;
+    private final Consumer<List<ProvenanceEventRecord>> batchWriter;
+    private final EventReporter eventReporter;
+    private final Thread[] drainThreads;
+
+    private final AtomicLong droppedEvents = new AtomicLong(0L);
+    private final AtomicLong failedEvents = new AtomicLong(0L);
+    private final AtomicLong batchesWritten = new AtomicLong(0L);
+    private final AtomicLong eventsWritten = new AtomicLong(0L);
+    private final AtomicLong lastReportedDrops = new AtomicLong(0L);
+    private final AtomicLong lastDropReportTime = new AtomicLong(0L);
+    private volatile boolean stopped = false;
+
+    // submitting threads hold the read lock while queuing, so that shutdown cannot begin while an event is being queued
+    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final Lock submitLock = rwLock.readLock();
+    private final Lock stopLock = rwLock.writeLock();
+
+    /**
+     * @param capacity the maximum number of events that may be queued
+     * @param maxBatchSize the maximum number of events to hand to the batch writer at once
+     * @param dropWhenFull <code>true</code> to discard events that do not fit in the queue, <code>false</code> to block until there is room
+     * @param threadCount the number of threads that drain the queue
+     * @param batchWriter writes a batch of events to the repository
+     * @param eventReporter used to notify users when events are dropped; may be <code>null</code>
+     */
+    ProvenanceEventBatcher(final int capacity, final int maxBatchSize, final boolean dropWhenFull, final int threadCount,
+        final Consumer<List<ProvenanceEventRecord>> batchWriter, final EventReporter eventReporter) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.dropWhenFull = dropWhenFull;
+        this.batchWriter = batchWriter;
+        this.eventReporter = eventReporter;
+
+        drainThreads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(new DrainTask(), "Provenance Event Batcher-" + (i + 1));
+            thread.setDaemon(true);
+            drainThreads[i] = thread;
+        }
+    }
+
+    void start() {
+        for (final Thread thread : drainThreads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Places the given events on the queue. The events are iterated over, and therefore fully built, on the calling
+     * thread, so the caller is free to reuse whatever backs the Iterable once this method returns.
+     *
+     * @param events the events to queue
+     * @return <code>false</code> if the batcher has been shut down, in which case none of the events were queued and the
+     *         caller is responsible for them; <code>true</code> otherwise
+     */
+    boolean submit(final Iterable<ProvenanceEventRecord> events) {
+        submitLock.lock();
+        try {
+            if (stopped) {
+                return false;
+            }
+
+            for (final ProvenanceEventRecord event : events) {
+                if (dropWhenFull) {
+                    if (!queue.offer(event)) {
+                        droppedEvents.incrementAndGet();
+                    }
+                } else {
+                    try {
+                        // the drain threads keep running until shutdown, which cannot begin while we hold the lock
+                        queue.put(event);
+                    } catch (final InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        droppedEvents.incrementAndGet();
+                        logger.warn("Interrupted while waiting for room in the Provenance Event queue; event {} will not be recorded", event);
+                    }
+                }
+            }
+
+            return true;
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting new events and waits for the events that are already queued to be written. Any events that the
+     * drain threads leave behind, because they were interrupted, are written by the calling thread.
+     */
+    void shutdown() {
+        // wait for any submission that is in progress to finish queuing its events
+        stopLock.lock();
+        try {
+            stopped = true;
+        } finally {
+            stopLock.unlock();
+        }
+
+        for (final Thread thread : drainThreads) {
+            try {
+                thread.join();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while waiting for queued Provenance Events to be written; {} events were not written", queue.size());
+                return;
+            }
+        }
+
+        final List<ProvenanceEventRecord> batch = new ArrayList<>(maxBatchSize);
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * @return the number of events that are waiting to be written
+     */
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of events that were discarded because the queue was full
+     */
+    long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * @return the number of events that could not be written to the repository, even after retrying
+     */
+    long getFailedEventCount() {
+        return failedEvents.get();
+    }
+
+    /**
+     * @return the number of batches that have been handed to the repository
+     */
+    long getBatchCount() {
+        return batchesWritten.get();
+    }
+
+    /**
+     * @return the number of events that have been handed to the repository
+     */
+    long getEventsWritten() {
+        return eventsWritten.get();
+    }
+
+    private void reportDrops() {
+        final long dropped = droppedEvents.get();
+        final long lastReported = lastReportedDrops.get();
+        if (dropped == lastReported) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        final long lastReportTime = lastDropReportTime.get();
+        if (now - lastReportTime < DROP_REPORT_MILLIS || !lastDropReportTime.compareAndSet(lastReportTime, now)) {
+            return;
+        }
+
+        lastReportedDrops.set(dropped);
+        final String message = "The Provenance Event queue was full; " + (dropped - lastReported) + " Provenance Events were discarded ("
+            + dropped + " in total). Consider increasing the size of the queue or configuring it to block when full.";
+        logger.warn(message);
+        if (eventReporter != null) {
+            eventReporter.reportEvent(Severity.WARNING, PersistentProvenanceRepository.EVENT_CATEGORY, message);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProvenanceEventBatcher[queueDepth=" + getQueueDepth() + ", batches=" + getBatchCount() + ", events=" + getEventsWritten()
+            + ", dropped=" + getDroppedEventCount() + ", failed=" + getFailedEventCount() + "]";
+    }
+
+    /**
+     * Hands the given batch to the batch writer, retrying a few times if it fails, and clears the batch. A failure is
+     * usually a condition that clears up on its own, such as all partitions being unusable until the next rollover.
+     */
+    private void writeBatch(final List<ProvenanceEventRecord> batch) {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    batchWriter.accept(batch);
+                    batchesWritten.incrementAndGet();
+                    eventsWritten.addAndGet(batch.size());
+                    return;
+                } catch (final Throwable t) {
+                    if (attempt < MAX_WRITE_ATTEMPTS) {
+                        logger.warn("Failed to write batch of {} Provenance Events due to {}; will try again", batch.size(), t.toString());
+                        try {
+                            Thread.sleep(WRITE_RETRY_MILLIS);
+                            continue;
+                        } catch (final InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    failedEvents.addAndGet(batch.size());
+                    logger.error("Failed to write batch of {} Provenance Events due to {}; these events will not be recorded", batch.size(), t.toString());
+                    logger.error("", t);
+                    if (eventReporter != null) {
+                        eventReporter.reportEvent(Severity.ERROR, PersistentProvenanceRepository.EVENT_CATEGORY,
+                            "Failed to write batch of " + batch.size() + " Provenance Events due to " + t.toString() + "; " + getFailedEventCount()
+                                + " Provenance Events have failed to be written in total");
+                    }
+                    return;
+                }
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+
+    private class DrainTask implements Runnable {
+        @Override
+        public void run() {
+            final List<ProvenanceEventRecord> batch = new ArrayList<>(maxBatchSize);
+
+            while (true) {
+                final ProvenanceEventRecord first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException ie) {
+                    logger.warn("{} interrupted; {} queued Provenance Events will not be written", Thread.currentThread().getName(), queue.size());
+                    return;
+                }
+
+                if (first == null) {
+                    reportDrops();
+                    if (stopped && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                writeBatch(batch);
+
+                reportDrops();
+            }
+        }
+    }
+}
@@ -43,6 +43,11 @@ public class RepositoryConfiguration {
     private int queryThreadPoolSize = 2;
     private int indexThreadPoolSize = 1;
     private boolean allowRollover = true;
+    private int eventQueueCapacity = 0;
+    private int eventBatchSize = 1000;
+    private boolean dropEventsWhenQueueFull = false;
+    private boolean nearRealTimeIndexing = false;
+    private boolean dictionaryEncoding = false;
 
     public void setAllowRollover(final boolean allow) {
         this.allowRollover = allow;
@@ -310,4 +315,95 @@ public class RepositoryConfiguration {
         this.maxAttributeChars = maxAttributeChars;
     }
 
+    /**
+     * @return the maximum number of Provenance Events that may be waiting to be written to the repository, or 0 if
+     *         events are written by the thread that registers them
+     */
+    public int getEventQueueCapacity() {
+        return eventQueueCapacity;
+    }
+
+    /**
+     * Configures the size of the queue that sits between the threads that register Provenance Events and the
+     * repository's journals. When greater than 0, registering events only places them on the queue, and background
+     * threads write everything that has accumulated in batches. When 0, events are written by the thread that
+     * registers them.
+     *
+     * @param eventQueueCapacity the maximum number of events that may be queued
+     */
+    public void setEventQueueCapacity(final int eventQueueCapacity) {
+        this.eventQueueCapacity = eventQueueCapacity;
+    }
+
+    /**
+     * @return the maximum number of queued Provenance Events that will be written to the repository at once
+     */
+    public int getEventBatchSize() {
+        return eventBatchSize;
+    }
+
+    /**
+     * @param eventBatchSize the maximum number of queued Provenance Events that will be written to the repository at once
+     */
+    public void setEventBatchSize(final int eventBatchSize) {
+        this.eventBatchSize = eventBatchSize;
+    }
+
+    /**
+     * @return <code>true</code> if Provenance Events that do not fit in the event queue are discarded, <code>false</code>
+     *         if the threads registering them wait for room in the queue
+     */
+    public boolean isDropEventsWhenQueueFull() {
+        return dropEventsWhenQueueFull;
+    }
+
+    /**
+     * Configures what happens when the event queue is full. By default, the threads registering events wait for room,
+     * which slows down the flow until the repository catches up. Alternatively, the events that do not fit may be
+     * discarded, which keeps the flow moving at the cost of an incomplete provenance history.
+     *
+     * @param dropEventsWhenQueueFull whether or not to discard events that do not fit in the event queue
+     */
+    public void setDropEventsWhenQueueFull(final boolean dropEventsWhenQueueFull) {
+        this.dropEventsWhenQueueFull = dropEventsWhenQueueFull;
+    }
+
+    /**
+     * @return <code>true</code> if Provenance Events are indexed as they are written to the journals, <code>false</code> if
+     *         they are indexed when the journals are merged
+     */
+    public boolean isNearRealTimeIndexing() {
+        return nearRealTimeIndexing;
+    }
+
+    /**
+     * Configures when Provenance Events are indexed. By default, events are indexed when the journals are merged at
+     * rollover, so they cannot be searched until then and all of the indexing happens at once. Alternatively, events
+     * can be indexed as they are written, which makes them searchable almost immediately and spreads the indexing
+     * out over time.
+     *
+     * @param nearRealTimeIndexing whether or not to index events as they are written to the journals
+     */
+    public void setNearRealTimeIndexing(final boolean nearRealTimeIndexing) {
+        this.nearRealTimeIndexing = nearRealTimeIndexing;
+    }
+
+    /**
+     * @return <code>true</code> if Provenance Events are written with a {@link DictionaryRecordWriter}, <code>false</code>
+     *         if they are written with a {@link StandardRecordWriter}
+     */
+    public boolean isDictionaryEncoding() {
+        return dictionaryEncoding;
+    }
+
+    /**
+     * Configures the format that Provenance Events are written in. Files in either format can be read regardless of
+     * this setting.
+     *
+     * @param dictionaryEncoding whether or not to write each repeated string and unchanged attribute only once per block
+     */
+    public void setDictionaryEncoding(final boolean dictionaryEncoding) {
+        this.dictionaryEncoding = dictionaryEncoding;
+    }
+
 }
@@ -57,6 +57,11 @@ public class StandardRecordReader implements RecordReader {
     }
 
     public StandardRecordReader(final InputStream in, final String filename, final TocReader tocReader, final int maxAttributeChars) throws IOException {
+        this(in, filename, tocReader, maxAttributeChars, 1, PersistentProvenanceRepository.SERIALIZATION_VERSION);
+    }
+
+    protected StandardRecordReader(final InputStream in, final String filename, final TocReader tocReader, final int maxAttributeChars,
+            final int minSupportedVersion, final int maxSupportedVersion) throws IOException {
         logger.trace("Creating RecordReader for {}", filename);
 
         rawInputStream = new ByteCountingInputStream(in);
@@ -90,8 +95,9 @@ public class StandardRecordReader implements RecordReader {
         final int serializationVersion = dis.readInt();
         headerLength = repoClassName.getBytes(StandardCharsets.UTF_8).length + 2 + 4; // 2 bytes for string length, 4 for integer.
 
-        if (serializationVersion < 1 || serializationVersion > 9) {
-            throw new IllegalArgumentException("Unable to deserialize record because the version is " + serializationVersion + " and supported versions are 1-9");
+        if (serializationVersion < minSupportedVersion || serializationVersion > maxSupportedVersion) {
+            throw new IllegalArgumentException("Unable to deserialize record because the version is " + serializationVersion
+                + " and supported versions are " + minSupportedVersion + "-" + maxSupportedVersion);
         }
 
         this.serializationVersion = serializationVersion;
@@ -182,13 +188,22 @@ public class StandardRecordReader implements RecordReader {
         return byteCountingIn.getBytesConsumed();
     }
 
-    private StandardProvenanceEventRecord readPreVersion6Record() throws IOException {
-        final long startOffset = byteCountingIn.getBytesConsumed();
+    protected String getFilename() {
+        return filename;
+    }
 
-        if (!isData()) {
-            return null;
-        }
+    protected int getMaxAttributeChars() {
+        return maxAttributeChars;
+    }
+
+    /**
+     * @return the number of bytes taken up by the header, which positions passed to {@link #skipTo(long)} do not include
+     */
+    protected int getHeaderLength() {
+        return headerLength;
+    }
 
+    private StandardProvenanceEventRecord readPreVersion6Record(final DataInputStream dis, final long startOffset) throws IOException {
         final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
 
         final long eventId = dis.readLong();
@@ -263,17 +278,29 @@ public class StandardRecordReader implements RecordReader {
 
     @Override
     public StandardProvenanceEventRecord nextRecord() throws IOException {
-        // Schema changed drastically in version 6 so we created a new method to handle old records
-        if (serializationVersion < 6) {
-            return readPreVersion6Record();
-        }
-
         final long startOffset = byteCountingIn.getBytesConsumed();
 
         if (!isData()) {
             return null;
         }
 
+        return readRecord(dis, startOffset);
+    }
+
+    /**
+     * Deserializes a single record. The caller has already verified that the stream contains more data.
+     *
+     * @param dis the stream to read from
+     * @param startOffset the offset of the record, to store as the record's storage location
+     * @return the record that was read
+     * @throws IOException if unable to read from the stream
+     */
+    protected StandardProvenanceEventRecord readRecord(final DataInputStream dis, final long startOffset) throws IOException {
+        // Schema changed drastically in version 6 so we created a new method to handle old records
+        if (serializationVersion < 6) {
+            return readPreVersion6Record(dis, startOffset);
+        }
+
         final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
 
         final long eventId = dis.readLong();
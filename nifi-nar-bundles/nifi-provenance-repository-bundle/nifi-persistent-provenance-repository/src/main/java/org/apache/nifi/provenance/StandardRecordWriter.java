@@ -83,8 +83,7 @@ public class StandardRecordWriter implements RecordWriter {
             lastBlockOffset = rawOutStream.getBytesWritten();
             resetWriteStream(firstEventId);
 
-            out.writeUTF(PersistentProvenanceRepository.class.getName());
-            out.writeInt(PersistentProvenanceRepository.SERIALIZATION_VERSION);
+            writeHeader(out);
             out.flush();
         } catch (final IOException ioe) {
             markDirty();
@@ -92,6 +91,17 @@ public class StandardRecordWriter implements RecordWriter {
         }
     }
 
+    /**
+     * Writes the name and version of the serialization format, which identify how the records are to be read
+     *
+     * @param out the stream to write to
+     * @throws IOException if unable to write to the stream
+     */
+    protected void writeHeader(final DataOutputStream out) throws IOException {
+        out.writeUTF(PersistentProvenanceRepository.class.getName());
+        out.writeInt(PersistentProvenanceRepository.SERIALIZATION_VERSION);
+    }
+
 
     /**
      * Resets the streams to prepare for a new block
@@ -145,7 +155,6 @@ public class StandardRecordWriter implements RecordWriter {
         }
 
         try {
-            final ProvenanceEventType recordType = record.getEventType();
             final long startBytes = byteCountingOut.getBytesWritten();
 
             // add a new block to the TOC if needed.
@@ -160,96 +169,110 @@ public class StandardRecordWriter implements RecordWriter {
                 }
             }
 
-            out.writeLong(recordIdentifier);
-            out.writeUTF(record.getEventType().name());
-            out.writeLong(record.getEventTime());
-            out.writeLong(record.getFlowFileEntryDate());
-            out.writeLong(record.getEventDuration());
-            out.writeLong(record.getLineageStartDate());
-
-            writeNullableString(out, record.getComponentId());
-            writeNullableString(out, record.getComponentType());
-            writeUUID(out, record.getFlowFileUuid());
-            writeNullableString(out, record.getDetails());
-
-            // Write FlowFile attributes
-            final Map<String, String> attrs = record.getPreviousAttributes();
-            out.writeInt(attrs.size());
-            for (final Map.Entry<String, String> entry : attrs.entrySet()) {
-                writeLongString(out, entry.getKey());
-                writeLongString(out, entry.getValue());
-            }
+            writeRecord(record, recordIdentifier, out);
 
-            final Map<String, String> attrUpdates = record.getUpdatedAttributes();
-            out.writeInt(attrUpdates.size());
-            for (final Map.Entry<String, String> entry : attrUpdates.entrySet()) {
-                writeLongString(out, entry.getKey());
-                writeLongNullableString(out, entry.getValue());
-            }
+            out.flush();
+            recordCount++;
+            return byteCountingOut.getBytesWritten() - startBytes;
+        } catch (final IOException ioe) {
+            markDirty();
+            throw ioe;
+        }
+    }
 
-            // If Content Claim Info is present, write out a 'TRUE' followed by claim info. Else, write out 'false'.
-            if (record.getContentClaimSection() != null && record.getContentClaimContainer() != null && record.getContentClaimIdentifier() != null) {
-                out.writeBoolean(true);
-                out.writeUTF(record.getContentClaimContainer());
-                out.writeUTF(record.getContentClaimSection());
-                out.writeUTF(record.getContentClaimIdentifier());
-                if (record.getContentClaimOffset() == null) {
-                    out.writeLong(0L);
-                } else {
-                    out.writeLong(record.getContentClaimOffset());
-                }
-                out.writeLong(record.getFileSize());
+    /**
+     * Serializes a single record. The caller is responsible for starting new blocks and flushing the stream.
+     *
+     * @param record the record to write
+     * @param recordIdentifier the ID of the record
+     * @param out the stream to write to
+     * @throws IOException if unable to write to the stream
+     */
+    protected void writeRecord(final ProvenanceEventRecord record, final long recordIdentifier, final DataOutputStream out) throws IOException {
+        final ProvenanceEventType recordType = record.getEventType();
+
+        out.writeLong(recordIdentifier);
+        out.writeUTF(record.getEventType().name());
+        out.writeLong(record.getEventTime());
+        out.writeLong(record.getFlowFileEntryDate());
+        out.writeLong(record.getEventDuration());
+        out.writeLong(record.getLineageStartDate());
+
+        writeNullableString(out, record.getComponentId());
+        writeNullableString(out, record.getComponentType());
+        writeUUID(out, record.getFlowFileUuid());
+        writeNullableString(out, record.getDetails());
+
+        // Write FlowFile attributes
+        final Map<String, String> attrs = record.getPreviousAttributes();
+        out.writeInt(attrs.size());
+        for (final Map.Entry<String, String> entry : attrs.entrySet()) {
+            writeLongString(out, entry.getKey());
+            writeLongString(out, entry.getValue());
+        }
+
+        final Map<String, String> attrUpdates = record.getUpdatedAttributes();
+        out.writeInt(attrUpdates.size());
+        for (final Map.Entry<String, String> entry : attrUpdates.entrySet()) {
+            writeLongString(out, entry.getKey());
+            writeLongNullableString(out, entry.getValue());
+        }
+
+        // If Content Claim Info is present, write out a 'TRUE' followed by claim info. Else, write out 'false'.
+        if (record.getContentClaimSection() != null && record.getContentClaimContainer() != null && record.getContentClaimIdentifier() != null) {
+            out.writeBoolean(true);
+            out.writeUTF(record.getContentClaimContainer());
+            out.writeUTF(record.getContentClaimSection());
+            out.writeUTF(record.getContentClaimIdentifier());
+            if (record.getContentClaimOffset() == null) {
+                out.writeLong(0L);
             } else {
-                out.writeBoolean(false);
+                out.writeLong(record.getContentClaimOffset());
             }
+            out.writeLong(record.getFileSize());
+        } else {
+            out.writeBoolean(false);
+        }
 
-            // If Previous Content Claim Info is present, write out a 'TRUE' followed by claim info. Else, write out 'false'.
-            if (record.getPreviousContentClaimSection() != null && record.getPreviousContentClaimContainer() != null && record.getPreviousContentClaimIdentifier() != null) {
-                out.writeBoolean(true);
-                out.writeUTF(record.getPreviousContentClaimContainer());
-                out.writeUTF(record.getPreviousContentClaimSection());
-                out.writeUTF(record.getPreviousContentClaimIdentifier());
-                if (record.getPreviousContentClaimOffset() == null) {
-                    out.writeLong(0L);
-                } else {
-                    out.writeLong(record.getPreviousContentClaimOffset());
-                }
-
-                if (record.getPreviousFileSize() == null) {
-                    out.writeLong(0L);
-                } else {
-                    out.writeLong(record.getPreviousFileSize());
-                }
+        // If Previous Content Claim Info is present, write out a 'TRUE' followed by claim info. Else, write out 'false'.
+        if (record.getPreviousContentClaimSection() != null && record.getPreviousContentClaimContainer() != null && record.getPreviousContentClaimIdentifier() != null) {
+            out.writeBoolean(true);
+            out.writeUTF(record.getPreviousContentClaimContainer());
+            out.writeUTF(record.getPreviousContentClaimSection());
+            out.writeUTF(record.getPreviousContentClaimIdentifier());
+            if (record.getPreviousContentClaimOffset() == null) {
+                out.writeLong(0L);
             } else {
-                out.writeBoolean(false);
+                out.writeLong(record.getPreviousContentClaimOffset());
             }
 
-            // write out the identifier of the destination queue.
-            writeNullableString(out, record.getSourceQueueIdentifier());
-
-            // Write type-specific info
-            if (recordType == ProvenanceEventType.FORK || recordType == ProvenanceEventType.JOIN || recordType == ProvenanceEventType.CLONE || recordType == ProvenanceEventType.REPLAY) {
-                writeUUIDs(out, record.getParentUuids());
-                writeUUIDs(out, record.getChildUuids());
-            } else if (recordType == ProvenanceEventType.RECEIVE) {
-                writeNullableString(out, record.getTransitUri());
-                writeNullableString(out, record.getSourceSystemFlowFileIdentifier());
-            } else if (recordType == ProvenanceEventType.FETCH) {
-                writeNullableString(out, record.getTransitUri());
-            } else if (recordType == ProvenanceEventType.SEND) {
-                writeNullableString(out, record.getTransitUri());
-            } else if (recordType == ProvenanceEventType.ADDINFO) {
-                writeNullableString(out, record.getAlternateIdentifierUri());
-            } else if (recordType == ProvenanceEventType.ROUTE) {
-                writeNullableString(out, record.getRelationship());
+            if (record.getPreviousFileSize() == null) {
+                out.writeLong(0L);
+            } else {
+                out.writeLong(record.getPreviousFileSize());
             }
+        } else {
+            out.writeBoolean(false);
+        }
 
-            out.flush();
-            recordCount++;
-            return byteCountingOut.getBytesWritten() - startBytes;
-        } catch (final IOException ioe) {
-            markDirty();
-            throw ioe;
+        // write out the identifier of the destination queue.
+        writeNullableString(out, record.getSourceQueueIdentifier());
+
+        // Write type-specific info
+        if (recordType == ProvenanceEventType.FORK || recordType == ProvenanceEventType.JOIN || recordType == ProvenanceEventType.CLONE || recordType == ProvenanceEventType.REPLAY) {
+            writeUUIDs(out, record.getParentUuids());
+            writeUUIDs(out, record.getChildUuids());
+        } else if (recordType == ProvenanceEventType.RECEIVE) {
+            writeNullableString(out, record.getTransitUri());
+            writeNullableString(out, record.getSourceSystemFlowFileIdentifier());
+        } else if (recordType == ProvenanceEventType.FETCH) {
+            writeNullableString(out, record.getTransitUri());
+        } else if (recordType == ProvenanceEventType.SEND) {
+            writeNullableString(out, record.getTransitUri());
+        } else if (recordType == ProvenanceEventType.ADDINFO) {
+            writeNullableString(out, record.getAlternateIdentifierUri());
+        } else if (recordType == ProvenanceEventType.ROUTE) {
+            writeNullableString(out, record.getRelationship());
         }
     }
 
@@ -19,6 +19,7 @@ package org.apache.nifi.provenance.expiration;
 import java.io.File;
 import java.io.IOException;
 
+import org.apache.nifi.provenance.lineageindex.LineageIndexUtil;
 import org.apache.nifi.provenance.lucene.DeleteIndexAction;
 import org.apache.nifi.provenance.toc.TocUtil;
 import org.slf4j.Logger;
@@ -44,6 +45,15 @@ public class FileRemovalAction implements ExpirationAction {
             logger.warn("Failed to remove old Provenance Table-of-Contents file {}; this file should be cleaned up manually", expiredFile);
         }
 
+        final File lineageIndexFile = LineageIndexUtil.getLineageIndexFile(expiredFile);
+        if (!lineageIndexFile.exists()) {
+            // the file was written before Lineage Indices were introduced
+        } else if (remove(lineageIndexFile)) {
+            logger.info("Removed expired Provenance Lineage Index file {}", lineageIndexFile);
+        } else {
+            logger.warn("Failed to remove old Provenance Lineage Index file {}; this file should be cleaned up manually", lineageIndexFile);
+        }
+
         return removed ? null : expiredFile;
     }
 
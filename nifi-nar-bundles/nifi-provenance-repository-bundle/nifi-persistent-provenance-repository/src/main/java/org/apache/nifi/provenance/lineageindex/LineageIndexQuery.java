@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lineageindex;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.lucene.IndexingAction;
+import org.apache.nifi.provenance.lucene.LineageQuery;
+import org.apache.nifi.provenance.serialization.RecordReader;
+import org.apache.nifi.provenance.serialization.RecordReaders;
+import org.apache.nifi.provenance.toc.TocReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the events that make up the lineage of a set of FlowFiles by looking up the FlowFile UUIDs in the Lineage
+ * Index of each Provenance Event Log File and then reading the events directly by ID, using the file's
+ * Table of Contents to skip to the block that holds each event.
+ */
+public class LineageIndexQuery {
+
+    private static final Logger logger = LoggerFactory.getLogger(LineageIndexQuery.class);
+
+    /**
+     * @param eventFiles the Provenance Event Log Files to search
+     * @param flowFileUuids the UUIDs of the FlowFiles whose lineage is to be computed
+     * @param startTimestamp the earliest event time of interest; files that contain only earlier events are skipped
+     * @param endTimestamp the latest event time of interest; files that contain only later events are skipped
+     * @param maxAttributeChars the maximum number of characters to read for any one attribute
+     * @return the events that relate to the given FlowFiles
+     * @throws IOException if unable to read a Lineage Index or Provenance Event Log File
+     */
+    public static Set<ProvenanceEventRecord> computeLineageForFlowFiles(final Collection<Path> eventFiles, final Collection<String> flowFileUuids,
+            final long startTimestamp, final long endTimestamp, final int maxAttributeChars) throws IOException {
+        if (requireNonNull(flowFileUuids).size() > LineageQuery.MAX_LINEAGE_UUIDS) {
+            throw new IllegalArgumentException(String.format("Cannot compute lineage for more than %s FlowFiles. This lineage contains %s.",
+                LineageQuery.MAX_LINEAGE_UUIDS, flowFileUuids.size()));
+        }
+
+        if (flowFileUuids.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final Set<String> lowerCaseUuids = new HashSet<>(flowFileUuids.size());
+        for (final String flowFileUuid : flowFileUuids) {
+            lowerCaseUuids.add(flowFileUuid.toLowerCase());
+        }
+
+        final long start = System.nanoTime();
+        final Set<ProvenanceEventRecord> matchingRecords = new HashSet<>();
+        int filesRead = 0;
+        for (final Path path : eventFiles) {
+            final File eventFile = path.toFile();
+            final SortedSet<Long> eventIds = getEventIds(eventFile, lowerCaseUuids, startTimestamp, endTimestamp);
+            if (eventIds.isEmpty()) {
+                continue;
+            }
+
+            filesRead++;
+            try {
+                readEvents(eventFile, eventIds, lowerCaseUuids, maxAttributeChars, matchingRecords);
+            } catch (final FileNotFoundException fnfe) {
+                // file aged off after its Lineage Index was read
+                logger.debug("Provenance Event Log File {} was removed while computing lineage for {}", eventFile, flowFileUuids);
+            }
+        }
+
+        logger.debug("Found {} events in {} Provenance Event Log Files for Lineage of FlowFiles {} in {} millis using the Lineage Index",
+            matchingRecords.size(), filesRead, flowFileUuids, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return matchingRecords;
+    }
+
+    private static SortedSet<Long> getEventIds(final File eventFile, final Set<String> flowFileUuids, final long startTimestamp, final long endTimestamp) throws IOException {
+        final SortedSet<Long> eventIds = new TreeSet<>();
+        try (final LineageIndexReader reader = new LineageIndexReader(LineageIndexUtil.getLineageIndexFile(eventFile))) {
+            if (reader.getMaxEventTime() < startTimestamp || reader.getMinEventTime() > endTimestamp) {
+                return eventIds;
+            }
+
+            for (final String flowFileUuid : flowFileUuids) {
+                eventIds.addAll(reader.getEventIds(flowFileUuid));
+            }
+        } catch (final FileNotFoundException fnfe) {
+            // file aged off
+        }
+
+        return eventIds;
+    }
+
+    private static void readEvents(final File eventFile, final SortedSet<Long> eventIds, final Set<String> flowFileUuids, final int maxAttributeChars,
+            final Set<ProvenanceEventRecord> matchingRecords) throws IOException {
+        try (final RecordReader reader = RecordReaders.newRecordReader(eventFile, null, maxAttributeChars)) {
+            final TocReader tocReader = reader.isBlockIndexAvailable() ? reader.getTocReader() : null;
+
+            StandardProvenanceEventRecord record = null;
+            for (final Long eventId : eventIds) {
+                if (record == null || record.getEventId() < eventId) {
+                    final Integer blockIndex = tocReader == null ? null : tocReader.getBlockIndexForEventId(eventId);
+                    if (blockIndex != null && blockIndex > reader.getBlockIndex()) {
+                        reader.skipToBlock(blockIndex);
+                    }
+
+                    try {
+                        record = reader.nextRecord();
+                        while (record != null && record.getEventId() < eventId) {
+                            record = reader.nextRecord();
+                        }
+                    } catch (final EOFException eof) {
+                        // the file was truncated; there is nothing further to read
+                        record = null;
+                    }
+
+                    if (record == null) {
+                        return;
+                    }
+                }
+
+                if (record.getEventId() == eventId && isLineageMatch(record, flowFileUuids)) {
+                    matchingRecords.add(record);
+                }
+            }
+        }
+    }
+
+    private static boolean isLineageMatch(final ProvenanceEventRecord record, final Set<String> flowFileUuids) {
+        for (final String uuid : IndexingAction.getLineageFlowFileUuids(record)) {
+            if (uuid != null && flowFileUuids.contains(uuid.toLowerCase())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
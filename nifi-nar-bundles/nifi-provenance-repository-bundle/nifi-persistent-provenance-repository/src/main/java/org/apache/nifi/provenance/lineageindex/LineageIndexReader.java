@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lineageindex;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads a Lineage Index that was written by {@link LineageIndexWriter}. Lookups perform a binary search over the
+ * sorted entries, reading only the entries that are probed rather than loading the file.
+ */
+public class LineageIndexReader implements Closeable {
+
+    private final File file;
+    private final FileChannel channel;
+    private final long minEventTime;
+    private final long maxEventTime;
+    private final int entryCount;
+    private final ByteBuffer entryBuffer = ByteBuffer.allocate(LineageIndexWriter.ENTRY_LENGTH);
+
+    public LineageIndexReader(final File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(LineageIndexWriter.HEADER_LENGTH);
+            readFully(header, 0L);
+
+            final int version = header.getInt();
+            if (version != LineageIndexWriter.VERSION) {
+                throw new IOException("Lineage Index " + file + " has version " + version + ", but only version " + LineageIndexWriter.VERSION + " is supported");
+            }
+
+            minEventTime = header.getLong();
+            maxEventTime = header.getLong();
+            entryCount = header.getInt();
+
+            final long expectedLength = LineageIndexWriter.HEADER_LENGTH + (long) entryCount * LineageIndexWriter.ENTRY_LENGTH;
+            if (entryCount < 0 || channel.size() != expectedLength) {
+                throw new IOException("Lineage Index " + file + " is corrupt: header indicates " + entryCount + " entries, which requires "
+                    + expectedLength + " bytes, but file is " + channel.size() + " bytes");
+            }
+        } catch (final IOException ioe) {
+            channel.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * @return the earliest event time of the events in the Provenance Event Log File
+     */
+    public long getMinEventTime() {
+        return minEventTime;
+    }
+
+    /**
+     * @return the latest event time of the events in the Provenance Event Log File
+     */
+    public long getMaxEventTime() {
+        return maxEventTime;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Returns the IDs of the events that relate to the FlowFile with the given UUID, in ascending order. Because the
+     * index does not store the UUIDs themselves, the events may need to be checked against the UUID once read.
+     *
+     * @param flowFileUuid the UUID of the FlowFile
+     * @return the IDs of the events that relate to the FlowFile
+     * @throws IOException if unable to read from the index
+     */
+    public List<Long> getEventIds(final String flowFileUuid) throws IOException {
+        final UUID key = LineageIndexUtil.toKey(flowFileUuid);
+        final long msb = key.getMostSignificantBits();
+        final long lsb = key.getLeastSignificantBits();
+
+        // find the first entry whose key is not less than the one that we are looking for
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            readEntry(mid);
+            final int comparison = compareKey(msb, lsb);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        final List<Long> eventIds = new ArrayList<>();
+        for (int i = low; i < entryCount; i++) {
+            readEntry(i);
+            if (compareKey(msb, lsb) != 0) {
+                break;
+            }
+
+            eventIds.add(entryBuffer.getLong(16));
+        }
+
+        return eventIds;
+    }
+
+    /**
+     * Compares the key of the entry in the buffer to the given key
+     */
+    private int compareKey(final long msb, final long lsb) {
+        final int comparison = Long.compare(entryBuffer.getLong(0), msb);
+        return comparison == 0 ? Long.compare(entryBuffer.getLong(8), lsb) : comparison;
+    }
+
+    private void readEntry(final int index) throws IOException {
+        entryBuffer.clear();
+        readFully(entryBuffer, LineageIndexWriter.HEADER_LENGTH + (long) index * LineageIndexWriter.ENTRY_LENGTH);
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long filePosition = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, filePosition);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of Lineage Index " + file);
+            }
+            filePosition += read;
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "LineageIndexReader[" + file + "]";
+    }
+}
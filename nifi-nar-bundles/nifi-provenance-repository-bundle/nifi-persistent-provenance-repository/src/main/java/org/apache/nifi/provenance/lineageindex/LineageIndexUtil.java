@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lineageindex;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.apache.nifi.provenance.lucene.LuceneUtil;
+
+public class LineageIndexUtil {
+
+    /**
+     * Returns the file that should be used as the Lineage Index for the given Provenance Event Log File.
+     * Note, if no Lineage Index exists for the given file, a File will still be returned but the file
+     * will not actually exist.
+     *
+     * @param eventFile the Provenance Event Log File for which to get the Lineage Index
+     * @return the file that represents the Lineage Index for the specified file
+     */
+    public static File getLineageIndexFile(final File eventFile) {
+        final File lineageDir = new File(eventFile.getParentFile(), "lineage");
+        final String basename = LuceneUtil.substringBefore(eventFile.getName(), ".");
+        return new File(lineageDir, basename + ".lineage");
+    }
+
+    /**
+     * Returns the key that a FlowFile UUID is stored under in a Lineage Index. FlowFile UUIDs are normally
+     * type 4 UUIDs and are stored as such; any other identifier is mapped to a name-based UUID.
+     *
+     * @param flowFileUuid the FlowFile UUID
+     * @return the key for the UUID
+     */
+    public static UUID toKey(final String flowFileUuid) {
+        try {
+            return UUID.fromString(flowFileUuid);
+        } catch (final IllegalArgumentException iae) {
+            return UUID.nameUUIDFromBytes(flowFileUuid.toLowerCase().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lineageindex;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.lucene.IndexingAction;
+
+/**
+ * Writes the Lineage Index of a Provenance Event Log File. The index maps the UUID of each FlowFile that an event
+ * relates to onto the ID of the event, so that the events that make up the lineage of a FlowFile can be located
+ * without searching the Lucene indices.
+ *
+ * The entries are held in memory and written, sorted, when the writer is closed. The file is written under a
+ * temporary name and then renamed, so a Lineage Index file that exists is always complete.
+ *
+ * Format of .lineage file:
+ * byte 0-3: int: version
+ * byte 4-11: long: earliest event time of the events in the file
+ * byte 12-19: long: latest event time of the events in the file
+ * byte 20-23: int: number of entries (N)
+ * followed by N entries, sorted by UUID and then by Event ID, each of which consists of
+ * byte 0-7: long: most significant bits of the FlowFile UUID
+ * byte 8-15: long: least significant bits of the FlowFile UUID
+ * byte 16-23: long: Event ID
+ */
+public class LineageIndexWriter implements Closeable {
+
+    public static final int VERSION = 1;
+    static final int HEADER_LENGTH = 24;
+    static final int ENTRY_LENGTH = 24;
+
+    private static final int LONGS_PER_ENTRY = 3;
+
+    private final File file;
+    private long[] entries = new long[1024 * LONGS_PER_ENTRY];
+    private int entryCount = 0;
+    private long minEventTime = Long.MAX_VALUE;
+    private long maxEventTime = Long.MIN_VALUE;
+    private boolean closed = false;
+
+    /**
+     * Creates a LineageIndexWriter that writes to the given file when it is closed
+     *
+     * @param file the file to write to
+     */
+    public LineageIndexWriter(final File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Adds the given event to the index, under the UUID of each FlowFile that it relates to
+     *
+     * @param record the event
+     * @param eventId the ID of the event
+     */
+    public void addEvent(final ProvenanceEventRecord record, final long eventId) {
+        for (final String flowFileUuid : IndexingAction.getLineageFlowFileUuids(record)) {
+            if (flowFileUuid != null) {
+                addEntry(LineageIndexUtil.toKey(flowFileUuid), eventId);
+            }
+        }
+
+        minEventTime = Math.min(minEventTime, record.getEventTime());
+        maxEventTime = Math.max(maxEventTime, record.getEventTime());
+    }
+
+    private void addEntry(final UUID key, final long eventId) {
+        final int offset = entryCount * LONGS_PER_ENTRY;
+        if (offset + LONGS_PER_ENTRY > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+
+        entries[offset] = key.getMostSignificantBits();
+        entries[offset + 1] = key.getLeastSignificantBits();
+        entries[offset + 2] = eventId;
+        entryCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        sort(0, entryCount - 1);
+
+        final File lineageDir = file.getParentFile();
+        if (!lineageDir.exists()) {
+            Files.createDirectories(lineageDir.toPath());
+        }
+
+        final File tempFile = new File(lineageDir, file.getName() + ".tmp");
+        try (final FileOutputStream fos = new FileOutputStream(tempFile);
+            final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos, 65536))) {
+
+            dos.writeInt(VERSION);
+            dos.writeLong(minEventTime);
+            dos.writeLong(maxEventTime);
+            dos.writeInt(entryCount);
+
+            final int longCount = entryCount * LONGS_PER_ENTRY;
+            for (int i = 0; i < longCount; i++) {
+                dos.writeLong(entries[i]);
+            }
+        }
+
+        entries = null;
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private int compare(final int left, final int right) {
+        final int leftOffset = left * LONGS_PER_ENTRY;
+        final int rightOffset = right * LONGS_PER_ENTRY;
+        for (int i = 0; i < LONGS_PER_ENTRY; i++) {
+            final int comparison = Long.compare(entries[leftOffset + i], entries[rightOffset + i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return 0;
+    }
+
+    private void swap(final int left, final int right) {
+        final int leftOffset = left * LONGS_PER_ENTRY;
+        final int rightOffset = right * LONGS_PER_ENTRY;
+        for (int i = 0; i < LONGS_PER_ENTRY; i++) {
+            final long temp = entries[leftOffset + i];
+            entries[leftOffset + i] = entries[rightOffset + i];
+            entries[rightOffset + i] = temp;
+        }
+    }
+
+    /**
+     * Sorts the entries in place. The entries are packed into a single array of longs rather than held as objects
+     * so that a file with millions of events does not require millions of objects.
+     */
+    private void sort(int low, int high) {
+        while (low < high) {
+            // median of three, moved to the end of the range to act as the pivot
+            final int mid = (low + high) >>> 1;
+            if (compare(mid, low) < 0) {
+                swap(mid, low);
+            }
+            if (compare(high, low) < 0) {
+                swap(high, low);
+            }
+            if (compare(mid, high) < 0) {
+                swap(mid, high);
+            }
+
+            int store = low;
+            for (int i = low; i < high; i++) {
+                if (compare(i, high) < 0) {
+                    swap(i, store++);
+                }
+            }
+            swap(store, high);
+
+            // recurse into the smaller partition so that the stack depth stays logarithmic
+            if (store - low < high - store) {
+                sort(low, store - 1);
+                low = store + 1;
+            } else {
+                sort(store + 1, high);
+                high = store - 1;
+            }
+        }
+    }
+}
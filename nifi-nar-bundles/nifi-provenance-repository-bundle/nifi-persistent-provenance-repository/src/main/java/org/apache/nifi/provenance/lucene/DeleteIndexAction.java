@@ -78,6 +78,13 @@ public class DeleteIndexAction implements ExpirationAction {
 
                 deleteDirectory(indexingDirectory);
                 logger.info("Removed empty index directory {}", indexingDirectory);
+            } else {
+                // the summary still covers the remaining documents, but must be persisted with the new commit in order to be trusted on restart
+                try {
+                    indexConfiguration.getIndexSummary(indexingDirectory).persist();
+                } catch (final IOException ioe) {
+                    logger.warn("Failed to persist the summary of {}; all queries will search this index after a restart", indexingDirectory, ioe);
+                }
             }
         }
 
@@ -17,12 +17,14 @@
 package org.apache.nifi.provenance.lucene;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -85,15 +87,22 @@ class DocsReader {
 
     private ProvenanceEventRecord getRecord(final Document d, final RecordReader reader) throws IOException {
         final IndexableField blockField = d.getField(FieldNames.BLOCK_INDEX);
-        if ( blockField == null ) {
-            reader.skipTo(getByteOffset(d, reader));
-        } else {
+        final IndexableField idField = d.getField(SearchableFields.Identifier.getSearchableFieldName());
+        if ( blockField != null ) {
             reader.skipToBlock(blockField.numericValue().intValue());
+        } else if ( d.getField(FieldNames.STORAGE_FILE_OFFSET) != null ) {
+            reader.skipTo(getByteOffset(d, reader));
+        } else if ( idField != null && reader.isBlockIndexAvailable() ) {
+            // the event was indexed as it was written to a journal, so we only know its ID. Use the Table of Contents
+            // of the merged file to find the block that holds it.
+            final Integer blockIndex = reader.getTocReader().getBlockIndexForEventId(idField.numericValue().longValue());
+            if ( blockIndex != null ) {
+                reader.skipToBlock(blockIndex);
+            }
         }
 
         StandardProvenanceEventRecord record;
         while ( (record = reader.nextRecord()) != null) {
-            final IndexableField idField = d.getField(SearchableFields.Identifier.getSearchableFieldName());
             if ( idField == null || idField.numericValue().longValue() == record.getEventId() ) {
                 break;
             }
@@ -123,12 +132,16 @@ class DocsReader {
         int logFileCount = 0;
 
         for (String storageFileName : byStorageNameDocGroups.keySet()) {
+            final List<Document> storageFileDocs = byStorageNameDocGroups.get(storageFileName);
             File provenanceEventFile = LuceneUtil.getProvenanceLogFile(storageFileName, allProvenanceLogFiles);
-            if (provenanceEventFile != null) {
+            if (provenanceEventFile == null && storageFileDocs.get(0).get(FieldNames.JOURNAL_FILENAME) != null) {
+                // the events were indexed as they were written to the journals, and the journals have not yet been merged
+                eventsReadThisFile += readFromJournals(storageFileDocs, authCheck, matchingRecords, retrievalCount, maxResults, maxAttributeChars);
+            } else if (provenanceEventFile != null) {
                 try (RecordReader reader = RecordReaders.newRecordReader(provenanceEventFile, allProvenanceLogFiles,
                         maxAttributeChars)) {
 
-                    Iterator<Document> docIter = byStorageNameDocGroups.get(storageFileName).iterator();
+                    Iterator<Document> docIter = storageFileDocs.iterator();
                     while (docIter.hasNext() && retrievalCount.getAndIncrement() < maxResults) {
                         ProvenanceEventRecord event = this.getRecord(docIter.next(), reader);
                         if (event != null && authCheck.isAuthorized(event)) {
@@ -156,4 +169,40 @@ class DocsReader {
 
         return matchingRecords;
     }
+
+    private int readFromJournals(final List<Document> docs, final AuthorizationCheck authCheck, final Set<ProvenanceEventRecord> matchingRecords,
+            final AtomicInteger retrievalCount, final int maxResults, final int maxAttributeChars) {
+        // the events of a single Provenance Event Log File are spread across several journals
+        final Map<String, List<Document>> docsByJournal = new LinkedHashMap<>();
+        for (final Document doc : docs) {
+            final String journalFilename = doc.get(FieldNames.JOURNAL_FILENAME);
+            if (journalFilename != null) {
+                docsByJournal.computeIfAbsent(journalFilename, filename -> new ArrayList<>()).add(doc);
+            }
+        }
+
+        int eventsRead = 0;
+        for (final Map.Entry<String, List<Document>> entry : docsByJournal.entrySet()) {
+            final File journalFile = new File(entry.getKey());
+            try (final RecordReader reader = RecordReaders.newRecordReader(journalFile, null, maxAttributeChars)) {
+                final Iterator<Document> docIter = entry.getValue().iterator();
+                while (docIter.hasNext() && retrievalCount.getAndIncrement() < maxResults) {
+                    final Document doc = docIter.next();
+                    reader.skipTo(doc.getField(FieldNames.JOURNAL_FILE_OFFSET).numericValue().longValue());
+
+                    final ProvenanceEventRecord event = reader.nextRecord();
+                    if (event != null && authCheck.isAuthorized(event)) {
+                        matchingRecords.add(event);
+                        eventsRead++;
+                    }
+                }
+            } catch (final FileNotFoundException fnfe) {
+                logger.debug("Journal {} was merged after it was searched; skipping the events that it contained", journalFile);
+            } catch (final Exception e) {
+                logger.warn("Failed while trying to read Provenance Events. The journal '" + journalFile.getAbsolutePath() + "' may be missing or corrupted.", e);
+            }
+        }
+
+        return eventsRead;
+    }
 }
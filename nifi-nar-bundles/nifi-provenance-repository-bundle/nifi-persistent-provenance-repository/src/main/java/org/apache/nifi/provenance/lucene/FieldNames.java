@@ -21,4 +21,6 @@ public class FieldNames {
     public static final String STORAGE_FILENAME = "storage-filename";
     public static final String STORAGE_FILE_OFFSET = "storage-fileOffset";
     public static final String BLOCK_INDEX = "block-index";
+    public static final String JOURNAL_FILENAME = "journal-filename";
+    public static final String JOURNAL_FILE_OFFSET = "journal-fileOffset";
 }
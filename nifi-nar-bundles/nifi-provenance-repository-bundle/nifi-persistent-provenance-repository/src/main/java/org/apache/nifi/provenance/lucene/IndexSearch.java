@@ -40,12 +40,15 @@ public class IndexSearch {
     private final Logger logger = LoggerFactory.getLogger(IndexSearch.class);
     private final PersistentProvenanceRepository repository;
     private final File indexDirectory;
+    private final IndexSummary indexSummary;
     private final IndexManager indexManager;
     private final int maxAttributeChars;
 
-    public IndexSearch(final PersistentProvenanceRepository repo, final File indexDirectory, final IndexManager indexManager, final int maxAttributeChars) {
+    public IndexSearch(final PersistentProvenanceRepository repo, final File indexDirectory, final IndexSummary indexSummary, final IndexManager indexManager,
+            final int maxAttributeChars) {
         this.repository = repo;
         this.indexDirectory = indexDirectory;
+        this.indexSummary = indexSummary;
         this.indexManager = indexManager;
         this.maxAttributeChars = maxAttributeChars;
     }
@@ -83,6 +86,14 @@ public class IndexSearch {
         if (provenanceQuery.getEndDate() == null) {
             provenanceQuery.setEndDate(new Date());
         }
+
+        // skip the index altogether if none of the events that it holds could match the query
+        if (indexSummary != null && !indexSummary.mightMatch(provenanceQuery)) {
+            logger.debug("Skipping search of Provenance Index {} for {} because its summary shows that no event in it can match", indexDirectory, provenanceQuery);
+            sqr.update(Collections.<ProvenanceEventRecord>emptyList(), 0L);
+            return sqr;
+        }
+
         final Query luceneQuery = LuceneUtil.convertQuery(provenanceQuery);
 
         final long start = System.nanoTime();
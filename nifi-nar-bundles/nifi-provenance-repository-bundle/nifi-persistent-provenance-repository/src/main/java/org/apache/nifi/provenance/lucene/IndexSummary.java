@@ -0,0 +1,370 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lucene;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerm;
+import org.apache.nifi.provenance.search.SearchableField;
+
+/**
+ * <p>
+ * A summary of the events that have been added to a single index directory: the range of their event times and Bloom
+ * filters of their Component IDs, FlowFile UUIDs and Event Types. A query whose time range or search terms cannot match
+ * any event in the summary does not need to search the index at all.
+ * </p>
+ *
+ * <p>
+ * An event must be added to the summary before its document is added to the index, so that the summary always covers
+ * every document that may have been committed. The summary is stored in the index directory along with the generation
+ * of the last Lucene commit that it covers; if the index has been committed since the summary was last persisted, the
+ * stored summary may be missing events, and it is treated as incomplete. An incomplete summary matches every query.
+ * </p>
+ */
+public class IndexSummary {
+    static final String SUMMARY_FILENAME = "provenance-index.summary";
+    private static final int SERIALIZATION_VERSION = 1;
+
+    // each Bloom filter holds up to this many entries with a false positive rate of about 1%;
+    // once it is full, another is added, so that the memory used grows with the number of distinct values
+    static final int ENTRIES_PER_FILTER = 100_000;
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_COUNT = 7;
+
+    private static final List<SearchableField> SUMMARIZED_FIELDS = Collections.unmodifiableList(Arrays.asList(
+        SearchableFields.ComponentID, SearchableFields.FlowFileUUID, SearchableFields.EventType));
+
+    private final File indexDirectory;
+    private final Map<String, List<BloomFilter>> filters = new LinkedHashMap<>();
+    private boolean complete;
+    private long eventCount = 0L;
+    private long minEventTime = Long.MAX_VALUE;
+    private long maxEventTime = Long.MIN_VALUE;
+
+    private IndexSummary(final File indexDirectory, final boolean complete) {
+        this.indexDirectory = indexDirectory;
+        this.complete = complete;
+        for (final SearchableField field : SUMMARIZED_FIELDS) {
+            filters.put(field.getSearchableFieldName(), new ArrayList<BloomFilter>());
+        }
+    }
+
+    /**
+     * Returns the summary of the given index directory. If the directory has a summary that covers its last commit, that
+     * summary is returned. If the index has never been committed, an empty summary is returned. Otherwise, the events that
+     * the index holds are not known, and an incomplete summary is returned that matches every query.
+     *
+     * @param indexDirectory the index directory
+     * @return the summary of the index directory
+     * @throws IOException if the directory has a summary that cannot be read, in which case it should be treated as incomplete
+     */
+    public static IndexSummary recover(final File indexDirectory) throws IOException {
+        final long lastCommitGeneration = getLastCommitGeneration(indexDirectory);
+        if (lastCommitGeneration < 0L) {
+            return new IndexSummary(indexDirectory, true);
+        }
+
+        final File summaryFile = new File(indexDirectory, SUMMARY_FILENAME);
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(summaryFile)))) {
+            final int version = in.readInt();
+            if (version != SERIALIZATION_VERSION) {
+                throw new IOException("Cannot read Index Summary " + summaryFile + " because its serialization version is " + version
+                    + " but only version " + SERIALIZATION_VERSION + " is supported");
+            }
+
+            final long commitGeneration = in.readLong();
+            final IndexSummary summary = new IndexSummary(indexDirectory, in.readBoolean() && commitGeneration == lastCommitGeneration);
+            summary.eventCount = in.readLong();
+            summary.minEventTime = in.readLong();
+            summary.maxEventTime = in.readLong();
+
+            final int fieldCount = in.readInt();
+            for (int i = 0; i < fieldCount; i++) {
+                final String fieldName = in.readUTF();
+                final int filterCount = in.readInt();
+                final List<BloomFilter> fieldFilters = new ArrayList<>(filterCount);
+                for (int j = 0; j < filterCount; j++) {
+                    fieldFilters.add(BloomFilter.read(in));
+                }
+
+                if (summary.filters.containsKey(fieldName)) {
+                    summary.filters.put(fieldName, fieldFilters);
+                }
+            }
+
+            return summary;
+        } catch (final FileNotFoundException fnfe) {
+            return createIncomplete(indexDirectory);
+        }
+    }
+
+    private static long getLastCommitGeneration(final File indexDirectory) {
+        final String[] filenames = indexDirectory.list();
+        return filenames == null ? -1L : SegmentInfos.getLastCommitGeneration(filenames);
+    }
+
+    /**
+     * Adds an event to the summary. Must be called before the event's document is added to the index.
+     *
+     * @param record the event
+     */
+    public synchronized void add(final ProvenanceEventRecord record) {
+        eventCount++;
+        minEventTime = Math.min(minEventTime, record.getEventTime());
+        maxEventTime = Math.max(maxEventTime, record.getEventTime());
+
+        addValue(SearchableFields.ComponentID, record.getComponentId());
+        addValue(SearchableFields.EventType, record.getEventType().name());
+        for (final String uuid : IndexingAction.getLineageFlowFileUuids(record)) {
+            addValue(SearchableFields.FlowFileUUID, uuid);
+        }
+    }
+
+    private void addValue(final SearchableField field, final String value) {
+        if (value == null) {
+            return;
+        }
+
+        final String normalized = value.toLowerCase();
+        final List<BloomFilter> fieldFilters = filters.get(field.getSearchableFieldName());
+        for (final BloomFilter filter : fieldFilters) {
+            if (filter.mightContain(normalized)) {
+                return;
+            }
+        }
+
+        BloomFilter filter = fieldFilters.isEmpty() ? null : fieldFilters.get(fieldFilters.size() - 1);
+        if (filter == null || filter.isFull()) {
+            filter = new BloomFilter(ENTRIES_PER_FILTER);
+            fieldFilters.add(filter);
+        }
+        filter.put(normalized);
+    }
+
+    /**
+     * @param query the query, whose start and end dates, if set, bound the event times that it matches
+     * @return <code>false</code> if no event in the index can match the given query, <code>true</code> if some event may
+     */
+    public synchronized boolean mightMatch(final Query query) {
+        if (!complete) {
+            return true;
+        }
+
+        if (eventCount == 0L) {
+            return false;
+        }
+
+        if (query.getStartDate() != null && query.getStartDate().getTime() > maxEventTime) {
+            return false;
+        }
+        if (query.getEndDate() != null && query.getEndDate().getTime() < minEventTime) {
+            return false;
+        }
+
+        for (final SearchTerm searchTerm : query.getSearchTerms()) {
+            final String value = searchTerm.getValue();
+            final List<BloomFilter> fieldFilters = filters.get(searchTerm.getSearchableField().getSearchableFieldName());
+            if (fieldFilters == null || value == null || value.contains("*") || value.contains("?")) {
+                continue;
+            }
+
+            if (!mightContain(fieldFilters, value.toLowerCase())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean mightContain(final List<BloomFilter> fieldFilters, final String value) {
+        for (final BloomFilter filter : fieldFilters) {
+            if (filter.mightContain(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param indexDirectory the index directory
+     * @return a summary that matches every query, for an index directory whose summary cannot be recovered
+     */
+    public static IndexSummary createIncomplete(final File indexDirectory) {
+        return new IndexSummary(indexDirectory, false);
+    }
+
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Writes the summary to the index directory. The generation of the index's last commit is determined before the
+     * summary is copied, so that every document in that commit is known to be covered by the copy.
+     *
+     * @throws IOException if unable to write the summary
+     */
+    public void persist() throws IOException {
+        final long commitGeneration = getLastCommitGeneration(indexDirectory);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(baos)) {
+            synchronized (this) {
+                out.writeInt(SERIALIZATION_VERSION);
+                out.writeLong(commitGeneration);
+                out.writeBoolean(complete);
+                out.writeLong(eventCount);
+                out.writeLong(minEventTime);
+                out.writeLong(maxEventTime);
+
+                out.writeInt(filters.size());
+                for (final Map.Entry<String, List<BloomFilter>> entry : filters.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (final BloomFilter filter : entry.getValue()) {
+                        filter.write(out);
+                    }
+                }
+            }
+        }
+
+        if (!indexDirectory.exists() && !indexDirectory.mkdirs()) {
+            throw new IOException("Unable to create Indexing Directory " + indexDirectory);
+        }
+
+        final File summaryFile = new File(indexDirectory, SUMMARY_FILENAME);
+        final File tempFile = new File(indexDirectory, SUMMARY_FILENAME + ".tmp");
+        try (final FileOutputStream fos = new FileOutputStream(tempFile)) {
+            baos.writeTo(fos);
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), summaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "IndexSummary[index=" + indexDirectory + ", complete=" + complete + ", events=" + eventCount + "]";
+    }
+
+
+    /**
+     * A Bloom filter of strings that uses double hashing of a 64-bit hash to choose its bits.
+     */
+    static class BloomFilter {
+        private final long[] words;
+        private final int bitCount;
+        private final int capacity;
+        private int entryCount;
+
+        BloomFilter(final int capacity) {
+            this(capacity, new long[(capacity * BITS_PER_ENTRY + 63) / 64], 0);
+        }
+
+        private BloomFilter(final int capacity, final long[] words, final int entryCount) {
+            this.capacity = capacity;
+            this.words = words;
+            this.bitCount = words.length * 64;
+            this.entryCount = entryCount;
+        }
+
+        boolean isFull() {
+            return entryCount >= capacity;
+        }
+
+        void put(final String value) {
+            final long hash = hash(value);
+            final int hash1 = (int) hash;
+            final int hash2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                final int bit = ((hash1 + i * hash2) & Integer.MAX_VALUE) % bitCount;
+                words[bit >>> 6] |= 1L << bit;
+            }
+            entryCount++;
+        }
+
+        boolean mightContain(final String value) {
+            final long hash = hash(value);
+            final int hash1 = (int) hash;
+            final int hash2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                final int bit = ((hash1 + i * hash2) & Integer.MAX_VALUE) % bitCount;
+                if ((words[bit >>> 6] & (1L << bit)) == 0L) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(final String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+
+            // FNV-1a mixes the last characters poorly, so finish with the MurmurHash3 finalizer
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+
+        void write(final DataOutputStream out) throws IOException {
+            out.writeInt(capacity);
+            out.writeInt(entryCount);
+            out.writeInt(words.length);
+            for (final long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        static BloomFilter read(final DataInputStream in) throws IOException {
+            final int capacity = in.readInt();
+            final int entryCount = in.readInt();
+            final long[] words = new long[in.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            return new BloomFilter(capacity, words, entryCount);
+        }
+    }
+}
@@ -16,9 +16,11 @@
  */
 package org.apache.nifi.provenance.lucene;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,10 +28,12 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.IntField;
 import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.provenance.PersistentProvenanceRepository;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.apache.nifi.provenance.ProvenanceEventType;
 import org.apache.nifi.provenance.SearchableFields;
 import org.apache.nifi.provenance.StandardProvenanceEventRecord;
@@ -54,6 +58,57 @@ public class IndexingAction {
 
 
     public void index(final StandardProvenanceEventRecord record, final IndexWriter indexWriter, final Integer blockIndex) throws IOException {
+        final Document doc = createDocument(record);
+        if (doc == null) {
+            return;
+        }
+
+        final String storageFilename = LuceneUtil.substringBefore(record.getStorageFilename(), ".");
+        doc.add(new StringField(FieldNames.STORAGE_FILENAME, storageFilename, Store.YES));
+
+        if ( blockIndex == null ) {
+            doc.add(new LongField(FieldNames.STORAGE_FILE_OFFSET, record.getStorageByteOffset(), Store.YES));
+        } else {
+            doc.add(new IntField(FieldNames.BLOCK_INDEX, blockIndex, Store.YES));
+            doc.add(new LongField(SearchableFields.Identifier.getSearchableFieldName(), record.getEventId(), Store.YES));
+        }
+
+        indexWriter.addDocument(doc);
+    }
+
+    /**
+     * Indexes an event that has been written to a journal but not yet merged into a Provenance Event Log File.
+     * The document refers to the event by its ID, so that it is still valid once the journal has been merged;
+     * until then, the event is read from the journal at the given offset.
+     *
+     * @param record the event that was written
+     * @param eventId the ID that the event was written with
+     * @param journalFile the journal that the event was written to
+     * @param journalOffset the offset of the event in the journal, not counting the journal's header
+     * @param indexWriter the writer to add the document to
+     * @throws IOException if unable to add the document
+     */
+    public void indexJournaledEvent(final ProvenanceEventRecord record, final long eventId, final File journalFile, final long journalOffset,
+            final IndexWriter indexWriter) throws IOException {
+        final Document doc = createDocument(record);
+        if (doc == null) {
+            return;
+        }
+
+        // journals share their basename with the Provenance Event Log File that they are merged into
+        final String storageFilename = LuceneUtil.substringBefore(journalFile.getName(), ".");
+        doc.add(new StringField(FieldNames.STORAGE_FILENAME, storageFilename, Store.YES));
+        doc.add(new LongField(SearchableFields.Identifier.getSearchableFieldName(), eventId, Store.YES));
+        doc.add(new StoredField(FieldNames.JOURNAL_FILENAME, journalFile.getAbsolutePath()));
+        doc.add(new StoredField(FieldNames.JOURNAL_FILE_OFFSET, journalOffset));
+
+        indexWriter.addDocument(doc);
+    }
+
+    /**
+     * @return a Document containing the searchable fields of the given event, or <code>null</code> if there is nothing to index
+     */
+    private Document createDocument(final ProvenanceEventRecord record) {
         final Map<String, String> attributes = record.getAttributes();
 
         final Document doc = new Document();
@@ -77,53 +132,52 @@ public class IndexingAction {
             addField(doc, searchableField, attributes.get(searchableField.getSearchableFieldName()), Store.NO);
         }
 
-        final String storageFilename = LuceneUtil.substringBefore(record.getStorageFilename(), ".");
-
         // Index the fields that we always index (unless there's nothing else to index at all)
-        if (!doc.getFields().isEmpty()) {
-            doc.add(new LongField(SearchableFields.LineageStartDate.getSearchableFieldName(), record.getLineageStartDate(), Store.NO));
-            doc.add(new LongField(SearchableFields.EventTime.getSearchableFieldName(), record.getEventTime(), Store.NO));
-            doc.add(new LongField(SearchableFields.FileSize.getSearchableFieldName(), record.getFileSize(), Store.NO));
-            doc.add(new StringField(FieldNames.STORAGE_FILENAME, storageFilename, Store.YES));
-
-            if ( blockIndex == null ) {
-                doc.add(new LongField(FieldNames.STORAGE_FILE_OFFSET, record.getStorageByteOffset(), Store.YES));
-            } else {
-                doc.add(new IntField(FieldNames.BLOCK_INDEX, blockIndex, Store.YES));
-                doc.add(new LongField(SearchableFields.Identifier.getSearchableFieldName(), record.getEventId(), Store.YES));
-            }
+        if (doc.getFields().isEmpty()) {
+            return null;
+        }
 
-            // If it's event is a FORK, or JOIN, add the FlowFileUUID for all child/parent UUIDs.
-            if (record.getEventType() == ProvenanceEventType.FORK || record.getEventType() == ProvenanceEventType.CLONE || record.getEventType() == ProvenanceEventType.REPLAY) {
-                for (final String uuid : record.getChildUuids()) {
-                    if (!uuid.equals(record.getFlowFileUuid())) {
-                        addField(doc, SearchableFields.FlowFileUUID, uuid, Store.NO);
-                    }
-                }
-            } else if (record.getEventType() == ProvenanceEventType.JOIN) {
-                for (final String uuid : record.getParentUuids()) {
-                    if (!uuid.equals(record.getFlowFileUuid())) {
-                        addField(doc, SearchableFields.FlowFileUUID, uuid, Store.NO);
-                    }
-                }
-            } else if (record.getEventType() == ProvenanceEventType.RECEIVE && record.getSourceSystemFlowFileIdentifier() != null) {
-                // If we get a receive with a Source System FlowFile Identifier, we add another Document that shows the UUID
-                // that the Source System uses to refer to the data.
-                final String sourceIdentifier = record.getSourceSystemFlowFileIdentifier();
-                final String sourceFlowFileUUID;
-                final int lastColon = sourceIdentifier.lastIndexOf(":");
-                if (lastColon > -1 && lastColon < sourceIdentifier.length() - 2) {
-                    sourceFlowFileUUID = sourceIdentifier.substring(lastColon + 1);
-                } else {
-                    sourceFlowFileUUID = null;
-                }
-
-                if (sourceFlowFileUUID != null) {
-                    addField(doc, SearchableFields.FlowFileUUID, sourceFlowFileUUID, Store.NO);
-                }
+        doc.add(new LongField(SearchableFields.LineageStartDate.getSearchableFieldName(), record.getLineageStartDate(), Store.NO));
+        doc.add(new LongField(SearchableFields.EventTime.getSearchableFieldName(), record.getEventTime(), Store.NO));
+        doc.add(new LongField(SearchableFields.FileSize.getSearchableFieldName(), record.getFileSize(), Store.NO));
+
+        // Add the FlowFileUUID of all children/parents for FORK, CLONE, REPLAY and JOIN events, and the source system's UUID for RECEIVE events.
+        for (final String uuid : getLineageFlowFileUuids(record)) {
+            if (!uuid.equals(record.getFlowFileUuid())) {
+                addField(doc, SearchableFields.FlowFileUUID, uuid, Store.NO);
             }
+        }
+
+        return doc;
+    }
 
-            indexWriter.addDocument(doc);
+    /**
+     * Returns the UUIDs of the FlowFiles whose lineage includes the given event. This is the UUID of the event's FlowFile
+     * and, depending on the type of event, the UUIDs of its children or parents, or the UUID that a source system used
+     * to refer to the data that was received.
+     *
+     * @param record the event
+     * @return the UUIDs of the FlowFiles that the event relates to
+     */
+    public static Set<String> getLineageFlowFileUuids(final ProvenanceEventRecord record) {
+        final Set<String> uuids = new LinkedHashSet<>();
+        uuids.add(record.getFlowFileUuid());
+
+        // If it's event is a FORK, or JOIN, add the FlowFileUUID for all child/parent UUIDs.
+        if (record.getEventType() == ProvenanceEventType.FORK || record.getEventType() == ProvenanceEventType.CLONE || record.getEventType() == ProvenanceEventType.REPLAY) {
+            uuids.addAll(record.getChildUuids());
+        } else if (record.getEventType() == ProvenanceEventType.JOIN) {
+            uuids.addAll(record.getParentUuids());
+        } else if (record.getEventType() == ProvenanceEventType.RECEIVE && record.getSourceSystemFlowFileIdentifier() != null) {
+            // If we get a receive with a Source System FlowFile Identifier, we add the UUID
+            // that the Source System uses to refer to the data.
+            final String sourceIdentifier = record.getSourceSystemFlowFileIdentifier();
+            final int lastColon = sourceIdentifier.lastIndexOf(":");
+            if (lastColon > -1 && lastColon < sourceIdentifier.length() - 2) {
+                uuids.add(sourceIdentifier.substring(lastColon + 1));
+            }
         }
+
+        return uuids;
     }
 }
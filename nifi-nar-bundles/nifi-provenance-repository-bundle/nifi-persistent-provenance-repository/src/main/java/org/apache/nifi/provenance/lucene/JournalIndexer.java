@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lucene;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes Provenance Events as they are written to the journals of the PersistentProvenanceRepository, so that they can
+ * be found by a near real time searcher within moments instead of after the journals have been merged. An instance
+ * covers the set of journals that is created at a single rollover: it holds the Index Writer of the index that the
+ * merged file will belong to until the journals have been merged, at which point it is closed and the documents
+ * are committed. The events are indexed by a pool of background threads, so that the threads that register events
+ * only have to queue them.
+ */
+public class JournalIndexer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(JournalIndexer.class);
+    private static final int MAX_QUEUED_EVENTS = 10000;
+
+    private final String storageFilename;
+    private final File storageDirectory;
+    private final File indexDirectory;
+    private final IndexManager indexManager;
+    private final IndexingAction indexingAction;
+    private final IndexSummary indexSummary;
+    private final IndexWriter indexWriter;
+    private final long[] journalOffsets;    // each element is guarded by the lock of the corresponding journal's RecordWriter
+
+    private final BlockingQueue<JournaledEvent> eventQueue = new LinkedBlockingQueue<>(MAX_QUEUED_EVENTS);
+    private final AtomicLong unindexedCount = new AtomicLong(0L);
+    private final ExecutorService indexExecutor;
+
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+    private final AtomicBoolean finishedAdding = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * @param storageFilename the basename shared by the journals and the Provenance Event Log File that they will be merged into
+     * @param storageDirectory the storage directory that the journals will be merged into
+     * @param indexDirectory the index to add the events to, which must belong to the given storage directory
+     * @param indexManager the Index Manager to obtain the Index Writer from
+     * @param indexingAction the action that creates the documents
+     * @param indexSummary the summary of the index, to which each event is added before it is indexed
+     * @param journalCount the number of journals
+     * @param indexThreadCount the number of threads to index the events with
+     * @throws IOException if unable to obtain an Index Writer
+     */
+    public JournalIndexer(final String storageFilename, final File storageDirectory, final File indexDirectory, final IndexManager indexManager,
+            final IndexingAction indexingAction, final IndexSummary indexSummary, final int journalCount, final int indexThreadCount) throws IOException {
+        this.storageFilename = storageFilename;
+        this.storageDirectory = storageDirectory;
+        this.indexDirectory = indexDirectory;
+        this.indexManager = indexManager;
+        this.indexingAction = indexingAction;
+        this.indexSummary = indexSummary;
+        this.journalOffsets = new long[journalCount];
+        this.indexWriter = indexManager.borrowIndexWriter(indexDirectory);
+
+        final int threadCount = Math.max(1, indexThreadCount);
+        this.indexExecutor = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread t = Executors.defaultThreadFactory().newThread(r);
+                t.setName("Index Journaled Provenance Events");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        for (int i = 0; i < threadCount; i++) {
+            indexExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    indexQueuedEvents();
+                }
+            });
+        }
+    }
+
+    public File getStorageDirectory() {
+        return storageDirectory;
+    }
+
+    public File getIndexDirectory() {
+        return indexDirectory;
+    }
+
+    /**
+     * Records that an event has been written to a journal. Must be called while holding the lock of the journal's
+     * RecordWriter, in the order in which the events were written.
+     *
+     * @param journalIndex the index of the journal
+     * @param recordBytes the number of bytes that the RecordWriter reported writing for the event
+     * @return the offset of the event in the journal, not counting the journal's header
+     */
+    public long recordWritten(final int journalIndex, final long recordBytes) {
+        final long offset = journalOffsets[journalIndex];
+        journalOffsets[journalIndex] = offset + recordBytes;
+        return offset;
+    }
+
+    /**
+     * Queues an event that has been written to a journal to be indexed by the background threads. Blocks only if the
+     * indexing has fallen behind by more than {@value #MAX_QUEUED_EVENTS} events. If indexing fails, no further events
+     * are indexed and {@link #isFailed()} returns <code>true</code>, so that the events can be indexed when the journals
+     * are merged instead.
+     *
+     * @param record the event
+     * @param eventId the ID that the event was written with
+     * @param journalFile the journal that the event was written to
+     * @param journalOffset the offset of the event in the journal, as returned by {@link #recordWritten(int, long)}
+     */
+    public void index(final ProvenanceEventRecord record, final long eventId, final File journalFile, final long journalOffset) {
+        if (failed.get() || finishedAdding.get()) {
+            return;
+        }
+
+        unindexedCount.incrementAndGet();
+        try {
+            eventQueue.put(new JournaledEvent(record, eventId, journalFile, journalOffset));
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            unindexedCount.decrementAndGet();
+            fail("Interrupted while queuing Provenance Event with ID " + eventId + " to be indexed in " + indexDirectory, null);
+        }
+    }
+
+    private void indexQueuedEvents() {
+        while (!finishedAdding.get() || !eventQueue.isEmpty()) {
+            final JournaledEvent event;
+            try {
+                event = eventQueue.poll(10, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (event == null) {
+                continue;
+            }
+
+            try {
+                // once indexing has failed, keep draining the queue so that the threads registering events are not blocked
+                if (!failed.get()) {
+                    indexSummary.add(event.record);
+                    indexingAction.indexJournaledEvent(event.record, event.eventId, event.journalFile, event.journalOffset, indexWriter);
+                }
+            } catch (final Throwable t) {
+                fail("Failed to index Provenance Event with ID " + event.eventId + " in " + indexDirectory, t);
+            } finally {
+                unindexedCount.decrementAndGet();
+            }
+        }
+    }
+
+    private void fail(final String message, final Throwable cause) {
+        if (!failed.getAndSet(true)) {
+            logger.error("{}; the remaining events for {} will be indexed when the journals are merged", message, storageFilename, cause);
+        }
+    }
+
+    /**
+     * Waits until every event that has been queued so far has been indexed, without preventing further events from being queued
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void waitForQueuedEvents() throws InterruptedException {
+        while (unindexedCount.get() > 0L && !indexExecutor.isTerminated()) {
+            Thread.sleep(10L);
+        }
+    }
+
+    /**
+     * Stops accepting events and waits for the background threads to index those that have been queued. Must be called
+     * once no more events can be written to the journals, and before {@link #isFailed()} is used to decide whether the
+     * journaled events are all in the index.
+     */
+    public void finishIndexing() {
+        finishedAdding.set(true);
+        indexExecutor.shutdown();
+
+        try {
+            while (!indexExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.debug("Waiting for {} Provenance Events to be indexed in {}", unindexedCount.get(), indexDirectory);
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            indexExecutor.shutdownNow();
+            fail("Interrupted while waiting for the Provenance Events for " + storageFilename + " to be indexed in " + indexDirectory, null);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if an event could not be indexed, in which case not all of the journaled events are in the index
+     */
+    public boolean isFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Removes the documents that have been added for the journals, so that they can be indexed again when merged
+     *
+     * @throws IOException if unable to delete the documents
+     */
+    public void deleteIndexedEvents() throws IOException {
+        indexWriter.deleteDocuments(new Term(FieldNames.STORAGE_FILENAME, storageFilename));
+    }
+
+    @Override
+    public void close() {
+        if (closed.getAndSet(true)) {
+            return;
+        }
+
+        finishIndexing();
+
+        // The Index Writer may be shared with the indexers for later journals and so not be closed when it is returned,
+        // so commit explicitly; once the journals are deleted, the documents can no longer be recovered from them.
+        try {
+            indexWriter.commit();
+        } catch (final IOException ioe) {
+            logger.error("Failed to commit Provenance Events indexed for {} to {}", storageFilename, indexDirectory, ioe);
+        } finally {
+            indexManager.returnIndexWriter(indexDirectory, indexWriter);
+        }
+
+        try {
+            indexSummary.persist();
+        } catch (final IOException ioe) {
+            logger.warn("Failed to persist the summary of {}; all queries will search this index after a restart", indexDirectory, ioe);
+        }
+    }
+
+    private static class JournaledEvent {
+        private final ProvenanceEventRecord record;
+        private final long eventId;
+        private final File journalFile;
+        private final long journalOffset;
+
+        public JournaledEvent(final ProvenanceEventRecord record, final long eventId, final File journalFile, final long journalOffset) {
+            this.record = record;
+            this.eventId = eventId;
+            this.journalFile = journalFile;
+            this.journalOffset = journalOffset;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JournalIndexer[storageFilename=" + storageFilename + ", index=" + indexDirectory + "]";
+    }
+}
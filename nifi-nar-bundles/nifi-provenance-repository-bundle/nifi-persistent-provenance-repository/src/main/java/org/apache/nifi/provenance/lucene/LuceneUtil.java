@@ -150,7 +150,7 @@ public class LuceneUtil {
                 }
 
                 final IndexableField fileOffset1 = o1.getField(FieldNames.BLOCK_INDEX);
-                final IndexableField fileOffset2 = o1.getField(FieldNames.BLOCK_INDEX);
+                final IndexableField fileOffset2 = o2.getField(FieldNames.BLOCK_INDEX);
                 if ( fileOffset1 != null && fileOffset2 != null ) {
                     final int blockIndexResult = Long.compare(fileOffset1.numericValue().longValue(), fileOffset2.numericValue().longValue());
                     if ( blockIndexResult != 0 ) {
@@ -162,6 +162,14 @@ public class LuceneUtil {
                     return Long.compare(eventId1, eventId2);
                 }
 
+                if ( o1.getField(FieldNames.STORAGE_FILE_OFFSET) == null || o2.getField(FieldNames.STORAGE_FILE_OFFSET) == null ) {
+                    // events that were indexed as they were journaled are located by ID. Events are written to both
+                    // the journals and the merged file in order of ID, so this is also the order to read them in.
+                    final long eventId1 = o1.getField(SearchableFields.Identifier.getSearchableFieldName()).numericValue().longValue();
+                    final long eventId2 = o2.getField(SearchableFields.Identifier.getSearchableFieldName()).numericValue().longValue();
+                    return Long.compare(eventId1, eventId2);
+                }
+
                 final long offset1 = o1.getField(FieldNames.STORAGE_FILE_OFFSET).numericValue().longValue();
                 final long offset2 = o2.getField(FieldNames.STORAGE_FILE_OFFSET).numericValue().longValue();
                 return Long.compare(offset1, offset2);
@@ -21,6 +21,7 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +43,7 @@ public class SimpleIndexManager implements IndexManager {
     private static final Logger logger = LoggerFactory.getLogger(SimpleIndexManager.class);
 
     private final ConcurrentMap<Object, List<Closeable>> closeables = new ConcurrentHashMap<>();
+    private final ConcurrentMap<IndexSearcher, IndexWriter> nearRealTimeWriters = new ConcurrentHashMap<>();
     private final Map<File, IndexWriterCount> writerCounts = new HashMap<>();
 
     @Override
@@ -50,6 +52,11 @@ public class SimpleIndexManager implements IndexManager {
 
     @Override
     public IndexSearcher borrowIndexSearcher(final File indexDir) throws IOException {
+        final IndexSearcher nearRealTimeSearcher = borrowNearRealTimeSearcher(indexDir);
+        if (nearRealTimeSearcher != null) {
+            return nearRealTimeSearcher;
+        }
+
         logger.debug("Creating index searcher for {}", indexDir);
         final Directory directory = FSDirectory.open(indexDir);
         final DirectoryReader directoryReader = DirectoryReader.open(directory);
@@ -64,17 +71,48 @@ public class SimpleIndexManager implements IndexManager {
         return searcher;
     }
 
+    /**
+     * If an Index Writer is currently open for the given directory, creates a 'near real time' searcher from it, which
+     * sees the documents that the writer has added but not yet committed. The writer is kept open until the searcher
+     * is returned.
+     *
+     * @return a searcher based on the current Index Writer, or <code>null</code> if no writer is open for the directory
+     */
+    private synchronized IndexSearcher borrowNearRealTimeSearcher(final File indexDir) throws IOException {
+        final File absoluteFile = indexDir.getAbsoluteFile();
+        final IndexWriterCount writerCount = writerCounts.get(absoluteFile);
+        if (writerCount == null) {
+            return null;
+        }
+
+        logger.debug("Index Writer currently exists for {}; creating a near real time index searcher", indexDir);
+        final IndexWriter writer = writerCount.getWriter();
+        final DirectoryReader directoryReader = DirectoryReader.open(writer, false);
+        final IndexSearcher searcher = new IndexSearcher(directoryReader);
+
+        writerCounts.put(absoluteFile, new IndexWriterCount(writer, writerCount.getAnalyzer(), writerCount.getDirectory(), writerCount.getCount() + 1));
+        closeables.put(searcher, Collections.<Closeable>singletonList(directoryReader));
+        nearRealTimeWriters.put(searcher, writer);
+
+        return searcher;
+    }
+
     @Override
     public void returnIndexSearcher(final File indexDirectory, final IndexSearcher searcher) {
         logger.debug("Closing index searcher {} for {}", searcher, indexDirectory);
 
-        final List<Closeable> closeableList = closeables.get(searcher);
+        final List<Closeable> closeableList = closeables.remove(searcher);
         if (closeableList != null) {
             for (final Closeable closeable : closeableList) {
                 closeQuietly(closeable);
             }
         }
 
+        final IndexWriter writer = nearRealTimeWriters.remove(searcher);
+        if (writer != null) {
+            returnIndexWriter(indexDirectory, writer);
+        }
+
         logger.debug("Closed index searcher {}", searcher);
     }
 
@@ -16,6 +16,8 @@
  */
 package org.apache.nifi.provenance.serialization;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -23,7 +25,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.zip.GZIPInputStream;
 
+import org.apache.nifi.provenance.DictionaryRecordReader;
+import org.apache.nifi.provenance.DictionaryRecordWriter;
 import org.apache.nifi.provenance.StandardRecordReader;
 import org.apache.nifi.provenance.lucene.LuceneUtil;
 import org.apache.nifi.provenance.toc.StandardTocReader;
@@ -31,6 +36,7 @@ import org.apache.nifi.provenance.toc.TocReader;
 import org.apache.nifi.provenance.toc.TocUtil;
 
 public class RecordReaders {
+    private static final int MAX_HEADER_BYTES = 65536;
 
     /**
      * Creates a new Record Reader that is capable of reading Provenance Event Journals
@@ -100,12 +106,16 @@ public class RecordReaders {
                 throw new FileNotFoundException("Unable to locate file " + originalFile);
             }
 
+            // peek at the header to determine which format the records were written in
+            final InputStream bufferedInStream = new BufferedInputStream(fis);
+            final String serializationName = readSerializationName(bufferedInStream, filename);
+
             final File tocFile = TocUtil.getTocFile(file);
-            if ( tocFile.exists() ) {
-                final TocReader tocReader = new StandardTocReader(tocFile);
-                return new StandardRecordReader(fis, filename, tocReader, maxAttributeChars);
+            final TocReader tocReader = tocFile.exists() ? new StandardTocReader(tocFile) : null;
+            if (DictionaryRecordWriter.SERIALIZATION_NAME.equals(serializationName)) {
+                return new DictionaryRecordReader(bufferedInStream, filename, tocReader, maxAttributeChars);
             } else {
-                return new StandardRecordReader(fis, filename, maxAttributeChars);
+                return new StandardRecordReader(bufferedInStream, filename, tocReader, maxAttributeChars);
             }
         } catch (final IOException ioe) {
             if ( fis != null ) {
@@ -120,4 +130,15 @@ public class RecordReaders {
         }
     }
 
+    private static String readSerializationName(final InputStream in, final String filename) throws IOException {
+        in.mark(MAX_HEADER_BYTES);
+        try {
+            // the header is in the first compressed block, so we do not close the GZIPInputStream, as that would close the file
+            final InputStream headerStream = filename.endsWith(".gz") ? new GZIPInputStream(in) : in;
+            return new DataInputStream(headerStream).readUTF();
+        } finally {
+            in.reset();
+        }
+    }
+
 }
@@ -19,6 +19,7 @@ package org.apache.nifi.provenance.serialization;
 import java.io.File;
 import java.io.IOException;
 
+import org.apache.nifi.provenance.DictionaryRecordWriter;
 import org.apache.nifi.provenance.StandardRecordWriter;
 import org.apache.nifi.provenance.toc.StandardTocWriter;
 import org.apache.nifi.provenance.toc.TocUtil;
@@ -32,7 +33,29 @@ public class RecordWriters {
     }
 
     public static RecordWriter newRecordWriter(final File file, final boolean compressed, final boolean createToc, final int compressionBlockBytes) throws IOException {
+        return newRecordWriter(file, compressed, createToc, compressionBlockBytes, false);
+    }
+
+    public static RecordWriter newRecordWriter(final File file, final boolean compressed, final boolean createToc, final boolean dictionaryEncoded) throws IOException {
+        return newRecordWriter(file, compressed, createToc, DEFAULT_COMPRESSION_BLOCK_SIZE, dictionaryEncoded);
+    }
+
+    /**
+     * @param file the file to write to
+     * @param compressed whether or not to compress the records
+     * @param createToc whether or not to create a Table of Contents for the file
+     * @param compressionBlockBytes the number of uncompressed bytes to write to each block
+     * @param dictionaryEncoded whether to write the records with a {@link DictionaryRecordWriter}, which stores repeated
+     *            strings and attributes once per block, rather than a {@link StandardRecordWriter}
+     * @return a Record Writer for the given file
+     * @throws IOException if unable to create the Table of Contents
+     */
+    public static RecordWriter newRecordWriter(final File file, final boolean compressed, final boolean createToc, final int compressionBlockBytes,
+            final boolean dictionaryEncoded) throws IOException {
         final TocWriter tocWriter = createToc ? new StandardTocWriter(TocUtil.getTocFile(file), false, false) : null;
+        if (dictionaryEncoded) {
+            return new DictionaryRecordWriter(file, tocWriter, compressed, compressionBlockBytes);
+        }
         return new StandardRecordWriter(file, tocWriter, compressed, compressionBlockBytes);
     }
 
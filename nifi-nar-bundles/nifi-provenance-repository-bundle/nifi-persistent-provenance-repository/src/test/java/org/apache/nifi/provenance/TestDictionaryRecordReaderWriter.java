@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.nifi.provenance.serialization.RecordReader;
+import org.apache.nifi.provenance.serialization.RecordReaders;
+import org.apache.nifi.provenance.serialization.RecordWriter;
+import org.apache.nifi.provenance.serialization.RecordWriters;
+import org.apache.nifi.util.file.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestDictionaryRecordReaderWriter {
+
+    private File storageDir;
+
+    @Before
+    public void setup() {
+        storageDir = new File("target/storage/" + UUID.randomUUID().toString());
+        assertTrue(storageDir.mkdirs());
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtils.deleteFile(storageDir, true);
+    }
+
+    /**
+     * Creates events for a number of FlowFiles, each of which passes through a chain of processors that each update
+     * one attribute, the way that events are typically recorded.
+     */
+    private List<ProvenanceEventRecord> createEvents(final int flowFileCount, final int eventsPerFlowFile) {
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        for (int i = 0; i < flowFileCount; i++) {
+            final String uuid = UUID.randomUUID().toString();
+            Map<String, String> attributes = new HashMap<>();
+            attributes.put("uuid", uuid);
+            attributes.put("filename", "file-" + i + ".txt");
+            attributes.put("path", "./");
+            attributes.put("mime.type", "application/json");
+
+            for (int j = 0; j < eventsPerFlowFile; j++) {
+                final Map<String, String> updated = new HashMap<>();
+                updated.put("step", String.valueOf(j));
+                if (j == 2) {
+                    updated.put("mime.type", null);
+                }
+
+                final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+                builder.setEventTime(1000L * i + j);
+                builder.setLineageStartDate(1000L * i);
+                builder.setFlowFileEntryDate(1000L * i);
+                builder.setEventDuration(j);
+                builder.setFlowFileUUID(uuid);
+                builder.setComponentId("processor-" + j);
+                builder.setComponentType("UpdateAttribute");
+                builder.setSourceQueueIdentifier("queue-" + j);
+                builder.setAttributes(attributes, updated);
+                builder.setCurrentContentClaim("default", "1", "claim-" + i, 0L, 1024L);
+
+                if (j == eventsPerFlowFile - 1) {
+                    builder.setEventType(ProvenanceEventType.FORK);
+                    builder.addChildUuid(UUID.randomUUID().toString());
+                    builder.addChildUuid(UUID.randomUUID().toString());
+                } else if (j % 2 == 0) {
+                    builder.setEventType(ProvenanceEventType.ROUTE);
+                    builder.setRelationship("success");
+                } else {
+                    builder.setEventType(ProvenanceEventType.ATTRIBUTES_MODIFIED);
+                    builder.setPreviousContentClaim("default", "1", "claim-" + i, 0L, 1024L);
+                }
+
+                events.add(builder.build());
+                attributes = DictionaryRecordWriter.applyUpdates(attributes, updated);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Creates the events that src/test/resources/standard-format-v9.journal holds, which was written by the
+     * StandardRecordWriter as it was before the dictionary-encoded format was added.
+     */
+    private List<ProvenanceEventRecord> createStandardFormatEvents() {
+        final List<ProvenanceEventRecord> events = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            final String uuid = new UUID(0L, i / 4).toString();
+            final Map<String, String> previous = new HashMap<>();
+            previous.put("uuid", uuid);
+            previous.put("filename", "file-" + i / 4 + ".txt");
+            previous.put("step", String.valueOf(i % 4));
+            final Map<String, String> updated = new HashMap<>();
+            updated.put("step", String.valueOf(i % 4 + 1));
+
+            final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+            builder.setEventTime(1000L * (i / 4) + i);
+            builder.setLineageStartDate(1000L * (i / 4));
+            builder.setFlowFileEntryDate(1000L * (i / 4));
+            builder.setEventDuration(i);
+            builder.setFlowFileUUID(uuid);
+            builder.setComponentId("processor-" + i % 4);
+            builder.setComponentType("UpdateAttribute");
+            builder.setSourceQueueIdentifier("queue-" + i % 4);
+            builder.setAttributes(previous, updated);
+            builder.setCurrentContentClaim("default", "1", "claim-" + i / 4, 0L, 1024L);
+            if (i % 4 == 0) {
+                builder.setEventType(ProvenanceEventType.RECEIVE);
+                builder.setTransitUri("nifi://unit-test/" + i / 4);
+            } else if (i % 4 == 3) {
+                builder.setEventType(ProvenanceEventType.FORK);
+                builder.addChildUuid(new UUID(1L, 2 * i).toString());
+                builder.addChildUuid(new UUID(1L, 2 * i + 1).toString());
+            } else {
+                builder.setEventType(ProvenanceEventType.ROUTE);
+                builder.setRelationship("success");
+                builder.setPreviousContentClaim("default", "1", "claim-" + i / 4, 0L, 1024L);
+            }
+            events.add(builder.build());
+        }
+        return events;
+    }
+
+    private void assertEventEquals(final ProvenanceEventRecord expected, final ProvenanceEventRecord actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getEventType(), actual.getEventType());
+        assertEquals(expected.getEventTime(), actual.getEventTime());
+        assertEquals(expected.getLineageStartDate(), actual.getLineageStartDate());
+        assertEquals(expected.getFlowFileEntryDate(), actual.getFlowFileEntryDate());
+        assertEquals(expected.getEventDuration(), actual.getEventDuration());
+        assertEquals(expected.getFlowFileUuid(), actual.getFlowFileUuid());
+        assertEquals(expected.getComponentId(), actual.getComponentId());
+        assertEquals(expected.getComponentType(), actual.getComponentType());
+        assertEquals(expected.getSourceQueueIdentifier(), actual.getSourceQueueIdentifier());
+        assertEquals(expected.getPreviousAttributes(), actual.getPreviousAttributes());
+        assertEquals(expected.getUpdatedAttributes(), actual.getUpdatedAttributes());
+        assertEquals(expected.getContentClaimIdentifier(), actual.getContentClaimIdentifier());
+        assertEquals(expected.getFileSize(), actual.getFileSize());
+        assertEquals(expected.getPreviousContentClaimIdentifier(), actual.getPreviousContentClaimIdentifier());
+        assertEquals(expected.getRelationship(), actual.getRelationship());
+        assertEquals(expected.getChildUuids(), actual.getChildUuids());
+    }
+
+    private void writeEvents(final RecordWriter writer, final List<ProvenanceEventRecord> events) throws IOException {
+        writer.writeHeader(0L);
+        for (int i = 0; i < events.size(); i++) {
+            writer.writeRecord(events.get(i), i);
+        }
+        writer.close();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final File journalFile = new File(storageDir, "0.journal.0");
+        final List<ProvenanceEventRecord> events = createEvents(20, 8);
+        writeEvents(RecordWriters.newRecordWriter(journalFile, false, false, true), events);
+
+        try (final RecordReader reader = RecordReaders.newRecordReader(journalFile, null, 2048)) {
+            assertTrue(reader instanceof DictionaryRecordReader);
+            for (int i = 0; i < events.size(); i++) {
+                final StandardProvenanceEventRecord recovered = reader.nextRecord();
+                assertEventEquals(events.get(i), recovered);
+                assertEquals(i, recovered.getEventId());
+            }
+            assertNull(reader.nextRecord());
+        }
+    }
+
+    @Test
+    public void testSkipToBlockCompressed() throws IOException {
+        final File eventFile = new File(storageDir, "0.prov.gz");
+        final List<ProvenanceEventRecord> events = createEvents(50, 8);
+        // a new block every 1 KB, so that FlowFiles' events are split across blocks
+        writeEvents(RecordWriters.newRecordWriter(eventFile, true, true, 1024, true), events);
+
+        try (final RecordReader reader = RecordReaders.newRecordReader(eventFile, null, 2048)) {
+            assertTrue(reader.getTocReader().getBlockIndexForEventId(events.size() - 1) > 2);
+
+            final int eventId = 200;
+            final int blockIndex = reader.getTocReader().getBlockIndexForEventId(eventId);
+            reader.skipToBlock(blockIndex);
+
+            StandardProvenanceEventRecord recovered = reader.nextRecord();
+            while (recovered.getEventId() < eventId) {
+                assertEventEquals(events.get((int) recovered.getEventId()), recovered);
+                recovered = reader.nextRecord();
+            }
+
+            for (int i = eventId; i < events.size(); i++) {
+                assertEquals(i, recovered.getEventId());
+                assertEventEquals(events.get(i), recovered);
+                recovered = reader.nextRecord();
+            }
+            assertNull(recovered);
+        }
+    }
+
+    @Test
+    public void testSkipTo() throws IOException {
+        final File journalFile = new File(storageDir, "0.journal.0");
+        final List<ProvenanceEventRecord> events = createEvents(20, 8);
+
+        final RecordWriter writer = RecordWriters.newRecordWriter(journalFile, false, false, true);
+        writer.writeHeader(0L);
+        long offset = 0L;
+        final long[] offsets = new long[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            offsets[i] = offset;
+            offset += writer.writeRecord(events.get(i), i);
+        }
+        writer.close();
+
+        for (final int eventId : Arrays.asList(0, 37, 159)) {
+            try (final RecordReader reader = RecordReaders.newRecordReader(journalFile, null, 2048)) {
+                reader.skipTo(offsets[eventId]);
+                final StandardProvenanceEventRecord recovered = reader.nextRecord();
+                assertEquals(eventId, recovered.getEventId());
+                assertEventEquals(events.get(eventId), recovered);
+            }
+        }
+    }
+
+    @Test
+    public void testSmallerThanStandardFormat() throws IOException {
+        final List<ProvenanceEventRecord> events = createEvents(200, 8);
+
+        final File standardFile = new File(storageDir, "0.journal.0");
+        writeEvents(RecordWriters.newRecordWriter(standardFile, false, false, false), events);
+
+        final File dictionaryFile = new File(storageDir, "0.journal.1");
+        writeEvents(RecordWriters.newRecordWriter(dictionaryFile, false, false, true), events);
+
+        assertTrue("Expected dictionary-encoded file of " + dictionaryFile.length() + " bytes to be less than a third of the standard file's "
+            + standardFile.length() + " bytes", dictionaryFile.length() * 3 < standardFile.length());
+    }
+
+    @Test
+    public void testReadsStandardFormatWrittenBeforeDictionaryEncoding() throws IOException {
+        final File journalFile = new File("src/test/resources/standard-format-v9.journal");
+        final List<ProvenanceEventRecord> events = createStandardFormatEvents();
+
+        try (final RecordReader reader = RecordReaders.newRecordReader(journalFile, null, 2048)) {
+            assertEquals(StandardRecordReader.class, reader.getClass());
+            for (int i = 0; i < events.size(); i++) {
+                final StandardProvenanceEventRecord recovered = reader.nextRecord();
+                assertEventEquals(events.get(i), recovered);
+                assertEquals(i, recovered.getEventId());
+                assertEquals(events.get(i).getTransitUri(), recovered.getTransitUri());
+            }
+            assertNull(reader.nextRecord());
+        }
+    }
+}
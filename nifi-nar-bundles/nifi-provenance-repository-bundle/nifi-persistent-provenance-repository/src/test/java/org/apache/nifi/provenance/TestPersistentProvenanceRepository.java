@@ -18,6 +18,7 @@ package org.apache.nifi.provenance;
 
 import static org.apache.nifi.provenance.TestUtil.createFlowFile;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -30,6 +31,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,6 +68,7 @@ import org.apache.nifi.provenance.lineage.LineageNode;
 import org.apache.nifi.provenance.lineage.LineageNodeType;
 import org.apache.nifi.provenance.lucene.CachingIndexManager;
 import org.apache.nifi.provenance.lucene.IndexManager;
+import org.apache.nifi.provenance.lucene.IndexSummary;
 import org.apache.nifi.provenance.lucene.IndexingAction;
 import org.apache.nifi.provenance.search.Query;
 import org.apache.nifi.provenance.search.QueryResult;
@@ -291,6 +294,59 @@ public class TestPersistentProvenanceRepository {
         }
     }
 
+    @Test
+    public void testQueuedEventsWrittenInBatchesAndRecovered() throws IOException, InterruptedException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxEventFileCapacity(1024L * 1024L);
+        config.setEventQueueCapacity(100);
+        config.setEventBatchSize(50);
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("abc", "xyz");
+        attributes.put("uuid", UUID.randomUUID().toString());
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.fromFlowFile(createFlowFile(3L, 3000L, attributes));
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+        final ProvenanceEventRecord record = builder.build();
+
+        // register events from several threads, a few at a time, as committing sessions would
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            exec.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    repo.registerEvents(Collections.nCopies(4, record));
+                }
+            });
+        }
+        exec.shutdown();
+        assertTrue(exec.awaitTermination(30, TimeUnit.SECONDS));
+
+        // closing the repository must write everything that is still queued
+        repo.close();
+        assertEquals(0, repo.getQueuedEventCount());
+        assertEquals(0L, repo.getDroppedEventCount());
+        assertTrue(repo.getEventBatchCount() > 0);
+
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+        final List<ProvenanceEventRecord> recoveredRecords = repo.getEvents(0L, 5000);
+
+        assertEquals(4000, recoveredRecords.size());
+        for (int i = 0; i < 4000; i++) {
+            final ProvenanceEventRecord recovered = recoveredRecords.get(i);
+            assertEquals(i, recovered.getEventId());
+            assertEquals("nifi://unit-test", recovered.getTransitUri());
+            assertEquals(attributes, recovered.getAttributes());
+        }
+    }
+
     @Test
     public void testAddToMultipleLogsAndRecover() throws IOException, InterruptedException {
         final List<SearchableField> searchableFields = new ArrayList<>();
@@ -486,6 +542,116 @@ public class TestPersistentProvenanceRepository {
         assertTrue(newRecordSet.getMatchingEvents().isEmpty());
     }
 
+    @Test(timeout = 30000)
+    public void testNearRealTimeIndexing() throws IOException, InterruptedException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxRecordLife(30, TimeUnit.SECONDS);
+        config.setMaxStorageCapacity(1024L * 1024L * 10);
+        config.setMaxEventFileLife(1, TimeUnit.HOURS);
+        config.setMaxEventFileCapacity(1024L * 1024L * 10);
+        config.setSearchableFields(new ArrayList<>(SearchableFields.getStandardFields()));
+        config.setNearRealTimeIndexing(true);
+
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "file-1");
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+
+        for (int i = 0; i < 10; i++) {
+            attributes.put("uuid", "00000000-0000-0000-0000-00000000000" + i);
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            repo.registerEvent(builder.build());
+        }
+
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.Filename, "file-*"));
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "1234"));
+        query.setMaxResults(100);
+
+        // the events are searchable before the journals have been rolled over, once the background threads have indexed them
+        repo.waitForJournaledEventsIndexed();
+        assertEquals(0, repo.getAllLogFiles().size());
+        assertEventIds(repo.queryEvents(query, createUser()).getMatchingEvents(), 10);
+
+        // once merged, the same documents locate the events in the merged file
+        repo.rolloverWithLock(true);
+        while (repo.getAllLogFiles().isEmpty()) {
+            Thread.sleep(10L);
+        }
+        assertEventIds(repo.queryEvents(query, createUser()).getMatchingEvents(), 10);
+
+        // the documents were committed when the journals were merged, and are not indexed again on restart
+        repo.close();
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+        assertEventIds(repo.queryEvents(query, createUser()).getMatchingEvents(), 10);
+    }
+
+    @Test(timeout = 30000)
+    public void testNearRealTimeIndexingCompletesBeforeMerge() throws IOException, InterruptedException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxRecordLife(30, TimeUnit.SECONDS);
+        config.setMaxStorageCapacity(1024L * 1024L * 10);
+        config.setMaxEventFileLife(1, TimeUnit.HOURS);
+        config.setMaxEventFileCapacity(1024L * 1024L * 10);
+        config.setSearchableFields(new ArrayList<>(SearchableFields.getStandardFields()));
+        config.setNearRealTimeIndexing(true);
+
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("filename", "file-1");
+
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+
+        final int numEvents = 1000;
+        for (int i = 0; i < numEvents; i++) {
+            attributes.put("uuid", new UUID(0L, i).toString());
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            repo.registerEvent(builder.build());
+        }
+
+        // roll over without waiting for the background threads; the merge must wait for every queued event to be indexed,
+        // and must not index any of them a second time
+        repo.rolloverWithLock(true);
+        while (repo.getAllLogFiles().isEmpty()) {
+            Thread.sleep(10L);
+        }
+
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "1234"));
+        query.setMaxResults(numEvents * 2);
+        assertEventIds(repo.queryEvents(query, createUser()).getMatchingEvents(), numEvents);
+    }
+
+    private static void assertEventIds(final List<ProvenanceEventRecord> events, final int expectedCount) {
+        assertEquals(expectedCount, events.size());
+
+        final Set<Long> eventIds = new HashSet<>();
+        for (final ProvenanceEventRecord event : events) {
+            assertEquals("nifi://unit-test", event.getTransitUri());
+            eventIds.add(event.getEventId());
+        }
+
+        for (long id = 0; id < expectedCount; id++) {
+            assertTrue(eventIds.contains(id));
+        }
+    }
+
     @Test(timeout = 10000)
     public void testModifyIndexWhileSearching() throws IOException, InterruptedException, ParseException {
         final RepositoryConfiguration config = createConfiguration();
@@ -1669,6 +1835,81 @@ public class TestPersistentProvenanceRepository {
         assertEquals(10000, counter);
     }
 
+    private void registerDistinctEvents(final int batch, final int count) {
+        for (int i = 0; i < count; i++) {
+            final Map<String, String> attributes = new HashMap<>();
+            attributes.put("uuid", new UUID(batch, i).toString());
+
+            final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+            builder.setEventTime(System.currentTimeMillis());
+            builder.setEventType(ProvenanceEventType.RECEIVE);
+            builder.setTransitUri("nifi://unit-test");
+            builder.fromFlowFile(createFlowFile(i, 3000L, attributes));
+            builder.setComponentId("component-" + batch + "-" + i);
+            builder.setComponentType("dummy processor");
+            repo.registerEvent(builder.build());
+        }
+    }
+
+    private void assertFound(final SearchableField field, final String value) throws IOException {
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.addSearchTerm(SearchTerms.newSearchTerm(field, value));
+        query.setMaxResults(10);
+
+        final QueryResult result = repo.queryEvents(query, createUser());
+        assertEquals("Expected one event with " + field.getFriendlyName() + " " + value, 1, result.getMatchingEvents().size());
+    }
+
+    @Test(timeout = 60000)
+    public void testEveryIndexedValueFoundAfterMerge() throws IOException, InterruptedException {
+        final RepositoryConfiguration config = createConfiguration();
+        config.setMaxEventFileLife(500, TimeUnit.MILLISECONDS);
+        config.setSearchableFields(new ArrayList<>(SearchableFields.getStandardFields()));
+        repo = new PersistentProvenanceRepository(config, DEFAULT_ROLLOVER_MILLIS);
+        repo.initialize(getEventReporter(), null, null);
+
+        // each rollover merges the journals into an event file whose events are added to the same index, and to its summary
+        registerDistinctEvents(1, 250);
+        repo.waitForRollover();
+        registerDistinctEvents(2, 250);
+        repo.waitForRollover();
+
+        for (int batch = 1; batch <= 2; batch++) {
+            for (final int i : new int[] {0, 249}) {
+                assertFound(SearchableFields.ComponentID, "component-" + batch + "-" + i);
+                assertFound(SearchableFields.FlowFileUUID, new UUID(batch, i).toString());
+            }
+        }
+
+        // too many values to query each through the repository, so check that the persisted summaries rule out no index that holds one
+        repo.close();
+        final List<IndexSummary> summaries = new ArrayList<>();
+        for (final File indexDir : config.getStorageDirectories().get(0).listFiles((dir, name) -> name.startsWith("index-"))) {
+            final IndexSummary summary = IndexSummary.recover(indexDir);
+            assertTrue(summary.isComplete());
+            summaries.add(summary);
+        }
+        assertFalse(summaries.isEmpty());
+
+        for (int batch = 1; batch <= 2; batch++) {
+            for (int i = 0; i < 250; i++) {
+                final Query componentQuery = new Query(UUID.randomUUID().toString());
+                componentQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, "component-" + batch + "-" + i));
+                final Query uuidQuery = new Query(UUID.randomUUID().toString());
+                uuidQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, new UUID(batch, i).toString()));
+
+                boolean componentFound = false;
+                boolean uuidFound = false;
+                for (final IndexSummary summary : summaries) {
+                    componentFound |= summary.mightMatch(componentQuery);
+                    uuidFound |= summary.mightMatch(uuidQuery);
+                }
+                assertTrue("No index summary matches component-" + batch + "-" + i, componentFound);
+                assertTrue("No index summary matches FlowFile " + new UUID(batch, i), uuidFound);
+            }
+        }
+    }
+
     @Test
     public void testRolloverRetry() throws IOException, InterruptedException {
         final AtomicInteger retryAmount = new AtomicInteger(0);
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+public class TestProvenanceEventBatcher {
+
+    private ProvenanceEventRecord createEvent() {
+        final ProvenanceEventBuilder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventTime(System.currentTimeMillis());
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setTransitUri("nifi://unit-test");
+        builder.fromFlowFile(TestUtil.createFlowFile(3L, 3000L, Collections.singletonMap("uuid", "12345678-0000-0000-0000-012345678912")));
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+        return builder.build();
+    }
+
+    // a batch writer that blocks until released, so that the queue can be filled
+    private static class BlockingWriter implements Consumer<List<ProvenanceEventRecord>> {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void accept(final List<ProvenanceEventRecord> batch) {
+            try {
+                release.await();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            batchSizes.add(batch.size());
+        }
+
+        int getEventCount() {
+            int count = 0;
+            for (final Integer size : batchSizes) {
+                count += size;
+            }
+            return count;
+        }
+    }
+
+    private void waitForEmptyQueue(final ProvenanceEventBatcher batcher) throws InterruptedException {
+        while (batcher.getQueueDepth() > 0) {
+            Thread.sleep(10L);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testEventsDroppedWhenFull() throws InterruptedException {
+        final BlockingWriter writer = new BlockingWriter();
+        final ProvenanceEventBatcher batcher = new ProvenanceEventBatcher(4, 100, true, 1, writer, null);
+        batcher.start();
+
+        // wait for the drain thread to pick up the first event and block in the writer
+        assertTrue(batcher.submit(Collections.singleton(createEvent())));
+        waitForEmptyQueue(batcher);
+
+        final ProvenanceEventRecord event = createEvent();
+        assertTrue(batcher.submit(Collections.nCopies(10, event)));
+        assertEquals(4, batcher.getQueueDepth());
+        assertEquals(6L, batcher.getDroppedEventCount());
+
+        writer.release.countDown();
+        batcher.shutdown();
+
+        assertEquals(5, writer.getEventCount());
+        assertEquals(5L, batcher.getEventsWritten());
+        assertEquals(2L, batcher.getBatchCount());
+        assertEquals(0, batcher.getQueueDepth());
+    }
+
+    @Test(timeout = 10000)
+    public void testSubmitBlocksWhenFull() throws InterruptedException {
+        final BlockingWriter writer = new BlockingWriter();
+        final ProvenanceEventBatcher batcher = new ProvenanceEventBatcher(4, 100, false, 1, writer, null);
+        batcher.start();
+
+        assertTrue(batcher.submit(Collections.singleton(createEvent())));
+        waitForEmptyQueue(batcher);
+
+        final ProvenanceEventRecord event = createEvent();
+        final AtomicBoolean submitted = new AtomicBoolean(false);
+        final Thread submitter = new Thread(() -> {
+            batcher.submit(Collections.nCopies(10, event));
+            submitted.set(true);
+        });
+        submitter.start();
+
+        // the submitting thread must wait until the writer catches up
+        Thread.sleep(250L);
+        assertFalse(submitted.get());
+        assertEquals(4, batcher.getQueueDepth());
+
+        writer.release.countDown();
+        submitter.join();
+        assertTrue(submitted.get());
+
+        batcher.shutdown();
+        assertEquals(11, writer.getEventCount());
+        assertEquals(0L, batcher.getDroppedEventCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testSubmitAfterShutdown() throws InterruptedException {
+        final List<ProvenanceEventRecord> written = Collections.synchronizedList(new ArrayList<>());
+        final ProvenanceEventBatcher batcher = new ProvenanceEventBatcher(10, 100, false, 2, written::addAll, null);
+        batcher.start();
+
+        assertTrue(batcher.submit(Collections.nCopies(5, createEvent())));
+        batcher.shutdown();
+        assertEquals(5, written.size());
+
+        assertFalse(batcher.submit(Collections.singleton(createEvent())));
+        assertEquals(0, batcher.getQueueDepth());
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedBatchRetried() throws InterruptedException {
+        final AtomicInteger attempts = new AtomicInteger(0);
+        final List<ProvenanceEventRecord> written = Collections.synchronizedList(new ArrayList<>());
+        final ProvenanceEventBatcher batcher = new ProvenanceEventBatcher(10, 100, false, 1, batch -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Intentional unit test failure");
+            }
+            written.addAll(batch);
+        }, null);
+        batcher.start();
+
+        assertTrue(batcher.submit(Collections.nCopies(3, createEvent())));
+        batcher.shutdown();
+
+        assertEquals(2, attempts.get());
+        assertEquals(3, written.size());
+        assertEquals(3L, batcher.getEventsWritten());
+        assertEquals(0L, batcher.getFailedEventCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedBatchCountedWhenRetriesExhausted() throws InterruptedException {
+        final AtomicInteger attempts = new AtomicInteger(0);
+        final ProvenanceEventBatcher batcher = new ProvenanceEventBatcher(10, 100, false, 1, batch -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Intentional unit test failure");
+        }, null);
+        batcher.start();
+
+        assertTrue(batcher.submit(Collections.nCopies(3, createEvent())));
+        batcher.shutdown();
+
+        assertEquals(3, attempts.get());
+        assertEquals(3L, batcher.getFailedEventCount());
+        assertEquals(0L, batcher.getEventsWritten());
+        assertEquals(0L, batcher.getDroppedEventCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testShutdownWaitsForSubmissionInProgress() throws InterruptedException {
+        final BlockingWriter writer = new BlockingWriter();
+        final ProvenanceEventBatcher batcher = new ProvenanceEventBatcher(4, 100, false, 1, writer, null);
+        batcher.start();
+
+        assertTrue(batcher.submit(Collections.singleton(createEvent())));
+        waitForEmptyQueue(batcher);
+
+        // fill the queue so that the submitter blocks while holding events that have not yet been queued
+        final AtomicBoolean accepted = new AtomicBoolean(false);
+        final Thread submitter = new Thread(() -> accepted.set(batcher.submit(Collections.nCopies(10, createEvent()))));
+        submitter.start();
+        while (batcher.getQueueDepth() < 4) {
+            Thread.sleep(10L);
+        }
+
+        final Thread stopper = new Thread(batcher::shutdown);
+        stopper.start();
+        Thread.sleep(100L);
+
+        writer.release.countDown();
+        submitter.join();
+        stopper.join();
+
+        // every event of a submission that was accepted must be written; none may be dropped because of the shutdown
+        assertTrue(accepted.get());
+        assertEquals(11, writer.getEventCount());
+        assertEquals(0L, batcher.getDroppedEventCount());
+        assertFalse(batcher.submit(Collections.singleton(createEvent())));
+    }
+}
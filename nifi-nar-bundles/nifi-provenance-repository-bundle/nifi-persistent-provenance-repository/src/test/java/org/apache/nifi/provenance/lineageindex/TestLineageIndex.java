@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lineageindex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.serialization.RecordWriter;
+import org.apache.nifi.provenance.serialization.RecordWriters;
+import org.apache.nifi.util.file.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestLineageIndex {
+
+    private File storageDir;
+
+    @Before
+    public void setup() {
+        storageDir = new File("target/storage/" + UUID.randomUUID().toString());
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtils.deleteFile(storageDir, true);
+    }
+
+    private ProvenanceEventRecord createEvent(final ProvenanceEventType eventType, final String flowFileUuid, final long eventTime, final String... childUuids) {
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventType(eventType);
+        builder.setEventTime(eventTime);
+        builder.setFlowFileUUID(flowFileUuid);
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+        builder.setTransitUri("nifi://unit-test");
+        builder.setCurrentContentClaim(null, null, null, null, 0L);
+        for (final String childUuid : childUuids) {
+            builder.addChildUuid(childUuid);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testLookupByFlowFileUuid() throws IOException {
+        final String a = UUID.randomUUID().toString();
+        final String b = UUID.randomUUID().toString();
+        final String c = UUID.randomUUID().toString();
+
+        final File eventFile = new File(storageDir, "0.prov");
+        final File lineageIndexFile = LineageIndexUtil.getLineageIndexFile(eventFile);
+        try (final LineageIndexWriter writer = new LineageIndexWriter(lineageIndexFile)) {
+            writer.addEvent(createEvent(ProvenanceEventType.RECEIVE, a, 1000L), 0L);
+            writer.addEvent(createEvent(ProvenanceEventType.FORK, a, 2000L, b, c), 1L);
+            writer.addEvent(createEvent(ProvenanceEventType.DROP, b, 3000L), 2L);
+            writer.addEvent(createEvent(ProvenanceEventType.CONTENT_MODIFIED, c, 4000L), 3L);
+        }
+
+        assertTrue(lineageIndexFile.exists());
+        assertFalse(new File(lineageIndexFile.getParentFile(), lineageIndexFile.getName() + ".tmp").exists());
+
+        try (final LineageIndexReader reader = new LineageIndexReader(lineageIndexFile)) {
+            assertEquals(1000L, reader.getMinEventTime());
+            assertEquals(4000L, reader.getMaxEventTime());
+            assertEquals(6, reader.getEntryCount());
+
+            assertEquals(Arrays.asList(0L, 1L), reader.getEventIds(a));
+            assertEquals(Arrays.asList(1L, 2L), reader.getEventIds(b));
+            assertEquals(Arrays.asList(1L, 3L), reader.getEventIds(c.toUpperCase()));
+            assertEquals(Collections.emptyList(), reader.getEventIds(UUID.randomUUID().toString()));
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() throws IOException {
+        final File lineageIndexFile = LineageIndexUtil.getLineageIndexFile(new File(storageDir, "0.prov"));
+        try (final LineageIndexWriter writer = new LineageIndexWriter(lineageIndexFile)) {
+        }
+
+        try (final LineageIndexReader reader = new LineageIndexReader(lineageIndexFile)) {
+            assertEquals(0, reader.getEntryCount());
+            assertEquals(Collections.emptyList(), reader.getEventIds(UUID.randomUUID().toString()));
+        }
+    }
+
+    @Test
+    public void testQueryReadsEventsById() throws IOException {
+        final File eventFile = new File(storageDir, "0.prov.gz");
+        final List<String> uuids = new ArrayList<>();
+
+        // use a small compression block size so that the events are spread across many blocks of the Table of Contents
+        try (final RecordWriter writer = RecordWriters.newRecordWriter(eventFile, true, true, 1024);
+            final LineageIndexWriter lineageIndexWriter = new LineageIndexWriter(LineageIndexUtil.getLineageIndexFile(eventFile))) {
+            writer.writeHeader(0L);
+            for (int i = 0; i < 1000; i++) {
+                final String uuid = UUID.randomUUID().toString();
+                uuids.add(uuid);
+
+                final ProvenanceEventRecord event = createEvent(ProvenanceEventType.RECEIVE, uuid, 1000L + i);
+                writer.writeRecord(event, i);
+                lineageIndexWriter.addEvent(event, i);
+            }
+        }
+
+        final List<Path> eventFiles = Collections.singletonList(eventFile.toPath());
+        final Set<ProvenanceEventRecord> events = LineageIndexQuery.computeLineageForFlowFiles(eventFiles,
+            Arrays.asList(uuids.get(3), uuids.get(500), uuids.get(999)), 0L, Long.MAX_VALUE, 65536);
+
+        final Set<Long> eventIds = new HashSet<>();
+        for (final ProvenanceEventRecord event : events) {
+            eventIds.add(event.getEventId());
+            assertEquals(uuids.get((int) event.getEventId()), event.getFlowFileUuid());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(3L, 500L, 999L)), eventIds);
+
+        // the events are all earlier than the start of the time range, so the file is not read
+        assertTrue(LineageIndexQuery.computeLineageForFlowFiles(eventFiles, Collections.singleton(uuids.get(3)), 5000L, Long.MAX_VALUE, 65536).isEmpty());
+    }
+
+    @Test
+    public void testLookupAcrossManyIndices() throws IOException {
+        final int fileCount = 20;
+        final int eventsPerFile = 5000;
+
+        // one FlowFile has an event in every file; the first, middle and last FlowFile of each file have one event each
+        final String longLivedUuid = UUID.randomUUID().toString();
+        final List<String> sampleUuids = new ArrayList<>();
+        final List<Long> sampleEventIds = new ArrayList<>();
+        for (int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+            final long firstEventId = (long) fileIndex * eventsPerFile;
+            final File eventFile = new File(storageDir, firstEventId + ".prov");
+            try (final LineageIndexWriter writer = new LineageIndexWriter(LineageIndexUtil.getLineageIndexFile(eventFile))) {
+                for (int i = 0; i < eventsPerFile; i++) {
+                    final long eventId = firstEventId + i;
+                    final String uuid = i == fileIndex + 1 ? longLivedUuid : UUID.randomUUID().toString();
+                    writer.addEvent(createEvent(ProvenanceEventType.RECEIVE, uuid, eventId), eventId);
+
+                    if (i == 0 || i == eventsPerFile / 2 || i == eventsPerFile - 1) {
+                        sampleUuids.add(uuid);
+                        sampleEventIds.add(eventId);
+                    }
+                }
+            }
+        }
+
+        for (int sampleIndex = 0; sampleIndex < sampleUuids.size(); sampleIndex++) {
+            final List<Long> found = new ArrayList<>();
+            for (int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+                final File eventFile = new File(storageDir, (long) fileIndex * eventsPerFile + ".prov");
+                try (final LineageIndexReader reader = new LineageIndexReader(LineageIndexUtil.getLineageIndexFile(eventFile))) {
+                    found.addAll(reader.getEventIds(sampleUuids.get(sampleIndex)));
+                }
+            }
+            assertEquals(Collections.singletonList(sampleEventIds.get(sampleIndex)), found);
+        }
+
+        final String absentUuid = UUID.randomUUID().toString();
+        for (int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+            final long firstEventId = (long) fileIndex * eventsPerFile;
+            final File eventFile = new File(storageDir, firstEventId + ".prov");
+            try (final LineageIndexReader reader = new LineageIndexReader(LineageIndexUtil.getLineageIndexFile(eventFile))) {
+                assertEquals(eventsPerFile, reader.getEntryCount());
+                assertEquals(firstEventId, reader.getMinEventTime());
+                assertEquals(firstEventId + eventsPerFile - 1, reader.getMaxEventTime());
+                assertEquals(Collections.singletonList(firstEventId + fileIndex + 1), reader.getEventIds(longLivedUuid));
+                assertEquals(Collections.emptyList(), reader.getEventIds(absentUuid));
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance.lucene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.UUID;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.SearchableFields;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.apache.nifi.provenance.search.Query;
+import org.apache.nifi.provenance.search.SearchTerms;
+import org.apache.nifi.util.file.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestIndexSummary {
+
+    private File indexDir;
+
+    @Before
+    public void setup() {
+        indexDir = new File("target/storage/" + UUID.randomUUID().toString() + "/index-0");
+        assertTrue(indexDir.getParentFile().mkdirs());
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtils.deleteFile(indexDir.getParentFile(), true);
+    }
+
+    private ProvenanceEventRecord createEvent(final String componentId, final String flowFileUuid, final long eventTime) {
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventType(ProvenanceEventType.RECEIVE);
+        builder.setEventTime(eventTime);
+        builder.setFlowFileUUID(flowFileUuid);
+        builder.setComponentId(componentId);
+        builder.setComponentType("dummy processor");
+        builder.setTransitUri("nifi://unit-test");
+        builder.setCurrentContentClaim(null, null, null, null, 0L);
+        return builder.build();
+    }
+
+    private Query createQuery(final long startTime, final long endTime, final String componentId) {
+        final Query query = new Query(UUID.randomUUID().toString());
+        query.setStartDate(new Date(startTime));
+        query.setEndDate(new Date(endTime));
+        if (componentId != null) {
+            query.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.ComponentID, componentId));
+        }
+        return query;
+    }
+
+    private void commitIndex() throws IOException {
+        final SimpleIndexManager indexManager = new SimpleIndexManager();
+        final IndexWriter writer = indexManager.borrowIndexWriter(indexDir);
+        try {
+            final Document doc = new Document();
+            doc.add(new StringField("id", UUID.randomUUID().toString(), Store.YES));
+            writer.addDocument(doc);
+        } finally {
+            indexManager.returnIndexWriter(indexDir, writer);
+            indexManager.close();
+        }
+    }
+
+    @Test
+    public void testPrunesByTimeAndComponent() throws IOException {
+        final IndexSummary summary = IndexSummary.recover(indexDir);
+        assertTrue(summary.isComplete());
+        assertFalse(summary.mightMatch(createQuery(0L, Long.MAX_VALUE, null)));
+
+        for (int i = 0; i < 1000; i++) {
+            summary.add(createEvent("processor-" + (i % 10), UUID.randomUUID().toString(), 10_000L + i));
+        }
+
+        assertTrue(summary.mightMatch(createQuery(0L, Long.MAX_VALUE, null)));
+        assertTrue(summary.mightMatch(createQuery(10_500L, 20_000L, "processor-3")));
+        assertTrue(summary.mightMatch(createQuery(10_500L, 20_000L, "PROCESSOR-3")));
+        assertTrue(summary.mightMatch(createQuery(10_500L, 20_000L, "processor-*")));
+
+        assertFalse(summary.mightMatch(createQuery(11_000L, 20_000L, null)));
+        assertFalse(summary.mightMatch(createQuery(0L, 9_999L, null)));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (summary.mightMatch(createQuery(0L, Long.MAX_VALUE, UUID.randomUUID().toString()))) {
+                falsePositives++;
+            }
+        }
+        assertTrue("Too many false positives: " + falsePositives, falsePositives < 50);
+    }
+
+    @Test
+    public void testRecoverPersistedSummary() throws IOException {
+        final String uuid = UUID.randomUUID().toString();
+        final IndexSummary summary = IndexSummary.recover(indexDir);
+        summary.add(createEvent("processor-1", uuid, 10_000L));
+        commitIndex();
+        summary.persist();
+
+        final IndexSummary recovered = IndexSummary.recover(indexDir);
+        assertTrue(recovered.isComplete());
+        assertEquals(1L, recovered.getEventCount());
+        assertTrue(recovered.mightMatch(createQuery(0L, Long.MAX_VALUE, "processor-1")));
+        assertFalse(recovered.mightMatch(createQuery(0L, Long.MAX_VALUE, "processor-2")));
+
+        final Query uuidQuery = createQuery(0L, Long.MAX_VALUE, null);
+        uuidQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, uuid));
+        assertTrue(recovered.mightMatch(uuidQuery));
+    }
+
+    @Test
+    public void testNoFalseNegativesAcrossFilters() throws IOException {
+        // enough distinct values that each field's values are spread across several Bloom filters
+        final int eventCount = 2 * IndexSummary.ENTRIES_PER_FILTER + 1000;
+        final IndexSummary summary = IndexSummary.recover(indexDir);
+        for (int i = 0; i < eventCount; i++) {
+            summary.add(createEvent("processor-" + i, new UUID(0L, i).toString(), 10_000L + i));
+        }
+        commitIndex();
+        summary.persist();
+
+        final IndexSummary recovered = IndexSummary.recover(indexDir);
+        assertTrue(recovered.isComplete());
+        for (int i = 0; i < eventCount; i++) {
+            assertTrue(recovered.mightMatch(createQuery(0L, Long.MAX_VALUE, "processor-" + i)));
+
+            final Query uuidQuery = createQuery(10_000L + i, 10_000L + i, null);
+            uuidQuery.addSearchTerm(SearchTerms.newSearchTerm(SearchableFields.FlowFileUUID, new UUID(0L, i).toString()));
+            assertTrue(recovered.mightMatch(uuidQuery));
+        }
+    }
+
+    @Test
+    public void testSummaryIsIncompleteIfIndexCommittedAfterPersist() throws IOException {
+        final IndexSummary summary = IndexSummary.recover(indexDir);
+        summary.add(createEvent("processor-1", UUID.randomUUID().toString(), 10_000L));
+        commitIndex();
+        summary.persist();
+
+        // a later commit may contain events that the persisted summary does not know about
+        commitIndex();
+
+        final IndexSummary recovered = IndexSummary.recover(indexDir);
+        assertFalse(recovered.isComplete());
+        assertTrue(recovered.mightMatch(createQuery(0L, Long.MAX_VALUE, "processor-2")));
+    }
+
+    @Test
+    public void testSummaryIsIncompleteIfNeverPersisted() throws IOException {
+        commitIndex();
+
+        final IndexSummary recovered = IndexSummary.recover(indexDir);
+        assertFalse(recovered.isComplete());
+        assertTrue(recovered.mightMatch(createQuery(0L, 1L, "processor-2")));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.util.List;
+
+import org.apache.nifi.util.RingBuffer;
+import org.apache.nifi.util.RingBuffer.Filter;
+import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+
+/**
+ * A ProvenanceEventBuffer that keeps the events as objects on the Java heap
+ */
+public class HeapProvenanceEventBuffer implements ProvenanceEventBuffer {
+    private final RingBuffer<ProvenanceEventRecord> ringBuffer;
+
+    public HeapProvenanceEventBuffer(final int maxEvents) {
+        this.ringBuffer = new RingBuffer<>(maxEvents);
+    }
+
+    @Override
+    public void add(final ProvenanceEventRecord event) {
+        ringBuffer.add(event);
+    }
+
+    @Override
+    public ProvenanceEventRecord getNewestElement() {
+        return ringBuffer.getNewestElement();
+    }
+
+    @Override
+    public ProvenanceEventRecord getEvent(final long id) {
+        final List<ProvenanceEventRecord> records = ringBuffer.getSelectedElements(new Filter<ProvenanceEventRecord>() {
+            @Override
+            public boolean select(final ProvenanceEventRecord event) {
+                return event.getEventId() == id;
+            }
+        }, 1);
+
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getSelectedElements(final Filter<ProvenanceEventRecord> filter) {
+        return ringBuffer.getSelectedElements(filter);
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getSelectedElements(final Filter<ProvenanceEventRecord> filter, final int maxElements) {
+        return ringBuffer.getSelectedElements(filter, maxElements);
+    }
+
+    @Override
+    public void forEach(final ForEachEvaluator<ProvenanceEventRecord> evaluator, final IterationDirection iterationDirection) {
+        ringBuffer.forEach(evaluator, iterationDirection);
+    }
+
+    @Override
+    public void close() {
+        // the events are freed by the garbage collector once the buffer is no longer referenced
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.nifi.util.RingBuffer.Filter;
+import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+
+/**
+ * <p>
+ * A ProvenanceEventBuffer that keeps the events serialized in a fixed-size region of direct memory, so that a large
+ * number of events can be held without the heap usage and garbage collection cost of keeping them as objects. The
+ * events are deserialized only when they are queried.
+ * </p>
+ *
+ * <p>
+ * The region is written as a circular log: each event is written after the previous one, wrapping around to the start of
+ * the region when it does not fit at the end, and the oldest events are removed until there is room for it. The ID and
+ * offset of each event are held in primitive arrays, in the order in which the events were added, so that the buffer
+ * also never holds more than the given maximum number of events.
+ * </p>
+ */
+public class OffHeapProvenanceEventBuffer implements ProvenanceEventBuffer {
+    private static final int LENGTH_BYTES = 4;
+
+    private final ByteBuffer region;
+    private final int capacity;
+    private final int maxEvents;
+    private final long[] eventIds;
+    private final int[] eventOffsets;
+
+    private int first = 0;  // index in eventIds and eventOffsets of the oldest event
+    private int count = 0;
+    private int writePosition = 0;
+    private boolean closed = false;
+
+    private final AtomicLong droppedCount = new AtomicLong(0L);
+    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final Lock readLock = rwLock.readLock();
+    private final Lock writeLock = rwLock.writeLock();
+
+    /**
+     * @param capacity the number of bytes of direct memory to hold the events in
+     * @param maxEvents the maximum number of events to hold, regardless of their size
+     */
+    public OffHeapProvenanceEventBuffer(final int capacity, final int maxEvents) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+        }
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("Max number of events must be positive but was " + maxEvents);
+        }
+
+        this.capacity = capacity;
+        this.maxEvents = maxEvents;
+        this.region = ByteBuffer.allocateDirect(capacity);
+        this.eventIds = new long[maxEvents];
+        this.eventOffsets = new int[maxEvents];
+    }
+
+    @Override
+    public void add(final ProvenanceEventRecord event) {
+        final byte[] serialized = serialize(event);
+        final int recordLength = LENGTH_BYTES + serialized.length;
+        if (recordLength > capacity) {
+            // the event can never fit; holding it would mean discarding every other event
+            droppedCount.incrementAndGet();
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            if (closed) {
+                // the region has been freed
+                return;
+            }
+
+            final int offset = allocate(recordLength);
+            final ByteBuffer view = region.duplicate();
+            view.position(offset);
+            view.putInt(serialized.length);
+            view.put(serialized);
+
+            final int index = (first + count) % maxEvents;
+            eventIds[index] = event.getEventId();
+            eventOffsets[index] = offset;
+            count++;
+            writePosition = offset + recordLength;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest events until a record of the given length can be written, and returns the offset to write it at.
+     * Must be called while holding the write lock.
+     */
+    private int allocate(final int recordLength) {
+        while (true) {
+            if (count == 0) {
+                return 0;
+            }
+
+            if (count < maxEvents) {
+                final int oldestOffset = eventOffsets[first];
+                if (oldestOffset < writePosition) {
+                    // the free space is after the newest record and before the oldest one, with the region wrapped in between
+                    if (capacity - writePosition >= recordLength) {
+                        return writePosition;
+                    }
+                    if (oldestOffset >= recordLength) {
+                        return 0;
+                    }
+                } else if (oldestOffset - writePosition >= recordLength) {
+                    return writePosition;
+                }
+            }
+
+            first = (first + 1) % maxEvents;
+            count--;
+        }
+    }
+
+    /**
+     * @return the number of events that could not be held because their serialized form was larger than the buffer
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the number of events that the buffer holds
+     */
+    public int getSize() {
+        readLock.lock();
+        try {
+            return count;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public ProvenanceEventRecord getNewestElement() {
+        readLock.lock();
+        try {
+            return count == 0 ? null : read((first + count - 1) % maxEvents);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public ProvenanceEventRecord getEvent(final long id) {
+        readLock.lock();
+        try {
+            if (count == 0) {
+                return null;
+            }
+
+            // IDs are assigned in nearly the same order as events are added, so check where the event would be if they were contiguous
+            final long expected = id - eventIds[first];
+            if (expected >= 0 && expected < count) {
+                final int index = (int) ((first + expected) % maxEvents);
+                if (eventIds[index] == id) {
+                    return read(index);
+                }
+            }
+
+            for (int i = count - 1; i >= 0; i--) {
+                final int index = (first + i) % maxEvents;
+                if (eventIds[index] == id) {
+                    return read(index);
+                }
+            }
+
+            return null;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getSelectedElements(final Filter<ProvenanceEventRecord> filter) {
+        return getSelectedElements(filter, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<ProvenanceEventRecord> getSelectedElements(final Filter<ProvenanceEventRecord> filter, final int maxElements) {
+        final List<ProvenanceEventRecord> selected = new ArrayList<>(Math.min(maxElements, 1000));
+        forEach(new ForEachEvaluator<ProvenanceEventRecord>() {
+            @Override
+            public boolean evaluate(final ProvenanceEventRecord event) {
+                if (filter.select(event)) {
+                    selected.add(event);
+                }
+                return selected.size() < maxElements;
+            }
+        }, IterationDirection.FORWARD);
+
+        return selected;
+    }
+
+    @Override
+    public void forEach(final ForEachEvaluator<ProvenanceEventRecord> evaluator, final IterationDirection iterationDirection) {
+        readLock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                final int position = iterationDirection == IterationDirection.FORWARD ? i : count - 1 - i;
+                if (!evaluator.evaluate(read((first + position) % maxEvents))) {
+                    return;
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Frees the region of direct memory now rather than when the buffer is garbage collected, which may not be until long
+     * after it is closed, since the buffer itself takes up very little of the heap.
+     */
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            // with no events, nothing reads from the region once it has been freed
+            closed = true;
+            first = 0;
+            count = 0;
+            writePosition = 0;
+            free(region);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void free(final ByteBuffer buffer) {
+        try {
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (final Exception e) {
+            // the JVM does not allow the memory to be freed explicitly; it will be freed when the buffer is garbage collected
+        }
+    }
+
+    /**
+     * Deserializes the event at the given index. Must be called while holding the read lock.
+     */
+    private ProvenanceEventRecord read(final int index) {
+        final ByteBuffer view = region.duplicate();
+        view.position(eventOffsets[index]);
+        final byte[] serialized = new byte[view.getInt()];
+        view.get(serialized);
+
+        try {
+            return deserialize(serialized, eventIds[index]);
+        } catch (final IOException ioe) {
+            // the bytes were written by this buffer, so this indicates a bug rather than corrupt data
+            throw new IllegalStateException("Failed to deserialize Provenance Event " + eventIds[index], ioe);
+        }
+    }
+
+    static byte[] serialize(final ProvenanceEventRecord event) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(512);
+        try (final DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeUTF(event.getEventType().name());
+            out.writeLong(event.getEventTime());
+            out.writeLong(event.getFlowFileEntryDate());
+            out.writeLong(event.getLineageStartDate());
+            out.writeLong(event.getEventDuration());
+            writeString(out, event.getComponentId());
+            writeString(out, event.getComponentType());
+            writeString(out, event.getFlowFileUuid());
+            writeString(out, event.getDetails());
+            writeString(out, event.getTransitUri());
+            writeString(out, event.getSourceSystemFlowFileIdentifier());
+            writeString(out, event.getAlternateIdentifierUri());
+            writeString(out, event.getRelationship());
+            writeString(out, event.getSourceQueueIdentifier());
+            writeStrings(out, event.getParentUuids());
+            writeStrings(out, event.getChildUuids());
+            writeAttributes(out, event.getPreviousAttributes());
+            writeAttributes(out, event.getUpdatedAttributes());
+
+            writeString(out, event.getContentClaimContainer());
+            writeString(out, event.getContentClaimSection());
+            writeString(out, event.getContentClaimIdentifier());
+            writeNullableLong(out, event.getContentClaimOffset());
+            out.writeLong(event.getFileSize());
+
+            writeString(out, event.getPreviousContentClaimContainer());
+            writeString(out, event.getPreviousContentClaimSection());
+            writeString(out, event.getPreviousContentClaimIdentifier());
+            writeNullableLong(out, event.getPreviousContentClaimOffset());
+            writeNullableLong(out, event.getPreviousFileSize());
+        } catch (final IOException ioe) {
+            // cannot happen when writing to a byte array
+            throw new IllegalStateException(ioe);
+        }
+
+        return baos.toByteArray();
+    }
+
+    static ProvenanceEventRecord deserialize(final byte[] serialized, final long eventId) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(serialized));
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventType(ProvenanceEventType.valueOf(in.readUTF()));
+        builder.setEventTime(in.readLong());
+        builder.setFlowFileEntryDate(in.readLong());
+        builder.setLineageStartDate(in.readLong());
+        builder.setEventDuration(in.readLong());
+        builder.setComponentId(readString(in));
+        builder.setComponentType(readString(in));
+        builder.setFlowFileUUID(readString(in));
+        builder.setDetails(readString(in));
+        builder.setTransitUri(readString(in));
+        builder.setSourceSystemFlowFileIdentifier(readString(in));
+        builder.setAlternateIdentifierUri(readString(in));
+        builder.setRelationship(readString(in));
+        builder.setSourceQueueIdentifier(readString(in));
+
+        final int parentCount = in.readInt();
+        for (int i = 0; i < parentCount; i++) {
+            builder.addParentUuid(readString(in));
+        }
+        final int childCount = in.readInt();
+        for (int i = 0; i < childCount; i++) {
+            builder.addChildUuid(readString(in));
+        }
+
+        final Map<String, String> previousAttributes = readAttributes(in);
+        final Map<String, String> updatedAttributes = readAttributes(in);
+        builder.setAttributes(previousAttributes, updatedAttributes);
+
+        builder.setCurrentContentClaim(readString(in), readString(in), readString(in), readNullableLong(in), in.readLong());
+
+        final String previousContainer = readString(in);
+        final String previousSection = readString(in);
+        final String previousIdentifier = readString(in);
+        final Long previousOffset = readNullableLong(in);
+        final Long previousSize = readNullableLong(in);
+        if (previousIdentifier != null) {
+            builder.setPreviousContentClaim(previousContainer, previousSection, previousIdentifier, previousOffset, previousSize == null ? 0L : previousSize);
+        }
+
+        final StandardProvenanceEventRecord record = builder.build();
+        record.setEventId(eventId);
+        return record;
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(final DataOutputStream out, final Collection<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(0);
+            return;
+        }
+
+        out.writeInt(values.size());
+        for (final String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeAttributes(final DataOutputStream out, final Map<String, String> attributes) throws IOException {
+        if (attributes == null) {
+            out.writeInt(0);
+            return;
+        }
+
+        out.writeInt(attributes.size());
+        for (final Map.Entry<String, String> entry : attributes.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readAttributes(final DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        final Map<String, String> attributes = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            attributes.put(readString(in), readString(in));
+        }
+        return attributes;
+    }
+
+    private static void writeNullableLong(final DataOutputStream out, final Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import java.util.List;
+
+import org.apache.nifi.util.RingBuffer.Filter;
+import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+
+/**
+ * A fixed-size buffer of the most recent Provenance Events that the VolatileProvenanceRepository holds. Once the buffer
+ * is full, adding an event removes the oldest events to make room for it.
+ */
+public interface ProvenanceEventBuffer {
+
+    /**
+     * Adds an event to the buffer, removing the oldest events if necessary
+     *
+     * @param event the event, which must already have been assigned its ID
+     */
+    void add(ProvenanceEventRecord event);
+
+    /**
+     * @return the event that was most recently added, or <code>null</code> if the buffer is empty
+     */
+    ProvenanceEventRecord getNewestElement();
+
+    /**
+     * @param id the ID of the event
+     * @return the event with the given ID, or <code>null</code> if the buffer does not hold it
+     */
+    ProvenanceEventRecord getEvent(long id);
+
+    /**
+     * @param filter the filter to apply
+     * @return the events that the filter selects, oldest first
+     */
+    List<ProvenanceEventRecord> getSelectedElements(Filter<ProvenanceEventRecord> filter);
+
+    /**
+     * @param filter the filter to apply
+     * @param maxElements the maximum number of events to return
+     * @return the oldest events that the filter selects, oldest first
+     */
+    List<ProvenanceEventRecord> getSelectedElements(Filter<ProvenanceEventRecord> filter, int maxElements);
+
+    /**
+     * Calls the evaluator for each event in the buffer until the evaluator returns <code>false</code>
+     *
+     * @param evaluator the evaluator to call
+     * @param iterationDirection whether to start with the oldest event or the newest
+     */
+    void forEach(ForEachEvaluator<ProvenanceEventRecord> evaluator, IterationDirection iterationDirection);
+
+    /**
+     * Discards the events in the buffer and releases the memory that holds them. Once closed, the buffer is empty and
+     * any events that are added to it are discarded.
+     */
+    void close();
+}
@@ -36,7 +36,6 @@ import org.apache.nifi.provenance.search.QuerySubmission;
 import org.apache.nifi.provenance.search.SearchTerm;
 import org.apache.nifi.provenance.search.SearchableField;
 import org.apache.nifi.util.NiFiProperties;
-import org.apache.nifi.util.RingBuffer;
 import org.apache.nifi.util.RingBuffer.Filter;
 import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
 import org.apache.nifi.util.RingBuffer.IterationDirection;
@@ -66,11 +65,12 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
 
     // properties
     public static final String BUFFER_SIZE = "nifi.provenance.repository.buffer.size";
+    public static final String OFF_HEAP_BUFFER_SIZE = "nifi.provenance.repository.buffer.off.heap.size";
 
     // default property values
     public static final int DEFAULT_BUFFER_SIZE = 10000;
 
-    private final RingBuffer<ProvenanceEventRecord> ringBuffer;
+    private final ProvenanceEventBuffer ringBuffer;
     private final List<SearchableField> searchableFields;
     private final List<SearchableField> searchableAttributes;
     private final ExecutorService queryExecService;
@@ -100,7 +100,16 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
     public VolatileProvenanceRepository(final NiFiProperties nifiProperties) {
 
         final int bufferSize = nifiProperties.getIntegerProperty(BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
-        ringBuffer = new RingBuffer<>(bufferSize);
+        final String offHeapSize = nifiProperties.getProperty(OFF_HEAP_BUFFER_SIZE);
+        if (offHeapSize == null || offHeapSize.trim().isEmpty()) {
+            ringBuffer = new HeapProvenanceEventBuffer(bufferSize);
+        } else {
+            final double offHeapBytes = DataUnit.parseDataSize(offHeapSize.trim(), DataUnit.B);
+            if (offHeapBytes < 1 || offHeapBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid value for " + OFF_HEAP_BUFFER_SIZE + ": " + offHeapSize + "; must be at least 1 B and less than 2 GB");
+            }
+            ringBuffer = new OffHeapProvenanceEventBuffer((int) offHeapBytes, bufferSize);
+        }
 
         final String indexedFieldString = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEXED_FIELDS);
         final String indexedAttrString = nifiProperties.getProperty(NiFiProperties.PROVENANCE_INDEXED_ATTRIBUTES);
@@ -195,14 +204,7 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
 
     @Override
     public ProvenanceEventRecord getEvent(final long id) {
-        final List<ProvenanceEventRecord> records = ringBuffer.getSelectedElements(new Filter<ProvenanceEventRecord>() {
-            @Override
-            public boolean select(final ProvenanceEventRecord event) {
-                return event.getEventId() == id;
-            }
-        }, 1);
-
-        return records.isEmpty() ? null : records.get(0);
+        return ringBuffer.getEvent(id);
     }
 
     @Override
@@ -220,6 +222,10 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
     public void close() throws IOException {
         queryExecService.shutdownNow();
         scheduledExecService.shutdown();
+
+        if (ringBuffer != null) {
+            ringBuffer.close();
+        }
     }
 
     @Override
@@ -622,12 +628,12 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
 
     private static class QueryRunnable implements Runnable {
 
-        private final RingBuffer<ProvenanceEventRecord> ringBuffer;
+        private final ProvenanceEventBuffer ringBuffer;
         private final Filter<ProvenanceEventRecord> filter;
         private final AsyncQuerySubmission submission;
         private final int maxRecords;
 
-        public QueryRunnable(final RingBuffer<ProvenanceEventRecord> ringBuffer, final Filter<ProvenanceEventRecord> filter, final int maxRecords, final AsyncQuerySubmission submission) {
+        public QueryRunnable(final ProvenanceEventBuffer ringBuffer, final Filter<ProvenanceEventRecord> filter, final int maxRecords, final AsyncQuerySubmission submission) {
             this.ringBuffer = ringBuffer;
             this.filter = filter;
             this.submission = submission;
@@ -659,11 +665,11 @@ public class VolatileProvenanceRepository implements ProvenanceRepository {
 
     private static class ComputeLineageRunnable implements Runnable {
 
-        private final RingBuffer<ProvenanceEventRecord> ringBuffer;
+        private final ProvenanceEventBuffer ringBuffer;
         private final Filter<ProvenanceEventRecord> filter;
         private final AsyncLineageSubmission submission;
 
-        public ComputeLineageRunnable(final RingBuffer<ProvenanceEventRecord> ringBuffer, final Filter<ProvenanceEventRecord> filter, final AsyncLineageSubmission submission) {
+        public ComputeLineageRunnable(final ProvenanceEventBuffer ringBuffer, final Filter<ProvenanceEventRecord> filter, final AsyncLineageSubmission submission) {
             this.ringBuffer = ringBuffer;
             this.filter = filter;
             this.submission = submission;
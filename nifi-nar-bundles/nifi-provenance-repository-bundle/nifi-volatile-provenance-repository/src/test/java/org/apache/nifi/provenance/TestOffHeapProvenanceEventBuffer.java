@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.provenance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.nifi.util.RingBuffer.ForEachEvaluator;
+import org.apache.nifi.util.RingBuffer.IterationDirection;
+import org.junit.Test;
+
+public class TestOffHeapProvenanceEventBuffer {
+
+    private StandardProvenanceEventRecord createEvent(final long id, final String attributeValue) {
+        final Map<String, String> previousAttributes = new HashMap<>();
+        previousAttributes.put("uuid", "uuid-" + id);
+        previousAttributes.put("value", attributeValue);
+
+        final StandardProvenanceEventRecord.Builder builder = new StandardProvenanceEventRecord.Builder();
+        builder.setEventType(ProvenanceEventType.FORK);
+        builder.setEventTime(1000L + id);
+        builder.setFlowFileEntryDate(500L);
+        builder.setLineageStartDate(400L);
+        builder.setEventDuration(12L);
+        builder.setFlowFileUUID("uuid-" + id);
+        builder.setComponentId("1234");
+        builder.setComponentType("dummy processor");
+        builder.setDetails("details");
+        builder.addChildUuid(UUID.randomUUID().toString());
+        builder.setAttributes(previousAttributes, Collections.singletonMap("value", "updated"));
+        builder.setCurrentContentClaim("container", "section", "claim-" + id, 8L, 3000L);
+        builder.setPreviousContentClaim("container", "section", "claim-0", null, 10L);
+
+        final StandardProvenanceEventRecord event = builder.build();
+        event.setEventId(id);
+        return event;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final OffHeapProvenanceEventBuffer buffer = new OffHeapProvenanceEventBuffer(1024 * 1024, 100);
+        assertNull(buffer.getNewestElement());
+
+        final StandardProvenanceEventRecord event = createEvent(7L, "abc");
+        buffer.add(event);
+
+        final ProvenanceEventRecord recovered = buffer.getEvent(7L);
+        assertNotNull(recovered);
+        assertEquals(7L, recovered.getEventId());
+        assertEquals(event.getEventType(), recovered.getEventType());
+        assertEquals(event.getEventTime(), recovered.getEventTime());
+        assertEquals(event.getFlowFileEntryDate(), recovered.getFlowFileEntryDate());
+        assertEquals(event.getLineageStartDate(), recovered.getLineageStartDate());
+        assertEquals(event.getEventDuration(), recovered.getEventDuration());
+        assertEquals(event.getFlowFileUuid(), recovered.getFlowFileUuid());
+        assertEquals(event.getDetails(), recovered.getDetails());
+        assertEquals(event.getChildUuids(), recovered.getChildUuids());
+        assertEquals(event.getPreviousAttributes(), recovered.getPreviousAttributes());
+        assertEquals(event.getUpdatedAttributes(), recovered.getUpdatedAttributes());
+        assertEquals(event.getAttributes(), recovered.getAttributes());
+        assertEquals(event.getContentClaimIdentifier(), recovered.getContentClaimIdentifier());
+        assertEquals(event.getContentClaimOffset(), recovered.getContentClaimOffset());
+        assertEquals(event.getFileSize(), recovered.getFileSize());
+        assertEquals(event.getPreviousContentClaimIdentifier(), recovered.getPreviousContentClaimIdentifier());
+        assertNull(recovered.getPreviousContentClaimOffset());
+        assertEquals(event.getPreviousFileSize(), recovered.getPreviousFileSize());
+
+        assertEquals(7L, buffer.getNewestElement().getEventId());
+        assertNull(buffer.getEvent(8L));
+    }
+
+    @Test
+    public void testOldestEventsRemovedWhenMemoryFull() {
+        // events of varying sizes force the log to wrap around at different offsets
+        final OffHeapProvenanceEventBuffer buffer = new OffHeapProvenanceEventBuffer(16 * 1024, 1000);
+        final char[] chars = new char[400];
+        Arrays.fill(chars, 'x');
+
+        for (int i = 0; i < 2000; i++) {
+            buffer.add(createEvent(i, new String(chars, 0, (i * 37) % chars.length)));
+
+            final List<ProvenanceEventRecord> events = buffer.getSelectedElements(event -> true);
+            assertTrue(events.size() < 1000);
+            long expectedId = i - events.size() + 1;
+            for (final ProvenanceEventRecord event : events) {
+                assertEquals(expectedId, event.getEventId());
+                assertEquals("uuid-" + expectedId, event.getFlowFileUuid());
+                expectedId++;
+            }
+        }
+
+        assertEquals(1999L, buffer.getNewestElement().getEventId());
+        assertNull(buffer.getEvent(0L));
+        assertEquals(1999L, buffer.getEvent(1999L).getEventId());
+    }
+
+    @Test
+    public void testMaxEvents() {
+        final OffHeapProvenanceEventBuffer buffer = new OffHeapProvenanceEventBuffer(1024 * 1024, 10);
+        for (int i = 0; i < 25; i++) {
+            buffer.add(createEvent(i, "abc"));
+        }
+
+        assertEquals(10, buffer.getSize());
+        assertNull(buffer.getEvent(14L));
+        assertEquals(15L, buffer.getEvent(15L).getEventId());
+
+        final List<Long> ids = new ArrayList<>();
+        buffer.forEach(new ForEachEvaluator<ProvenanceEventRecord>() {
+            @Override
+            public boolean evaluate(final ProvenanceEventRecord event) {
+                ids.add(event.getEventId());
+                return ids.size() < 3;
+            }
+        }, IterationDirection.BACKWARD);
+        assertEquals(Arrays.asList(24L, 23L, 22L), ids);
+
+        assertEquals(2, buffer.getSelectedElements(event -> event.getEventId() % 2 == 0, 2).size());
+    }
+
+    @Test
+    public void testEventLargerThanBufferIsDropped() {
+        final OffHeapProvenanceEventBuffer buffer = new OffHeapProvenanceEventBuffer(1024, 10);
+        buffer.add(createEvent(0L, "abc"));
+
+        final char[] chars = new char[2000];
+        Arrays.fill(chars, 'x');
+        buffer.add(createEvent(1L, new String(chars)));
+
+        assertEquals(1L, buffer.getDroppedCount());
+        assertEquals(0L, buffer.getNewestElement().getEventId());
+    }
+
+    private static long getDirectMemoryCapacity() {
+        for (final BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getTotalCapacity();
+            }
+        }
+
+        throw new AssertionError("No direct buffer pool found");
+    }
+
+    @Test
+    public void testDirectMemoryFreedOnClose() {
+        final int capacity = 32 * 1024 * 1024;
+        final long before = getDirectMemoryCapacity();
+
+        final OffHeapProvenanceEventBuffer buffer = new OffHeapProvenanceEventBuffer(capacity, 100);
+        buffer.add(createEvent(0L, "abc"));
+        final long allocated = getDirectMemoryCapacity();
+        assertTrue(allocated - before >= capacity);
+
+        // the buffer is still referenced, so the memory can only have been freed by closing it
+        buffer.close();
+        assertTrue(allocated - getDirectMemoryCapacity() >= capacity);
+
+        // once closed, the buffer is empty and does not touch the freed memory
+        assertEquals(0, buffer.getSize());
+        assertNull(buffer.getNewestElement());
+        assertNull(buffer.getEvent(0L));
+        buffer.add(createEvent(1L, "abc"));
+        assertTrue(buffer.getSelectedElements(event -> true).isEmpty());
+
+        buffer.close();
+    }
+}
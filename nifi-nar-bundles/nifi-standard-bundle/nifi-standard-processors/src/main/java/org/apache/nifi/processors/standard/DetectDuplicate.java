@@ -21,8 +21,11 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -67,6 +70,9 @@ public class DetectDuplicate extends AbstractProcessor {
 
     public static final String ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME = "original.flowfile.description";
 
+    // the number of FlowFiles whose identifiers are checked with a single request to the cache
+    static final int BATCH_SIZE = 100;
+
     public static final PropertyDescriptor DISTRIBUTED_CACHE_SERVICE = new PropertyDescriptor.Builder()
             .name("Distributed Cache Service")
             .description("The Controller Service that is used to cache unique identifiers, used to determine duplicates")
@@ -155,65 +161,100 @@ public class DetectDuplicate extends AbstractProcessor {
 
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
-        FlowFile flowFile = session.get();
-        if (flowFile == null) {
+        final List<FlowFile> flowFiles = session.get(BATCH_SIZE);
+        if (flowFiles.isEmpty()) {
             return;
         }
 
         final ComponentLog logger = getLogger();
-        final String cacheKey = context.getProperty(CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
-        if (StringUtils.isBlank(cacheKey)) {
-            logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[]{flowFile});
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
-            return;
-        }
         final DistributedMapCacheClient cache = context.getProperty(DISTRIBUTED_CACHE_SERVICE).asControllerService(DistributedMapCacheClient.class);
         final Long durationMS = context.getProperty(AGE_OFF_DURATION).asTimePeriod(TimeUnit.MILLISECONDS);
+        final boolean shouldCacheIdentifier = context.getProperty(CACHE_IDENTIFIER).asBoolean();
         final long now = System.currentTimeMillis();
 
-        try {
+        final Map<FlowFile, String> cacheKeys = new LinkedHashMap<>();
+        final Map<FlowFile, CacheValue> cacheValues = new HashMap<>();
+        final Map<String, CacheValue> cacheEntries = new HashMap<>();
+        for (FlowFile flowFile : flowFiles) {
+            final String cacheKey = context.getProperty(CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
+            if (StringUtils.isBlank(cacheKey)) {
+                logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[]{flowFile});
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                continue;
+            }
+
             final String flowFileDescription = context.getProperty(FLOWFILE_DESCRIPTION).evaluateAttributeExpressions(flowFile).getValue();
             final CacheValue cacheValue = new CacheValue(flowFileDescription, now);
-            final CacheValue originalCacheValue;
+            cacheKeys.put(flowFile, cacheKey);
+            cacheValues.put(flowFile, cacheValue);
+            cacheEntries.putIfAbsent(cacheKey, cacheValue);
+        }
+        if (cacheKeys.isEmpty()) {
+            return;
+        }
 
-            final boolean shouldCacheIdentifier = context.getProperty(CACHE_IDENTIFIER).asBoolean();
+        // the values that are in the cache for each key, before any of the FlowFiles in the batch is accounted for
+        final Map<String, CacheValue> originalCacheValues = new HashMap<>();
+        try {
             if (shouldCacheIdentifier) {
-                originalCacheValue = cache.getAndPutIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer, valueDeserializer);
+                originalCacheValues.putAll(cache.getAndPutIfAbsentAll(cacheEntries, keySerializer, valueSerializer, valueDeserializer));
             } else {
-                originalCacheValue = cache.get(cacheKey, keySerializer, valueDeserializer);
+                originalCacheValues.putAll(cache.getAll(cacheEntries.keySet(), keySerializer, valueDeserializer));
             }
+        } catch (final IOException e) {
+            for (FlowFile flowFile : cacheKeys.keySet()) {
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
+            }
+            return;
+        }
 
-            boolean duplicate = originalCacheValue != null;
-            if (duplicate && durationMS != null && (now >= originalCacheValue.getEntryTimeMS() + durationMS)) {
-                boolean status = cache.remove(cacheKey, keySerializer);
-                logger.debug("Removal of expired cached entry with key {} returned {}", new Object[]{cacheKey, status});
+        for (final Map.Entry<FlowFile, String> entry : cacheKeys.entrySet()) {
+            FlowFile flowFile = entry.getKey();
+            final String cacheKey = entry.getValue();
+            final CacheValue cacheValue = cacheValues.get(flowFile);
+
+            try {
+                final CacheValue originalCacheValue = originalCacheValues.get(cacheKey);
+
+                boolean duplicate = originalCacheValue != null;
+                if (duplicate && durationMS != null && (now >= originalCacheValue.getEntryTimeMS() + durationMS)) {
+                    boolean status = cache.remove(cacheKey, keySerializer);
+                    logger.debug("Removal of expired cached entry with key {} returned {}", new Object[]{cacheKey, status});
+
+                    // both should typically result in duplicate being false...but, better safe than sorry
+                    if (shouldCacheIdentifier) {
+                        duplicate = !cache.putIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer);
+                    } else {
+                        duplicate = cache.containsKey(cacheKey, keySerializer);
+                    }
+                }
 
-                // both should typically result in duplicate being false...but, better safe than sorry
-                if (shouldCacheIdentifier) {
-                    duplicate = !cache.putIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer);
-                } else {
-                    duplicate = cache.containsKey(cacheKey, keySerializer);
+                // later FlowFiles in the batch with the same key are duplicates of this one, if it was cached
+                if (!duplicate && shouldCacheIdentifier) {
+                    originalCacheValues.put(cacheKey, cacheValue);
                 }
-            }
 
-            if (duplicate) {
-                session.getProvenanceReporter().route(flowFile, REL_DUPLICATE, "Duplicate of: " + ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME);
-                String originalFlowFileDescription = originalCacheValue.getDescription();
-                flowFile = session.putAttribute(flowFile, ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME, originalFlowFileDescription);
-                session.transfer(flowFile, REL_DUPLICATE);
-                logger.info("Found {} to be a duplicate of FlowFile with description {}", new Object[]{flowFile, originalFlowFileDescription});
-                session.adjustCounter("Duplicates Detected", 1L, false);
-            } else {
-                session.getProvenanceReporter().route(flowFile, REL_NON_DUPLICATE);
-                session.transfer(flowFile, REL_NON_DUPLICATE);
-                logger.info("Could not find a duplicate entry in cache for {}; routing to non-duplicate", new Object[]{flowFile});
-                session.adjustCounter("Non-Duplicate Files Processed", 1L, false);
+                if (duplicate) {
+                    session.getProvenanceReporter().route(flowFile, REL_DUPLICATE, "Duplicate of: " + ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME);
+                    String originalFlowFileDescription = originalCacheValue.getDescription();
+                    flowFile = session.putAttribute(flowFile, ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME, originalFlowFileDescription);
+                    session.transfer(flowFile, REL_DUPLICATE);
+                    logger.info("Found {} to be a duplicate of FlowFile with description {}", new Object[]{flowFile, originalFlowFileDescription});
+                    session.adjustCounter("Duplicates Detected", 1L, false);
+                } else {
+                    session.getProvenanceReporter().route(flowFile, REL_NON_DUPLICATE);
+                    session.transfer(flowFile, REL_NON_DUPLICATE);
+                    logger.info("Could not find a duplicate entry in cache for {}; routing to non-duplicate", new Object[]{flowFile});
+                    session.adjustCounter("Non-Duplicate Files Processed", 1L, false);
+                }
+            } catch (final IOException e) {
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
             }
-        } catch (final IOException e) {
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
-            logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
         }
     }
 
@@ -45,11 +45,14 @@ import org.apache.nifi.processor.util.StandardValidators;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @EventDriven
@@ -66,6 +69,9 @@ import java.util.Set;
         "org.apache.nifi.processors.standard.PutDistributedMapCache"})
 public class FetchDistributedMapCache extends AbstractProcessor {
 
+    // the number of FlowFiles whose cache entries are fetched with a single request
+    static final int BATCH_SIZE = 100;
+
     public static final PropertyDescriptor PROP_DISTRIBUTED_CACHE_SERVICE = new PropertyDescriptor.Builder()
             .name("Distributed Cache Service")
             .description("The Controller Service that is used to get the cached values.")
@@ -152,23 +158,46 @@ public class FetchDistributedMapCache extends AbstractProcessor {
 
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
-        FlowFile flowFile = session.get();
-        if (flowFile == null) {
+        final List<FlowFile> flowFiles = session.get(BATCH_SIZE);
+        if (flowFiles.isEmpty()) {
             return;
         }
 
         final ComponentLog logger = getLogger();
-        final String cacheKey = context.getProperty(PROP_CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
-        if (StringUtils.isBlank(cacheKey)) {
-            logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[]{flowFile});
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
+        final Map<FlowFile, String> cacheKeys = new LinkedHashMap<>();
+        for (FlowFile flowFile : flowFiles) {
+            final String cacheKey = context.getProperty(PROP_CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
+            if (StringUtils.isBlank(cacheKey)) {
+                logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[]{flowFile});
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                continue;
+            }
+            cacheKeys.put(flowFile, cacheKey);
+        }
+        if (cacheKeys.isEmpty()) {
             return;
         }
+
         final DistributedMapCacheClient cache = context.getProperty(PROP_DISTRIBUTED_CACHE_SERVICE).asControllerService(DistributedMapCacheClient.class);
 
+        // look up the values for all of the FlowFiles with a single request
+        final Map<String, byte[]> cacheValues;
         try {
-            final byte[] cacheValue = cache.get(cacheKey, keySerializer, valueDeserializer);
+            cacheValues = cache.getAll(new HashSet<>(cacheKeys.values()), keySerializer, valueDeserializer);
+        } catch (final IOException e) {
+            for (FlowFile flowFile : cacheKeys.keySet()) {
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
+            }
+            return;
+        }
+
+        for (final Map.Entry<FlowFile, String> entry : cacheKeys.entrySet()) {
+            FlowFile flowFile = entry.getKey();
+            final String cacheKey = entry.getValue();
+            final byte[] cacheValue = cacheValues.get(cacheKey);
 
             if(cacheValue==null){
                 session.transfer(flowFile, REL_NOT_FOUND);
@@ -178,7 +207,7 @@ public class FetchDistributedMapCache extends AbstractProcessor {
                 boolean putInAttribute = context.getProperty(PROP_PUT_CACHE_VALUE_IN_ATTRIBUTE).isSet();
                 if(putInAttribute){
                     String attributeName = context.getProperty(PROP_PUT_CACHE_VALUE_IN_ATTRIBUTE).evaluateAttributeExpressions(flowFile).getValue();
-                    String attributeValue = new String(cacheValue,context.getProperty(PROP_CHARACTER_SET).getValue());
+                    String attributeValue = new String(cacheValue, Charset.forName(context.getProperty(PROP_CHARACTER_SET).getValue()));
 
                     int maxLength = context.getProperty(PROP_PUT_ATTRIBUTE_MAX_LENGTH).asInteger();
                     if(maxLength < attributeValue.length()){
@@ -203,11 +232,6 @@ public class FetchDistributedMapCache extends AbstractProcessor {
                     logger.info("Found a cache key of {} and replaced the contents of {} with it's value.", new Object[]{cacheKey, flowFile});
                 }
             }
-
-        } catch (final IOException e) {
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
-            logger.error("Unable to communicate with cache when processing {} due to {}", new Object[]{flowFile, e});
         }
     }
 
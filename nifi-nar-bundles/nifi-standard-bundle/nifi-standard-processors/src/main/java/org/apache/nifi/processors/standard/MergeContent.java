@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
@@ -60,6 +61,7 @@ import org.apache.nifi.annotation.behavior.WritesAttributes;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.AllowableValue;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.PropertyValue;
@@ -69,6 +71,7 @@ import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.ProcessSessionFactory;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
 import org.apache.nifi.processor.io.InputStreamCallback;
@@ -199,6 +202,16 @@ public class MergeContent extends BinFiles {
             MERGE_FORMAT_AVRO_VALUE,
             "The Avro contents of all FlowFiles will be concatenated together into a single FlowFile");
 
+    public static final AllowableValue MERGE_MODE_BUFFERED = new AllowableValue(
+            "Buffered",
+            "Buffered",
+            "Each FlowFile is held in its bin until the bin is complete, and the content of all of the FlowFiles in the bin is then written to the bundle");
+    public static final AllowableValue MERGE_MODE_STREAMING = new AllowableValue(
+            "Streaming",
+            "Streaming",
+            "The content of each FlowFile is appended to its bin's bundle as soon as the FlowFile is binned, and the FlowFile is then transferred "
+            + "to 'original' rather than being held in the bin");
+
     public static final String ATTRIBUTE_STRATEGY_ALL_COMMON = "Keep Only Common Attributes";
     public static final String ATTRIBUTE_STRATEGY_ALL_UNIQUE = "Keep All Unique Attributes";
 
@@ -222,6 +235,18 @@ public class MergeContent extends BinFiles {
             .allowableValues(MERGE_FORMAT_TAR, MERGE_FORMAT_ZIP, MERGE_FORMAT_FLOWFILE_STREAM_V3, MERGE_FORMAT_FLOWFILE_STREAM_V2, MERGE_FORMAT_FLOWFILE_TAR_V1, MERGE_FORMAT_CONCAT, MERGE_FORMAT_AVRO)
             .defaultValue(MERGE_FORMAT_CONCAT.getValue())
             .build();
+    public static final PropertyDescriptor MERGE_MODE = new PropertyDescriptor.Builder()
+            .required(true)
+            .name("Merge Mode")
+            .description("Determines when the content of a FlowFile is written to the bundle. In Buffered mode, FlowFiles are held in memory, each with "
+                    + "its own session, until their bin is complete. In Streaming mode, only the bundle of each bin is held, so that memory use depends "
+                    + "on the number of bins rather than the number of FlowFiles in them. Because Streaming mode transfers each FlowFile to 'original' "
+                    + "before its bundle is complete, a bundle that is in progress when the Processor is stopped is transferred to 'merged' as it is, "
+                    + "and the content of a bundle that is in progress when NiFi is restarted is lost. Streaming mode cannot be used with the Defragment "
+                    + "Merge Strategy or the Avro Merge Format.")
+            .allowableValues(MERGE_MODE_BUFFERED, MERGE_MODE_STREAMING)
+            .defaultValue(MERGE_MODE_BUFFERED.getValue())
+            .build();
     public static final PropertyDescriptor ATTRIBUTE_STRATEGY = new PropertyDescriptor.Builder()
             .required(true)
             .name("Attribute Strategy")
@@ -299,6 +324,8 @@ public class MergeContent extends BinFiles {
 
     public static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
 
+    private final Map<Bin, StreamingBundle> streamingBundles = new ConcurrentHashMap<>();
+
     @Override
     public Set<Relationship> getRelationships() {
         final Set<Relationship> relationships = new HashSet<>();
@@ -313,6 +340,7 @@ public class MergeContent extends BinFiles {
         final List<PropertyDescriptor> descriptors = new ArrayList<>();
         descriptors.add(MERGE_STRATEGY);
         descriptors.add(MERGE_FORMAT);
+        descriptors.add(MERGE_MODE);
         descriptors.add(ATTRIBUTE_STRATEGY);
         descriptors.add(CORRELATION_ATTRIBUTE_NAME);
         descriptors.add(MIN_ENTRIES);
@@ -351,6 +379,26 @@ public class MergeContent extends BinFiles {
                 results.add(StandardValidators.FILE_EXISTS_VALIDATOR.validate(DEMARCATOR.getName(), demarcatorValue, context));
             }
         }
+
+        if (MERGE_MODE_STREAMING.equals(context.getProperty(MERGE_MODE).getValue())) {
+            if (MERGE_STRATEGY_DEFRAGMENT.equals(context.getProperty(MERGE_STRATEGY).getValue())) {
+                results.add(new ValidationResult.Builder()
+                        .subject(MERGE_MODE.getName())
+                        .input(context.getProperty(MERGE_MODE).getValue())
+                        .valid(false)
+                        .explanation("the Defragment Merge Strategy cannot be used in Streaming mode, as fragments must be put in order before they are merged")
+                        .build());
+            }
+
+            if (MERGE_FORMAT_AVRO.equals(context.getProperty(MERGE_FORMAT).getValue())) {
+                results.add(new ValidationResult.Builder()
+                        .subject(MERGE_MODE.getName())
+                        .input(context.getProperty(MERGE_MODE).getValue())
+                        .valid(false)
+                        .explanation("the Avro Merge Format cannot be used in Streaming mode, as the schema of every FlowFile must be known before they are merged")
+                        .build());
+            }
+        }
         return results;
     }
 
@@ -396,10 +444,60 @@ public class MergeContent extends BinFiles {
         }
     }
 
+    @Override
+    protected boolean consumeFlowFile(final ProcessContext context, final ProcessSessionFactory sessionFactory, final Bin bin, final FlowFile flowFile,
+            final ProcessSession session) {
+        if (!MERGE_MODE_STREAMING.equals(context.getProperty(MERGE_MODE).getValue())) {
+            return false;
+        }
+
+        StreamingBundle bundle = streamingBundles.get(bin);
+        if (bundle == null) {
+            bundle = new StreamingBundle(context, bin, sessionFactory.createSession());
+            streamingBundles.put(bin, bundle);
+        }
+
+        try {
+            bundle.append(flowFile, session);
+        } catch (final Exception e) {
+            getLogger().error("Failed to merge {} into its bundle due to {}; routing it and the bundle of {} FlowFiles merged so far to failure",
+                    new Object[]{flowFile, e, bundle.getCount()});
+            // the next FlowFile that goes into this bin will start a new bundle
+            streamingBundles.remove(bin);
+            bundle.fail();
+            session.transfer(flowFile, REL_FAILURE);
+            session.commit();
+            return true;
+        }
+
+        // the FlowFile's content is now in the bundle, so there is no need to hold on to the FlowFile or its session
+        session.transfer(flowFile, REL_ORIGINAL);
+        session.commit();
+        return true;
+    }
+
+    @OnStopped
+    public void completeStreamingBundles() {
+        // the FlowFiles in these bundles have already been transferred to 'original', so rather than discard the bundles, we complete them as they are
+        for (final StreamingBundle bundle : streamingBundles.values()) {
+            bundle.complete();
+        }
+        streamingBundles.clear();
+    }
+
     @Override
     protected boolean processBin(final Bin unmodifiableBin, final List<FlowFileSessionWrapper> binCopy, final ProcessContext context,
             final ProcessSession session) throws ProcessException {
 
+        if (MERGE_MODE_STREAMING.equals(context.getProperty(MERGE_MODE).getValue())) {
+            // the FlowFiles were merged and committed as they were binned, so all that remains is to complete the bundle
+            final StreamingBundle bundle = streamingBundles.remove(unmodifiableBin);
+            if (bundle != null) {
+                bundle.complete();
+            }
+            return true;
+        }
+
         final String mergeFormat = context.getProperty(MERGE_FORMAT).getValue();
         MergeBin merger;
         switch (mergeFormat) {
@@ -428,16 +526,7 @@ public class MergeContent extends BinFiles {
                 throw new AssertionError();
         }
 
-        final AttributeStrategy attributeStrategy;
-        switch (context.getProperty(ATTRIBUTE_STRATEGY).getValue()) {
-            case ATTRIBUTE_STRATEGY_ALL_UNIQUE:
-                attributeStrategy = new KeepUniqueAttributeStrategy();
-                break;
-            case ATTRIBUTE_STRATEGY_ALL_COMMON:
-            default:
-                attributeStrategy = new KeepCommonAttributeStrategy();
-                break;
-        }
+        final AttributeStrategy attributeStrategy = getAttributeStrategy(context);
 
         if (MERGE_STRATEGY_DEFRAGMENT.equals(context.getProperty(MERGE_STRATEGY).getValue())) {
             final String error = getDefragmentValidationError(binCopy);
@@ -462,7 +551,7 @@ public class MergeContent extends BinFiles {
         final String filename = bundle.getAttribute(CoreAttributes.FILENAME.key());
 
         // merge all of the attributes
-        final Map<String, String> bundleAttributes = attributeStrategy.getMergedAttributes(binCopy);
+        final Map<String, String> bundleAttributes = attributeStrategy.getMergedAttributes(getFlowFiles(binCopy));
         bundleAttributes.put(CoreAttributes.MIME_TYPE.key(), merger.getMergedContentType());
         // restore the filename of the bundle
         bundleAttributes.put(CoreAttributes.FILENAME.key(), filename);
@@ -485,6 +574,16 @@ public class MergeContent extends BinFiles {
         return false;
     }
 
+    private AttributeStrategy getAttributeStrategy(final ProcessContext context) {
+        switch (context.getProperty(ATTRIBUTE_STRATEGY).getValue()) {
+            case ATTRIBUTE_STRATEGY_ALL_UNIQUE:
+                return new KeepUniqueAttributeStrategy();
+            case ATTRIBUTE_STRATEGY_ALL_COMMON:
+            default:
+                return new KeepCommonAttributeStrategy();
+        }
+    }
+
     private String getDefragmentValidationError(final List<FlowFileSessionWrapper> bin) {
         if (bin.isEmpty()) {
             return null;
@@ -561,7 +660,7 @@ public class MergeContent extends BinFiles {
             bundle = session.write(bundle, new OutputStreamCallback() {
                 @Override
                 public void process(final OutputStream out) throws IOException {
-                    final byte[] header = getDelimiterContent(context, wrappers, HEADER);
+                    final byte[] header = getDelimiterContent(context, wrappers.get(0).getFlowFile(), HEADER);
                     if (header != null) {
                         out.write(header);
                     }
@@ -578,7 +677,7 @@ public class MergeContent extends BinFiles {
                         });
 
                         if (itr.hasNext()) {
-                            final byte[] demarcator = getDelimiterContent(context, wrappers, DEMARCATOR);
+                            final byte[] demarcator = getDelimiterContent(context, wrappers.get(0).getFlowFile(), DEMARCATOR);
                             if (demarcator != null) {
                                 out.write(demarcator);
                             }
@@ -595,7 +694,7 @@ public class MergeContent extends BinFiles {
                         }
                     }
 
-                    final byte[] footer = getDelimiterContent(context, wrappers, FOOTER);
+                    final byte[] footer = getDelimiterContent(context, wrappers.get(0).getFlowFile(), FOOTER);
                     if (footer != null) {
                         out.write(footer);
                     }
@@ -611,52 +710,6 @@ public class MergeContent extends BinFiles {
             return bundle;
         }
 
-        private byte[] getDelimiterContent(final ProcessContext context, final List<FlowFileSessionWrapper> wrappers, final PropertyDescriptor descriptor)
-                throws IOException {
-            final String delimiterStrategyValue = context.getProperty(DELIMITER_STRATEGY).getValue();
-            if (DELIMITER_STRATEGY_FILENAME.equals(delimiterStrategyValue)) {
-                return getDelimiterFileContent(context, wrappers, descriptor);
-            } else {
-                return getDelimiterTextContent(context, wrappers, descriptor);
-            }
-        }
-
-        private byte[] getDelimiterFileContent(final ProcessContext context, final List<FlowFileSessionWrapper> wrappers, final PropertyDescriptor descriptor)
-                throws IOException {
-            byte[] property = null;
-            final String descriptorValue = context.getProperty(descriptor).evaluateAttributeExpressions().getValue();
-            if (descriptorValue != null && wrappers != null && wrappers.size() > 0) {
-                final String content = new String(readContent(descriptorValue));
-                final FlowFileSessionWrapper wrapper = wrappers.get(0);
-                if (wrapper != null && content != null) {
-                    final FlowFile flowFile = wrapper.getFlowFile();
-                    if (flowFile != null) {
-                        final PropertyValue propVal = context.newPropertyValue(content).evaluateAttributeExpressions(flowFile);
-                        property = propVal.getValue().getBytes();
-                    }
-                }
-            }
-            return property;
-        }
-
-        private byte[] getDelimiterTextContent(final ProcessContext context, final List<FlowFileSessionWrapper> wrappers, final PropertyDescriptor descriptor)
-                throws IOException {
-            byte[] property = null;
-            if (wrappers != null && wrappers.size() > 0) {
-                final FlowFileSessionWrapper wrapper = wrappers.get(0);
-                if (wrapper != null) {
-                    final FlowFile flowFile = wrapper.getFlowFile();
-                    if (flowFile != null) {
-                        final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
-                        if (value != null) {
-                            property = value.getBytes();
-                        }
-                    }
-                }
-            }
-            return property;
-        }
-
         @Override
         public String getMergedContentType() {
             return mimeType;
@@ -668,6 +721,39 @@ public class MergeContent extends BinFiles {
         }
     }
 
+    private byte[] getDelimiterContent(final ProcessContext context, final FlowFile flowFile, final PropertyDescriptor descriptor) throws IOException {
+        final String delimiterStrategyValue = context.getProperty(DELIMITER_STRATEGY).getValue();
+        if (DELIMITER_STRATEGY_FILENAME.equals(delimiterStrategyValue)) {
+            return getDelimiterFileContent(context, flowFile, descriptor);
+        } else {
+            return getDelimiterTextContent(context, flowFile, descriptor);
+        }
+    }
+
+    private byte[] getDelimiterFileContent(final ProcessContext context, final FlowFile flowFile, final PropertyDescriptor descriptor) throws IOException {
+        byte[] property = null;
+        final String descriptorValue = context.getProperty(descriptor).evaluateAttributeExpressions().getValue();
+        if (descriptorValue != null && flowFile != null) {
+            final String content = new String(readContent(descriptorValue));
+            if (content != null) {
+                final PropertyValue propVal = context.newPropertyValue(content).evaluateAttributeExpressions(flowFile);
+                property = propVal.getValue().getBytes();
+            }
+        }
+        return property;
+    }
+
+    private byte[] getDelimiterTextContent(final ProcessContext context, final FlowFile flowFile, final PropertyDescriptor descriptor) throws IOException {
+        byte[] property = null;
+        if (flowFile != null) {
+            final String value = context.getProperty(descriptor).evaluateAttributeExpressions(flowFile).getValue();
+            if (value != null) {
+                property = value.getBytes();
+            }
+        }
+        return property;
+    }
+
     private List<FlowFile> getFlowFiles(final List<FlowFileSessionWrapper> sessionWrappers) {
         final List<FlowFile> flowFiles = new ArrayList<>();
         for (final FlowFileSessionWrapper wrapper : sessionWrappers) {
@@ -689,11 +775,46 @@ public class MergeContent extends BinFiles {
         return path == null ? "" : path.toString() + "/";
     }
 
+    private String getEntryName(final FlowFile flowFile, final boolean keepPath) {
+        final String path = keepPath ? getPath(flowFile) : "";
+        return path + flowFile.getAttribute(CoreAttributes.FILENAME.key());
+    }
+
+    private TarArchiveEntry createTarEntry(final FlowFile flowFile, final boolean keepPath) {
+        final TarArchiveEntry tarEntry = new TarArchiveEntry(getEntryName(flowFile, keepPath));
+        tarEntry.setSize(flowFile.getSize());
+        final String permissionsVal = flowFile.getAttribute(TAR_PERMISSIONS_ATTRIBUTE);
+        if (permissionsVal != null) {
+            try {
+                tarEntry.setMode(Integer.parseInt(permissionsVal));
+            } catch (final Exception e) {
+                getLogger().debug("Attribute {} of {} is set to {}; expected 3 digits between 0-7, so ignoring",
+                        new Object[]{TAR_PERMISSIONS_ATTRIBUTE, flowFile, permissionsVal});
+            }
+        }
+        return tarEntry;
+    }
+
+    private Map<String, String> getPackagedAttributes(final FlowFile flowFile) {
+        final Map<String, String> attributes = new HashMap<>(flowFile.getAttributes());
+
+        // for backward compatibility purposes, we add the "legacy" NiFi attributes
+        attributes.put("nf.file.name", attributes.get(CoreAttributes.FILENAME.key()));
+        attributes.put("nf.file.path", attributes.get(CoreAttributes.PATH.key()));
+        if (attributes.containsKey(CoreAttributes.MIME_TYPE.key())) {
+            attributes.put("content-type", attributes.get(CoreAttributes.MIME_TYPE.key()));
+        }
+        return attributes;
+    }
+
     private String createFilename(final List<FlowFileSessionWrapper> wrappers) {
-        if (wrappers.size() == 1) {
-            return wrappers.get(0).getFlowFile().getAttribute(CoreAttributes.FILENAME.key());
+        return createFilename(wrappers.get(0).getFlowFile(), wrappers.size());
+    }
+
+    private String createFilename(final FlowFile ff, final int count) {
+        if (count == 1) {
+            return ff.getAttribute(CoreAttributes.FILENAME.key());
         } else {
-            final FlowFile ff = wrappers.get(0).getFlowFile();
             final String origFilename = ff.getAttribute(SEGMENT_ORIGINAL_FILENAME);
             if (origFilename != null) {
                 return origFilename;
@@ -719,23 +840,7 @@ public class MergeContent extends BinFiles {
                         out.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
                         for (final FlowFileSessionWrapper wrapper : wrappers) {
                             final FlowFile flowFile = wrapper.getFlowFile();
-
-                            final String path = keepPath ? getPath(flowFile) : "";
-                            final String entryName = path + flowFile.getAttribute(CoreAttributes.FILENAME.key());
-
-                            final TarArchiveEntry tarEntry = new TarArchiveEntry(entryName);
-                            tarEntry.setSize(flowFile.getSize());
-                            final String permissionsVal = flowFile.getAttribute(TAR_PERMISSIONS_ATTRIBUTE);
-                            if (permissionsVal != null) {
-                                try {
-                                    tarEntry.setMode(Integer.parseInt(permissionsVal));
-                                } catch (final Exception e) {
-                                    getLogger().debug("Attribute {} of {} is set to {}; expected 3 digits between 0-7, so ignoring",
-                                            new Object[]{TAR_PERMISSIONS_ATTRIBUTE, flowFile, permissionsVal});
-                                }
-                            }
-
-                            out.putArchiveEntry(tarEntry);
+                            out.putArchiveEntry(createTarEntry(flowFile, keepPath));
 
                             wrapper.getSession().exportTo(flowFile, out);
                             out.closeArchiveEntry();
@@ -787,16 +892,7 @@ public class MergeContent extends BinFiles {
                                 @Override
                                 public void process(final InputStream rawIn) throws IOException {
                                     try (final InputStream in = new BufferedInputStream(rawIn)) {
-                                        final Map<String, String> attributes = new HashMap<>(flowFile.getAttributes());
-
-                                        // for backward compatibility purposes, we add the "legacy" NiFi attributes
-                                        attributes.put("nf.file.name", attributes.get(CoreAttributes.FILENAME.key()));
-                                        attributes.put("nf.file.path", attributes.get(CoreAttributes.PATH.key()));
-                                        if (attributes.containsKey(CoreAttributes.MIME_TYPE.key())) {
-                                            attributes.put("content-type", attributes.get(CoreAttributes.MIME_TYPE.key()));
-                                        }
-
-                                        packager.packageFlowFile(in, out, attributes, flowFile.getSize());
+                                        packager.packageFlowFile(in, out, getPackagedAttributes(flowFile), flowFile.getSize());
                                     }
                                 }
                             });
@@ -844,10 +940,7 @@ public class MergeContent extends BinFiles {
                         out.setLevel(compressionLevel);
                         for (final FlowFileSessionWrapper wrapper : wrappers) {
                             final FlowFile flowFile = wrapper.getFlowFile();
-
-                            final String path = keepPath ? getPath(flowFile) : "";
-                            final String entryName = path + flowFile.getAttribute(CoreAttributes.FILENAME.key());
-                            final ZipEntry zipEntry = new ZipEntry(entryName);
+                            final ZipEntry zipEntry = new ZipEntry(getEntryName(flowFile, keepPath));
                             zipEntry.setSize(flowFile.getSize());
                             out.putNextEntry(zipEntry);
 
@@ -985,16 +1078,351 @@ public class MergeContent extends BinFiles {
         }
     }
 
+    private StreamingMerge createStreamingMerge(final ProcessContext context) {
+        final boolean keepPath = context.getProperty(KEEP_PATH).asBoolean();
+        switch (context.getProperty(MERGE_FORMAT).getValue()) {
+            case MERGE_FORMAT_TAR_VALUE:
+                return new StreamingTarMerge(keepPath);
+            case MERGE_FORMAT_ZIP_VALUE:
+                return new StreamingZipMerge(context.getProperty(COMPRESSION_LEVEL).asInteger(), keepPath);
+            case MERGE_FORMAT_FLOWFILE_STREAM_V3_VALUE:
+                return new StreamingFlowFileStreamMerge(new FlowFilePackagerV3(), "application/flowfile-v3");
+            case MERGE_FORMAT_FLOWFILE_STREAM_V2_VALUE:
+                return new StreamingFlowFileStreamMerge(new FlowFilePackagerV2(), "application/flowfile-v2");
+            case MERGE_FORMAT_FLOWFILE_TAR_V1_VALUE:
+                return new StreamingFlowFileStreamMerge(new FlowFilePackagerV1(), "application/flowfile-v1");
+            case MERGE_FORMAT_CONCAT_VALUE:
+                return new StreamingBinaryConcatenationMerge(context);
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    /**
+     * The bundle of a single bin in Streaming mode. The bundle belongs to a session of its own, which is committed only once the bundle is
+     * complete, whereas the FlowFiles that are appended to it are transferred and committed as soon as their content has been appended.
+     */
+    private class StreamingBundle {
+
+        private final Bin bin;
+        private final ProcessSession session;
+        private final StreamingMerge merger;
+        private final AttributeStrategy attributeStrategy;
+
+        // the FlowFiles themselves are retained, without their sessions, so that the bundle's attributes and lineage can be determined
+        private final List<FlowFile> parents = new ArrayList<>();
+        private FlowFile bundle;
+
+        public StreamingBundle(final ProcessContext context, final Bin bin, final ProcessSession session) {
+            this.bin = bin;
+            this.session = session;
+            this.merger = createStreamingMerge(context);
+            this.attributeStrategy = getAttributeStrategy(context);
+        }
+
+        public int getCount() {
+            return parents.size();
+        }
+
+        public void append(final FlowFile flowFile, final ProcessSession flowFileSession) {
+            if (bundle == null) {
+                bundle = session.create(); // we don't pass the parents to the #create method because the parents belong to different sessions
+            }
+
+            bundle = session.append(bundle, new OutputStreamCallback() {
+                @Override
+                public void process(final OutputStream out) throws IOException {
+                    merger.append(flowFile, flowFileSession, out);
+                }
+            });
+            parents.add(flowFile);
+        }
+
+        public void complete() {
+            if (parents.isEmpty()) {
+                session.rollback();
+                return;
+            }
+
+            try {
+                bundle = session.append(bundle, new OutputStreamCallback() {
+                    @Override
+                    public void process(final OutputStream out) throws IOException {
+                        merger.finish(out);
+                    }
+                });
+            } catch (final Exception e) {
+                getLogger().error("Failed to complete bundle of {} FlowFiles due to {}; routing it to failure", new Object[]{parents.size(), e});
+                fail();
+                return;
+            }
+
+            bundle = session.putAllAttributes(bundle, getBundleAttributes());
+            session.getProvenanceReporter().join(parents, bundle);
+
+            final String inputDescription = parents.size() < 10 ? parents.toString() : parents.size() + " FlowFiles";
+            getLogger().info("Merged {} into {}", new Object[]{inputDescription, bundle});
+            session.transfer(bundle, REL_MERGED);
+            session.commit();
+        }
+
+        public void fail() {
+            if (parents.isEmpty()) {
+                session.rollback();
+                return;
+            }
+
+            // the bundle holds the content of every FlowFile that was appended successfully, which has already been transferred to 'original'
+            bundle = session.putAllAttributes(bundle, getBundleAttributes());
+            session.getProvenanceReporter().join(parents, bundle);
+            session.transfer(bundle, REL_FAILURE);
+            session.commit();
+        }
+
+        private Map<String, String> getBundleAttributes() {
+            final Map<String, String> bundleAttributes = attributeStrategy.getMergedAttributes(parents);
+            bundleAttributes.put(CoreAttributes.MIME_TYPE.key(), merger.getMergedContentType());
+            bundleAttributes.put(CoreAttributes.FILENAME.key(), createFilename(parents.get(0), parents.size()) + merger.getFilenameExtension());
+            bundleAttributes.put(MERGE_COUNT_ATTRIBUTE, Integer.toString(parents.size()));
+            bundleAttributes.put(MERGE_BIN_AGE_ATTRIBUTE, Long.toString(bin.getBinAge()));
+            return bundleAttributes;
+        }
+    }
+
+    private class StreamingBinaryConcatenationMerge implements StreamingMerge {
+
+        private final ProcessContext context;
+        private boolean isFirst = true;
+        private String mimeType;
+        private byte[] demarcator;
+        private byte[] footer;
+
+        public StreamingBinaryConcatenationMerge(final ProcessContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void append(final FlowFile flowFile, final ProcessSession flowFileSession, final OutputStream out) throws IOException {
+            final String flowFileMimeType = flowFile.getAttribute(CoreAttributes.MIME_TYPE.key());
+            if (isFirst) {
+                // as when a whole bin is merged at once, the header, demarcator and footer are evaluated against the first FlowFile
+                final byte[] header = getDelimiterContent(context, flowFile, HEADER);
+                if (header != null) {
+                    out.write(header);
+                }
+                demarcator = getDelimiterContent(context, flowFile, DEMARCATOR);
+                footer = getDelimiterContent(context, flowFile, FOOTER);
+                mimeType = flowFileMimeType;
+                isFirst = false;
+            } else {
+                if (demarcator != null) {
+                    out.write(demarcator);
+                }
+                if (mimeType != null && !mimeType.equals(flowFileMimeType)) {
+                    mimeType = null;
+                }
+            }
+
+            flowFileSession.exportTo(flowFile, out);
+        }
+
+        @Override
+        public void finish(final OutputStream out) throws IOException {
+            if (footer != null) {
+                out.write(footer);
+            }
+        }
+
+        @Override
+        public String getMergedContentType() {
+            return mimeType == null ? "application/octet-stream" : mimeType;
+        }
+
+        @Override
+        public String getFilenameExtension() {
+            return "";
+        }
+    }
+
+    private class StreamingTarMerge implements StreamingMerge {
+
+        private final boolean keepPath;
+        private final RedirectableOutputStream redirectableOut = new RedirectableOutputStream();
+        private final TarArchiveOutputStream tarOut = new TarArchiveOutputStream(redirectableOut);
+
+        public StreamingTarMerge(final boolean keepPath) {
+            this.keepPath = keepPath;
+            tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
+        }
+
+        @Override
+        public void append(final FlowFile flowFile, final ProcessSession flowFileSession, final OutputStream out) throws IOException {
+            redirectableOut.setTarget(out);
+            try {
+                tarOut.putArchiveEntry(createTarEntry(flowFile, keepPath));
+                flowFileSession.exportTo(flowFile, tarOut);
+                tarOut.closeArchiveEntry();
+                tarOut.flush();
+            } finally {
+                redirectableOut.setTarget(null);
+            }
+        }
+
+        @Override
+        public void finish(final OutputStream out) throws IOException {
+            redirectableOut.setTarget(out);
+            try {
+                tarOut.finish();
+                tarOut.flush();
+            } finally {
+                redirectableOut.setTarget(null);
+            }
+        }
+
+        @Override
+        public String getMergedContentType() {
+            return "application/tar";
+        }
+
+        @Override
+        public String getFilenameExtension() {
+            return ".tar";
+        }
+    }
+
+    private class StreamingZipMerge implements StreamingMerge {
+
+        private final boolean keepPath;
+        private final RedirectableOutputStream redirectableOut = new RedirectableOutputStream();
+        private final ZipOutputStream zipOut = new ZipOutputStream(redirectableOut);
+
+        public StreamingZipMerge(final int compressionLevel, final boolean keepPath) {
+            this.keepPath = keepPath;
+            zipOut.setLevel(compressionLevel);
+        }
+
+        @Override
+        public void append(final FlowFile flowFile, final ProcessSession flowFileSession, final OutputStream out) throws IOException {
+            redirectableOut.setTarget(out);
+            try {
+                final ZipEntry zipEntry = new ZipEntry(getEntryName(flowFile, keepPath));
+                zipEntry.setSize(flowFile.getSize());
+                zipOut.putNextEntry(zipEntry);
+                flowFileSession.exportTo(flowFile, zipOut);
+                zipOut.closeEntry();
+                zipOut.flush();
+            } finally {
+                redirectableOut.setTarget(null);
+            }
+        }
+
+        @Override
+        public void finish(final OutputStream out) throws IOException {
+            redirectableOut.setTarget(out);
+            try {
+                // writes the central directory, from the entries that the ZipOutputStream has kept track of
+                zipOut.finish();
+                zipOut.flush();
+            } finally {
+                redirectableOut.setTarget(null);
+            }
+        }
+
+        @Override
+        public String getMergedContentType() {
+            return "application/zip";
+        }
+
+        @Override
+        public String getFilenameExtension() {
+            return ".zip";
+        }
+    }
+
+    private class StreamingFlowFileStreamMerge implements StreamingMerge {
+
+        private final FlowFilePackager packager;
+        private final String mimeType;
+
+        public StreamingFlowFileStreamMerge(final FlowFilePackager packager, final String mimeType) {
+            this.packager = packager;
+            this.mimeType = mimeType;
+        }
+
+        @Override
+        public void append(final FlowFile flowFile, final ProcessSession flowFileSession, final OutputStream rawOut) throws IOException {
+            // we don't want the packager closing the stream, as V1 closes the TAR Output Stream that it creates
+            final OutputStream out = new NonCloseableOutputStream(rawOut);
+            flowFileSession.read(flowFile, false, new InputStreamCallback() {
+                @Override
+                public void process(final InputStream rawIn) throws IOException {
+                    try (final InputStream in = new BufferedInputStream(rawIn)) {
+                        packager.packageFlowFile(in, out, getPackagedAttributes(flowFile), flowFile.getSize());
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void finish(final OutputStream out) {
+        }
+
+        @Override
+        public String getMergedContentType() {
+            return mimeType;
+        }
+
+        @Override
+        public String getFilenameExtension() {
+            return ".pkg";
+        }
+    }
+
+    /**
+     * Passes everything that is written to it on to the stream of the append that is in progress, so that an archive stream can carry its
+     * state from one append of a bundle to the next.
+     */
+    private static class RedirectableOutputStream extends OutputStream {
+
+        private OutputStream target;
+
+        public void setTarget(final OutputStream target) {
+            this.target = target;
+        }
+
+        private OutputStream getTarget() throws IOException {
+            if (target == null) {
+                throw new IOException("Cannot write to bundle because no append is in progress");
+            }
+            return target;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            getTarget().write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            getTarget().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+    }
+
     private static class KeepUniqueAttributeStrategy implements AttributeStrategy {
 
         @Override
-        public Map<String, String> getMergedAttributes(final List<FlowFileSessionWrapper> flowFiles) {
+        public Map<String, String> getMergedAttributes(final List<FlowFile> flowFiles) {
             final Map<String, String> newAttributes = new HashMap<>();
             final Set<String> conflicting = new HashSet<>();
 
-            for (final FlowFileSessionWrapper wrapper : flowFiles) {
-                final FlowFile flowFile = wrapper.getFlowFile();
-
+            for (final FlowFile flowFile : flowFiles) {
                 for (final Map.Entry<String, String> attributeEntry : flowFile.getAttributes().entrySet()) {
                     final String name = attributeEntry.getKey();
                     final String value = attributeEntry.getValue();
@@ -1021,29 +1449,29 @@ public class MergeContent extends BinFiles {
     private static class KeepCommonAttributeStrategy implements AttributeStrategy {
 
         @Override
-        public Map<String, String> getMergedAttributes(final List<FlowFileSessionWrapper> flowFiles) {
+        public Map<String, String> getMergedAttributes(final List<FlowFile> flowFiles) {
             final Map<String, String> result = new HashMap<>();
 
             //trivial cases
             if (flowFiles == null || flowFiles.isEmpty()) {
                 return result;
             } else if (flowFiles.size() == 1) {
-                result.putAll(flowFiles.iterator().next().getFlowFile().getAttributes());
+                result.putAll(flowFiles.iterator().next().getAttributes());
             }
 
             /*
              * Start with the first attribute map and only put an entry to the
              * resultant map if it is common to every map.
              */
-            final Map<String, String> firstMap = flowFiles.iterator().next().getFlowFile().getAttributes();
+            final Map<String, String> firstMap = flowFiles.iterator().next().getAttributes();
 
             outer:
             for (final Map.Entry<String, String> mapEntry : firstMap.entrySet()) {
                 final String key = mapEntry.getKey();
                 final String value = mapEntry.getValue();
 
-                for (final FlowFileSessionWrapper flowFileWrapper : flowFiles) {
-                    final Map<String, String> currMap = flowFileWrapper.getFlowFile().getAttributes();
+                for (final FlowFile flowFile : flowFiles) {
+                    final Map<String, String> currMap = flowFile.getAttributes();
                     final String curVal = currMap.get(key);
                     if (curVal == null || !curVal.equals(value)) {
                         continue outer;
@@ -1077,8 +1505,19 @@ public class MergeContent extends BinFiles {
         List<FlowFileSessionWrapper> getUnmergedFlowFiles();
     }
 
+    private interface StreamingMerge {
+
+        void append(FlowFile flowFile, ProcessSession flowFileSession, OutputStream out) throws IOException;
+
+        void finish(OutputStream out) throws IOException;
+
+        String getMergedContentType();
+
+        String getFilenameExtension();
+    }
+
     private interface AttributeStrategy {
 
-        Map<String, String> getMergedAttributes(List<FlowFileSessionWrapper> flowFiles);
+        Map<String, String> getMergedAttributes(List<FlowFile> flowFiles);
     }
 }
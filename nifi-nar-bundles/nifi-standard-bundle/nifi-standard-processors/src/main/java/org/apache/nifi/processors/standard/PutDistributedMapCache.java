@@ -22,8 +22,11 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -51,6 +54,7 @@ import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.util.FlowFileFilters;
 import org.apache.nifi.processor.util.StandardValidators;
 
 @EventDriven
@@ -68,6 +72,10 @@ public class PutDistributedMapCache extends AbstractProcessor {
 
     public static final String CACHED_ATTRIBUTE_NAME = "cached";
 
+    // the number of FlowFiles, and the total size of their content, that are put to the cache with a single request
+    static final int BATCH_SIZE = 100;
+    static final long BATCH_MAX_BYTES = 10L * 1024L * 1024L;
+
     // Identifies the distributed map cache client
     public static final PropertyDescriptor DISTRIBUTED_CACHE_SERVICE = new PropertyDescriptor.Builder()
         .name("Distributed Cache Service")
@@ -150,62 +158,90 @@ public class PutDistributedMapCache extends AbstractProcessor {
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
 
-        FlowFile flowFile = session.get();
-        if (flowFile == null) {
+        // the content of every FlowFile in the batch is held in memory until the batch has been sent, so limit its size
+        final List<FlowFile> flowFiles = session.get(FlowFileFilters.newSizeBasedFilter(BATCH_MAX_BYTES, DataUnit.B, BATCH_SIZE));
+        if (flowFiles.isEmpty()) {
             return;
         }
 
         final ComponentLog logger = getLogger();
+        final long maxCacheEntrySize = context.getProperty(CACHE_ENTRY_MAX_BYTES).asDataSize(DataUnit.B).longValue();
+        final String updateStrategy = context.getProperty(CACHE_UPDATE_STRATEGY).getValue();
+        final boolean replace = updateStrategy.equals(CACHE_UPDATE_REPLACE.getValue());
+
+        final Map<FlowFile, String> cacheKeys = new LinkedHashMap<>();
+        final Map<String, byte[]> cacheEntries = new HashMap<>();
+        for (FlowFile flowFile : flowFiles) {
+            // cache key is computed from attribute 'CACHE_ENTRY_IDENTIFIER' with expression language support
+            final String cacheKey = context.getProperty(CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
+
+            // if the computed value is null, or empty, we transfer the flow file to failure relationship
+            if (StringUtils.isBlank(cacheKey)) {
+                logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[] {flowFile});
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                continue;
+            }
 
-        // cache key is computed from attribute 'CACHE_ENTRY_IDENTIFIER' with expression language support
-        final String cacheKey = context.getProperty(CACHE_ENTRY_IDENTIFIER).evaluateAttributeExpressions(flowFile).getValue();
-
-        // if the computed value is null, or empty, we transfer the flow file to failure relationship
-        if (StringUtils.isBlank(cacheKey)) {
-            logger.error("FlowFile {} has no attribute for given Cache Entry Identifier", new Object[] {flowFile});
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
-            return;
-        }
-
-        // the cache client used to interact with the distributed cache
-        final DistributedMapCacheClient cache = context.getProperty(DISTRIBUTED_CACHE_SERVICE).asControllerService(DistributedMapCacheClient.class);
-
-        try {
-
-            final long maxCacheEntrySize = context.getProperty(CACHE_ENTRY_MAX_BYTES).asDataSize(DataUnit.B).longValue();
             long flowFileSize = flowFile.getSize();
 
             // too big flow file
             if (flowFileSize > maxCacheEntrySize) {
                 logger.warn("Flow file {} size {} exceeds the max cache entry size ({} B).", new Object[] {flowFile, flowFileSize, maxCacheEntrySize});
                 session.transfer(flowFile, REL_FAILURE);
-                return;
+                continue;
             }
 
             if (flowFileSize == 0) {
                 logger.warn("Flow file {} is empty, there is nothing to cache.", new Object[] {flowFile});
                 session.transfer(flowFile, REL_FAILURE);
-                return;
-
+                continue;
             }
 
             // get flow file content
             final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
             session.exportTo(flowFile, byteStream);
             byte[] cacheValue = byteStream.toByteArray();
-            final String updateStrategy = context.getProperty(CACHE_UPDATE_STRATEGY).getValue();
-            boolean cached = false;
-
-            if (updateStrategy.equals(CACHE_UPDATE_REPLACE.getValue())) {
-                cache.put(cacheKey, cacheValue, keySerializer, valueSerializer);
-                cached = true;
-            } else if (updateStrategy.equals(CACHE_UPDATE_KEEP_ORIGINAL.getValue())) {
-                final byte[] oldValue = cache.getAndPutIfAbsent(cacheKey, cacheValue, keySerializer, valueSerializer, valueDeserializer);
-                if (oldValue == null) {
-                    cached = true;
-                }
+
+            // as if the FlowFiles were put one at a time, the last value for a key replaces the others, or the first one is kept
+            if (replace) {
+                cacheEntries.put(cacheKey, cacheValue);
+            } else {
+                cacheEntries.putIfAbsent(cacheKey, cacheValue);
+            }
+            cacheKeys.put(flowFile, cacheKey);
+        }
+        if (cacheKeys.isEmpty()) {
+            return;
+        }
+
+        // the cache client used to interact with the distributed cache
+        final DistributedMapCacheClient cache = context.getProperty(DISTRIBUTED_CACHE_SERVICE).asControllerService(DistributedMapCacheClient.class);
+
+        final Map<String, byte[]> oldValues;
+        try {
+            if (replace) {
+                cache.putAll(cacheEntries, keySerializer, valueSerializer);
+                oldValues = Collections.emptyMap();
+            } else {
+                oldValues = cache.getAndPutIfAbsentAll(cacheEntries, keySerializer, valueSerializer, valueDeserializer);
             }
+        } catch (final IOException e) {
+            for (FlowFile flowFile : cacheKeys.keySet()) {
+                flowFile = session.penalize(flowFile);
+                session.transfer(flowFile, REL_FAILURE);
+                logger.error("Unable to communicate with cache when processing {} due to {}", new Object[] {flowFile, e});
+            }
+            return;
+        }
+
+        final Set<String> keptKeys = new HashSet<>();
+        for (final Map.Entry<FlowFile, String> entry : cacheKeys.entrySet()) {
+            FlowFile flowFile = entry.getKey();
+            final String cacheKey = entry.getValue();
+
+            // when keeping the original, only the first FlowFile with a given key can have been cached
+            final boolean cached = replace || (oldValues.get(cacheKey) == null && keptKeys.add(cacheKey));
 
             // set 'cached' attribute
             flowFile = session.putAttribute(flowFile, CACHED_ATTRIBUTE_NAME, String.valueOf(cached));
@@ -215,11 +251,6 @@ public class PutDistributedMapCache extends AbstractProcessor {
             } else {
                 session.transfer(flowFile, REL_FAILURE);
             }
-
-        } catch (final IOException e) {
-            flowFile = session.penalize(flowFile);
-            session.transfer(flowFile, REL_FAILURE);
-            logger.error("Unable to communicate with cache when processing {} due to {}", new Object[] {flowFile, e});
         }
     }
 
@@ -72,6 +72,32 @@ public class TestDetectDuplicate {
         runner.assertTransferCount(DetectDuplicate.REL_FAILURE, 0);
     }
 
+    @Test
+    public void testDuplicatesWithinBatch() throws InitializationException {
+        final TestRunner runner = TestRunners.newTestRunner(DetectDuplicate.class);
+        final DistributedMapCacheClientImpl client = createClient();
+        final Map<String, String> clientProperties = new HashMap<>();
+        clientProperties.put(DistributedMapCacheClientService.HOSTNAME.getName(), "localhost");
+        runner.addControllerService("client", client, clientProperties);
+        runner.setProperty(DetectDuplicate.DISTRIBUTED_CACHE_SERVICE, "client");
+        runner.setProperty(DetectDuplicate.FLOWFILE_DESCRIPTION, "${description}");
+        runner.enableControllerService(client);
+
+        final Map<String, String> props = new HashMap<>();
+        props.put("hash.value", "1000");
+        props.put("description", "first");
+        runner.enqueue(new byte[]{}, props);
+        props.put("description", "second");
+        runner.enqueue(new byte[]{}, props);
+
+        // both FlowFiles are checked with a single request, but the second is still a duplicate of the first
+        runner.run();
+        runner.assertTransferCount(DetectDuplicate.REL_NON_DUPLICATE, 1);
+        runner.assertTransferCount(DetectDuplicate.REL_DUPLICATE, 1);
+        runner.assertTransferCount(DetectDuplicate.REL_FAILURE, 0);
+        runner.getFlowFilesForRelationship(DetectDuplicate.REL_DUPLICATE).get(0).assertAttributeEquals(DetectDuplicate.ORIGINAL_DESCRIPTION_ATTRIBUTE_NAME, "first");
+    }
+
     @Test
     public void testDuplicateWithAgeOff() throws InitializationException, InterruptedException {
 
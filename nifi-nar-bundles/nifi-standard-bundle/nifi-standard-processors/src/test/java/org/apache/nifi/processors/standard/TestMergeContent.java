@@ -50,6 +50,7 @@ import org.apache.nifi.flowfile.attributes.CoreAttributes;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.stream.io.ByteArrayInputStream;
 import org.apache.nifi.stream.io.ByteArrayOutputStream;
+import org.apache.nifi.util.FlowFileUnpackagerV3;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.MockProcessContext;
 import org.apache.nifi.util.TestRunner;
@@ -855,6 +856,213 @@ public class TestMergeContent {
         bundle.assertAttributeExists(MergeContent.MERGE_BIN_AGE_ATTRIBUTE);
     }
 
+    @Test
+    public void testStreamingBinaryConcatWithTextDelimiters() throws IOException, InterruptedException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_MODE, MergeContent.MERGE_MODE_STREAMING);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "3");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+        runner.setProperty(MergeContent.DELIMITER_STRATEGY, MergeContent.DELIMITER_STRATEGY_TEXT);
+        runner.setProperty(MergeContent.HEADER, "@");
+        runner.setProperty(MergeContent.DEMARCATOR, "#");
+        runner.setProperty(MergeContent.FOOTER, "$");
+
+        createFlowFiles(runner);
+        runner.run();
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        bundle.assertContentEquals("@Hello#, #World!$".getBytes("UTF-8"));
+        bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/plain-text");
+        bundle.assertAttributeEquals(MergeContent.MERGE_COUNT_ATTRIBUTE, "3");
+        bundle.assertAttributeExists(MergeContent.MERGE_BIN_AGE_ATTRIBUTE);
+    }
+
+    @Test
+    public void testStreamingTransfersOriginalsBeforeBinIsComplete() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_MODE, MergeContent.MERGE_MODE_STREAMING);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "5");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_CONCAT);
+
+        createFlowFiles(runner);
+        runner.run(1, false);
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        // stopping the processor completes the bundle that is in progress, as its FlowFiles can no longer be rolled back
+        runner.run(1, true, false);
+
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        bundle.assertContentEquals("Hello, World!".getBytes("UTF-8"));
+        bundle.assertAttributeEquals(MergeContent.MERGE_COUNT_ATTRIBUTE, "3");
+    }
+
+    @Test
+    public void testStreamingZip() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_MODE, MergeContent.MERGE_MODE_STREAMING);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "3");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_ZIP);
+
+        createFlowFiles(runner);
+        runner.run();
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        try (final InputStream rawIn = new ByteArrayInputStream(runner.getContentAsByteArray(bundle)); final ZipInputStream in = new ZipInputStream(rawIn)) {
+            Assert.assertNotNull(in.getNextEntry());
+            final byte[] part1 = IOUtils.toByteArray(in);
+            Assert.assertTrue(Arrays.equals("Hello".getBytes("UTF-8"), part1));
+
+            in.getNextEntry();
+            final byte[] part2 = IOUtils.toByteArray(in);
+            Assert.assertTrue(Arrays.equals(", ".getBytes("UTF-8"), part2));
+
+            in.getNextEntry();
+            final byte[] part3 = IOUtils.toByteArray(in);
+            Assert.assertTrue(Arrays.equals("World!".getBytes("UTF-8"), part3));
+
+            Assert.assertNull(in.getNextEntry());
+        }
+        bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/zip");
+    }
+
+    @Test
+    public void testStreamingTar() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_MODE, MergeContent.MERGE_MODE_STREAMING);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "2");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_TAR);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(CoreAttributes.FILENAME.key(), "AShortFileName");
+        runner.enqueue("Hello".getBytes("UTF-8"), attributes);
+        attributes.put(CoreAttributes.FILENAME.key(), "AReallyLongggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggFileName");
+        runner.enqueue("World!".getBytes("UTF-8"), attributes);
+        runner.run();
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 2);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        try (final InputStream rawIn = new ByteArrayInputStream(runner.getContentAsByteArray(bundle)); final TarArchiveInputStream in = new TarArchiveInputStream(rawIn)) {
+            ArchiveEntry entry = in.getNextEntry();
+            assertEquals("AShortFileName", entry.getName());
+            Assert.assertTrue(Arrays.equals("Hello".getBytes("UTF-8"), IOUtils.toByteArray(in)));
+
+            entry = in.getNextEntry();
+            assertEquals("AReallyLongggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggggFileName", entry.getName());
+            Assert.assertTrue(Arrays.equals("World!".getBytes("UTF-8"), IOUtils.toByteArray(in)));
+
+            Assert.assertNull(in.getNextEntry());
+        }
+        bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/tar");
+    }
+
+    @Test
+    public void testStreamingFlowFileStream() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_MODE, MergeContent.MERGE_MODE_STREAMING);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "3");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_FLOWFILE_STREAM_V3);
+
+        createFlowFiles(runner);
+        runner.run();
+
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 0);
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 3);
+
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        bundle.assertAttributeEquals(CoreAttributes.MIME_TYPE.key(), "application/flowfile-v3");
+
+        final FlowFileUnpackagerV3 unpackager = new FlowFileUnpackagerV3();
+        final StringBuilder unpacked = new StringBuilder();
+        try (final InputStream in = new ByteArrayInputStream(runner.getContentAsByteArray(bundle))) {
+            while (unpackager.hasMoreData()) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final Map<String, String> attributes = unpackager.unpackageFlowFile(in, out);
+                assertEquals("application/plain-text", attributes.get(CoreAttributes.MIME_TYPE.key()));
+                unpacked.append(new String(out.toByteArray(), "UTF-8"));
+            }
+        }
+        assertEquals("Hello, World!", unpacked.toString());
+    }
+
+    @Test
+    public void testStreamingAppendFailureRoutesBundleAndFlowFileToFailure() throws IOException {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_MODE, MergeContent.MERGE_MODE_STREAMING);
+        runner.setProperty(MergeContent.MIN_ENTRIES, "3");
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_ZIP);
+
+        // a Zip file cannot contain two entries with the same name, so appending the second FlowFile fails
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put(CoreAttributes.FILENAME.key(), "duplicate.txt");
+        runner.enqueue("Hello".getBytes("UTF-8"), attributes);
+        runner.enqueue(", ".getBytes("UTF-8"), attributes);
+        attributes.put(CoreAttributes.FILENAME.key(), "unique.txt");
+        runner.enqueue("World!".getBytes("UTF-8"), attributes);
+        runner.run();
+
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(MergeContent.REL_ORIGINAL, 2);
+        runner.assertTransferCount(MergeContent.REL_FAILURE, 2);
+        runner.assertTransferCount(MergeContent.REL_MERGED, 1);
+
+        // the bundle of the FlowFiles merged so far goes to failure along with the FlowFile that could not be appended
+        final List<MockFlowFile> failed = runner.getFlowFilesForRelationship(MergeContent.REL_FAILURE);
+        final boolean bundleFirst = failed.get(0).getAttribute(MergeContent.MERGE_COUNT_ATTRIBUTE) != null;
+        final MockFlowFile partialBundle = failed.get(bundleFirst ? 0 : 1);
+        final MockFlowFile failedFlowFile = failed.get(bundleFirst ? 1 : 0);
+        partialBundle.assertAttributeEquals(MergeContent.MERGE_COUNT_ATTRIBUTE, "1");
+        try (final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(runner.getContentAsByteArray(partialBundle)))) {
+            assertEquals("duplicate.txt", in.getNextEntry().getName());
+            Assert.assertTrue(Arrays.equals("Hello".getBytes("UTF-8"), IOUtils.toByteArray(in)));
+        }
+        failedFlowFile.assertContentEquals(", ".getBytes("UTF-8"));
+
+        // the FlowFiles that follow the failure start a new bundle
+        final MockFlowFile bundle = runner.getFlowFilesForRelationship(MergeContent.REL_MERGED).get(0);
+        bundle.assertAttributeEquals(MergeContent.MERGE_COUNT_ATTRIBUTE, "1");
+        try (final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(runner.getContentAsByteArray(bundle)))) {
+            assertEquals("unique.txt", in.getNextEntry().getName());
+            Assert.assertTrue(Arrays.equals("World!".getBytes("UTF-8"), IOUtils.toByteArray(in)));
+            Assert.assertNull(in.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testStreamingValidation() {
+        final TestRunner runner = TestRunners.newTestRunner(new MergeContent());
+        runner.setProperty(MergeContent.MERGE_MODE, MergeContent.MERGE_MODE_STREAMING);
+        runner.assertValid();
+
+        runner.setProperty(MergeContent.MERGE_STRATEGY, MergeContent.MERGE_STRATEGY_DEFRAGMENT);
+        runner.assertNotValid();
+
+        runner.setProperty(MergeContent.MERGE_STRATEGY, MergeContent.MERGE_STRATEGY_BIN_PACK);
+        runner.setProperty(MergeContent.MERGE_FORMAT, MergeContent.MERGE_FORMAT_AVRO);
+        runner.assertNotValid();
+    }
+
     private void createFlowFiles(final TestRunner testRunner) throws UnsupportedEncodingException {
         final Map<String, String> attributes = new HashMap<>();
         attributes.put(CoreAttributes.MIME_TYPE.key(), "application/plain-text");
@@ -17,6 +17,9 @@
 package org.apache.nifi.distributed.cache.client;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
@@ -137,4 +140,102 @@ public interface DistributedMapCacheClient extends ControllerService {
      */
     <K> boolean remove(K key, Serializer<K> serializer) throws IOException;
 
+    /**
+     * Returns the values in the cache for the given keys. Implementations should
+     * retrieve all of the values in a single request to the remote instance if
+     * possible; the default implementation calls
+     * {@link #get(Object, Serializer, Deserializer)} for each key.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param keys the keys to lookup in the map
+     * @param keySerializer key serializer
+     * @param valueDeserializer value deserializer
+     *
+     * @return a map that contains every one of the given keys, associated with
+     * the value in the cache for that key as returned by the given
+     * valueDeserializer, as with {@link #get(Object, Serializer, Deserializer)}
+     * @throws IOException if unable to communicate with the remote instance
+     */
+    default <K, V> Map<K, V> getAll(Set<K> keys, Serializer<K> keySerializer, Deserializer<V> valueDeserializer) throws IOException {
+        final Map<K, V> values = new HashMap<>(keys.size());
+        for (final K key : keys) {
+            values.put(key, get(key, keySerializer, valueDeserializer));
+        }
+        return values;
+    }
+
+    /**
+     * Adds the specified keys and values to the cache, overwriting any values
+     * that are currently set. Implementations should add all of the entries in a
+     * single request to the remote instance if possible; the default
+     * implementation calls {@link #put(Object, Object, Serializer, Serializer)}
+     * for each entry.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param entries the keys to set and the values to associate with them
+     * @param keySerializer the Serializer that will be used to serialize the keys into bytes
+     * @param valueSerializer the Serializer that will be used to serialize the values into bytes
+     *
+     * @throws IOException if unable to communicate with the remote instance
+     */
+    default <K, V> void putAll(Map<K, V> entries, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+        for (final Map.Entry<K, V> entry : entries.entrySet()) {
+            put(entry.getKey(), entry.getValue(), keySerializer, valueSerializer);
+        }
+    }
+
+    /**
+     * Adds each of the specified keys and values to the cache, if the key is not
+     * already present. Implementations should process all of the entries in a
+     * single request to the remote instance if possible; the default
+     * implementation calls
+     * {@link #getAndPutIfAbsent(Object, Object, Serializer, Serializer, Deserializer)}
+     * for each entry.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param entries the keys and the values to add to the map if and only if the key is absent
+     * @param keySerializer key serializer
+     * @param valueSerializer value serializer
+     * @param valueDeserializer value deserializer
+     *
+     * @return a map that contains every one of the given keys, associated with
+     * the value that already existed in the cache for that key as returned by
+     * the given valueDeserializer, as with
+     * {@link #getAndPutIfAbsent(Object, Object, Serializer, Serializer, Deserializer)}
+     * @throws IOException if unable to communicate with the remote instance
+     */
+    default <K, V> Map<K, V> getAndPutIfAbsentAll(Map<K, V> entries, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+            Deserializer<V> valueDeserializer) throws IOException {
+        final Map<K, V> existingValues = new HashMap<>(entries.size());
+        for (final Map.Entry<K, V> entry : entries.entrySet()) {
+            existingValues.put(entry.getKey(), getAndPutIfAbsent(entry.getKey(), entry.getValue(), keySerializer, valueSerializer, valueDeserializer));
+        }
+        return existingValues;
+    }
+
+    /**
+     * Removes the entries with the given keys from the cache, if they are
+     * present. Implementations should remove all of the entries in a single
+     * request to the remote instance if possible; the default implementation
+     * calls {@link #remove(Object, Serializer)} for each key.
+     *
+     * @param <K> type of key
+     * @param keys the keys to remove
+     * @param serializer serializer
+     * @return the number of entries that were removed
+     * @throws IOException if unable to communicate with the remote instance
+     */
+    default <K> long removeAll(Set<K> keys, Serializer<K> serializer) throws IOException {
+        long removed = 0L;
+        for (final K key : keys) {
+            if (remove(key, serializer)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
 }
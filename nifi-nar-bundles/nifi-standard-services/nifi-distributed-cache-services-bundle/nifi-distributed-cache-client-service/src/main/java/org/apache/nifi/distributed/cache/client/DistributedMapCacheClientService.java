@@ -19,7 +19,10 @@ package org.apache.nifi.distributed.cache.client;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +55,9 @@ public class DistributedMapCacheClientService extends AbstractControllerService
 
     private static final Logger logger = LoggerFactory.getLogger(DistributedMapCacheClientService.class);
 
+    // the first version of the protocol that supports the getAll, putAll, getAndPutIfAbsentAll and removeAll actions
+    private static final int BATCH_PROTOCOL_VERSION = 2;
+
     public static final PropertyDescriptor HOSTNAME = new PropertyDescriptor.Builder()
         .name("Server Hostname")
         .description("The name of the server that is running the DistributedMapCacheServer service")
@@ -216,6 +222,171 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         });
     }
 
+    @Override
+    public <K, V> Map<K, V> getAll(final Set<K> keys, final Serializer<K> keySerializer, final Deserializer<V> valueDeserializer) throws IOException {
+        if (keys.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return withCommsSession(new CommsAction<Map<K, V>>() {
+            @Override
+            public Map<K, V> execute(final CommsSession session) throws IOException {
+                final List<K> orderedKeys = new ArrayList<>(keys);
+                final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+                final DataInputStream dis = new DataInputStream(session.getInputStream());
+                final Map<K, V> values = new HashMap<>(orderedKeys.size());
+
+                if (session.getProtocolVersion() < BATCH_PROTOCOL_VERSION) {
+                    // the server does not support batches, so send one request at a time over the same connection
+                    for (final K key : orderedKeys) {
+                        dos.writeUTF("get");
+                        serialize(key, keySerializer, dos);
+                        dos.flush();
+
+                        values.put(key, valueDeserializer.deserialize(readLengthDelimitedResponse(dis)));
+                    }
+                    return values;
+                }
+
+                dos.writeUTF("getAll");
+                dos.writeInt(orderedKeys.size());
+                for (final K key : orderedKeys) {
+                    serialize(key, keySerializer, dos);
+                }
+                dos.flush();
+
+                // the server responds with the values in the order in which the keys were sent
+                for (final K key : orderedKeys) {
+                    values.put(key, valueDeserializer.deserialize(readLengthDelimitedResponse(dis)));
+                }
+                return values;
+            }
+        });
+    }
+
+    @Override
+    public <K, V> void putAll(final Map<K, V> entries, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        withCommsSession(new CommsAction<Object>() {
+            @Override
+            public Object execute(final CommsSession session) throws IOException {
+                final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+                final DataInputStream dis = new DataInputStream(session.getInputStream());
+
+                if (session.getProtocolVersion() < BATCH_PROTOCOL_VERSION) {
+                    for (final Map.Entry<K, V> entry : entries.entrySet()) {
+                        dos.writeUTF("put");
+                        serialize(entry.getKey(), keySerializer, dos);
+                        serialize(entry.getValue(), valueSerializer, dos);
+                        dos.flush();
+
+                        if (!dis.readBoolean()) {
+                            throw new IOException("Expected to receive confirmation of 'put' request but received unexpected response");
+                        }
+                    }
+                    return null;
+                }
+
+                dos.writeUTF("putAll");
+                dos.writeInt(entries.size());
+                for (final Map.Entry<K, V> entry : entries.entrySet()) {
+                    serialize(entry.getKey(), keySerializer, dos);
+                    serialize(entry.getValue(), valueSerializer, dos);
+                }
+                dos.flush();
+
+                if (!dis.readBoolean()) {
+                    throw new IOException("Expected to receive confirmation of 'putAll' request but received unexpected response");
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public <K, V> Map<K, V> getAndPutIfAbsentAll(final Map<K, V> entries, final Serializer<K> keySerializer, final Serializer<V> valueSerializer,
+            final Deserializer<V> valueDeserializer) throws IOException {
+        if (entries.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return withCommsSession(new CommsAction<Map<K, V>>() {
+            @Override
+            public Map<K, V> execute(final CommsSession session) throws IOException {
+                final List<Map.Entry<K, V>> orderedEntries = new ArrayList<>(entries.entrySet());
+                final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+                final DataInputStream dis = new DataInputStream(session.getInputStream());
+                final Map<K, V> existingValues = new HashMap<>(orderedEntries.size());
+
+                if (session.getProtocolVersion() < BATCH_PROTOCOL_VERSION) {
+                    for (final Map.Entry<K, V> entry : orderedEntries) {
+                        dos.writeUTF("getAndPutIfAbsent");
+                        serialize(entry.getKey(), keySerializer, dos);
+                        serialize(entry.getValue(), valueSerializer, dos);
+                        dos.flush();
+
+                        existingValues.put(entry.getKey(), valueDeserializer.deserialize(readLengthDelimitedResponse(dis)));
+                    }
+                    return existingValues;
+                }
+
+                dos.writeUTF("getAndPutIfAbsentAll");
+                dos.writeInt(orderedEntries.size());
+                for (final Map.Entry<K, V> entry : orderedEntries) {
+                    serialize(entry.getKey(), keySerializer, dos);
+                    serialize(entry.getValue(), valueSerializer, dos);
+                }
+                dos.flush();
+
+                for (final Map.Entry<K, V> entry : orderedEntries) {
+                    existingValues.put(entry.getKey(), valueDeserializer.deserialize(readLengthDelimitedResponse(dis)));
+                }
+                return existingValues;
+            }
+        });
+    }
+
+    @Override
+    public <K> long removeAll(final Set<K> keys, final Serializer<K> serializer) throws IOException {
+        if (keys.isEmpty()) {
+            return 0L;
+        }
+
+        return withCommsSession(new CommsAction<Long>() {
+            @Override
+            public Long execute(final CommsSession session) throws IOException {
+                final DataOutputStream dos = new DataOutputStream(session.getOutputStream());
+                final DataInputStream dis = new DataInputStream(session.getInputStream());
+
+                if (session.getProtocolVersion() < BATCH_PROTOCOL_VERSION) {
+                    long removed = 0L;
+                    for (final K key : keys) {
+                        dos.writeUTF("remove");
+                        serialize(key, serializer, dos);
+                        dos.flush();
+
+                        if (dis.readBoolean()) {
+                            removed++;
+                        }
+                    }
+                    return removed;
+                }
+
+                dos.writeUTF("removeAll");
+                dos.writeInt(keys.size());
+                for (final K key : keys) {
+                    serialize(key, serializer, dos);
+                }
+                dos.flush();
+
+                return dis.readLong();
+            }
+        });
+    }
+
     private byte[] readLengthDelimitedResponse(final DataInputStream dis) throws IOException {
         final int responseLength = dis.readInt();
         final byte[] responseBuffer = new byte[responseLength];
@@ -247,9 +418,10 @@ public class DistributedMapCacheClientService extends AbstractControllerService
         }
 
         session = createCommsSession(configContext);
-        final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(1);
+        final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(BATCH_PROTOCOL_VERSION, 1);
         try {
             ProtocolHandshake.initiateHandshake(session.getInputStream(), session.getOutputStream(), versionNegotiator);
+            session.setProtocolVersion(versionNegotiator.getVersion());
         } catch (final HandshakeException e) {
             try {
                 session.close();
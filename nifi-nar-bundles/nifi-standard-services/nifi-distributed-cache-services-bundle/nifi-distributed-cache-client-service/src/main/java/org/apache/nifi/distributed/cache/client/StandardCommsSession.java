@@ -38,6 +38,7 @@ public class StandardCommsSession implements CommsSession {
     private final String hostname;
     private final int port;
     private volatile long timeoutMillis;
+    private volatile int protocolVersion = 1;
 
     private final SocketChannelInputStream in;
     private final InterruptableInputStream bufferedIn;
@@ -122,4 +123,14 @@ public class StandardCommsSession implements CommsSession {
     public long getTimeout(final TimeUnit timeUnit) {
         return timeUnit.convert(timeoutMillis, TimeUnit.MILLISECONDS);
     }
+
+    @Override
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    @Override
+    public void setProtocolVersion(final int protocolVersion) {
+        this.protocolVersion = protocolVersion;
+    }
 }
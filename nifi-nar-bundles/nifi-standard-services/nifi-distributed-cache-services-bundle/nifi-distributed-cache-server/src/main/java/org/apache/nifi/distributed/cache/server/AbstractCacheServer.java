@@ -123,7 +123,7 @@ public abstract class AbstractCacheServer implements CacheServer {
                             try (final InputStream in = new BufferedInputStream(rawInputStream);
                                 final OutputStream out = new BufferedOutputStream(rawOutputStream)) {
 
-                                final VersionNegotiator versionNegotiator = new StandardVersionNegotiator(1);
+                                final VersionNegotiator versionNegotiator = createVersionNegotiator();
 
                                 ProtocolHandshake.receiveHandshake(in, out, versionNegotiator);
 
@@ -201,4 +201,11 @@ public abstract class AbstractCacheServer implements CacheServer {
      * @throws IOException ex
      */
     protected abstract boolean listen(InputStream in, OutputStream out, int version) throws IOException;
+
+    /**
+     * @return a negotiator for the versions of the protocol that this server supports, most preferred first
+     */
+    protected VersionNegotiator createVersionNegotiator() {
+        return new StandardVersionNegotiator(1);
+    }
 }
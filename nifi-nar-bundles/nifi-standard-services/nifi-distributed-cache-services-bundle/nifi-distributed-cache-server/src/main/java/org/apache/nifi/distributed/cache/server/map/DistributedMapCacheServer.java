@@ -17,12 +17,15 @@
 package org.apache.nifi.distributed.cache.server.map;
 
 import java.io.File;
+import java.util.List;
 
 import javax.net.ssl.SSLContext;
 
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.SeeAlso;
 import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.components.AllowableValue;
+import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.controller.ConfigurationContext;
 import org.apache.nifi.distributed.cache.server.CacheServer;
 import org.apache.nifi.distributed.cache.server.DistributedCacheServer;
@@ -36,6 +39,28 @@ import org.apache.nifi.ssl.SSLContextService.ClientAuth;
 @SeeAlso(classNames = {"org.apache.nifi.distributed.cache.client.DistributedMapCacheClientService", "org.apache.nifi.ssl.StandardSSLContextService"})
 public class DistributedMapCacheServer extends DistributedCacheServer {
 
+    public static final AllowableValue CACHE_IMPLEMENTATION_SIMPLE = new AllowableValue("Simple", "Simple",
+        "All entries are guarded by a single lock and evictions are chosen exactly according to the Eviction Strategy");
+    public static final AllowableValue CACHE_IMPLEMENTATION_SHARDED = new AllowableValue("Sharded", "Sharded",
+        "Entries are split across several independently locked shards so that concurrent clients do not block one another. "
+            + "Each shard evicts its own entries, so the entry evicted is the best candidate of its shard rather than of the whole cache.");
+
+    public static final PropertyDescriptor CACHE_IMPLEMENTATION = new PropertyDescriptor.Builder()
+        .name("Cache Implementation")
+        .description("Determines how the cache is organized in memory. The Sharded implementation scales better with many concurrent clients, "
+            + "at the cost of evictions only approximating the Eviction Strategy.")
+        .required(true)
+        .allowableValues(CACHE_IMPLEMENTATION_SIMPLE, CACHE_IMPLEMENTATION_SHARDED)
+        .defaultValue(CACHE_IMPLEMENTATION_SIMPLE.getValue())
+        .build();
+
+    @Override
+    protected List<PropertyDescriptor> getSupportedPropertyDescriptors() {
+        final List<PropertyDescriptor> properties = super.getSupportedPropertyDescriptors();
+        properties.add(CACHE_IMPLEMENTATION);
+        return properties;
+    }
+
     @Override
     protected CacheServer createCacheServer(final ConfigurationContext context) {
         final int port = context.getProperty(PORT).asInteger();
@@ -43,6 +68,7 @@ public class DistributedMapCacheServer extends DistributedCacheServer {
         final SSLContextService sslContextService = context.getProperty(SSL_CONTEXT_SERVICE).asControllerService(SSLContextService.class);
         final int maxSize = context.getProperty(MAX_CACHE_ENTRIES).asInteger();
         final String evictionPolicyName = context.getProperty(EVICTION_POLICY).getValue();
+        final boolean sharded = CACHE_IMPLEMENTATION_SHARDED.getValue().equals(context.getProperty(CACHE_IMPLEMENTATION).getValue());
 
         final SSLContext sslContext;
         if (sslContextService == null) {
@@ -69,7 +95,7 @@ public class DistributedMapCacheServer extends DistributedCacheServer {
         try {
             final File persistenceDir = persistencePath == null ? null : new File(persistencePath);
 
-            return new MapCacheServer(getIdentifier(), sslContext, port, maxSize, evictionPolicy, persistenceDir);
+            return new MapCacheServer(getIdentifier(), sslContext, port, maxSize, evictionPolicy, persistenceDir, sharded);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
@@ -22,27 +22,44 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.net.ssl.SSLContext;
 
 import org.apache.nifi.distributed.cache.server.AbstractCacheServer;
 import org.apache.nifi.distributed.cache.server.EvictionPolicy;
+import org.apache.nifi.remote.StandardVersionNegotiator;
+import org.apache.nifi.remote.VersionNegotiator;
 import org.apache.nifi.stream.io.DataOutputStream;
 
 public class MapCacheServer extends AbstractCacheServer {
 
+    // version 2 adds the getAll, putAll, getAndPutIfAbsentAll and removeAll actions
+    private static final int BATCH_PROTOCOL_VERSION = 2;
+
+    // the most entries that a single batch request may contain; the count is sent by the client, so it must not be trusted
+    private static final int MAX_BATCH_ENTRIES = 1_000_000;
+    // the most values for which space is allocated before they have actually been read
+    private static final int MAX_INITIAL_BATCH_CAPACITY = 1024;
+
     private final MapCache cache;
 
     public MapCacheServer(final String identifier, final SSLContext sslContext, final int port, final int maxSize,
             final EvictionPolicy evictionPolicy, final File persistencePath) throws IOException {
+        this(identifier, sslContext, port, maxSize, evictionPolicy, persistencePath, false);
+    }
+
+    public MapCacheServer(final String identifier, final SSLContext sslContext, final int port, final int maxSize,
+            final EvictionPolicy evictionPolicy, final File persistencePath, final boolean sharded) throws IOException {
         super(identifier, sslContext, port);
 
-        final MapCache simpleCache = new SimpleMapCache(identifier, maxSize, evictionPolicy);
+        final MapCache inMemoryCache = sharded ? new ShardedMapCache(identifier, maxSize, evictionPolicy) : new SimpleMapCache(identifier, maxSize, evictionPolicy);
 
         if (persistencePath == null) {
-            this.cache = simpleCache;
+            this.cache = inMemoryCache;
         } else {
-            final PersistentMapCache persistentCache = new PersistentMapCache(identifier, persistencePath, simpleCache);
+            final PersistentMapCache persistentCache = new PersistentMapCache(identifier, persistencePath, inMemoryCache);
             persistentCache.restore();
             this.cache = persistentCache;
         }
@@ -116,6 +133,49 @@ public class MapCacheServer extends AbstractCacheServer {
                 dos.writeBoolean(removed);
                 break;
             }
+            case "getAll": {
+                requireVersion(action, version, BATCH_PROTOCOL_VERSION);
+
+                // read the whole request before responding, so that the client is never blocked writing while we write
+                final List<byte[]> keys = readValues(dis, 1);
+                for (final byte[] key : keys) {
+                    writeValue(cache.get(ByteBuffer.wrap(key)), dos);
+                }
+                break;
+            }
+            case "putAll": {
+                requireVersion(action, version, BATCH_PROTOCOL_VERSION);
+
+                final List<byte[]> entries = readValues(dis, 2);
+                for (int i = 0; i < entries.size(); i += 2) {
+                    cache.put(ByteBuffer.wrap(entries.get(i)), ByteBuffer.wrap(entries.get(i + 1)));
+                }
+                dos.writeBoolean(true);
+                break;
+            }
+            case "getAndPutIfAbsentAll": {
+                requireVersion(action, version, BATCH_PROTOCOL_VERSION);
+
+                final List<byte[]> entries = readValues(dis, 2);
+                for (int i = 0; i < entries.size(); i += 2) {
+                    final MapPutResult putResult = cache.putIfAbsent(ByteBuffer.wrap(entries.get(i)), ByteBuffer.wrap(entries.get(i + 1)));
+                    writeValue(putResult.isSuccessful() ? null : putResult.getExistingValue(), dos);
+                }
+                break;
+            }
+            case "removeAll": {
+                requireVersion(action, version, BATCH_PROTOCOL_VERSION);
+
+                final List<byte[]> keys = readValues(dis, 1);
+                long removed = 0L;
+                for (final byte[] key : keys) {
+                    if (cache.remove(ByteBuffer.wrap(key)) != null) {
+                        removed++;
+                    }
+                }
+                dos.writeLong(removed);
+                break;
+            }
             default: {
                 throw new IOException("Illegal Request");
             }
@@ -127,6 +187,17 @@ public class MapCacheServer extends AbstractCacheServer {
         return true;
     }
 
+    @Override
+    protected VersionNegotiator createVersionNegotiator() {
+        return new StandardVersionNegotiator(BATCH_PROTOCOL_VERSION, 1);
+    }
+
+    private void requireVersion(final String action, final int version, final int requiredVersion) throws IOException {
+        if (version < requiredVersion) {
+            throw new IOException("Illegal Request: " + action + " requires version " + requiredVersion + " of the protocol but version " + version + " was negotiated");
+        }
+    }
+
     @Override
     public void stop() throws IOException {
         try {
@@ -150,4 +221,32 @@ public class MapCacheServer extends AbstractCacheServer {
         return buffer;
     }
 
+    /**
+     * Reads the number of entries in a request followed by the values of each entry, i.e. a key or a key and a value.
+     * Throws an IOException, which closes the connection, if the number of entries is negative or exceeds {@link #MAX_BATCH_ENTRIES}.
+     */
+    private List<byte[]> readValues(final DataInputStream dis, final int valuesPerEntry) throws IOException {
+        final int numEntries = dis.readInt();
+        if (numEntries < 0 || numEntries > MAX_BATCH_ENTRIES) {
+            throw new IOException("Illegal Request: batch contains " + numEntries + " entries but must contain between 0 and " + MAX_BATCH_ENTRIES);
+        }
+
+        final int numValues = numEntries * valuesPerEntry;
+        final List<byte[]> values = new ArrayList<>(Math.min(numValues, MAX_INITIAL_BATCH_CAPACITY));
+        for (int i = 0; i < numValues; i++) {
+            values.add(readValue(dis));
+        }
+        return values;
+    }
+
+    private void writeValue(final ByteBuffer value, final DataOutputStream dos) throws IOException {
+        if (value == null) {
+            dos.writeInt(0);
+        } else {
+            final byte[] byteArray = value.array();
+            dos.writeInt(byteArray.length);
+            dos.write(byteArray);
+        }
+    }
+
 }
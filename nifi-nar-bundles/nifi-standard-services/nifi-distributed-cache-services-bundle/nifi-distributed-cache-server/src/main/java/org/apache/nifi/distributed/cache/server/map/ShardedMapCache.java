@@ -0,0 +1,438 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.nifi.distributed.cache.server.EvictionPolicy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A MapCache that splits its entries across a number of shards, each guarded by its own lock, so that requests for
+ * different keys from different clients do not contend with one another. Unlike {@link SimpleMapCache}, which keeps
+ * every entry in a single sorted structure, each shard tracks eviction order with linked lists so that recording a hit
+ * and choosing an entry to evict are constant-time operations.
+ * </p>
+ *
+ * <p>
+ * Eviction is approximate in two ways. First, the maximum number of entries is divided evenly across the shards and an
+ * entry is evicted from the shard that the new key belongs to, so the entry evicted is the least desirable entry of that
+ * shard rather than of the whole cache. Second, for the LFU policy, entries with the same hit count are evicted in the order
+ * in which they reached that hit count rather than in the order in which they were created. Caches that are too small to
+ * give each shard at least {@link #MIN_ENTRIES_PER_SHARD} entries use fewer shards, down to a single shard.
+ * </p>
+ */
+public class ShardedMapCache implements MapCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedMapCache.class);
+
+    static final int MIN_ENTRIES_PER_SHARD = 256;
+
+    private final Shard[] shards;
+    private final int shardMask;
+
+    private final String serviceIdentifier;
+
+    public ShardedMapCache(final String serviceIdentifier, final int maxSize, final EvictionPolicy evictionPolicy) {
+        this(serviceIdentifier, maxSize, evictionPolicy, getDefaultShardCount(maxSize));
+    }
+
+    /**
+     * @param serviceIdentifier the identifier of the service that owns the cache
+     * @param maxSize the maximum number of entries that the cache can hold
+     * @param evictionPolicy the policy that determines which entries are evicted to make room for new entries
+     * @param shardCount the number of shards, which is rounded down to a power of two and reduced if necessary so that
+     *            every shard can hold at least one entry
+     */
+    public ShardedMapCache(final String serviceIdentifier, final int maxSize, final EvictionPolicy evictionPolicy, final int shardCount) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum Cache Entries must be at least 1");
+        }
+
+        final int numShards = Integer.highestOneBit(Math.max(1, Math.min(shardCount, maxSize)));
+        this.shards = new Shard[numShards];
+        this.shardMask = numShards - 1;
+        for (int i = 0; i < numShards; i++) {
+            // spread any remainder across the first shards so that the capacities add up to exactly maxSize
+            final int capacity = maxSize / numShards + (i < maxSize % numShards ? 1 : 0);
+            shards[i] = new Shard(capacity, createEvictionQueue(evictionPolicy));
+        }
+
+        this.serviceIdentifier = serviceIdentifier;
+    }
+
+    private static int getDefaultShardCount(final int maxSize) {
+        final int concurrency = Runtime.getRuntime().availableProcessors() * 4;
+        return Math.min(concurrency, maxSize / MIN_ENTRIES_PER_SHARD);
+    }
+
+    private static EvictionQueue createEvictionQueue(final EvictionPolicy evictionPolicy) {
+        switch (evictionPolicy) {
+            case FIFO:
+                return new FifoEvictionQueue();
+            case LRU:
+                return new LruEvictionQueue();
+            case LFU:
+                return new LfuEvictionQueue();
+            default:
+                throw new IllegalArgumentException("Illegal Eviction Policy: " + evictionPolicy);
+        }
+    }
+
+    int getShardCount() {
+        return shards.length;
+    }
+
+    private Shard getShard(final ByteBuffer key) {
+        final int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedMapCache[service id=" + serviceIdentifier + ", shards=" + shards.length + "]";
+    }
+
+    @Override
+    public MapPutResult putIfAbsent(final ByteBuffer key, final ByteBuffer value) {
+        final Shard shard = getShard(key);
+        shard.lock.lock();
+        try {
+            final Entry entry = shard.entries.get(key);
+            if (entry == null) {
+                final Entry evicted = shard.evict();
+                shard.add(new Entry(key, value));
+
+                if (evicted == null) {
+                    return new MapPutResult(true, key, value, null, null, null);
+                } else {
+                    return new MapPutResult(true, key, value, null, evicted.key, evicted.value);
+                }
+            }
+
+            shard.evictionQueue.hit(entry);
+            return new MapPutResult(false, key, value, entry.value, null, null);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public MapPutResult put(final ByteBuffer key, final ByteBuffer value) {
+        final Shard shard = getShard(key);
+        shard.lock.lock();
+        try {
+            // replacing a value does not change the number of entries, so there is only a need to evict for new keys
+            final Entry existing = shard.remove(key);
+            final Entry evicted = (existing == null) ? shard.evict() : null;
+            shard.add(new Entry(key, value));
+
+            final ByteBuffer existingValue = (existing == null) ? null : existing.value;
+            final ByteBuffer evictedKey = (evicted == null) ? null : evicted.key;
+            final ByteBuffer evictedValue = (evicted == null) ? null : evicted.value;
+
+            return new MapPutResult(true, key, value, existingValue, evictedKey, evictedValue);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(final ByteBuffer key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public ByteBuffer get(final ByteBuffer key) {
+        final Shard shard = getShard(key);
+        shard.lock.lock();
+        try {
+            final Entry entry = shard.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+
+            shard.evictionQueue.hit(entry);
+            return entry.value;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public ByteBuffer remove(final ByteBuffer key) throws IOException {
+        final Shard shard = getShard(key);
+        shard.lock.lock();
+        try {
+            final Entry entry = shard.remove(key);
+            return (entry == null) ? null : entry.value;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+    }
+
+    private static class Shard {
+        private final Lock lock = new ReentrantLock();
+        private final Map<ByteBuffer, Entry> entries = new HashMap<>();
+        private final EvictionQueue evictionQueue;
+        private final int capacity;
+
+        Shard(final int capacity, final EvictionQueue evictionQueue) {
+            this.capacity = capacity;
+            this.evictionQueue = evictionQueue;
+        }
+
+        // all of the following methods must only be called while the lock is held
+        void add(final Entry entry) {
+            entries.put(entry.key, entry);
+            evictionQueue.add(entry);
+        }
+
+        Entry remove(final ByteBuffer key) {
+            final Entry entry = entries.remove(key);
+            if (entry != null) {
+                evictionQueue.remove(entry);
+            }
+            return entry;
+        }
+
+        Entry evict() {
+            if (entries.size() < capacity) {
+                return null;
+            }
+
+            final Entry toEvict = evictionQueue.eldest();
+            remove(toEvict.key);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("Evicting value {} from cache", new String(toEvict.value.array(), StandardCharsets.UTF_8));
+            }
+
+            return toEvict;
+        }
+    }
+
+    private static class Entry {
+        private final ByteBuffer key;
+        private final ByteBuffer value;
+
+        // links within the EntryList that currently holds the entry
+        private Entry previous;
+        private Entry next;
+
+        // only used by the LFU policy
+        private FrequencyBucket bucket;
+
+        Entry(final ByteBuffer key, final ByteBuffer value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A doubly-linked list of entries, ordered from the eldest to the most recently appended
+     */
+    private static class EntryList {
+        private Entry head;
+        private Entry tail;
+
+        void append(final Entry entry) {
+            entry.previous = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void unlink(final Entry entry) {
+            if (entry.previous == null) {
+                head = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+
+            if (entry.next == null) {
+                tail = entry.previous;
+            } else {
+                entry.next.previous = entry.previous;
+            }
+
+            entry.previous = null;
+            entry.next = null;
+        }
+
+        Entry first() {
+            return head;
+        }
+
+        boolean isEmpty() {
+            return head == null;
+        }
+    }
+
+    private interface EvictionQueue {
+        void add(Entry entry);
+
+        void hit(Entry entry);
+
+        void remove(Entry entry);
+
+        /**
+         * @return the entry that should be evicted next, or <code>null</code> if the queue is empty
+         */
+        Entry eldest();
+    }
+
+    private static class FifoEvictionQueue implements EvictionQueue {
+        private final EntryList entries = new EntryList();
+
+        @Override
+        public void add(final Entry entry) {
+            entries.append(entry);
+        }
+
+        @Override
+        public void hit(final Entry entry) {
+        }
+
+        @Override
+        public void remove(final Entry entry) {
+            entries.unlink(entry);
+        }
+
+        @Override
+        public Entry eldest() {
+            return entries.first();
+        }
+    }
+
+    private static class LruEvictionQueue extends FifoEvictionQueue {
+        @Override
+        public void hit(final Entry entry) {
+            remove(entry);
+            add(entry);
+        }
+    }
+
+    private static class FrequencyBucket extends EntryList {
+        private final int hitCount;
+        private FrequencyBucket previousBucket;
+        private FrequencyBucket nextBucket;
+
+        FrequencyBucket(final int hitCount) {
+            this.hitCount = hitCount;
+        }
+    }
+
+    /**
+     * Keeps a list of buckets in ascending order of hit count, each holding the entries with that hit count, so that
+     * a hit moves an entry to the neighboring bucket and the entry to evict is always at the head of the first bucket.
+     */
+    private static class LfuEvictionQueue implements EvictionQueue {
+        private FrequencyBucket lowest;
+
+        @Override
+        public void add(final Entry entry) {
+            if (lowest == null || lowest.hitCount != 0) {
+                insertAfter(null, new FrequencyBucket(0));
+            }
+
+            lowest.append(entry);
+            entry.bucket = lowest;
+        }
+
+        @Override
+        public void hit(final Entry entry) {
+            final FrequencyBucket bucket = entry.bucket;
+            if (bucket.hitCount == Integer.MAX_VALUE) {
+                bucket.unlink(entry);
+                bucket.append(entry);
+                return;
+            }
+
+            FrequencyBucket next = bucket.nextBucket;
+            if (next == null || next.hitCount != bucket.hitCount + 1) {
+                next = new FrequencyBucket(bucket.hitCount + 1);
+                insertAfter(bucket, next);
+            }
+
+            remove(entry);
+            next.append(entry);
+            entry.bucket = next;
+        }
+
+        @Override
+        public void remove(final Entry entry) {
+            final FrequencyBucket bucket = entry.bucket;
+            bucket.unlink(entry);
+            entry.bucket = null;
+
+            if (bucket.isEmpty()) {
+                unlink(bucket);
+            }
+        }
+
+        @Override
+        public Entry eldest() {
+            return lowest == null ? null : lowest.first();
+        }
+
+        private void insertAfter(final FrequencyBucket previous, final FrequencyBucket bucket) {
+            final FrequencyBucket next = (previous == null) ? lowest : previous.nextBucket;
+            bucket.previousBucket = previous;
+            bucket.nextBucket = next;
+
+            if (previous == null) {
+                lowest = bucket;
+            } else {
+                previous.nextBucket = bucket;
+            }
+
+            if (next != null) {
+                next.previousBucket = bucket;
+            }
+        }
+
+        private void unlink(final FrequencyBucket bucket) {
+            if (bucket.previousBucket == null) {
+                lowest = bucket.nextBucket;
+            } else {
+                bucket.previousBucket.nextBucket = bucket.nextBucket;
+            }
+
+            if (bucket.nextBucket != null) {
+                bucket.nextBucket.previousBucket = bucket.previousBucket;
+            }
+        }
+    }
+}
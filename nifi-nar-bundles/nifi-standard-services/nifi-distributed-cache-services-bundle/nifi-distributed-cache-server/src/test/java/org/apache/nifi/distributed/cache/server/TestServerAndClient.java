@@ -21,14 +21,20 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.ConnectException;
+import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.SerializationException;
 import org.apache.commons.lang3.SystemUtils;
@@ -38,6 +44,7 @@ import org.apache.nifi.distributed.cache.client.DistributedMapCacheClientService
 import org.apache.nifi.distributed.cache.client.DistributedSetCacheClientService;
 import org.apache.nifi.distributed.cache.client.Serializer;
 import org.apache.nifi.distributed.cache.client.exception.DeserializationException;
+import org.apache.nifi.distributed.cache.protocol.ProtocolHandshake;
 import org.apache.nifi.distributed.cache.server.map.DistributedMapCacheServer;
 import org.apache.nifi.processor.Processor;
 import org.apache.nifi.processor.util.StandardValidators;
@@ -392,6 +399,114 @@ public class TestServerAndClient {
         LOGGER.debug("end testNonPersistentMapServerAndClient");
     }
 
+    @Test
+    public void testMapServerAndClientBatchOperations() throws InitializationException, IOException {
+        /**
+         * This bypasses the test for build environments in OS X running Java 1.8 due to a JVM bug
+         * See:  https://issues.apache.org/jira/browse/NIFI-437
+         */
+        Assume.assumeFalse("test is skipped due to build environment being OS X with JDK 1.8. See https://issues.apache.org/jira/browse/NIFI-437",
+            SystemUtils.IS_OS_MAC && SystemUtils.IS_JAVA_1_8);
+
+        LOGGER.info("Testing " + Thread.currentThread().getStackTrace()[1].getMethodName());
+
+        // Create server
+        final DistributedMapCacheServer server = new MapServer();
+        final TestRunner runner = TestRunners.newTestRunner(Mockito.mock(Processor.class));
+        runner.addControllerService("server", server);
+        runner.enableControllerService(server);
+
+        final DistributedMapCacheClientService client = new DistributedMapCacheClientService();
+        final MockControllerServiceInitializationContext clientInitContext = new MockControllerServiceInitializationContext(client, "client");
+        client.initialize(clientInitContext);
+
+        final Map<PropertyDescriptor, String> clientProperties = new HashMap<>();
+        clientProperties.put(DistributedMapCacheClientService.HOSTNAME, "localhost");
+        clientProperties.put(DistributedMapCacheClientService.PORT, String.valueOf(server.getPort()));
+        clientProperties.put(DistributedMapCacheClientService.COMMUNICATIONS_TIMEOUT, "360 secs");
+        final MockConfigurationContext clientContext = new MockConfigurationContext(clientProperties, clientInitContext.getControllerServiceLookup());
+        client.cacheConfig(clientContext);
+        final Serializer<String> valueSerializer = new StringSerializer();
+        final Serializer<String> keySerializer = new StringSerializer();
+        final Deserializer<String> deserializer = new StringDeserializer();
+
+        try {
+            final Map<String, String> entries = new HashMap<>();
+            entries.put("key1", "value1");
+            entries.put("key2", "value2");
+            client.putAll(entries, keySerializer, valueSerializer);
+
+            final Set<String> keys = new HashSet<>(Arrays.asList("key1", "key2", "key3"));
+            final Map<String, String> values = client.getAll(keys, keySerializer, deserializer);
+            assertEquals(3, values.size());
+            assertEquals("value1", values.get("key1"));
+            assertEquals("value2", values.get("key2"));
+            assertEquals(null, values.get("key3"));
+
+            final Map<String, String> newEntries = new HashMap<>();
+            newEntries.put("key2", "other");
+            newEntries.put("key3", "value3");
+            final Map<String, String> existingValues = client.getAndPutIfAbsentAll(newEntries, keySerializer, valueSerializer, deserializer);
+            assertEquals("value2", existingValues.get("key2"));
+            assertEquals(null, existingValues.get("key3"));
+            assertEquals("value2", client.get("key2", keySerializer, deserializer));
+            assertEquals("value3", client.get("key3", keySerializer, deserializer));
+
+            assertEquals(2L, client.removeAll(new HashSet<>(Arrays.asList("key1", "key3", "key4")), keySerializer));
+            assertFalse(client.containsKey("key1", keySerializer));
+            assertTrue(client.containsKey("key2", keySerializer));
+            assertFalse(client.containsKey("key3", keySerializer));
+
+            // single-key requests continue to work on a connection that has been used for batches
+            assertTrue(client.putIfAbsent("key4", "value4", keySerializer, valueSerializer));
+        } finally {
+            client.close();
+            server.shutdownServer();
+        }
+    }
+
+    @Test
+    public void testMapServerClosesConnectionOnIllegalBatchSize() throws InitializationException, IOException {
+        /**
+         * This bypasses the test for build environments in OS X running Java 1.8 due to a JVM bug
+         * See:  https://issues.apache.org/jira/browse/NIFI-437
+         */
+        Assume.assumeFalse("test is skipped due to build environment being OS X with JDK 1.8. See https://issues.apache.org/jira/browse/NIFI-437",
+            SystemUtils.IS_OS_MAC && SystemUtils.IS_JAVA_1_8);
+
+        LOGGER.info("Testing " + Thread.currentThread().getStackTrace()[1].getMethodName());
+
+        // Create server
+        final DistributedMapCacheServer server = new MapServer();
+        final TestRunner runner = TestRunners.newTestRunner(Mockito.mock(Processor.class));
+        runner.addControllerService("server", server);
+        runner.enableControllerService(server);
+
+        try {
+            for (final int batchSize : new int[] {-1, Integer.MAX_VALUE}) {
+                try (final Socket socket = new Socket("localhost", server.getPort())) {
+                    socket.setSoTimeout(30000);
+                    final DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
+                    final DataInputStream dis = new DataInputStream(socket.getInputStream());
+
+                    dos.write(ProtocolHandshake.MAGIC_HEADER);
+                    dos.writeInt(2);
+                    dos.flush();
+                    assertEquals(ProtocolHandshake.RESOURCE_OK, dis.read());
+
+                    dos.writeUTF("getAll");
+                    dos.writeInt(batchSize);
+                    dos.flush();
+
+                    // the server must close the connection rather than attempt to allocate or read the batch
+                    assertEquals(-1, dis.read());
+                }
+            }
+        } finally {
+            server.shutdownServer();
+        }
+    }
+
     @Test
     public void testClientTermination() throws InitializationException, IOException, InterruptedException {
 
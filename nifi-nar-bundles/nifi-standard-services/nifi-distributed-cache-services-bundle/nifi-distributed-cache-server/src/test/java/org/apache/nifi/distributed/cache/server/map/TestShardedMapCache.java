@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.distributed.cache.server.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.nifi.distributed.cache.server.EvictionPolicy;
+import org.junit.Test;
+
+public class TestShardedMapCache {
+
+    private static ByteBuffer toBuffer(final String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toString(final ByteBuffer buffer) {
+        return buffer == null ? null : new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    private static String put(final MapCache cache, final String key) throws IOException {
+        return toString(cache.put(toBuffer(key), toBuffer(key + "-value")).getEvictedKey());
+    }
+
+    @Test
+    public void testPutGetAndRemove() throws IOException {
+        final ShardedMapCache cache = new ShardedMapCache("id", 1000, EvictionPolicy.LFU, 4);
+        assertEquals(4, cache.getShardCount());
+
+        assertTrue(cache.putIfAbsent(toBuffer("a"), toBuffer("1")).isSuccessful());
+        final MapPutResult notAdded = cache.putIfAbsent(toBuffer("a"), toBuffer("2"));
+        assertFalse(notAdded.isSuccessful());
+        assertEquals("1", toString(notAdded.getExistingValue()));
+
+        final MapPutResult replaced = cache.put(toBuffer("a"), toBuffer("3"));
+        assertEquals("1", toString(replaced.getExistingValue()));
+        assertNull(replaced.getEvictedKey());
+        assertEquals("3", toString(cache.get(toBuffer("a"))));
+        assertTrue(cache.containsKey(toBuffer("a")));
+
+        assertEquals("3", toString(cache.remove(toBuffer("a"))));
+        assertNull(cache.remove(toBuffer("a")));
+        assertNull(cache.get(toBuffer("a")));
+        assertFalse(cache.containsKey(toBuffer("a")));
+    }
+
+    @Test
+    public void testShardCountLimitedBySize() {
+        assertEquals(1, new ShardedMapCache("id", 3, EvictionPolicy.LRU).getShardCount());
+        assertEquals(2, new ShardedMapCache("id", 2, EvictionPolicy.LRU, 16).getShardCount());
+        assertEquals(8, new ShardedMapCache("id", 100, EvictionPolicy.LRU, 12).getShardCount());
+    }
+
+    @Test
+    public void testFifoEviction() throws IOException {
+        final MapCache cache = new ShardedMapCache("id", 3, EvictionPolicy.FIFO, 1);
+        assertNull(put(cache, "a"));
+        assertNull(put(cache, "b"));
+        assertNull(put(cache, "c"));
+
+        cache.get(toBuffer("a"));
+        assertEquals("a", put(cache, "d"));
+        assertEquals("b", put(cache, "e"));
+    }
+
+    @Test
+    public void testLruEviction() throws IOException {
+        final MapCache cache = new ShardedMapCache("id", 3, EvictionPolicy.LRU, 1);
+        put(cache, "a");
+        put(cache, "b");
+        put(cache, "c");
+
+        cache.get(toBuffer("a"));
+        assertEquals("b", put(cache, "d"));
+        cache.containsKey(toBuffer("c"));
+        assertEquals("a", put(cache, "e"));
+        assertEquals("d", put(cache, "f"));
+    }
+
+    @Test
+    public void testLfuEviction() throws IOException {
+        final MapCache cache = new ShardedMapCache("id", 3, EvictionPolicy.LFU, 1);
+        put(cache, "a");
+        put(cache, "b");
+        put(cache, "c");
+
+        cache.get(toBuffer("a"));
+        cache.get(toBuffer("a"));
+        cache.get(toBuffer("b"));
+        cache.putIfAbsent(toBuffer("c"), toBuffer("c-value"));
+
+        // b and c both have 1 hit, but b reached its hit count first
+        assertEquals("b", put(cache, "d"));
+        assertEquals("d", put(cache, "e"));
+        cache.get(toBuffer("e"));
+        assertEquals("c", put(cache, "f"));
+        cache.remove(toBuffer("f"));
+        assertNull(put(cache, "g"));
+        assertEquals("g", put(cache, "h"));
+        assertEquals("a-value", toString(cache.get(toBuffer("a"))));
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentAccess() throws Exception {
+        final int maxSize = 1000;
+        for (final EvictionPolicy evictionPolicy : EvictionPolicy.values()) {
+            final MapCache cache = new ShardedMapCache("id", maxSize, evictionPolicy, 8);
+
+            final List<Thread> threads = new ArrayList<>();
+            final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+            for (int i = 0; i < 8; i++) {
+                final Random random = new Random(i);
+                threads.add(new Thread(() -> {
+                    try {
+                        // key space twice the cache size so that roughly half of the puts cause an eviction
+                        for (int j = 0; j < 20000; j++) {
+                            final ByteBuffer key = toBuffer(String.valueOf(random.nextInt(maxSize * 2)));
+                            if (j % 4 == 0) {
+                                cache.put(key, key);
+                            } else if (j % 4 == 1) {
+                                cache.putIfAbsent(key, key);
+                            } else if (j % 16 == 2) {
+                                cache.remove(key);
+                            } else {
+                                final ByteBuffer value = cache.get(key);
+                                if (value != null && !value.equals(key)) {
+                                    throw new AssertionError("Key " + toString(key) + " mapped to " + toString(value));
+                                }
+                            }
+                        }
+                    } catch (final Throwable t) {
+                        failures.add(t);
+                    }
+                }));
+            }
+
+            for (final Thread thread : threads) {
+                thread.start();
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(Collections.emptyList(), failures);
+
+            int entryCount = 0;
+            for (int i = 0; i < maxSize * 2; i++) {
+                final ByteBuffer key = toBuffer(String.valueOf(i));
+                final ByteBuffer value = cache.get(key);
+                if (value != null) {
+                    assertEquals(toString(key), toString(value));
+                    entryCount++;
+                }
+            }
+            assertTrue(evictionPolicy + " cache holds " + entryCount + " entries", entryCount > 0 && entryCount <= maxSize);
+        }
+    }
+}